@@ -1,5 +1,6 @@
 package com.doc;
 
+import com.doc.cache.ReferenceDataService;
 import com.doc.entity.client.PaymentType;
 import com.doc.entity.document.DocumentStatus;
 import com.doc.entity.milestone.MilestoneStatus;
@@ -44,7 +45,8 @@ public class DocumentationApplication {
 			MilestoneStatusRepository milestoneStatusRepository,
 			DocumentStatusRepository documentStatusRepository,
 			ProjectStatusRepository projectStatusRepository,
-			PaymentTypeRepository paymentTypeRepository
+			PaymentTypeRepository paymentTypeRepository,
+			ReferenceDataService referenceDataService
 	) {
 		return args -> {
 
@@ -201,6 +203,10 @@ public class DocumentationApplication {
 					4L,
 					"Purchase Order Payment"
 			);
+
+			// Seeding bypasses the admin services, so drop what readers cached meanwhile
+			referenceDataService.evictMilestoneStatuses();
+			referenceDataService.evictDocumentStatuses();
 		};
 	}
 
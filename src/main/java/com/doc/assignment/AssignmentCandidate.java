@@ -0,0 +1,72 @@
+package com.doc.assignment;
+
+import lombok.Getter;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * In-memory assignment state of one user for one product.
+ *
+ * A single instance is shared by every department pool the user belongs to,
+ * so a counter change is visible to all of them at once. Instances are only
+ * mutated by {@link AssignmentCandidateIndex} while it holds its lock.
+ */
+@Getter
+public class AssignmentCandidate {
+
+    private final Long userId;
+    private final Long productId;
+    private String fullName;
+    private double rating;
+    private int bucketSize;
+
+    /** Open (not yet completed) assignments of this user for this product. */
+    private int openAssignments;
+
+    /** Last time an assignment was given to this user for this product. */
+    private Date lastAssignedAt;
+
+    /** Department pools currently holding this candidate. */
+    final Set<AssignmentCandidateIndex.PoolKey> pools = new HashSet<>();
+
+    AssignmentCandidate(Long userId, Long productId, String fullName, Double rating,
+                        int bucketSize, int openAssignments, Date lastAssignedAt) {
+        this.userId = userId;
+        this.productId = productId;
+        this.fullName = fullName != null ? fullName : "";
+        this.rating = rating != null ? rating : 0.0;
+        this.bucketSize = bucketSize;
+        this.openAssignments = openAssignments;
+        this.lastAssignedAt = lastAssignedAt != null ? lastAssignedAt : new Date(0);
+    }
+
+    /**
+     * Users with bucket size 0 are disabled for auto-assignment.
+     */
+    public boolean isEnabled() {
+        return bucketSize > 0;
+    }
+
+    public boolean hasCapacity() {
+        return bucketSize > 0 && openAssignments < bucketSize;
+    }
+
+    /**
+     * Takes over the mapping details of a reload (rating, bucket size, name).
+     */
+    void setProfile(String fullName, Double rating, int bucketSize) {
+        this.fullName = fullName != null ? fullName : "";
+        this.rating = rating != null ? rating : 0.0;
+        this.bucketSize = bucketSize;
+    }
+
+    void setOpenAssignments(int openAssignments) {
+        this.openAssignments = Math.max(0, openAssignments);
+    }
+
+    void setLastAssignedAt(Date lastAssignedAt) {
+        this.lastAssignedAt = lastAssignedAt;
+    }
+}
@@ -0,0 +1,475 @@
+package com.doc.assignment;
+
+import com.doc.entity.user.UserProductMap;
+import com.doc.presence.PresenceRegistry;
+import com.doc.repository.UserPerformanceCountRepository;
+import com.doc.repository.UserProductMapRepository;
+import com.doc.repository.projection.OpenAssignmentCountProjection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Assignment-candidate index keyed by (departmentId, productId).
+ *
+ * Each pool holds the mapped, active, non-manager users of a department for a
+ * product together with their rating, bucket size, open-assignment count
+ * and a round-robin cursor; online state comes from the {@link PresenceRegistry}.
+ * A pool is loaded from the database with two set-based queries the first
+ * time it is needed and afterwards kept current by assignment and completion
+ * events, so selecting a user needs no database round trip.
+ *
+ * Candidates are kept in ordered sets (by name for round-robin, by load and
+ * by overflow fairness), so a pick is a tree lookup followed by a walk that
+ * only skips candidates rejected by the caller's filter.
+ *
+ * The index is per node. Local assignments and releases update it as they
+ * happen; assignments made on other nodes are picked up by {@link #reconcileAll},
+ * which re-reads the stored counts of the loaded pools every
+ * {@code assignment.candidate-index.reconcile-interval-ms}. Every pool is
+ * reloaded after {@code assignment.candidate-index.ttl-seconds} so mapping and
+ * user changes made elsewhere (and other nodes' invalidations) are seen within
+ * that time. Pools are loaded outside the index lock, so a cold pool does not
+ * hold up picks from warm ones.
+ *
+ * If a transaction that changed a counter rolls back, the affected product is
+ * evicted and reloaded from the database on next use.
+ */
+@Component
+public class AssignmentCandidateIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(AssignmentCandidateIndex.class);
+
+    private static final Comparator<AssignmentCandidate> BY_NAME =
+            Comparator.comparing(AssignmentCandidate::getFullName)
+                    .thenComparing(AssignmentCandidate::getUserId);
+
+    /** Least loaded first, higher rating breaks ties. */
+    private static final Comparator<AssignmentCandidate> BY_LOAD =
+            Comparator.comparingInt(AssignmentCandidate::getOpenAssignments)
+                    .thenComparing(AssignmentCandidate::getRating, Comparator.reverseOrder())
+                    .thenComparing(BY_NAME);
+
+    /** Highest rating first, then the user who waited longest since the last assignment. */
+    private static final Comparator<AssignmentCandidate> BY_OVERFLOW =
+            Comparator.comparing(AssignmentCandidate::getRating, Comparator.reverseOrder())
+                    .thenComparing(AssignmentCandidate::getLastAssignedAt)
+                    .thenComparing(BY_NAME);
+
+    private final UserProductMapRepository userProductMapRepository;
+    private final UserPerformanceCountRepository userPerformanceCountRepository;
+    private final UserPerformanceCounter userPerformanceCounter;
+    private final PresenceRegistry presenceRegistry;
+    private final long ttlMillis;
+
+    private final Map<PoolKey, CandidatePool> pools = new HashMap<>();
+    private final Map<CandidateKey, AssignmentCandidate> candidates = new HashMap<>();
+
+    public AssignmentCandidateIndex(
+            UserProductMapRepository userProductMapRepository,
+            UserPerformanceCountRepository userPerformanceCountRepository,
+            UserPerformanceCounter userPerformanceCounter,
+            PresenceRegistry presenceRegistry,
+            @Value("${assignment.candidate-index.ttl-seconds:60}") long ttlSeconds
+    ) {
+        this.userProductMapRepository = userProductMapRepository;
+        this.userPerformanceCountRepository = userPerformanceCountRepository;
+        this.userPerformanceCounter = userPerformanceCounter;
+        this.presenceRegistry = presenceRegistry;
+        this.ttlMillis = ttlSeconds * 1000L;
+    }
+
+    // ====================== SELECTION ======================
+
+    /**
+     * Returns the candidates of a pool ordered by name.
+     */
+    public List<AssignmentCandidate> getCandidates(Long departmentId, Long productId) {
+        CandidatePool pool = pool(departmentId, productId);
+        synchronized (this) {
+            return new ArrayList<>(pool.byName);
+        }
+    }
+
+    /**
+     * Next candidate after the pool's round-robin cursor that passes the filter.
+     * Advances the cursor when a candidate is found.
+     */
+    public Optional<AssignmentCandidate> nextRoundRobin(Long departmentId, Long productId,
+                                                        Predicate<AssignmentCandidate> filter) {
+        CandidatePool pool = pool(departmentId, productId);
+        synchronized (this) {
+            if (pool.byName.isEmpty()) return Optional.empty();
+
+            NavigableSet<AssignmentCandidate> after = pool.cursor != null
+                    ? pool.byName.tailSet(pool.cursor, false)
+                    : pool.byName;
+            Optional<AssignmentCandidate> selected = firstMatch(after, filter);
+            if (selected.isEmpty() && pool.cursor != null) {
+                selected = firstMatch(pool.byName.headSet(pool.cursor, true), filter);
+            }
+            selected.ifPresent(c -> pool.cursor = c);
+            return selected;
+        }
+    }
+
+    /**
+     * Least loaded candidate (higher rating on ties) that passes the filter.
+     */
+    public Optional<AssignmentCandidate> leastLoaded(Long departmentId, Long productId,
+                                                     Predicate<AssignmentCandidate> filter) {
+        CandidatePool pool = pool(departmentId, productId);
+        synchronized (this) {
+            return firstMatch(pool.byLoad, filter);
+        }
+    }
+
+    /**
+     * Fair overflow pick used when every bucket is full: highest rating first,
+     * then the candidate whose last assignment is oldest.
+     */
+    public Optional<AssignmentCandidate> fairOverflow(Long departmentId, Long productId,
+                                                      Predicate<AssignmentCandidate> filter) {
+        CandidatePool pool = pool(departmentId, productId);
+        synchronized (this) {
+            return firstMatch(pool.byOverflow, filter);
+        }
+    }
+
+    public boolean isOnline(Long userId) {
+        return presenceRegistry.isOnline(userId);
+    }
+
+    /**
+     * Re-reads the stored open-assignment counts of every loaded pool, one
+     * query per pool, so assignments and completions made on other nodes
+     * count against the buckets. Picks never wait for this: between runs the
+     * pools are kept current by the local assignment and release events.
+     */
+    @Scheduled(fixedDelayString = "${assignment.candidate-index.reconcile-interval-ms:5000}")
+    public void reconcileAll() {
+        Map<PoolKey, CandidatePool> loaded;
+        synchronized (this) {
+            loaded = new HashMap<>(pools);
+        }
+        loaded.forEach((key, pool) -> {
+            try {
+                reconcile(key, pool);
+            } catch (RuntimeException e) {
+                logger.warn("Assignment candidate pool reconcile failed → dept: {} | product: {} | reason: {}",
+                        key.departmentId(), key.productId(), e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Reconciles one pool right away, loading it first if needed. Meant for
+     * batch runs that pick for many milestones at once.
+     */
+    public void reconcile(Long departmentId, Long productId) {
+        reconcile(new PoolKey(departmentId, productId), pool(departmentId, productId));
+    }
+
+    /**
+     * Applies the stored counts to the candidates whose count differs; each
+     * change re-sorts only that candidate. If another node assigned to a user
+     * more recently than this node's round-robin cursor, the cursor moves to
+     * that user so the rotation continues after them.
+     */
+    private void reconcile(PoolKey key, CandidatePool pool) {
+        List<Long> userIds;
+        synchronized (this) {
+            userIds = pool.byName.stream().map(AssignmentCandidate::getUserId).toList();
+        }
+        if (userIds.isEmpty()) return;
+
+        Map<Long, OpenAssignmentCountProjection> stored = storedCounts(key.productId(), userIds);
+
+        synchronized (this) {
+            if (pools.get(key) != pool) {
+                // reloaded or dropped meanwhile; the new pool has fresh counts
+                return;
+            }
+            AssignmentCandidate assignedElsewhere = null;
+            for (AssignmentCandidate candidate : new ArrayList<>(pool.byName)) {
+                OpenAssignmentCountProjection row = stored.get(candidate.getUserId());
+                int open = openAssignments(row, candidate.getUserId(), key.productId());
+                if (open == candidate.getOpenAssignments()) {
+                    continue;
+                }
+                boolean grew = open > candidate.getOpenAssignments()
+                        && row != null && row.getLastUpdatedDate() != null;
+
+                update(candidate, () -> {
+                    candidate.setOpenAssignments(open);
+                    if (grew && row.getLastUpdatedDate().after(candidate.getLastAssignedAt())) {
+                        candidate.setLastAssignedAt(row.getLastUpdatedDate());
+                    }
+                });
+                if (grew && (assignedElsewhere == null
+                        || candidate.getLastAssignedAt().after(assignedElsewhere.getLastAssignedAt()))) {
+                    assignedElsewhere = candidate;
+                }
+            }
+
+            if (assignedElsewhere != null && (pool.cursor == null
+                    || assignedElsewhere.getLastAssignedAt().after(pool.cursor.getLastAssignedAt()))) {
+                pool.cursor = assignedElsewhere;
+            }
+        }
+    }
+
+    // ====================== EVENTS ======================
+
+    /**
+     * A milestone of the product was assigned to the user.
+     */
+    public void recordAssignment(Long userId, Long productId) {
+        adjust(userId, productId, 1, true);
+    }
+
+    /**
+     * A milestone of the product was completed by or taken away from the user.
+     */
+    public void recordRelease(Long userId, Long productId) {
+        adjust(userId, productId, -1, false);
+    }
+
+    /**
+     * Drops every pool of the product; it is reloaded on next use.
+     */
+    public synchronized void invalidateProduct(Long productId) {
+        if (productId == null) return;
+        pools.keySet().removeIf(key -> key.productId().equals(productId));
+        candidates.keySet().removeIf(key -> key.productId().equals(productId));
+        logger.debug("Assignment candidate index invalidated for product {}", productId);
+    }
+
+    /**
+     * Drops every pool the user is part of, e.g. after a bucket-size,
+     * department or activation change.
+     */
+    public synchronized void invalidateUser(Long userId) {
+        if (userId == null) return;
+        Set<PoolKey> affected = candidates.values().stream()
+                .filter(c -> c.getUserId().equals(userId))
+                .flatMap(c -> c.pools.stream())
+                .collect(Collectors.toSet());
+        affected.forEach(this::dropPool);
+        candidates.keySet().removeIf(key -> key.userId().equals(userId));
+        logger.debug("Assignment candidate index invalidated for user {}", userId);
+    }
+
+    public synchronized void invalidateAll() {
+        pools.clear();
+        candidates.clear();
+    }
+
+    // ====================== INTERNALS ======================
+
+    private void adjust(Long userId, Long productId, int delta, boolean assigned) {
+        if (userId == null || productId == null) return;
+
+        synchronized (this) {
+            AssignmentCandidate candidate = candidates.get(new CandidateKey(userId, productId));
+            if (candidate != null) {
+                update(candidate, () -> {
+                    candidate.setOpenAssignments(candidate.getOpenAssignments() + delta);
+                    if (assigned) {
+                        candidate.setLastAssignedAt(new Date());
+                    }
+                });
+            }
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCompletion(int status) {
+                            if (status != STATUS_COMMITTED) {
+                                invalidateProduct(productId);
+                            }
+                        }
+                    }
+            );
+        }
+    }
+
+    /**
+     * Returns the live pool, loading it first if it is missing or older than
+     * the TTL. The queries run without the lock; if another thread installed
+     * the pool in the meantime, that one is kept.
+     */
+    private CandidatePool pool(Long departmentId, Long productId) {
+        PoolKey key = new PoolKey(departmentId, productId);
+        long now = System.currentTimeMillis();
+
+        synchronized (this) {
+            CandidatePool pool = pools.get(key);
+            if (pool != null && !isExpired(pool, now)) {
+                return pool;
+            }
+        }
+
+        List<UserProductMap> mappings =
+                userProductMapRepository.findAssignmentCandidates(key.departmentId(), key.productId());
+        List<Long> userIds = mappings.stream()
+                .map(m -> m.getUser().getId())
+                .distinct()
+                .toList();
+        Map<Long, OpenAssignmentCountProjection> counts = storedCounts(key.productId(), userIds);
+
+        synchronized (this) {
+            CandidatePool current = pools.get(key);
+            if (current != null && !isExpired(current, System.currentTimeMillis())) {
+                return current;
+            }
+            return install(key, mappings, counts, current);
+        }
+    }
+
+    private boolean isExpired(CandidatePool pool, long now) {
+        return ttlMillis > 0 && now - pool.loadedAt > ttlMillis;
+    }
+
+    private CandidatePool install(PoolKey key, List<UserProductMap> mappings,
+                                  Map<Long, OpenAssignmentCountProjection> counts, CandidatePool previous) {
+        Long previousCursor = previous != null && previous.cursor != null ? previous.cursor.getUserId() : null;
+        if (previous != null) {
+            dropPool(key);
+        }
+
+        CandidatePool pool = new CandidatePool();
+        for (UserProductMap mapping : mappings) {
+            Long userId = mapping.getUser().getId();
+            OpenAssignmentCountProjection row = counts.get(userId);
+            int open = openAssignments(row, userId, key.productId());
+            Date lastUpdated = row != null ? row.getLastUpdatedDate() : null;
+
+            CandidateKey candidateKey = new CandidateKey(userId, key.productId());
+            AssignmentCandidate candidate = candidates.get(candidateKey);
+            if (candidate == null) {
+                candidate = new AssignmentCandidate(
+                        userId,
+                        key.productId(),
+                        mapping.getUser().getFullName(),
+                        mapping.getRating(),
+                        mapping.getUser().getBucketSize(),
+                        open,
+                        lastUpdated
+                );
+                candidates.put(candidateKey, candidate);
+            } else {
+                AssignmentCandidate existing = candidate;
+                update(existing, () -> {
+                    existing.setProfile(mapping.getUser().getFullName(), mapping.getRating(),
+                            mapping.getUser().getBucketSize());
+                    existing.setOpenAssignments(open);
+                    if (lastUpdated != null && lastUpdated.after(existing.getLastAssignedAt())) {
+                        existing.setLastAssignedAt(lastUpdated);
+                    }
+                });
+            }
+            candidate.pools.add(key);
+            pool.attach(candidate);
+            if (userId.equals(previousCursor)) {
+                pool.cursor = candidate;
+            }
+        }
+        pools.put(key, pool);
+
+        logger.info("Assignment candidate pool loaded → dept: {} | product: {} | candidates: {}",
+                key.departmentId(), key.productId(), pool.byName.size());
+        return pool;
+    }
+
+    private Map<Long, OpenAssignmentCountProjection> storedCounts(Long productId, List<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        return userPerformanceCountRepository.findOpenAssignmentCounts(productId, userIds).stream()
+                .collect(Collectors.toMap(OpenAssignmentCountProjection::getUserId, Function.identity(), (a, b) -> a));
+    }
+
+    /**
+     * Stored count plus changes the performance counter has not written yet.
+     */
+    private int openAssignments(OpenAssignmentCountProjection row, Long userId, Long productId) {
+        long stored = row != null && row.getAssignmentCount() != null ? row.getAssignmentCount() : 0;
+        return (int) Math.max(0, stored + userPerformanceCounter.pendingAssignments(userId, productId));
+    }
+
+    /**
+     * Applies a change to a candidate's sort keys while it is out of every
+     * pool holding it, so the ordered sets stay consistent.
+     */
+    private void update(AssignmentCandidate candidate, Runnable change) {
+        List<CandidatePool> holding = candidate.pools.stream()
+                .map(pools::get)
+                .filter(Objects::nonNull)
+                .toList();
+
+        holding.forEach(pool -> pool.detach(candidate));
+        change.run();
+        holding.forEach(pool -> pool.attach(candidate));
+    }
+
+    private void dropPool(PoolKey key) {
+        CandidatePool pool = pools.remove(key);
+        if (pool != null) {
+            pool.byName.forEach(c -> {
+                c.pools.remove(key);
+                if (c.pools.isEmpty()) {
+                    candidates.remove(new CandidateKey(c.getUserId(), c.getProductId()));
+                }
+            });
+        }
+    }
+
+    private static Optional<AssignmentCandidate> firstMatch(Collection<AssignmentCandidate> ordered,
+                                                            Predicate<AssignmentCandidate> filter) {
+        for (AssignmentCandidate candidate : ordered) {
+            if (filter.test(candidate)) {
+                return Optional.of(candidate);
+            }
+        }
+        return Optional.empty();
+    }
+
+    record PoolKey(Long departmentId, Long productId) {
+    }
+
+    private record CandidateKey(Long userId, Long productId) {
+    }
+
+    private static final class CandidatePool {
+        private final NavigableSet<AssignmentCandidate> byName = new TreeSet<>(BY_NAME);
+        private final NavigableSet<AssignmentCandidate> byLoad = new TreeSet<>(BY_LOAD);
+        private final NavigableSet<AssignmentCandidate> byOverflow = new TreeSet<>(BY_OVERFLOW);
+        private final long loadedAt = System.currentTimeMillis();
+        private AssignmentCandidate cursor;
+
+        /** Must be called before any of a candidate's sort keys change. */
+        void detach(AssignmentCandidate candidate) {
+            byName.remove(candidate);
+            byLoad.remove(candidate);
+            byOverflow.remove(candidate);
+        }
+
+        void attach(AssignmentCandidate candidate) {
+            byName.add(candidate);
+            byLoad.add(candidate);
+            byOverflow.add(candidate);
+        }
+    }
+}
@@ -0,0 +1,611 @@
+package com.doc.assignment;
+
+import com.doc.dashboard.DashboardRollupService;
+import com.doc.dashboard.UserPerformanceCache;
+import com.doc.dto.assignment.ReassignmentRunResponseDto;
+import com.doc.em.ReassignmentRunStatus;
+import com.doc.entity.department.Department;
+import com.doc.entity.department.DepartmentAutoConfig;
+import com.doc.entity.milestone.Milestone;
+import com.doc.entity.project.ReassignmentRun;
+import com.doc.exception.ResourceNotFoundException;
+import com.doc.notification.NotificationCreateRequestDto;
+import com.doc.notification.NotificationDisplayType;
+import com.doc.notification.NotificationEventType;
+import com.doc.notification.NotificationModule;
+import com.doc.notification.NotificationPriority;
+import com.doc.projectdetail.ProjectDetailCache;
+import com.doc.repository.MilestoneHistoryBatchRepository;
+import com.doc.repository.MilestoneRepository;
+import com.doc.repository.OfflineReassignmentQueryRepository;
+import com.doc.repository.OfflineReassignmentQueryRepository.StaleAssignment;
+import com.doc.repository.ProjectMilestoneAssignmentBatchRepository;
+import com.doc.repository.ReassignmentRunRepository;
+import com.doc.repository.UserPerformanceCountBatchRepository;
+import com.doc.repository.UserProductMapBatchRepository;
+import com.doc.repository.department.DepartmentAutoConfigRepository;
+import com.doc.search.ProjectSearchIndexer;
+import com.doc.service.NotificationPublisherService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Moves NEW and IN_PROGRESS milestones away from users who have been offline
+ * for more than {@code reassignment.offline.offline-hours}.
+ *
+ * Stale assignments are read with a single join against the login status
+ * table, a chunk at a time in assignment id order. Each chunk is grouped by
+ * (department, product); the group's candidates are read from
+ * {@link AssignmentCandidateIndex} once and picks are made against that
+ * snapshot, least loaded first. When the department has no auto-assignment
+ * or nobody online has room, the milestone goes to the offline user's
+ * manager; failing that it is left alone and counted as unassignable. The
+ * chunk's assignment updates, history rows, performance counters and product
+ * flags are written as batches in one transaction together with the run's
+ * checkpoint.
+ *
+ * Runs are recorded in {@link ReassignmentRun}. A run that failed, or whose
+ * node stopped sending heartbeats for {@code reassignment.offline.lease-minutes},
+ * is resumed from its checkpoint with its original cutoff. Chunks lock the run
+ * row, so two nodes never process the same chunk.
+ */
+@Component
+public class OfflineReassignmentEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(OfflineReassignmentEngine.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OfflineReassignmentQueryRepository queryRepository;
+    private final ReassignmentRunRepository runRepository;
+    private final ProjectMilestoneAssignmentBatchRepository assignmentBatchRepository;
+    private final MilestoneHistoryBatchRepository historyBatchRepository;
+    private final UserProductMapBatchRepository userProductMapBatchRepository;
+    private final MilestoneRepository milestoneRepository;
+    private final DepartmentAutoConfigRepository departmentAutoConfigRepository;
+    private final AssignmentCandidateIndex candidateIndex;
+    private final UserPerformanceCounter userPerformanceCounter;
+    private final ProjectSearchIndexer projectSearchIndexer;
+    private final DashboardRollupService dashboardRollupService;
+    private final ProjectDetailCache projectDetailCache;
+    private final UserPerformanceCache userPerformanceCache;
+    private final NotificationPublisherService notificationPublisherService;
+    private final TransactionTemplate chunkTransaction;
+    private final ExecutorService executor;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final Counter scannedCounter;
+    private final Counter candidateCounter;
+    private final Counter managerCounter;
+    private final Counter unassignableCounter;
+    private final Counter failedCounter;
+    private final Timer chunkTimer;
+    private final Timer runTimer;
+
+    @Value("${reassignment.offline.enabled:false}")
+    private boolean enabled;
+
+    @Value("${reassignment.offline.offline-hours:24}")
+    private long offlineHours;
+
+    @Value("${reassignment.offline.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${reassignment.offline.lease-minutes:15}")
+    private long leaseMinutes;
+
+    public OfflineReassignmentEngine(
+            OfflineReassignmentQueryRepository queryRepository,
+            ReassignmentRunRepository runRepository,
+            ProjectMilestoneAssignmentBatchRepository assignmentBatchRepository,
+            MilestoneHistoryBatchRepository historyBatchRepository,
+            UserProductMapBatchRepository userProductMapBatchRepository,
+            MilestoneRepository milestoneRepository,
+            DepartmentAutoConfigRepository departmentAutoConfigRepository,
+            AssignmentCandidateIndex candidateIndex,
+            UserPerformanceCounter userPerformanceCounter,
+            ProjectSearchIndexer projectSearchIndexer,
+            DashboardRollupService dashboardRollupService,
+            ProjectDetailCache projectDetailCache,
+            UserPerformanceCache userPerformanceCache,
+            NotificationPublisherService notificationPublisherService,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry
+    ) {
+        this.queryRepository = queryRepository;
+        this.runRepository = runRepository;
+        this.assignmentBatchRepository = assignmentBatchRepository;
+        this.historyBatchRepository = historyBatchRepository;
+        this.userProductMapBatchRepository = userProductMapBatchRepository;
+        this.milestoneRepository = milestoneRepository;
+        this.departmentAutoConfigRepository = departmentAutoConfigRepository;
+        this.candidateIndex = candidateIndex;
+        this.userPerformanceCounter = userPerformanceCounter;
+        this.projectSearchIndexer = projectSearchIndexer;
+        this.dashboardRollupService = dashboardRollupService;
+        this.projectDetailCache = projectDetailCache;
+        this.userPerformanceCache = userPerformanceCache;
+        this.notificationPublisherService = notificationPublisherService;
+
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.chunkTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "offline-reassignment");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.scannedCounter = meterRegistry.counter("reassignment.offline.scanned");
+        this.candidateCounter = meterRegistry.counter("reassignment.offline.reassigned", "target", "candidate");
+        this.managerCounter = meterRegistry.counter("reassignment.offline.reassigned", "target", "manager");
+        this.unassignableCounter = meterRegistry.counter("reassignment.offline.unassignable");
+        this.failedCounter = meterRegistry.counter("reassignment.offline.failed");
+        this.chunkTimer = Timer.builder("reassignment.offline.chunk")
+                .description("Time to reassign one chunk of stale milestone assignments")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("reassignment.offline.run")
+                .description("Time taken by one offline reassignment run")
+                .register(meterRegistry);
+        Gauge.builder("reassignment.offline.running", running, r -> r.get() ? 1 : 0)
+                .description("Whether an offline reassignment run is in progress on this node")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // ====================== TRIGGERS ======================
+
+    @Scheduled(cron = "${reassignment.offline.cron:0 0 * * * *}")
+    public void scheduledRun() {
+        if (enabled) {
+            runNow();
+        }
+    }
+
+    /**
+     * Starts a run in the background unless one is already in progress on
+     * this node. Returns whether a run was started.
+     */
+    public boolean trigger() {
+        if (running.get()) {
+            return false;
+        }
+        try {
+            executor.execute(this::runNow);
+            return true;
+        } catch (RejectedExecutionException e) {
+            logger.warn("Offline reassignment executor rejected the run", e);
+            return false;
+        }
+    }
+
+    public ReassignmentRunResponseDto latestRun() {
+        ReassignmentRun run = runRepository.findFirstByOrderByIdDesc()
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "No offline reassignment run found", "ERR_REASSIGNMENT_RUN_NOT_FOUND"));
+        return new ReassignmentRunResponseDto(
+                run.getId(),
+                run.getStatus(),
+                run.getOfflineBefore(),
+                run.getLastAssignmentId(),
+                run.getScannedCount(),
+                run.getReassignedCount(),
+                run.getManagerCount(),
+                run.getUnassignableCount(),
+                run.getChunkCount(),
+                run.getErrorMessage(),
+                run.getStartedDate(),
+                run.getHeartbeatDate(),
+                run.getCompletedDate()
+        );
+    }
+
+    // ====================== RUN ======================
+
+    void runNow() {
+        if (!running.compareAndSet(false, true)) {
+            logger.debug("Offline reassignment already running on this node");
+            return;
+        }
+
+        Timer.Sample sample = Timer.start();
+        Long runId = null;
+        try {
+            runId = chunkTransaction.execute(status -> claimRun());
+            if (runId == null) {
+                return;
+            }
+
+            RunContext context = new RunContext(runId);
+            boolean done = false;
+            while (!done && !Thread.currentThread().isInterrupted()) {
+                Timer.Sample chunkSample = Timer.start();
+                ChunkOutcome outcome = chunkTransaction.execute(status -> processChunk(context));
+                chunkSample.stop(chunkTimer);
+
+                scannedCounter.increment(outcome.scanned());
+                candidateCounter.increment(outcome.toCandidate());
+                managerCounter.increment(outcome.toManager());
+                unassignableCounter.increment(outcome.unassignable());
+                done = outcome.done();
+            }
+        } catch (Exception e) {
+            failedCounter.increment();
+            logger.error("Offline reassignment run {} failed", runId, e);
+            if (runId != null) {
+                markFailed(runId, e);
+            }
+        } finally {
+            sample.stop(runTimer);
+            running.set(false);
+        }
+    }
+
+    /**
+     * Resumes the latest unfinished run, or starts a new one. Returns null
+     * while another node holds a live lease on the latest run.
+     */
+    private Long claimRun() {
+        LocalDateTime now = LocalDateTime.now();
+        Optional<ReassignmentRun> unfinished = runRepository.findFirstByStatusInOrderByIdDesc(
+                List.of(ReassignmentRunStatus.RUNNING, ReassignmentRunStatus.FAILED));
+
+        if (unfinished.isPresent()) {
+            ReassignmentRun run = runRepository.findByIdForUpdate(unfinished.get().getId()).orElseThrow();
+            if (run.getStatus() == ReassignmentRunStatus.RUNNING
+                    && run.getHeartbeatDate().isAfter(now.minusMinutes(leaseMinutes))) {
+                logger.debug("Offline reassignment run {} is held by another node", run.getId());
+                return null;
+            }
+            logger.info("Resuming offline reassignment run {} after assignment {}",
+                    run.getId(), run.getLastAssignmentId());
+            run.setStatus(ReassignmentRunStatus.RUNNING);
+            run.setErrorMessage(null);
+            run.setHeartbeatDate(now);
+            return runRepository.save(run).getId();
+        }
+
+        ReassignmentRun run = new ReassignmentRun();
+        run.setOfflineBefore(now.minusHours(offlineHours));
+        run.setStartedDate(now);
+        run.setHeartbeatDate(now);
+        run = runRepository.save(run);
+        logger.info("Started offline reassignment run {} for users offline since before {}",
+                run.getId(), run.getOfflineBefore());
+        return run.getId();
+    }
+
+    private ChunkOutcome processChunk(RunContext context) {
+        ReassignmentRun run = runRepository.findByIdForUpdate(context.runId)
+                .filter(r -> r.getStatus() == ReassignmentRunStatus.RUNNING)
+                .orElse(null);
+        if (run == null) {
+            return ChunkOutcome.DONE;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<StaleAssignment> page = queryRepository.findStale(
+                run.getLastAssignmentId(), run.getOfflineBefore(), Math.max(1, chunkSize));
+        if (page.isEmpty()) {
+            run.setStatus(ReassignmentRunStatus.COMPLETED);
+            run.setHeartbeatDate(now);
+            run.setCompletedDate(now);
+            runRepository.save(run);
+            logger.info("Offline reassignment run {} completed: scanned={}, reassigned={}, toManager={}, unassignable={}",
+                    run.getId(), run.getScannedCount(), run.getReassignedCount(),
+                    run.getManagerCount(), run.getUnassignableCount());
+            return ChunkOutcome.DONE;
+        }
+
+        // Skip rows reassigned since they were read and users who came back online.
+        Map<Long, Long> currentAssignees = queryRepository.lockAssignees(
+                page.stream().map(StaleAssignment::assignmentId).toList());
+        List<StaleAssignment> stale = page.stream()
+                .filter(a -> Objects.equals(currentAssignees.get(a.assignmentId()), a.userId()))
+                .filter(a -> !candidateIndex.isOnline(a.userId()))
+                .toList();
+
+        loadDepartments(context, stale);
+        Map<GroupKey, List<StaleAssignment>> groups = stale.stream().collect(Collectors.groupingBy(
+                a -> new GroupKey(context.departmentByMilestone.get(a.milestoneId()).orElse(null), a.productId()),
+                LinkedHashMap::new,
+                Collectors.toList()));
+
+        String reason = "Reassigned: assignee offline since before " + run.getOfflineBefore().withNano(0);
+        ChunkWrites writes = new ChunkWrites();
+        for (Map.Entry<GroupKey, List<StaleAssignment>> group : groups.entrySet()) {
+            CandidateSnapshot snapshot = snapshot(context, group.getKey());
+            for (StaleAssignment assignment : group.getValue()) {
+                Long target = snapshot.pick(assignment.userId());
+                if (target != null) {
+                    writes.add(assignment, target, reason, false);
+                } else if (assignment.managerId() != null && assignment.managerId() != assignment.userId()) {
+                    writes.add(assignment, assignment.managerId(), reason, true);
+                } else {
+                    writes.unassignable++;
+                }
+            }
+        }
+
+        apply(writes);
+
+        run.setLastAssignmentId(page.get(page.size() - 1).assignmentId());
+        run.setScannedCount(run.getScannedCount() + page.size());
+        run.setReassignedCount(run.getReassignedCount() + writes.toCandidate);
+        run.setManagerCount(run.getManagerCount() + writes.toManager);
+        run.setUnassignableCount(run.getUnassignableCount() + writes.unassignable);
+        run.setChunkCount(run.getChunkCount() + 1);
+        run.setHeartbeatDate(now);
+        runRepository.save(run);
+
+        logger.debug("Offline reassignment run {} chunk {}: scanned={}, toCandidate={}, toManager={}, unassignable={}",
+                run.getId(), run.getChunkCount(), page.size(), writes.toCandidate, writes.toManager, writes.unassignable);
+        return new ChunkOutcome(false, page.size(), writes.toCandidate, writes.toManager, writes.unassignable);
+    }
+
+    private void apply(ChunkWrites writes) {
+        if (writes.assignments.isEmpty()) {
+            return;
+        }
+
+        assignmentBatchRepository.reassign(writes.assignments, null);
+        historyBatchRepository.insertAssignmentHistory(writes.history);
+        userPerformanceCounter.applyDeltas(writes.deltas.entrySet().stream()
+                .filter(e -> e.getValue() != 0)
+                .map(e -> new UserPerformanceCountBatchRepository.Delta(
+                        e.getKey().userId(), e.getKey().productId(), e.getValue(), 0.0, null))
+                .toList());
+        userProductMapBatchRepository.setAssigned(writes.flags.entrySet().stream()
+                .map(e -> new UserProductMapBatchRepository.Flag(
+                        e.getKey().userId(), e.getKey().productId(), e.getValue()))
+                .toList(), null);
+
+        // Batch writes bypass the entity listeners.
+        for (Long projectId : writes.projectIds) {
+            projectSearchIndexer.projectChanged(projectId);
+            dashboardRollupService.projectChanged(projectId);
+            projectDetailCache.projectChanged(projectId);
+            userPerformanceCache.assignmentChanged(projectId, null);
+        }
+        for (UserProductKey key : writes.deltas.keySet()) {
+            userPerformanceCache.assignmentChanged(null, key.userId());
+        }
+
+        writes.received.forEach(this::notifyReceiver);
+    }
+
+    // ====================== CANDIDATES ======================
+
+    private void loadDepartments(RunContext context, List<StaleAssignment> stale) {
+        Set<Long> missing = stale.stream()
+                .map(StaleAssignment::milestoneId)
+                .filter(id -> !context.departmentByMilestone.containsKey(id))
+                .collect(Collectors.toSet());
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        for (Milestone milestone : milestoneRepository.findAllById(missing)) {
+            List<Department> departments = milestone.getDepartments();
+            Long departmentId = departments != null && !departments.isEmpty()
+                    ? departments.get(0).getId()
+                    : null;
+            context.departmentByMilestone.put(milestone.getId(), Optional.ofNullable(departmentId));
+        }
+        missing.forEach(id -> context.departmentByMilestone.putIfAbsent(id, Optional.empty()));
+    }
+
+    /**
+     * Candidates of the group as seen now. Departments without
+     * auto-assignment get an empty snapshot, so their milestones fall back to
+     * the manager.
+     */
+    private CandidateSnapshot snapshot(RunContext context, GroupKey key) {
+        if (key.departmentId() == null) {
+            return CandidateSnapshot.EMPTY;
+        }
+
+        Optional<DepartmentAutoConfig> config = context.configByDepartment.computeIfAbsent(key.departmentId(),
+                id -> departmentAutoConfigRepository.findByDepartmentIdAndIsDeletedFalse(id));
+        if (config.isEmpty() || !config.get().isAutoAssignmentEnabled() || config.get().isManualOnly()) {
+            return CandidateSnapshot.EMPTY;
+        }
+
+        candidateIndex.reconcile(key.departmentId(), key.productId());
+        List<Slot> slots = candidateIndex.getCandidates(key.departmentId(), key.productId()).stream()
+                .filter(AssignmentCandidate::isEnabled)
+                .filter(c -> candidateIndex.isOnline(c.getUserId()))
+                .map(Slot::new)
+                .collect(Collectors.toCollection(ArrayList::new));
+        return new CandidateSnapshot(slots);
+    }
+
+    // ====================== NOTIFICATIONS ======================
+
+    private void notifyReceiver(Long receiverId, List<StaleAssignment> assignments) {
+        StaleAssignment first = assignments.get(0);
+        int count = assignments.size();
+
+        String message = count == 1
+                ? "A milestone was reassigned to you because its assignee has been offline."
+                : count + " milestones were reassigned to you because their assignees have been offline.";
+        String metadataJson =
+                "{"
+                        + "\"projectId\":" + first.projectId() + ","
+                        + "\"milestoneAssignmentId\":" + first.assignmentId() + ","
+                        + "\"count\":" + count + ","
+                        + "\"milestoneAssignmentIds\":" + assignments.stream()
+                        .map(a -> String.valueOf(a.assignmentId()))
+                        .collect(Collectors.joining(",", "[", "]"))
+                        + "}";
+
+        notificationPublisherService.sendNotification(
+                NotificationCreateRequestDto.builder()
+                        .receiverId(receiverId)
+                        .actorName("System")
+                        .module(NotificationModule.PROJECT)
+                        .eventType(NotificationEventType.MILESTONE_REASSIGNED)
+                        .referenceId(first.projectId())
+                        .title("Project Milestones Reassigned")
+                        .message(message)
+                        .redirectUrl("/projects/" + first.projectId() + "/milestones/" + first.assignmentId())
+                        .priority(NotificationPriority.MEDIUM)
+                        .displayType(NotificationDisplayType.INFO)
+                        .metadataJson(metadataJson)
+                        .build()
+        );
+    }
+
+    private void markFailed(Long runId, Exception error) {
+        try {
+            chunkTransaction.executeWithoutResult(status -> runRepository.findByIdForUpdate(runId).ifPresent(run -> {
+                String message = error.getMessage() != null ? error.getMessage() : error.getClass().getName();
+                run.setStatus(ReassignmentRunStatus.FAILED);
+                run.setErrorMessage(message.length() > MAX_ERROR_LENGTH
+                        ? message.substring(0, MAX_ERROR_LENGTH)
+                        : message);
+                run.setHeartbeatDate(LocalDateTime.now());
+                runRepository.save(run);
+            }));
+        } catch (Exception e) {
+            logger.error("Could not mark offline reassignment run {} as failed", runId, e);
+        }
+    }
+
+    // ====================== STATE ======================
+
+    /** Lookups kept for the length of one run. */
+    private static final class RunContext {
+        private final Long runId;
+        private final Map<Long, Optional<Long>> departmentByMilestone = new HashMap<>();
+        private final Map<Long, Optional<DepartmentAutoConfig>> configByDepartment = new HashMap<>();
+
+        private RunContext(Long runId) {
+            this.runId = runId;
+        }
+    }
+
+    private record GroupKey(Long departmentId, Long productId) {
+    }
+
+    private record UserProductKey(long userId, long productId) {
+    }
+
+    private record ChunkOutcome(boolean done, int scanned, int toCandidate, int toManager, int unassignable) {
+        static final ChunkOutcome DONE = new ChunkOutcome(true, 0, 0, 0, 0);
+    }
+
+    /** A candidate's load as counted within one chunk. */
+    private static final class Slot {
+        private final AssignmentCandidate candidate;
+        private int openAssignments;
+
+        private Slot(AssignmentCandidate candidate) {
+            this.candidate = candidate;
+            this.openAssignments = candidate.getOpenAssignments();
+        }
+
+        private boolean hasCapacity() {
+            return openAssignments < candidate.getBucketSize();
+        }
+    }
+
+    /**
+     * Least loaded candidate with room in their bucket, higher rating on
+     * ties; every pick is counted against the snapshot.
+     */
+    private static final class CandidateSnapshot {
+        private static final CandidateSnapshot EMPTY = new CandidateSnapshot(List.of());
+
+        private static final Comparator<Slot> BY_LOAD =
+                Comparator.<Slot>comparingInt(s -> s.openAssignments)
+                        .thenComparing(s -> s.candidate.getRating(), Comparator.reverseOrder())
+                        .thenComparing(s -> s.candidate.getFullName())
+                        .thenComparing(s -> s.candidate.getUserId());
+
+        private final List<Slot> slots;
+
+        private CandidateSnapshot(List<Slot> slots) {
+            this.slots = slots;
+        }
+
+        private Long pick(long excludedUserId) {
+            Slot best = null;
+            for (Slot slot : slots) {
+                if (slot.candidate.getUserId() == excludedUserId || !slot.hasCapacity()) {
+                    continue;
+                }
+                if (best == null || BY_LOAD.compare(slot, best) < 0) {
+                    best = slot;
+                }
+            }
+            if (best == null) {
+                return null;
+            }
+            best.openAssignments++;
+            return best.candidate.getUserId();
+        }
+    }
+
+    /** Rows collected for one chunk's batched writes. */
+    private final class ChunkWrites {
+        private final List<ProjectMilestoneAssignmentBatchRepository.Reassignment> assignments = new ArrayList<>();
+        private final List<MilestoneHistoryBatchRepository.Reassignment> history = new ArrayList<>();
+        private final Map<UserProductKey, Long> deltas = new LinkedHashMap<>();
+        private final Map<UserProductKey, Boolean> flags = new LinkedHashMap<>();
+        private final Map<Long, List<StaleAssignment>> received = new LinkedHashMap<>();
+        private final Set<Long> projectIds = new LinkedHashSet<>();
+        private int toCandidate;
+        private int toManager;
+        private int unassignable;
+
+        private void add(StaleAssignment assignment, long userId, String reason, boolean toManager) {
+            assignments.add(new ProjectMilestoneAssignmentBatchRepository.Reassignment(
+                    assignment.assignmentId(), userId, reason));
+            history.add(new MilestoneHistoryBatchRepository.Reassignment(
+                    assignment.projectId(), assignment.assignmentId(), userId, reason, null));
+
+            UserProductKey previous = new UserProductKey(assignment.userId(), assignment.productId());
+            UserProductKey next = new UserProductKey(userId, assignment.productId());
+            deltas.merge(previous, -1L, Long::sum);
+            deltas.merge(next, 1L, Long::sum);
+            flags.put(previous, false);
+            flags.put(next, true);
+
+            candidateIndex.recordRelease(assignment.userId(), assignment.productId());
+            candidateIndex.recordAssignment(userId, assignment.productId());
+
+            received.computeIfAbsent(userId, id -> new ArrayList<>()).add(assignment);
+            projectIds.add(assignment.projectId());
+            if (toManager) {
+                this.toManager++;
+            } else {
+                toCandidate++;
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.doc.assignment;
+
+import com.doc.repository.UserPerformanceCountBatchRepository;
+import com.doc.repository.UserPerformanceCountBatchRepository.Delta;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Open-assignment and time-spent counters per (user, product), stored in
+ * user_performance_count.
+ *
+ * By default every change is one atomic SQL statement in the caller's
+ * transaction. With {@code performance-counter.write-behind=true}, changes
+ * are added to striped in-memory counters when the transaction commits and
+ * written in one batch every {@code performance-counter.flush-interval-ms}.
+ * This takes the counter rows out of the assignment transactions, at the
+ * cost of the table lagging by up to one flush interval (and losing
+ * unflushed changes if the node dies). Assignment decisions are not
+ * affected: they use the {@link AssignmentCandidateIndex}, which adds
+ * unflushed changes when it loads a pool.
+ */
+@Component
+public class UserPerformanceCounter {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserPerformanceCounter.class);
+
+    private final UserPerformanceCountBatchRepository batchRepository;
+    private final boolean writeBehind;
+    private final Map<Key, Pending> pending = new ConcurrentHashMap<>();
+
+    public UserPerformanceCounter(
+            UserPerformanceCountBatchRepository batchRepository,
+            @Value("${performance-counter.write-behind:false}") boolean writeBehind
+    ) {
+        this.batchRepository = batchRepository;
+        this.writeBehind = writeBehind;
+    }
+
+    /**
+     * A milestone of the product was assigned to the user.
+     */
+    public void assigned(Long userId, Long productId, Long updatedById) {
+        if (userId == null || productId == null) {
+            return;
+        }
+        if (writeBehind) {
+            afterCommit(userId, productId, 1, 0.0, updatedById);
+        } else {
+            batchRepository.addAssignment(userId, productId, updatedById);
+        }
+    }
+
+    /**
+     * A milestone of the product was completed by or taken away from the
+     * user; {@code timeSpentDays} is added to the user's time spent.
+     *
+     * @return false if the user had no counter for the product (only known
+     * when writing through)
+     */
+    public boolean released(Long userId, Long productId, double timeSpentDays, Long updatedById) {
+        if (userId == null || productId == null) {
+            return false;
+        }
+        if (writeBehind) {
+            afterCommit(userId, productId, -1, timeSpentDays, updatedById);
+            return true;
+        }
+        return batchRepository.release(userId, productId, timeSpentDays, updatedById);
+    }
+
+    /**
+     * Several changes at once, e.g. from a bulk reassignment: one batched
+     * statement when writing through. Counts are floored at zero per
+     * (user, product) after the whole delta is applied.
+     */
+    public void applyDeltas(List<Delta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        if (writeBehind) {
+            deltas.forEach(d -> afterCommit(d.userId(), d.productId(), d.assignments(), d.timeSpentDays(), d.updatedById()));
+        } else {
+            batchRepository.applyDeltas(deltas);
+        }
+    }
+
+    /**
+     * Open-assignment changes committed but not yet written, for callers
+     * that combine them with the stored count.
+     */
+    public long pendingAssignments(Long userId, Long productId) {
+        Pending p = pending.get(new Key(userId, productId));
+        return p != null ? p.assignments.sum() : 0L;
+    }
+
+    @Scheduled(fixedDelayString = "${performance-counter.flush-interval-ms:1000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<Delta> deltas = new ArrayList<>();
+        pending.forEach((key, p) -> {
+            // sumThenReset swaps each stripe to zero, so concurrent adds are
+            // either in this flush or the next one
+            long assignments = p.assignments.sumThenReset();
+            double timeSpent = p.timeSpentDays.sumThenReset();
+            if (assignments != 0 || timeSpent != 0.0) {
+                deltas.add(new Delta(key.userId(), key.productId(), assignments, timeSpent, p.updatedById));
+            }
+        });
+
+        try {
+            batchRepository.applyDeltas(deltas);
+        } catch (RuntimeException e) {
+            logger.warn("Performance counter flush failed for {} counters, retrying: {}", deltas.size(), e.getMessage());
+            deltas.forEach(d -> add(d.userId(), d.productId(), d.assignments(), d.timeSpentDays(), d.updatedById()));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void afterCommit(Long userId, Long productId, long assignments, double timeSpentDays, Long updatedById) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            add(userId, productId, assignments, timeSpentDays, updatedById);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                add(userId, productId, assignments, timeSpentDays, updatedById);
+            }
+        });
+    }
+
+    private void add(Long userId, Long productId, long assignments, double timeSpentDays, Long updatedById) {
+        Pending p = pending.computeIfAbsent(new Key(userId, productId), k -> new Pending());
+        p.assignments.add(assignments);
+        p.timeSpentDays.add(timeSpentDays);
+        p.updatedById = updatedById;
+    }
+
+    private record Key(Long userId, Long productId) {
+    }
+
+    private static final class Pending {
+        private final LongAdder assignments = new LongAdder();
+        private final DoubleAdder timeSpentDays = new DoubleAdder();
+        private volatile Long updatedById;
+    }
+}
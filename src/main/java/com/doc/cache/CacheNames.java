@@ -0,0 +1,16 @@
+package com.doc.cache;
+
+/**
+ * Names of the reference-data caches configured in {@code CacheConfig}.
+ */
+public final class CacheNames {
+
+    public static final String MILESTONE_STATUSES = "milestoneStatuses";
+    public static final String PROJECT_STATUSES = "projectStatuses";
+    public static final String DOCUMENT_STATUSES = "documentStatuses";
+    public static final String PAYMENT_TYPES = "paymentTypes";
+    public static final String MILESTONE_MAPS = "milestoneMaps";
+
+    private CacheNames() {
+    }
+}
@@ -0,0 +1,101 @@
+package com.doc.cache;
+
+import com.doc.entity.client.PaymentType;
+import com.doc.entity.document.DocumentStatus;
+import com.doc.entity.milestone.MilestoneStatus;
+import com.doc.entity.product.ProductMilestoneMap;
+import com.doc.entity.project.ProjectStatus;
+import com.doc.repository.MilestoneStatusRepository;
+import com.doc.repository.PaymentTypeRepository;
+import com.doc.repository.ProductMilestoneMapRepository;
+import com.doc.repository.UserRepository;
+import com.doc.repository.documentRepo.DocumentStatusRepository;
+import com.doc.repository.projectRepo.ProjectStatusRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Cached lookups of reference rows read on hot paths.
+ *
+ * Returned entities are detached and shared between threads: use them as
+ * association targets and read their columns, never modify them. Misses are
+ * not cached, so a status created later is found on the next call.
+ * Admin services evict the affected cache when they change a row.
+ */
+@Service
+public class ReferenceDataService {
+
+    @Autowired private MilestoneStatusRepository milestoneStatusRepository;
+    @Autowired private ProjectStatusRepository projectStatusRepository;
+    @Autowired private DocumentStatusRepository documentStatusRepository;
+    @Autowired private PaymentTypeRepository paymentTypeRepository;
+    @Autowired private ProductMilestoneMapRepository productMilestoneMapRepository;
+    @Autowired private UserRepository userRepository;
+
+    @Cacheable(cacheNames = CacheNames.MILESTONE_STATUSES, key = "'id:' + #id", unless = "#result == null")
+    public Optional<MilestoneStatus> milestoneStatus(Long id) {
+        return milestoneStatusRepository.findById(id);
+    }
+
+    @Cacheable(cacheNames = CacheNames.MILESTONE_STATUSES, key = "'name:' + #name", unless = "#result == null")
+    public Optional<MilestoneStatus> milestoneStatusByName(String name) {
+        return milestoneStatusRepository.findByName(name);
+    }
+
+    @Cacheable(cacheNames = CacheNames.PROJECT_STATUSES, key = "'id:' + #id", unless = "#result == null")
+    public Optional<ProjectStatus> projectStatus(Long id) {
+        return projectStatusRepository.findById(id);
+    }
+
+    @Cacheable(cacheNames = CacheNames.PROJECT_STATUSES, key = "'name:' + #name", unless = "#result == null")
+    public Optional<ProjectStatus> projectStatusByName(String name) {
+        return projectStatusRepository.findByName(name);
+    }
+
+    @Cacheable(cacheNames = CacheNames.DOCUMENT_STATUSES, key = "'name:' + #name", unless = "#result == null")
+    public Optional<DocumentStatus> documentStatusByName(String name) {
+        return documentStatusRepository.findByName(name);
+    }
+
+    @Cacheable(cacheNames = CacheNames.PAYMENT_TYPES, key = "#id", unless = "#result == null")
+    public Optional<PaymentType> paymentType(Long id) {
+        return paymentTypeRepository.findById(id);
+    }
+
+    /**
+     * The product's milestone mappings in step order. Milestones and their
+     * departments are loaded, so callers may read them without a session.
+     * Evicted by the product, milestone and mapping admin services.
+     */
+    @Cacheable(cacheNames = CacheNames.MILESTONE_MAPS, key = "#productId")
+    public List<ProductMilestoneMap> milestoneMaps(Long productId) {
+        return List.copyOf(productMilestoneMapRepository.findWithMilestoneByProductId(productId));
+    }
+
+    /**
+     * For writes outside an admin service, such as the status seeding at
+     * startup.
+     */
+    @CacheEvict(cacheNames = CacheNames.MILESTONE_STATUSES, allEntries = true)
+    public void evictMilestoneStatuses() {
+    }
+
+    @CacheEvict(cacheNames = CacheNames.DOCUMENT_STATUSES, allEntries = true)
+    public void evictDocumentStatuses() {
+    }
+
+    /**
+     * Names of the user's roles, e.g. ADMIN or OPERATION_HEAD; empty for an
+     * unknown user. Not cached: a role change must apply on every node at
+     * once, and the lookup is a single indexed query.
+     */
+    public Set<String> roleNames(Long userId) {
+        return Set.copyOf(userRepository.findRoleNamesByUserId(userId));
+    }
+}
@@ -0,0 +1,63 @@
+package com.doc.config;
+
+import com.doc.cache.CacheNames;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Enables {@code @Cacheable} for reference data (statuses, payment types,
+ * product milestone maps)
+ * with Caffeine. Every cache is bounded and expires entries after
+ * {@code cache.<name>.ttl-seconds} (default 3600), at most
+ * {@code cache.<name>.max-entries} (default 500). Hit/miss metrics are
+ * published by the actuator under {@code cache.gets}.
+ *
+ * Puts and evictions made inside a transaction are applied after it
+ * commits, so an admin update can never be undone by a reader caching the
+ * old row before the commit. Other nodes see the change once their entry
+ * expires.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    private static final int DEFAULT_MAX_ENTRIES = 500;
+    private static final long DEFAULT_TTL_SECONDS = 3600;
+
+    private static final List<String> REFERENCE_DATA_CACHES = List.of(
+            CacheNames.MILESTONE_STATUSES,
+            CacheNames.PROJECT_STATUSES,
+            CacheNames.DOCUMENT_STATUSES,
+            CacheNames.PAYMENT_TYPES,
+            CacheNames.MILESTONE_MAPS
+    );
+
+    @Bean
+    public CacheManager cacheManager(Environment environment) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager();
+        // Names without their own entry below get the reference-data defaults
+        caffeineCacheManager.setCaffeine(builder(environment, "default"));
+        for (String name : REFERENCE_DATA_CACHES) {
+            caffeineCacheManager.registerCustomCache(name, builder(environment, name).build());
+        }
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+
+    private static Caffeine<Object, Object> builder(Environment environment, String name) {
+        long maxEntries = environment.getProperty("cache." + name + ".max-entries", Long.class, (long) DEFAULT_MAX_ENTRIES);
+        long ttlSeconds = environment.getProperty("cache." + name + ".ttl-seconds", Long.class, DEFAULT_TTL_SECONDS);
+        return Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats();
+    }
+}
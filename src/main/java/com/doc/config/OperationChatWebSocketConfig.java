@@ -1,13 +1,20 @@
 package com.doc.config;
 
+import com.doc.presence.PresenceChannelInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.web.socket.config.annotation.*;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class OperationChatWebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    @Autowired
+    private PresenceChannelInterceptor presenceChannelInterceptor;
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
 
@@ -21,7 +28,20 @@ public class OperationChatWebSocketConfig implements WebSocketMessageBrokerConfi
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
-        registry.enableSimpleBroker("/topic");
+        // Heartbeats let presence expire sessions whose connection died silently
+        ThreadPoolTaskScheduler heartbeatScheduler = new ThreadPoolTaskScheduler();
+        heartbeatScheduler.setPoolSize(1);
+        heartbeatScheduler.setThreadNamePrefix("ws-heartbeat-");
+        heartbeatScheduler.initialize();
+
+        registry.enableSimpleBroker("/topic")
+                .setHeartbeatValue(new long[]{10_000, PresenceChannelInterceptor.SERVER_RECEIVE_HEARTBEAT_MILLIS})
+                .setTaskScheduler(heartbeatScheduler);
         registry.setApplicationDestinationPrefixes("/app");
     }
-}
\ No newline at end of file
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(presenceChannelInterceptor);
+    }
+}
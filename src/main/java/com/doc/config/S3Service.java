@@ -1,19 +1,36 @@
 package com.doc.config;
 
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.HttpMethod;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.model.CannedAccessControlList;
+import com.amazonaws.services.s3.model.CopyObjectRequest;
+import com.amazonaws.services.s3.model.GeneratePresignedUrlRequest;
 import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.S3Object;
+import com.amazonaws.services.s3.transfer.TransferManager;
+import com.amazonaws.services.s3.transfer.TransferManagerBuilder;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URL;
+import java.util.Date;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 public class S3Service {
 
+    public static final String PUBLIC_READ_HEADER = "x-amz-acl";
+
     private final AmazonS3 amazonS3;
 
     @Value("${aws.s3.bucket-name}")          // ← changed here
@@ -22,27 +39,142 @@ public class S3Service {
     @Value("${aws_path}")                    // ← changed here (or use aws.s3.base-url if you rename the property)
     private String baseUrl;
 
-    public S3Service(AmazonS3 amazonS3) {
+    /**
+     * Large public uploads are split into parts of {@code aws.s3.multipart.part-size-mb}
+     * and sent in parallel on {@code aws.s3.multipart.threads} threads.
+     */
+    private final TransferManager transferManager;
+
+    public S3Service(
+            AmazonS3 amazonS3,
+            @Value("${aws.s3.multipart.threshold-mb:16}") long multipartThresholdMb,
+            @Value("${aws.s3.multipart.part-size-mb:8}") long partSizeMb,
+            @Value("${aws.s3.multipart.threads:4}") int uploadThreads
+    ) {
         this.amazonS3 = amazonS3;
+
+        AtomicInteger threadNo = new AtomicInteger();
+        this.transferManager = TransferManagerBuilder.standard()
+                .withS3Client(amazonS3)
+                .withMultipartUploadThreshold(multipartThresholdMb * 1024 * 1024)
+                .withMinimumUploadPartSize(partSizeMb * 1024 * 1024)
+                .withExecutorFactory(() -> Executors.newFixedThreadPool(uploadThreads, r -> {
+                    Thread thread = new Thread(r, "s3-upload-" + threadNo.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }))
+                .withShutDownThreadPools(true)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // The S3 client is a Spring bean and is not closed here
+        transferManager.shutdownNow(false);
     }
 
     public String uploadFile(MultipartFile file) throws IOException {
-        String originalFilename = file.getOriginalFilename();
-        String extension = (originalFilename != null && originalFilename.contains("."))
-                ? originalFilename.substring(originalFilename.lastIndexOf("."))
-                : "";
-        String s3Key = UUID.randomUUID() + extension;
+        String s3Key = newPublicKey(file.getOriginalFilename());
 
         ObjectMetadata metadata = new ObjectMetadata();
         metadata.setContentLength(file.getSize());
         metadata.setContentType(file.getContentType());
 
-        PutObjectRequest request = new PutObjectRequest(bucketName, "corpseed/" + s3Key, file.getInputStream(), metadata)
+        PutObjectRequest request = new PutObjectRequest(bucketName, s3Key, file.getInputStream(), metadata)
                 .withCannedAcl(CannedAccessControlList.PublicRead);
 
-        amazonS3.putObject(request);
+        awaitUpload(request);
+
+        return s3Key;
+    }
+
+    /**
+     * Uploads a local file as a public object, in parallel parts when it is
+     * above the multipart threshold.
+     */
+    public void uploadPublicFile(String s3Key, File file, String contentType) throws IOException {
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentLength(file.length());
+        metadata.setContentType(contentType);
+
+        awaitUpload(new PutObjectRequest(bucketName, s3Key, file)
+                .withMetadata(metadata)
+                .withCannedAcl(CannedAccessControlList.PublicRead));
+    }
+
+    /**
+     * New key for a public document, under the same prefix as
+     * {@link #uploadFile(MultipartFile)}.
+     */
+    public String newPublicKey(String originalFilename) {
+        String extension = (originalFilename != null && originalFilename.contains("."))
+                ? originalFilename.substring(originalFilename.lastIndexOf("."))
+                : "";
+        return "corpseed/" + UUID.randomUUID() + extension;
+    }
+
+    /**
+     * URL a client can PUT the object to directly until {@code expiresAt}.
+     * The request must carry the returned headers: Content-Type and the
+     * public-read ACL are part of the signature.
+     */
+    public URL presignPublicUpload(String s3Key, String contentType, Date expiresAt) {
+        GeneratePresignedUrlRequest request = new GeneratePresignedUrlRequest(bucketName, s3Key, HttpMethod.PUT)
+                .withExpiration(expiresAt)
+                .withContentType(contentType);
+        request.putCustomRequestHeader(PUBLIC_READ_HEADER, CannedAccessControlList.PublicRead.toString());
+        return amazonS3.generatePresignedUrl(request);
+    }
+
+    /**
+     * Copies an object inside the bucket, server-side, as a public object.
+     */
+    public void copyPublicObject(String sourceKey, String targetKey) {
+        amazonS3.copyObject(new CopyObjectRequest(bucketName, sourceKey, bucketName, targetKey)
+                .withCannedAccessControlList(CannedAccessControlList.PublicRead));
+    }
+
+    /**
+     * Metadata of the object, or empty if it does not exist.
+     */
+    public Optional<ObjectMetadata> findObjectMetadata(String s3Key) {
+        try {
+            return Optional.of(amazonS3.getObjectMetadata(bucketName, s3Key));
+        } catch (AmazonServiceException e) {
+            if (e.getStatusCode() == 404) {
+                return Optional.empty();
+            }
+            throw e;
+        }
+    }
+
+    private void awaitUpload(PutObjectRequest request) throws IOException {
+        try {
+            transferManager.upload(request).waitForCompletion();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Upload of " + request.getKey() + " interrupted");
+        }
+    }
+
+    /**
+     * Uploads a local file under the given key. The object stays private;
+     * callers stream it back through {@link #getObject(String)}.
+     */
+    public void uploadFile(String s3Key, File file, String contentType) {
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentLength(file.length());
+        metadata.setContentType(contentType);
+
+        amazonS3.putObject(new PutObjectRequest(bucketName, s3Key, file).withMetadata(metadata));
+    }
+
+    public S3Object getObject(String s3Key) {
+        return amazonS3.getObject(bucketName, s3Key);
+    }
 
-        return "corpseed/" + s3Key;
+    public void deleteObject(String s3Key) {
+        amazonS3.deleteObject(bucketName, s3Key);
     }
 
     public String getFullUrl(String s3Key) {
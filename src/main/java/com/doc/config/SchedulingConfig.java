@@ -0,0 +1,12 @@
+package com.doc.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs (outbox dispatch and similar).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,40 @@
+package com.doc.controller.assignment;
+
+import com.doc.assignment.OfflineReassignmentEngine;
+import com.doc.dto.assignment.ReassignmentRunResponseDto;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/operationService/api/offline-reassignment")
+public class OfflineReassignmentController {
+
+    private final OfflineReassignmentEngine offlineReassignmentEngine;
+
+    public OfflineReassignmentController(OfflineReassignmentEngine offlineReassignmentEngine) {
+        this.offlineReassignmentEngine = offlineReassignmentEngine;
+    }
+
+    /**
+     * Start (or resume) an offline reassignment run in the background.
+     * Returns 409 while a run is already in progress on this node.
+     *
+     * API:
+     * POST /operationService/api/offline-reassignment/runs
+     */
+    @Operation(summary = "Start or resume an offline-user reassignment run; poll /runs/latest for progress")
+    @PostMapping("/runs")
+    public ResponseEntity<Void> startRun() {
+        return offlineReassignmentEngine.trigger()
+                ? ResponseEntity.status(HttpStatus.ACCEPTED).build()
+                : ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    @Operation(summary = "Progress and counts of the latest offline-user reassignment run")
+    @GetMapping("/runs/latest")
+    public ResponseEntity<ReassignmentRunResponseDto> getLatestRun() {
+        return ResponseEntity.ok(offlineReassignmentEngine.latestRun());
+    }
+}
@@ -21,6 +21,20 @@ public class OperationChatController {
         return ResponseEntity.ok(operationChatService.startChat(requestDto));
     }
 
+    /**
+     * Conversation list of a user with unread counts.
+     */
+    @GetMapping
+    public ResponseEntity<Page<OperationChatConversationResponseDto>> getConversations(
+            @RequestParam Long userId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "30") int size
+    ) {
+        return ResponseEntity.ok(
+                operationChatService.getConversations(userId, page, size)
+        );
+    }
+
     @PostMapping("/{conversationId}/messages")
     public ResponseEntity<OperationChatMessageResponseDto> sendMessage(
             @PathVariable Long conversationId,
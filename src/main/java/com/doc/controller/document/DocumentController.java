@@ -1,8 +1,11 @@
 package com.doc.controller.document;
 
+import com.doc.dto.document.DirectUploadRequest;
+import com.doc.dto.document.DirectUploadResponse;
 import com.doc.dto.document.DocumentUploadRequest;
 import com.doc.dto.document.DocumentUploadResponse;
 import com.doc.service.DocumentService;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -28,4 +31,34 @@ public class DocumentController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    /**
+     * Start a direct upload: returns a presigned URL to PUT the file to.
+     *
+     * API:
+     * POST /operationService/api/documents/uploads
+     */
+    @PostMapping("/uploads")
+    public ResponseEntity<DirectUploadResponse> initiateDirectUpload(
+            @Valid @RequestBody DirectUploadRequest request) {
+
+        DirectUploadResponse response = documentService.initiateDirectUpload(request);
+
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    /**
+     * Called once the file has been PUT to the upload URL; verifies its
+     * SHA-256 and creates the document.
+     *
+     * API:
+     * POST /operationService/api/documents/uploads/{uploadId}/complete
+     */
+    @PostMapping("/uploads/{uploadId}/complete")
+    public ResponseEntity<DocumentUploadResponse> completeDirectUpload(@PathVariable String uploadId) {
+
+        DocumentUploadResponse response = documentService.completeDirectUpload(uploadId);
+
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    }
+
 }
\ No newline at end of file
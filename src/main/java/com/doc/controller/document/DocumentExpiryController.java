@@ -1,19 +1,33 @@
 package com.doc.controller.document;
 
+import com.doc.dto.document.DocumentExpiryJobResponseDto;
 import com.doc.dto.document.DocumentExpiryResponseDto;
+import com.doc.impl.DocumentExpiryJobService;
+import com.doc.impl.DocumentExpiryResultCache;
 import com.doc.impl.DocumentExpiryService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/operationService/api/document-expiry")
 public class DocumentExpiryController {
 
     private final DocumentExpiryService documentExpiryService;
+    private final DocumentExpiryJobService documentExpiryJobService;
+    private final DocumentExpiryResultCache documentExpiryResultCache;
 
-    public DocumentExpiryController(DocumentExpiryService documentExpiryService) {
+    public DocumentExpiryController(
+            DocumentExpiryService documentExpiryService,
+            DocumentExpiryJobService documentExpiryJobService,
+            DocumentExpiryResultCache documentExpiryResultCache
+    ) {
         this.documentExpiryService = documentExpiryService;
+        this.documentExpiryJobService = documentExpiryJobService;
+        this.documentExpiryResultCache = documentExpiryResultCache;
     }
 
     /**
@@ -37,4 +51,53 @@ public class DocumentExpiryController {
         DocumentExpiryResponseDto response = documentExpiryService.checkExpiryFromUrl(fileUrl);
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    /**
+     * Queue an expiry check for an uploaded file and return the job id.
+     *
+     * API:
+     * POST /operationService/api/document-expiry/jobs
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<DocumentExpiryJobResponseDto> submitExpiryJob(
+            @RequestParam("file") MultipartFile file
+    ) {
+        DocumentExpiryJobResponseDto response = documentExpiryJobService.submitFile(file);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    @PostMapping("/jobs/url")
+    public ResponseEntity<DocumentExpiryJobResponseDto> submitExpiryJobFromUrl(
+            @RequestParam("fileUrl") String fileUrl
+    ) {
+        DocumentExpiryJobResponseDto response = documentExpiryJobService.submitUrl(fileUrl);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<DocumentExpiryJobResponseDto> getExpiryJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(documentExpiryJobService.getJob(jobId));
+    }
+
+    /**
+     * Server-sent event stream that emits one "result" event when the job finishes.
+     */
+    @GetMapping(value = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeExpiryJob(@PathVariable String jobId) {
+        return documentExpiryJobService.subscribe(jobId);
+    }
+
+    /**
+     * Forget the cached result of one file content (hex SHA-256 of the bytes).
+     */
+    @DeleteMapping("/cache/{contentSha256}")
+    public ResponseEntity<Boolean> evictCachedResult(@PathVariable String contentSha256) {
+        return ResponseEntity.ok(documentExpiryResultCache.evict(contentSha256.toLowerCase()));
+    }
+
+    @DeleteMapping("/cache")
+    public ResponseEntity<Void> evictAllCachedResults() {
+        documentExpiryResultCache.evictAll();
+        return ResponseEntity.noContent().build();
+    }
+}
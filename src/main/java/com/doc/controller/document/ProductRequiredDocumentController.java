@@ -2,6 +2,7 @@ package com.doc.controller.document;
 
 import com.doc.dto.document.ProductRequiredDocumentRequestDto;
 import com.doc.dto.document.ProductRequiredDocumentResponseDto;
+import com.doc.dto.importer.BulkImportJobResponseDto;
 import com.doc.service.ProductRequiredDocumentService;
 import io.micrometer.common.util.StringUtils;
 import io.swagger.v3.oas.annotations.Operation;
@@ -74,6 +75,25 @@ public class ProductRequiredDocumentController {
         return ResponseEntity.ok(result);
     }
 
+    @PostMapping("/import-required-document/jobs")
+    @Operation(summary = "Queue a bulk import of required document templates from a CSV or Excel file in S3; "
+            + "poll /operationService/api/imports/{jobId} for progress")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Import queued – returns the job"),
+            @ApiResponse(responseCode = "400", description = "Bad S3 URL or import queue full")
+    })
+    public ResponseEntity<BulkImportJobResponseDto> submitImportFromS3(
+            @RequestParam("s3Url") String s3Url,
+            @RequestParam(value = "createdBy", required = true) Long createdBy) {
+
+        if (StringUtils.isBlank(s3Url)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "s3Url is required");
+        }
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(productRequiredDocumentService.submitImportFromS3(s3Url, createdBy));
+    }
+
     @Operation(summary = "Soft delete a required document template")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Document soft deleted successfully"),
@@ -0,0 +1,92 @@
+package com.doc.controller.export;
+
+import com.doc.dto.export.ExportJobResponseDto;
+import com.doc.export.ExportDataset;
+import com.doc.export.ExportFormat;
+import com.doc.export.ExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/operationService/api/exports")
+public class ExportController {
+
+    private final ExportService exportService;
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    /**
+     * Download a report directly. Reports above the inline row limit are
+     * rejected with ERR_EXPORT_TOO_LARGE and must be exported as a job.
+     *
+     * API:
+     * GET /operationService/api/exports/{dataset}?userId=&format=CSV|XLSX
+     */
+    @Operation(summary = "Download a project, milestone, expense or procurement order report as CSV or XLSX")
+    @GetMapping("/{dataset}")
+    public ResponseEntity<StreamingResponseBody> download(
+            @PathVariable ExportDataset dataset,
+            @RequestParam Long userId,
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate
+    ) {
+        ExportService.Download download = exportService.prepareDownload(dataset, format, userId, fromDate, toDate);
+        StreamingResponseBody body = out -> exportService.write(download, out);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + download.fileName() + "\"")
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .body(body);
+    }
+
+    /**
+     * Queue a report export and return the job id.
+     *
+     * API:
+     * POST /operationService/api/exports/{dataset}/jobs
+     */
+    @Operation(summary = "Queue a report export; poll /operationService/api/exports/jobs/{jobId} for progress")
+    @PostMapping("/{dataset}/jobs")
+    public ResponseEntity<ExportJobResponseDto> submit(
+            @PathVariable ExportDataset dataset,
+            @RequestParam Long userId,
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate
+    ) {
+        ExportJobResponseDto response = exportService.submit(dataset, format, userId, fromDate, toDate);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    @Operation(summary = "Progress of a report export job")
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ExportJobResponseDto> getJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(exportService.getJob(jobId));
+    }
+
+    @Operation(summary = "Download the file of a completed report export job")
+    @GetMapping("/jobs/{jobId}/download")
+    public ResponseEntity<InputStreamResource> downloadJob(
+            @PathVariable String jobId,
+            @RequestParam Long userId
+    ) throws IOException {
+        ExportJobResponseDto job = exportService.getJob(jobId);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + job.fileName() + "\"")
+                .contentType(MediaType.parseMediaType(job.format().getContentType()))
+                .body(new InputStreamResource(exportService.open(jobId, userId)));
+    }
+}
@@ -0,0 +1,39 @@
+package com.doc.controller.importer;
+
+import com.amazonaws.services.s3.model.S3Object;
+import com.doc.dto.importer.BulkImportJobResponseDto;
+import com.doc.importer.BulkImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/operationService/api/imports")
+public class BulkImportController {
+
+    private final BulkImportService bulkImportService;
+
+    public BulkImportController(BulkImportService bulkImportService) {
+        this.bulkImportService = bulkImportService;
+    }
+
+    @Operation(summary = "Progress of a bulk import job")
+    @GetMapping("/{jobId}")
+    public ResponseEntity<BulkImportJobResponseDto> getJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(bulkImportService.getJob(jobId));
+    }
+
+    @Operation(summary = "Download the rejected rows of a bulk import job as CSV")
+    @GetMapping("/{jobId}/result")
+    public ResponseEntity<InputStreamResource> downloadResult(@PathVariable String jobId) {
+        S3Object result = bulkImportService.openResult(jobId);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"import-" + jobId + "-result.csv\"")
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .contentLength(result.getObjectMetadata().getContentLength())
+                .body(new InputStreamResource(result.getObjectContent()));
+    }
+}
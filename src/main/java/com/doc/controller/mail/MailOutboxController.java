@@ -0,0 +1,29 @@
+package com.doc.controller.mail;
+
+import com.doc.impl.mail.MailOutboxDispatcher;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/operationService/api/mail-outbox")
+public class MailOutboxController {
+
+    private final MailOutboxDispatcher mailOutboxDispatcher;
+
+    public MailOutboxController(MailOutboxDispatcher mailOutboxDispatcher) {
+        this.mailOutboxDispatcher = mailOutboxDispatcher;
+    }
+
+    /**
+     * Retry every dead-lettered mail, e.g. after the SMTP server recovered.
+     *
+     * API:
+     * POST /operationService/api/mail-outbox/dead/requeue
+     */
+    @PostMapping("/dead/requeue")
+    public ResponseEntity<Integer> requeueDeadMails() {
+        return ResponseEntity.ok(mailOutboxDispatcher.requeueDead());
+    }
+}
@@ -0,0 +1,29 @@
+package com.doc.controller.notification;
+
+import com.doc.impl.NotificationOutboxDispatcher;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/operationService/api/notification-outbox")
+public class NotificationOutboxController {
+
+    private final NotificationOutboxDispatcher notificationOutboxDispatcher;
+
+    public NotificationOutboxController(NotificationOutboxDispatcher notificationOutboxDispatcher) {
+        this.notificationOutboxDispatcher = notificationOutboxDispatcher;
+    }
+
+    /**
+     * Retry every dead-lettered notification, e.g. after notification-service recovered.
+     *
+     * API:
+     * POST /operationService/api/notification-outbox/dead/requeue
+     */
+    @PostMapping("/dead/requeue")
+    public ResponseEntity<Integer> requeueDeadNotifications() {
+        return ResponseEntity.ok(notificationOutboxDispatcher.requeueDead());
+    }
+}
@@ -2,11 +2,14 @@ package com.doc.controller.project;
 
 import com.doc.dto.document.DocumentChecklistDTO;
 import com.doc.dto.project.AssignedProjectResponseDto;
+import com.doc.dto.project.BulkProjectCreateResponseDto;
+import com.doc.dto.project.MilestoneVisibilityBackfillResponseDto;
 import com.doc.dto.project.ProjectMilestoneResponseDto;
 import com.doc.dto.project.ProjectRequestDto;
 import com.doc.dto.project.ProjectResponseDto;
 import com.doc.dto.project.projectHistory.MilestoneHistoryResponseDto;
 import com.doc.dto.project.projectHistory.ProjectHistoryResponseDto;
+import com.doc.dto.project.projectHistory.ProjectTimelineResponseDto;
 import com.doc.dto.project.sales.SalesProjectStatusResponseDto;
 import com.doc.dto.transaction.ProjectPaymentTransactionDto;
 import com.doc.service.ProjectSearchService;
@@ -49,6 +52,17 @@ public class ProjectController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    @Operation(summary = "Create multiple projects in one request")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Rows processed; see per-row results"),
+            @ApiResponse(responseCode = "400", description = "Empty or oversized request")
+    })
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkProjectCreateResponseDto> createProjectsInBulk(@RequestBody List<ProjectRequestDto> requestDtos) {
+        BulkProjectCreateResponseDto response = projectService.createProjectsInBulk(requestDtos);
+        return ResponseEntity.ok(response);
+    }
+
 
 
 
@@ -77,6 +91,21 @@ public class ProjectController {
         return ResponseEntity.ok(responses);
     }
 
+    @PostMapping("/milestone-visibility/backfill")
+    @Operation(summary = "Recalculate stored milestone visibility for a batch of existing projects")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Batch processed; call again from lastProjectId while hasMore is true")
+    })
+    public ResponseEntity<MilestoneVisibilityBackfillResponseDto> backfillMilestoneVisibility(
+            @RequestParam Long userId,
+            @RequestParam(required = false) Long afterProjectId,
+            @RequestParam(required = false) Long productId,
+            @RequestParam(defaultValue = "200") int batchSize) {
+        MilestoneVisibilityBackfillResponseDto response =
+                projectService.backfillMilestoneVisibility(afterProjectId, productId, batchSize, userId);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/count")
     @Operation(summary = "Get total count of searched projects")
     @ApiResponses({
@@ -204,6 +233,23 @@ public class ProjectController {
     }
 
 
+    @Operation(summary = "Get the project timeline",
+            description = "Assignment and status-change events of all milestones merged oldest first. Pass the returned nextCursor to read the next page.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Timeline page retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+            @ApiResponse(responseCode = "404", description = "Project not found")
+    })
+    @GetMapping("/{projectId}/timeline")
+    public ResponseEntity<ProjectTimelineResponseDto> getProjectTimeline(
+            @PathVariable @Parameter(description = "ID of the project") Long projectId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        ProjectTimelineResponseDto response = projectService.getProjectTimeline(projectId, cursor, limit);
+        return ResponseEntity.ok(response);
+    }
+
+
     @Operation(summary = "Get complete history of a specific milestone in a project",
             description = "Returns assignment and status change history of one milestone. Accessible to assigned user, their manager, Admin, or Operation Head.")
     @ApiResponses({
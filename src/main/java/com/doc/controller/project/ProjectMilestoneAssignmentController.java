@@ -1,5 +1,8 @@
 package com.doc.controller.project;
 
+import com.doc.dto.ProjectMilestoneassignment.BulkMilestoneResultDto;
+import com.doc.dto.ProjectMilestoneassignment.BulkMilestoneStatusUpdateDto;
+import com.doc.dto.ProjectMilestoneassignment.BulkReassignMilestoneDto;
 import com.doc.dto.ProjectMilestoneassignment.ReassignMilestoneDto;
 import com.doc.dto.ProjectMilestoneassignment.ReassignMilestoneResponseDto;
 import com.doc.dto.ProjectMilestoneassignment.SendBackToPreviousMilestoneDto;
@@ -55,6 +58,32 @@ public class ProjectMilestoneAssignmentController {
     }
 
 
+    @Operation(summary = "Update the status of many milestone assignments at once")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Per-assignment results; failed items were left unchanged"),
+            @ApiResponse(responseCode = "400", description = "Invalid request data"),
+            @ApiResponse(responseCode = "404", description = "User or status not found")
+    })
+    @PostMapping("/bulk/status")
+    public ResponseEntity<BulkMilestoneResultDto> bulkUpdateMilestoneStatus(
+            @Valid @RequestBody BulkMilestoneStatusUpdateDto dto) {
+        return ResponseEntity.ok(projectMilestoneAssignmentService.bulkUpdateMilestoneStatus(dto));
+    }
+
+
+    @Operation(summary = "Reassign many milestone assignments to one user by manager")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Per-assignment results; failed items were left unchanged"),
+            @ApiResponse(responseCode = "400", description = "Invalid request data or not a manager"),
+            @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    @PostMapping("/bulk/reassign")
+    public ResponseEntity<BulkMilestoneResultDto> bulkReassignMilestones(
+            @Valid @RequestBody BulkReassignMilestoneDto dto) {
+        return ResponseEntity.ok(projectMilestoneAssignmentService.bulkReassignMilestones(dto));
+    }
+
+
     @Operation(summary = "Send current milestone back to previous milestone for rework")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Previous milestone moved to rework successfully"),
@@ -40,6 +40,17 @@ public class UserLoginStatusController {
         return ResponseEntity.ok(dto);
     }
 
+    @Operation(summary = "Keep user online")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Heartbeat recorded"),
+            @ApiResponse(responseCode = "404", description = "User is not online")
+    })
+    @PostMapping("/{id}/heartbeat")
+    public ResponseEntity<UserLoginStatusResponseDto> heartbeat(@PathVariable Long id) {
+        UserLoginStatusResponseDto dto = userLoginStatusService.heartbeat(id);
+        return ResponseEntity.ok(dto);
+    }
+
     @Operation(summary = "Get user online status")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "User status retrieved successfully"),
@@ -0,0 +1,43 @@
+package com.doc.dashboard;
+
+import com.doc.entity.project.Project;
+import com.doc.entity.project.ProjectMilestoneAssignment;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * JPA listener that reports project and milestone assignment writes to
+ * {@link DashboardRollupService} and {@link UserPerformanceCache}. Like the
+ * search listener, the services are looked up lazily because listeners are
+ * created while the entity manager factory is still being built.
+ */
+public class DashboardEntityListener {
+
+    @Autowired
+    private ObjectProvider<DashboardRollupService> rollupService;
+
+    @Autowired
+    private ObjectProvider<UserPerformanceCache> performanceCache;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void afterWrite(Object entity) {
+        if (rollupService == null) {
+            return;
+        }
+
+        if (entity instanceof Project project) {
+            Long projectId = project.getId();
+            rollupService.ifAvailable(s -> s.projectChanged(projectId));
+        } else if (entity instanceof ProjectMilestoneAssignment assignment) {
+            Long projectId = assignment.getProject() != null ? assignment.getProject().getId() : null;
+            Long assignedUserId = assignment.getAssignedUser() != null ? assignment.getAssignedUser().getId() : null;
+            rollupService.ifAvailable(s -> s.projectChanged(projectId));
+            performanceCache.ifAvailable(c -> c.assignmentChanged(projectId, assignedUserId));
+        }
+    }
+}
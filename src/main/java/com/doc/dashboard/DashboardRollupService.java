@@ -0,0 +1,373 @@
+package com.doc.dashboard;
+
+import com.doc.em.DashboardRollupDimension;
+import com.doc.hierarchy.UserScope;
+import com.doc.repository.DashboardRollupRepository;
+import com.doc.repository.DashboardRollupRepository.BucketKey;
+import com.doc.repository.DashboardRollupRepository.MembershipKey;
+import com.doc.repository.DashboardRollupRepository.MembershipRow;
+import com.doc.repository.DashboardRollupRepository.ProjectFacts;
+import com.doc.repository.DashboardRollupRepository.StatusCount;
+import com.doc.transaction.AfterCommitCollector;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Maintains the project dashboard rollups: daily project counts by status
+ * for all projects, per user (sales person or milestone assignee) and per
+ * department of those users.
+ *
+ * Changes are captured by {@link DashboardEntityListener}: the ids of
+ * projects written in a transaction are recorded in dashboard_rollup_pending
+ * just before that transaction commits. Right after commit (and on a short
+ * poll as a fallback) the applier claims pending projects, recomputes their
+ * membership from the committed rows and adds the difference to the bucket
+ * counts. The applier runs in READ COMMITTED so appliers working on
+ * different projects do not take gap locks on each other's rows.
+ *
+ * The nightly reconciliation re-queues every project, then compares buckets
+ * with the membership table and rebuilds them if they have drifted. Writes
+ * that bypass JPA (bulk JPQL updates, department changes) are picked up there.
+ *
+ * Until the first full build has finished the rollups report not ready and
+ * the dashboard keeps using the live queries.
+ */
+@Service
+public class DashboardRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardRollupService.class);
+
+    private static final ZoneId INDIA_ZONE = ZoneId.of("Asia/Kolkata");
+    private static final long ALL_DIMENSION_ID = 0L;
+
+    private final DashboardRollupRepository rollupRepository;
+    private final TransactionTemplate applyTransaction;
+    private final TransactionTemplate rebuildTransaction;
+    private final ExecutorService applier;
+    private final AtomicBoolean applyScheduled = new AtomicBoolean();
+    private final AfterCommitCollector<Set<Long>> pendingProjects =
+            AfterCommitCollector.aroundCommit(HashSet::new, this::markPending, projectIds -> wakeApplier());
+
+    private final Counter appliedCounter;
+    private final Counter driftCounter;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${dashboard.rollup.batch-size:200}")
+    private int batchSize;
+
+    @Value("${dashboard.rollup.seed-batch-size:1000}")
+    private int seedBatchSize;
+
+    private volatile boolean ready;
+
+    public DashboardRollupService(
+            DashboardRollupRepository rollupRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry
+    ) {
+        this.rollupRepository = rollupRepository;
+
+        this.applyTransaction = new TransactionTemplate(transactionManager);
+        this.applyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.applyTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+
+        this.rebuildTransaction = new TransactionTemplate(transactionManager);
+        this.rebuildTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.applier = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "dashboard-rollup");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.appliedCounter = meterRegistry.counter("dashboard.rollup.applied");
+        this.driftCounter = meterRegistry.counter("dashboard.rollup.drift");
+    }
+
+    /**
+     * True once the rollups cover every project and can serve the dashboard.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    // ====================== READS ======================
+
+    /**
+     * Counts over all non-deleted projects created between the dates (inclusive, nullable).
+     */
+    public List<StatusCount> countAll(LocalDate fromDate, LocalDate toDate) {
+        return rollupRepository.sumBuckets(DashboardRollupDimension.ALL, ALL_DIMENSION_ID, fromDate, toDate);
+    }
+
+    /**
+     * Counts over projects where any of the users is the sales person or an
+     * assignee; each project is counted once.
+     */
+    public List<StatusCount> countForUsers(List<Long> userIds, LocalDate fromDate, LocalDate toDate) {
+        if (userIds.size() == 1) {
+            return rollupRepository.sumBuckets(DashboardRollupDimension.USER, userIds.get(0), fromDate, toDate);
+        }
+        return rollupRepository.countDistinctForUsers(userIds, fromDate, toDate);
+    }
+
+    public List<StatusCount> countForScope(UserScope scope, LocalDate fromDate, LocalDate toDate) {
+        if (scope.closureJoin()) {
+            return rollupRepository.countDistinctForManagerScope(scope.userId(), fromDate, toDate);
+        }
+        return countForUsers(scope.userIdList(), fromDate, toDate);
+    }
+
+    public List<StatusCount> countForDepartment(Long departmentId, LocalDate fromDate, LocalDate toDate) {
+        return rollupRepository.sumBuckets(DashboardRollupDimension.DEPARTMENT, departmentId, fromDate, toDate);
+    }
+
+    // ====================== CHANGE CAPTURE ======================
+
+    /**
+     * Records that a project or one of its assignments was written.
+     * Called by {@link DashboardEntityListener}.
+     */
+    public void projectChanged(Long projectId) {
+        if (projectId != null) {
+            pendingProjects.record(pending -> pending.add(projectId));
+        }
+    }
+
+    private void markPending(Set<Long> projectIds) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // The commit flush runs after this callback, so flush here
+            // to let the listener report the remaining writes first.
+            entityManager.flush();
+        }
+        rollupRepository.markPending(projectIds);
+    }
+
+    // ====================== APPLIER ======================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        applier.execute(() -> {
+            try {
+                if (rollupRepository.hasMemberships() || !rollupRepository.hasProjects()) {
+                    ready = true;
+                    return;
+                }
+                logger.info("Dashboard rollups are empty, building them from projects");
+                int queued = queueAllProjects();
+                applyPending();
+                ready = true;
+                logger.info("Dashboard rollups built for {} projects", queued);
+            } catch (Exception e) {
+                logger.error("Dashboard rollup build failed: {}", e.getMessage(), e);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${dashboard.rollup.poll-interval-ms:5000}")
+    public void poll() {
+        try {
+            applyPending();
+        } catch (Exception e) {
+            logger.error("Dashboard rollup apply failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Re-queues every project, then repairs buckets that no longer match
+     * the membership table.
+     */
+    @Scheduled(cron = "${dashboard.rollup.reconcile-cron:0 15 3 * * *}")
+    public void reconcile() {
+        try {
+            int queued = queueAllProjects();
+            applyPending();
+
+            Long drift = rebuildTransaction.execute(status -> rollupRepository.countBucketDrift());
+            if (drift != null && drift > 0) {
+                driftCounter.increment(drift);
+                logger.warn("Dashboard rollup drift: {} buckets differ from membership, rebuilding", drift);
+                rebuildTransaction.executeWithoutResult(status -> rollupRepository.rebuildBucketsFromMemberships());
+            }
+            ready = true;
+            logger.info("Dashboard rollup reconciliation checked {} projects, bucket drift {}", queued, drift);
+        } catch (Exception e) {
+            logger.error("Dashboard rollup reconciliation failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        applier.shutdownNow();
+    }
+
+    private void wakeApplier() {
+        if (!applyScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            applier.execute(() -> {
+                applyScheduled.set(false);
+                try {
+                    applyPending();
+                } catch (Exception e) {
+                    logger.warn("Dashboard rollup apply failed, will retry on next poll: {}", e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            applyScheduled.set(false);
+        }
+    }
+
+    private void applyPending() {
+        int applied;
+        do {
+            Integer count = applyTransaction.execute(status -> applyBatch());
+            applied = count != null ? count : 0;
+        } while (applied >= batchSize);
+    }
+
+    private int queueAllProjects() {
+        int queued = 0;
+        long lastId = 0;
+        List<Long> ids;
+        do {
+            long afterId = lastId;
+            ids = rebuildTransaction.execute(status -> {
+                List<Long> batch = rollupRepository.findProjectIdsAfter(afterId, seedBatchSize);
+                rollupRepository.markPending(batch);
+                return batch;
+            });
+            if (ids == null || ids.isEmpty()) {
+                break;
+            }
+            queued += ids.size();
+            lastId = ids.get(ids.size() - 1);
+        } while (ids.size() >= seedBatchSize);
+
+        rebuildTransaction.executeWithoutResult(status ->
+                rollupRepository.markPending(rollupRepository.findOrphanedMembershipProjectIds()));
+        return queued;
+    }
+
+    private int applyBatch() {
+        List<Long> projectIds = rollupRepository.claimPending(batchSize);
+        if (projectIds.isEmpty()) {
+            return 0;
+        }
+
+        Map<MembershipKey, MembershipRow> current = new HashMap<>();
+        for (MembershipRow row : rollupRepository.lockMemberships(projectIds)) {
+            current.put(row.key(), row);
+        }
+        Map<MembershipKey, MembershipRow> desired = computeMemberships(projectIds);
+
+        Map<BucketKey, Long> deltas = new HashMap<>();
+        List<MembershipRow> removed = new ArrayList<>();
+        List<MembershipRow> changed = new ArrayList<>();
+
+        for (MembershipRow existing : current.values()) {
+            MembershipRow wanted = desired.get(existing.key());
+            if (wanted == null) {
+                removed.add(existing);
+                deltas.merge(existing.bucket(), -1L, Long::sum);
+            } else if (!wanted.equals(existing)) {
+                changed.add(wanted);
+                deltas.merge(existing.bucket(), -1L, Long::sum);
+                deltas.merge(wanted.bucket(), 1L, Long::sum);
+            }
+        }
+        for (MembershipRow wanted : desired.values()) {
+            if (!current.containsKey(wanted.key())) {
+                changed.add(wanted);
+                deltas.merge(wanted.bucket(), 1L, Long::sum);
+            }
+        }
+
+        rollupRepository.deleteMemberships(removed);
+        rollupRepository.upsertMemberships(changed);
+        rollupRepository.addToBuckets(deltas);
+        rollupRepository.deletePending(projectIds);
+
+        appliedCounter.increment(projectIds.size());
+        return projectIds.size();
+    }
+
+    /**
+     * Membership rows the projects should have according to the committed
+     * project, assignment and department rows. Deleted projects have none.
+     */
+    private Map<MembershipKey, MembershipRow> computeMemberships(List<Long> projectIds) {
+        List<ProjectFacts> projects = rollupRepository.findProjectFacts(projectIds).stream()
+                .filter(p -> !p.deleted() && p.createdDate() != null)
+                .toList();
+        if (projects.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Long, Set<Long>> assignees = rollupRepository.findAssigneesByProject(
+                projects.stream().map(ProjectFacts::id).toList());
+
+        Map<Long, Set<Long>> membersByProject = new HashMap<>();
+        Set<Long> allUsers = new HashSet<>();
+        for (ProjectFacts project : projects) {
+            Set<Long> members = new HashSet<>(assignees.getOrDefault(project.id(), Set.of()));
+            if (project.salesPersonId() != null) {
+                members.add(project.salesPersonId());
+            }
+            membersByProject.put(project.id(), members);
+            allUsers.addAll(members);
+        }
+        Map<Long, Set<Long>> departments = rollupRepository.findDepartmentsByUser(allUsers);
+
+        Map<MembershipKey, MembershipRow> desired = new HashMap<>();
+        for (ProjectFacts project : projects) {
+            LocalDate bucketDate = LocalDate.ofInstant(project.createdDate(), INDIA_ZONE);
+
+            addMembership(desired, project, bucketDate, DashboardRollupDimension.ALL, ALL_DIMENSION_ID);
+            for (Long userId : membersByProject.get(project.id())) {
+                addMembership(desired, project, bucketDate, DashboardRollupDimension.USER, userId);
+                for (Long departmentId : departments.getOrDefault(userId, Set.of())) {
+                    addMembership(desired, project, bucketDate, DashboardRollupDimension.DEPARTMENT, departmentId);
+                }
+            }
+        }
+        return desired;
+    }
+
+    private void addMembership(
+            Map<MembershipKey, MembershipRow> desired,
+            ProjectFacts project,
+            LocalDate bucketDate,
+            DashboardRollupDimension dimension,
+            long dimensionId
+    ) {
+        MembershipRow row = new MembershipRow(
+                project.id(), dimension, dimensionId, bucketDate, project.statusId(), project.cancelled());
+        desired.putIfAbsent(row.key(), row);
+    }
+}
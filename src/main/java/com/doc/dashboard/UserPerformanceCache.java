@@ -0,0 +1,132 @@
+package com.doc.dashboard;
+
+import com.doc.dto.user.UserProjectPerformanceResponseDto;
+import com.doc.transaction.AfterCommitCollector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of user performance snapshots ({@code getUserProjectPerformance}),
+ * keyed by user and optional project filter.
+ *
+ * A snapshot is evicted after the commit of any transaction that writes a
+ * milestone assignment of its user or of one of its projects, so completing,
+ * reopening or reassigning a milestone is visible on the next request.
+ * The project match also covers the previous assignee of a reassigned
+ * milestone. Eviction only reaches this node's cache, so entries expire
+ * after {@code dashboard.performance-cache.ttl-seconds} (one minute by
+ * default) to bound how long a write made on another node stays unseen.
+ *
+ * A snapshot computed while an eviction happened is not stored, so a
+ * request racing a completion cannot put stale numbers back.
+ */
+@Component
+public class UserPerformanceCache {
+
+    private final Map<Key, Snapshot> entries;
+    private final Duration ttl;
+    private final AtomicLong generation = new AtomicLong();
+    private final AfterCommitCollector<Changes> changes =
+            AfterCommitCollector.afterCommit(Changes::new, c -> evict(c.projectIds, c.userIds));
+
+    public UserPerformanceCache(
+            @Value("${dashboard.performance-cache.max-entries:2000}") int maxEntries,
+            @Value("${dashboard.performance-cache.ttl-seconds:60}") long ttlSeconds
+    ) {
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Snapshot> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Read before computing a snapshot and pass it to {@link #put}.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    public Optional<UserProjectPerformanceResponseDto> get(Long userId, Long projectId) {
+        Key key = new Key(userId, projectId);
+        synchronized (entries) {
+            Snapshot snapshot = entries.get(key);
+            if (snapshot == null) {
+                return Optional.empty();
+            }
+            if (snapshot.expiresAt() < System.nanoTime()) {
+                entries.remove(key);
+                return Optional.empty();
+            }
+            return Optional.of(snapshot.response());
+        }
+    }
+
+    /**
+     * Stores a snapshot unless something was evicted since {@code generation} was read.
+     */
+    public void put(
+            Long userId,
+            Long projectId,
+            Set<Long> projectIds,
+            UserProjectPerformanceResponseDto response,
+            long generation
+    ) {
+        Snapshot snapshot = new Snapshot(response, Set.copyOf(projectIds), System.nanoTime() + ttl.toNanos());
+        synchronized (entries) {
+            if (this.generation.get() == generation) {
+                entries.put(new Key(userId, projectId), snapshot);
+            }
+        }
+    }
+
+    /**
+     * Records a milestone assignment write; evicts once the transaction commits.
+     */
+    public void assignmentChanged(Long projectId, Long assignedUserId) {
+        changes.record(c -> {
+            if (projectId != null) {
+                c.projectIds.add(projectId);
+            }
+            if (assignedUserId != null) {
+                c.userIds.add(assignedUserId);
+            }
+        });
+    }
+
+    public void evictAll() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    private void evict(Set<Long> projectIds, Set<Long> userIds) {
+        if (projectIds.isEmpty() && userIds.isEmpty()) {
+            return;
+        }
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.entrySet().removeIf(entry ->
+                    userIds.contains(entry.getKey().userId())
+                            || !Collections.disjoint(entry.getValue().projectIds(), projectIds));
+        }
+    }
+
+    private record Key(Long userId, Long projectId) {
+    }
+
+    private record Snapshot(UserProjectPerformanceResponseDto response, Set<Long> projectIds, long expiresAt) {
+    }
+
+    private static final class Changes {
+        private final Set<Long> projectIds = new HashSet<>();
+        private final Set<Long> userIds = new HashSet<>();
+    }
+}
@@ -0,0 +1,35 @@
+package com.doc.dto.ProjectMilestoneassignment;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk milestone request, one item per requested assignment in
+ * request order. Items that failed validation were left unchanged; all the
+ * others were applied together.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class BulkMilestoneResultDto {
+
+    private int requestedCount;
+    private int succeededCount;
+    private int failedCount;
+    private List<Item> items = new ArrayList<>();
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class Item {
+        private Long assignmentId;
+        private Long projectId;
+        private boolean success;
+        private String errorCode;
+        private String message;
+    }
+}
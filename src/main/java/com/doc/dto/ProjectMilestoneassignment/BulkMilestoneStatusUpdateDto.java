@@ -0,0 +1,35 @@
+package com.doc.dto.ProjectMilestoneassignment;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Moves many milestone assignments to the same status. Certification
+ * milestones cannot be completed this way since they need per-milestone
+ * certificate details.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class BulkMilestoneStatusUpdateDto {
+
+    @NotEmpty(message = "Assignment IDs cannot be empty")
+    @Size(max = 500, message = "At most 500 assignments can be updated at once")
+    private List<Long> assignmentIds;
+
+    @NotBlank(message = "New status name cannot be blank")
+    private String newStatusName;
+
+    @NotBlank(message = "Status reason cannot be blank")
+    private String statusReason;
+
+    @NotNull(message = "Changed by user ID cannot be null")
+    private Long changedById;
+}
@@ -0,0 +1,30 @@
+package com.doc.dto.ProjectMilestoneassignment;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class BulkReassignMilestoneDto {
+
+    @NotEmpty(message = "Assignment IDs cannot be empty")
+    @Size(max = 500, message = "At most 500 assignments can be reassigned at once")
+    private List<Long> assignmentIds;
+
+    @NotNull(message = "New user ID cannot be null")
+    private Long newUserId;
+
+    @NotBlank(message = "Reassignment reason cannot be blank")
+    private String reassignmentReason;
+
+    @NotNull(message = "Changed by user ID cannot be null")
+    private Long changedById;
+}
@@ -0,0 +1,22 @@
+package com.doc.dto.assignment;
+
+import com.doc.em.ReassignmentRunStatus;
+
+import java.time.LocalDateTime;
+
+public record ReassignmentRunResponseDto(
+        Long runId,
+        ReassignmentRunStatus status,
+        LocalDateTime offlineBefore,
+        long lastAssignmentId,
+        long scanned,
+        long reassigned,
+        long reassignedToManager,
+        long unassignable,
+        int chunks,
+        String error,
+        LocalDateTime startedAt,
+        LocalDateTime heartbeatAt,
+        LocalDateTime completedAt
+) {
+}
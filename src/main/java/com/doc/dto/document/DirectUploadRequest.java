@@ -0,0 +1,28 @@
+package com.doc.dto.document;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+@Data
+public class DirectUploadRequest {
+
+    @NotBlank(message = "File name is required")
+    private String fileName;
+
+    private String contentType;
+
+    @NotNull(message = "File size is required")
+    @Positive(message = "File size must be positive")
+    private Long fileSize;
+
+    /**
+     * Hex SHA-256 of the file. Completion fails unless the uploaded object
+     * hashes to this value.
+     */
+    @NotBlank(message = "SHA-256 is required")
+    @Pattern(regexp = "^[0-9a-fA-F]{64}$", message = "SHA-256 must be 64 hex characters")
+    private String sha256;
+}
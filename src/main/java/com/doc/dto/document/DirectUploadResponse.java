@@ -0,0 +1,18 @@
+package com.doc.dto.document;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Upload URL to PUT the file to, followed by a call to the complete endpoint.
+ */
+@Data
+public class DirectUploadResponse {
+    private String uploadId;
+    private String uploadUrl;
+    private String method;
+    private Map<String, String> headers;
+    private LocalDateTime expiresAt;
+}
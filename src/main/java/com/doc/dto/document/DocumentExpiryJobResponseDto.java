@@ -0,0 +1,16 @@
+package com.doc.dto.document;
+
+import com.doc.em.DocumentExpiryJobStatus;
+
+import java.time.LocalDateTime;
+
+public record DocumentExpiryJobResponseDto(
+        String jobId,
+        DocumentExpiryJobStatus status,
+        String source,
+        DocumentExpiryResponseDto result,
+        String error,
+        LocalDateTime submittedAt,
+        LocalDateTime completedAt
+) {
+}
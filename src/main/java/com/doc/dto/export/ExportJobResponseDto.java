@@ -0,0 +1,20 @@
+package com.doc.dto.export;
+
+import com.doc.em.ExportJobStatus;
+import com.doc.export.ExportDataset;
+import com.doc.export.ExportFormat;
+
+import java.time.LocalDateTime;
+
+public record ExportJobResponseDto(
+        String jobId,
+        ExportDataset dataset,
+        ExportFormat format,
+        ExportJobStatus status,
+        long rowsWritten,
+        String fileName,
+        String error,
+        LocalDateTime submittedAt,
+        LocalDateTime completedAt
+) {
+}
@@ -0,0 +1,20 @@
+package com.doc.dto.importer;
+
+import com.doc.em.BulkImportJobStatus;
+
+import java.time.LocalDateTime;
+
+public record BulkImportJobResponseDto(
+        String jobId,
+        String importType,
+        BulkImportJobStatus status,
+        String source,
+        long rowsProcessed,
+        long rowsImported,
+        long rowsFailed,
+        boolean resultAvailable,
+        String error,
+        LocalDateTime submittedAt,
+        LocalDateTime completedAt
+) {
+}
@@ -11,6 +11,11 @@ import java.util.List;
 @Builder
 public class MailRequestDto {
 
+    /**
+     * Sender; null uses spring.mail.username.
+     */
+    private String from;
+
     private String to;
 
     private List<String> cc;
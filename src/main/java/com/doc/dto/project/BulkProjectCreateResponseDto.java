@@ -0,0 +1,20 @@
+package com.doc.dto.project;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+public class BulkProjectCreateResponseDto {
+
+    private int totalCount;
+
+    private int createdCount;
+
+    private int failedCount;
+
+    private List<BulkProjectCreateResultDto> results = new ArrayList<>();
+}
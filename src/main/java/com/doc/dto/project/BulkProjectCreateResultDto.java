@@ -0,0 +1,25 @@
+package com.doc.dto.project;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Outcome of one row of a bulk project creation request.
+ */
+@Getter
+@Setter
+public class BulkProjectCreateResultDto {
+
+    /** Zero-based position of the row in the request. */
+    private int index;
+
+    private String projectNo;
+
+    private boolean created;
+
+    private Long projectId;
+
+    private String errorCode;
+
+    private String message;
+}
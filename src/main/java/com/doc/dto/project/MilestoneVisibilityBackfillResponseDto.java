@@ -0,0 +1,21 @@
+package com.doc.dto.project;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+public class MilestoneVisibilityBackfillResponseDto {
+
+    private int processedCount;
+
+    private List<Long> failedProjectIds = new ArrayList<>();
+
+    /** Pass as afterProjectId to continue with the next batch. */
+    private Long lastProjectId;
+
+    private boolean hasMore;
+}
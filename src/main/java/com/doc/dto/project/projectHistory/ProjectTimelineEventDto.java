@@ -0,0 +1,27 @@
+package com.doc.dto.project.projectHistory;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Date;
+
+/**
+ * One entry of the merged project timeline; exactly one of
+ * {@code assignment} and {@code statusChange} is set, matching {@code type}.
+ */
+@Getter
+@Setter
+public class ProjectTimelineEventDto {
+
+    public static final String TYPE_ASSIGNMENT = "ASSIGNMENT";
+    public static final String TYPE_STATUS_CHANGE = "STATUS_CHANGE";
+
+    private String type;
+    private Date date;
+    private Long milestoneAssignmentId;
+    private Long milestoneId;
+    private String milestoneName;
+    private AssignmentEventDto assignment;
+    private StatusChangeEventDto statusChange;
+
+}
@@ -0,0 +1,19 @@
+package com.doc.dto.project.projectHistory;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class ProjectTimelineResponseDto {
+
+    private Long projectId;
+    private List<ProjectTimelineEventDto> events;
+
+    /** Pass back as {@code cursor} to read the next page; null on the last page. */
+    private String nextCursor;
+    private boolean hasMore;
+
+}
@@ -0,0 +1,19 @@
+package com.doc.em;
+
+public enum AccountPostingJobStatus {
+
+    /**
+     * Waiting for a worker, possibly after a failed attempt.
+     */
+    PENDING,
+
+    /**
+     * Account Service returned a final result (posted, skipped or not required).
+     */
+    COMPLETED,
+
+    /**
+     * Not eligible for posting or out of attempts; needs a manual retry.
+     */
+    DEAD
+}
@@ -0,0 +1,9 @@
+package com.doc.em;
+
+public enum AccountPostingStep {
+
+    /**
+     * Step 3: approval-time government-fee vouchers.
+     */
+    GOVERNMENT_FEE_APPROVAL
+}
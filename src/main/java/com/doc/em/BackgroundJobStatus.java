@@ -0,0 +1,28 @@
+package com.doc.em;
+
+public enum BackgroundJobStatus {
+
+    /**
+     * Accepted and waiting for a free worker.
+     */
+    QUEUED,
+
+    /**
+     * Picked up by a worker.
+     */
+    RUNNING,
+
+    /**
+     * Finished; the result is available.
+     */
+    COMPLETED,
+
+    /**
+     * Finished with an error, or the node running it stopped.
+     */
+    FAILED;
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED;
+    }
+}
@@ -0,0 +1,19 @@
+package com.doc.em;
+
+public enum BackgroundJobType {
+
+    /**
+     * Expiry-date check of an uploaded file or URL.
+     */
+    DOCUMENT_EXPIRY,
+
+    /**
+     * Bulk import of a CSV / Excel file from S3.
+     */
+    BULK_IMPORT,
+
+    /**
+     * Report export to a downloadable file.
+     */
+    EXPORT
+}
@@ -0,0 +1,24 @@
+package com.doc.em;
+
+public enum BulkImportJobStatus {
+
+    /**
+     * Accepted and waiting for a free worker.
+     */
+    QUEUED,
+
+    /**
+     * Rows are being read and written.
+     */
+    RUNNING,
+
+    /**
+     * File fully processed; individual rows may still have failed.
+     */
+    COMPLETED,
+
+    /**
+     * The file could not be read or the import was aborted.
+     */
+    FAILED
+}
@@ -0,0 +1,19 @@
+package com.doc.em;
+
+public enum DashboardRollupDimension {
+
+    /**
+     * Every non-deleted project; dimension id is always 0.
+     */
+    ALL,
+
+    /**
+     * Sales person or assignee of a live milestone; dimension id is the user id.
+     */
+    USER,
+
+    /**
+     * Department of any USER member; dimension id is the department id.
+     */
+    DEPARTMENT
+}
@@ -0,0 +1,24 @@
+package com.doc.em;
+
+public enum DocumentExpiryJobStatus {
+
+    /**
+     * Accepted and waiting for a free worker.
+     */
+    QUEUED,
+
+    /**
+     * Text extraction / OCR in progress.
+     */
+    RUNNING,
+
+    /**
+     * Finished; the result is available.
+     */
+    COMPLETED,
+
+    /**
+     * Finished with an error.
+     */
+    FAILED
+}
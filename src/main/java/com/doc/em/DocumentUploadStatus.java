@@ -0,0 +1,19 @@
+package com.doc.em;
+
+public enum DocumentUploadStatus {
+
+    /**
+     * Upload URL issued; waiting for the client to upload and complete.
+     */
+    PENDING,
+
+    /**
+     * Object verified and the document row created.
+     */
+    COMPLETED,
+
+    /**
+     * Not completed before the upload URL expired.
+     */
+    EXPIRED
+}
@@ -0,0 +1,24 @@
+package com.doc.em;
+
+public enum ExportJobStatus {
+
+    /**
+     * Accepted and waiting for a free worker.
+     */
+    QUEUED,
+
+    /**
+     * Rows are being written to the export file.
+     */
+    RUNNING,
+
+    /**
+     * The file is stored and can be downloaded.
+     */
+    COMPLETED,
+
+    /**
+     * Finished with an error.
+     */
+    FAILED
+}
@@ -0,0 +1,9 @@
+package com.doc.em;
+
+public enum MailCallbackType {
+
+    /**
+     * RFQ mail to one vendor; reference id is the RFQVendor id.
+     */
+    RFQ_VENDOR
+}
@@ -0,0 +1,19 @@
+package com.doc.em;
+
+public enum MailOutboxStatus {
+
+    /**
+     * Waiting to be sent, possibly after a failed attempt.
+     */
+    PENDING,
+
+    /**
+     * Accepted by the SMTP server.
+     */
+    SENT,
+
+    /**
+     * Gave up after the maximum number of attempts.
+     */
+    DEAD
+}
@@ -0,0 +1,20 @@
+package com.doc.em;
+
+public enum MilestoneEventStatus {
+
+    /**
+     * Waiting to be applied, possibly after a failed attempt.
+     */
+    PENDING,
+
+    /**
+     * Visibility, project status and notification applied.
+     */
+    APPLIED,
+
+    /**
+     * Gave up after the maximum number of attempts; the nightly
+     * reconciliation still re-applies visibility and status.
+     */
+    DEAD
+}
@@ -0,0 +1,24 @@
+package com.doc.em;
+
+public enum NotificationOutboxStatus {
+
+    /**
+     * Waiting to be sent, possibly after a failed attempt.
+     */
+    PENDING,
+
+    /**
+     * Delivered to notification-service.
+     */
+    SENT,
+
+    /**
+     * Duplicate of a newer notification with the same receiver, event, reference and content.
+     */
+    COALESCED,
+
+    /**
+     * Gave up after the maximum number of attempts.
+     */
+    DEAD
+}
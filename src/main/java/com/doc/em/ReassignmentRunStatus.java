@@ -0,0 +1,19 @@
+package com.doc.em;
+
+public enum ReassignmentRunStatus {
+
+    /**
+     * Processing chunks; the checkpoint is the last assignment id handled.
+     */
+    RUNNING,
+
+    /**
+     * Every stale assignment up to the run's cutoff has been handled.
+     */
+    COMPLETED,
+
+    /**
+     * Stopped by an error; the next run resumes from the checkpoint.
+     */
+    FAILED
+}
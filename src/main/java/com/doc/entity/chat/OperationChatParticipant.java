@@ -52,6 +52,14 @@ public class OperationChatParticipant {
     @Column(name = "last_read_at")
     private LocalDateTime lastReadAt;
 
+    /**
+     * Messages from other participants since lastReadAt.
+     * Incremented on send and reset on read; null until backfilled for rows
+     * that existed before the counter was introduced.
+     */
+    @Column(name = "unread_count")
+    private Long unreadCount;
+
     /**
      * Active participant
      */
@@ -1,5 +1,7 @@
  package com.doc.entity.client;
 
+import com.doc.projectdetail.ProjectDetailEntityListener;
+import com.doc.search.ProjectSearchEntityListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
@@ -9,6 +11,7 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 @Entity
+@EntityListeners({ProjectSearchEntityListener.class, ProjectDetailEntityListener.class})
 @Table(name = "company")
 @Getter
 @Setter
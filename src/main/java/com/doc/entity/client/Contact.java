@@ -1,5 +1,7 @@
 package com.doc.entity.client;
 
+import com.doc.projectdetail.ProjectDetailEntityListener;
+import com.doc.search.ProjectSearchEntityListener;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -11,6 +13,7 @@ import java.time.LocalDateTime;
 import java.util.Date;
 
 @Entity
+@EntityListeners({ProjectSearchEntityListener.class, ProjectDetailEntityListener.class})
 @Table(name = "contact",
         indexes = {
                 @Index(name = "idx_contact_name", columnList = "name"),
@@ -6,7 +6,8 @@ import lombok.*;
 @Entity
 @Table(name = "documents",
         indexes = {
-                @Index(name = "idx_uuid", columnList = "uuid", unique = true)
+                @Index(name = "idx_uuid", columnList = "uuid", unique = true),
+                @Index(name = "idx_documents_content_hash", columnList = "content_hash, file_size")
         })
 @Getter
 @Setter
@@ -26,4 +27,17 @@ public class Document {
 
     @Column(name = "file_url", nullable = false, length = 1000)
     private String fileUrl;
+
+    /**
+     * Hex SHA-256 of the content. Documents with the same hash and size
+     * share one stored object; null for documents uploaded before hashing.
+     */
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "file_size")
+    private Long fileSize;
+
+    @Column(name = "content_type", length = 255)
+    private String contentType;
 }
\ No newline at end of file
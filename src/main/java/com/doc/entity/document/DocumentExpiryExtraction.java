@@ -0,0 +1,57 @@
+package com.doc.entity.document;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Comment;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Persistent tier of the document-expiry result cache.
+ * One row per distinct file content and extractor version.
+ */
+@Entity
+@Table(name = "document_expiry_extractions", indexes = {
+        @Index(name = "idx_content_sha256_version", columnList = "content_sha256, extractor_version", unique = true)
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class DocumentExpiryExtraction {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Comment("Primary key: Extraction ID")
+    private Long id;
+
+    @Column(name = "content_sha256", nullable = false, length = 64)
+    @Comment("Hex SHA-256 of the file bytes")
+    private String contentSha256;
+
+    @Column(name = "extractor_version", nullable = false, length = 40)
+    @Comment("Extraction rules and OCR language the row was produced with")
+    private String extractorVersion;
+
+    @Column(name = "text_found", nullable = false)
+    @Comment("Whether any readable text was extracted")
+    private boolean textFound;
+
+    @Column(name = "expiry_date")
+    @Comment("Extracted expiry date, null when not found")
+    private LocalDate expiryDate;
+
+    @Column(name = "matched_text", columnDefinition = "varchar(1000)")
+    @Comment("Text the expiry date was matched from")
+    private String matchedText;
+
+    @Column(name = "confident", nullable = false)
+    @Comment("True when the date was found next to an expiry keyword")
+    private boolean confident;
+
+    @Column(name = "created_date", nullable = false)
+    @Comment("When the extraction was stored")
+    private LocalDateTime createdDate;
+}
@@ -0,0 +1,65 @@
+package com.doc.entity.document;
+
+import com.doc.em.DocumentUploadStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A direct-to-S3 upload in progress.
+ *
+ * Created when a presigned upload URL is issued; the client uploads the file
+ * straight to S3 and then completes the upload, which verifies the object
+ * and creates the {@link Document}.
+ */
+@Entity
+@Table(name = "document_upload_sessions", indexes = {
+        @Index(name = "idx_document_upload_upload_id", columnList = "upload_id", unique = true),
+        @Index(name = "idx_document_upload_status_expires", columnList = "status, expires_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class DocumentUploadSession {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "upload_id", nullable = false, unique = true, length = 36, updatable = false)
+    private String uploadId;
+
+    @Column(name = "s3_key", nullable = false, length = 500)
+    private String s3Key;
+
+    @Column(name = "file_name", nullable = false, length = 255)
+    private String fileName;
+
+    @Column(name = "content_type", nullable = false, length = 255)
+    private String contentType;
+
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    @Column(name = "file_size", nullable = false)
+    private Long fileSize;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private DocumentUploadStatus status = DocumentUploadStatus.PENDING;
+
+    @Column(name = "document_id")
+    private Long documentId;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_date", nullable = false)
+    private LocalDateTime createdDate;
+
+    @Column(name = "completed_date")
+    private LocalDateTime completedDate;
+}
@@ -0,0 +1,92 @@
+package com.doc.entity.job;
+
+import com.doc.em.BackgroundJobStatus;
+import com.doc.em.BackgroundJobType;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Comment;
+
+import java.time.LocalDateTime;
+
+/**
+ * State of a document-expiry, import or export job.
+ *
+ * Jobs run on the node that accepted them, but their state lives here so
+ * that any node can answer a status poll. The owning node refreshes
+ * heartbeat_at while the job is unfinished; a job whose heartbeat stops is
+ * failed by {@code BackgroundJobRegistry}.
+ */
+@Entity
+@Table(name = "background_job", indexes = {
+        @Index(name = "idx_background_job_status_heartbeat", columnList = "status, heartbeat_at"),
+        @Index(name = "idx_background_job_type_completed", columnList = "job_type, completed_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class BackgroundJob {
+
+    @Id
+    @Column(name = "id", length = 36)
+    @Comment("Primary key: job UUID handed to the client")
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "job_type", nullable = false, length = 30)
+    private BackgroundJobType jobType;
+
+    @Column(name = "category", length = 100)
+    @Comment("Import type or export dataset")
+    private String category;
+
+    @Column(name = "format", length = 20)
+    @Comment("Output format of export jobs")
+    private String format;
+
+    @Column(name = "source", columnDefinition = "varchar(1000)")
+    @Comment("File name, URL or S3 key the job reads")
+    private String source;
+
+    @Column(name = "owner_id")
+    @Comment("User who submitted the job, when only they may read its result")
+    private Long ownerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private BackgroundJobStatus status = BackgroundJobStatus.QUEUED;
+
+    @Column(name = "node_id", nullable = false, length = 36)
+    @Comment("Node running the job")
+    private String nodeId;
+
+    @Column(name = "heartbeat_at", nullable = false)
+    private LocalDateTime heartbeatAt;
+
+    @Column(name = "rows_processed", nullable = false)
+    private long rowsProcessed;
+
+    @Column(name = "rows_succeeded", nullable = false)
+    private long rowsSucceeded;
+
+    @Column(name = "rows_failed", nullable = false)
+    private long rowsFailed;
+
+    @Column(name = "result_key", columnDefinition = "varchar(500)")
+    @Comment("S3 / storage key of the result file")
+    private String resultKey;
+
+    @Column(name = "result_json", columnDefinition = "TEXT")
+    @Comment("Result of jobs that return a value instead of a file")
+    private String resultJson;
+
+    @Column(name = "error", columnDefinition = "varchar(1000)")
+    private String error;
+
+    @Column(name = "submitted_at", nullable = false)
+    private LocalDateTime submittedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
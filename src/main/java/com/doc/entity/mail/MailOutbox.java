@@ -0,0 +1,129 @@
+package com.doc.entity.mail;
+
+import com.doc.dto.mail.MailRequestDto;
+import com.doc.em.MailCallbackType;
+import com.doc.em.MailOutboxStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Comment;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Rendered mail waiting to be sent over SMTP.
+ *
+ * Rows are written in the business transaction that produced the mail and
+ * sent afterwards by {@code MailOutboxDispatcher}. An optional callback
+ * (type and reference id) is invoked once the mail is sent or given up on.
+ */
+@Entity
+@Table(name = "mail_outbox", indexes = {
+        @Index(name = "idx_mail_outbox_status_next_attempt", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_mail_outbox_callback", columnList = "callback_type, callback_reference_id, status")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class MailOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Comment("Primary key: Mail outbox entry ID")
+    private Long id;
+
+    @Column(name = "from_address")
+    @Comment("Sender; null uses spring.mail.username")
+    private String fromAddress;
+
+    @Column(name = "to_address", nullable = false, columnDefinition = "varchar(500)")
+    private String toAddress;
+
+    @Column(name = "cc_addresses", columnDefinition = "TEXT")
+    @Comment("Comma separated")
+    private String ccAddresses;
+
+    @Column(name = "bcc_addresses", columnDefinition = "TEXT")
+    @Comment("Comma separated")
+    private String bccAddresses;
+
+    @Column(name = "subject", columnDefinition = "varchar(1000)")
+    private String subject;
+
+    @Column(name = "body", columnDefinition = "LONGTEXT")
+    private String body;
+
+    @Column(name = "html", nullable = false)
+    private boolean html;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "callback_type", length = 30)
+    private MailCallbackType callbackType;
+
+    @Column(name = "callback_reference_id")
+    private Long callbackReferenceId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Comment("PENDING, SENT or DEAD")
+    private MailOutboxStatus status = MailOutboxStatus.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    @Comment("Send attempts made so far")
+    private int attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    @Comment("Earliest time of the next send attempt; also used as the claim lease")
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", columnDefinition = "varchar(1000)")
+    private String lastError;
+
+    @Column(name = "created_by")
+    private Long createdBy;
+
+    @Column(name = "created_date", nullable = false)
+    private LocalDateTime createdDate;
+
+    @Column(name = "sent_date")
+    private LocalDateTime sentDate;
+
+    public static MailOutbox from(MailRequestDto requestDto, LocalDateTime now) {
+        MailOutbox entry = new MailOutbox();
+        entry.setFromAddress(requestDto.getFrom());
+        entry.setToAddress(requestDto.getTo());
+        entry.setCcAddresses(join(requestDto.getCc()));
+        entry.setBccAddresses(join(requestDto.getBcc()));
+        entry.setSubject(requestDto.getSubject());
+        entry.setBody(requestDto.getBody());
+        entry.setHtml(requestDto.isHtml());
+        entry.setNextAttemptAt(now);
+        entry.setCreatedDate(now);
+        return entry;
+    }
+
+    public MailRequestDto toRequestDto() {
+        return MailRequestDto.builder()
+                .from(fromAddress)
+                .to(toAddress)
+                .cc(split(ccAddresses))
+                .bcc(split(bccAddresses))
+                .subject(subject)
+                .body(body)
+                .html(html)
+                .build();
+    }
+
+    private static String join(List<String> addresses) {
+        return addresses == null || addresses.isEmpty() ? null : String.join(",", addresses);
+    }
+
+    private static List<String> split(String addresses) {
+        return addresses == null || addresses.isBlank()
+                ? List.of()
+                : Arrays.stream(addresses.split(",")).map(String::trim).filter(a -> !a.isEmpty()).toList();
+    }
+}
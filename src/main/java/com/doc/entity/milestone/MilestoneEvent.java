@@ -0,0 +1,113 @@
+package com.doc.entity.milestone;
+
+import com.doc.em.MilestoneEventStatus;
+import com.doc.milestone.MilestoneStatusChangedEvent;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Comment;
+
+import java.time.LocalDateTime;
+
+/**
+ * Milestone status change waiting for its side effects.
+ *
+ * Rows are written in the transaction that changed the status and applied
+ * afterwards by {@code MilestoneTransitionPipeline}.
+ */
+@Entity
+@Table(name = "milestone_event", indexes = {
+        @Index(name = "idx_milestone_event_status_next_attempt", columnList = "status, next_attempt_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class MilestoneEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Comment("Primary key: Milestone event ID")
+    private Long id;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    @Column(name = "assignment_id")
+    @Comment("ProjectMilestoneAssignment whose status changed")
+    private Long assignmentId;
+
+    @Column(name = "milestone_name")
+    private String milestoneName;
+
+    @Column(name = "assigned_user_id")
+    @Comment("User to notify; null when nobody is notified")
+    private Long assignedUserId;
+
+    @Column(name = "previous_status", length = 50)
+    private String previousStatus;
+
+    @Column(name = "new_status", length = 50)
+    private String newStatus;
+
+    @Column(name = "reason", columnDefinition = "TEXT")
+    private String reason;
+
+    @Column(name = "changed_by_id")
+    private Long changedById;
+
+    @Column(name = "changed_by_name")
+    private String changedByName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Comment("PENDING, APPLIED or DEAD")
+    private MilestoneEventStatus status = MilestoneEventStatus.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    @Comment("Failed attempts so far")
+    private int attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    @Comment("Earliest time of the next attempt; also used as the claim lease")
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", columnDefinition = "varchar(1000)")
+    private String lastError;
+
+    @Column(name = "created_date", nullable = false)
+    private LocalDateTime createdDate;
+
+    @Column(name = "applied_date")
+    private LocalDateTime appliedDate;
+
+    public static MilestoneEvent from(MilestoneStatusChangedEvent event, LocalDateTime now) {
+        MilestoneEvent entry = new MilestoneEvent();
+        entry.setProjectId(event.projectId());
+        entry.setAssignmentId(event.assignmentId());
+        entry.setMilestoneName(event.milestoneName());
+        entry.setAssignedUserId(event.assignedUserId());
+        entry.setPreviousStatus(event.previousStatus());
+        entry.setNewStatus(event.newStatus());
+        entry.setReason(event.reason());
+        entry.setChangedById(event.changedById());
+        entry.setChangedByName(event.changedByName());
+        entry.setNextAttemptAt(now);
+        entry.setCreatedDate(now);
+        return entry;
+    }
+
+    public MilestoneStatusChangedEvent toEvent() {
+        return new MilestoneStatusChangedEvent(
+                projectId,
+                assignmentId,
+                milestoneName,
+                assignedUserId,
+                previousStatus,
+                newStatus,
+                reason,
+                changedById,
+                changedByName
+        );
+    }
+}
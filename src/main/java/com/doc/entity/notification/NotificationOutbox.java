@@ -0,0 +1,170 @@
+package com.doc.entity.notification;
+
+import com.doc.em.NotificationOutboxStatus;
+import com.doc.notification.*;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Comment;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+
+/**
+ * Notification waiting to be delivered to notification-service.
+ *
+ * Rows are written in the business transaction that raised the notification
+ * and delivered afterwards by {@code NotificationOutboxDispatcher}.
+ */
+@Entity
+@Table(name = "notification_outbox", indexes = {
+        @Index(name = "idx_outbox_status_next_attempt", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_outbox_coalesce_key", columnList = "coalesce_key, status")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class NotificationOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Comment("Primary key: Outbox entry ID")
+    private Long id;
+
+    @Column(name = "receiver_id", nullable = false)
+    @Comment("User who receives the notification")
+    private Long receiverId;
+
+    @Column(name = "actor_id")
+    @Comment("User who caused the notification")
+    private Long actorId;
+
+    @Column(name = "actor_name")
+    private String actorName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "module", length = 30)
+    private NotificationModule module;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", length = 50)
+    private NotificationEventType eventType;
+
+    @Column(name = "reference_id")
+    private Long referenceId;
+
+    @Column(name = "reference_number")
+    private String referenceNumber;
+
+    @Column(name = "title", columnDefinition = "varchar(500)")
+    private String title;
+
+    @Column(name = "message", columnDefinition = "TEXT")
+    private String message;
+
+    @Column(name = "redirect_url", columnDefinition = "varchar(1000)")
+    private String redirectUrl;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "priority", length = 20)
+    private NotificationPriority priority;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "display_type", length = 20)
+    private NotificationDisplayType displayType;
+
+    @Column(name = "metadata_json", columnDefinition = "TEXT")
+    private String metadataJson;
+
+    @Column(name = "coalesce_key", nullable = false)
+    @Comment("receiverId:module:eventType:referenceId:contentHash; only the newest pending row per key is sent")
+    private String coalesceKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Comment("PENDING, SENT, COALESCED or DEAD")
+    private NotificationOutboxStatus status = NotificationOutboxStatus.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    @Comment("Delivery attempts made so far")
+    private int attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    @Comment("Earliest time of the next delivery attempt; also used as the claim lease")
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", columnDefinition = "varchar(1000)")
+    private String lastError;
+
+    @Column(name = "created_date", nullable = false)
+    private LocalDateTime createdDate;
+
+    @Column(name = "sent_date")
+    private LocalDateTime sentDate;
+
+    public static NotificationOutbox from(NotificationCreateRequestDto requestDto, LocalDateTime now) {
+        NotificationOutbox entry = new NotificationOutbox();
+        entry.setReceiverId(requestDto.getReceiverId());
+        entry.setActorId(requestDto.getActorId());
+        entry.setActorName(requestDto.getActorName());
+        entry.setModule(requestDto.getModule());
+        entry.setEventType(requestDto.getEventType());
+        entry.setReferenceId(requestDto.getReferenceId());
+        entry.setReferenceNumber(requestDto.getReferenceNumber());
+        entry.setTitle(requestDto.getTitle());
+        entry.setMessage(requestDto.getMessage());
+        entry.setRedirectUrl(requestDto.getRedirectUrl());
+        entry.setPriority(requestDto.getPriority());
+        entry.setDisplayType(requestDto.getDisplayType());
+        entry.setMetadataJson(requestDto.getMetadataJson());
+        entry.setCoalesceKey(coalesceKey(requestDto));
+        entry.setNextAttemptAt(now);
+        entry.setCreatedDate(now);
+        return entry;
+    }
+
+    /**
+     * Rows only coalesce when they are true duplicates: same receiver, event
+     * and reference, and the same title, message, link and metadata. Two
+     * notifications about different assignments of one project differ in
+     * their content and are both sent.
+     */
+    static String coalesceKey(NotificationCreateRequestDto requestDto) {
+        String content = String.join("\u0000",
+                String.valueOf(requestDto.getReferenceNumber()),
+                String.valueOf(requestDto.getTitle()),
+                String.valueOf(requestDto.getMessage()),
+                String.valueOf(requestDto.getRedirectUrl()),
+                String.valueOf(requestDto.getMetadataJson()));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+            return requestDto.getReceiverId() + ":" + requestDto.getModule() + ":"
+                    + requestDto.getEventType() + ":" + requestDto.getReferenceId() + ":"
+                    + HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public NotificationCreateRequestDto toRequestDto() {
+        return NotificationCreateRequestDto.builder()
+                .receiverId(receiverId)
+                .actorId(actorId)
+                .actorName(actorName)
+                .module(module)
+                .eventType(eventType)
+                .referenceId(referenceId)
+                .referenceNumber(referenceNumber)
+                .title(title)
+                .message(message)
+                .redirectUrl(redirectUrl)
+                .priority(priority)
+                .displayType(displayType)
+                .metadataJson(metadataJson)
+                .build();
+    }
+}
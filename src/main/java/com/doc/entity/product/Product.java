@@ -3,6 +3,7 @@ package com.doc.entity.product;
 import com.doc.entity.document.ProductDocumentMapping;
 import com.doc.entity.user.User;
 import com.doc.entity.user.UserProductMap;
+import com.doc.search.ProjectSearchEntityListener;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -14,6 +15,7 @@ import java.util.Date;
 import java.util.List;
 
 @Entity
+@EntityListeners(ProjectSearchEntityListener.class)
 @Table(name = "products", indexes = {
         @Index(name = "idx_product_name", columnList = "productName", unique = true)
 })
@@ -0,0 +1,59 @@
+package com.doc.entity.project;
+
+import com.doc.em.DashboardRollupDimension;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Comment;
+
+import java.time.LocalDate;
+
+/**
+ * Daily project count for one dashboard dimension, status and cancelled flag.
+ *
+ * Maintained incrementally in the transaction that changes a project or its
+ * milestone assignments; a dashboard request sums a few of these rows
+ * instead of scanning projects. Written only through
+ * {@code DashboardRollupRepository}.
+ */
+@Entity
+@Table(
+        name = "dashboard_rollup_bucket",
+        uniqueConstraints = {
+                @UniqueConstraint(
+                        name = "uk_rollup_bucket",
+                        columnNames = {"dimension_type", "dimension_id", "bucket_date", "status_id", "cancelled"}
+                )
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+public class DashboardRollupBucket {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "dimension_type", nullable = false, length = 16)
+    private DashboardRollupDimension dimensionType;
+
+    @Column(name = "dimension_id", nullable = false)
+    @Comment("User or department id; 0 for ALL")
+    private Long dimensionId;
+
+    @Column(name = "bucket_date", nullable = false)
+    @Comment("Project created date in Asia/Kolkata")
+    private LocalDate bucketDate;
+
+    @Column(name = "status_id", nullable = false)
+    private Long statusId;
+
+    @Column(name = "cancelled", nullable = false)
+    private boolean cancelled;
+
+    @Column(name = "project_count", nullable = false)
+    private long projectCount;
+}
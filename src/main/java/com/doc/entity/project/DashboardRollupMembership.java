@@ -0,0 +1,65 @@
+package com.doc.entity.project;
+
+import com.doc.em.DashboardRollupDimension;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Comment;
+
+import java.time.LocalDate;
+
+/**
+ * One project's contribution to a dashboard rollup dimension.
+ *
+ * Kept alongside {@link DashboardRollupBucket} so an incremental update can
+ * tell which bucket a project was counted in before it changed, and so
+ * counts over several users can be de-duplicated per project.
+ * Written only through {@code DashboardRollupRepository}.
+ */
+@Entity
+@Table(
+        name = "dashboard_rollup_membership",
+        indexes = {
+                @Index(
+                        name = "idx_rollup_membership_dimension",
+                        columnList = "dimension_type, dimension_id, bucket_date, status_id, cancelled, project_id"
+                )
+        },
+        uniqueConstraints = {
+                @UniqueConstraint(
+                        name = "uk_rollup_membership",
+                        columnNames = {"project_id", "dimension_type", "dimension_id"}
+                )
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+public class DashboardRollupMembership {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "dimension_type", nullable = false, length = 16)
+    private DashboardRollupDimension dimensionType;
+
+    @Column(name = "dimension_id", nullable = false)
+    @Comment("User or department id; 0 for ALL")
+    private Long dimensionId;
+
+    @Column(name = "bucket_date", nullable = false)
+    @Comment("Project created date in Asia/Kolkata")
+    private LocalDate bucketDate;
+
+    @Column(name = "status_id", nullable = false)
+    private Long statusId;
+
+    @Column(name = "cancelled", nullable = false)
+    private boolean cancelled;
+}
@@ -0,0 +1,31 @@
+package com.doc.entity.project;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Project whose dashboard rollup membership must be recomputed.
+ *
+ * Inserted in the same transaction as the project or assignment change, so
+ * a committed change is never missed; removed once the rollup applier has
+ * folded it into {@link DashboardRollupBucket}. Written only through
+ * {@code DashboardRollupRepository}.
+ */
+@Entity
+@Table(name = "dashboard_rollup_pending")
+@Getter
+@Setter
+@NoArgsConstructor
+public class DashboardRollupPending {
+
+    @Id
+    @Column(name = "project_id")
+    private Long projectId;
+
+    @Column(name = "queued_at", nullable = false)
+    private LocalDateTime queuedAt;
+}
@@ -5,6 +5,9 @@ import com.doc.entity.client.CompanyUnit;
 import com.doc.entity.client.Contact;
 import com.doc.entity.document.ApplicantType;
 import com.doc.entity.product.Product;
+import com.doc.dashboard.DashboardEntityListener;
+import com.doc.projectdetail.ProjectDetailEntityListener;
+import com.doc.search.ProjectSearchEntityListener;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -16,6 +19,7 @@ import java.util.Date;
 import java.util.List;
 
 @Entity
+@EntityListeners({ProjectSearchEntityListener.class, DashboardEntityListener.class, ProjectDetailEntityListener.class})
 @Table(name = "project", indexes = {
         @Index(name = "idx_project_no", columnList = "projectNo", unique = true),
         @Index(name = "idx_product_id", columnList = "product_id"),
@@ -24,7 +28,8 @@ import java.util.List;
         @Index(name = "idx_unbilled_no", columnList = "unbilled_number"),
         @Index(name = "idx_estimate_no", columnList = "estimate_number"),
         @Index(name = "idx_company_id", columnList = "company_id"),
-        @Index(name = "idx_unit_id", columnList = "unit_id")
+        @Index(name = "idx_unit_id", columnList = "unit_id"),
+        @Index(name = "idx_project_updated_date", columnList = "updated_date")
 })
 @Getter
 @Setter
@@ -99,6 +104,14 @@ public class Project {
     @Comment("Updated date")
     private Date updatedDate;
 
+    /**
+     * Written only by {@code ProjectDetailCache} with SQL, never by the entity.
+     */
+    @Column(name = "detail_version", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "bigint not null default 0")
+    @Comment("Bumped by every transaction that changes what the project detail page shows")
+    private long detailVersion;
+
     @Comment("Created by user ID")
     private Long createdBy;
 
@@ -12,7 +12,8 @@ import java.util.Date;
 @Entity
 @Table(name = "project_assignment_history", indexes = {
         @Index(name = "idx_project_id", columnList = "project_id"),
-        @Index(name = "idx_milestone_assignment_id", columnList = "milestone_assignment_id")
+        @Index(name = "idx_milestone_assignment_id", columnList = "milestone_assignment_id"),
+        @Index(name = "idx_project_created_date", columnList = "project_id, created_date")
 })
 @Getter
 @Setter
@@ -6,6 +6,9 @@ import com.doc.entity.milestone.Milestone;
 import com.doc.entity.milestone.MilestoneStatus;
 import com.doc.entity.product.ProductMilestoneMap;
 import com.doc.entity.user.User;
+import com.doc.dashboard.DashboardEntityListener;
+import com.doc.projectdetail.ProjectDetailEntityListener;
+import com.doc.search.ProjectSearchEntityListener;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -16,14 +19,17 @@ import java.time.LocalDate;
 import java.util.Date;
 
 @Entity
+@EntityListeners({ProjectSearchEntityListener.class, DashboardEntityListener.class, ProjectDetailEntityListener.class})
 @Table(name = "project_milestone_assignment", indexes = {
         @Index(name = "idx_project_id", columnList = "project_id"),
         @Index(name = "idx_milestone_id", columnList = "milestone_id"),
         @Index(name = "idx_assigned_user_id", columnList = "assigned_user_id"),
         @Index(name = "idx_status_id", columnList = "status_id"),
         @Index(name = "idx_is_visible", columnList = "is_visible"),
+        @Index(name = "idx_assignee_visible_project", columnList = "assigned_user_id, is_visible, is_deleted, project_id"),
         @Index(name = "idx_certificate_expiry_date", columnList = "certificate_expiry_date"),
-        @Index(name = "idx_renewal_due_date", columnList = "renewal_due_date")
+        @Index(name = "idx_renewal_due_date", columnList = "renewal_due_date"),
+        @Index(name = "idx_pma_updated_date", columnList = "updated_date")
 })
 @Getter
 @Setter
@@ -0,0 +1,68 @@
+package com.doc.entity.project;
+
+import com.doc.em.ReassignmentRunStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One pass of the offline-user reassignment engine, with its checkpoint.
+ *
+ * Assignments are processed in id order; {@code lastAssignmentId} is written
+ * in the same transaction as each chunk, so a run interrupted by a restart
+ * or an error continues after the last committed chunk with the same
+ * {@code offlineBefore} cutoff.
+ */
+@Entity
+@Table(name = "reassignment_runs", indexes = {
+        @Index(name = "idx_reassignment_runs_status", columnList = "status")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class ReassignmentRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private ReassignmentRunStatus status = ReassignmentRunStatus.RUNNING;
+
+    @Column(name = "offline_before", nullable = false)
+    private LocalDateTime offlineBefore;
+
+    @Column(name = "last_assignment_id", nullable = false)
+    private long lastAssignmentId;
+
+    @Column(name = "scanned_count", nullable = false)
+    private long scannedCount;
+
+    @Column(name = "reassigned_count", nullable = false)
+    private long reassignedCount;
+
+    @Column(name = "manager_count", nullable = false)
+    private long managerCount;
+
+    @Column(name = "unassignable_count", nullable = false)
+    private long unassignableCount;
+
+    @Column(name = "chunk_count", nullable = false)
+    private int chunkCount;
+
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+
+    @Column(name = "started_date", nullable = false)
+    private LocalDateTime startedDate;
+
+    @Column(name = "heartbeat_date", nullable = false)
+    private LocalDateTime heartbeatDate;
+
+    @Column(name = "completed_date")
+    private LocalDateTime completedDate;
+}
@@ -0,0 +1,87 @@
+package com.doc.entity.project.activity;
+
+import com.doc.em.AccountPostingJobStatus;
+import com.doc.em.AccountPostingStep;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Comment;
+
+import java.time.LocalDateTime;
+
+/**
+ * Durable queue entry for an Account Service posting of one expense step.
+ *
+ * Written in the transaction that made the expense eligible, so a crash
+ * between commit and posting cannot lose it. The idempotency key
+ * (step:expenseId) is unique: an expense step is queued at most once and
+ * re-queuing reuses the same row.
+ */
+@Entity
+@Table(
+        name = "account_posting_job",
+        indexes = {
+                @Index(
+                        name = "idx_posting_job_status_next_attempt",
+                        columnList = "status, next_attempt_at"
+                ),
+                @Index(
+                        name = "idx_posting_job_expense",
+                        columnList = "expense_id"
+                )
+        },
+        uniqueConstraints = {
+                @UniqueConstraint(
+                        name = "uk_posting_job_idempotency_key",
+                        columnNames = "idempotency_key"
+                )
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+public class AccountPostingJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "expense_id", nullable = false)
+    private Long expenseId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "step", nullable = false, length = 40)
+    private AccountPostingStep step;
+
+    @Column(name = "idempotency_key", nullable = false, length = 80)
+    @Comment("step:expenseId")
+    private String idempotencyKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private AccountPostingJobStatus status = AccountPostingJobStatus.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    @Comment("Earliest time of the next attempt; also used as the claim lease")
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 2000)
+    private String lastError;
+
+    @Column(name = "created_date", nullable = false)
+    private LocalDateTime createdDate;
+
+    @Column(name = "updated_date", nullable = false)
+    private LocalDateTime updatedDate;
+
+    @Column(name = "completed_date")
+    private LocalDateTime completedDate;
+
+    public static String idempotencyKey(AccountPostingStep step, Long expenseId) {
+        return step.name() + ":" + expenseId;
+    }
+}
@@ -0,0 +1,30 @@
+package com.doc.entity.user;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Comment;
+
+import java.time.LocalDateTime;
+
+/**
+ * Application node taking part in shared presence ({@code presence.backend=jdbc}).
+ * A node whose heartbeat is older than the node timeout is treated as gone
+ * and its sessions are ignored.
+ */
+@Entity
+@Table(name = "presence_node")
+@Getter
+@Setter
+@NoArgsConstructor
+public class PresenceNode {
+
+    @Id
+    @Column(name = "node_id", length = 64)
+    @Comment("Random id chosen by the node at startup")
+    private String nodeId;
+
+    @Column(name = "heartbeat_at", nullable = false)
+    private LocalDateTime heartbeatAt;
+}
@@ -0,0 +1,35 @@
+package com.doc.entity.user;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * User with at least one WebSocket session on a {@link PresenceNode}.
+ */
+@Entity
+@Table(
+        name = "presence_node_user",
+        indexes = {
+                @Index(name = "idx_presence_node_user_user", columnList = "user_id")
+        },
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_presence_node_user", columnNames = {"node_id", "user_id"})
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+public class PresenceNodeUser {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "node_id", nullable = false, length = 64)
+    private String nodeId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+}
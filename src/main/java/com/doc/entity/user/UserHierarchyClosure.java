@@ -0,0 +1,42 @@
+package com.doc.entity.user;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Closure of the manager hierarchy: one row per (manager, user in their
+ * reporting tree), including a depth-0 row for each user themselves.
+ *
+ * Maintained by the user hierarchy index; queries for large scopes join
+ * against it instead of passing every user id as a parameter.
+ */
+@Entity
+@Table(
+        name = "user_hierarchy_closure",
+        indexes = {
+                @Index(name = "idx_user_hierarchy_descendant", columnList = "descendant_id")
+        },
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_user_hierarchy_pair", columnNames = {"ancestor_id", "descendant_id"})
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+public class UserHierarchyClosure {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "ancestor_id", nullable = false)
+    private Long ancestorId;
+
+    @Column(name = "descendant_id", nullable = false)
+    private Long descendantId;
+
+    @Column(name = "depth", nullable = false)
+    private int depth;
+}
@@ -0,0 +1,44 @@
+package com.doc.export;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * UTF-8 CSV; values are formatted with {@link ExportValues#text(Object)}.
+ */
+class CsvExportRowWriter implements ExportRowWriter {
+
+    private final CSVPrinter printer;
+
+    CsvExportRowWriter(OutputStream out) {
+        try {
+            this.printer = new CSVPrinter(
+                    new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)),
+                    CSVFormat.DEFAULT);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void writeHeader(List<String> headers) throws IOException {
+        printer.printRecord(headers);
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        for (Object value : values) {
+            printer.print(ExportValues.text(value));
+        }
+        printer.println();
+    }
+
+    @Override
+    public void close() throws IOException {
+        printer.flush();
+    }
+}
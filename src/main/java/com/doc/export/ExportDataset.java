@@ -0,0 +1,148 @@
+package com.doc.export;
+
+import java.util.List;
+
+/**
+ * The reports that can be exported, each a single SQL select streamed
+ * straight from the database.
+ *
+ * {@code from} starts at the FROM clause and must alias the project table
+ * as {@code p}; {@code scopeColumn} is the assignment alias used for access
+ * scoping ({@code null} scopes through the project), and {@code dateColumn}
+ * is filtered by the optional from/to dates.
+ */
+public enum ExportDataset {
+
+    PROJECTS(
+            List.of("Project ID", "Project No", "Project Name", "Company", "Product", "Status", "Priority",
+                    "Sales Person", "Project Date", "Created Date", "Cancelled", "Total Amount", "Due Amount"),
+            """
+            SELECT p.id, p.project_no, p.name, c.name, pr.product_name, ps.name, p.priority,
+                   p.sales_person_name, p.date, p.created_date, p.is_cancelled,
+                   ppd.total_amount, ppd.due_amount
+            """,
+            """
+            FROM project p
+            JOIN project_statuses ps ON ps.id = p.status_id
+            LEFT JOIN company c ON c.id = p.company_id
+            LEFT JOIN products pr ON pr.id = p.product_id
+            LEFT JOIN project_payment_detail ppd ON ppd.project_id = p.id AND ppd.is_deleted = 0
+            WHERE p.is_deleted = 0
+            """,
+            "p.id",
+            null,
+            "p.created_date"
+    ),
+
+    MILESTONES(
+            List.of("Assignment ID", "Project No", "Project Name", "Milestone", "Status", "Assigned To",
+                    "Visible", "Rework Attempts", "Visible Date", "Started Date", "Completed Date",
+                    "Certificate Expiry", "Created Date"),
+            """
+            SELECT pma.id, p.project_no, p.name, m.name, ms.name, u.full_name,
+                   pma.is_visible, pma.rework_attempts, pma.visible_date, pma.started_date,
+                   pma.completed_date, pma.certificate_expiry_date, pma.created_date
+            """,
+            """
+            FROM project_milestone_assignment pma
+            JOIN project p ON p.id = pma.project_id
+            JOIN milestones m ON m.id = pma.milestone_id
+            JOIN milestone_statuses ms ON ms.id = pma.status_id
+            LEFT JOIN users u ON u.id = pma.assigned_user_id
+            WHERE pma.is_deleted = 0
+              AND p.is_deleted = 0
+            """,
+            "pma.id",
+            "pma",
+            "pma.created_date"
+    ),
+
+    EXPENSES(
+            List.of("Expense ID", "Project No", "Project Name", "Category", "Requested Amount",
+                    "Approved Amount", "Paid Amount", "Currency", "Approval Status", "Approval Stage",
+                    "Payment Status", "Department", "Raised By", "Expense Date"),
+            """
+            SELECT e.id, p.project_no, p.name, e.expense_category, e.requested_amount,
+                   e.approved_amount, e.paid_amount, e.currency_code, e.approval_status,
+                   e.approval_stage, e.payment_status, e.raised_department_name,
+                   e.created_by_user_name, e.expense_date
+            """,
+            """
+            FROM project_expense e
+            JOIN project p ON p.id = e.project_id
+            WHERE p.is_deleted = 0
+            """,
+            "e.id",
+            null,
+            "e.expense_date"
+    ),
+
+    PROCUREMENT_ORDERS(
+            List.of("PO ID", "PO Number", "Project No", "Project Name", "Vendor", "Status",
+                    "Final Amount", "Total Tax", "Grand Total", "PO Created", "PO Approved", "PO Released"),
+            """
+            SELECT po.id, po.po_number, p.project_no, p.name, v.name, po.status,
+                   po.final_amount, po.total_tax_amount, po.grand_total,
+                   po.po_created_date, po.po_approved_date, po.po_released_date
+            """,
+            """
+            FROM procurement_orders po
+            JOIN project p ON p.id = po.project_id
+            LEFT JOIN vendors v ON v.id = po.vendor_id
+            WHERE po.is_deleted = 0
+              AND p.is_deleted = 0
+            """,
+            "po.id",
+            null,
+            "po.created_date"
+    );
+
+    private final List<String> headers;
+    private final String select;
+    private final String from;
+    private final String orderColumn;
+    private final String scopeAlias;
+    private final String dateColumn;
+
+    ExportDataset(List<String> headers, String select, String from,
+                  String orderColumn, String scopeAlias, String dateColumn) {
+        this.headers = headers;
+        this.select = select;
+        this.from = from;
+        this.orderColumn = orderColumn;
+        this.scopeAlias = scopeAlias;
+        this.dateColumn = dateColumn;
+    }
+
+    public List<String> getHeaders() {
+        return headers;
+    }
+
+    public String getSelect() {
+        return select;
+    }
+
+    public String getFrom() {
+        return from;
+    }
+
+    public String getOrderColumn() {
+        return orderColumn;
+    }
+
+    /**
+     * Alias of the milestone assignment the row belongs to, or null when
+     * rows are scoped by their project.
+     */
+    public String getScopeAlias() {
+        return scopeAlias;
+    }
+
+    public String getDateColumn() {
+        return dateColumn;
+    }
+
+    public String fileName(ExportFormat format) {
+        return name().toLowerCase().replace('_', '-') + "." + format.getExtension();
+    }
+}
@@ -0,0 +1,24 @@
+package com.doc.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Writes export rows to an output stream one at a time.
+ * {@link #close()} finishes the document but does not close the stream.
+ */
+public interface ExportRowWriter extends Closeable {
+
+    void writeHeader(List<String> headers) throws IOException;
+
+    void writeRow(Object[] values) throws IOException;
+
+    static ExportRowWriter create(ExportFormat format, OutputStream out) {
+        return switch (format) {
+            case CSV -> new CsvExportRowWriter(out);
+            case XLSX -> new XlsxExportRowWriter(out);
+        };
+    }
+}
@@ -0,0 +1,23 @@
+package com.doc.export;
+
+import com.doc.hierarchy.UserScope;
+
+/**
+ * Which rows a user may export, mirroring the project list endpoints:
+ * admins and operation heads see everything, managers see the work of their
+ * reporting tree and other users only their own visible milestones.
+ */
+public record ExportScope(boolean unrestricted, UserScope team, Long userId) {
+
+    public static ExportScope all() {
+        return new ExportScope(true, null, null);
+    }
+
+    public static ExportScope team(UserScope team) {
+        return new ExportScope(false, team, team.userId());
+    }
+
+    public static ExportScope visibleTo(Long userId) {
+        return new ExportScope(false, null, userId);
+    }
+}
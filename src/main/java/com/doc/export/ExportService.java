@@ -0,0 +1,258 @@
+package com.doc.export;
+
+import com.doc.cache.ReferenceDataService;
+import com.doc.dto.export.ExportJobResponseDto;
+import com.doc.em.BackgroundJobStatus;
+import com.doc.em.BackgroundJobType;
+import com.doc.em.ExportJobStatus;
+import com.doc.entity.job.BackgroundJob;
+import com.doc.entity.user.User;
+import com.doc.exception.ResourceNotFoundException;
+import com.doc.exception.ValidationException;
+import com.doc.hierarchy.UserHierarchyIndex;
+import com.doc.job.BackgroundJobContext;
+import com.doc.job.BackgroundJobPool;
+import com.doc.job.BackgroundJobRegistry;
+import com.doc.repository.ExportQueryRepository;
+import com.doc.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Report exports.
+ *
+ * Rows are streamed from a JDBC cursor ({@link ExportQueryRepository}) into
+ * a CSV or SXSSF writer, so memory use stays flat however large the report
+ * is. Small reports are streamed straight into the HTTP response; a report
+ * with more than {@code export.sync-max-rows} rows must be exported as a
+ * background job, which writes a temp file, hands it to {@link ExportStorage}
+ * and is polled with {@link #getJob(String)}.
+ *
+ * Jobs run on a bounded worker pool ({@code export.workers}, queue
+ * {@code export.queue-capacity}) of the {@link BackgroundJobRegistry}, so
+ * their state can be polled on any node. Finished jobs and their files are
+ * kept for {@code export.job-retention-minutes}.
+ */
+@Service
+public class ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+
+    private final ExportQueryRepository exportQueryRepository;
+    private final ExportStorage exportStorage;
+    private final UserRepository userRepository;
+    private final ReferenceDataService referenceDataService;
+    private final UserHierarchyIndex userHierarchyIndex;
+    private final BackgroundJobRegistry jobRegistry;
+    private final long syncMaxRows;
+
+    public ExportService(
+            ExportQueryRepository exportQueryRepository,
+            ExportStorage exportStorage,
+            UserRepository userRepository,
+            ReferenceDataService referenceDataService,
+            UserHierarchyIndex userHierarchyIndex,
+            BackgroundJobRegistry jobRegistry,
+            @Value("${export.workers:2}") int workers,
+            @Value("${export.queue-capacity:20}") int queueCapacity,
+            @Value("${export.sync-max-rows:50000}") long syncMaxRows,
+            @Value("${export.job-retention-minutes:60}") long retentionMinutes
+    ) {
+        this.exportQueryRepository = exportQueryRepository;
+        this.exportStorage = exportStorage;
+        this.userRepository = userRepository;
+        this.referenceDataService = referenceDataService;
+        this.userHierarchyIndex = userHierarchyIndex;
+        this.jobRegistry = jobRegistry;
+        this.syncMaxRows = syncMaxRows;
+
+        jobRegistry.register(BackgroundJobType.EXPORT, new BackgroundJobPool(
+                "report-export", "export.jobs", "Export jobs",
+                workers, queueCapacity, Duration.ofMinutes(retentionMinutes)), this::deleteFile);
+    }
+
+    /**
+     * Checks a direct download before the response is started: the user must
+     * exist, the dates must be valid and the report small enough to be
+     * exported inline. The returned download is written with
+     * {@link #write(Download, OutputStream)}.
+     */
+    public Download prepareDownload(ExportDataset dataset, ExportFormat format, Long userId,
+                                    LocalDate fromDate, LocalDate toDate) {
+        ExportScope scope = resolveScope(userId);
+        validateDates(fromDate, toDate);
+
+        long rows = exportQueryRepository.count(dataset, scope, fromDate, toDate);
+        if (rows > syncMaxRows) {
+            throw new ValidationException(
+                    "Export has " + rows + " rows, more than " + syncMaxRows
+                            + " can be downloaded directly. Please submit an export job instead.",
+                    "ERR_EXPORT_TOO_LARGE"
+            );
+        }
+        return new Download(dataset, format, userId, scope, fromDate, toDate);
+    }
+
+    public void write(Download download, OutputStream out) throws IOException {
+        long written = write(download.dataset(), download.format(), download.scope(),
+                download.fromDate(), download.toDate(), out);
+        logger.info("Exported {} {} rows as {} for user {}",
+                written, download.dataset(), download.format(), download.userId());
+    }
+
+    /**
+     * Queues a background export. The scope is resolved now, so an unknown
+     * user is rejected immediately rather than failing the job.
+     */
+    public ExportJobResponseDto submit(ExportDataset dataset, ExportFormat format, Long userId,
+                                       LocalDate fromDate, LocalDate toDate) {
+        ExportScope scope = resolveScope(userId);
+        validateDates(fromDate, toDate);
+
+        BackgroundJob job = jobRegistry.newJob(BackgroundJobType.EXPORT);
+        job.setCategory(dataset.name());
+        job.setFormat(format.name());
+        job.setOwnerId(userId);
+
+        try {
+            jobRegistry.submit(job, context -> run(job, context, dataset, format, scope, fromDate, toDate));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Export queue full, rejected {} export for user {}", dataset, userId);
+            throw new ValidationException(
+                    "Export queue is full. Please retry shortly.",
+                    "ERR_EXPORT_QUEUE_FULL"
+            );
+        }
+
+        logger.info("Export job {} ({} as {}) queued for user {}", job.getId(), dataset, format, userId);
+        return toDto(job);
+    }
+
+    public ExportJobResponseDto getJob(String jobId) {
+        return toDto(findJob(jobId));
+    }
+
+    /**
+     * The file of a completed export job. Only the user who submitted the
+     * job can download it.
+     */
+    public InputStream open(String jobId, Long userId) throws IOException {
+        BackgroundJob job = findJob(jobId);
+        if (!job.getOwnerId().equals(userId)) {
+            throw new ResourceNotFoundException("Export job not found: " + jobId, "ERR_EXPORT_JOB_NOT_FOUND");
+        }
+        if (job.getStatus() != BackgroundJobStatus.COMPLETED) {
+            throw new ValidationException(
+                    "Export job " + jobId + " is " + job.getStatus(), "ERR_EXPORT_NOT_READY");
+        }
+        return exportStorage.open(job.getResultKey());
+    }
+
+    // ====================== WRITE ======================
+
+    private void run(BackgroundJob job, BackgroundJobContext context, ExportDataset dataset, ExportFormat format,
+                     ExportScope scope, LocalDate fromDate, LocalDate toDate) throws IOException {
+        File file = File.createTempFile("export-", "." + format.getExtension());
+        try {
+            long rows;
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file.toPath()))) {
+                rows = write(dataset, format, scope, fromDate, toDate, out);
+            }
+            String storageKey = job.getId() + "." + format.getExtension();
+            exportStorage.store(storageKey, file, format.getContentType());
+            context.addProcessed(rows);
+            context.addSucceeded(rows);
+            context.setResultKey(storageKey);
+
+            logger.info("Export job {} ({} as {}) completed: {} rows", job.getId(), dataset, format, rows);
+
+        } finally {
+            if (!file.delete() && file.exists()) {
+                logger.warn("Could not delete temp file {}", file);
+            }
+        }
+    }
+
+    private long write(ExportDataset dataset, ExportFormat format, ExportScope scope,
+                       LocalDate fromDate, LocalDate toDate, OutputStream out) throws IOException {
+        long[] rows = {0};
+        try (ExportRowWriter writer = ExportRowWriter.create(format, out)) {
+            writer.writeHeader(dataset.getHeaders());
+            exportQueryRepository.stream(dataset, scope, fromDate, toDate, values -> {
+                try {
+                    writer.writeRow(values);
+                    rows[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Usually the client closing the connection mid-download
+            throw e.getCause();
+        }
+        return rows[0];
+    }
+
+    // ====================== SCOPE ======================
+
+    private ExportScope resolveScope(Long userId) {
+        User user = userRepository.findActiveUserById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found", "ERR_USER_NOT_FOUND"));
+
+        Set<String> roles = referenceDataService.roleNames(user.getId());
+        if (roles.contains("ADMIN") || roles.contains("OPERATION_HEAD")) {
+            return ExportScope.all();
+        }
+        if (user.isManagerFlag()) {
+            return ExportScope.team(userHierarchyIndex.scopeOf(userId));
+        }
+        return ExportScope.visibleTo(userId);
+    }
+
+    private static void validateDates(LocalDate fromDate, LocalDate toDate) {
+        if (fromDate != null && toDate != null && fromDate.isAfter(toDate)) {
+            throw new ValidationException("From date must not be after to date", "ERR_INVALID_DATE_RANGE");
+        }
+    }
+
+    // ====================== JOBS ======================
+
+    private BackgroundJob findJob(String jobId) {
+        return jobRegistry.find(BackgroundJobType.EXPORT, jobId)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Export job not found: " + jobId, "ERR_EXPORT_JOB_NOT_FOUND"));
+    }
+
+    private void deleteFile(BackgroundJob job) {
+        if (job.getResultKey() != null) {
+            exportStorage.delete(job.getResultKey());
+        }
+    }
+
+    private static ExportJobResponseDto toDto(BackgroundJob job) {
+        ExportDataset dataset = ExportDataset.valueOf(job.getCategory());
+        ExportFormat format = ExportFormat.valueOf(job.getFormat());
+        return new ExportJobResponseDto(
+                job.getId(), dataset, format, ExportJobStatus.valueOf(job.getStatus().name()),
+                job.getRowsSucceeded(), dataset.fileName(format), job.getError(),
+                job.getSubmittedAt(), job.getCompletedAt()
+        );
+    }
+
+    public record Download(ExportDataset dataset, ExportFormat format, Long userId, ExportScope scope,
+                           LocalDate fromDate, LocalDate toDate) {
+
+        public String fileName() {
+            return dataset.fileName(format);
+        }
+    }
+}
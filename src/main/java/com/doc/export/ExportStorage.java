@@ -0,0 +1,18 @@
+package com.doc.export;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Where background export files are kept until they are downloaded.
+ * Selected with {@code export.storage}: {@code s3} (default) or {@code local}.
+ */
+public interface ExportStorage {
+
+    void store(String key, File file, String contentType) throws IOException;
+
+    InputStream open(String key) throws IOException;
+
+    void delete(String key);
+}
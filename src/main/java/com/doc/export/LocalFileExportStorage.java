@@ -0,0 +1,55 @@
+package com.doc.export;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Keeps export files in a local directory; meant for tests and single-node
+ * development setups.
+ */
+@Component
+@ConditionalOnProperty(name = "export.storage", havingValue = "local")
+public class LocalFileExportStorage implements ExportStorage {
+
+    private final Path directory;
+
+    public LocalFileExportStorage(@Value("${export.local-dir:${java.io.tmpdir}/operation-exports}") String directory)
+            throws IOException {
+        this.directory = Files.createDirectories(Path.of(directory));
+    }
+
+    @Override
+    public void store(String key, File file, String contentType) throws IOException {
+        Files.copy(file.toPath(), resolve(key), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    @Override
+    public void delete(String key) {
+        try {
+            Files.deleteIfExists(resolve(key));
+        } catch (IOException ignored) {
+            // Best effort; the directory is not meant to be durable
+        }
+    }
+
+    private Path resolve(String key) {
+        Path path = directory.resolve(key).normalize();
+        if (!path.startsWith(directory)) {
+            throw new IllegalArgumentException("Invalid export key: " + key);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,36 @@
+package com.doc.export;
+
+import com.doc.config.S3Service;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.InputStream;
+
+@Component
+@ConditionalOnProperty(name = "export.storage", havingValue = "s3", matchIfMissing = true)
+public class S3ExportStorage implements ExportStorage {
+
+    private static final String KEY_PREFIX = "exports/";
+
+    private final S3Service s3Service;
+
+    public S3ExportStorage(S3Service s3Service) {
+        this.s3Service = s3Service;
+    }
+
+    @Override
+    public void store(String key, File file, String contentType) {
+        s3Service.uploadFile(KEY_PREFIX + key, file, contentType);
+    }
+
+    @Override
+    public InputStream open(String key) {
+        return s3Service.getObject(KEY_PREFIX + key).getObjectContent();
+    }
+
+    @Override
+    public void delete(String key) {
+        s3Service.deleteObject(KEY_PREFIX + key);
+    }
+}
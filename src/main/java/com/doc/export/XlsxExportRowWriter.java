@@ -0,0 +1,120 @@
+package com.doc.export;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * XLSX through POI's SXSSF: only the last {@value #ROW_WINDOW} rows are kept
+ * in memory, older rows are flushed to a compressed temp file. A sheet that
+ * reaches Excel's row limit is continued on a new sheet.
+ */
+class XlsxExportRowWriter implements ExportRowWriter {
+
+    private static final int ROW_WINDOW = 100;
+    private static final int MAX_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows();
+
+    private final OutputStream out;
+    private final SXSSFWorkbook workbook;
+    private final CellStyle dateStyle;
+    private final CellStyle dateTimeStyle;
+    private final CellStyle headerStyle;
+
+    private List<String> headers = List.of();
+    private SXSSFSheet sheet;
+    private int nextRow;
+
+    XlsxExportRowWriter(OutputStream out) {
+        this.out = out;
+        this.workbook = new SXSSFWorkbook(ROW_WINDOW);
+        this.workbook.setCompressTempFiles(true);
+
+        CreationHelper helper = workbook.getCreationHelper();
+        this.dateStyle = workbook.createCellStyle();
+        this.dateStyle.setDataFormat(helper.createDataFormat().getFormat("yyyy-mm-dd"));
+        this.dateTimeStyle = workbook.createCellStyle();
+        this.dateTimeStyle.setDataFormat(helper.createDataFormat().getFormat("yyyy-mm-dd hh:mm:ss"));
+
+        Font bold = workbook.createFont();
+        bold.setBold(true);
+        this.headerStyle = workbook.createCellStyle();
+        this.headerStyle.setFont(bold);
+    }
+
+    @Override
+    public void writeHeader(List<String> headers) {
+        this.headers = headers;
+        newSheet();
+    }
+
+    @Override
+    public void writeRow(Object[] values) {
+        if (sheet == null || nextRow >= MAX_ROWS) {
+            newSheet();
+        }
+        Row row = sheet.createRow(nextRow++);
+        for (int i = 0; i < values.length; i++) {
+            setValue(row.createCell(i), values[i]);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (sheet == null) {
+                newSheet();
+            }
+            workbook.write(out);
+            out.flush();
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private void newSheet() {
+        sheet = workbook.createSheet("Sheet" + (workbook.getNumberOfSheets() + 1));
+        nextRow = 0;
+        if (!headers.isEmpty()) {
+            Row header = sheet.createRow(nextRow++);
+            for (int i = 0; i < headers.size(); i++) {
+                Cell cell = header.createCell(i);
+                cell.setCellValue(headers.get(i));
+                cell.setCellStyle(headerStyle);
+            }
+            sheet.createFreezePane(0, 1);
+        }
+    }
+
+    private void setValue(Cell cell, Object value) {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof Number number) {
+            cell.setCellValue(number.doubleValue());
+        } else if (value instanceof Boolean flag) {
+            cell.setCellValue(flag ? "Yes" : "No");
+        } else if (value instanceof java.sql.Date date) {
+            cell.setCellValue(date.toLocalDate());
+            cell.setCellStyle(dateStyle);
+        } else if (value instanceof java.util.Date date) {
+            cell.setCellValue(date);
+            cell.setCellStyle(dateTimeStyle);
+        } else if (value instanceof LocalDateTime dateTime) {
+            cell.setCellValue(dateTime);
+            cell.setCellStyle(dateTimeStyle);
+        } else if (value instanceof LocalDate date) {
+            cell.setCellValue(date);
+            cell.setCellStyle(dateStyle);
+        } else {
+            cell.setCellValue(ExportValues.text(value));
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.doc.hierarchy;
+
+import com.doc.repository.UserHierarchyClosureRepository;
+import com.doc.repository.UserHierarchyClosureRepository.UsersFingerprint;
+import com.doc.repository.UserRepository;
+import com.doc.repository.projection.UserManagerEdgeProjection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory manager hierarchy.
+ *
+ * Every non-deleted user's manager link is loaded with one query and the
+ * transitive closure is precomputed, so the scope of any user (the user plus
+ * every active user in their reporting tree, at any depth) is a map lookup.
+ *
+ * User writes invalidate the index after commit; the next read rebuilds it.
+ * Changes made by other nodes are picked up by a periodic check of the users
+ * table's row count and latest update. The same check keeps the persisted
+ * closure table in step with the in-memory one, so scopes larger than
+ * {@code hierarchy.inline-scope-limit} can be joined in SQL instead of being
+ * bound as IN lists.
+ */
+@Component
+public class UserHierarchyIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserHierarchyIndex.class);
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private UserHierarchyClosureRepository closureRepository;
+
+    @Value("${hierarchy.inline-scope-limit:500}")
+    private int inlineScopeLimit;
+
+    private final AtomicLong requestedVersion = new AtomicLong(1);
+    private volatile Snapshot snapshot;
+    private volatile Snapshot persisted;
+
+    // ====================== LOOKUP ======================
+
+    /**
+     * Scope of a user. A user the index does not know (deleted, or created
+     * since the last rebuild) only sees themselves.
+     */
+    public UserScope scopeOf(Long userId) {
+        Snapshot current = current();
+        Scope scope = current.scopes.get(userId);
+        if (scope == null) {
+            return UserScope.self(userId);
+        }
+        boolean closureJoin = scope.ids.size() > inlineScopeLimit && persisted == current;
+        return new UserScope(userId, scope.ids, scope.list, closureJoin);
+    }
+
+    /**
+     * True if {@code userId} reports to {@code managerId}, directly or
+     * through other managers.
+     */
+    public boolean isInReportingTree(Long managerId, Long userId) {
+        if (managerId == null || userId == null || managerId.equals(userId)) {
+            return false;
+        }
+        Scope scope = current().scopes.get(managerId);
+        return scope != null && scope.ids.contains(userId);
+    }
+
+    // ====================== INVALIDATION ======================
+
+    /**
+     * A user, their manager or their active flag changed. Applied after the
+     * surrounding transaction commits.
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    requestedVersion.incrementAndGet();
+                }
+            });
+        } else {
+            requestedVersion.incrementAndGet();
+        }
+    }
+
+    // ====================== BACKGROUND ======================
+
+    /**
+     * Detects user changes made on other nodes and writes the current
+     * closure to user_hierarchy_closure when it is out of date.
+     */
+    @Scheduled(
+            initialDelayString = "${hierarchy.sync-interval-ms:10000}",
+            fixedDelayString = "${hierarchy.sync-interval-ms:10000}"
+    )
+    public void sync() {
+        try {
+            Snapshot current = snapshot;
+            if (current != null && !closureRepository.usersFingerprint().equals(current.fingerprint)) {
+                requestedVersion.incrementAndGet();
+            }
+
+            current = current();
+            if (persisted == current) {
+                return;
+            }
+
+            int changed = closureRepository.sync(closureRows(current));
+            persisted = current;
+            if (changed > 0) {
+                logger.info("User hierarchy closure synced: {} users, {} rows changed",
+                        current.scopes.size(), changed);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("User hierarchy sync failed: {}", e.getMessage());
+        }
+    }
+
+    // ====================== BUILD ======================
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current != null && current.version == requestedVersion.get()) {
+            return current;
+        }
+        synchronized (this) {
+            long version = requestedVersion.get();
+            current = snapshot;
+            if (current == null || current.version != version) {
+                current = load(version);
+                snapshot = current;
+            }
+            return current;
+        }
+    }
+
+    private Snapshot load(long version) {
+        // Fingerprint first: a write that lands during the load changes it
+        // again and triggers another rebuild on the next sync.
+        UsersFingerprint fingerprint = closureRepository.usersFingerprint();
+        List<UserManagerEdgeProjection> edges = userRepository.findManagerEdges();
+
+        Map<Long, List<Long>> reports = new HashMap<>();
+        Set<Long> active = new HashSet<>();
+        for (UserManagerEdgeProjection edge : edges) {
+            reports.putIfAbsent(edge.getUserId(), new ArrayList<>());
+            if (edge.isActive()) {
+                active.add(edge.getUserId());
+            }
+        }
+        for (UserManagerEdgeProjection edge : edges) {
+            List<Long> managerReports = edge.getManagerId() != null ? reports.get(edge.getManagerId()) : null;
+            if (managerReports != null && !edge.getManagerId().equals(edge.getUserId())) {
+                managerReports.add(edge.getUserId());
+            }
+        }
+
+        Map<Long, Scope> scopes = new HashMap<>(reports.size() * 2);
+        for (Long userId : reports.keySet()) {
+            Set<Long> ids = new LinkedHashSet<>();
+            ids.add(userId);
+            walk(userId, reports, (descendant, depth) -> {
+                if (active.contains(descendant)) {
+                    ids.add(descendant);
+                }
+            });
+            Set<Long> frozen = Collections.unmodifiableSet(ids);
+            scopes.put(userId, new Scope(frozen, List.copyOf(frozen)));
+        }
+
+        logger.debug("User hierarchy loaded: {} users", scopes.size());
+        return new Snapshot(version, fingerprint, reports, active, scopes);
+    }
+
+    private static List<UserHierarchyClosureRepository.Row> closureRows(Snapshot snapshot) {
+        List<UserHierarchyClosureRepository.Row> rows = new ArrayList<>();
+        for (Long userId : snapshot.reports.keySet()) {
+            rows.add(new UserHierarchyClosureRepository.Row(userId, userId, 0));
+            walk(userId, snapshot.reports, (descendant, depth) -> {
+                if (snapshot.active.contains(descendant)) {
+                    rows.add(new UserHierarchyClosureRepository.Row(userId, descendant, depth));
+                }
+            });
+        }
+        return rows;
+    }
+
+    /**
+     * Breadth-first walk below a user. Inactive users are walked through so
+     * their active reports stay in scope; a cycle in the manager links is
+     * cut at the first repeated user.
+     */
+    private static void walk(Long root, Map<Long, List<Long>> reports, DescendantVisitor visitor) {
+        Set<Long> seen = new HashSet<>();
+        seen.add(root);
+        ArrayDeque<Long> level = new ArrayDeque<>(reports.getOrDefault(root, List.of()));
+        int depth = 1;
+        while (!level.isEmpty()) {
+            ArrayDeque<Long> next = new ArrayDeque<>();
+            for (Long userId : level) {
+                if (!seen.add(userId)) {
+                    continue;
+                }
+                visitor.visit(userId, depth);
+                next.addAll(reports.getOrDefault(userId, List.of()));
+            }
+            level = next;
+            depth++;
+        }
+    }
+
+    @FunctionalInterface
+    private interface DescendantVisitor {
+        void visit(Long userId, int depth);
+    }
+
+    private record Scope(Set<Long> ids, List<Long> list) {
+    }
+
+    private record Snapshot(
+            long version,
+            UsersFingerprint fingerprint,
+            Map<Long, List<Long>> reports,
+            Set<Long> active,
+            Map<Long, Scope> scopes
+    ) {
+    }
+}
@@ -0,0 +1,34 @@
+package com.doc.hierarchy;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The users whose work a user may see: the user and everyone in their
+ * reporting tree.
+ *
+ * @param userId      the user the scope belongs to
+ * @param userIds     the user and all active users below them
+ * @param userIdList  the same ids as a list, for IN parameters
+ * @param closureJoin true when the scope is large and the persisted closure
+ *                    table is current, so queries should join against
+ *                    user_hierarchy_closure on {@code userId} instead of
+ *                    binding {@code userIdList}
+ */
+public record UserScope(Long userId, Set<Long> userIds, List<Long> userIdList, boolean closureJoin) {
+
+    /**
+     * Scope of a user who manages nobody.
+     */
+    public static UserScope self(Long userId) {
+        return new UserScope(userId, Set.of(userId), List.of(userId), false);
+    }
+
+    public boolean contains(Long id) {
+        return id != null && userIds.contains(id);
+    }
+
+    public int size() {
+        return userIds.size();
+    }
+}
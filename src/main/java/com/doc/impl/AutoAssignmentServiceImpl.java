@@ -1,5 +1,9 @@
 package com.doc.impl;
 
+import com.doc.assignment.AssignmentCandidate;
+import com.doc.assignment.AssignmentCandidateIndex;
+import com.doc.assignment.UserPerformanceCounter;
+import com.doc.cache.ReferenceDataService;
 import com.doc.constants.StatusConstants;
 import com.doc.dto.auto.DepartmentAutoConfigDto;
 import com.doc.entity.department.Department;
@@ -9,7 +13,6 @@ import com.doc.entity.product.Product;
 import com.doc.entity.product.ProductMilestoneMap;
 import com.doc.entity.project.*;
 import com.doc.entity.user.User;
-import com.doc.entity.user.UserLoginStatus;
 import com.doc.entity.user.UserProductMap;
 import com.doc.exception.ResourceNotFoundException;
 import com.doc.exception.ValidationException;
@@ -23,6 +26,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,38 +37,75 @@ public class AutoAssignmentServiceImpl implements AutoAssignmentService {
     private static final double DEFAULT_RATING = 3.0;
 
     @Autowired private DepartmentAutoConfigRepository departmentAutoConfigRepository;
-    @Autowired private UserRepository userRepository;
     @Autowired private UserProductMapRepository userProductMapRepository;
-    @Autowired private UserPerformanceCountRepository userPerformanceCountRepository;
-    @Autowired private UserLoginStatusRepository userLoginStatusRepository;
     @Autowired private DepartmentRepository departmentRepository;
     @Autowired private ProjectAssignmentHistoryRepository projectAssignmentHistoryRepository;
     @Autowired private ProjectMilestoneAssignmentRepository projectMilestoneAssignmentRepository;
-    @Autowired private MilestoneStatusRepository milestoneStatusRepository;
+    @Autowired private ReferenceDataService referenceDataService;
+    @Autowired private AssignmentCandidateIndex candidateIndex;
+    @Autowired private UserPerformanceCounter userPerformanceCounter;
+    @Autowired private UserProductMapBatchRepository userProductMapBatchRepository;
 
     @Override
     public AssignmentResult assignMilestoneUser(ProductMilestoneMap milestone, Project project, Long updatedById) {
-        logger.info("\n=== AUTO-ASSIGNMENT START ===");
-        logger.info("Milestone: {} | Product: {} | Project: {}", milestone.getMilestone().getName(), milestone.getProduct().getId(), project.getProjectNo());
+        return assignMilestoneUsers(List.of(milestone), project, updatedById).get(milestone.getId());
+    }
 
+    /**
+     * Decides the assignees of several milestones of a project in one pass.
+     *
+     * Milestones are grouped by (department, product): the department config
+     * and the company-alignment lookups run once per group, and every pick is
+     * recorded in the candidate index before the next one, so later picks see
+     * the load of earlier ones. Picks read the index only; it is reconciled
+     * with the stored counts in the background. The mapping
+     * flags and performance counters of all picks are written at the end
+     * with one batch each.
+     */
+    @Override
+    public Map<Long, AssignmentResult> assignMilestoneUsers(List<ProductMilestoneMap> milestones,
+                                                            Project project, Long updatedById) {
+        Map<Long, AssignmentResult> results = new HashMap<>();
+        Map<GroupKey, List<ProductMilestoneMap>> groups = new LinkedHashMap<>();
+        Map<Long, Department> departments = new HashMap<>();
+
+        for (ProductMilestoneMap milestone : milestones) {
+            logger.info("\n=== AUTO-ASSIGNMENT START ===");
+            logger.info("Milestone: {} | Product: {} | Project: {}", milestone.getMilestone().getName(), milestone.getProduct().getId(), project.getProjectNo());
+
+            if (!milestone.isMandatory()) {
+                logger.info("Non-mandatory milestone → SKIPPED");
+                results.put(milestone.getId(), new AssignmentResult(null, " Skipped non-mandatory"));
+                continue;
+            }
+            if (milestone.isAutoGenerated()) {
+                logger.info("Auto-generated milestone → SKIPPED");
+                continue;
+            }
 
-        if (!milestone.isMandatory()) {
-            logger.info("Non-mandatory milestone → SKIPPED");
-            return new AssignmentResult(null, " Skipped non-mandatory");
-        }
-        if (milestone.isAutoGenerated()) {
-            logger.info("Auto-generated milestone → SKIPPED");
-            return null;
-        }
+            List<Department> depts = milestone.getMilestone().getDepartments();
+            if (depts.isEmpty()) {
+                logger.warn("No department linked → QUEUING");
+                queueMilestone(milestone, project, updatedById);
+                results.put(milestone.getId(), new AssignmentResult(null, "Queued: no department"));
+                continue;
+            }
 
-        List<Department> depts = milestone.getMilestone().getDepartments();
-        if (depts.isEmpty()) {
-            logger.warn("No department linked → QUEUING");
-            queueMilestone(milestone, project, updatedById);
-            return new AssignmentResult(null, "Queued: no department");
+            Department dept = depts.get(0);
+            departments.putIfAbsent(dept.getId(), dept);
+            groups.computeIfAbsent(new GroupKey(dept.getId(), milestone.getProduct().getId()), k -> new ArrayList<>())
+                    .add(milestone);
         }
 
-        Department dept = depts.get(0);
+        List<Pick> picks = new ArrayList<>();
+        groups.forEach((key, group) ->
+                decideGroup(departments.get(key.departmentId()), key.productId(), group, project, picks, results));
+        applyPicks(picks, updatedById, results);
+        return results;
+    }
+
+    private void decideGroup(Department dept, Long productId, List<ProductMilestoneMap> group, Project project,
+                             List<Pick> picks, Map<Long, AssignmentResult> results) {
         DepartmentAutoConfig config = getOrCreateConfig(dept);
 
         logger.info("CONFIG → Dept: {} | Enabled: {} | RR: {} | Rating: {} | Align: {} | ManualOnly: {}",
@@ -73,251 +114,139 @@ public class AutoAssignmentServiceImpl implements AutoAssignmentService {
 
         if (!config.isAutoAssignmentEnabled() || config.isManualOnly()) {
             logger.info("Auto-assignment OFF or ManualOnly → PENDING MANUAL");
-            return new AssignmentResult(null, "Pending manual assignment");
+            group.forEach(m -> results.put(m.getId(), new AssignmentResult(null, "Pending manual assignment")));
+            return;
         }
 
-        List<User> deptUsers = userRepository.findByDepartmentsIdAndIsActiveTrueAndIsDeletedFalse(dept.getId());
-        logger.info("Found {} active users in department '{}'", deptUsers.size(), dept.getName());
-
-        deptUsers.forEach(user -> {
-            boolean hasProductMapping = user.getUserProductMaps().stream()
-                    .anyMatch(m -> !m.isDeleted() && m.getProduct().getId().equals(milestone.getProduct().getId()));
-
-            String status = user.isManagerFlag() ? "MANAGER → EXCLUDED" :
-                    (user.getBucketSize() <= 0 ? "BUCKET=0 → DISABLED" :
-                            (hasProductMapping ? "ELIGIBLE" : "NO PRODUCT MAPPING"));
-
-            logger.info("→ {} (ID:{}) | ManagerFlag: {} | BucketSize: {} | {} | ProductMapped: {}",
-                    String.format("%-20s", user.getFullName()),
-                    user.getId(),
-                    user.isManagerFlag(),
-                    user.getBucketSize(),
-                    status,
-                    hasProductMapping ? "YES" : "NO"
-            );
-        });
-
-        userRepository.saveAll(deptUsers);
-
-        logger.info("All users removed from department '{}'", dept.getName());
-
-        List<UserProductMap> mappings = userProductMapRepository.findByProductIdAndIsDeletedFalse(milestone.getProduct().getId());
-        logger.info("Found {} product mappings for Product {}", mappings.size(), milestone.getProduct().getId());
-
-        List<UserProductMap> eligible = mappings.stream()
-                .filter(m -> deptUsers.stream().anyMatch(u -> u.getId().equals(m.getUser().getId())))
-                .filter(m -> !m.getUser().isManagerFlag())
-                .filter(m -> !config.isRatingPrioritizationEnabled() || (m.getRating() != null && m.getRating() > 0))
-                .filter(m -> !config.isAvailabilityRequired() || isUserAvailable(m.getUser(), milestone.getProduct().getId(), project, dept, config, deptUsers))
-                .sorted(Comparator.comparing(m -> m.getUser().getFullName()))
-                .collect(Collectors.toList());
-
-        logger.info("ELIGIBLE USERS ({}): {}", eligible.size(),
-                eligible.stream()
-                        .map(m -> {
-                            User u = m.getUser();
-                            int bucketSize = Optional.ofNullable(u.getBucketSize()).orElse(0);
-                            return String.format("%s (online=%b, bucket=%b, rating=%.1f, bucketSize=%d)",
-                                    u.getFullName(),
-                                    isUserOnline(u),
-                                    isBucketAvailable(u, milestone.getProduct().getId()),
-                                    Optional.ofNullable(m.getRating()).orElse(0.0),
-                                    bucketSize);
-                        })
-                        .collect(Collectors.joining(", ")));
-
-        logger.warn("=== BUCKET SIZE & AVAILABILITY DEBUG (CRITICAL) ===");
-        eligible.forEach(m -> {
-            User u = m.getUser();
-            Integer bs = u.getBucketSize();
-            boolean avail = isBucketAvailable(u, milestone.getProduct().getId());
-            logger.warn("{} → bucketSize: {}, available: {}, rating: {}",
-                    u.getFullName(), bs != null ? bs : "NULL", avail,
-                    m.getRating() != null ? m.getRating() : 0.0);
-        });
-        logger.warn("=== END BUCKET DEBUG ===");
+        Set<Long> companyAlignedUserIds = config.isAvailabilityRequired() && config.isCompanyAlignmentEnabled()
+                ? new HashSet<>(projectAssignmentHistoryRepository
+                        .findAssignedUserIdsByCompanyAndDepartment(project.getCompany().getId(), dept.getId()))
+                : Set.of();
+
+        Predicate<AssignmentCandidate> eligible = c ->
+                (!config.isRatingPrioritizationEnabled() || c.getRating() > 0)
+                        && (!config.isAvailabilityRequired()
+                        || companyAlignedUserIds.contains(c.getUserId())
+                        || candidateIndex.isOnline(c.getUserId()));
 
         // === COMPANY ALIGNMENT BYPASS ===
-        if (config.isCompanyAlignmentEnabled()) {
-            List<ProjectAssignmentHistory> history = projectAssignmentHistoryRepository
-                    .findLatestByCompanyMilestoneDept(project.getCompany().getId(), milestone.getMilestone().getId(), dept.getId());
-
-            if (!history.isEmpty()) {
-                Optional<ProjectAssignmentHistory> latest = history.stream()
-                        .filter(h -> h.getAssignedUser() != null)
-                        .max(Comparator.comparing(ProjectAssignmentHistory::getCreatedDate));
-
-                if (latest.isPresent()) {
-                    User lastUser = latest.get().getAssignedUser();
-                    logger.info("COMPANY-ALIGNED → MOST RECENT: {} (bypassing bucket)", lastUser.getFullName());
-                    UserProductMap map = userProductMapRepository
-                            .findByUserIdAndProductIdAndIsDeletedFalse(lastUser.getId(), milestone.getProduct().getId())
-                            .orElseGet(() -> createMap(lastUser, milestone.getProduct(), updatedById));
-                    return assignUser(map, "Assigned: company alignment (most recent)", updatedById);
-                }
+        Map<Long, User> alignedByMilestone = config.isCompanyAlignmentEnabled()
+                ? latestAlignedUsers(project, group, dept)
+                : Map.of();
+
+        for (ProductMilestoneMap milestone : group) {
+            User lastUser = alignedByMilestone.get(milestone.getMilestone().getId());
+            if (lastUser != null) {
+                logger.info("COMPANY-ALIGNED → MOST RECENT: {} (bypassing bucket)", lastUser.getFullName());
+                candidateIndex.recordAssignment(lastUser.getId(), productId);
+                picks.add(new Pick(milestone.getId(), lastUser.getId(), milestone.getProduct(), lastUser,
+                        "Assigned: company alignment (most recent)"));
+                continue;
+            }
+
+            Decision decision = decide(config, dept, productId, eligible);
+            if (decision.userId() == null) {
+                results.put(milestone.getId(), new AssignmentResult(null, decision.reason()));
+                continue;
             }
+            candidateIndex.recordAssignment(decision.userId(), productId);
+            picks.add(new Pick(milestone.getId(), decision.userId(), milestone.getProduct(), null, decision.reason()));
+        }
+    }
+
+    /**
+     * Most recent company-aligned assignee per milestone of the group, from
+     * one history query.
+     */
+    private Map<Long, User> latestAlignedUsers(Project project, List<ProductMilestoneMap> group, Department dept) {
+        List<Long> milestoneIds = group.stream()
+                .map(m -> m.getMilestone().getId())
+                .distinct()
+                .toList();
+
+        Map<Long, User> latest = new HashMap<>();
+        for (ProjectAssignmentHistory history : projectAssignmentHistoryRepository
+                .findLatestAssignedByCompanyMilestonesDept(project.getCompany().getId(), milestoneIds, dept.getId())) {
+            // newest first, so the first row per milestone wins
+            latest.putIfAbsent(history.getMilestoneAssignment().getMilestone().getId(), history.getAssignedUser());
+        }
+        return latest;
+    }
+
+    private Decision decide(DepartmentAutoConfig config, Department dept, Long productId,
+                            Predicate<AssignmentCandidate> eligible) {
+        List<AssignmentCandidate> candidates = candidateIndex.getCandidates(dept.getId(), productId);
+        logger.info("Found {} mapped candidates in department '{}' for Product {}", candidates.size(), dept.getName(), productId);
+
+        if (logger.isDebugEnabled()) {
+            candidates.forEach(c -> logger.debug("→ {} (ID:{}) | eligible={} | online={} | rating={} | open={}/{}",
+                    String.format("%-20s", c.getFullName()), c.getUserId(), eligible.test(c),
+                    candidateIndex.isOnline(c.getUserId()), c.getRating(), c.getOpenAssignments(), c.getBucketSize()));
         }
 
         // === RATING PRIORITIZATION (RESPECTS BUCKET) ===
         if (config.isRatingPrioritizationEnabled()) {
             logger.info("RATING PRIORITIZATION ENABLED");
 
-            Map<Double, List<UserProductMap>> groups = eligible.stream()
-                    .collect(Collectors.groupingBy(m -> m.getRating() != null ? m.getRating() : 0.0));
-
-            List<Double> tiers = new ArrayList<>(groups.keySet());
-            tiers.sort(Comparator.reverseOrder());
+            List<Double> tiers = candidates.stream()
+                    .filter(eligible)
+                    .map(AssignmentCandidate::getRating)
+                    .distinct()
+                    .sorted(Comparator.reverseOrder())
+                    .toList();
 
             for (Double tier : tiers) {
-                List<UserProductMap> tierUsers = groups.get(tier).stream()
-                        .filter(m -> isBucketAvailable(m.getUser(), milestone.getProduct().getId()))
-                        .collect(Collectors.toList());
-
-                if (tierUsers.isEmpty()) {
-                    logger.info("Tier {} has no available bucket → skipping", tier);
-                    continue;
-                }
-
-                tierUsers = tierUsers.stream()
-                        .sorted(Comparator.comparing(m -> m.getUser().getFullName()))
-                        .collect(Collectors.toList());
-
-                if (config.isRoundRobinEnabled()) {
-                    if (tierUsers.stream().allMatch(UserProductMap::isAssigned)) {
-                        logger.info("RR RESET in tier {}: all assigned → resetting", tier);
-                        tierUsers.forEach(m -> m.setAssigned(false));
-                        userProductMapRepository.saveAll(tierUsers);
-                    }
-                    Optional<UserProductMap> selected = tierUsers.stream()
-                            .filter(m -> !m.isAssigned())
-                            .findFirst();
-                    if (selected.isPresent()) {
-                        String reason = String.format("Assigned: %.1f-star + RR (tier)", tier);
-                        logger.info("RATING + RR SELECTED: {} → {}", selected.get().getUser().getFullName(), reason);
-                        return assignUser(selected.get(), reason, updatedById);
-                    }
-                } else {
-                    Optional<UserProductMap> selected = selectBestAvailable(tierUsers, milestone.getProduct().getId());
-                    if (selected.isPresent()) {
-                        String reason = String.format("Assigned: %.1f-star + load balance", tier);
-                        logger.info("RATING + LOAD SELECTED: {} → {}", selected.get().getUser().getFullName(), reason);
-                        return assignUser(selected.get(), reason, updatedById);
-                    }
+                Predicate<AssignmentCandidate> inTier = eligible
+                        .and(c -> c.getRating() == tier)
+                        .and(AssignmentCandidate::hasCapacity);
+
+                Optional<AssignmentCandidate> selected = config.isRoundRobinEnabled()
+                        ? candidateIndex.nextRoundRobin(dept.getId(), productId, inTier)
+                        : candidateIndex.leastLoaded(dept.getId(), productId, inTier);
+
+                if (selected.isPresent()) {
+                    String reason = config.isRoundRobinEnabled()
+                            ? String.format("Assigned: %.1f-star + RR (tier)", tier)
+                            : String.format("Assigned: %.1f-star + load balance", tier);
+                    logger.info("RATING SELECTED: {} → {}", selected.get().getFullName(), reason);
+                    return new Decision(selected.get().getUserId(), reason);
                 }
+                logger.info("Tier {} has no available bucket → skipping", tier);
             }
         }
 
-        List<UserProductMap> activeUsers = eligible.stream()
-                .filter(m -> {
-                    Integer bs = m.getUser().getBucketSize();
-                    return bs != null && bs > 0; // Exclude only bucketSize = 0
-                })
-                .sorted(Comparator.comparing(m -> m.getUser().getFullName()))
-                .collect(Collectors.toList());
+        // Exclude only bucketSize = 0
+        Predicate<AssignmentCandidate> active = eligible.and(AssignmentCandidate::isEnabled);
 
-        if (activeUsers.isEmpty()) {
+        if (candidates.stream().noneMatch(active)) {
             logger.warn("NO USER HAS bucketSize > 0 → falling back to manual assignment");
-            return new AssignmentResult(null, "Pending manual assignment: all users disabled");
+            return new Decision(null, "Pending manual assignment: all users disabled");
         }
 
-        boolean anyoneHasSpace = activeUsers.stream()
-                .anyMatch(m -> isBucketAvailable(m.getUser(), milestone.getProduct().getId()));
-
-        if (anyoneHasSpace) {
+        Predicate<AssignmentCandidate> withSpace = active.and(AssignmentCandidate::hasCapacity);
+        Optional<AssignmentCandidate> selected = config.isRoundRobinEnabled()
+                ? candidateIndex.nextRoundRobin(dept.getId(), productId, withSpace)
+                : candidateIndex.leastLoaded(dept.getId(), productId, withSpace);
 
-            List<UserProductMap> withSpace = activeUsers.stream()
-                    .filter(m -> isBucketAvailable(m.getUser(), milestone.getProduct().getId()))
-                    .collect(Collectors.toList());
-
-            Optional<UserProductMap> selected = config.isRoundRobinEnabled()
-                    ? selectRoundRobin(withSpace, milestone.getProduct().getId())
-                    : selectBestAvailable(withSpace, milestone.getProduct().getId());
-
-            if (selected.isPresent()) {
-                String reason = config.isRoundRobinEnabled() ? "Assigned: round-robin" : "Assigned: load balance";
-                logger.info("NORMAL ASSIGNMENT: {} → {}", selected.get().getUser().getFullName(), reason);
-                return assignUser(selected.get(), reason, updatedById);
-            }
+        if (selected.isPresent()) {
+            String reason = config.isRoundRobinEnabled() ? "Assigned: round-robin" : "Assigned: load balance";
+            logger.info("NORMAL ASSIGNMENT: {} → {}", selected.get().getFullName(), reason);
+            return new Decision(selected.get().getUserId(), reason);
         }
 
-        // ALL BUCKETS FULL → TRUE OVERFLOW ROUND-ROBIN (FAIR CYCLE)
-        logger.warn("ALL BUCKETS FULL → STARTING TRUE OVERFLOW ROUND-ROBIN (bucketSize > 0 only)");
-
-        Optional<UserProductMap> overflowSelected;
-
         // ALL BUCKETS FULL → TRUE FAIR OVERFLOW ROUND-ROBIN
         logger.warn("ALL BUCKETS FULL → STARTING FAIR OVERFLOW ROUND-ROBIN (Rating + LastAssigned priority)");
 
-        if (config.isRoundRobinEnabled()) {
-            overflowSelected = selectFairOverflowRoundRobin(activeUsers, milestone.getProduct().getId());
-        } else {
-            overflowSelected = selectBestAvailable(activeUsers, milestone.getProduct().getId());
-        }
+        Optional<AssignmentCandidate> overflowSelected = config.isRoundRobinEnabled()
+                ? candidateIndex.fairOverflow(dept.getId(), productId, active)
+                : candidateIndex.leastLoaded(dept.getId(), productId, active);
+
         // Safety fallback
         if (overflowSelected.isEmpty()) {
-            overflowSelected = activeUsers.stream().findFirst();
+            overflowSelected = candidates.stream().filter(active).findFirst();
         }
 
-        UserProductMap map = overflowSelected.get();
-        map.setAssigned(true);
-        userProductMapRepository.save(map);
-
-        User user = map.getUser();
-        UserPerformanceCount count = userPerformanceCountRepository
-                .findByUserIdAndProductId(user.getId(), milestone.getProduct().getId());
-        int newCount = count != null ? count.getAssignmentCount() + 1 : 1;
-
-        if (count == null) {
-            count = new UserPerformanceCount();
-            count.setUser(user);
-            count.setProduct(milestone.getProduct());
-            count.setAssignmentCount(1);
-            count.setTimeSpent(0.0);
-            count.setCreatedDate(new Date());
-            count.setCreatedBy(updatedById);
-            count.setDeleted(false);
-        } else {
-            count.setAssignmentCount(newCount);
-        }
-        count.setLastUpdatedDate(new Date());
-        count.setUpdatedDate(new Date());
-        count.setUpdatedBy(updatedById);
-        userPerformanceCountRepository.save(count);
-
-        logger.info("OVERFLOW ASSIGNMENT → {} | New Count: {}/{} (overflow round-robin)",
-                user.getFullName(), newCount, user.getBucketSize());
-
-        return new AssignmentResult(user, "Assigned: overflow round-robin (all buckets full)");
-    }
-    private boolean isUserOnline(User user) {
-        Optional<UserLoginStatus> statusOpt = userLoginStatusRepository.findTodayStatusByUserId(user.getId());
-        if (statusOpt.isEmpty()) {
-            logger.debug("→ isUserOnline({}) = false (no login record for today)", user.getFullName());
-            return false;
-        }
-        boolean online = statusOpt.get().isOnline();
-        logger.debug("→ isUserOnline({}) = {}", user.getFullName(), online);
-        return online;
-    }
-
-    // FINAL FIXED VERSION
-    private boolean isBucketAvailable(User user, Long productId) {
-        Integer bucketSize = user.getBucketSize();
-
-        // BLOCK USERS WITH 0 OR NULL BUCKET SIZE
-        if (bucketSize == null || bucketSize <= 0) {
-            logger.debug("→ isBucketAvailable({}) = false (bucketSize = {} → DISABLED FOR AUTO-ASSIGNMENT)",
-                    user.getFullName(), bucketSize);
-            return false;
-        }
-
-        UserPerformanceCount cnt = userPerformanceCountRepository.findByUserIdAndProductId(user.getId(), productId);
-        int currentCount = cnt != null ? cnt.getAssignmentCount() : 0;
-        boolean available = currentCount < bucketSize;
-
-        logger.debug("→ isBucketAvailable({}) = {} (currentCount={}, bucketSize={})",
-                user.getFullName(), available, currentCount, bucketSize);
-        return available;
+        return new Decision(overflowSelected.get().getUserId(), "Assigned: overflow round-robin (all buckets full)");
     }
 
     private DepartmentAutoConfig getOrCreateConfig(Department dept) {
@@ -335,115 +264,63 @@ public class AutoAssignmentServiceImpl implements AutoAssignmentService {
     }
 
     /**
-     * FAIR OVERFLOW ROUND-ROBIN
-     * Prioritizes:
-     * 1. Highest rating first (5.0 > 3.0)
-     * 2. Oldest last assignment (true round-robin fairness)
-     * 3. Name as final tiebreaker
+     * Writes the picks of one pass: the mappings are read with one query,
+     * missing company-alignment mappings are created, and the assigned flags
+     * and performance counters are written with one batch each.
      */
-    private Optional<UserProductMap> selectFairOverflowRoundRobin(List<UserProductMap> candidates, Long productId) {
-        if (candidates.isEmpty()) {
-            return Optional.empty();
+    private void applyPicks(List<Pick> picks, Long updatedById, Map<Long, AssignmentResult> results) {
+        if (picks.isEmpty()) {
+            return;
         }
 
-        List<UserProductMap> sorted = candidates.stream()
-                .sorted(Comparator
-                        // 1. Highest rating first
-                        .comparing((UserProductMap m) -> Optional.ofNullable(m.getRating()).orElse(0.0), Comparator.reverseOrder())
-                        // 2. Oldest assignment first (true RR)
-                        .thenComparing(m -> {
-                            UserPerformanceCount count = userPerformanceCountRepository
-                                    .findByUserIdAndProductId(m.getUser().getId(), productId);
-                            return count != null && count.getLastUpdatedDate() != null
-                                    ? count.getLastUpdatedDate()
-                                    : new Date(0); // Never assigned = highest priority
-                        })
-                        // 3. Name as final tiebreaker
-                        .thenComparing(m -> m.getUser().getFullName())
-                )
-                .collect(Collectors.toList());
-
-        // Reset cycle if everyone has been assigned once
-        if (sorted.stream().allMatch(UserProductMap::isAssigned)) {
-            logger.info("FAIR OVERFLOW RR: All users assigned in cycle → RESETTING (Rating + LastAssigned priority)");
-            sorted.forEach(m -> m.setAssigned(false));
-            userProductMapRepository.saveAll(sorted);
+        Set<Long> userIds = picks.stream().map(Pick::userId).collect(Collectors.toSet());
+        Set<Long> productIds = picks.stream().map(p -> p.product().getId()).collect(Collectors.toSet());
+        Map<UserProductKey, UserProductMap> mappings = new HashMap<>();
+        for (UserProductMap mapping : userProductMapRepository.findByUserIdsAndProductIds(userIds, productIds)) {
+            mappings.put(new UserProductKey(mapping.getUser().getId(), mapping.getProduct().getId()), mapping);
         }
 
-        return sorted.stream()
-                .filter(m -> !m.isAssigned())
-                .findFirst();
-    }
-
-    private Optional<UserProductMap> selectRoundRobin(List<UserProductMap> candidates, Long productId) {
-        if (candidates.isEmpty()) return Optional.empty();
-
-        List<UserProductMap> pool = candidates.stream()
-                .sorted(Comparator.comparing(m -> m.getUser().getFullName()))
-                .collect(Collectors.toList());
+        Map<UserProductKey, Long> assignments = new LinkedHashMap<>();
+        for (Pick pick : picks) {
+            UserProductKey key = new UserProductKey(pick.userId(), pick.product().getId());
+            UserProductMap mapping = mappings.get(key);
+            if (mapping == null) {
+                if (pick.alignedUser() == null) {
+                    throw new ResourceNotFoundException("User-product mapping not found", "MAPPING_NOT_FOUND");
+                }
+                mapping = createMap(pick.alignedUser(), pick.product(), updatedById);
+                mappings.put(key, mapping);
+            }
+            assignments.merge(key, 1L, Long::sum);
 
-        if (pool.stream().allMatch(UserProductMap::isAssigned)) {
-            logger.info("RR: All assigned → resetting");
-            pool.forEach(m -> m.setAssigned(false));
-            userProductMapRepository.saveAll(pool);
+            User user = mapping.getUser();
+            logger.info("FINAL ASSIGNMENT → {} | Reason: {} | Bucket size: {}",
+                    user.getFullName(), pick.reason(), user.getBucketSize());
+            results.put(pick.milestoneMapId(), new AssignmentResult(user, pick.reason()));
         }
 
-        return pool.stream().filter(m -> !m.isAssigned()).findFirst();
+        userProductMapBatchRepository.setAssigned(assignments.keySet().stream()
+                .filter(key -> !mappings.get(key).isAssigned())
+                .map(key -> new UserProductMapBatchRepository.Flag(key.userId(), key.productId(), true))
+                .toList(), updatedById);
+        userPerformanceCounter.applyDeltas(assignments.entrySet().stream()
+                .map(e -> new UserPerformanceCountBatchRepository.Delta(
+                        e.getKey().userId(), e.getKey().productId(), e.getValue(), 0.0, updatedById))
+                .toList());
     }
 
-    private Optional<UserProductMap> selectBestAvailable(List<UserProductMap> candidates, Long productId) {
-        return candidates.stream()
-                .min(Comparator.comparing((UserProductMap m) -> {
-                    UserPerformanceCount c = userPerformanceCountRepository.findByUserIdAndProductId(m.getUser().getId(), productId);
-                    return c != null ? c.getAssignmentCount() : 0;
-                }).thenComparing(m -> m.getRating() != null ? m.getRating() : 0.0, Comparator.reverseOrder()));
+    private record GroupKey(Long departmentId, Long productId) {
     }
 
-    private boolean isUserAvailable(User user, Long productId, Project project, Department dept,
-                                    DepartmentAutoConfig config, List<User> deptUsers) {
-        if (!user.isActive()) return false;
-
-        boolean online = isUserOnline(user);
-        long onlineCount = deptUsers.stream().filter(this::isUserOnline).count();
-
-        if (config.isCompanyAlignmentEnabled()) {
-            boolean hasHistory = projectAssignmentHistoryRepository
-                    .existsByProjectCompanyIdAndAssignedUserIdAndDepartmentId(project.getCompany().getId(), user.getId(), dept.getId());
-            if (hasHistory) return true;
-        }
+    private record UserProductKey(Long userId, Long productId) {
+    }
 
-        if (online && onlineCount == 1) return true; // Lone wolf
-        return online;
+    /** A decided assignee; {@code alignedUser} is set for company-alignment picks, which may lack a mapping. */
+    private record Pick(Long milestoneMapId, Long userId, Product product, User alignedUser, String reason) {
     }
 
-    private AssignmentResult assignUser(UserProductMap mapping, String reason, Long updatedById) {
-        mapping.setAssigned(true);
-        userProductMapRepository.save(mapping);
-
-        User user = mapping.getUser();
-        UserPerformanceCount count = userPerformanceCountRepository.findByUserIdAndProductId(user.getId(), mapping.getProduct().getId());
-        int newCount = count != null ? count.getAssignmentCount() + 1 : 1;
-
-        if (count == null) {
-            count = new UserPerformanceCount();
-            count.setUser(user);
-            count.setProduct(mapping.getProduct());
-            count.setAssignmentCount(1);
-            count.setTimeSpent(0.0);
-            count.setCreatedDate(new Date());
-            count.setCreatedBy(updatedById);
-            count.setDeleted(false);
-        } else {
-            count.setAssignmentCount(newCount);
-        }
-        count.setLastUpdatedDate(new Date());
-        count.setUpdatedDate(new Date());
-        count.setUpdatedBy(updatedById);
-        userPerformanceCountRepository.save(count);
-
-        logger.info("FINAL ASSIGNMENT → {} | Reason: {} | New Count: {}/{}",
-                user.getFullName(), reason, newCount, user.getBucketSize());
-        return new AssignmentResult(user, reason);
+    /** Result of the candidate walk; no user means the reason is final. */
+    private record Decision(Long userId, String reason) {
     }
 
     private UserProductMap createMap(User user, Product product, Long updatedById) {
@@ -457,16 +334,19 @@ public class AutoAssignmentServiceImpl implements AutoAssignmentService {
         map.setUpdatedDate(new Date());
         map.setCreatedBy(updatedById);
         map.setUpdatedBy(updatedById);
-        return userProductMapRepository.save(map);
+        map = userProductMapRepository.save(map);
+        candidateIndex.invalidateProduct(product.getId());
+        return map;
     }
 
 
+
     private void queueMilestone(ProductMilestoneMap milestone, Project project, Long updatedById) {
         ProjectMilestoneAssignment assignment = projectMilestoneAssignmentRepository
                 .findByProjectIdAndMilestoneIdAndIsDeletedFalse(project.getId(), milestone.getMilestone().getId())
                 .orElseThrow(() -> new ResourceNotFoundException("Assignment not found", "ERR_ASSIGNMENT_NOT_FOUND"));
 
-        MilestoneStatus queued = milestoneStatusRepository.findById(StatusConstants.MILESTONE_QUEUED_ID)
+        MilestoneStatus queued = referenceDataService.milestoneStatus(StatusConstants.MILESTONE_QUEUED_ID)
                 .orElseThrow(() -> new ResourceNotFoundException("QUEUED status not found", "ERR_STATUS_NOT_FOUND"));
 
         assignment.setStatus(queued);
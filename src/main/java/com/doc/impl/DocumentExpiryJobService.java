@@ -0,0 +1,158 @@
+package com.doc.impl;
+
+import com.doc.dto.document.DocumentExpiryJobResponseDto;
+import com.doc.dto.document.DocumentExpiryResponseDto;
+import com.doc.em.BackgroundJobType;
+import com.doc.em.DocumentExpiryJobStatus;
+import com.doc.entity.job.BackgroundJob;
+import com.doc.exception.ResourceNotFoundException;
+import com.doc.exception.ValidationException;
+import com.doc.job.BackgroundJobPool;
+import com.doc.job.BackgroundJobRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Asynchronous document-expiry checks.
+ *
+ * A submitted file or URL becomes a job that runs on a bounded worker pool
+ * ({@code document-expiry.workers}, queue {@code document-expiry.queue-capacity})
+ * of the {@link BackgroundJobRegistry}. Callers poll {@link #getJob(String)}
+ * or subscribe with {@link #subscribe(String)} on any node. Submissions
+ * beyond the queue capacity are rejected instead of piling up.
+ *
+ * Finished jobs are kept for {@code document-expiry.job-retention-minutes}.
+ *
+ * Queue depth and running jobs are published as the
+ * {@code document.expiry.jobs.queued} and {@code document.expiry.jobs.running} gauges.
+ */
+@Service
+public class DocumentExpiryJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentExpiryJobService.class);
+
+    private static final long SUBSCRIBE_TIMEOUT_MS = Duration.ofMinutes(10).toMillis();
+
+    private final DocumentExpiryService documentExpiryService;
+    private final BackgroundJobRegistry jobRegistry;
+
+    public DocumentExpiryJobService(
+            DocumentExpiryService documentExpiryService,
+            BackgroundJobRegistry jobRegistry,
+            @Value("${document-expiry.workers:2}") int workers,
+            @Value("${document-expiry.queue-capacity:100}") int queueCapacity,
+            @Value("${document-expiry.job-retention-minutes:30}") long retentionMinutes
+    ) {
+        this.documentExpiryService = documentExpiryService;
+        this.jobRegistry = jobRegistry;
+
+        jobRegistry.register(BackgroundJobType.DOCUMENT_EXPIRY, new BackgroundJobPool(
+                "document-expiry", "document.expiry.jobs", "Document expiry jobs",
+                workers, queueCapacity, Duration.ofMinutes(retentionMinutes)));
+    }
+
+    /**
+     * Queues an uploaded file. The bytes are read here because the multipart
+     * temp file does not outlive the request.
+     */
+    public DocumentExpiryJobResponseDto submitFile(MultipartFile file) {
+
+        if (file == null || file.isEmpty()) {
+            throw new ValidationException("File is required", "ERR_FILE_REQUIRED");
+        }
+
+        String fileName = file.getOriginalFilename();
+        String contentType = file.getContentType();
+        byte[] fileBytes;
+        try {
+            fileBytes = file.getBytes();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read uploaded file: " + e.getMessage(), e);
+        }
+
+        return submit(fileName, () -> documentExpiryService.checkExpiry(fileName, contentType, fileBytes));
+    }
+
+    public DocumentExpiryJobResponseDto submitUrl(String fileUrl) {
+
+        if (fileUrl == null || fileUrl.isBlank()) {
+            throw new ValidationException("File URL is required", "ERR_FILE_URL_REQUIRED");
+        }
+
+        return submit(fileUrl, () -> documentExpiryService.checkExpiryFromUrl(fileUrl));
+    }
+
+    public DocumentExpiryJobResponseDto getJob(String jobId) {
+        return toDto(findJob(jobId));
+    }
+
+    /**
+     * Streams one {@code result} event when the job finishes, then completes.
+     * A job that already finished is answered immediately.
+     */
+    public SseEmitter subscribe(String jobId) {
+        BackgroundJob job = findJob(jobId);
+        SseEmitter emitter = new SseEmitter(SUBSCRIBE_TIMEOUT_MS);
+
+        jobRegistry.whenFinished(job).whenComplete((finished, error) -> {
+            try {
+                emitter.send(SseEmitter.event().name("result").data(toDto(finished != null ? finished : job)));
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+            }
+        });
+        return emitter;
+    }
+
+    public int getQueueDepth() {
+        return jobRegistry.getQueueDepth(BackgroundJobType.DOCUMENT_EXPIRY);
+    }
+
+    // ====================== INTERNALS ======================
+
+    private DocumentExpiryJobResponseDto submit(String source, Callable<DocumentExpiryResponseDto> work) {
+        BackgroundJob job = jobRegistry.newJob(BackgroundJobType.DOCUMENT_EXPIRY);
+        job.setSource(source);
+
+        try {
+            jobRegistry.submit(job, context -> context.setResult(work.call()));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Document expiry queue full, rejected job for {}", source);
+            throw new ValidationException(
+                    "Document expiry queue is full. Please retry shortly.",
+                    "ERR_EXPIRY_QUEUE_FULL"
+            );
+        }
+
+        logger.info("Document expiry job {} queued for {} (queue depth {})", job.getId(), source, getQueueDepth());
+        return toDto(job);
+    }
+
+    private BackgroundJob findJob(String jobId) {
+        return jobRegistry.find(BackgroundJobType.DOCUMENT_EXPIRY, jobId)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Document expiry job not found: " + jobId, "ERR_EXPIRY_JOB_NOT_FOUND"));
+    }
+
+    private DocumentExpiryJobResponseDto toDto(BackgroundJob job) {
+        return new DocumentExpiryJobResponseDto(
+                job.getId(),
+                DocumentExpiryJobStatus.valueOf(job.getStatus().name()),
+                job.getSource(),
+                jobRegistry.readResult(job, DocumentExpiryResponseDto.class),
+                job.getError(),
+                job.getSubmittedAt(),
+                job.getCompletedAt()
+        );
+    }
+}
@@ -0,0 +1,190 @@
+package com.doc.impl;
+
+import com.doc.entity.document.DocumentExpiryExtraction;
+import com.doc.repository.DocumentExpiryExtractionRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Cache of expiry extractions keyed by the SHA-256 of the file bytes and the
+ * extractor version ({@link ExpiryDateExtractor#VERSION} and the OCR
+ * language), so a change of the extraction rules never serves old results.
+ *
+ * Only the extraction (date and matched text) is cached, never the
+ * EXPIRED / VALID status, because that depends on the day it is asked.
+ * The memory tier is an LRU bounded by {@code document-expiry.cache.max-entries}.
+ * With {@code document-expiry.cache.persistent=true} extractions are also kept
+ * in {@code document_expiry_extractions} and survive restarts; rows of
+ * other extractor versions are deleted on startup.
+ */
+@Component
+public class DocumentExpiryResultCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentExpiryResultCache.class);
+
+    private final DocumentExpiryExtractionRepository extractionRepository;
+    private final boolean persistent;
+    private final String extractorVersion;
+    private final Map<String, Extraction> entries;
+
+    public DocumentExpiryResultCache(
+            DocumentExpiryExtractionRepository extractionRepository,
+            @Value("${document-expiry.cache.max-entries:5000}") int maxEntries,
+            @Value("${document-expiry.cache.persistent:false}") boolean persistent,
+            @Value("${tesseract.language:eng}") String ocrLanguage
+    ) {
+        this.extractionRepository = extractionRepository;
+        this.persistent = persistent;
+        this.extractorVersion = ExpiryDateExtractor.VERSION + "/" + ocrLanguage;
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Extraction> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @PostConstruct
+    public void dropOtherVersions() {
+        if (!persistent) {
+            return;
+        }
+        try {
+            int deleted = extractionRepository.deleteOtherVersions(extractorVersion);
+            if (deleted > 0) {
+                logger.info("Removed {} expiry extractions of other extractor versions (current {})",
+                        deleted, extractorVersion);
+            }
+        } catch (RuntimeException e) {
+            // Stale rows are never read, they only take space.
+            logger.warn("Could not remove expiry extractions of other versions: {}", e.getMessage());
+        }
+    }
+
+    public static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public Optional<Extraction> get(String contentSha256) {
+        synchronized (entries) {
+            Extraction cached = entries.get(key(contentSha256));
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+        }
+
+        if (!persistent) {
+            return Optional.empty();
+        }
+
+        Optional<Extraction> stored = extractionRepository
+                .findByContentSha256AndExtractorVersion(contentSha256, extractorVersion)
+                .map(row -> new Extraction(row.isTextFound(), row.getExpiryDate(), row.getMatchedText(), row.isConfident()));
+        stored.ifPresent(extraction -> {
+            synchronized (entries) {
+                entries.put(key(contentSha256), extraction);
+            }
+        });
+        return stored;
+    }
+
+    public void put(String contentSha256, Extraction extraction) {
+        synchronized (entries) {
+            entries.put(key(contentSha256), extraction);
+        }
+
+        if (!persistent) {
+            return;
+        }
+
+        try {
+            if (extractionRepository.findByContentSha256AndExtractorVersion(contentSha256, extractorVersion).isPresent()) {
+                return;
+            }
+            DocumentExpiryExtraction row = new DocumentExpiryExtraction();
+            row.setContentSha256(contentSha256);
+            row.setExtractorVersion(extractorVersion);
+            row.setTextFound(extraction.textFound());
+            row.setExpiryDate(extraction.expiryDate());
+            row.setMatchedText(truncate(extraction.matchedText()));
+            row.setConfident(extraction.confident());
+            row.setCreatedDate(LocalDateTime.now());
+            extractionRepository.save(row);
+        } catch (RuntimeException e) {
+            // A concurrent insert of the same content wins; the memory tier already has the result.
+            logger.warn("Could not persist expiry extraction {}: {}", contentSha256, e.getMessage());
+        }
+    }
+
+    /**
+     * Forgets one file content in both tiers.
+     *
+     * @return true if an entry was removed
+     */
+    public boolean evict(String contentSha256) {
+        boolean removed;
+        synchronized (entries) {
+            removed = entries.remove(key(contentSha256)) != null;
+        }
+        if (persistent) {
+            removed |= extractionRepository.deleteByContentSha256(contentSha256) > 0;
+        }
+        return removed;
+    }
+
+    /**
+     * Clears the memory tier and, when enabled, the persistent tier,
+     * e.g. after the extraction rules changed.
+     */
+    public void evictAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+        if (persistent) {
+            extractionRepository.deleteAllInBatch();
+        }
+        logger.info("Document expiry result cache cleared");
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private String key(String contentSha256) {
+        return extractorVersion + ":" + contentSha256;
+    }
+
+    private static String truncate(String text) {
+        return text != null && text.length() > 1000 ? text.substring(0, 1000) : text;
+    }
+
+    /**
+     * @param textFound  false when no readable text could be extracted
+     * @param expiryDate extracted date, null when not found
+     */
+    public record Extraction(
+            boolean textFound,
+            LocalDate expiryDate,
+            String matchedText,
+            boolean confident
+    ) {
+    }
+}
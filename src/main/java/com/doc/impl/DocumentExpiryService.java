@@ -13,19 +13,23 @@ import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Optional;
 
 @Service
 public class DocumentExpiryService {
 
     private final DocumentTextExtractorService documentTextExtractorService;
     private final ExpiryDateExtractor expiryDateExtractor;
+    private final DocumentExpiryResultCache resultCache;
 
     public DocumentExpiryService(
             DocumentTextExtractorService documentTextExtractorService,
-            ExpiryDateExtractor expiryDateExtractor
+            ExpiryDateExtractor expiryDateExtractor,
+            DocumentExpiryResultCache resultCache
     ) {
         this.documentTextExtractorService = documentTextExtractorService;
         this.expiryDateExtractor = expiryDateExtractor;
+        this.resultCache = resultCache;
     }
 
     public DocumentExpiryResponseDto checkExpiry(MultipartFile file) {
@@ -35,11 +39,10 @@ public class DocumentExpiryService {
         }
 
         try {
-            String extractedText = documentTextExtractorService.extractText(file);
-
-            return processExtractedText(
+            return checkExpiry(
                     file.getOriginalFilename(),
-                    extractedText
+                    file.getContentType(),
+                    file.getBytes()
             );
 
         } catch (Exception e) {
@@ -47,6 +50,36 @@ public class DocumentExpiryService {
         }
     }
 
+    /**
+     * Checks already loaded file bytes. Identical content is only extracted
+     * once; later checks are answered from {@link DocumentExpiryResultCache}.
+     */
+    public DocumentExpiryResponseDto checkExpiry(
+            String fileName,
+            String contentType,
+            byte[] fileBytes
+    ) throws Exception {
+
+        String contentSha256 = DocumentExpiryResultCache.sha256(fileBytes);
+
+        Optional<DocumentExpiryResultCache.Extraction> cached = resultCache.get(contentSha256);
+        if (cached.isPresent()) {
+            return toResponse(fileName, cached.get());
+        }
+
+        String extractedText = documentTextExtractorService.extractText(
+                fileName,
+                contentType,
+                fileBytes,
+                expiryDateExtractor::hasConfidentMatch
+        );
+
+        DocumentExpiryResultCache.Extraction extraction = extract(extractedText);
+        resultCache.put(contentSha256, extraction);
+
+        return toResponse(fileName, extraction);
+    }
+
     public DocumentExpiryResponseDto checkExpiryFromUrl(String fileUrl) {
 
         if (fileUrl == null || fileUrl.isBlank()) {
@@ -56,28 +89,40 @@ public class DocumentExpiryService {
         try {
             DownloadedFile downloadedFile = downloadFileFromUrl(fileUrl);
 
-            String extractedText = documentTextExtractorService.extractText(
+            return checkExpiry(
                     downloadedFile.fileName(),
                     downloadedFile.contentType(),
                     downloadedFile.fileBytes()
             );
 
-            return processExtractedText(
-                    downloadedFile.fileName(),
-                    extractedText
-            );
-
         } catch (Exception e) {
             throw new RuntimeException("Failed to check document expiry from URL: " + e.getMessage(), e);
         }
     }
 
-    private DocumentExpiryResponseDto processExtractedText(
+    private DocumentExpiryResultCache.Extraction extract(String extractedText) {
+
+        if (extractedText == null || extractedText.isBlank()) {
+            return new DocumentExpiryResultCache.Extraction(false, null, null, false);
+        }
+
+        ExpiryDateExtractor.ExpiryDateMatch expiryMatch =
+                expiryDateExtractor.extractExpiryDate(extractedText);
+
+        return new DocumentExpiryResultCache.Extraction(
+                true,
+                expiryMatch.expiryDate(),
+                expiryMatch.matchedText(),
+                expiryMatch.confident()
+        );
+    }
+
+    private DocumentExpiryResponseDto toResponse(
             String fileName,
-            String extractedText
+            DocumentExpiryResultCache.Extraction expiryMatch
     ) {
 
-        if (extractedText == null || extractedText.isBlank()) {
+        if (!expiryMatch.textFound()) {
             return new DocumentExpiryResponseDto(
                     fileName,
                     null,
@@ -89,9 +134,6 @@ public class DocumentExpiryService {
             );
         }
 
-        ExpiryDateExtractor.ExpiryDateMatch expiryMatch =
-                expiryDateExtractor.extractExpiryDate(extractedText);
-
         if (expiryMatch.expiryDate() == null) {
             return new DocumentExpiryResponseDto(
                     fileName,
@@ -1,65 +1,366 @@
 package com.doc.impl;
 
+import com.amazonaws.services.s3.model.CannedAccessControlList;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.S3Object;
 import com.doc.config.S3Service;
+import com.doc.dto.document.DirectUploadRequest;
+import com.doc.dto.document.DirectUploadResponse;
 import com.doc.dto.document.DocumentUploadRequest;
 import com.doc.dto.document.DocumentUploadResponse;
+import com.doc.em.DocumentUploadStatus;
 import com.doc.entity.document.Document;
+import com.doc.entity.document.DocumentUploadSession;
+import com.doc.exception.ResourceNotFoundException;
+import com.doc.exception.ValidationException;
 import com.doc.repository.DocumentRepository;
+import com.doc.repository.DocumentUploadSessionRepository;
 import com.doc.service.DocumentService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Document uploads.
+ *
+ * Clients should upload directly to S3: {@link #initiateDirectUpload} issues
+ * a presigned PUT URL and {@link #completeDirectUpload} verifies the object
+ * and creates the document. {@link #uploadDocument} is kept for clients that
+ * post the file to this service; it spools the file to disk and uploads it
+ * in parallel multipart chunks outside any transaction.
+ *
+ * Both paths deduplicate on SHA-256 and size, but only on a hash computed
+ * here from the stored bytes, never on one a client claims: when identical
+ * content is already stored, the new document points at the existing object.
+ */
 @Service
 @Transactional
 public class DocumentServiceImpl implements DocumentService {
 
+    private static final Logger logger = LoggerFactory.getLogger(DocumentServiceImpl.class);
+
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
     private final DocumentRepository documentRepository;
+    private final DocumentUploadSessionRepository documentUploadSessionRepository;
     private final S3Service s3Service;
+    private final TransactionTemplate completeTransaction;
+    private final Duration presignExpiry;
+    private final Duration completionGrace;
+    private final long maxFileSizeBytes;
 
-    public DocumentServiceImpl(DocumentRepository documentRepository, S3Service s3Service) {
+    public DocumentServiceImpl(
+            DocumentRepository documentRepository,
+            DocumentUploadSessionRepository documentUploadSessionRepository,
+            S3Service s3Service,
+            PlatformTransactionManager transactionManager,
+            @Value("${document.upload.presign-expiry-minutes:15}") long presignExpiryMinutes,
+            @Value("${document.upload.completion-grace-minutes:60}") long completionGraceMinutes,
+            @Value("${document.upload.max-file-size-mb:200}") long maxFileSizeMb
+    ) {
         this.documentRepository = documentRepository;
+        this.documentUploadSessionRepository = documentUploadSessionRepository;
         this.s3Service = s3Service;
+        this.completeTransaction = new TransactionTemplate(transactionManager);
+        this.presignExpiry = Duration.ofMinutes(presignExpiryMinutes);
+        this.completionGrace = Duration.ofMinutes(completionGraceMinutes);
+        this.maxFileSizeBytes = maxFileSizeMb * 1024 * 1024;
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public DocumentUploadResponse uploadDocument(DocumentUploadRequest request) {
         MultipartFile file = request.getFile();
         if (file == null || file.isEmpty()) {
             throw new IllegalArgumentException("File is required");
         }
 
+        String finalFileName = request.getFileName() != null && !request.getFileName().isBlank()
+                ? request.getFileName()
+                : file.getOriginalFilename();
+
+        File spooled = null;
         try {
-            String s3Key = s3Service.uploadFile(file);
-            String fileUrl = s3Service.getFullUrl(s3Key);
+            spooled = File.createTempFile("document-upload-", ".tmp");
+            String contentHash = copyAndHash(file, spooled);
+            long fileSize = spooled.length();
+
+            String fileUrl = findStoredUrl(contentHash, fileSize).orElse(null);
+            if (fileUrl == null) {
+                String s3Key = s3Service.newPublicKey(file.getOriginalFilename());
+                s3Service.uploadPublicFile(s3Key, spooled, file.getContentType());
+                fileUrl = s3Service.getFullUrl(s3Key);
+            }
+
+            Document document = documentRepository.save(
+                    newDocument(finalFileName, fileUrl, contentHash, fileSize, file.getContentType()));
+            return toResponse(document);
+
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to upload file to S3", e);
+        } finally {
+            if (spooled != null && !spooled.delete() && spooled.exists()) {
+                logger.warn("Could not delete temp file {}", spooled);
+            }
+        }
+    }
+
+    @Override
+    public DirectUploadResponse initiateDirectUpload(DirectUploadRequest request) {
+        if (request.getFileSize() > maxFileSizeBytes) {
+            throw new ValidationException(
+                    "File exceeds the maximum upload size of " + (maxFileSizeBytes / (1024 * 1024)) + " MB",
+                    "ERR_UPLOAD_TOO_LARGE"
+            );
+        }
+
+        String contentHash = request.getSha256().toLowerCase();
+        String contentType = StringUtils.hasText(request.getContentType())
+                ? request.getContentType()
+                : DEFAULT_CONTENT_TYPE;
+
+        LocalDateTime now = LocalDateTime.now();
+        DocumentUploadSession session = new DocumentUploadSession();
+        session.setUploadId(UUID.randomUUID().toString());
+        session.setS3Key(s3Service.newPublicKey(request.getFileName()));
+        session.setFileName(request.getFileName());
+        session.setContentType(contentType);
+        session.setContentHash(contentHash);
+        session.setFileSize(request.getFileSize());
+        session.setExpiresAt(now.plus(presignExpiry));
+        session.setCreatedDate(now);
+        documentUploadSessionRepository.save(session);
+
+        Date expiresAt = Date.from(session.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant());
 
-            String finalFileName = request.getFileName() != null && !request.getFileName().isBlank()
-                    ? request.getFileName()
-                    : file.getOriginalFilename();
+        DirectUploadResponse response = new DirectUploadResponse();
+        response.setUploadId(session.getUploadId());
+        response.setUploadUrl(s3Service.presignPublicUpload(session.getS3Key(), contentType, expiresAt).toString());
+        response.setMethod("PUT");
+        response.setHeaders(Map.of(
+                "Content-Type", contentType,
+                S3Service.PUBLIC_READ_HEADER, CannedAccessControlList.PublicRead.toString()
+        ));
+        response.setExpiresAt(session.getExpiresAt());
+        return response;
+    }
+
+    /**
+     * The client can overwrite the upload key until its URL expires, so the
+     * object is first copied server-side to a key only this service writes,
+     * and that copy is hashed. The document is created only when the copy
+     * matches the size and SHA-256 given at initiation. Hashing runs outside
+     * any transaction; the session is locked only to record the result.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public DocumentUploadResponse completeDirectUpload(String uploadId) {
+        DocumentUploadSession session = documentUploadSessionRepository.findByUploadId(uploadId)
+                .orElseThrow(() -> new ResourceNotFoundException("Upload not found: " + uploadId, "ERR_UPLOAD_NOT_FOUND"));
+
+        // Completion is idempotent so clients can safely retry
+        if (session.getStatus() == DocumentUploadStatus.COMPLETED) {
+            return findCompleted(session);
+        }
+        if (session.getStatus() == DocumentUploadStatus.EXPIRED) {
+            throw new ValidationException("Upload has expired, please upload the file again", "ERR_UPLOAD_EXPIRED");
+        }
 
-            String uuid = UUID.randomUUID().toString();
+        ObjectMetadata metadata = s3Service.findObjectMetadata(session.getS3Key())
+                .orElseThrow(() -> new ValidationException("File has not been uploaded yet", "ERR_UPLOAD_MISSING"));
+        if (metadata.getContentLength() != session.getFileSize()) {
+            throw new ValidationException(
+                    "Uploaded file is " + metadata.getContentLength() + " bytes, expected " + session.getFileSize(),
+                    "ERR_UPLOAD_SIZE_MISMATCH"
+            );
+        }
 
-            Document document = new Document();
-            document.setFileName(finalFileName);
-            document.setUuid(uuid);
-            document.setFileUrl(fileUrl);
+        String verifiedKey = s3Service.newPublicKey(session.getFileName());
+        s3Service.copyPublicObject(session.getS3Key(), verifiedKey);
+        try {
+            verifyContent(session, verifiedKey);
+            return completeTransaction.execute(status -> complete(uploadId, verifiedKey));
+        } catch (RuntimeException e) {
+            deleteQuietly(verifiedKey);
+            throw e;
+        }
+    }
 
-            document = documentRepository.save(document);
+    /**
+     * Expires uploads that were never completed and removes any object the
+     * client did upload. Uploads can still be completed for
+     * {@code document.upload.completion-grace-minutes} after their URL expires.
+     */
+    @Scheduled(fixedDelayString = "${document.upload.cleanup-interval-ms:600000}")
+    public void expireAbandonedUploads() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(completionGrace);
+        List<DocumentUploadSession> abandoned = documentUploadSessionRepository
+                .findByStatusAndExpiresAtBefore(DocumentUploadStatus.PENDING, cutoff, PageRequest.of(0, 200));
 
-            // Build response
-            DocumentUploadResponse response = new DocumentUploadResponse();
-            response.setId(document.getId());
-            response.setUuid(document.getUuid());
-            response.setFileName(document.getFileName());
-            response.setUrl(document.getFileUrl());
+        for (DocumentUploadSession session : abandoned) {
+            session.setStatus(DocumentUploadStatus.EXPIRED);
+            deleteObjectAfterCommit(session.getS3Key());
+        }
+        if (!abandoned.isEmpty()) {
+            logger.info("Expired {} abandoned document uploads", abandoned.size());
+        }
+    }
 
-            return response;
+    // ====================== HELPERS ======================
 
+    private void verifyContent(DocumentUploadSession session, String verifiedKey) {
+        String actualHash;
+        long actualSize;
+        try (S3Object object = s3Service.getObject(verifiedKey);
+             InputStream in = object.getObjectContent()) {
+            MessageDigest digest = sha256();
+            actualSize = in.transferTo(new DigestOutputStream(OutputStream.nullOutputStream(), digest));
+            actualHash = HexFormat.of().formatHex(digest.digest());
         } catch (IOException e) {
-            throw new RuntimeException("Failed to upload file to S3", e);
+            throw new UncheckedIOException("Failed to read uploaded file " + session.getS3Key(), e);
+        }
+
+        if (actualSize != session.getFileSize() || !actualHash.equals(session.getContentHash())) {
+            logger.warn("Upload {} does not match its declared content: size={} expected={}, sha256={} expected={}",
+                    session.getUploadId(), actualSize, session.getFileSize(), actualHash, session.getContentHash());
+            throw new ValidationException(
+                    "Uploaded file does not match the declared SHA-256, please upload it again",
+                    "ERR_UPLOAD_HASH_MISMATCH"
+            );
         }
     }
-}
\ No newline at end of file
+
+    private DocumentUploadResponse complete(String uploadId, String verifiedKey) {
+        DocumentUploadSession session = documentUploadSessionRepository.findByUploadIdForUpdate(uploadId)
+                .orElseThrow(() -> new ResourceNotFoundException("Upload not found: " + uploadId, "ERR_UPLOAD_NOT_FOUND"));
+
+        // A concurrent completion won the lock
+        if (session.getStatus() == DocumentUploadStatus.COMPLETED) {
+            deleteObjectAfterCommit(verifiedKey);
+            return findCompleted(session);
+        }
+        if (session.getStatus() == DocumentUploadStatus.EXPIRED) {
+            throw new ValidationException("Upload has expired, please upload the file again", "ERR_UPLOAD_EXPIRED");
+        }
+
+        // Identical, verified content may already be stored
+        String fileUrl;
+        Optional<String> storedUrl = findStoredUrl(session.getContentHash(), session.getFileSize());
+        if (storedUrl.isPresent()) {
+            fileUrl = storedUrl.get();
+            deleteObjectAfterCommit(verifiedKey);
+        } else {
+            fileUrl = s3Service.getFullUrl(verifiedKey);
+        }
+        deleteObjectAfterCommit(session.getS3Key());
+
+        Document document = documentRepository.save(newDocument(
+                session.getFileName(), fileUrl, session.getContentHash(), session.getFileSize(), session.getContentType()));
+
+        session.setStatus(DocumentUploadStatus.COMPLETED);
+        session.setDocumentId(document.getId());
+        session.setCompletedDate(LocalDateTime.now());
+
+        return toResponse(document);
+    }
+
+    private DocumentUploadResponse findCompleted(DocumentUploadSession session) {
+        return documentRepository.findById(session.getDocumentId())
+                .map(this::toResponse)
+                .orElseThrow(() -> new ResourceNotFoundException("Document not found", "ERR_DOCUMENT_NOT_FOUND"));
+    }
+
+    private Optional<String> findStoredUrl(String contentHash, long fileSize) {
+        Optional<String> fileUrl = documentRepository
+                .findFirstByContentHashAndFileSizeOrderByIdAsc(contentHash, fileSize)
+                .map(Document::getFileUrl);
+        fileUrl.ifPresent(url -> logger.debug("Reusing stored object {} for content {}", url, contentHash));
+        return fileUrl;
+    }
+
+    private static String copyAndHash(MultipartFile file, File target) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+            Files.copy(in, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private void deleteObjectAfterCommit(String s3Key) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                deleteQuietly(s3Key);
+            }
+        });
+    }
+
+    private void deleteQuietly(String s3Key) {
+        try {
+            s3Service.deleteObject(s3Key);
+        } catch (RuntimeException e) {
+            logger.warn("Could not delete S3 object {}: {}", s3Key, e.getMessage());
+        }
+    }
+
+    private static Document newDocument(String fileName, String fileUrl, String contentHash,
+                                        long fileSize, String contentType) {
+        Document document = new Document();
+        document.setFileName(fileName);
+        document.setUuid(UUID.randomUUID().toString());
+        document.setFileUrl(fileUrl);
+        document.setContentHash(contentHash);
+        document.setFileSize(fileSize);
+        document.setContentType(contentType);
+        return document;
+    }
+
+    private DocumentUploadResponse toResponse(Document document) {
+        DocumentUploadResponse response = new DocumentUploadResponse();
+        response.setId(document.getId());
+        response.setUuid(document.getUuid());
+        response.setFileName(document.getFileName());
+        response.setUrl(document.getFileUrl());
+        return response;
+    }
+}
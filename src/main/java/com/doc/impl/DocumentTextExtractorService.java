@@ -2,21 +2,33 @@ package com.doc.impl;
 
 import org.apache.pdfbox.Loader;
 import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.ImageType;
 import org.apache.pdfbox.rendering.PDFRenderer;
 import org.apache.pdfbox.text.PDFTextStripper;
 import org.apache.poi.hwpf.HWPFDocument;
 import org.apache.poi.hwpf.extractor.WordExtractor;
 import org.apache.poi.xwpf.extractor.XWPFWordExtractor;
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
 
 @Service
 public class DocumentTextExtractorService {
 
+    private static final Logger logger = LoggerFactory.getLogger(DocumentTextExtractorService.class);
+
+    private static final int SCAN_DPI = 250;
+
     private final OcrService ocrService;
 
     public DocumentTextExtractorService(OcrService ocrService) {
@@ -47,6 +59,21 @@ public class DocumentTextExtractorService {
             String contentType,
             byte[] fileBytes
     ) throws Exception {
+        return extractText(fileName, contentType, fileBytes, null);
+    }
+
+    /**
+     * Same as {@link #extractText(String, String, byte[])}, but OCR of a scanned
+     * PDF stops as soon as the text of the pages read so far satisfies
+     * {@code stopWhen}. Pages are tested in order, so the result is always a
+     * prefix of the full document text.
+     */
+    public String extractText(
+            String fileName,
+            String contentType,
+            byte[] fileBytes,
+            Predicate<String> stopWhen
+    ) throws Exception {
 
         if (fileBytes == null || fileBytes.length == 0) {
             throw new RuntimeException("File bytes are empty");
@@ -56,7 +83,7 @@ public class DocumentTextExtractorService {
         String safeContentType = contentType == null ? "" : contentType.toLowerCase();
 
         if (lowerFileName.endsWith(".pdf") || "application/pdf".equalsIgnoreCase(safeContentType)) {
-            return extractTextFromPdf(fileBytes);
+            return extractTextFromPdf(fileBytes, stopWhen);
         }
 
         if (lowerFileName.endsWith(".docx")
@@ -89,7 +116,7 @@ public class DocumentTextExtractorService {
                 || contentType.startsWith("image/");
     }
 
-    private String extractTextFromPdf(byte[] fileBytes) throws Exception {
+    private String extractTextFromPdf(byte[] fileBytes, Predicate<String> stopWhen) throws Exception {
 
         try (PDDocument document = Loader.loadPDF(fileBytes)) {
 
@@ -108,16 +135,64 @@ public class DocumentTextExtractorService {
              * Scanned PDF case:
              * Convert every PDF page into image and run OCR.
              */
-            PDFRenderer pdfRenderer = new PDFRenderer(document);
-            StringBuilder scannedPdfText = new StringBuilder();
+            return ocrScannedPdf(document, stopWhen);
+        }
+    }
 
-            for (int page = 0; page < document.getNumberOfPages(); page++) {
-                BufferedImage image = pdfRenderer.renderImageWithDPI(page, 250);
-                String pageText = ocrService.extractTextFromBufferedImage(image);
+    /**
+     * Renders pages on the calling thread (PDFBox documents are not thread-safe)
+     * and OCRs them concurrently on the OCR worker pool. At most one page per
+     * OCR engine is rendered ahead of the slowest unfinished page, which bounds
+     * the number of page images held in memory.
+     */
+    private String ocrScannedPdf(PDDocument document, Predicate<String> stopWhen) throws Exception {
+
+        int pageCount = document.getNumberOfPages();
+        int maxInFlight = ocrService.getPoolSize();
+
+        PDFRenderer pdfRenderer = new PDFRenderer(document);
+        Deque<Future<String>> inFlight = new ArrayDeque<>();
+        StringBuilder scannedPdfText = new StringBuilder();
+
+        int nextPageToRender = 0;
+        int pagesRead = 0;
+
+        try {
+            while (pagesRead < pageCount) {
+
+                while (nextPageToRender < pageCount && inFlight.size() < maxInFlight) {
+                    BufferedImage image = pdfRenderer.renderImageWithDPI(nextPageToRender, SCAN_DPI, ImageType.GRAY);
+                    inFlight.addLast(ocrService.getPageExecutor().submit(
+                            () -> ocrService.extractTextFromBufferedImage(image, SCAN_DPI)
+                    ));
+                    nextPageToRender++;
+                }
+
+                String pageText = awaitPage(inFlight.removeFirst());
                 scannedPdfText.append(pageText).append("\n");
+                pagesRead++;
+
+                if (stopWhen != null && pagesRead < pageCount && stopWhen.test(scannedPdfText.toString())) {
+                    logger.info("Scanned PDF OCR stopped early after {} of {} pages", pagesRead, pageCount);
+                    break;
+                }
             }
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+        }
 
-            return scannedPdfText.toString();
+        return scannedPdfText.toString();
+    }
+
+    private String awaitPage(Future<String> page) throws Exception {
+        try {
+            return page.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception exception) {
+                throw exception;
+            }
+            throw e;
         }
     }
 
@@ -3,20 +3,23 @@ package com.doc.impl;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.time.Month;
 import java.time.YearMonth;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeFormatterBuilder;
-import java.time.format.DateTimeParseException;
-import java.time.temporal.ChronoField;
-import java.util.Comparator;
-import java.util.List;
-import java.util.Locale;
+import java.time.format.TextStyle;
+import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 @Service
 public class ExpiryDateExtractor {
 
+    /**
+     * Version of the extraction rules. Increase it whenever the keywords,
+     * date formats or text extraction change, so that extractions cached by
+     * {@link DocumentExpiryResultCache} under the old rules are not reused.
+     */
+    public static final int VERSION = 1;
+
     private static final Pattern EXPIRY_KEYWORD_PATTERN = Pattern.compile(
             "(?i)(" +
                     "expiry date|" +
@@ -35,23 +38,32 @@ public class ExpiryDateExtractor {
                     ")"
     );
 
-    private static final Pattern DATE_PATTERN = Pattern.compile(
-            "\\b\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4}\\b" +                       // 31/03/2026
-                    "|\\b\\d{1,2}[.]\\d{1,2}[.]\\d{2,4}\\b" +                // 31.03.2026
-                    "|\\b\\d{4}[/-]\\d{1,2}[/-]\\d{1,2}\\b" +                // 2026-03-31
-                    "|\\b\\d{1,2}\\s*(st|nd|rd|th)?\\s+[A-Za-z]{3,9}\\s*,?\\s*\\d{4}\\b" + // 31 March 2026
-                    "|\\b[A-Za-z]{3,9}\\s+\\d{1,2}\\s*,?\\s*\\d{4}\\b" +    // March 31 2026
-                    "|\\b\\d{1,2}[/-]\\d{4}\\b"                              // 03/2026
-    );
+    private static final int CONTEXT_BEFORE_KEYWORD = 30;
+    private static final int CONTEXT_AFTER_KEYWORD = 150;
+
+    /**
+     * English month names and their three-letter forms, lower case.
+     */
+    private static final Map<String, Integer> MONTHS = buildMonthLookup();
 
     public ExpiryDateMatch extractExpiryDate(String text) {
 
         if (text == null || text.isBlank()) {
-            return new ExpiryDateMatch(null, null);
+            return new ExpiryDateMatch(null, null, false);
         }
 
         String normalizedText = normalizeText(text);
 
+        /*
+         * All dates are recognised in one left-to-right scan; each keyword
+         * then only needs a lookup into the already sorted date list.
+         */
+        List<DateToken> dates = scanDates(normalizedText);
+
+        if (dates.isEmpty()) {
+            return new ExpiryDateMatch(null, null, false);
+        }
+
         /*
          * First priority:
          * Search date near expiry-related keywords.
@@ -60,26 +72,19 @@ public class ExpiryDateExtractor {
 
         while (keywordMatcher.find()) {
 
-            int contextStart = Math.max(0, keywordMatcher.start() - 30);
-            int contextEnd = Math.min(normalizedText.length(), keywordMatcher.end() + 150);
+            int contextStart = Math.max(0, keywordMatcher.start() - CONTEXT_BEFORE_KEYWORD);
+            int contextEnd = Math.min(normalizedText.length(), keywordMatcher.end() + CONTEXT_AFTER_KEYWORD);
 
             /*
              * Important:
              * Search date only AFTER expiry keyword.
              * Otherwise Issue Date before "Valid Till Date" can be wrongly selected.
              */
-            String textAfterKeyword = normalizedText.substring(keywordMatcher.end(), contextEnd);
-            String matchedContext = normalizedText.substring(contextStart, contextEnd);
+            DateToken date = firstDateWithin(dates, keywordMatcher.end(), contextEnd);
 
-            Matcher dateMatcher = DATE_PATTERN.matcher(textAfterKeyword);
-
-            while (dateMatcher.find()) {
-                String dateText = dateMatcher.group();
-                LocalDate date = parseDate(dateText);
-
-                if (date != null) {
-                    return new ExpiryDateMatch(date, matchedContext.trim());
-                }
+            if (date != null) {
+                String matchedContext = normalizedText.substring(contextStart, contextEnd);
+                return new ExpiryDateMatch(date.date(), matchedContext.trim(), true);
             }
         }
 
@@ -88,122 +93,352 @@ public class ExpiryDateExtractor {
          * If no keyword found, pick the latest date from document.
          * But this is less reliable, so matchedText will show fallback.
          */
-        List<LocalDate> allDates = extractAllDates(normalizedText);
+        LocalDate latestDate = dates.get(0).date();
+        for (DateToken date : dates) {
+            if (date.date().isAfter(latestDate)) {
+                latestDate = date.date();
+            }
+        }
 
-        if (!allDates.isEmpty()) {
-            LocalDate latestDate = allDates.stream()
-                    .max(Comparator.naturalOrder())
-                    .orElse(null);
+        return new ExpiryDateMatch(
+                latestDate,
+                "Fallback date selected. Please verify manually.",
+                false
+        );
+    }
 
-            return new ExpiryDateMatch(
-                    latestDate,
-                    "Fallback date selected. Please verify manually."
-            );
+    /**
+     * True when the text already contains a keyword-anchored expiry date.
+     * Used to stop OCR of further pages once the answer cannot change.
+     */
+    public boolean hasConfidentMatch(String text) {
+        return extractExpiryDate(text).confident();
+    }
+
+    /**
+     * Collapses every whitespace run to a single space and trims, in one pass.
+     */
+    private String normalizeText(String text) {
+
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (isSpace(c)) {
+                pendingSpace = normalized.length() > 0;
+            } else {
+                if (pendingSpace) {
+                    normalized.append(' ');
+                    pendingSpace = false;
+                }
+                normalized.append(c);
+            }
         }
 
-        return new ExpiryDateMatch(null, null);
+        return normalized.toString();
     }
 
-    private String normalizeText(String text) {
-        return text
-                .replace("\n", " ")
-                .replace("\r", " ")
-                .replaceAll("\\s+", " ")
-                .trim();
+    private DateToken firstDateWithin(List<DateToken> dates, int from, int to) {
+
+        int low = 0;
+        int high = dates.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (dates.get(mid).start() < from) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        for (int i = low; i < dates.size() && dates.get(i).start() < to; i++) {
+            if (dates.get(i).end() <= to) {
+                return dates.get(i);
+            }
+        }
+        return null;
     }
 
-    private List<LocalDate> extractAllDates(String text) {
+    // ====================== DATE SCANNER ======================
+
+    /*
+     * Recognised shapes (the same ones the old regex list covered):
+     *
+     *   31/03/2026  31-03-2026  31.03.2026   day-month-year
+     *   31/03/26    31-03-26                 two-digit year, 20xx
+     *   2026-03-31  2026/03/31               ISO
+     *   31 March 2026  31st Mar, 2026        day month-name year
+     *   March 31 2026  Mar 31st, 2026        month-name day year
+     *   03/2026     03-2026                  month/year, last day of month
+     *
+     * The shape is decided by looking at the characters, so each candidate is
+     * converted with plain arithmetic and no parse exceptions are thrown.
+     * Like the old SMART formatters, a day past the month end (31/04) is moved
+     * to the last day of that month.
+     */
+    private List<DateToken> scanDates(String text) {
+
+        List<DateToken> dates = new ArrayList<>();
+        int length = text.length();
+        int i = 0;
+
+        while (i < length) {
+            char c = text.charAt(i);
+
+            if (!isWordChar(c)) {
+                i++;
+                continue;
+            }
+
+            DateToken token = null;
+            if (isDigit(c)) {
+                token = scanNumericStart(text, i);
+            } else if (isLetter(c)) {
+                token = scanMonthNameStart(text, i);
+            }
 
-        Matcher matcher = DATE_PATTERN.matcher(text);
+            if (token != null) {
+                dates.add(token);
+                i = token.end();
+            } else {
+                // Dates only start at a word boundary, so skip the rest of this word.
+                while (i < length && isWordChar(text.charAt(i))) {
+                    i++;
+                }
+            }
+        }
 
-        return matcher.results()
-                .map(matchResult -> parseDate(matchResult.group()))
-                .filter(date -> date != null)
-                .toList();
+        return dates;
     }
 
-    private LocalDate parseDate(String dateText) {
+    private DateToken scanNumericStart(String text, int start) {
 
-        if (dateText == null || dateText.isBlank()) {
+        int firstEnd = digitRunEnd(text, start);
+        int firstLength = firstEnd - start;
+        int first = parseDigits(text, start, firstEnd);
+
+        if (firstEnd >= text.length()) {
             return null;
         }
+        char next = text.charAt(firstEnd);
 
-        String cleaned = dateText
-                .replaceAll("(?i)(st|nd|rd|th)", "")
-                .replace(",", "")
-                .trim();
-
-        List<DateTimeFormatter> formatters = List.of(
-                DateTimeFormatter.ofPattern("d/M/uuuu"),
-                DateTimeFormatter.ofPattern("dd/MM/uuuu"),
-                DateTimeFormatter.ofPattern("d-M-uuuu"),
-                DateTimeFormatter.ofPattern("dd-MM-uuuu"),
-                DateTimeFormatter.ofPattern("d.M.uuuu"),
-                DateTimeFormatter.ofPattern("dd.MM.uuuu"),
-                DateTimeFormatter.ofPattern("uuuu-M-d"),
-                DateTimeFormatter.ofPattern("uuuu-MM-dd"),
-                twoDigitYearFormatter("d/M/"),
-                twoDigitYearFormatter("dd/MM/"),
-                twoDigitYearFormatter("d-M-"),
-                twoDigitYearFormatter("dd-MM-"),
-                DateTimeFormatter.ofPattern("d MMM uuuu", Locale.ENGLISH),
-                DateTimeFormatter.ofPattern("dd MMM uuuu", Locale.ENGLISH),
-                DateTimeFormatter.ofPattern("d MMMM uuuu", Locale.ENGLISH),
-                DateTimeFormatter.ofPattern("dd MMMM uuuu", Locale.ENGLISH),
-                DateTimeFormatter.ofPattern("MMM d uuuu", Locale.ENGLISH),
-                DateTimeFormatter.ofPattern("MMMM d uuuu", Locale.ENGLISH)
-        );
+        // 2026-03-31
+        if (firstLength == 4 && (next == '-' || next == '/')) {
+            int monthEnd = digitRunEnd(text, firstEnd + 1);
+            if (!hasLength(firstEnd + 1, monthEnd, 1, 2) || !charAt(text, monthEnd, next)) {
+                return null;
+            }
+            int dayEnd = digitRunEnd(text, monthEnd + 1);
+            if (!hasLength(monthEnd + 1, dayEnd, 1, 2) || !isBoundary(text, dayEnd)) {
+                return null;
+            }
+            return token(start, dayEnd, first,
+                    parseDigits(text, firstEnd + 1, monthEnd),
+                    parseDigits(text, monthEnd + 1, dayEnd));
+        }
+
+        if (firstLength > 2) {
+            return null;
+        }
+
+        if (next == '/' || next == '-' || next == '.') {
+            int secondEnd = digitRunEnd(text, firstEnd + 1);
+            int secondLength = secondEnd - (firstEnd + 1);
+            int second = parseDigits(text, firstEnd + 1, secondEnd);
 
-        for (DateTimeFormatter formatter : formatters) {
-            try {
-                return LocalDate.parse(cleaned, formatter);
-            } catch (DateTimeParseException ignored) {
+            // 03/2026
+            if (secondLength == 4 && next != '.' && isBoundary(text, secondEnd)) {
+                if (first < 1 || first > 12) {
+                    return null;
+                }
+                return new DateToken(start, secondEnd, YearMonth.of(second, first).atEndOfMonth());
             }
+
+            // 31/03/2026, 31/03/26, 31.03.2026
+            if (secondLength >= 1 && secondLength <= 2 && charAt(text, secondEnd, next)) {
+                int yearEnd = digitRunEnd(text, secondEnd + 1);
+                int yearLength = yearEnd - (secondEnd + 1);
+                if (!isBoundary(text, yearEnd)) {
+                    return null;
+                }
+                int year = parseDigits(text, secondEnd + 1, yearEnd);
+                if (yearLength == 2 && next != '.') {
+                    year += 2000;
+                } else if (yearLength != 4) {
+                    return null;
+                }
+                return token(start, yearEnd, year, second, first);
+            }
+            return null;
         }
 
-        /*
-         * Handle month/year only.
-         * Example: 03/2026
-         * Business assumption: expiry is last day of that month.
-         */
-        LocalDate monthYearDate = parseMonthYear(cleaned);
-        if (monthYearDate != null) {
-            return monthYearDate;
+        // 31 March 2026, 31st Mar, 2026
+        int pos = skipOrdinal(text, firstEnd);
+        int monthStart = skipSpaces(text, pos);
+        if (monthStart == pos) {
+            return null;
+        }
+        int monthEnd = letterRunEnd(text, monthStart);
+        Integer month = lookupMonth(text, monthStart, monthEnd);
+        if (month == null) {
+            return null;
         }
+        int yearStart = skipSpaces(text, skipComma(text, skipSpaces(text, monthEnd)));
+        int yearEnd = digitRunEnd(text, yearStart);
+        if (yearEnd - yearStart != 4 || !isBoundary(text, yearEnd)) {
+            return null;
+        }
+        return token(start, yearEnd, parseDigits(text, yearStart, yearEnd), month, first);
+    }
 
-        return null;
+    /*
+     * March 31 2026, Mar 31st, 2026
+     */
+    private DateToken scanMonthNameStart(String text, int start) {
+
+        int monthEnd = letterRunEnd(text, start);
+        Integer month = lookupMonth(text, start, monthEnd);
+        if (month == null) {
+            return null;
+        }
+
+        int dayStart = skipSpaces(text, monthEnd);
+        if (dayStart == monthEnd) {
+            return null;
+        }
+        int dayEnd = digitRunEnd(text, dayStart);
+        if (!hasLength(dayStart, dayEnd, 1, 2)) {
+            return null;
+        }
+
+        int yearStart = skipSpaces(text, skipComma(text, skipSpaces(text, skipOrdinal(text, dayEnd))));
+        int yearEnd = digitRunEnd(text, yearStart);
+        if (yearEnd - yearStart != 4 || !isBoundary(text, yearEnd)) {
+            return null;
+        }
+        return token(start, yearEnd, parseDigits(text, yearStart, yearEnd), month, parseDigits(text, dayStart, dayEnd));
     }
 
-    private DateTimeFormatter twoDigitYearFormatter(String prefixPattern) {
-        return new DateTimeFormatterBuilder()
-                .appendPattern(prefixPattern)
-                .appendValueReduced(ChronoField.YEAR, 2, 2, 2000)
-                .toFormatter(Locale.ENGLISH);
+    private DateToken token(int start, int end, int year, int month, int day) {
+
+        if (month < 1 || month > 12 || day < 1 || day > 31) {
+            return null;
+        }
+        YearMonth yearMonth = YearMonth.of(year, month);
+        return new DateToken(start, end, yearMonth.atDay(Math.min(day, yearMonth.lengthOfMonth())));
     }
 
-    private LocalDate parseMonthYear(String value) {
+    private Integer lookupMonth(String text, int start, int end) {
 
-        List<DateTimeFormatter> monthYearFormatters = List.of(
-                DateTimeFormatter.ofPattern("M/uuuu"),
-                DateTimeFormatter.ofPattern("MM/uuuu"),
-                DateTimeFormatter.ofPattern("M-uuuu"),
-                DateTimeFormatter.ofPattern("MM-uuuu")
-        );
+        int length = end - start;
+        if (length < 3 || length > 9) {
+            return null;
+        }
+        return MONTHS.get(text.substring(start, end).toLowerCase(Locale.ENGLISH));
+    }
 
-        for (DateTimeFormatter formatter : monthYearFormatters) {
-            try {
-                YearMonth yearMonth = YearMonth.parse(value, formatter);
-                return yearMonth.atEndOfMonth();
-            } catch (DateTimeParseException ignored) {
-            }
+    private int skipOrdinal(String text, int pos) {
+
+        if (pos + 2 > text.length()) {
+            return pos;
+        }
+        String suffix = text.substring(pos, pos + 2).toLowerCase(Locale.ENGLISH);
+        boolean ordinal = suffix.equals("st") || suffix.equals("nd") || suffix.equals("rd") || suffix.equals("th");
+        return ordinal && !isLetter(charOrSpace(text, pos + 2)) ? pos + 2 : pos;
+    }
+
+    private int skipSpaces(String text, int pos) {
+        while (pos < text.length() && text.charAt(pos) == ' ') {
+            pos++;
         }
+        return pos;
+    }
 
-        return null;
+    private int skipComma(String text, int pos) {
+        return charAt(text, pos, ',') ? pos + 1 : pos;
+    }
+
+    private int digitRunEnd(String text, int pos) {
+        while (pos < text.length() && isDigit(text.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private int letterRunEnd(String text, int pos) {
+        while (pos < text.length() && isLetter(text.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private int parseDigits(String text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            value = value * 10 + (text.charAt(i) - '0');
+        }
+        return value;
+    }
+
+    private boolean hasLength(int start, int end, int min, int max) {
+        return end - start >= min && end - start <= max;
+    }
+
+    private boolean isBoundary(String text, int pos) {
+        return pos >= text.length() || !isWordChar(text.charAt(pos));
+    }
+
+    private boolean charAt(String text, int pos, char expected) {
+        return pos < text.length() && text.charAt(pos) == expected;
+    }
+
+    private char charOrSpace(String text, int pos) {
+        return pos < text.length() ? text.charAt(pos) : ' ';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isWordChar(char c) {
+        return isDigit(c) || isLetter(c) || c == '_';
+    }
+
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f' || c == '\u000B';
+    }
+
+    private static Map<String, Integer> buildMonthLookup() {
+
+        Map<String, Integer> months = new HashMap<>();
+        for (Month month : Month.values()) {
+            String name = month.getDisplayName(TextStyle.FULL, Locale.ENGLISH).toLowerCase(Locale.ENGLISH);
+            months.put(name, month.getValue());
+            months.put(name.substring(0, 3), month.getValue());
+        }
+        months.put("sept", Month.SEPTEMBER.getValue());
+        return Map.copyOf(months);
+    }
+
+    /**
+     * A recognised date and its position in the normalised text.
+     */
+    private record DateToken(int start, int end, LocalDate date) {
     }
 
+    /**
+     * @param confident {@code true} for a date found next to an expiry keyword,
+     *                  {@code false} for the latest-date fallback or no match
+     */
     public record ExpiryDateMatch(
             LocalDate expiryDate,
-            String matchedText
+            String matchedText,
+            boolean confident
     ) {
     }
 }
\ No newline at end of file
@@ -0,0 +1,249 @@
+package com.doc.impl;
+
+import com.doc.em.NotificationOutboxStatus;
+import com.doc.entity.notification.NotificationOutbox;
+import com.doc.notification.NotificationClient;
+import com.doc.repository.NotificationOutboxRepository;
+import feign.FeignException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers {@link NotificationOutbox} rows to notification-service.
+ *
+ * Each run locks a batch of due rows ({@code FOR UPDATE SKIP LOCKED}, so
+ * several instances can run side by side), pushes their next_attempt_at
+ * forward as a lease and commits. Delivery happens outside any transaction.
+ *
+ * Within a batch only the newest row per coalesce key (receiver, module,
+ * event, reference and content hash) is sent; older identical rows are
+ * marked COALESCED. A failed
+ * delivery is retried with exponential backoff until
+ * {@code notification.outbox.max-attempts}, after which the row is DEAD.
+ *
+ * Metrics: notification.outbox.sent / failed / dead / coalesced counters,
+ * notification.outbox.pending and notification.outbox.lag.seconds gauges.
+ */
+@Component
+public class NotificationOutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationOutboxDispatcher.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final int MAX_CONSECUTIVE_FAILURES = 3;
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final NotificationClient notificationClient;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Counter deadCounter;
+    private final Counter coalescedCounter;
+    private final AtomicLong pendingGauge = new AtomicLong();
+    private final AtomicLong lagSecondsGauge = new AtomicLong();
+
+    @Value("${notification.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${notification.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${notification.outbox.initial-backoff-seconds:5}")
+    private long initialBackoffSeconds;
+
+    @Value("${notification.outbox.max-backoff-seconds:3600}")
+    private long maxBackoffSeconds;
+
+    @Value("${notification.outbox.lease-seconds:120}")
+    private long leaseSeconds;
+
+    @Value("${notification.outbox.retention-days:7}")
+    private long retentionDays;
+
+    public NotificationOutboxDispatcher(
+            NotificationOutboxRepository outboxRepository,
+            NotificationClient notificationClient,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry
+    ) {
+        this.outboxRepository = outboxRepository;
+        this.notificationClient = notificationClient;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.sentCounter = meterRegistry.counter("notification.outbox.sent");
+        this.failedCounter = meterRegistry.counter("notification.outbox.failed");
+        this.deadCounter = meterRegistry.counter("notification.outbox.dead");
+        this.coalescedCounter = meterRegistry.counter("notification.outbox.coalesced");
+        Gauge.builder("notification.outbox.pending", pendingGauge, AtomicLong::get)
+                .description("Notifications waiting to be delivered")
+                .register(meterRegistry);
+        Gauge.builder("notification.outbox.lag.seconds", lagSecondsGauge, AtomicLong::get)
+                .description("Age of the oldest undelivered notification")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${notification.outbox.poll-interval-ms:2000}")
+    public void dispatch() {
+        try {
+            int delivered;
+            do {
+                delivered = dispatchBatch();
+            } while (delivered >= batchSize);
+
+            refreshGauges();
+        } catch (Exception e) {
+            logger.error("Notification outbox dispatch failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(cron = "${notification.outbox.cleanup-cron:0 30 2 * * *}")
+    public void purgeFinished() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        Integer deleted = transactionTemplate.execute(status -> outboxRepository.deleteFinishedBefore(cutoff));
+        logger.info("Notification outbox cleanup removed {} delivered rows older than {}", deleted, cutoff);
+    }
+
+    /**
+     * Puts every DEAD row back in the queue with a fresh attempt budget.
+     */
+    public int requeueDead() {
+        Integer requeued = transactionTemplate.execute(status -> outboxRepository.requeueDead(LocalDateTime.now()));
+        logger.info("Notification outbox requeued {} dead rows", requeued);
+        return requeued != null ? requeued : 0;
+    }
+
+    // ====================== INTERNALS ======================
+
+    private int dispatchBatch() {
+        List<NotificationOutbox> batch = claimBatch();
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, NotificationOutbox> newestByKey = new LinkedHashMap<>();
+        List<Long> coalescedIds = new ArrayList<>();
+        for (NotificationOutbox entry : batch) {
+            NotificationOutbox previous = newestByKey.put(entry.getCoalesceKey(), entry);
+            if (previous != null) {
+                coalescedIds.add(previous.getId());
+            }
+        }
+
+        List<Long> sentIds = new ArrayList<>();
+        int consecutiveFailures = 0;
+        for (NotificationOutbox entry : newestByKey.values()) {
+            if (consecutiveFailures >= MAX_CONSECUTIVE_FAILURES) {
+                // notification-service looks down; the rest stay leased and are retried after the lease.
+                break;
+            }
+            try {
+                notificationClient.createNotification(entry.toRequestDto());
+                sentIds.add(entry.getId());
+                consecutiveFailures = 0;
+            } catch (Exception e) {
+                recordFailure(entry, e);
+                consecutiveFailures++;
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sentIds.isEmpty()) {
+                outboxRepository.markSent(sentIds, now);
+            }
+            if (!coalescedIds.isEmpty()) {
+                outboxRepository.markStatus(coalescedIds, NotificationOutboxStatus.COALESCED);
+            }
+        });
+
+        sentCounter.increment(sentIds.size());
+        coalescedCounter.increment(coalescedIds.size());
+        logger.info("Notification outbox batch → claimed: {} | sent: {} | coalesced: {} | unsent: {}",
+                batch.size(), sentIds.size(), coalescedIds.size(),
+                newestByKey.size() - sentIds.size());
+
+        return consecutiveFailures >= MAX_CONSECUTIVE_FAILURES ? 0 : batch.size();
+    }
+
+    private List<NotificationOutbox> claimBatch() {
+        List<NotificationOutbox> batch = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<NotificationOutbox> due = outboxRepository.lockDue(now, batchSize);
+            if (!due.isEmpty()) {
+                outboxRepository.extendLease(
+                        due.stream().map(NotificationOutbox::getId).toList(),
+                        now.plusSeconds(leaseSeconds)
+                );
+            }
+            return due;
+        });
+        return batch != null ? batch : List.of();
+    }
+
+    private void recordFailure(NotificationOutbox entry, Exception e) {
+        int attempts = entry.getAttempts() + 1;
+        boolean dead = attempts >= maxAttempts;
+        LocalDateTime nextAttemptAt = LocalDateTime.now().plus(backoff(attempts));
+        String error = describe(e);
+
+        transactionTemplate.executeWithoutResult(status -> outboxRepository.recordFailure(
+                entry.getId(),
+                dead ? NotificationOutboxStatus.DEAD : NotificationOutboxStatus.PENDING,
+                attempts,
+                nextAttemptAt,
+                error
+        ));
+
+        failedCounter.increment();
+        if (dead) {
+            deadCounter.increment();
+            logger.error("Notification moved to dead letter | outboxId={} | receiverId={} | eventType={} | attempts={} | error={}",
+                    entry.getId(), entry.getReceiverId(), entry.getEventType(), attempts, error);
+        } else {
+            logger.warn("Notification delivery failed, retry at {} | outboxId={} | receiverId={} | attempt={} | error={}",
+                    nextAttemptAt, entry.getId(), entry.getReceiverId(), attempts, error);
+        }
+    }
+
+    /**
+     * initial * 2^(attempt - 1), capped, with up to 20% jitter so retries of a
+     * failed batch do not hit notification-service at the same instant.
+     */
+    private Duration backoff(int attempts) {
+        long seconds = initialBackoffSeconds << Math.min(attempts - 1, 20);
+        seconds = Math.min(seconds, maxBackoffSeconds);
+        long jitter = (long) (seconds * 0.2 * Math.random());
+        return Duration.ofSeconds(seconds + jitter);
+    }
+
+    private void refreshGauges() {
+        pendingGauge.set(outboxRepository.countByStatus(NotificationOutboxStatus.PENDING));
+        LocalDateTime oldest = outboxRepository.findOldestPendingCreatedDate();
+        lagSecondsGauge.set(oldest != null
+                ? Math.max(0, Duration.between(oldest, LocalDateTime.now()).getSeconds())
+                : 0);
+    }
+
+    private String describe(Exception e) {
+        String message = e instanceof FeignException fe
+                ? "HTTP " + fe.status() + ": " + fe.getMessage()
+                : e.getClass().getSimpleName() + ": " + e.getMessage();
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
@@ -1,55 +1,48 @@
 package com.doc.impl;
 
-import com.doc.notification.NotificationClient;
+import com.doc.entity.notification.NotificationOutbox;
 import com.doc.notification.NotificationCreateRequestDto;
+import com.doc.repository.NotificationOutboxRepository;
 import com.doc.service.NotificationPublisherService;
-import feign.FeignException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+
+/**
+ * Queues notifications in the outbox table.
+ *
+ * The row joins the caller's transaction, so a notification is only
+ * delivered if the business change that raised it commits; a failed insert
+ * fails that transaction instead of losing the notification. Delivery,
+ * retries and dead-lettering are handled by {@link NotificationOutboxDispatcher}.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class NotificationPublisherServiceImpl implements NotificationPublisherService {
 
-    private final NotificationClient notificationClient;
+    private final NotificationOutboxRepository notificationOutboxRepository;
 
     @Override
     public void sendNotification(NotificationCreateRequestDto requestDto) {
-        try {
-            if (requestDto == null || requestDto.getReceiverId() == null) {
-                log.warn("Notification skipped because request or receiverId is null");
-                return;
-            }
-
-            notificationClient.createNotification(requestDto);
-
-            log.info(
-                    "Notification sent successfully | receiverId={} | module={} | eventType={} | referenceId={}",
-                    requestDto.getReceiverId(),
-                    requestDto.getModule(),
-                    requestDto.getEventType(),
-                    requestDto.getReferenceId()
-            );
-
-        } catch (FeignException ex) {
-            log.error(
-                    "Notification-service Feign error | status={} | receiverId={} | eventType={} | message={}",
-                    ex.status(),
-                    requestDto != null ? requestDto.getReceiverId() : null,
-                    requestDto != null ? requestDto.getEventType() : null,
-                    ex.getMessage()
-            );
-
-        } catch (Exception ex) {
-            log.error(
-                    "Unexpected error while sending notification | receiverId={} | eventType={} | message={}",
-                    requestDto != null ? requestDto.getReceiverId() : null,
-                    requestDto != null ? requestDto.getEventType() : null,
-                    ex.getMessage(),
-                    ex
-            );
+        if (requestDto == null || requestDto.getReceiverId() == null) {
+            log.warn("Notification skipped because request or receiverId is null");
+            return;
         }
+
+        NotificationOutbox entry = notificationOutboxRepository.save(
+                NotificationOutbox.from(requestDto, LocalDateTime.now())
+        );
+
+        log.info(
+                "Notification queued | outboxId={} | receiverId={} | module={} | eventType={} | referenceId={}",
+                entry.getId(),
+                requestDto.getReceiverId(),
+                requestDto.getModule(),
+                requestDto.getEventType(),
+                requestDto.getReferenceId()
+        );
     }
-}
\ No newline at end of file
+}
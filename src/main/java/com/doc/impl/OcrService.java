@@ -1,23 +1,69 @@
 package com.doc.impl;
 
-import net.sourceforge.tess4j.Tesseract;
-import net.sourceforge.tess4j.TesseractException;
+import com.sun.jna.Pointer;
+import jakarta.annotation.PreDestroy;
+import net.sourceforge.tess4j.ITessAPI;
+import net.sourceforge.tess4j.TessAPI;
+import net.sourceforge.tess4j.util.ImageIOHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
-
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * OCR backed by a bounded pool of initialised Tesseract engines.
+ *
+ * {@code Tesseract.doOCR} loads the language data on every call; here each
+ * engine is initialised once and reused, so a page only pays for recognition.
+ * Engines are created lazily up to {@code ocr.pool-size} (default: available
+ * processors) and a caller waits for a free one when all are busy.
+ *
+ * {@link #getPageExecutor()} exposes a worker pool of the same size for
+ * page-level parallel OCR.
+ */
 @Service
 public class OcrService {
 
+    private static final Logger logger = LoggerFactory.getLogger(OcrService.class);
+
     @Value("${tesseract.datapath:}")
     private String tessDataPath;
 
     @Value("${tesseract.language:eng}")
     private String language;
 
+    @Value("${ocr.acquire-timeout-seconds:120}")
+    private long acquireTimeoutSeconds;
+
+    private final int poolSize;
+    private final BlockingQueue<OcrEngine> idleEngines;
+    private final AtomicInteger createdEngines = new AtomicInteger();
+    private final List<OcrEngine> allEngines = new CopyOnWriteArrayList<>();
+    private final ExecutorService pageExecutor;
+
+    public OcrService(@Value("${ocr.pool-size:0}") int configuredPoolSize) {
+        this.poolSize = configuredPoolSize > 0
+                ? configuredPoolSize
+                : Runtime.getRuntime().availableProcessors();
+        this.idleEngines = new ArrayBlockingQueue<>(poolSize);
+
+        AtomicInteger threadNo = new AtomicInteger();
+        this.pageExecutor = Executors.newFixedThreadPool(poolSize, r -> {
+            Thread thread = new Thread(r, "ocr-page-" + threadNo.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
     public String extractTextFromImage(byte[] imageBytes) throws Exception {
 
         try (ByteArrayInputStream inputStream = new ByteArrayInputStream(imageBytes)) {
@@ -33,29 +79,163 @@ public class OcrService {
     }
 
     public String extractTextFromBufferedImage(BufferedImage image) {
+        return extractTextFromBufferedImage(image, 0);
+    }
+
+    /**
+     * @param dpi resolution the image was rendered at, or 0 to let Tesseract estimate it
+     */
+    public String extractTextFromBufferedImage(BufferedImage image, int dpi) {
+
+        OcrEngine engine = acquire();
+        boolean healthy = false;
 
         try {
-            Tesseract tesseract = new Tesseract();
-
-            /*
-             * Set this only if needed.
-             *
-             * Windows example:
-             * C:/Program Files/Tesseract-OCR/tessdata
-             *
-             * Linux example:
-             * /usr/share/tesseract-ocr/4.00/tessdata
-             */
-            if (tessDataPath != null && !tessDataPath.isBlank()) {
-                tesseract.setDatapath(tessDataPath);
+            String text = engine.recognize(image, dpi);
+            healthy = true;
+            return text;
+        } catch (RuntimeException e) {
+            throw new RuntimeException("OCR failed: " + e.getMessage(), e);
+        } finally {
+            release(engine, healthy);
+        }
+    }
+
+    /**
+     * Number of engines (and page worker threads).
+     */
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * Worker pool for OCR of individual pages, sized to the engine pool.
+     */
+    public ExecutorService getPageExecutor() {
+        return pageExecutor;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pageExecutor.shutdownNow();
+        for (OcrEngine engine : allEngines) {
+            engine.close();
+        }
+        allEngines.clear();
+        idleEngines.clear();
+    }
+
+    // ====================== POOL ======================
+
+    private OcrEngine acquire() {
+        OcrEngine engine = idleEngines.poll();
+        if (engine != null) {
+            return engine;
+        }
+
+        if (createdEngines.incrementAndGet() <= poolSize) {
+            try {
+                engine = new OcrEngine(resolveDataPath(), language);
+                allEngines.add(engine);
+                logger.info("OCR engine created ({} of {})", createdEngines.get(), poolSize);
+                return engine;
+            } catch (RuntimeException e) {
+                createdEngines.decrementAndGet();
+                throw e;
             }
+        }
+        createdEngines.decrementAndGet();
 
-            tesseract.setLanguage(language);
+        try {
+            engine = idleEngines.poll(acquireTimeoutSeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for an OCR engine", e);
+        }
+        if (engine == null) {
+            throw new RuntimeException("No OCR engine available within " + acquireTimeoutSeconds + " seconds");
+        }
+        return engine;
+    }
 
-            return tesseract.doOCR(image);
+    /**
+     * Returns a healthy engine to the pool; an engine that failed is discarded
+     * so the next caller gets a freshly initialised one.
+     */
+    private void release(OcrEngine engine, boolean healthy) {
+        if (healthy && idleEngines.offer(engine)) {
+            return;
+        }
+        allEngines.remove(engine);
+        engine.close();
+        createdEngines.decrementAndGet();
+    }
 
-        } catch (TesseractException e) {
-            throw new RuntimeException("OCR failed: " + e.getMessage(), e);
+    /*
+     * Set tesseract.datapath only if needed.
+     *
+     * Windows example:
+     * C:/Program Files/Tesseract-OCR/tessdata
+     *
+     * Linux example:
+     * /usr/share/tesseract-ocr/4.00/tessdata
+     *
+     * Otherwise falls back to TESSDATA_PREFIX, then the working directory,
+     * which is what Tesseract itself does.
+     */
+    private String resolveDataPath() {
+        if (tessDataPath != null && !tessDataPath.isBlank()) {
+            return tessDataPath;
+        }
+        String prefix = System.getenv("TESSDATA_PREFIX");
+        return prefix != null ? prefix : "./";
+    }
+
+    /**
+     * One initialised native Tesseract handle. Not thread-safe; used by one caller at a time.
+     */
+    private static final class OcrEngine {
+
+        private final TessAPI api = TessAPI.INSTANCE;
+        private final ITessAPI.TessBaseAPI handle;
+
+        OcrEngine(String dataPath, String language) {
+            handle = api.TessBaseAPICreate();
+            if (api.TessBaseAPIInit3(handle, dataPath, language) != 0) {
+                api.TessBaseAPIDelete(handle);
+                throw new RuntimeException("Could not initialise Tesseract. datapath=" + dataPath + ", language=" + language);
+            }
+        }
+
+        String recognize(BufferedImage image, int dpi) {
+            ByteBuffer buffer = ImageIOHelper.convertImageData(image);
+            int bitsPerPixel = image.getColorModel().getPixelSize();
+            int bytesPerLine = (int) Math.ceil(image.getWidth() * bitsPerPixel / 8.0);
+
+            try {
+                api.TessBaseAPISetImage(handle, buffer, image.getWidth(), image.getHeight(),
+                        bitsPerPixel / 8, bytesPerLine);
+                if (dpi > 0) {
+                    api.TessBaseAPISetSourceResolution(handle, dpi);
+                }
+
+                Pointer text = api.TessBaseAPIGetUTF8Text(handle);
+                if (text == null) {
+                    return "";
+                }
+                try {
+                    return text.getString(0, StandardCharsets.UTF_8.name());
+                } finally {
+                    api.TessDeleteText(text);
+                }
+            } finally {
+                api.TessBaseAPIClear(handle);
+            }
+        }
+
+        void close() {
+            api.TessBaseAPIEnd(handle);
+            api.TessBaseAPIDelete(handle);
         }
     }
-}
\ No newline at end of file
+}
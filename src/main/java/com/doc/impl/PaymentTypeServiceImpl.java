@@ -1,5 +1,6 @@
 package com.doc.impl;
 
+import com.doc.cache.CacheNames;
 import com.doc.dto.payment.PaymentTypeRequestDto;
 import com.doc.dto.payment.PaymentTypeResponseDto;
 import com.doc.entity.client.PaymentType;
@@ -9,6 +10,7 @@ import com.doc.repository.PaymentTypeRepository;
 import com.doc.repository.UserRepository;
 import com.doc.service.PaymentTypeService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
@@ -77,6 +79,7 @@ public class PaymentTypeServiceImpl implements PaymentTypeService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheNames.PAYMENT_TYPES, key = "#id")
     public PaymentTypeResponseDto updatePaymentType(Long id, PaymentTypeRequestDto requestDto) {
         validateRequestDto(requestDto);
 
@@ -100,6 +103,7 @@ public class PaymentTypeServiceImpl implements PaymentTypeService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheNames.PAYMENT_TYPES, key = "#id")
     public void deletePaymentType(Long id) {
         PaymentType paymentType = paymentTypeRepository.findById(id)
                 .filter(pt -> !pt.isDeleted())
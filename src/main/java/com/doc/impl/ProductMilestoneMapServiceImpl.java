@@ -1,5 +1,6 @@
 package com.doc.impl;
 
+import com.doc.cache.CacheNames;
 import com.doc.dto.productMilestoneMap.ProductMilestoneMapRequestDto;
 import com.doc.dto.productMilestoneMap.ProductMilestoneMapResponseDto;
 import com.doc.entity.milestone.Milestone;
@@ -11,6 +12,7 @@ import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -51,6 +53,7 @@ public class ProductMilestoneMapServiceImpl implements ProductMilestoneMapServic
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheNames.MILESTONE_MAPS, allEntries = true)
     public ProductMilestoneMapResponseDto createProductMilestoneMap(ProductMilestoneMapRequestDto requestDto) {
         logger.info("Creating product-milestone mapping for product ID: {} and milestone ID: {}",
                 requestDto.getProductId(), requestDto.getMilestoneId());
@@ -204,6 +207,7 @@ public class ProductMilestoneMapServiceImpl implements ProductMilestoneMapServic
 
 
     @Override
+    @CacheEvict(cacheNames = CacheNames.MILESTONE_MAPS, allEntries = true)
     public ProductMilestoneMapResponseDto updateProductMilestoneMap(Long id, ProductMilestoneMapRequestDto requestDto) {
         logger.info("Updating product-milestone mapping with ID: {}", id);
 
@@ -369,6 +373,7 @@ public class ProductMilestoneMapServiceImpl implements ProductMilestoneMapServic
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheNames.MILESTONE_MAPS, allEntries = true)
     public void deleteProductMilestoneMap(Long id) {
         logger.info("Deleting product-milestone mapping with ID: {}", id);
 
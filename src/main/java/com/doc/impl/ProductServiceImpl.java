@@ -1,5 +1,6 @@
 package com.doc.impl;
 
+import com.doc.cache.CacheNames;
 import com.doc.dto.product.ProductRequestDto;
 import com.doc.dto.product.ProductResponseDto;
 import com.doc.dto.product.request.ProductUpdateDto;
@@ -13,6 +14,7 @@ import com.doc.service.ProductService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
@@ -37,6 +39,7 @@ public class ProductServiceImpl implements ProductService {
     private UserRepository userRepository;
 
     @Override
+    @CacheEvict(cacheNames = CacheNames.MILESTONE_MAPS, allEntries = true)
     public List<ProductResponseDto> createProducts(List<ProductRequestDto> requestDtoList) {
         logger.info("Creating products for request: {}", requestDtoList);
         List<ProductResponseDto> responseList = new ArrayList<>();
@@ -124,6 +127,7 @@ public class ProductServiceImpl implements ProductService {
 
 
     @Override
+    @CacheEvict(cacheNames = CacheNames.MILESTONE_MAPS, key = "#productId")
     public ProductResponseDto updateProduct(Long productId, ProductUpdateDto updateDto, Long currentUserId) {
         logger.info("Updating product ID: {} by user: {}", productId, currentUserId);
 
@@ -185,6 +189,7 @@ public class ProductServiceImpl implements ProductService {
 
 
     @Override
+    @CacheEvict(cacheNames = CacheNames.MILESTONE_MAPS, key = "#id")
     public void deleteProduct(Long id) {
         logger.info("Deleting product with ID: {}", id);
         Product product = productRepository.findById(id)
@@ -1,5 +1,6 @@
 package com.doc.impl;
 
+import com.doc.cache.ReferenceDataService;
 import com.doc.dto.project.reopen.ProjectReopenCreateRequestDto;
 import com.doc.dto.project.reopen.ProjectReopenDecisionDto;
 import com.doc.dto.project.reopen.ProjectReopenRequestResponseDto;
@@ -15,12 +16,10 @@ import com.doc.entity.user.User;
 import com.doc.exception.ResourceNotFoundException;
 import com.doc.exception.ValidationException;
 import com.doc.repository.MilestoneStatusHistoryRepository;
-import com.doc.repository.MilestoneStatusRepository;
 import com.doc.repository.ProjectMilestoneAssignmentRepository;
 import com.doc.repository.ProjectReopenRequestRepository;
 import com.doc.repository.ProjectRepository;
 import com.doc.repository.UserRepository;
-import com.doc.repository.projectRepo.ProjectStatusRepository;
 import com.doc.service.ProjectReopenRequestService;
 import com.doc.service.ProjectService;
 import org.apache.logging.log4j.LogManager;
@@ -43,8 +42,7 @@ public class ProjectReopenRequestServiceImpl implements ProjectReopenRequestServ
     private final ProjectRepository projectRepository;
     private final ProjectMilestoneAssignmentRepository projectMilestoneAssignmentRepository;
     private final UserRepository userRepository;
-    private final MilestoneStatusRepository milestoneStatusRepository;
-    private final ProjectStatusRepository projectStatusRepository;
+    private final ReferenceDataService referenceDataService;
     private final MilestoneStatusHistoryRepository milestoneStatusHistoryRepository;
     private final ProjectService projectService;
 
@@ -53,8 +51,7 @@ public class ProjectReopenRequestServiceImpl implements ProjectReopenRequestServ
             ProjectRepository projectRepository,
             ProjectMilestoneAssignmentRepository projectMilestoneAssignmentRepository,
             UserRepository userRepository,
-            MilestoneStatusRepository milestoneStatusRepository,
-            ProjectStatusRepository projectStatusRepository,
+            ReferenceDataService referenceDataService,
             MilestoneStatusHistoryRepository milestoneStatusHistoryRepository,
             @Lazy ProjectService projectService
     ) {
@@ -62,8 +59,7 @@ public class ProjectReopenRequestServiceImpl implements ProjectReopenRequestServ
         this.projectRepository = projectRepository;
         this.projectMilestoneAssignmentRepository = projectMilestoneAssignmentRepository;
         this.userRepository = userRepository;
-        this.milestoneStatusRepository = milestoneStatusRepository;
-        this.projectStatusRepository = projectStatusRepository;
+        this.referenceDataService = referenceDataService;
         this.milestoneStatusHistoryRepository = milestoneStatusHistoryRepository;
         this.projectService = projectService;
     }
@@ -341,13 +337,13 @@ public class ProjectReopenRequestServiceImpl implements ProjectReopenRequestServ
 
         Project project = request.getProject();
 
-        MilestoneStatus newStatus = milestoneStatusRepository.findByName("NEW")
+        MilestoneStatus newStatus = referenceDataService.milestoneStatusByName("NEW")
                 .orElseThrow(() -> {
                     logger.error("Milestone status NEW not found");
                     return new ResourceNotFoundException("Milestone status NEW not found", "STATUS_NOT_FOUND");
                 });
 
-        ProjectStatus reopenedStatus = projectStatusRepository.findByName("REOPENED")
+        ProjectStatus reopenedStatus = referenceDataService.projectStatusByName("REOPENED")
                 .orElseThrow(() -> {
                     logger.error("Project status REOPENED not found");
                     return new ResourceNotFoundException("Project status REOPENED not found", "STATUS_NOT_FOUND");
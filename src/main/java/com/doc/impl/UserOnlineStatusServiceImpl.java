@@ -1,77 +1,71 @@
 package com.doc.impl;
 
 import com.doc.dto.user.UserLoginStatusResponseDto;
-import com.doc.entity.user.UserLoginStatus;
-import com.doc.entity.user.User;
 import com.doc.exception.ResourceNotFoundException;
-import com.doc.repository.UserLoginStatusRepository;
+import com.doc.presence.PresenceRegistry;
 import com.doc.repository.UserRepository;
 import com.doc.service.UserLoginStatusService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Date;
 import java.util.List;
 import java.util.stream.Collectors;
 
+/**
+ * Login status served from the {@link PresenceRegistry}; the registry writes
+ * user_online_status behind, so these calls do not touch that table.
+ */
 @Service
-@Transactional
 public class UserOnlineStatusServiceImpl implements UserLoginStatusService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserOnlineStatusServiceImpl.class);
 
     @Autowired
-    private UserLoginStatusRepository userOnlineStatusRepository;
+    private UserRepository userRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private PresenceRegistry presenceRegistry;
 
     @Override
     public UserLoginStatusResponseDto setOnline(Long userId) {
         logger.info("Setting user ID: {} to online", userId);
-        User user = userRepository.findActiveUserById(userId)
-                .orElseThrow(() -> {
-                    logger.error("User with ID {} not found or is deleted", userId);
-                    return new ResourceNotFoundException("User with ID " + userId + " not found or is deleted", "USER_NOT_FOUND");
-                });
+        if (userRepository.findActiveUserById(userId).isEmpty()) {
+            logger.error("User with ID {} not found or is deleted", userId);
+            throw new ResourceNotFoundException("User with ID " + userId + " not found or is deleted", "USER_NOT_FOUND");
+        }
 
-        UserLoginStatus status = userOnlineStatusRepository.findByUserIdAndIsDeletedFalse(userId)
-                .orElseGet(() -> createNewStatus(user));
-
-        status.setOnline(true);
-        status.setLastOnline(new Date());
-        status.setUpdatedDate(new Date());
-
-        UserLoginStatus savedStatus = userOnlineStatusRepository.save(status);
+        PresenceRegistry.PresenceView status = presenceRegistry.setOnline(userId);
         logger.info("User ID: {} set to online successfully", userId);
-        return mapToDto(savedStatus);
+        return mapToDto(status);
     }
 
     @Override
     public UserLoginStatusResponseDto setOffline(Long userId) {
         logger.info("Setting user ID: {} to offline", userId);
-        UserLoginStatus status = userOnlineStatusRepository.findByUserIdAndIsDeletedFalse(userId)
+        PresenceRegistry.PresenceView status = presenceRegistry.setOffline(userId)
                 .orElseThrow(() -> {
                     logger.error("Online status for user ID {} not found", userId);
                     return new ResourceNotFoundException("Online status for user ID " + userId + " not found", "ONLINE_STATUS_NOT_FOUND");
                 });
-
-        status.setOnline(false);
-        status.setLastOnline(new Date());
-        status.setUpdatedDate(new Date());
-
-        UserLoginStatus savedStatus = userOnlineStatusRepository.save(status);
         logger.info("User ID: {} set to offline successfully", userId);
-        return mapToDto(savedStatus);
+        return mapToDto(status);
+    }
+
+    @Override
+    public UserLoginStatusResponseDto heartbeat(Long userId) {
+        logger.debug("Presence heartbeat for user ID: {}", userId);
+        if (!presenceRegistry.heartbeat(userId)) {
+            throw new ResourceNotFoundException("User ID " + userId + " is not online", "USER_NOT_ONLINE");
+        }
+        return getStatus(userId);
     }
 
     @Override
     public UserLoginStatusResponseDto getStatus(Long userId) {
         logger.info("Fetching online status for user ID: {}", userId);
-        UserLoginStatus status = userOnlineStatusRepository.findByUserIdAndIsDeletedFalse(userId)
+        PresenceRegistry.PresenceView status = presenceRegistry.getStatus(userId)
                 .orElseThrow(() -> {
                     logger.error("Online status for user ID {} not found", userId);
                     return new ResourceNotFoundException("Online status for user ID " + userId + " not found", "ONLINE_STATUS_NOT_FOUND");
@@ -79,31 +73,19 @@ public class UserOnlineStatusServiceImpl implements UserLoginStatusService {
         return mapToDto(status);
     }
 
-    private UserLoginStatus createNewStatus(User user) {
-        logger.debug("Creating new online status for user ID: {}", user.getId());
-        UserLoginStatus newStatus = new UserLoginStatus();
-        newStatus.setUser(user);
-        newStatus.setOnline(false);
-        newStatus.setCreatedDate(new Date());
-        newStatus.setUpdatedDate(new Date());
-        newStatus.setDeleted(false);
-        return newStatus;
-    }
-
-    private UserLoginStatusResponseDto mapToDto(UserLoginStatus status) {
+    private UserLoginStatusResponseDto mapToDto(PresenceRegistry.PresenceView status) {
         UserLoginStatusResponseDto dto = new UserLoginStatusResponseDto();
-        dto.setUserId(status.getUser().getId());
-        dto.setOnline(status.isOnline());
-        dto.setLastOnline(status.getLastOnline());
+        dto.setUserId(status.userId());
+        dto.setOnline(status.online());
+        dto.setLastOnline(status.lastOnline());
         return dto;
     }
 
     @Override
     public List<UserLoginStatusResponseDto> getAllStatuses() {
         logger.info("Fetching online status for all users");
-        List<UserLoginStatus> statuses = userOnlineStatusRepository.findAllByIsDeletedFalse();
-        return statuses.stream()
+        return presenceRegistry.getAll().stream()
                 .map(this::mapToDto)
                 .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.doc.impl;
 
+import com.doc.assignment.AssignmentCandidateIndex;
 import com.doc.dto.product.*;
 import com.doc.entity.product.Product;
 import com.doc.entity.user.User;
@@ -38,6 +39,9 @@ public class UserProductMapServiceImpl implements UserProductMapService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private AssignmentCandidateIndex candidateIndex;
+
     @Override
     public List<UserProductMapResponseDto> createUserProductMaps(UserProductMapRequestDto requestDto) {
         logger.info("Creating user-product mappings for userIds: {}, productIds: {}", requestDto.getUserIds(), requestDto.getProductIds());
@@ -90,6 +94,7 @@ public class UserProductMapServiceImpl implements UserProductMapService {
                 mapping.setDeleted(false);
 
                 mapping = userProductMapRepository.save(mapping);
+                candidateIndex.invalidateProduct(productId);
                 logger.info("User-product mapping created successfully with ID: {}", mapping.getId());
                 responseDtos.add(mapToResponseDto(mapping));
             }
@@ -156,6 +161,8 @@ public class UserProductMapServiceImpl implements UserProductMapService {
                     return new ResourceNotFoundException("Updated by user with ID " + requestDto.getUpdatedBy() + " not found or is deleted", "USER_NOT_FOUND");
                 });
 
+        Long previousProductId = mapping.getProduct().getId();
+
         mapping.setUser(user);
         mapping.setProduct(product);
         mapping.setRating(requestDto.getRating());
@@ -163,6 +170,8 @@ public class UserProductMapServiceImpl implements UserProductMapService {
         mapping.setUpdatedDate(new Date());
 
         mapping = userProductMapRepository.save(mapping);
+        candidateIndex.invalidateProduct(previousProductId);
+        candidateIndex.invalidateProduct(requestProductId);
         logger.info("User-product mapping updated successfully with ID: {}", id);
         return mapToResponseDto(mapping);
     }
@@ -180,6 +189,7 @@ public class UserProductMapServiceImpl implements UserProductMapService {
         mapping.setDeleted(true);
         mapping.setUpdatedDate(new Date());
         userProductMapRepository.save(mapping);
+        candidateIndex.invalidateProduct(mapping.getProduct().getId());
         logger.info("User-product mapping deleted successfully with ID: {}", id);
     }
 
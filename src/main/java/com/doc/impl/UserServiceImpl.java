@@ -1,5 +1,6 @@
 package com.doc.impl;
 
+import com.doc.assignment.AssignmentCandidateIndex;
 import com.doc.dto.user.UserRequestDto;
 import com.doc.dto.user.UserResponseDto;
 import com.doc.entity.department.Department;
@@ -8,6 +9,8 @@ import com.doc.entity.user.Role;
 import com.doc.entity.user.User;
 import com.doc.exception.ResourceNotFoundException;
 import com.doc.exception.ValidationException;
+import com.doc.hierarchy.UserHierarchyIndex;
+import com.doc.presence.PresenceRegistry;
 import com.doc.repository.DepartmentRepository;
 import com.doc.repository.DesignationRepository;
 import com.doc.repository.RoleRepository;
@@ -36,17 +39,26 @@ public class UserServiceImpl implements UserService {
     private final DesignationRepository designationRepository;
     private final DepartmentRepository departmentRepository;
     private final RoleRepository roleRepository;
+    private final AssignmentCandidateIndex candidateIndex;
+    private final PresenceRegistry presenceRegistry;
+    private final UserHierarchyIndex userHierarchyIndex;
 
     public UserServiceImpl(
             UserRepository userRepository,
             DesignationRepository designationRepository,
             DepartmentRepository departmentRepository,
-            RoleRepository roleRepository) {
+            RoleRepository roleRepository,
+            AssignmentCandidateIndex candidateIndex,
+            PresenceRegistry presenceRegistry,
+            UserHierarchyIndex userHierarchyIndex) {
 
         this.userRepository = userRepository;
         this.designationRepository = designationRepository;
         this.departmentRepository = departmentRepository;
         this.roleRepository = roleRepository;
+        this.candidateIndex = candidateIndex;
+        this.presenceRegistry = presenceRegistry;
+        this.userHierarchyIndex = userHierarchyIndex;
     }
     @Override
     public UserResponseDto createUser(UserRequestDto requestDto) {
@@ -82,6 +94,8 @@ public class UserServiceImpl implements UserService {
         user.setDate(LocalDate.now());
 
         user = userRepository.save(user);
+        presenceRegistry.updateDepartments(user.getId(), departmentIds(departments));
+        userHierarchyIndex.invalidate();
         return mapToResponseDto(user);
     }
 
@@ -149,6 +163,10 @@ public class UserServiceImpl implements UserService {
         user.setBucketSize(requestDto.getBucketSize());
 
         user = userRepository.save(user);
+        // Departments, bucket size or manager flag may have moved the user between pools
+        candidateIndex.invalidateAll();
+        presenceRegistry.updateDepartments(user.getId(), departmentIds(departments));
+        userHierarchyIndex.invalidate();
         return mapToResponseDto(user);
     }
 
@@ -160,6 +178,14 @@ public class UserServiceImpl implements UserService {
         user.setDeleted(true);
         user.setUpdatedDate(new Date());
         userRepository.save(user);
+        candidateIndex.invalidateUser(id);
+        // Deleted users no longer count towards department presence
+        presenceRegistry.updateDepartments(id, List.of());
+        userHierarchyIndex.invalidate();
+    }
+
+    private static List<Long> departmentIds(List<Department> departments) {
+        return departments.stream().map(Department::getId).toList();
     }
 
     private void validateRequestDto(UserRequestDto requestDto) {
@@ -18,15 +18,21 @@ import com.doc.repository.chat.OperationChatAttachmentRepository;
 import com.doc.repository.chat.OperationChatConversationRepository;
 import com.doc.repository.chat.OperationChatMessageRepository;
 import com.doc.repository.chat.OperationChatParticipantRepository;
+import com.doc.repository.projection.ChatUnreadCountProjection;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.*;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.*;
+import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class OperationChatService {
@@ -58,10 +64,15 @@ public class OperationChatService {
                         requestDto.getContextType(),
                         requestDto.getReferenceId()
                 )
-                .orElseGet(() -> createConversation(requestDto));
+                .orElse(null);
+
+        boolean newConversation = conversation == null;
+        if (newConversation) {
+            conversation = createConversation(requestDto);
+        }
 
-        addParticipantIfMissing(conversation, createdByUser);
-        addParticipantIfMissing(conversation, receiverUser);
+        addParticipantIfMissing(conversation, createdByUser, newConversation);
+        addParticipantIfMissing(conversation, receiverUser, newConversation);
 
         return toConversationDto(conversation, createdByUser.getId());
     }
@@ -105,7 +116,11 @@ public class OperationChatService {
         return conversationRepository.save(conversation);
     }
 
-    private void addParticipantIfMissing(OperationChatConversation conversation, User user) {
+    private void addParticipantIfMissing(
+            OperationChatConversation conversation,
+            User user,
+            boolean newConversation
+    ) {
 
         boolean exists = participantRepository
                 .existsByConversation_IdAndUser_IdAndActiveTrue(
@@ -117,10 +132,19 @@ public class OperationChatService {
             return;
         }
 
+        /*
+         * A user joining an existing conversation has never read it,
+         * so every earlier message from others is unread.
+         */
+        long unreadCount = newConversation
+                ? 0
+                : messageRepository.countUnreadMessagesWhenNeverRead(conversation.getId(), user.getId());
+
         OperationChatParticipant participant = OperationChatParticipant.builder()
                 .conversation(conversation)
                 .user(user)
                 .active(true)
+                .unreadCount(unreadCount)
                 .build();
 
         participantRepository.save(participant);
@@ -183,7 +207,11 @@ public class OperationChatService {
         OperationChatMessage savedMessage = messageRepository.save(message);
 
         // Save attachments if any
-        saveAttachments(savedMessage, requestDto.getAttachments());
+        List<OperationChatAttachment> savedAttachments =
+                saveAttachments(savedMessage, requestDto.getAttachments());
+
+        // Count the message as unread for everyone else
+        participantRepository.incrementUnreadCount(conversationId, sender.getId());
 
         // Update conversation's last message info
         conversation.setLastMessage(buildLastMessage(requestDto, finalMessageType));
@@ -191,7 +219,7 @@ public class OperationChatService {
         conversationRepository.save(conversation);
 
         // Convert to response DTO
-        OperationChatMessageResponseDto responseDto = toMessageDto(savedMessage);
+        OperationChatMessageResponseDto responseDto = toMessageDto(savedMessage, savedAttachments);
 
         // Real-time broadcast to all participants
         messagingTemplate.convertAndSend(
@@ -249,15 +277,17 @@ public class OperationChatService {
         }
     }
 
-    private void saveAttachments(
+    private List<OperationChatAttachment> saveAttachments(
             OperationChatMessage message,
             List<ChatAttachmentRequestDto> attachments
     ) {
 
         if (attachments == null || attachments.isEmpty()) {
-            return;
+            return List.of();
         }
 
+        List<OperationChatAttachment> saved = new ArrayList<>();
+
         for (ChatAttachmentRequestDto attachmentDto : attachments) {
 
             if (attachmentDto.getFileUrl() == null
@@ -273,8 +303,10 @@ public class OperationChatService {
                     .fileSize(attachmentDto.getFileSize())
                     .build();
 
-            attachmentRepository.save(attachment);
+            saved.add(attachmentRepository.save(attachment));
         }
+
+        return saved;
     }
 
     @Transactional(readOnly = true)
@@ -296,12 +328,78 @@ public class OperationChatService {
                 Sort.by(Sort.Direction.DESC, "createdAt")
         );
 
-        return messageRepository
+        Page<OperationChatMessage> messages = messageRepository
                 .findMessagesByConversationId(
                         conversationId,
                         pageable
-                )
-                .map(this::toMessageDto);
+                );
+
+        // Attachments for the whole page in one query
+        Map<Long, List<OperationChatAttachment>> attachmentsByMessage = messages.isEmpty()
+                ? Map.of()
+                : attachmentRepository.findByMessageIds(
+                        messages.getContent().stream().map(OperationChatMessage::getId).toList()
+                ).stream().collect(Collectors.groupingBy(attachment -> attachment.getMessage().getId()));
+
+        return messages.map(message -> toMessageDto(
+                message,
+                attachmentsByMessage.getOrDefault(message.getId(), List.of())
+        ));
+    }
+
+    /**
+     * Inbox of a user, newest activity first.
+     * One paged query for the conversations; unread counts come from the
+     * participant rows, with a single grouped count for rows not yet backfilled.
+     */
+    @Transactional(readOnly = true)
+    public Page<OperationChatConversationResponseDto> getConversations(
+            Long userId,
+            int page,
+            int size
+    ) {
+
+        if (userId == null) {
+            throw new RuntimeException("User id is required");
+        }
+
+        int validPage = Math.max(page, 0);
+        int validSize = size <= 0 ? 30 : Math.min(size, 100);
+
+        Page<OperationChatParticipant> participants =
+                participantRepository.findInbox(userId, PageRequest.of(validPage, validSize));
+
+        List<Long> notBackfilled = participants.getContent().stream()
+                .filter(participant -> participant.getUnreadCount() == null)
+                .map(participant -> participant.getConversation().getId())
+                .toList();
+
+        Map<Long, Long> computedUnread = notBackfilled.isEmpty()
+                ? Map.of()
+                : messageRepository.countUnreadMessagesByConversation(userId, notBackfilled).stream()
+                .collect(Collectors.toMap(
+                        ChatUnreadCountProjection::getConversationId,
+                        ChatUnreadCountProjection::getUnreadCount
+                ));
+
+        return participants.map(participant -> {
+            long unreadCount = participant.getUnreadCount() != null
+                    ? participant.getUnreadCount()
+                    : computedUnread.getOrDefault(participant.getConversation().getId(), 0L);
+            return toConversationDto(participant.getConversation(), unreadCount);
+        });
+    }
+
+    /**
+     * Fills unread_count for participants created before the counter existed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillUnreadCounts() {
+        int updated = participantRepository.backfillUnreadCounts();
+        if (updated > 0) {
+            log.info("Chat unread counters backfilled for {} participants", updated);
+        }
     }
 
     @Transactional
@@ -320,6 +418,7 @@ public class OperationChatService {
                 .orElseThrow(() -> new RuntimeException("Chat participant not found"));
 
         participant.setLastReadAt(LocalDateTime.now());
+        participant.setUnreadCount(0L);
         participantRepository.save(participant);
     }
 
@@ -380,7 +479,9 @@ public class OperationChatService {
 
         long unreadCount = 0;
 
-        if (participant != null) {
+        if (participant != null && participant.getUnreadCount() != null) {
+            unreadCount = participant.getUnreadCount();
+        } else if (participant != null) {
             if (participant.getLastReadAt() == null) {
                 unreadCount = messageRepository.countUnreadMessagesWhenNeverRead(
                         conversation.getId(),
@@ -395,6 +496,14 @@ public class OperationChatService {
             }
         }
 
+        return toConversationDto(conversation, unreadCount);
+    }
+
+    private OperationChatConversationResponseDto toConversationDto(
+            OperationChatConversation conversation,
+            long unreadCount
+    ) {
+
         return OperationChatConversationResponseDto.builder()
                 .id(conversation.getId())
                 .contextType(conversation.getContextType())
@@ -406,10 +515,13 @@ public class OperationChatService {
                 .build();
     }
 
-    private OperationChatMessageResponseDto toMessageDto(OperationChatMessage message) {
+    private OperationChatMessageResponseDto toMessageDto(
+            OperationChatMessage message,
+            List<OperationChatAttachment> messageAttachments
+    ) {
 
         List<ChatAttachmentResponseDto> attachments =
-                attachmentRepository.findByMessage_Id(message.getId())
+                messageAttachments
                         .stream()
                         .map(attachment -> ChatAttachmentResponseDto.builder()
                                 .id(attachment.getId())
@@ -0,0 +1,357 @@
+package com.doc.impl.mail;
+
+import com.doc.em.MailCallbackType;
+import com.doc.em.MailOutboxStatus;
+import com.doc.entity.mail.MailOutbox;
+import com.doc.repository.MailOutboxRepository;
+import com.doc.service.mail.MailDeliveryCallback;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends {@link MailOutbox} rows over SMTP.
+ *
+ * Each run locks a batch of due rows ({@code FOR UPDATE SKIP LOCKED}, so
+ * several instances can run side by side), pushes their next_attempt_at
+ * forward as a lease and commits. The batch is split into chunks of
+ * {@code mail.outbox.messages-per-connection} that the worker pool sends
+ * with one {@code JavaMailSender.send(MimeMessage...)} call each, so a
+ * chunk shares a single SMTP connection and login.
+ *
+ * Every row is one recipient and is retried on its own with exponential
+ * backoff until {@code mail.outbox.max-attempts}, after which it is DEAD.
+ * When a row with a callback is sent or goes DEAD, the matching
+ * {@link MailDeliveryCallback} is invoked in its own transaction.
+ *
+ * Metrics: mail.outbox.sent / failed / dead counters,
+ * mail.outbox.pending and mail.outbox.lag.seconds gauges.
+ */
+@Component
+public class MailOutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(MailOutboxDispatcher.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final MailOutboxRepository outboxRepository;
+    private final JavaMailSender javaMailSender;
+    private final MimeMessageFactory mimeMessageFactory;
+    private final Map<MailCallbackType, MailDeliveryCallback> callbacks = new EnumMap<>(MailCallbackType.class);
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService senders;
+    private final ExecutorService waker;
+    private final AtomicBoolean wakeScheduled = new AtomicBoolean();
+
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Counter deadCounter;
+    private final AtomicLong pendingGauge = new AtomicLong();
+    private final AtomicLong lagSecondsGauge = new AtomicLong();
+
+    @Value("${mail.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${mail.outbox.messages-per-connection:20}")
+    private int messagesPerConnection;
+
+    @Value("${mail.outbox.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${mail.outbox.initial-backoff-seconds:30}")
+    private long initialBackoffSeconds;
+
+    @Value("${mail.outbox.max-backoff-seconds:3600}")
+    private long maxBackoffSeconds;
+
+    @Value("${mail.outbox.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Value("${mail.outbox.retention-days:30}")
+    private long retentionDays;
+
+    public MailOutboxDispatcher(
+            MailOutboxRepository outboxRepository,
+            JavaMailSender javaMailSender,
+            MimeMessageFactory mimeMessageFactory,
+            List<MailDeliveryCallback> deliveryCallbacks,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${mail.outbox.workers:4}") int workers
+    ) {
+        this.outboxRepository = outboxRepository;
+        this.javaMailSender = javaMailSender;
+        this.mimeMessageFactory = mimeMessageFactory;
+        deliveryCallbacks.forEach(callback -> callbacks.put(callback.type(), callback));
+
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        AtomicInteger threadNo = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(workers, r -> {
+            Thread thread = new Thread(r, "mail-sender-" + threadNo.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.waker = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "mail-outbox");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.sentCounter = meterRegistry.counter("mail.outbox.sent");
+        this.failedCounter = meterRegistry.counter("mail.outbox.failed");
+        this.deadCounter = meterRegistry.counter("mail.outbox.dead");
+        Gauge.builder("mail.outbox.pending", pendingGauge, AtomicLong::get)
+                .description("Mails waiting to be sent")
+                .register(meterRegistry);
+        Gauge.builder("mail.outbox.lag.seconds", lagSecondsGauge, AtomicLong::get)
+                .description("Age of the oldest unsent mail")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval-ms:10000}")
+    public void dispatch() {
+        try {
+            int claimed;
+            do {
+                claimed = dispatchBatch();
+            } while (claimed >= batchSize);
+
+            refreshGauges();
+        } catch (Exception e) {
+            logger.error("Mail outbox dispatch failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Runs a dispatch soon on a background thread; called after a mail is queued.
+     */
+    public void wake() {
+        if (!wakeScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            waker.execute(() -> {
+                wakeScheduled.set(false);
+                dispatch();
+            });
+        } catch (RejectedExecutionException e) {
+            wakeScheduled.set(false);
+        }
+    }
+
+    @Scheduled(cron = "${mail.outbox.cleanup-cron:0 45 2 * * *}")
+    public void purgeSent() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        Integer deleted = transactionTemplate.execute(status -> outboxRepository.deleteSentBefore(cutoff));
+        logger.info("Mail outbox cleanup removed {} sent rows older than {}", deleted, cutoff);
+    }
+
+    /**
+     * Puts every DEAD row back in the queue with a fresh attempt budget.
+     */
+    public int requeueDead() {
+        Integer requeued = transactionTemplate.execute(status -> outboxRepository.requeueDead(LocalDateTime.now()));
+        logger.info("Mail outbox requeued {} dead rows", requeued);
+        return requeued != null ? requeued : 0;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        waker.shutdownNow();
+        senders.shutdown();
+    }
+
+    // ====================== INTERNALS ======================
+
+    private int dispatchBatch() throws InterruptedException {
+        List<MailOutbox> batch = claimBatch();
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<Future<Map<MailOutbox, Exception>>> chunks = new ArrayList<>();
+        for (int from = 0; from < batch.size(); from += messagesPerConnection) {
+            List<MailOutbox> chunk = batch.subList(from, Math.min(from + messagesPerConnection, batch.size()));
+            chunks.add(senders.submit(() -> sendChunk(chunk)));
+        }
+
+        Map<MailOutbox, Exception> failures = new IdentityHashMap<>();
+        for (Future<Map<MailOutbox, Exception>> chunk : chunks) {
+            try {
+                failures.putAll(chunk.get());
+            } catch (ExecutionException e) {
+                // sendChunk reports failures per row; rows of a crashed chunk stay leased and are retried
+                logger.error("Mail outbox chunk failed: {}", e.getCause().getMessage(), e.getCause());
+                return 0;
+            }
+        }
+
+        List<MailOutbox> sent = batch.stream().filter(entry -> !failures.containsKey(entry)).toList();
+        if (!sent.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            transactionTemplate.executeWithoutResult(status ->
+                    outboxRepository.markSent(sent.stream().map(MailOutbox::getId).toList(), now));
+            sentCounter.increment(sent.size());
+        }
+
+        sent.forEach(entry -> notifyCallback(entry, null));
+        failures.forEach(this::recordFailure);
+
+        logger.info("Mail outbox batch → claimed: {} | sent: {} | failed: {}",
+                batch.size(), sent.size(), failures.size());
+
+        return batch.size();
+    }
+
+    /**
+     * Sends one chunk over a single SMTP connection.
+     *
+     * @return rows that were not accepted, with the reason
+     */
+    private Map<MailOutbox, Exception> sendChunk(List<MailOutbox> chunk) {
+        Map<MailOutbox, Exception> failures = new IdentityHashMap<>();
+        Map<MimeMessage, MailOutbox> byMessage = new IdentityHashMap<>();
+
+        for (MailOutbox entry : chunk) {
+            try {
+                byMessage.put(mimeMessageFactory.create(entry.toRequestDto()), entry);
+            } catch (Exception e) {
+                failures.put(entry, e);
+            }
+        }
+        if (byMessage.isEmpty()) {
+            return failures;
+        }
+
+        try {
+            javaMailSender.send(byMessage.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                byMessage.values().forEach(entry -> failures.put(entry, e));
+            }
+            e.getFailedMessages().forEach((message, cause) -> {
+                MailOutbox entry = byMessage.get(message);
+                if (entry != null) {
+                    failures.put(entry, cause);
+                }
+            });
+        } catch (Exception e) {
+            // connection or authentication failure: nothing in the chunk was sent
+            byMessage.values().forEach(entry -> failures.put(entry, e));
+        }
+        return failures;
+    }
+
+    private List<MailOutbox> claimBatch() {
+        List<MailOutbox> batch = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<MailOutbox> due = outboxRepository.lockDue(now, batchSize);
+            if (!due.isEmpty()) {
+                outboxRepository.extendLease(
+                        due.stream().map(MailOutbox::getId).toList(),
+                        now.plusSeconds(leaseSeconds)
+                );
+            }
+            return due;
+        });
+        return batch != null ? batch : List.of();
+    }
+
+    private void recordFailure(MailOutbox entry, Exception e) {
+        int attempts = entry.getAttempts() + 1;
+        boolean dead = attempts >= maxAttempts;
+        LocalDateTime nextAttemptAt = LocalDateTime.now().plus(backoff(attempts));
+        String error = describe(e);
+
+        transactionTemplate.executeWithoutResult(status -> outboxRepository.recordFailure(
+                entry.getId(),
+                dead ? MailOutboxStatus.DEAD : MailOutboxStatus.PENDING,
+                attempts,
+                nextAttemptAt,
+                error
+        ));
+
+        failedCounter.increment();
+        if (dead) {
+            deadCounter.increment();
+            logger.error("Mail moved to dead letter | outboxId={} | to={} | attempts={} | error={}",
+                    entry.getId(), entry.getToAddress(), attempts, error);
+            notifyCallback(entry, error);
+        } else {
+            logger.warn("Mail send failed, retry at {} | outboxId={} | to={} | attempt={} | error={}",
+                    nextAttemptAt, entry.getId(), entry.getToAddress(), attempts, error);
+        }
+    }
+
+    /**
+     * @param error null when the mail was sent
+     */
+    private void notifyCallback(MailOutbox entry, String error) {
+        if (entry.getCallbackType() == null) {
+            return;
+        }
+        MailDeliveryCallback callback = callbacks.get(entry.getCallbackType());
+        if (callback == null) {
+            logger.warn("No mail delivery callback registered for {} | outboxId={}", entry.getCallbackType(), entry.getId());
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (error == null) {
+                    callback.onSent(entry.getCallbackReferenceId(), entry.getToAddress(), entry.getCreatedBy());
+                } else {
+                    callback.onFailed(entry.getCallbackReferenceId(), entry.getToAddress(), entry.getCreatedBy(), error);
+                }
+            });
+        } catch (Exception e) {
+            logger.error("Mail delivery callback failed | outboxId={} | type={} | referenceId={} | error={}",
+                    entry.getId(), entry.getCallbackType(), entry.getCallbackReferenceId(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * initial * 2^(attempt - 1), capped, with up to 20% jitter.
+     */
+    private Duration backoff(int attempts) {
+        long seconds = initialBackoffSeconds << Math.min(attempts - 1, 20);
+        seconds = Math.min(seconds, maxBackoffSeconds);
+        long jitter = (long) (seconds * 0.2 * Math.random());
+        return Duration.ofSeconds(seconds + jitter);
+    }
+
+    private void refreshGauges() {
+        pendingGauge.set(outboxRepository.countByStatus(MailOutboxStatus.PENDING));
+        LocalDateTime oldest = outboxRepository.findOldestPendingCreatedDate();
+        lagSecondsGauge.set(oldest != null
+                ? Math.max(0, Duration.between(oldest, LocalDateTime.now()).getSeconds())
+                : 0);
+    }
+
+    private String describe(Exception e) {
+        String message = e.getClass().getSimpleName() + ": " + e.getMessage();
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
@@ -1,51 +1,70 @@
 package com.doc.impl.mail;
 
 import com.doc.dto.mail.MailRequestDto;
+import com.doc.em.MailCallbackType;
+import com.doc.em.MailOutboxStatus;
+import com.doc.entity.mail.MailOutbox;
+import com.doc.repository.MailOutboxRepository;
 import com.doc.service.mail.MailService;
-import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
 
 @Service
 @RequiredArgsConstructor
 public class MailServiceImpl implements MailService {
 
     private final JavaMailSender javaMailSender;
-
-    @Value("${spring.mail.username}")
-    private String fromMail;
+    private final MimeMessageFactory mimeMessageFactory;
+    private final MailOutboxRepository mailOutboxRepository;
+    private final MailOutboxDispatcher mailOutboxDispatcher;
 
     @Override
     public void sendMail(MailRequestDto requestDto) {
         try {
-            MimeMessage mimeMessage = javaMailSender.createMimeMessage();
-
-            MimeMessageHelper helper = new MimeMessageHelper(
-                    mimeMessage,
-                    true,
-                    "UTF-8"
-            );
-
-            helper.setFrom(fromMail);
-            helper.setTo(requestDto.getTo());
-            helper.setSubject(requestDto.getSubject());
-            helper.setText(requestDto.getBody(), requestDto.isHtml());
-
-            if (requestDto.getCc() != null && !requestDto.getCc().isEmpty()) {
-                helper.setCc(requestDto.getCc().toArray(new String[0]));
-            }
+            javaMailSender.send(mimeMessageFactory.create(requestDto));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to send mail: " + e.getMessage(), e);
+        }
+    }
 
-            if (requestDto.getBcc() != null && !requestDto.getBcc().isEmpty()) {
-                helper.setBcc(requestDto.getBcc().toArray(new String[0]));
-            }
+    @Override
+    public void queueMail(MailRequestDto requestDto) {
+        queueMail(requestDto, null, null, null);
+    }
 
-            javaMailSender.send(mimeMessage);
+    @Override
+    public void queueMail(
+            MailRequestDto requestDto,
+            MailCallbackType callbackType,
+            Long referenceId,
+            Long requestedBy
+    ) {
+        MailOutbox entry = MailOutbox.from(requestDto, LocalDateTime.now());
+        entry.setCallbackType(callbackType);
+        entry.setCallbackReferenceId(referenceId);
+        entry.setCreatedBy(requestedBy);
+        mailOutboxRepository.save(entry);
 
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to send mail: " + e.getMessage(), e);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    mailOutboxDispatcher.wake();
+                }
+            });
+        } else {
+            mailOutboxDispatcher.wake();
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean isQueued(MailCallbackType callbackType, Long referenceId) {
+        return mailOutboxRepository.existsByCallbackTypeAndCallbackReferenceIdAndStatus(
+                callbackType, referenceId, MailOutboxStatus.PENDING);
+    }
+}
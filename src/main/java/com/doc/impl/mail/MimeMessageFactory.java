@@ -0,0 +1,54 @@
+package com.doc.impl.mail;
+
+import com.doc.dto.mail.MailRequestDto;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Builds the {@link MimeMessage} for a {@link MailRequestDto}; shared by the
+ * direct send and the mail outbox.
+ */
+@Component
+public class MimeMessageFactory {
+
+    private final JavaMailSender javaMailSender;
+
+    @Value("${spring.mail.username}")
+    private String fromMail;
+
+    public MimeMessageFactory(JavaMailSender javaMailSender) {
+        this.javaMailSender = javaMailSender;
+    }
+
+    public MimeMessage create(MailRequestDto requestDto) throws MessagingException {
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+
+        MimeMessageHelper helper = new MimeMessageHelper(
+                mimeMessage,
+                true,
+                StandardCharsets.UTF_8.name()
+        );
+
+        helper.setFrom(StringUtils.hasText(requestDto.getFrom()) ? requestDto.getFrom() : fromMail);
+        helper.setTo(requestDto.getTo());
+        helper.setSubject(requestDto.getSubject());
+        helper.setText(requestDto.getBody(), requestDto.isHtml());
+
+        if (requestDto.getCc() != null && !requestDto.getCc().isEmpty()) {
+            helper.setCc(requestDto.getCc().toArray(new String[0]));
+        }
+
+        if (requestDto.getBcc() != null && !requestDto.getBcc().isEmpty()) {
+            helper.setBcc(requestDto.getBcc().toArray(new String[0]));
+        }
+
+        return mimeMessage;
+    }
+}
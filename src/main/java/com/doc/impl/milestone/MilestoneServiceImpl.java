@@ -1,5 +1,6 @@
 package com.doc.impl.milestone;
 
+import com.doc.cache.CacheNames;
 import com.doc.dto.department.DepartmentResponseDto;
 import com.doc.dto.milestone.MilestoneRequestDto;
 import com.doc.dto.milestone.MilestoneResponseDto;
@@ -12,6 +13,7 @@ import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -79,6 +81,7 @@ public class MilestoneServiceImpl implements MilestoneService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheNames.MILESTONE_MAPS, allEntries = true)
     public MilestoneResponseDto updateMilestone(Long id, MilestoneRequestDto requestDto) {
         logger.info("Updating milestone with ID: {}", id);
         Milestone existingMilestone = milestoneRepository.findById(id)
@@ -141,6 +144,7 @@ public class MilestoneServiceImpl implements MilestoneService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheNames.MILESTONE_MAPS, allEntries = true)
     public void deleteMilestone(Long id) {
         logger.info("Deleting milestone with ID: {}", id);
         Milestone milestone = milestoneRepository.findById(id)
@@ -0,0 +1,352 @@
+package com.doc.impl.project;
+
+import com.doc.dto.project.activity.expense.ProjectExpenseResponseDto;
+import com.doc.em.AccountPostingJobStatus;
+import com.doc.em.AccountPostingStatus;
+import com.doc.em.AccountPostingStep;
+import com.doc.entity.project.activity.AccountPostingJob;
+import com.doc.exception.ResourceNotFoundException;
+import com.doc.exception.ValidationException;
+import com.doc.repository.projectRepo.activity.AccountPostingJobRepository;
+import com.doc.service.ExpenseAccountPostingService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Durable queue for Account Service postings.
+ *
+ * {@link #enqueue} writes an {@link AccountPostingJob} in the caller's
+ * transaction and wakes the workers after commit, so the user's response
+ * no longer waits for Account Service and a crash between commit and
+ * posting only delays the posting.
+ *
+ * Due jobs are claimed with {@code FOR UPDATE SKIP LOCKED} plus a lease and
+ * executed on {@code account-posting.workers} threads, which bounds the
+ * concurrency against Account Service. Failed attempts back off
+ * exponentially; jobs that are not eligible or run out of attempts become
+ * DEAD and are left to {@code retryGovernmentFeePosting}.
+ *
+ * A periodic sweep re-queues government-fee expenses whose posting FAILED
+ * or was left PENDING without a job.
+ *
+ * Metrics: account.posting.queue.depth, account.posting.in.flight,
+ * account.posting.latency (Account Service call) and account.posting.queue.wait.
+ */
+@Slf4j
+@Component
+public class AccountPostingQueue {
+
+    private static final Set<AccountPostingStatus> FINAL_POSTING_STATUSES = Set.of(
+            AccountPostingStatus.POSTED,
+            AccountPostingStatus.SKIPPED,
+            AccountPostingStatus.NOT_REQUIRED
+    );
+
+    private final AccountPostingJobRepository jobRepository;
+    private final ExpenseAccountPostingService expenseAccountPostingService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final ExecutorService workers;
+    private final ExecutorService poller;
+    private final int workerCount;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicLong queueDepth = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Timer queueWaitTimer;
+
+    @Value("${account-posting.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${account-posting.initial-backoff-seconds:30}")
+    private long initialBackoffSeconds;
+
+    @Value("${account-posting.max-backoff-seconds:3600}")
+    private long maxBackoffSeconds;
+
+    @Value("${account-posting.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Value("${account-posting.stale-pending-minutes:30}")
+    private long stalePendingMinutes;
+
+    public AccountPostingQueue(
+            AccountPostingJobRepository jobRepository,
+            ExpenseAccountPostingService expenseAccountPostingService,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${account-posting.workers:4}") int workerCount
+    ) {
+        this.jobRepository = jobRepository;
+        this.expenseAccountPostingService = expenseAccountPostingService;
+        this.meterRegistry = meterRegistry;
+        this.workerCount = Math.max(1, workerCount);
+
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        AtomicInteger threadNo = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(this.workerCount, r -> {
+            Thread thread = new Thread(r, "account-posting-" + threadNo.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.poller = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "account-posting-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("account.posting.queue.depth", queueDepth, AtomicLong::get)
+                .description("Account postings waiting to be sent")
+                .register(meterRegistry);
+        Gauge.builder("account.posting.in.flight", inFlight, AtomicInteger::get)
+                .description("Account postings currently being sent")
+                .register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("account.posting.queue.wait")
+                .description("Delay between a job becoming due and its attempt starting")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a posting in the current transaction. Re-queuing an expense step
+     * that already has a job resets that job instead of adding a second one.
+     */
+    public void enqueue(AccountPostingStep step, Long expenseId) {
+        String key = AccountPostingJob.idempotencyKey(step, expenseId);
+        LocalDateTime now = LocalDateTime.now();
+
+        AccountPostingJob job = jobRepository.findByIdempotencyKey(key).orElse(null);
+
+        if (job == null) {
+            job = new AccountPostingJob();
+            job.setExpenseId(expenseId);
+            job.setStep(step);
+            job.setIdempotencyKey(key);
+            job.setCreatedDate(now);
+        } else if (job.getStatus() == AccountPostingJobStatus.PENDING) {
+            log.info("[ACCOUNT-POSTING-ALREADY-QUEUED] key={} | jobId={}", key, job.getId());
+            wakeUpAfterCommit();
+            return;
+        }
+
+        job.setStatus(AccountPostingJobStatus.PENDING);
+        job.setAttempts(0);
+        job.setNextAttemptAt(now);
+        job.setLastError(null);
+        job.setCompletedDate(null);
+        job.setUpdatedDate(now);
+        job = jobRepository.save(job);
+
+        log.info("[ACCOUNT-POSTING-QUEUED] key={} | jobId={}", key, job.getId());
+        wakeUpAfterCommit();
+    }
+
+    /**
+     * Polls for due jobs; also catches jobs whose lease ran out.
+     */
+    @Scheduled(fixedDelayString = "${account-posting.poll-interval-ms:10000}")
+    public void poll() {
+        drain();
+    }
+
+    /**
+     * Re-queues government-fee postings that failed or were stranded PENDING.
+     */
+    @Scheduled(cron = "${account-posting.replay-cron:0 */15 * * * *}")
+    public void replayFailedPostings() {
+        List<Long> expenseIds = jobRepository.findReplayableGovernmentFeeExpenseIds(
+                LocalDateTime.now().minusMinutes(stalePendingMinutes)
+        );
+        if (expenseIds.isEmpty()) {
+            return;
+        }
+
+        for (Long expenseId : expenseIds) {
+            transactionTemplate.executeWithoutResult(status ->
+                    enqueue(AccountPostingStep.GOVERNMENT_FEE_APPROVAL, expenseId));
+        }
+        log.info("[ACCOUNT-POSTING-REPLAY] requeued={} | expenseIds={}", expenseIds.size(), expenseIds);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        poller.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    // ====================== INTERNALS ======================
+
+    private void wakeUpAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            wakeUp();
+                        }
+                    }
+            );
+        } else {
+            wakeUp();
+        }
+    }
+
+    private void wakeUp() {
+        try {
+            poller.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            log.warn("[ACCOUNT-POSTING-WAKEUP-REJECTED] poller is shut down");
+        }
+    }
+
+    /**
+     * Claims and runs batches until nothing is due. Only one drain runs at a time.
+     */
+    private void drain() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<AccountPostingJob> batch;
+            do {
+                batch = claimBatch();
+                runBatch(batch);
+            } while (!batch.isEmpty());
+
+            queueDepth.set(jobRepository.countByStatus(AccountPostingJobStatus.PENDING));
+        } catch (Exception e) {
+            log.error("[ACCOUNT-POSTING-DRAIN-FAILED] message={}", e.getMessage(), e);
+        } finally {
+            draining.set(false);
+        }
+    }
+
+    private List<AccountPostingJob> claimBatch() {
+        List<AccountPostingJob> batch = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<AccountPostingJob> due = jobRepository.lockDue(now, workerCount * 2);
+            if (!due.isEmpty()) {
+                jobRepository.extendLease(
+                        due.stream().map(AccountPostingJob::getId).toList(),
+                        now.plusSeconds(leaseSeconds),
+                        now
+                );
+            }
+            return due;
+        });
+        return batch != null ? batch : List.of();
+    }
+
+    private void runBatch(List<AccountPostingJob> batch) throws InterruptedException {
+        List<Future<?>> futures = new ArrayList<>(batch.size());
+        for (AccountPostingJob job : batch) {
+            futures.add(workers.submit(() -> process(job)));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                log.error("[ACCOUNT-POSTING-WORKER-FAILED] message={}", e.getCause().getMessage(), e.getCause());
+            }
+        }
+    }
+
+    private void process(AccountPostingJob job) {
+        inFlight.incrementAndGet();
+        int attempts = job.getAttempts() + 1;
+        queueWaitTimer.record(Duration.between(job.getNextAttemptAt(), LocalDateTime.now()));
+        long started = System.nanoTime();
+        String outcome = "retry";
+
+        try {
+            ProjectExpenseResponseDto result = execute(job);
+
+            if (FINAL_POSTING_STATUSES.contains(result.getAccountPostingStatus())) {
+                outcome = "completed";
+                finish(job, AccountPostingJobStatus.COMPLETED, attempts, null);
+                log.info("[ACCOUNT-POSTING-JOB-COMPLETED] key={} | attempts={} | status={}",
+                        job.getIdempotencyKey(), attempts, result.getAccountPostingStatus());
+            } else {
+                outcome = retryOrDeadLetter(job, attempts, result.getAccountPostingError());
+            }
+        } catch (ValidationException | ResourceNotFoundException e) {
+            outcome = "dead";
+            finish(job, AccountPostingJobStatus.DEAD, attempts, e.getMessage());
+            log.warn("[ACCOUNT-POSTING-JOB-NOT-ELIGIBLE] key={} | error={}", job.getIdempotencyKey(), e.getMessage());
+        } catch (Exception e) {
+            outcome = retryOrDeadLetter(job, attempts,
+                    e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        } finally {
+            inFlight.decrementAndGet();
+            Timer.builder("account.posting.latency")
+                    .description("Account Service posting attempt duration")
+                    .tag("step", job.getStep().name())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private ProjectExpenseResponseDto execute(AccountPostingJob job) {
+        return switch (job.getStep()) {
+            case GOVERNMENT_FEE_APPROVAL ->
+                    expenseAccountPostingService.postGovernmentFeeExpense(job.getExpenseId());
+        };
+    }
+
+    private String retryOrDeadLetter(AccountPostingJob job, int attempts, String error) {
+        if (attempts >= maxAttempts) {
+            finish(job, AccountPostingJobStatus.DEAD, attempts, error);
+            log.error("[ACCOUNT-POSTING-JOB-DEAD] key={} | attempts={} | error={}",
+                    job.getIdempotencyKey(), attempts, error);
+            return "dead";
+        }
+
+        LocalDateTime nextAttemptAt = LocalDateTime.now().plus(backoff(attempts));
+        transactionTemplate.executeWithoutResult(status -> jobRepository.recordAttempt(
+                job.getId(), AccountPostingJobStatus.PENDING, attempts, nextAttemptAt,
+                truncate(error), LocalDateTime.now()
+        ));
+        log.warn("[ACCOUNT-POSTING-JOB-RETRY] key={} | attempt={} | nextAttemptAt={} | error={}",
+                job.getIdempotencyKey(), attempts, nextAttemptAt, error);
+        return "retry";
+    }
+
+    private void finish(AccountPostingJob job, AccountPostingJobStatus status, int attempts, String error) {
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(tx -> jobRepository.recordAttempt(
+                job.getId(), status, attempts, now, truncate(error), now
+        ));
+    }
+
+    private Duration backoff(int attempts) {
+        long seconds = initialBackoffSeconds << Math.min(attempts - 1, 20);
+        return Duration.ofSeconds(Math.min(seconds, maxBackoffSeconds));
+    }
+
+    private String truncate(String value) {
+        return value != null && value.length() > 2000 ? value.substring(0, 2000) : value;
+    }
+}
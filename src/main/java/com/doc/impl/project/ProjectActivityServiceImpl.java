@@ -12,6 +12,7 @@ import com.doc.dto.project.activity.expense.GovernmentFeePaymentDecisionRequestD
 import com.doc.dto.project.activity.expense.GovernmentFeePaymentRequestDto;
 import com.doc.dto.project.activity.expense.ProjectExpenseResponseDto;
 import com.doc.em.AccountPostingStatus;
+import com.doc.em.AccountPostingStep;
 import com.doc.em.ActivityType;
 import com.doc.em.ApprovalStatus;
 import com.doc.em.ExpenseApprovalStage;
@@ -56,8 +57,6 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.transaction.support.TransactionSynchronization;
-import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Slf4j
 @Service
@@ -88,6 +87,7 @@ public class ProjectActivityServiceImpl implements ProjectActivityService {
     private final ProjectExpenseRepository expenseRepository;
 
     private final ExpenseAccountPostingService expenseAccountPostingService;
+    private final AccountPostingQueue accountPostingQueue;
 
     private static final Set<String> ALLOWED_CLIENT_PAYMENT_MODES = Set.of(
             "CASH",
@@ -1203,7 +1203,7 @@ public class ProjectActivityServiceImpl implements ProjectActivityService {
                         requiresApprovalPosting(expense.getExpensePaidBy()) &&
                         expense.getExpenseCategory() == ExpenseCategory.GOVERNMENT_FEE
         ) {
-            scheduleAccountPostingAfterCommit(expense.getId());
+            enqueueAccountPosting(expense.getId());
         }
 
         log.info(
@@ -1312,75 +1312,21 @@ public class ProjectActivityServiceImpl implements ProjectActivityService {
     }
 
     /**
-     * Calls ExpenseAccountPostingServiceImpl through its interface after the
-     * Accounts approval transaction commits. The implementation uses
-     * REQUIRES_NEW and can therefore read the committed approved expense.
+     * Queues the Step 3 posting in the Accounts approval transaction.
+     * AccountPostingQueue sends it to Account Service after commit on its own
+     * workers, through ExpenseAccountPostingServiceImpl (REQUIRES_NEW), and
+     * retries it if Account Service is unavailable.
      */
-    private void scheduleAccountPostingAfterCommit(Long expenseId) {
-        Runnable postingTask = () -> {
-            try {
-                log.info(
-                        "[EXPENSE-ACCOUNT-POSTING-CALL-START] expenseId={}",
-                        expenseId
-                );
-
-                /*
-                 * ACTUAL METHOD CALL:
-                 * Spring injects ExpenseAccountPostingServiceImpl because it
-                 * implements ExpenseAccountPostingService and is a @Service.
-                 */
-                ProjectExpenseResponseDto postingResult =
-                        expenseAccountPostingService.postGovernmentFeeExpense(expenseId);
-
-                if (
-                        postingResult.getAccountPostingStatus() ==
-                                AccountPostingStatus.POSTED &&
-                                postingResult.getInitialJournalVoucherId() != null
-                ) {
-                    log.info(
-                            "[EXPENSE-ACCOUNT-POSTING-CALL-SUCCESS] expenseId={} | status={} | journalVoucherId={}",
-                            expenseId,
-                            postingResult.getAccountPostingStatus(),
-                            postingResult.getInitialJournalVoucherId()
-                    );
-                } else {
-                    log.error(
-                            "[EXPENSE-ACCOUNT-POSTING-CALL-NOT-POSTED] expenseId={} | status={} | journalVoucherId={} | error={}",
-                            expenseId,
-                            postingResult.getAccountPostingStatus(),
-                            postingResult.getInitialJournalVoucherId(),
-                            postingResult.getAccountPostingError()
-                    );
-                }
-            } catch (Exception exception) {
-                log.error(
-                        "[EXPENSE-ACCOUNT-POSTING-CALL-FAILED] expenseId={}",
-                        expenseId,
-                        exception
-                );
-            }
-        };
-
-        if (TransactionSynchronizationManager.isSynchronizationActive()) {
-            TransactionSynchronizationManager.registerSynchronization(
-                    new TransactionSynchronization() {
-                        @Override
-                        public void afterCommit() {
-                            postingTask.run();
-                        }
-                    }
-            );
+    private void enqueueAccountPosting(Long expenseId) {
+        accountPostingQueue.enqueue(
+                AccountPostingStep.GOVERNMENT_FEE_APPROVAL,
+                expenseId
+        );
 
-            log.info(
-                    "[EXPENSE-ACCOUNT-POSTING-SCHEDULED-AFTER-COMMIT] expenseId={}",
-                    expenseId
-            );
-        } else {
-            /*
-             * Fallback for execution without a Spring-managed transaction.
-             */
-            postingTask.run();
-        }
+        log.info(
+                "[EXPENSE-ACCOUNT-POSTING-QUEUED] expenseId={}",
+                expenseId
+        );
     }
 
     // =========================================================
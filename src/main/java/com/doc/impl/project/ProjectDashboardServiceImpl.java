@@ -1,6 +1,9 @@
 package com.doc.impl.project;
 
+import com.doc.cache.ReferenceDataService;
 import com.doc.constants.DepartmentConstants;
+import com.doc.dashboard.DashboardRollupService;
+import com.doc.dashboard.UserPerformanceCache;
 import com.doc.dto.project.dashboard.*;
 import com.doc.dto.user.UserProjectPerformanceDetailDto;
 import com.doc.dto.user.UserProjectPerformanceResponseDto;
@@ -8,7 +11,10 @@ import com.doc.entity.project.ProjectPriority;
 import com.doc.entity.user.User;
 import com.doc.exception.ResourceNotFoundException;
 import com.doc.exception.ValidationException;
+import com.doc.hierarchy.UserHierarchyIndex;
+import com.doc.hierarchy.UserScope;
 import com.doc.repository.*;
+import com.doc.repository.DashboardRollupRepository.StatusCount;
 import com.doc.repository.documentRepo.ProjectDocumentUploadRepository;
 import com.doc.service.project.ProjectDashboardService;
 import org.springframework.data.domain.*;
@@ -24,6 +30,7 @@ import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ProjectDashboardServiceImpl implements ProjectDashboardService {
@@ -40,6 +47,12 @@ public class ProjectDashboardServiceImpl implements ProjectDashboardService {
 
     private final ProjectMilestoneAssignmentRepository projectMilestoneAssignmentRepository;
 
+    private final DashboardRollupService dashboardRollupService;
+
+    private final UserPerformanceCache userPerformanceCache;
+    private final ReferenceDataService referenceDataService;
+    private final UserHierarchyIndex userHierarchyIndex;
+
     private static final ZoneId INDIA_ZONE = ZoneId.of("Asia/Kolkata");
 
     private static final List<String> ALL_STATUSES = List.of(
@@ -68,13 +81,21 @@ public class ProjectDashboardServiceImpl implements ProjectDashboardService {
 
     public ProjectDashboardServiceImpl(
             ProjectRepository projectRepository,
-            UserRepository userRepository, ProjectMilestoneAssignmentRepository milestoneAssignmentRepository, ProjectDocumentUploadRepository projectDocumentUploadRepository, ProjectMilestoneAssignmentRepository projectMilestoneAssignmentRepository
+            UserRepository userRepository, ProjectMilestoneAssignmentRepository milestoneAssignmentRepository, ProjectDocumentUploadRepository projectDocumentUploadRepository, ProjectMilestoneAssignmentRepository projectMilestoneAssignmentRepository,
+            DashboardRollupService dashboardRollupService,
+            UserPerformanceCache userPerformanceCache,
+            ReferenceDataService referenceDataService,
+            UserHierarchyIndex userHierarchyIndex
     ) {
         this.projectRepository = projectRepository;
         this.userRepository = userRepository;
         this.milestoneAssignmentRepository = milestoneAssignmentRepository;
         this.projectDocumentUploadRepository = projectDocumentUploadRepository;
         this.projectMilestoneAssignmentRepository = projectMilestoneAssignmentRepository;
+        this.dashboardRollupService = dashboardRollupService;
+        this.userPerformanceCache = userPerformanceCache;
+        this.referenceDataService = referenceDataService;
+        this.userHierarchyIndex = userHierarchyIndex;
     }
 
     @Override
@@ -100,7 +121,31 @@ public class ProjectDashboardServiceImpl implements ProjectDashboardService {
         Long runningProjects;
         List<ProjectStatusCountDto> rawStatusCounts;
 
-        if (isAdmin || isOperationHead) {
+        if (dashboardRollupService.isReady()) {
+
+            List<StatusCount> rollupCounts = (isAdmin || isOperationHead)
+                    ? dashboardRollupService.countAll(dateRange.fromDate(), dateRange.toDate())
+                    : dashboardRollupService.countForScope(
+                            resolveAccessibleScope(user),
+                            dateRange.fromDate(),
+                            dateRange.toDate()
+                    );
+
+            totalProjects = rollupCounts.stream()
+                    .mapToLong(StatusCount::count)
+                    .sum();
+
+            runningProjects = rollupCounts.stream()
+                    .filter(count -> !count.cancelled())
+                    .filter(count -> RUNNING_STATUSES.contains(normalizeStatus(count.status())))
+                    .mapToLong(StatusCount::count)
+                    .sum();
+
+            rawStatusCounts = rollupCounts.stream()
+                    .map(count -> new ProjectStatusCountDto(count.status(), count.count()))
+                    .toList();
+
+        } else if (isAdmin || isOperationHead) {
 
             totalProjects = projectRepository.countAllProjectsForDashboardAdmin(
                     dateRange.fromDateTime(),
@@ -120,7 +165,7 @@ public class ProjectDashboardServiceImpl implements ProjectDashboardService {
 
         } else {
 
-            List<Long> userIds = resolveAccessibleUserIds(user);
+            List<Long> userIds = resolveAccessibleScope(user).userIdList();
 
             totalProjects = projectRepository.countAllProjectsForDashboardUser(
                     userIds,
@@ -228,7 +273,7 @@ public class ProjectDashboardServiceImpl implements ProjectDashboardService {
 
         } else {
 
-            List<Long> userIds = resolveAccessibleUserIds(user);
+            List<Long> userIds = resolveAccessibleScope(user).userIdList();
 
             totalProjects = projectRepository.countOverviewTotalUser(
                     userIds,
@@ -680,36 +725,18 @@ public class ProjectDashboardServiceImpl implements ProjectDashboardService {
         );
     }
 
-    private List<Long> resolveAccessibleUserIds(User user) {
-        List<Long> userIds = new ArrayList<>();
-        userIds.add(user.getId());
-
-        if (user.isManagerFlag()) {
-            List<User> subordinates =
-                    userRepository.findByManagerIdAndIsDeletedFalse(user.getId());
-
-            if (subordinates != null && !subordinates.isEmpty()) {
-                userIds.addAll(
-                        subordinates.stream()
-                                .map(User::getId)
-                                .toList()
-                );
-            }
-        }
-
-        return userIds;
+    /**
+     * The user and, for managers, everyone in their reporting tree.
+     */
+    private UserScope resolveAccessibleScope(User user) {
+        return user.isManagerFlag()
+                ? userHierarchyIndex.scopeOf(user.getId())
+                : UserScope.self(user.getId());
     }
 
     private boolean hasRole(User user, String roleName) {
-        if (user.getRoles() == null || user.getRoles().isEmpty()) {
-            return false;
-        }
-
-        return user.getRoles().stream()
-                .anyMatch(role ->
-                        role.getName() != null
-                                && role.getName().equalsIgnoreCase(roleName)
-                );
+        return referenceDataService.roleNames(user.getId()).stream()
+                .anyMatch(roleName::equalsIgnoreCase);
     }
 
     private String normalizeStatus(String status) {
@@ -821,6 +848,7 @@ public class ProjectDashboardServiceImpl implements ProjectDashboardService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserProjectPerformanceResponseDto getUserProjectPerformance(
             Long userId,
             Long projectId
@@ -839,207 +867,92 @@ public class ProjectDashboardServiceImpl implements ProjectDashboardService {
                         "ERR_ACTIVE_USER_NOT_FOUND"
                 ));
 
-        List<UserMilestonePerformanceProjection> records =
-                projectMilestoneAssignmentRepository
-                        .findUserProjectPerformance(userId, projectId);
-
-        Map<Long, List<UserMilestonePerformanceProjection>> projectGroups =
-                records.stream()
-                        .filter(record -> record.getProjectId() != null)
-                        .collect(Collectors.groupingBy(
-                                UserMilestonePerformanceProjection::getProjectId,
-                                LinkedHashMap::new,
-                                Collectors.toList()
-                        ));
-
-        List<UserProjectPerformanceDetailDto> projectDetails =
-                new ArrayList<>();
-
-        long totalCompletedMilestones = 0L;
-        long totalBeforeTat = 0L;
-        long totalWithinTat = 0L;
-        long totalDelayed = 0L;
+        long generation = userPerformanceCache.generation();
+        Optional<UserProjectPerformanceResponseDto> cached =
+                userPerformanceCache.get(userId, projectId);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
 
         /*
-         * Number of completed milestones for which performance
-         * was actually calculated.
+         * Rows arrive ordered by project, so one pass over the cursor is
+         * enough: a project's totals are closed when the next project starts.
          */
-        long totalPerformanceCalculatedMilestones = 0L;
-
-        BigDecimal totalPerformance = BigDecimal.ZERO;
-
-        for (Map.Entry<Long, List<UserMilestonePerformanceProjection>> entry
-                : projectGroups.entrySet()) {
-
-            List<UserMilestonePerformanceProjection> projectRecords =
-                    entry.getValue();
-
-            if (projectRecords.isEmpty()) {
-                continue;
-            }
-
-            UserMilestonePerformanceProjection first =
-                    projectRecords.get(0);
+        List<UserProjectPerformanceDetailDto> projectDetails =
+                new ArrayList<>();
 
-            long projectCompletedMilestones = 0L;
-            long beforeTatCount = 0L;
-            long withinTatCount = 0L;
-            long delayedCount = 0L;
+        PerformanceAccumulator total = new PerformanceAccumulator();
+        PerformanceAccumulator project = null;
+        UserMilestonePerformanceProjection first = null;
+        Set<Long> projectIds = new HashSet<>();
 
-            long projectPerformanceCalculatedMilestones = 0L;
+        try (Stream<UserMilestonePerformanceProjection> records =
+                     projectMilestoneAssignmentRepository
+                             .streamUserProjectPerformance(userId, projectId)) {
 
-            BigDecimal projectPerformanceTotal = BigDecimal.ZERO;
+            Iterator<UserMilestonePerformanceProjection> iterator =
+                    records.iterator();
 
-            for (UserMilestonePerformanceProjection record : projectRecords) {
+            while (iterator.hasNext()) {
 
-                /*
-                 * Count completed milestones independently of whether
-                 * performance TAT is configured.
-                 */
-                if (isCompletedMilestone(record)) {
-                    projectCompletedMilestones++;
-                    totalCompletedMilestones++;
-                }
+                UserMilestonePerformanceProjection record = iterator.next();
 
-                /*
-                 * Do not calculate performance when:
-                 * - milestone is not completed
-                 * - TAT is not applicable
-                 * - TAT hours are null or zero
-                 * - started/completed dates are null
-                 */
-                if (!isPerformanceCalculable(record)) {
+                if (record.getProjectId() == null) {
                     continue;
                 }
 
-                Double performanceTatHours =
-                        record.getPerformanceTatHours();
-
-                BigDecimal tatHours =
-                        BigDecimal.valueOf(performanceTatHours)
-                                .setScale(
-                                        2,
-                                        RoundingMode.HALF_UP
-                                );
-
-                BigDecimal actualHours =
-                        calculateActualHours(
-                                record.getStartedDate(),
-                                record.getCompletedDate()
-                        );
-
-                BigDecimal performance =
-                        calculatePerformancePercentage(
-                                tatHours,
-                                actualHours
-                        );
-
-                projectPerformanceTotal =
-                        projectPerformanceTotal.add(performance);
+                if (first == null
+                        || !first.getProjectId().equals(record.getProjectId())) {
 
-                totalPerformance =
-                        totalPerformance.add(performance);
-
-                projectPerformanceCalculatedMilestones++;
-                totalPerformanceCalculatedMilestones++;
-
-                int comparison =
-                        actualHours.compareTo(tatHours);
-
-                if (comparison < 0) {
-
-                    beforeTatCount++;
-                    totalBeforeTat++;
-
-                } else if (comparison == 0) {
-
-                    withinTatCount++;
-                    totalWithinTat++;
-
-                } else {
+                    if (first != null) {
+                        projectDetails.add(project.toDetail(first));
+                    }
 
-                    delayedCount++;
-                    totalDelayed++;
+                    first = record;
+                    project = new PerformanceAccumulator();
+                    projectIds.add(record.getProjectId());
                 }
-            }
 
-            BigDecimal projectAveragePerformance =
-                    projectPerformanceCalculatedMilestones == 0
-                            ? BigDecimal.ZERO.setScale(
-                            2,
-                            RoundingMode.HALF_UP
-                    )
-                            : projectPerformanceTotal.divide(
-                            BigDecimal.valueOf(
-                                    projectPerformanceCalculatedMilestones
-                            ),
-                            2,
-                            RoundingMode.HALF_UP
-                    );
+                project.add(record);
+                total.add(record);
+            }
+        }
 
-            projectDetails.add(
-                    UserProjectPerformanceDetailDto.builder()
-                            .projectId(first.getProjectId())
-                            .projectNumber(first.getProjectNumber())
-                            .projectName(first.getProjectName())
-                            .productId(first.getProductId())
-                            .productName(first.getProductName())
-                            .totalAssignedMilestones(
-                                    (long) projectRecords.size()
-                            )
-                            .completedMilestones(
-                                    projectCompletedMilestones
-                            )
-                            .beforeTatCount(beforeTatCount)
-                            .withinTatCount(withinTatCount)
-                            .delayedCount(delayedCount)
-                            .performancePercentage(
-                                    projectAveragePerformance
-                            )
-                            .build()
-            );
+        if (first != null) {
+            projectDetails.add(project.toDetail(first));
         }
 
-        BigDecimal averagePerformance =
-                totalPerformanceCalculatedMilestones == 0
-                        ? BigDecimal.ZERO.setScale(
-                        2,
-                        RoundingMode.HALF_UP
-                )
-                        : totalPerformance.divide(
-                        BigDecimal.valueOf(
-                                totalPerformanceCalculatedMilestones
-                        ),
-                        2,
-                        RoundingMode.HALF_UP
-                );
+        UserProjectPerformanceResponseDto response =
+                UserProjectPerformanceResponseDto.builder()
+                        .userId(user.getId())
+                        .userName(user.getFullName())
+                        .totalProjects((long) projectDetails.size())
+                        .totalCompletedMilestones(
+                                total.completedMilestones
+                        )
+                        .completedBeforeTat(total.beforeTatCount)
+                        .completedWithinTat(total.withinTatCount)
+                        .delayedMilestones(total.delayedCount)
+                        .averagePerformancePercentage(
+                                total.averagePerformance()
+                        )
+                        .projectPerformance(projectDetails)
+                        .build();
 
-        return UserProjectPerformanceResponseDto.builder()
-                .userId(user.getId())
-                .userName(user.getFullName())
-                .totalProjects((long) projectGroups.size())
-                .totalCompletedMilestones(
-                        totalCompletedMilestones
-                )
-                .completedBeforeTat(totalBeforeTat)
-                .completedWithinTat(totalWithinTat)
-                .delayedMilestones(totalDelayed)
-                .averagePerformancePercentage(
-                        averagePerformance
-                )
-                .projectPerformance(projectDetails)
-                .build();
+        userPerformanceCache.put(userId, projectId, projectIds, response, generation);
+
+        return response;
     }
 
 
-    private boolean isCompletedMilestone(
+    private static boolean isCompletedMilestone(
             UserMilestonePerformanceProjection record
     ) {
 
         return record.getStatusId() != null
                 && record.getStatusId().equals(3L);
     }
-    private boolean isPerformanceCalculable(
+    private static boolean isPerformanceCalculable(
             UserMilestonePerformanceProjection record
     ) {
 
@@ -1065,37 +978,168 @@ public class ProjectDashboardServiceImpl implements ProjectDashboardService {
                 && record.getCompletedDate() != null;
     }
 
-    private BigDecimal calculateActualHours(
-            LocalDateTime startedDate,
-            LocalDateTime completedDate
-    ) {
+    /**
+     * Milestone counts and performance for one project or for all of a
+     * user's projects.
+     *
+     * Hours and percentages are kept as hundredths in longs. The rounding
+     * matches the former BigDecimal code (scale 2, HALF_UP at each step),
+     * so results are unchanged while no BigDecimal is created per row.
+     */
+    private static final class PerformanceAccumulator {
+
+        private long assignedMilestones;
+        private long completedMilestones;
+        private long beforeTatCount;
+        private long withinTatCount;
+        private long delayedCount;
 
-        if (startedDate == null || completedDate == null) {
-            return BigDecimal.ZERO.setScale(
-                    2,
-                    RoundingMode.HALF_UP
-            );
+        /*
+         * Completed milestones for which performance was actually calculated.
+         */
+        private long calculatedMilestones;
+        private long performanceHundredthsTotal;
+
+        void add(UserMilestonePerformanceProjection record) {
+
+            assignedMilestones++;
+
+            /*
+             * Count completed milestones independently of whether
+             * performance TAT is configured.
+             */
+            if (isCompletedMilestone(record)) {
+                completedMilestones++;
+            }
+
+            /*
+             * Do not calculate performance when:
+             * - milestone is not completed
+             * - TAT is not applicable
+             * - TAT hours are null or zero
+             * - started/completed dates are null
+             */
+            if (!isPerformanceCalculable(record)) {
+                return;
+            }
+
+            long tatHundredths =
+                    toHundredths(record.getPerformanceTatHours());
+
+            long actualHundredths =
+                    actualHoursInHundredths(
+                            record.getStartedDate(),
+                            record.getCompletedDate()
+                    );
+
+            performanceHundredthsTotal +=
+                    performanceInHundredths(
+                            tatHundredths,
+                            actualHundredths
+                    );
+            calculatedMilestones++;
+
+            if (actualHundredths < tatHundredths) {
+                beforeTatCount++;
+            } else if (actualHundredths == tatHundredths) {
+                withinTatCount++;
+            } else {
+                delayedCount++;
+            }
         }
 
-        if (completedDate.isBefore(startedDate)) {
-            throw new ValidationException(
-                    "Completed date cannot be before started date",
-                    "ERR_INVALID_COMPLETION_DATE"
+        BigDecimal averagePerformance() {
+            if (calculatedMilestones == 0) {
+                return BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
+            }
+            return BigDecimal.valueOf(
+                    divideHalfUp(performanceHundredthsTotal, calculatedMilestones),
+                    2
             );
         }
 
-        long totalMinutes = Duration.between(
-                startedDate,
-                completedDate
-        ).toMinutes();
+        UserProjectPerformanceDetailDto toDetail(
+                UserMilestonePerformanceProjection first
+        ) {
+            return UserProjectPerformanceDetailDto.builder()
+                    .projectId(first.getProjectId())
+                    .projectNumber(first.getProjectNumber())
+                    .projectName(first.getProjectName())
+                    .productId(first.getProductId())
+                    .productName(first.getProductName())
+                    .totalAssignedMilestones(assignedMilestones)
+                    .completedMilestones(completedMilestones)
+                    .beforeTatCount(beforeTatCount)
+                    .withinTatCount(withinTatCount)
+                    .delayedCount(delayedCount)
+                    .performancePercentage(averagePerformance())
+                    .build();
+        }
 
-        return BigDecimal.valueOf(totalMinutes)
-                .divide(
-                        BigDecimal.valueOf(60),
-                        2,
-                        RoundingMode.HALF_UP
+        /*
+         * TAT hours rounded to 2 decimals, HALF_UP on the decimal
+         * representation of the double (as BigDecimal.valueOf does).
+         */
+        private static long toHundredths(double hours) {
+            return BigDecimal.valueOf(hours)
+                    .setScale(2, RoundingMode.HALF_UP)
+                    .unscaledValue()
+                    .longValueExact();
+        }
+
+        private static long actualHoursInHundredths(
+                LocalDateTime startedDate,
+                LocalDateTime completedDate
+        ) {
+
+            if (completedDate.isBefore(startedDate)) {
+                throw new ValidationException(
+                        "Completed date cannot be before started date",
+                        "ERR_INVALID_COMPLETION_DATE"
                 );
+            }
+
+            long totalMinutes = Duration.between(
+                    startedDate,
+                    completedDate
+            ).toMinutes();
+
+            return divideHalfUp(totalMinutes * 100, 60);
+        }
+
+        /*
+         * 100 + (tat - actual) * 100 / tat, floored at zero.
+         */
+        private static long performanceInHundredths(
+                long tatHundredths,
+                long actualHundredths
+        ) {
+
+            if (tatHundredths <= 0) {
+                return 0;
+            }
+
+            long performance = 10_000 + divideHalfUp(
+                    (tatHundredths - actualHundredths) * 10_000,
+                    tatHundredths
+            );
+
+            return Math.max(performance, 0);
+        }
+
+        /*
+         * Integer division rounding half away from zero (RoundingMode.HALF_UP).
+         */
+        private static long divideHalfUp(long dividend, long divisor) {
+            long quotient = dividend / divisor;
+            long remainder = dividend % divisor;
+            if (Math.abs(remainder) * 2 >= Math.abs(divisor)) {
+                quotient += Long.signum(dividend) * Long.signum(divisor);
+            }
+            return quotient;
+        }
     }
+
     private void validateRequest(
             Long userId,
             Long departmentId,
@@ -1417,39 +1461,6 @@ public class ProjectDashboardServiceImpl implements ProjectDashboardService {
                 ? 0L
                 : value;
     }
-    private BigDecimal calculatePerformancePercentage(
-            BigDecimal tatHours,
-            BigDecimal actualHours
-    ) {
-
-        if (tatHours == null ||
-                tatHours.compareTo(BigDecimal.ZERO) <= 0) {
-
-            return BigDecimal.ZERO.setScale(2);
-        }
-
-        BigDecimal performance = BigDecimal.valueOf(100)
-                .add(
-                        tatHours.subtract(actualHours)
-                                .multiply(BigDecimal.valueOf(100))
-                                .divide(
-                                        tatHours,
-                                        2,
-                                        RoundingMode.HALF_UP
-                                )
-                );
-
-        if (performance.compareTo(BigDecimal.ZERO) < 0) {
-            return BigDecimal.ZERO.setScale(2);
-        }
-
-        return performance.setScale(
-                2,
-                RoundingMode.HALF_UP
-        );
-    }
-
-
 
     private UserDepartmentProjection validateUserAndGetDepartment(
             Long userId
@@ -1496,11 +1507,7 @@ public class ProjectDashboardServiceImpl implements ProjectDashboardService {
                         )
                 );
 
-        boolean isAdmin = user.getRoles()
-                .stream()
-                .anyMatch(role ->
-                        "ADMIN".equalsIgnoreCase(role.getName())
-                );
+        boolean isAdmin = hasRole(user, "ADMIN");
 
         // Admin can see all department data
         if (isAdmin) {
@@ -1,5 +1,6 @@
 package com.doc.impl.project;
 
+import com.doc.cache.ReferenceDataService;
 import com.doc.dto.project.DocumentResponseDto;
 import com.doc.dto.project.ProjectDocumentStatusUpdateDto;
 import com.doc.dto.project.ProjectDocumentUploadRequestDto;
@@ -37,7 +38,7 @@ public class ProjectDocumentUploadServiceImpl implements ProjectDocumentUploadSe
     private final ProjectRepository projectRepository;
     private final ProductRequiredDocumentsRepository productRequiredDocumentsRepository;
     private final UserRepository userRepository;
-    private final DocumentStatusRepository documentStatusRepository;
+    private final ReferenceDataService referenceDataService;
     private final CompanyDocumentRepository companyDocumentRepository;
 
     @Value("${aws_path}")
@@ -48,14 +49,14 @@ public class ProjectDocumentUploadServiceImpl implements ProjectDocumentUploadSe
             ProjectRepository projectRepository,
             ProductRequiredDocumentsRepository productRequiredDocumentsRepository,
             UserRepository userRepository,
-            DocumentStatusRepository documentStatusRepository,
+            ReferenceDataService referenceDataService,
             CompanyDocumentRepository companyDocumentRepository) {
 
         this.projectDocumentUploadRepository = projectDocumentUploadRepository;
         this.projectRepository = projectRepository;
         this.productRequiredDocumentsRepository = productRequiredDocumentsRepository;
         this.userRepository = userRepository;
-        this.documentStatusRepository = documentStatusRepository;
+        this.referenceDataService = referenceDataService;
         this.companyDocumentRepository = companyDocumentRepository;
     }
 
@@ -118,7 +119,7 @@ public class ProjectDocumentUploadServiceImpl implements ProjectDocumentUploadSe
                         "USER_NOT_FOUND"
                 ));
 
-        DocumentStatus uploadedStatus = documentStatusRepository.findByName("UPLOADED")
+        DocumentStatus uploadedStatus = referenceDataService.documentStatusByName("UPLOADED")
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Status UPLOADED not found",
                         "STATUS_NOT_FOUND"
@@ -291,7 +292,7 @@ public class ProjectDocumentUploadServiceImpl implements ProjectDocumentUploadSe
                         "DOCUMENT_UPLOAD_NOT_FOUND"
                 ));
 
-        DocumentStatus newStatus = documentStatusRepository.findByName(updateDto.getNewStatus())
+        DocumentStatus newStatus = referenceDataService.documentStatusByName(updateDto.getNewStatus())
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Status not found",
                         "STATUS_NOT_FOUND"
@@ -681,7 +682,7 @@ public class ProjectDocumentUploadServiceImpl implements ProjectDocumentUploadSe
                         "USER_NOT_FOUND"
                 ));
 
-        DocumentStatus uploadedStatus = documentStatusRepository.findByName("UPLOADED")
+        DocumentStatus uploadedStatus = referenceDataService.documentStatusByName("UPLOADED")
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Status UPLOADED not found",
                         "STATUS_NOT_FOUND"
@@ -794,30 +795,23 @@ public class ProjectDocumentUploadServiceImpl implements ProjectDocumentUploadSe
      * Role validation helper used only for VERIFIED document protection.
      */
     private boolean isAdmin(User user) {
-        if (user == null || user.getRoles() == null) {
+        if (user == null) {
             return false;
         }
 
-        return user.getRoles().stream()
-                .anyMatch(role ->
-                        role != null
-                                && role.getName() != null
-                                && "ADMIN".equalsIgnoreCase(role.getName())
-                );
+        return referenceDataService.roleNames(user.getId()).stream()
+                .anyMatch("ADMIN"::equalsIgnoreCase);
     }
 
     /**
      * Used only for readable authorization logs.
      */
     private List<String> getRoleNames(User user) {
-        if (user == null || user.getRoles() == null) {
+        if (user == null) {
             return List.of();
         }
 
-        return user.getRoles().stream()
-                .filter(role -> role != null && role.getName() != null)
-                .map(role -> role.getName())
-                .toList();
+        return List.copyOf(referenceDataService.roleNames(user.getId()));
     }
 
 }
\ No newline at end of file
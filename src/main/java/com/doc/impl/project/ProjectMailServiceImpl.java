@@ -1,5 +1,6 @@
 package com.doc.impl.project;
 
+import com.doc.dto.mail.MailRequestDto;
 import com.doc.entity.client.Contact;
 import com.doc.entity.document.ProductDocumentMapping;
 import com.doc.entity.document.ProductRequiredDocuments;
@@ -7,17 +8,14 @@ import com.doc.entity.project.Project;
 import com.doc.repository.CompanyDocumentRepository;
 import com.doc.repository.ProductDocumentMappingRepository;
 import com.doc.service.ProjectMailService;
-import jakarta.mail.internet.MimeMessage;
+import com.doc.service.mail.MailService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.thymeleaf.context.Context;
 import org.thymeleaf.spring6.SpringTemplateEngine;
 
-import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -26,7 +24,7 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ProjectMailServiceImpl implements ProjectMailService {
 
-    private final JavaMailSender javaMailSender;
+    private final MailService mailService;
     private final SpringTemplateEngine templateEngine;
     private final ProductDocumentMappingRepository productDocumentMappingRepository;
     private final CompanyDocumentRepository companyDocumentRepository;
@@ -117,31 +115,26 @@ public class ProjectMailServiceImpl implements ProjectMailService {
 
             String htmlContent = templateEngine.process("mail/project-created-mail", context);
 
-            MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+            String subject = pendingDocuments != null && !pendingDocuments.isEmpty()
+                    ? "Required Documents for Project - " + project.getProjectNo()
+                    : "Project Created - " + project.getProjectNo();
 
-            MimeMessageHelper helper = new MimeMessageHelper(
-                    mimeMessage,
-                    MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED,
-                    StandardCharsets.UTF_8.name()
-            );
+            /*
+             * Queued rather than sent so project creation does not wait on
+             * SMTP; the mail outbox sends it once the project is committed.
+             */
+            mailService.queueMail(MailRequestDto.builder()
+                    .from("erp@corpseed.com")
+                    .to(clientEmail)
+                    .subject(subject)
+                    .body(htmlContent)
+                    .html(true)
+                    .build());
 
-            helper.setFrom("erp@corpseed.com");
-            helper.setTo(clientEmail);
-
-            if (pendingDocuments != null && !pendingDocuments.isEmpty()) {
-                helper.setSubject("Required Documents for Project - " + project.getProjectNo());
-            } else {
-                helper.setSubject("Project Created - " + project.getProjectNo());
-            }
-
-            helper.setText(htmlContent, true);
-
-            javaMailSender.send(mimeMessage);
-
-            log.info("Project created HTML mail sent successfully to: {}", clientEmail);
+            log.info("Project created HTML mail queued for: {}", clientEmail);
 
         } catch (Exception e) {
-            log.error("Failed to send project created HTML mail for projectId: {}",
+            log.error("Failed to queue project created HTML mail for projectId: {}",
                     project.getId(), e);
         }
     }
@@ -1,6 +1,11 @@
 package com.doc.impl.project;
 
-import com.doc.constants.StatusConstants;
+import com.doc.assignment.AssignmentCandidateIndex;
+import com.doc.assignment.UserPerformanceCounter;
+import com.doc.cache.ReferenceDataService;
+import com.doc.dto.ProjectMilestoneassignment.BulkMilestoneResultDto;
+import com.doc.dto.ProjectMilestoneassignment.BulkMilestoneStatusUpdateDto;
+import com.doc.dto.ProjectMilestoneassignment.BulkReassignMilestoneDto;
 import com.doc.dto.ProjectMilestoneassignment.ReassignMilestoneDto;
 import com.doc.dto.ProjectMilestoneassignment.ReassignMilestoneResponseDto;
 import com.doc.dto.ProjectMilestoneassignment.SendBackToPreviousMilestoneDto;
@@ -19,10 +24,13 @@ import com.doc.entity.vendor.ProcurementOrder;
 import com.doc.entity.vendor.ProcurementOrderStatus;
 import com.doc.exception.ResourceNotFoundException;
 import com.doc.exception.ValidationException;
+import com.doc.milestone.MilestoneStatusChangedEvent;
+import com.doc.milestone.MilestoneTransitionPipeline;
+import com.doc.milestone.ProjectStatusRollup;
 import com.doc.notification.*;
 import com.doc.repository.*;
+import com.doc.repository.UserPerformanceCountBatchRepository.Delta;
 import com.doc.repository.documentRepo.ProjectDocumentUploadRepository;
-import com.doc.repository.projectRepo.ProjectStatusRepository;
 import com.doc.repository.vendor.ProcurementPaymentRequestRepository;
 import com.doc.repository.vendor.PurchaseOrderRepository;
 import com.doc.service.AutoAssignmentService;
@@ -30,10 +38,10 @@ import com.doc.service.AutoAssignmentService;
 import com.doc.service.NotificationPublisherService;
 import com.doc.service.ProjectMilestoneAssignmentService;
 import com.doc.service.ProjectService;
+import com.doc.validation.MilestoneValidationContext;
 import com.doc.validation.MilestoneValidator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import com.doc.repository.documentRepo.DocumentStatusRepository;
 import com.doc.entity.document.ProjectDocumentUpload;
 import com.doc.entity.document.DocumentStatus;
 import org.springframework.context.annotation.Lazy;
@@ -44,8 +52,9 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.util.Date;
-import java.util.List;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -60,9 +69,8 @@ public class ProjectMilestoneAssignmentServiceImpl implements ProjectMilestoneAs
     private final ProjectRepository projectRepository;
     private final ProjectAssignmentHistoryRepository projectAssignmentHistoryRepository;
     private final UserProductMapRepository userProductMapRepository;
-    private final UserPerformanceCountRepository userPerformanceCountRepository;
-    private final MilestoneStatusRepository milestoneStatusRepository;
-    private final ProjectStatusRepository projectStatusRepository;
+    private final UserPerformanceCounter userPerformanceCounter;
+    private final ReferenceDataService referenceDataService;
     private final AutoAssignmentService autoAssignmentService;
     private final MilestoneValidator milestoneValidator;
     private final ProjectService projectService;
@@ -73,7 +81,11 @@ public class ProjectMilestoneAssignmentServiceImpl implements ProjectMilestoneAs
     private final ProcurementPaymentRequestRepository procurementPaymentRequestRepository;
 
 
-    private final DocumentStatusRepository documentStatusRepository;
+
+    private final AssignmentCandidateIndex candidateIndex;
+    private final ProjectStatusRollup projectStatusRollup;
+    private final MilestoneTransitionPipeline milestoneTransitionPipeline;
+    private final MilestoneHistoryBatchRepository milestoneHistoryBatchRepository;
 
     private static final long DEFAULT_RENEWAL_LEAD_DAYS = 30L;
 
@@ -85,19 +97,19 @@ public class ProjectMilestoneAssignmentServiceImpl implements ProjectMilestoneAs
             ProjectRepository projectRepository,
             ProjectAssignmentHistoryRepository projectAssignmentHistoryRepository,
             UserProductMapRepository userProductMapRepository,
-            UserPerformanceCountRepository userPerformanceCountRepository,
-            MilestoneStatusRepository milestoneStatusRepository,
-            ProjectStatusRepository projectStatusRepository,
+            UserPerformanceCounter userPerformanceCounter,
+            ReferenceDataService referenceDataService,
             AutoAssignmentService autoAssignmentService,
             MilestoneValidator milestoneValidator,
             @Lazy ProjectService projectService,
             ProcurementMilestoneAssignmentRepository procurementMilestoneAssignmentRepository,
             NotificationPublisherService notificationPublisherService,
-            DocumentStatusRepository documentStatusRepository,
             PurchaseOrderRepository purchaseOrderRepository,
-            ProcurementPaymentRequestRepository procurementPaymentRequestRepository
-
-
+            ProcurementPaymentRequestRepository procurementPaymentRequestRepository,
+            AssignmentCandidateIndex candidateIndex,
+            ProjectStatusRollup projectStatusRollup,
+            MilestoneTransitionPipeline milestoneTransitionPipeline,
+            MilestoneHistoryBatchRepository milestoneHistoryBatchRepository
     ) {
         this.projectMilestoneAssignmentRepository = projectMilestoneAssignmentRepository;
         this.userRepository = userRepository;
@@ -106,17 +118,19 @@ public class ProjectMilestoneAssignmentServiceImpl implements ProjectMilestoneAs
         this.projectRepository = projectRepository;
         this.projectAssignmentHistoryRepository = projectAssignmentHistoryRepository;
         this.userProductMapRepository = userProductMapRepository;
-        this.userPerformanceCountRepository = userPerformanceCountRepository;
-        this.milestoneStatusRepository = milestoneStatusRepository;
-        this.projectStatusRepository = projectStatusRepository;
+        this.userPerformanceCounter = userPerformanceCounter;
+        this.referenceDataService = referenceDataService;
         this.autoAssignmentService = autoAssignmentService;
         this.milestoneValidator = milestoneValidator;
         this.projectService = projectService;
         this.procurementMilestoneAssignmentRepository = procurementMilestoneAssignmentRepository;
         this.notificationPublisherService = notificationPublisherService;
-        this.documentStatusRepository = documentStatusRepository;
         this.purchaseOrderRepository=purchaseOrderRepository;
         this.procurementPaymentRequestRepository=procurementPaymentRequestRepository;
+        this.candidateIndex = candidateIndex;
+        this.projectStatusRollup = projectStatusRollup;
+        this.milestoneTransitionPipeline = milestoneTransitionPipeline;
+        this.milestoneHistoryBatchRepository = milestoneHistoryBatchRepository;
 
 
     }
@@ -152,7 +166,7 @@ public class ProjectMilestoneAssignmentServiceImpl implements ProjectMilestoneAs
                         });
 
         MilestoneStatus newStatus =
-                milestoneStatusRepository.findByName(updateDto.getNewStatusName())
+                referenceDataService.milestoneStatusByName(updateDto.getNewStatusName())
                         .orElseThrow(() -> {
                             logger.error("Milestone status {} not found",
                                     updateDto.getNewStatusName());
@@ -166,6 +180,77 @@ public class ProjectMilestoneAssignmentServiceImpl implements ProjectMilestoneAs
                 ? assignment.getStatus().getName()
                 : null;
 
+        validateStatusChange(assignment, currentStatusName, newStatus, updateDto, milestoneValidator.newContext());
+
+        String milestoneName = getMilestoneName(assignment);
+
+        if ("COMPLETED".equalsIgnoreCase(newStatus.getName())
+                && assignment.getAssignedUser() != null) {
+
+            releaseCompletedAssignee(
+                    assignment,
+                    updateDto.getChangedById(),
+                    userProductMapRepository
+                            .findByUserIdAndProductIdAndIsDeletedFalse(
+                                    assignment.getAssignedUser().getId(),
+                                    assignment.getProject().getProduct().getId()
+                            )
+                            .orElse(null)
+            );
+        }
+
+        /*
+         * Save status history before changing assignment status.
+         */
+        MilestoneStatusHistory history = new MilestoneStatusHistory();
+        history.setMilestoneAssignment(assignment);
+        history.setPreviousStatus(assignment.getStatus());
+        history.setNewStatus(newStatus);
+        history.setChangeReason(updateDto.getStatusReason());
+        history.setChangedBy(changedBy);
+        history.setChangeDate(new Date());
+        history.setDeleted(false);
+
+        milestoneStatusHistoryRepository.save(history);
+
+        applyStatus(assignment, newStatus, updateDto.getStatusReason(), updateDto.getChangedById());
+
+        assignment = projectMilestoneAssignmentRepository.save(assignment);
+
+        logger.info("Milestone assignment ID {} status updated from {} to {} by user {}",
+                updateDto.getAssignmentId(),
+                currentStatusName,
+                newStatus.getName(),
+                changedBy.getFullName());
+
+        /*
+         * Milestone visibility, the project status rollup and the assignee
+         * notification run after commit, batched per project, so this
+         * transaction does not write (or lock) the project row.
+         */
+        milestoneTransitionPipeline.publish(statusChangedEvent(
+                assignment,
+                milestoneName,
+                currentStatusName,
+                updateDto.getStatusReason(),
+                changedBy,
+                true
+        ));
+    }
+
+    /**
+     * Checks that the assignment may move to the new status. Certification
+     * details and the rework attempt count are set on the assignment when
+     * the change is allowed.
+     */
+    private void validateStatusChange(
+            ProjectMilestoneAssignment assignment,
+            String currentStatusName,
+            MilestoneStatus newStatus,
+            UpdateMilestoneStatusDto updateDto,
+            MilestoneValidationContext context
+    ) {
+
         String requestedStatusName = newStatus.getName();
 
         /*
@@ -203,7 +288,7 @@ public class ProjectMilestoneAssignmentServiceImpl implements ProjectMilestoneAs
         if ("IN_PROGRESS".equalsIgnoreCase(newStatus.getName())
                 && isFilingMilestone(milestoneName)) {
 
-            milestoneValidator.validateFillingMilestone(assignment);
+            milestoneValidator.validateFillingMilestone(assignment, context);
         }
 
         /*
@@ -212,16 +297,16 @@ public class ProjectMilestoneAssignmentServiceImpl implements ProjectMilestoneAs
         if ("COMPLETED".equalsIgnoreCase(newStatus.getName())) {
 
             if ("Documentation".equalsIgnoreCase(milestoneName)) {
-                milestoneValidator.validateDocumentMilestone(assignment);
+                milestoneValidator.validateDocumentMilestone(assignment, context);
             }
 
             if ("Legal Verification".equalsIgnoreCase(milestoneName)
                     || "Legal Verfication".equalsIgnoreCase(milestoneName)) {
-                milestoneValidator.validateLegalMilestone(assignment);
+                milestoneValidator.validateLegalMilestone(assignment, context);
             }
 
             if (isFilingMilestone(milestoneName)) {
-                milestoneValidator.validateFillingMilestone(assignment);
+                milestoneValidator.validateFillingMilestone(assignment, context);
             }
 
             if ("Procurement".equalsIgnoreCase(milestoneName)) {
@@ -260,76 +345,51 @@ public class ProjectMilestoneAssignmentServiceImpl implements ProjectMilestoneAs
 
             assignment.setReworkAttempts(assignment.getReworkAttempts() + 1);
         }
+    }
 
-        /*
-         * If milestone is getting completed:
-         * 1. Reduce old user's active assignment count
-         * 2. Add time spent
-         * 3. Mark user-product map as unassigned
-         */
-        if ("COMPLETED".equalsIgnoreCase(newStatus.getName())) {
-
-            if (assignment.getAssignedUser() != null) {
-
-                User oldUser = assignment.getAssignedUser();
-
-                UserPerformanceCount count =
-                        userPerformanceCountRepository.findByUserIdAndProductId(
-                                oldUser.getId(),
-                                assignment.getProject().getProduct().getId()
-                        );
-
-                if (count != null) {
-                    count.setTimeSpent(
-                            count.getTimeSpent()
-                                    + assignment.getProductMilestoneMap().getTatInDays()
-                    );
-                    count.setAssignmentCount(
-                            Math.max(0, count.getAssignmentCount() - 1)
-                    );
-                    count.setLastUpdatedDate(new Date());
-                    count.setUpdatedDate(new Date());
-                    count.setUpdatedBy(updateDto.getChangedById());
-
-                    userPerformanceCountRepository.save(count);
-                }
+    /**
+     * When a milestone is completed:
+     * 1. Reduce old user's active assignment count
+     * 2. Add time spent
+     * 3. Mark user-product map (if any) as unassigned
+     */
+    private void releaseCompletedAssignee(
+            ProjectMilestoneAssignment assignment,
+            Long changedById,
+            UserProductMap userMap
+    ) {
+        User oldUser = assignment.getAssignedUser();
 
-                UserProductMap userMap =
-                        userProductMapRepository
-                                .findByUserIdAndProductIdAndIsDeletedFalse(
-                                        oldUser.getId(),
-                                        assignment.getProject().getProduct().getId()
-                                )
-                                .orElse(null);
+        boolean released = userPerformanceCounter.released(
+                oldUser.getId(),
+                assignment.getProject().getProduct().getId(),
+                assignment.getProductMilestoneMap().getTatInDays(),
+                changedById
+        );
 
-                if (userMap != null) {
-                    userMap.setAssigned(false);
-                    userMap.setUpdatedDate(new Date());
-                    userMap.setUpdatedBy(updateDto.getChangedById());
-                    userProductMapRepository.save(userMap);
-                }
-            }
+        if (released) {
+            candidateIndex.recordRelease(
+                    oldUser.getId(),
+                    assignment.getProject().getProduct().getId()
+            );
         }
 
-        /*
-         * Save status history before changing assignment status.
-         */
-        MilestoneStatusHistory history = new MilestoneStatusHistory();
-        history.setMilestoneAssignment(assignment);
-        history.setPreviousStatus(assignment.getStatus());
-        history.setNewStatus(newStatus);
-        history.setChangeReason(updateDto.getStatusReason());
-        history.setChangedBy(changedBy);
-        history.setChangeDate(new Date());
-        history.setDeleted(false);
-
-        milestoneStatusHistoryRepository.save(history);
+        if (userMap != null) {
+            userMap.setAssigned(false);
+            userMap.setUpdatedDate(new Date());
+            userMap.setUpdatedBy(changedById);
+            userProductMapRepository.save(userMap);
+        }
+    }
 
-        /*
-         * Update assignment status.
-         */
+    private void applyStatus(
+            ProjectMilestoneAssignment assignment,
+            MilestoneStatus newStatus,
+            String statusReason,
+            Long changedById
+    ) {
         assignment.setStatus(newStatus);
-        assignment.setStatusReason(updateDto.getStatusReason());
+        assignment.setStatusReason(statusReason);
 
         if ("IN_PROGRESS".equalsIgnoreCase(newStatus.getName())) {
             assignment.setStartedDate(new Date());
@@ -339,37 +399,33 @@ public class ProjectMilestoneAssignmentServiceImpl implements ProjectMilestoneAs
             assignment.setCompletedDate(new Date());
         }
 
-        assignment.setUpdatedBy(updateDto.getChangedById());
+        assignment.setUpdatedBy(changedById);
         assignment.setUpdatedDate(new Date());
+    }
 
-        assignment = projectMilestoneAssignmentRepository.save(assignment);
-
-        logger.info("Milestone assignment ID {} status updated from {} to {} by user {}",
-                updateDto.getAssignmentId(),
-                currentStatusName,
-                newStatus.getName(),
-                changedBy.getFullName());
-
-        Project project = assignment.getProject();
-
-        /*
-         * After completing one milestone, recalculate visibility of all project milestones.
-         * This will make the next milestone visible if payment and previous milestone conditions are satisfied.
-         */
-        if ("COMPLETED".equalsIgnoreCase(newStatus.getName())) {
-            projectService.updateMilestoneVisibilities(
-                    project,
-                    updateDto.getChangedById()
-            );
-
-            logger.info("Milestone visibility recalculated after completion. Project ID: {}",
-                    project.getId());
-        }
-
-        /*
-         * Update project status after milestone status/visibility update.
-         */
-        updateProjectStatus(project, updateDto.getChangedById());
+    /**
+     * Event for a status change already applied to the assignment.
+     * {@code notifyAssignee} is false when the assignee is told some other way.
+     */
+    private MilestoneStatusChangedEvent statusChangedEvent(
+            ProjectMilestoneAssignment assignment,
+            String milestoneName,
+            String previousStatusName,
+            String reason,
+            User changedBy,
+            boolean notifyAssignee
+    ) {
+        return new MilestoneStatusChangedEvent(
+                assignment.getProject().getId(),
+                assignment.getId(),
+                milestoneName,
+                notifyAssignee && assignment.getAssignedUser() != null ? assignment.getAssignedUser().getId() : null,
+                previousStatusName,
+                assignment.getStatus().getName(),
+                reason,
+                changedBy.getId(),
+                getUserDisplayName(changedBy)
+        );
     }
 
     private boolean isCertificationMilestone(String milestoneName) {
@@ -702,49 +758,22 @@ public class ProjectMilestoneAssignmentServiceImpl implements ProjectMilestoneAs
         User changedBy = userRepository.findActiveUserById(reassignDto.getChangedById())
                 .orElseThrow(() -> new ResourceNotFoundException("Requesting user not found", "USER_NOT_FOUND"));
 
-        boolean isAdmin = changedBy.getRoles().stream().anyMatch(r -> "ADMIN".equals(r.getName()));
-        boolean isOperationHead = changedBy.getRoles().stream().anyMatch(r -> "OPERATION_HEAD".equals(r.getName()));
+        boolean isAdmin = referenceDataService.roleNames(changedBy.getId()).contains("ADMIN");
+        boolean isOperationHead = referenceDataService.roleNames(changedBy.getId()).contains("OPERATION_HEAD");
         boolean isManager = changedBy.isManagerFlag();
 
         if (!isAdmin && !isOperationHead && !isManager) {
             throw new ValidationException("Only ADMIN, OPERATION_HEAD, or MANAGER can reassign milestones", "NOT_AUTHORIZED_TO_REASSIGN");
         }
 
-        // Department check for Managers only
-        if (isManager && !isAdmin && !isOperationHead) {
-            if (!isManagerOfMilestoneDepartment(changedBy, assignment)) {
-                throw new ValidationException("You can only reassign milestones in your department(s)", "MANAGER_DEPARTMENT_MISMATCH");
-            }
-        }
-
         if (reassignDto.getReassignmentReason() == null || reassignDto.getReassignmentReason().trim().isEmpty()) {
             throw new ValidationException("Reassignment reason is required", "INVALID_REASSIGNMENT_REASON");
         }
 
-        if ("COMPLETED".equals(assignment.getStatus().getName())) {
-            throw new ValidationException("Cannot reassign a completed milestone", "COMPLETED_MILESTONE_REASSIGNMENT");
-        }
-
-        if (assignment.getAssignedUser() != null && assignment.getAssignedUser().getId().equals(reassignDto.getNewUserId())) {
-            throw new ValidationException("Milestone is already assigned to this user", "SAME_USER_REASSIGNMENT");
-        }
+        validateReassignment(assignment, newUser, changedBy, isAdmin || isOperationHead);
 
         ProductMilestoneMap milestoneMap = assignment.getProductMilestoneMap();
 
-        // Department eligibility check (skip for Admin/Operation Head)
-        if (!isAdmin && !isOperationHead) {
-            List<Long> requiredDeptIds = milestoneMap.getMilestone().getDepartments().stream()
-                    .map(Department::getId).toList();
-            List<Long> userDeptIds = newUser.getDepartments().stream()
-                    .map(Department::getId).toList();
-
-            if (requiredDeptIds.stream().noneMatch(userDeptIds::contains)) {
-                throw new ValidationException(
-                        "Selected user is not in the required department for this milestone",
-                        "INELIGIBLE_USER_DEPARTMENT");
-            }
-        }
-
         // Unassign old user
         if (assignment.getAssignedUser() != null) {
             User oldUser = assignment.getAssignedUser();
@@ -756,13 +785,9 @@ public class ProjectMilestoneAssignmentServiceImpl implements ProjectMilestoneAs
                 userProductMapRepository.save(oldMap);
             }
 
-            UserPerformanceCount oldCount = userPerformanceCountRepository
-                    .findByUserIdAndProductId(oldUser.getId(), assignment.getProject().getProduct().getId());
-            if (oldCount != null) {
-                oldCount.setAssignmentCount(Math.max(0, oldCount.getAssignmentCount() - 1));
-                oldCount.setUpdatedDate(new Date());
-                oldCount.setUpdatedBy(reassignDto.getChangedById());
-                userPerformanceCountRepository.save(oldCount);
+            if (userPerformanceCounter.released(oldUser.getId(), assignment.getProject().getProduct().getId(),
+                    0.0, reassignDto.getChangedById())) {
+                candidateIndex.recordRelease(oldUser.getId(), assignment.getProject().getProduct().getId());
             }
         }
 
@@ -774,22 +799,9 @@ public class ProjectMilestoneAssignmentServiceImpl implements ProjectMilestoneAs
         newMap.setAssigned(true);
         userProductMapRepository.save(newMap);
 
-        UserPerformanceCount newCount = userPerformanceCountRepository
-                .findByUserIdAndProductId(newUser.getId(), assignment.getProject().getProduct().getId());
-        if (newCount == null) {
-            newCount = new UserPerformanceCount();
-            newCount.setUser(newUser);
-            newCount.setProduct(assignment.getProject().getProduct());
-            newCount.setAssignmentCount(1);
-            newCount.setTimeSpent(0.0);
-            newCount.setCreatedDate(new Date());
-            newCount.setCreatedBy(reassignDto.getChangedById());
-        } else {
-            newCount.setAssignmentCount(newCount.getAssignmentCount() + 1);
-        }
-        newCount.setUpdatedDate(new Date());
-        newCount.setUpdatedBy(reassignDto.getChangedById());
-        userPerformanceCountRepository.save(newCount);
+        userPerformanceCounter.assigned(newUser.getId(), assignment.getProject().getProduct().getId(),
+                reassignDto.getChangedById());
+        candidateIndex.recordAssignment(newUser.getId(), assignment.getProject().getProduct().getId());
 
         // Save history
         ProjectAssignmentHistory history = new ProjectAssignmentHistory();
@@ -806,7 +818,7 @@ public class ProjectMilestoneAssignmentServiceImpl implements ProjectMilestoneAs
 
         // Final update
         assignment.setAssignedUser(newUser);
-        assignment.setStatus(milestoneStatusRepository.findByName("NEW")
+        assignment.setStatus(referenceDataService.milestoneStatusByName("NEW")
                 .orElseThrow(() -> new ResourceNotFoundException("Status NEW not found", "STATUS_NOT_FOUND")));
         assignment.setStatusReason("Reassigned by " + (isAdmin ? "ADMIN" : isOperationHead ? "OP HEAD" : "MANAGER"));
         assignment.setUpdatedBy(reassignDto.getChangedById());
@@ -1067,6 +1079,45 @@ public class ProjectMilestoneAssignmentServiceImpl implements ProjectMilestoneAs
         return userProductMapRepository.save(map);
     }
 
+    /**
+     * Checks that the assignment may be moved to the new user. Managers
+     * (anyone not privileged) are limited to milestones of their own
+     * departments and to users of the milestone's departments.
+     */
+    private void validateReassignment(
+            ProjectMilestoneAssignment assignment,
+            User newUser,
+            User changedBy,
+            boolean privileged
+    ) {
+        // Department check for Managers only
+        if (!privileged && !isManagerOfMilestoneDepartment(changedBy, assignment)) {
+            throw new ValidationException("You can only reassign milestones in your department(s)", "MANAGER_DEPARTMENT_MISMATCH");
+        }
+
+        if ("COMPLETED".equals(assignment.getStatus().getName())) {
+            throw new ValidationException("Cannot reassign a completed milestone", "COMPLETED_MILESTONE_REASSIGNMENT");
+        }
+
+        if (assignment.getAssignedUser() != null && assignment.getAssignedUser().getId().equals(newUser.getId())) {
+            throw new ValidationException("Milestone is already assigned to this user", "SAME_USER_REASSIGNMENT");
+        }
+
+        // Department eligibility check (skip for Admin/Operation Head)
+        if (!privileged) {
+            List<Long> requiredDeptIds = assignment.getProductMilestoneMap().getMilestone().getDepartments().stream()
+                    .map(Department::getId).toList();
+            List<Long> userDeptIds = newUser.getDepartments().stream()
+                    .map(Department::getId).toList();
+
+            if (requiredDeptIds.stream().noneMatch(userDeptIds::contains)) {
+                throw new ValidationException(
+                        "Selected user is not in the required department for this milestone",
+                        "INELIGIBLE_USER_DEPARTMENT");
+            }
+        }
+    }
+
     private boolean isManagerOfMilestoneDepartment(User manager, ProjectMilestoneAssignment assignment) {
         List<Long> managerDepts = manager.getDepartments().stream().map(Department::getId).toList();
         List<Long> milestoneDepts = assignment.getProductMilestoneMap().getMilestone().getDepartments()
@@ -1075,115 +1126,319 @@ public class ProjectMilestoneAssignmentServiceImpl implements ProjectMilestoneAs
     }
 
 
-    private void updateProjectStatus(
-            Project project,
-            Long updatedById
-    ) {
-        if (project == null || project.getStatus() == null) {
-            return;
+    /**
+     * Moves many assignments to one status in a single transaction.
+     *
+     * Users, the status and the assignments are loaded once; each assignment
+     * is then validated as in {@link #updateMilestoneStatus}, sharing one
+     * validator context so per-project lookups are made once. Assignments
+     * that fail are reported and left unchanged. History rows for the others
+     * are written as one JDBC batch, and visibility and project status are
+     * recalculated once per affected project after commit.
+     */
+    @Override
+    public BulkMilestoneResultDto bulkUpdateMilestoneStatus(BulkMilestoneStatusUpdateDto dto) {
+
+        List<Long> assignmentIds = distinctIds(dto.getAssignmentIds());
+
+        logger.info("Bulk updating {} milestone assignments to status: {} by user ID: {}",
+                assignmentIds.size(), dto.getNewStatusName(), dto.getChangedById());
+
+        User changedBy = userRepository.findActiveUserById(dto.getChangedById())
+                .orElseThrow(() -> new ResourceNotFoundException("User not found", "USER_NOT_FOUND"));
+
+        MilestoneStatus newStatus = referenceDataService.milestoneStatusByName(dto.getNewStatusName())
+                .orElseThrow(() -> new ResourceNotFoundException("Milestone status not found", "STATUS_NOT_FOUND"));
+
+        Map<Long, ProjectMilestoneAssignment> assignmentsById = loadAssignments(assignmentIds);
+        MilestoneValidationContext context = milestoneValidator.newContext();
+
+        BulkMilestoneResultDto result = new BulkMilestoneResultDto();
+        List<ProjectMilestoneAssignment> accepted = new ArrayList<>();
+        Map<Long, String> previousStatusNames = new HashMap<>();
+
+        for (Long assignmentId : assignmentIds) {
+            ProjectMilestoneAssignment assignment = assignmentsById.get(assignmentId);
+            String currentStatusName = assignment != null ? assignment.getStatus().getName() : null;
+
+            UpdateMilestoneStatusDto itemDto = new UpdateMilestoneStatusDto();
+            itemDto.setAssignmentId(assignmentId);
+            itemDto.setNewStatusName(dto.getNewStatusName());
+            itemDto.setStatusReason(dto.getStatusReason());
+            itemDto.setChangedById(dto.getChangedById());
+
+            if (checkItem(result, assignmentId, assignment,
+                    () -> validateStatusChange(assignment, currentStatusName, newStatus, itemDto, context))) {
+                accepted.add(assignment);
+                previousStatusNames.put(assignmentId, currentStatusName);
+            }
         }
 
-        Long currentProjectStatusId =
-                project.getStatus().getId();
+        if (!accepted.isEmpty()) {
+            boolean completing = "COMPLETED".equalsIgnoreCase(newStatus.getName());
+            Map<String, UserProductMap> userMaps = completing
+                    ? loadUserProductMaps(accepted.stream()
+                    .filter(a -> a.getAssignedUser() != null)
+                    .map(a -> a.getAssignedUser().getId())
+                    .collect(Collectors.toSet()), accepted)
+                    : Map.of();
+
+            List<MilestoneHistoryBatchRepository.StatusChange> history = new ArrayList<>(accepted.size());
+
+            for (ProjectMilestoneAssignment assignment : accepted) {
+                if (completing && assignment.getAssignedUser() != null) {
+                    releaseCompletedAssignee(
+                            assignment,
+                            dto.getChangedById(),
+                            userMaps.get(userProductKey(
+                                    assignment.getAssignedUser().getId(),
+                                    assignment.getProject().getProduct().getId()))
+                    );
+                }
 
-        /*
-         * Do not allow milestone calculation to overwrite
-         * administrative/terminal project statuses.
-         */
-        if (StatusConstants.PROJECT_FORCE_CLOSED_ID
-                .equals(currentProjectStatusId)
-                || StatusConstants.PROJECT_CANCELLED_ID
-                .equals(currentProjectStatusId)
-                || StatusConstants.PROJECT_REFUNDED_ID
-                .equals(currentProjectStatusId)) {
-
-            logger.info(
-                    "Skipping automatic project status update. projectId={}, currentStatus={}",
-                    project.getId(),
-                    project.getStatus().getName()
-            );
+                history.add(new MilestoneHistoryBatchRepository.StatusChange(
+                        assignment.getId(),
+                        assignment.getStatus().getId(),
+                        newStatus.getId(),
+                        dto.getStatusReason(),
+                        changedBy.getId()
+                ));
 
-            return;
+                applyStatus(assignment, newStatus, dto.getStatusReason(), dto.getChangedById());
+            }
+
+            milestoneHistoryBatchRepository.insertStatusHistory(history);
+            projectMilestoneAssignmentRepository.saveAll(accepted);
+
+            for (ProjectMilestoneAssignment assignment : accepted) {
+                milestoneTransitionPipeline.publish(statusChangedEvent(
+                        assignment,
+                        getMilestoneName(assignment),
+                        previousStatusNames.get(assignment.getId()),
+                        dto.getStatusReason(),
+                        changedBy,
+                        true
+                ));
+            }
         }
 
-        List<ProjectMilestoneAssignment> assignments =
-                projectMilestoneAssignmentRepository
-                        .findByProjectIdAndIsDeletedFalse(
-                                project.getId()
-                        );
+        logger.info("Bulk milestone status update to {} by user {} → succeeded: {}, failed: {}",
+                newStatus.getName(), changedBy.getFullName(), result.getSucceededCount(), result.getFailedCount());
+
+        return result;
+    }
 
-        String newStatusName;
+    /**
+     * Reassigns many assignments to one user in a single transaction, with
+     * the same checks as {@link #reassignMilestone}. The requesting user's
+     * roles and departments are resolved once; user-product maps are loaded
+     * in one query and created at most once per product. Assignment history
+     * is written as one JDBC batch, and the open-assignment counters are
+     * netted per (user, product) and applied in one batch.
+     */
+    @Override
+    public BulkMilestoneResultDto bulkReassignMilestones(BulkReassignMilestoneDto dto) {
 
-        if (assignments.isEmpty()) {
-            newStatusName = "OPEN";
+        List<Long> assignmentIds = distinctIds(dto.getAssignmentIds());
 
-        } else if (assignments.stream().allMatch(assignment ->
-                assignment.getStatus() != null
-                        && "COMPLETED".equalsIgnoreCase(
-                        assignment.getStatus().getName()
-                )
-        )) {
-            newStatusName = "COMPLETED";
-
-        } else if (assignments.stream().anyMatch(assignment ->
-                assignment.getStatus() != null
-                        && List.of(
-                        "IN_PROGRESS",
-                        "ON_HOLD",
-                        "REWORK"
-                ).contains(
-                        assignment.getStatus()
-                                .getName()
-                                .toUpperCase()
-                )
-        )) {
-            newStatusName = "IN_PROGRESS";
+        logger.info("Bulk reassigning {} milestones → user {} by {}",
+                assignmentIds.size(), dto.getNewUserId(), dto.getChangedById());
 
-        } else {
-            newStatusName = "OPEN";
+        User newUser = userRepository.findActiveUserById(dto.getNewUserId())
+                .orElseThrow(() -> new ResourceNotFoundException("New assignee not found", "USER_NOT_FOUND"));
+
+        User changedBy = userRepository.findActiveUserById(dto.getChangedById())
+                .orElseThrow(() -> new ResourceNotFoundException("Requesting user not found", "USER_NOT_FOUND"));
+
+        Set<String> roleNames = referenceDataService.roleNames(changedBy.getId());
+        boolean isAdmin = roleNames.contains("ADMIN");
+        boolean isOperationHead = roleNames.contains("OPERATION_HEAD");
+
+        if (!isAdmin && !isOperationHead && !changedBy.isManagerFlag()) {
+            throw new ValidationException("Only ADMIN, OPERATION_HEAD, or MANAGER can reassign milestones", "NOT_AUTHORIZED_TO_REASSIGN");
         }
 
-        ProjectStatus status =
-                projectStatusRepository
-                        .findByName(newStatusName)
-                        .orElseThrow(() ->
-                                new ResourceNotFoundException(
-                                        "Project status not found: "
-                                                + newStatusName,
-                                        "STATUS_NOT_FOUND"
-                                )
-                        );
+        MilestoneStatus newStatus = referenceDataService.milestoneStatusByName("NEW")
+                .orElseThrow(() -> new ResourceNotFoundException("Status NEW not found", "STATUS_NOT_FOUND"));
+
+        Map<Long, ProjectMilestoneAssignment> assignmentsById = loadAssignments(assignmentIds);
+        boolean privileged = isAdmin || isOperationHead;
+
+        BulkMilestoneResultDto result = new BulkMilestoneResultDto();
+        List<ProjectMilestoneAssignment> accepted = new ArrayList<>();
+
+        for (Long assignmentId : assignmentIds) {
+            ProjectMilestoneAssignment assignment = assignmentsById.get(assignmentId);
+            if (checkItem(result, assignmentId, assignment,
+                    () -> validateReassignment(assignment, newUser, changedBy, privileged))) {
+                accepted.add(assignment);
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            Set<Long> userIds = accepted.stream()
+                    .filter(a -> a.getAssignedUser() != null)
+                    .map(a -> a.getAssignedUser().getId())
+                    .collect(Collectors.toCollection(HashSet::new));
+            userIds.add(newUser.getId());
+            Map<String, UserProductMap> userMaps = loadUserProductMaps(userIds, accepted);
+
+            String statusReason = "Reassigned by " + (isAdmin ? "ADMIN" : isOperationHead ? "OP HEAD" : "MANAGER");
+            List<MilestoneHistoryBatchRepository.Reassignment> history = new ArrayList<>(accepted.size());
+            List<MilestoneStatusChangedEvent> events = new ArrayList<>();
+            Map<String, Delta> counterDeltas = new LinkedHashMap<>();
+
+            for (ProjectMilestoneAssignment assignment : accepted) {
+                Product product = assignment.getProject().getProduct();
+
+                // Unassign old user
+                if (assignment.getAssignedUser() != null) {
+                    Long oldUserId = assignment.getAssignedUser().getId();
+                    UserProductMap oldMap = userMaps.get(userProductKey(oldUserId, product.getId()));
+                    if (oldMap != null) {
+                        oldMap.setAssigned(false);
+                    }
+
+                    addCounterDelta(counterDeltas, oldUserId, product.getId(), -1, dto.getChangedById());
+                    candidateIndex.recordRelease(oldUserId, product.getId());
+                }
+
+                // Assign to new user
+                UserProductMap newMap = userMaps.computeIfAbsent(
+                        userProductKey(newUser.getId(), product.getId()),
+                        key -> createUserProductMap(newUser, product, dto.getChangedById()));
+                newMap.setAssigned(true);
+
+                addCounterDelta(counterDeltas, newUser.getId(), product.getId(), 1, dto.getChangedById());
+                candidateIndex.recordAssignment(newUser.getId(), product.getId());
+
+                history.add(new MilestoneHistoryBatchRepository.Reassignment(
+                        assignment.getProject().getId(),
+                        assignment.getId(),
+                        newUser.getId(),
+                        dto.getReassignmentReason(),
+                        dto.getChangedById()
+                ));
+
+                String previousStatusName = assignment.getStatus().getName();
+
+                assignment.setAssignedUser(newUser);
+                assignment.setStatus(newStatus);
+                assignment.setStatusReason(statusReason);
+                assignment.setUpdatedBy(dto.getChangedById());
+                assignment.setUpdatedDate(new Date());
+
+                // Going back to NEW can change the project status; the new
+                // assignee gets the reassignment notification instead
+                if (!"NEW".equalsIgnoreCase(previousStatusName)) {
+                    events.add(statusChangedEvent(
+                            assignment, getMilestoneName(assignment), previousStatusName, statusReason, changedBy, false));
+                }
+            }
 
-        project.setStatus(status);
-        project.setUpdatedBy(updatedById);
-        project.setUpdatedDate(new Date());
+            userProductMapRepository.saveAll(userMaps.values());
+            userPerformanceCounter.applyDeltas(counterDeltas.values().stream()
+                    .filter(delta -> delta.assignments() != 0)
+                    .toList());
+            milestoneHistoryBatchRepository.insertAssignmentHistory(history);
+            projectMilestoneAssignmentRepository.saveAll(accepted);
 
-        updateProjectProgress(project);
+            for (ProjectMilestoneAssignment assignment : accepted) {
+                pushProjectAssignmentNotification(assignment, newUser, changedBy, true, dto.getReassignmentReason());
+            }
+            events.forEach(milestoneTransitionPipeline::publish);
+        }
 
-        projectRepository.save(project);
+        logger.info("Bulk milestone reassignment to {} by {} → succeeded: {}, failed: {}",
+                newUser.getFullName(), changedBy.getFullName(), result.getSucceededCount(), result.getFailedCount());
 
+        return result;
     }
 
-    private void updateProjectProgress(Project project) {
+    private List<Long> distinctIds(List<Long> ids) {
+        return ids.stream().filter(Objects::nonNull).distinct().toList();
+    }
 
-        List<ProjectMilestoneAssignment> assignments =
-                projectMilestoneAssignmentRepository.findByProjectIdAndIsDeletedFalse(project.getId());
+    private Map<Long, ProjectMilestoneAssignment> loadAssignments(List<Long> assignmentIds) {
+        return projectMilestoneAssignmentRepository.findActiveByIdIn(assignmentIds).stream()
+                .collect(Collectors.toMap(ProjectMilestoneAssignment::getId, Function.identity()));
+    }
 
-//        if (assignments.isEmpty()) {
-//            project.setProgressPercentage(0.0);
-//            return;
-//        }
+    /**
+     * User-product maps of the given users for the products of the given
+     * assignments, keyed by {@link #userProductKey}.
+     */
+    private Map<String, UserProductMap> loadUserProductMaps(
+            Set<Long> userIds,
+            List<ProjectMilestoneAssignment> assignments
+    ) {
+        if (userIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        Set<Long> productIds = assignments.stream()
+                .map(a -> a.getProject().getProduct().getId())
+                .collect(Collectors.toSet());
 
-        long completedCount = assignments.stream()
-                .filter(a -> a.getStatus() != null)
-                .filter(a -> "COMPLETED".equalsIgnoreCase(a.getStatus().getName()))
-                .count();
+        Map<String, UserProductMap> maps = new HashMap<>();
+        for (UserProductMap map : userProductMapRepository.findByUserIdsAndProductIds(userIds, productIds)) {
+            maps.putIfAbsent(userProductKey(map.getUser().getId(), map.getProduct().getId()), map);
+        }
+        return maps;
+    }
 
-        double progress = (completedCount * 100.0) / assignments.size();
+    private String userProductKey(Long userId, Long productId) {
+        return userId + ":" + productId;
+    }
 
-//        project.setProgressPercentage(progress);
+    private void addCounterDelta(Map<String, Delta> deltas, Long userId, Long productId,
+                                 long assignments, Long updatedById) {
+        deltas.merge(
+                userProductKey(userId, productId),
+                new Delta(userId, productId, assignments, 0.0, updatedById),
+                (a, b) -> new Delta(a.userId(), a.productId(), a.assignments() + b.assignments(),
+                        0.0, a.updatedById())
+        );
     }
 
+    /**
+     * Runs the item's validation and records its outcome. Returns true when
+     * the assignment exists and passed.
+     */
+    private boolean checkItem(
+            BulkMilestoneResultDto result,
+            Long assignmentId,
+            ProjectMilestoneAssignment assignment,
+            Runnable validation
+    ) {
+        BulkMilestoneResultDto.Item item = new BulkMilestoneResultDto.Item();
+        item.setAssignmentId(assignmentId);
+        result.getItems().add(item);
+        result.setRequestedCount(result.getRequestedCount() + 1);
+
+        if (assignment == null) {
+            item.setErrorCode("MILESTONE_ASSIGNMENT_NOT_FOUND");
+            item.setMessage("Milestone assignment not found");
+        } else {
+            item.setProjectId(assignment.getProject().getId());
+            try {
+                validation.run();
+                item.setSuccess(true);
+            } catch (ValidationException e) {
+                item.setErrorCode(e.getErrorCode());
+                item.setMessage(e.getMessage());
+            } catch (ResourceNotFoundException e) {
+                item.setErrorCode(e.getErrorCode());
+                item.setMessage(e.getMessage());
+            }
+        }
+
+        if (item.isSuccess()) {
+            result.setSucceededCount(result.getSucceededCount() + 1);
+        } else {
+            result.setFailedCount(result.getFailedCount() + 1);
+        }
+        return item.isSuccess();
+    }
 
     @Override
     public void sendBackToPreviousMilestone(SendBackToPreviousMilestoneDto dto) {
@@ -1269,21 +1524,21 @@ public class ProjectMilestoneAssignmentServiceImpl implements ProjectMilestoneAs
         }
 
         MilestoneStatus reworkStatus =
-                milestoneStatusRepository.findByName("REWORK")
+                referenceDataService.milestoneStatusByName("REWORK")
                         .orElseThrow(() -> new ResourceNotFoundException(
                                 "REWORK status not found",
                                 "STATUS_NOT_FOUND"
                         ));
 
         MilestoneStatus onHoldStatus =
-                milestoneStatusRepository.findByName("ON_HOLD")
+                referenceDataService.milestoneStatusByName("ON_HOLD")
                         .orElseThrow(() -> new ResourceNotFoundException(
                                 "ON_HOLD status not found",
                                 "STATUS_NOT_FOUND"
                         ));
 
         DocumentStatus rejectedDocumentStatus =
-                documentStatusRepository.findByName("REJECTED")
+                referenceDataService.documentStatusByName("REJECTED")
                         .orElseThrow(() -> new ResourceNotFoundException(
                                 "Document status REJECTED not found",
                                 "STATUS_NOT_FOUND"
@@ -1412,7 +1667,7 @@ public class ProjectMilestoneAssignmentServiceImpl implements ProjectMilestoneAs
 
         projectMilestoneAssignmentRepository.save(currentAssignment);
 
-        updateProjectStatus(project, dto.getChangedById());
+        projectStatusRollup.apply(project, dto.getChangedById());
 
         logger.info(
                 "[MILESTONE-SEND-BACK-SUCCESS] currentAssignmentId={}, previousAssignmentId={}, projectId={}, changedById={}, changedByName={}, previousMilestoneNewStatus={}, currentMilestoneNewStatus={}",
@@ -1455,30 +1710,23 @@ public class ProjectMilestoneAssignmentServiceImpl implements ProjectMilestoneAs
      * during send-back/rework flow.
      */
     private boolean isAdminUser(User user) {
-        if (user == null || user.getRoles() == null) {
+        if (user == null) {
             return false;
         }
 
-        return user.getRoles().stream()
-                .anyMatch(role ->
-                        role != null
-                                && role.getName() != null
-                                && "ADMIN".equalsIgnoreCase(role.getName())
-                );
+        return referenceDataService.roleNames(user.getId()).stream()
+                .anyMatch("ADMIN"::equalsIgnoreCase);
     }
 
     /**
      * Used only for readable authorization logs.
      */
     private List<String> getRoleNamesForLog(User user) {
-        if (user == null || user.getRoles() == null) {
+        if (user == null) {
             return List.of();
         }
 
-        return user.getRoles().stream()
-                .filter(role -> role != null && role.getName() != null)
-                .map(role -> role.getName())
-                .toList();
+        return List.copyOf(referenceDataService.roleNames(user.getId()));
     }
 
 }
\ No newline at end of file
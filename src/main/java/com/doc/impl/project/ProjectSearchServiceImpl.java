@@ -1,115 +1,173 @@
 package com.doc.impl.project;
 
+import com.doc.cache.ReferenceDataService;
 import com.doc.dto.project.ProjectCountResponseDto;
 import com.doc.dto.project.ProjectResponseDto;
 import com.doc.entity.project.Project;
 import com.doc.entity.project.ProjectMilestoneAssignment;
 import com.doc.entity.user.User;
+import com.doc.entity.user.UserHierarchyClosure;
 import com.doc.exception.ResourceNotFoundException;
+import com.doc.hierarchy.UserHierarchyIndex;
+import com.doc.hierarchy.UserScope;
 import com.doc.repository.ProjectRepository;
 import com.doc.repository.UserRepository;
+import com.doc.search.ProjectSearchField;
+import com.doc.search.ProjectSearchIndex;
+import com.doc.search.ProjectSearchQuery;
+import com.doc.search.ProjectSearchResult;
 import com.doc.service.ProjectSearchService;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.criteria.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class ProjectSearchServiceImpl implements ProjectSearchService {
 
+    private static final Logger logger = LoggerFactory.getLogger(ProjectSearchServiceImpl.class);
+
     @Autowired
     private ProjectRepository projectRepository;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ProjectSearchIndex projectSearchIndex;
+
+    @Autowired
+    private ReferenceDataService referenceDataService;
+
+    @Autowired
+    private UserHierarchyIndex userHierarchyIndex;
+
     @PersistenceContext
     private EntityManager entityManager;
 
+    @Value("${search.project.max-results:1000}")
+    private int maxIndexResults;
+
+    private UserScope getAccessibleScope(User user) {
+        return user.isManagerFlag()
+                ? userHierarchyIndex.scopeOf(user.getId())
+                : UserScope.self(user.getId());
+    }
+
     private List<Long> getAccessibleUserIds(User user) {
-        List<Long> userIds = new ArrayList<>();
-        userIds.add(user.getId());
-        if (user.isManagerFlag()) {
-            List<User> subordinates = userRepository.findByManagerIdAndIsDeletedFalse(user.getId());
-            userIds.addAll(subordinates.stream().map(User::getId).collect(Collectors.toList()));
-        }
-        return userIds;
+        return getAccessibleScope(user).userIdList();
     }
 
     @Override
     public List<ProjectResponseDto> searchProjectsByCompanyName(String companyName, Long userId) {
-        User user = userRepository.findActiveUserById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found or deleted", "ERR_USER_NOT_FOUND"));
-        boolean isAdmin = user.getRoles().stream().anyMatch(role -> role.getName().equals("ADMIN"));
-        List<Project> projects;
-        if (isAdmin) {
-            projects = projectRepository.findByCompanyNameContainingAndIsDeletedFalse(companyName);
-        } else {
-            List<Long> accessibleUserIds = getAccessibleUserIds(user);
-            projects = projectRepository.findByCompanyNameContainingAndAssignedUserIdsAndIsDeletedFalse(companyName, accessibleUserIds);
-        }
-        return projects.stream()
-                .map(this::mapToResponseDto)
-                .collect(Collectors.toList());
+        return searchByField(
+                ProjectSearchField.COMPANY,
+                companyName,
+                userId,
+                projectRepository::findByCompanyNameContainingAndIsDeletedFalse,
+                projectRepository::findByCompanyNameContainingAndAssignedUserIdsAndIsDeletedFalse
+        );
     }
 
     @Override
     public List<ProjectResponseDto> searchProjectsByProjectNumber(String projectNumber, Long userId) {
-        User user = userRepository.findActiveUserById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found or deleted", "ERR_USER_NOT_FOUND"));
-        boolean isAdmin = user.getRoles().stream().anyMatch(role -> role.getName().equals("ADMIN"));
-        List<Project> projects;
-        if (isAdmin) {
-            projects = projectRepository.findByProjectNoContainingAndIsDeletedFalse(projectNumber);
-        } else {
-            List<Long> accessibleUserIds = getAccessibleUserIds(user);
-            projects = projectRepository.findByProjectNoContainingAndAssignedUserIdsAndIsDeletedFalse(projectNumber, accessibleUserIds);
-        }
-        return projects.stream()
-                .map(this::mapToResponseDto)
-                .collect(Collectors.toList());
+        return searchByField(
+                ProjectSearchField.PROJECT_NO,
+                projectNumber,
+                userId,
+                projectRepository::findByProjectNoContainingAndIsDeletedFalse,
+                projectRepository::findByProjectNoContainingAndAssignedUserIdsAndIsDeletedFalse
+        );
     }
 
     @Override
     public List<ProjectResponseDto> searchProjectsByContactName(String contactName, Long userId) {
-        User user = userRepository.findActiveUserById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found or deleted", "ERR_USER_NOT_FOUND"));
-        boolean isAdmin = user.getRoles().stream().anyMatch(role -> role.getName().equals("ADMIN"));
-        List<Project> projects;
-        if (isAdmin) {
-            projects = projectRepository.findByContactNameContainingAndIsDeletedFalse(contactName);
-        } else {
-            List<Long> accessibleUserIds = getAccessibleUserIds(user);
-            projects = projectRepository.findByContactNameContainingAndAssignedUserIdsAndIsDeletedFalse(contactName, accessibleUserIds);
-        }
-        return projects.stream()
-                .map(this::mapToResponseDto)
-                .collect(Collectors.toList());
+        return searchByField(
+                ProjectSearchField.CONTACT,
+                contactName,
+                userId,
+                projectRepository::findByContactNameContainingAndIsDeletedFalse,
+                projectRepository::findByContactNameContainingAndAssignedUserIdsAndIsDeletedFalse
+        );
     }
 
     @Override
     public List<ProjectResponseDto> searchProjectsByProjectName(String projectName, Long userId) {
+        return searchByField(
+                ProjectSearchField.PROJECT_NAME,
+                projectName,
+                userId,
+                projectRepository::findByNameContainingAndIsDeletedFalse,
+                projectRepository::findByNameContainingAndAssignedUserIdsAndIsDeletedFalse
+        );
+    }
+
+    /**
+     * Single-field search. Served from the project search index when it is ready
+     * and the hit count is within the configured limit; otherwise the original
+     * LIKE query runs against the database.
+     */
+    private List<ProjectResponseDto> searchByField(
+            ProjectSearchField field,
+            String value,
+            Long userId,
+            Function<String, List<Project>> adminQuery,
+            BiFunction<String, List<Long>, List<Project>> scopedQuery) {
+
         User user = userRepository.findActiveUserById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found or deleted", "ERR_USER_NOT_FOUND"));
-        boolean isAdmin = user.getRoles().stream().anyMatch(role -> role.getName().equals("ADMIN"));
-        List<Project> projects;
-        if (isAdmin) {
-            projects = projectRepository.findByNameContainingAndIsDeletedFalse(projectName);
-        } else {
-            List<Long> accessibleUserIds = getAccessibleUserIds(user);
-            projects = projectRepository.findByNameContainingAndAssignedUserIdsAndIsDeletedFalse(projectName, accessibleUserIds);
+        boolean isAdmin = referenceDataService.roleNames(user.getId()).contains("ADMIN");
+        List<Long> accessibleUserIds = isAdmin ? null : getAccessibleUserIds(user);
+
+        List<Project> projects = null;
+        if (value != null && !value.isBlank()) {
+            projects = searchIndex(ProjectSearchQuery.of(value, EnumSet.of(field), accessibleUserIds, maxIndexResults));
+        }
+        if (projects == null) {
+            projects = isAdmin
+                    ? adminQuery.apply(value)
+                    : scopedQuery.apply(value, accessibleUserIds);
         }
         return projects.stream()
                 .map(this::mapToResponseDto)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Runs the query against the search index and loads the hits.
+     *
+     * @return matching projects, or {@code null} when the caller must use the database
+     */
+    private List<Project> searchIndex(ProjectSearchQuery query) {
+        if (!projectSearchIndex.isReady()) {
+            return null;
+        }
+        try {
+            ProjectSearchResult result = projectSearchIndex.search(query);
+            if (result.truncated()) {
+                return null;
+            }
+            return result.projectIds().isEmpty()
+                    ? List.of()
+                    : projectRepository.findSearchResultsByIdIn(result.projectIds());
+        } catch (Exception e) {
+            logger.warn("Project search index query failed, falling back to database: {}", e.getMessage());
+            return null;
+        }
+    }
+
 
     @Override
     public List<ProjectResponseDto> searchProjects(
@@ -128,8 +186,37 @@ public class ProjectSearchServiceImpl implements ProjectSearchService {
                         )
                 );
 
-        boolean isAdmin = user.getRoles().stream()
-                .anyMatch(role -> role.getName().equals("ADMIN"));
+        boolean isAdmin = referenceDataService.roleNames(user.getId()).contains("ADMIN");
+
+        if (value != null && !value.isBlank()) {
+            ProjectSearchField field = switch (type.toLowerCase()) {
+                case "company" -> ProjectSearchField.COMPANY;
+                case "project-number" -> ProjectSearchField.PROJECT_NO;
+                case "contact" -> ProjectSearchField.CONTACT;
+                case "project-name" -> ProjectSearchField.PROJECT_NAME;
+                default -> throw new IllegalArgumentException("Invalid search type");
+            };
+            String statusFilter = statusName != null && !statusName.isBlank() && !statusName.equalsIgnoreCase("all")
+                    ? statusName
+                    : null;
+
+            List<Project> indexed = searchIndex(new ProjectSearchQuery(
+                    value,
+                    EnumSet.of(field),
+                    true,
+                    statusFilter,
+                    fromDate,
+                    toDate,
+                    null,
+                    isAdmin ? null : getAccessibleUserIds(user),
+                    maxIndexResults
+            ));
+            if (indexed != null) {
+                return indexed.stream()
+                        .map(this::mapToResponseDto)
+                        .collect(Collectors.toList());
+            }
+        }
 
         CriteriaBuilder cb = entityManager.getCriteriaBuilder();
         CriteriaQuery<Project> query = cb.createQuery(Project.class);
@@ -221,17 +308,29 @@ public class ProjectSearchServiceImpl implements ProjectSearchService {
 
         if (!isAdmin) {
 
-            List<Long> accessibleUserIds = getAccessibleUserIds(user);
+            UserScope scope = getAccessibleScope(user);
 
             Subquery<Long> subquery = query.subquery(Long.class);
             Root<ProjectMilestoneAssignment> assignment =
                     subquery.from(ProjectMilestoneAssignment.class);
 
+            Predicate assignedInScope;
+            if (scope.closureJoin()) {
+                // Large team: join the manager's closure rows instead of binding every id
+                Root<UserHierarchyClosure> closure = subquery.from(UserHierarchyClosure.class);
+                assignedInScope = cb.and(
+                        cb.equal(closure.get("ancestorId"), scope.userId()),
+                        cb.equal(closure.get("descendantId"), assignment.get("assignedUser").get("id"))
+                );
+            } else {
+                assignedInScope = assignment.get("assignedUser").get("id").in(scope.userIdList());
+            }
+
             subquery.select(assignment.get("project").get("id"))
                     .where(
                             cb.and(
                                     cb.equal(assignment.get("project"), project),
-                                    assignment.get("assignedUser").get("id").in(accessibleUserIds),
+                                    assignedInScope,
                                     cb.isFalse(assignment.get("isDeleted"))
                             )
                     );
@@ -305,8 +404,7 @@ public class ProjectSearchServiceImpl implements ProjectSearchService {
                 .orElseThrow(() ->
                         new RuntimeException("User not found with id: " + userId));
 
-        boolean isAdmin = user.getRoles().stream()
-                .anyMatch(role -> role.getName().equals("ADMIN"));
+        boolean isAdmin = referenceDataService.roleNames(user.getId()).contains("ADMIN");
 
         long total;
         long open;
@@ -1,6 +1,8 @@
 package com.doc.impl.project;
 
+import com.doc.cache.ReferenceDataService;
 import com.doc.constants.StatusConstants;
+import com.doc.dashboard.DashboardRollupService;
 import com.doc.dto.contact.ContactDetailsDto;
 import com.doc.dto.document.DocumentChecklistDTO;
 import com.doc.dto.project.*;
@@ -21,7 +23,6 @@ import com.doc.entity.document.ProductRequiredDocuments;
 import com.doc.entity.document.ProjectDocumentUpload;
 import com.doc.entity.milestone.Milestone;
 import com.doc.entity.milestone.MilestoneStatus;
-import com.doc.entity.milestone.MilestoneStatusHistory;
 import com.doc.entity.project.*;
 import com.doc.entity.product.Product;
 import com.doc.entity.product.ProductMilestoneMap;
@@ -30,6 +31,8 @@ import com.doc.entity.vendor.ProcurementMilestoneAssignment;
 import com.doc.entity.vendor.VendorStatus;
 import com.doc.exception.ResourceNotFoundException;
 import com.doc.exception.ValidationException;
+import com.doc.hierarchy.UserHierarchyIndex;
+import com.doc.hierarchy.UserScope;
 import com.doc.feign.LeadFeignClient;
 import com.doc.repository.*;
 import com.doc.repository.department.DepartmentAutoConfigRepository;
@@ -38,6 +41,16 @@ import com.doc.repository.documentRepo.DocumentStatusRepository;
 import com.doc.repository.documentRepo.ProjectDocumentUploadRepository;
 import com.doc.repository.projectRepo.ProjectStatusRepository;
 import com.doc.repository.vendor.VendorRepository;
+import com.doc.projectdetail.ProjectDetailCache;
+import com.doc.projectdetail.ProjectDetailReader;
+import com.doc.projectdetail.ProjectDetailView;
+import com.doc.repository.projection.AssignmentHistoryEventProjection;
+import com.doc.repository.projection.StatusHistoryEventProjection;
+import com.doc.search.ProjectSearchField;
+import com.doc.search.ProjectSearchIndex;
+import com.doc.search.ProjectSearchIndexer;
+import com.doc.search.ProjectSearchQuery;
+import com.doc.search.ProjectSearchResult;
 import com.doc.entity.vendor.Vendor;
 import com.doc.service.AutoAssignmentService;
 import com.doc.service.ProjectMailService;
@@ -47,17 +60,20 @@ import com.doc.validator.request.ProjectRequestValidator;
 import feign.FeignException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.*;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -78,10 +94,9 @@ public class ProjectServiceImpl implements ProjectService {
     private final UserPerformanceCountRepository userPerformanceCountRepository;
     private final UserProductMapRepository userProductMapRepository;
     private final UserLoginStatusRepository userOnlineStatusRepository;
-    private final ProductMilestoneMapRepository productMilestoneMapRepository;
     private final ProjectDocumentUploadRepository projectDocumentUploadRepository;
     private final MilestoneStatusHistoryRepository milestoneStatusHistoryRepository;
-    private final MilestoneStatusRepository milestoneStatusRepository;
+    private final ReferenceDataService referenceDataService;
     private final ProjectStatusRepository projectStatusRepository;
     private final AutoAssignmentService autoAssignmentService;
     private final ProjectRequestValidator projectRequestValidator;
@@ -93,6 +108,29 @@ public class ProjectServiceImpl implements ProjectService {
     private final ProjectMailService projectMailService;
 
     private final LeadFeignClient leadFeignClient;
+    private final ProjectMilestoneAssignmentBatchRepository projectMilestoneAssignmentBatchRepository;
+    private final ProjectBatchRepository projectBatchRepository;
+    private final TransactionTemplate bulkTransactionTemplate;
+    private final ProjectSearchIndex projectSearchIndex;
+    private final UserHierarchyIndex userHierarchyIndex;
+    private final TransactionTemplate visibilityTransactionTemplate;
+    private final ProjectDetailReader projectDetailReader;
+    private final ProjectDetailCache projectDetailCache;
+    private final ProjectSearchIndexer projectSearchIndexer;
+    private final DashboardRollupService dashboardRollupService;
+
+    /** Upper bound on rows accepted by a single bulk create call. */
+    private static final int BULK_CREATE_MAX_ROWS = 500;
+
+    /** Bulk rows written per transaction; a failed chunk is retried row by row. */
+    private static final int BULK_INSERT_CHUNK_ROWS = 50;
+
+    /** Above this many index hits the dashboard search uses the database query instead. */
+    private static final int DASHBOARD_SEARCH_MAX_HITS = 1000;
+
+    private static final int VISIBILITY_BACKFILL_MAX_BATCH = 1000;
+
+    private static final int TIMELINE_MAX_PAGE_SIZE = 200;
 
 
     public ProjectServiceImpl(
@@ -109,10 +147,9 @@ public class ProjectServiceImpl implements ProjectService {
             UserPerformanceCountRepository userPerformanceCountRepository,
             UserProductMapRepository userProductMapRepository,
             UserLoginStatusRepository userOnlineStatusRepository,
-            ProductMilestoneMapRepository productMilestoneMapRepository,
             ProjectDocumentUploadRepository projectDocumentUploadRepository,
             MilestoneStatusHistoryRepository milestoneStatusHistoryRepository,
-            MilestoneStatusRepository milestoneStatusRepository,
+            ReferenceDataService referenceDataService,
             DocumentStatusRepository documentStatusRepository,
             ProjectStatusRepository projectStatusRepository,
             DepartmentAutoConfigRepository departmentAutoConfigRepository,
@@ -125,7 +162,16 @@ public class ProjectServiceImpl implements ProjectService {
             ApplicantTypeRepository applicantTypeRepository,
             ProcurementMilestoneAssignmentRepository procurementMilestoneAssignmentRepository,
             ProjectMailService projectMailService,
-            LeadFeignClient leadFeignClient
+            LeadFeignClient leadFeignClient,
+            ProjectMilestoneAssignmentBatchRepository projectMilestoneAssignmentBatchRepository,
+            ProjectBatchRepository projectBatchRepository,
+            PlatformTransactionManager transactionManager,
+            ProjectSearchIndex projectSearchIndex,
+            UserHierarchyIndex userHierarchyIndex,
+            ProjectDetailReader projectDetailReader,
+            ProjectDetailCache projectDetailCache,
+            ProjectSearchIndexer projectSearchIndexer,
+            DashboardRollupService dashboardRollupService
     ) {
         this.projectRepository = projectRepository;
         this.userRepository = userRepository;
@@ -140,10 +186,9 @@ public class ProjectServiceImpl implements ProjectService {
         this.userPerformanceCountRepository = userPerformanceCountRepository;
         this.userProductMapRepository = userProductMapRepository;
         this.userOnlineStatusRepository = userOnlineStatusRepository;
-        this.productMilestoneMapRepository = productMilestoneMapRepository;
         this.projectDocumentUploadRepository = projectDocumentUploadRepository;
         this.milestoneStatusHistoryRepository = milestoneStatusHistoryRepository;
-        this.milestoneStatusRepository = milestoneStatusRepository;
+        this.referenceDataService = referenceDataService;
         this.projectStatusRepository = projectStatusRepository;
         this.autoAssignmentService = autoAssignmentService;
         this.projectRequestValidator = projectRequestValidator;
@@ -154,6 +199,19 @@ public class ProjectServiceImpl implements ProjectService {
         this.procurementMilestoneAssignmentRepository = procurementMilestoneAssignmentRepository;
         this.projectMailService = projectMailService;
         this.leadFeignClient = leadFeignClient;
+        this.projectMilestoneAssignmentBatchRepository = projectMilestoneAssignmentBatchRepository;
+        this.projectBatchRepository = projectBatchRepository;
+        this.bulkTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.bulkTransactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+        this.bulkTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.projectSearchIndex = projectSearchIndex;
+        this.userHierarchyIndex = userHierarchyIndex;
+        this.projectDetailReader = projectDetailReader;
+        this.projectDetailCache = projectDetailCache;
+        this.projectSearchIndexer = projectSearchIndexer;
+        this.dashboardRollupService = dashboardRollupService;
+        this.visibilityTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.visibilityTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
     @Override
@@ -194,7 +252,7 @@ public class ProjectServiceImpl implements ProjectService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found", "ERR_USER_NOT_FOUND"));
         User approvedBy = userRepository.findActiveUserById(requestDto.getApprovedById())
                 .orElseThrow(() -> new ResourceNotFoundException("Approved by user not found", "ERR_APPROVED_BY_NOT_FOUND"));
-        PaymentType paymentType = paymentTypeRepository.findById(requestDto.getPaymentTypeId())
+        PaymentType paymentType = referenceDataService.paymentType(requestDto.getPaymentTypeId())
                 .orElseThrow(() -> new ResourceNotFoundException("Payment type not found", "ERR_PAYMENT_TYPE_NOT_FOUND"));
 
         List<ProductMilestoneMap> milestones = getMilestoneMaps(product.getId());
@@ -204,45 +262,15 @@ public class ProjectServiceImpl implements ProjectService {
 
         double totalAmount = requestDto.getTotalAmount();
         double paidAmount = requestDto.getPaidAmount() != null ? requestDto.getPaidAmount() : 0.0;
-        double dueAmount = totalAmount - paidAmount;
 
         String paymentTypeName = paymentType.getName();
         validatePaymentRules(paymentTypeName, paidAmount, totalAmount);
 
-        Project project = new Project();
-        mapRequestDtoToProject(project, requestDto);
-        project.setProduct(product);
-        project.setCompany(company);
-        project.setContact(contact);
-        project.setCreatedBy(createdBy.getId());
-        project.setUpdatedBy(updatedBy.getId());
-        project.setCreatedDate(new Date());
-        project.setUpdatedDate(new Date());
-        project.setDeleted(false);
-        project.setSalesPersonId(requestDto.getSalesPersonId());
-        project.setSalesPersonName(requestDto.getSalesPersonName());
-        project.setActive(true);
-        project.setUnit(unit);
-
-
-        ProjectStatus openStatus = projectStatusRepository.findById(StatusConstants.PROJECT_OPEN_ID)
+        ProjectStatus openStatus = referenceDataService.projectStatus(StatusConstants.PROJECT_OPEN_ID)
                 .orElseThrow(() -> new ResourceNotFoundException("System status OPEN (ID=1) not found", "ERR_SYSTEM_STATUS_MISSING"));
-        project.setStatus(openStatus);
 
-        ProjectPaymentDetail paymentDetail = new ProjectPaymentDetail();
-        paymentDetail.setProject(project);
-        paymentDetail.setTotalAmount(totalAmount);
-        paymentDetail.setDueAmount(dueAmount);
-        paymentDetail.setPaymentType(paymentType);
-        paymentDetail.setApprovedBy(approvedBy);
-        paymentDetail.setCreatedBy(createdBy.getId());
-        paymentDetail.setUpdatedBy(updatedBy.getId());
-        paymentDetail.setCreatedDate(new Date());
-        paymentDetail.setUpdatedDate(new Date());
-        paymentDetail.setDate(LocalDate.now());
-        paymentDetail.setDeleted(false);
-
-        project.setPaymentDetail(paymentDetail);
+        Project project = buildNewProject(requestDto, product, company, unit, contact,
+                createdBy, updatedBy, approvedBy, paymentType, openStatus);
 
         Map<String, Object> solutionDetails = leadFeignClient.getSolutionByIdOnly(product.getId());
 
@@ -250,6 +278,7 @@ public class ProjectServiceImpl implements ProjectService {
 
         ProjectPriority priority = calculateProjectPrioritySafely(
                 product.getId(),
+                solutionDetails,
                 company.getRating(),
                 totalAmount
         );
@@ -285,7 +314,7 @@ public class ProjectServiceImpl implements ProjectService {
             projectPaymentTransactionRepository.save(transaction);
         }
 
-        MilestoneStatus newStatus = milestoneStatusRepository.findById(StatusConstants.MILESTONE_NEW_ID)
+        MilestoneStatus newStatus = referenceDataService.milestoneStatus(StatusConstants.MILESTONE_NEW_ID)
                 .orElseThrow(() -> new ResourceNotFoundException("Milestone status NEW (ID=1) not found", "ERR_SYSTEM_STATUS_MISSING"));
 
         for (ProductMilestoneMap milestone : milestones) {
@@ -306,14 +335,472 @@ public class ProjectServiceImpl implements ProjectService {
         updateMilestoneVisibilities(project, createdBy.getId());
         return mapToResponseDto(project);
     }
+
+    /**
+     * Creates many projects in one call.
+     *
+     * Reference data (products, companies, units, contacts, users, payment types,
+     * duplicate numbers) is resolved with one set-based query per type, Lead-service
+     * solution lookups are made once per distinct product, and project, payment and
+     * milestone rows are written with JDBC batches. The visible milestones of a row are
+     * auto-assigned in one pass per (department, product). Rows are committed in chunks
+     * of {@value #BULK_INSERT_CHUNK_ROWS}; a failed chunk is retried one row per transaction
+     * so one bad row does not roll back the others. Failures are reported per row.
+     */
+    @Override
+    public BulkProjectCreateResponseDto createProjectsInBulk(List<ProjectRequestDto> requestDtos) {
+        if (requestDtos == null || requestDtos.isEmpty()) {
+            throw new ValidationException("At least one project is required", "ERR_EMPTY_BULK_REQUEST");
+        }
+        if (requestDtos.size() > BULK_CREATE_MAX_ROWS) {
+            throw new ValidationException(
+                    "Bulk create supports at most " + BULK_CREATE_MAX_ROWS + " projects per request",
+                    "ERR_BULK_REQUEST_TOO_LARGE"
+            );
+        }
+
+        logger.info("Bulk project creation started. rows={}", requestDtos.size());
+
+        BulkProjectCreateResultDto[] results = new BulkProjectCreateResultDto[requestDtos.size()];
+        List<Integer> pending = new ArrayList<>();
+
+        /*
+         * Row validation and in-request duplicate detection.
+         */
+        Set<String> seenProjectNos = new HashSet<>();
+        Set<String> seenUnbilledNumbers = new HashSet<>();
+        Set<String> seenEstimateNumbers = new HashSet<>();
+
+        for (int i = 0; i < requestDtos.size(); i++) {
+            ProjectRequestDto dto = requestDtos.get(i);
+            try {
+                if (dto == null) {
+                    throw new ValidationException("Project row is empty", "ERR_EMPTY_ROW");
+                }
+                projectRequestValidator.validate(dto);
+
+                if (!seenProjectNos.add(dto.getProjectNo().trim())) {
+                    throw new ValidationException("Project number repeated in request", "ERR_DUPLICATE_PROJECT_NO");
+                }
+                if (StringUtils.hasText(dto.getUnbilledNumber())
+                        && !seenUnbilledNumbers.add(dto.getUnbilledNumber().trim())) {
+                    throw new ValidationException("Unbilled number repeated in request", "ERR_DUPLICATE_UNBILLED_NO");
+                }
+                if (StringUtils.hasText(dto.getEstimateNumber())
+                        && !seenEstimateNumbers.add(dto.getEstimateNumber().trim())) {
+                    throw new ValidationException("Estimate number repeated in request", "ERR_DUPLICATE_ESTIMATE_NO");
+                }
+                pending.add(i);
+            } catch (RuntimeException ex) {
+                results[i] = bulkFailure(i, dto, ex);
+            }
+        }
+
+        /*
+         * Set-based prefetch of everything the rows reference.
+         */
+        List<ProjectRequestDto> pendingDtos = pending.stream().map(requestDtos::get).toList();
+
+        Set<String> existingProjectNos = seenProjectNos.isEmpty() ? Set.of()
+                : new HashSet<>(projectRepository.findExistingProjectNos(seenProjectNos));
+        Set<String> existingUnbilledNumbers = seenUnbilledNumbers.isEmpty() ? Set.of()
+                : new HashSet<>(projectRepository.findExistingUnbilledNumbers(seenUnbilledNumbers));
+        Set<String> existingEstimateNumbers = seenEstimateNumbers.isEmpty() ? Set.of()
+                : new HashSet<>(projectRepository.findExistingEstimateNumbers(seenEstimateNumbers));
+
+        Map<Long, Product> products = indexById(
+                collectIds(pendingDtos, ProjectRequestDto::getProductId),
+                productRepository::findActiveByIdIn, Product::getId);
+        Map<Long, Company> companies = indexById(
+                collectIds(pendingDtos, ProjectRequestDto::getCompanyId),
+                companyRepository::findActiveByIdIn, Company::getId);
+        Map<Long, CompanyUnit> units = indexById(
+                collectIds(pendingDtos, ProjectRequestDto::getUnitId),
+                companyUnitRepository::findByIdInAndIsDeletedFalse, CompanyUnit::getId);
+        Map<Long, Contact> contacts = indexById(
+                collectIds(pendingDtos, ProjectRequestDto::getContactId),
+                contactRepository::findActiveByIdIn, Contact::getId);
+
+        Set<Long> userIds = new HashSet<>();
+        userIds.addAll(collectIds(pendingDtos, ProjectRequestDto::getCreatedBy));
+        userIds.addAll(collectIds(pendingDtos, ProjectRequestDto::getUpdatedBy));
+        userIds.addAll(collectIds(pendingDtos, ProjectRequestDto::getApprovedById));
+        Map<Long, User> users = indexById(userIds, userRepository::findActiveUsersByIdIn, User::getId);
+
+        Map<Long, PaymentType> paymentTypes = indexById(
+                collectIds(pendingDtos, ProjectRequestDto::getPaymentTypeId),
+                paymentTypeRepository::findAllById, PaymentType::getId);
+
+        ProjectStatus openStatus = referenceDataService.projectStatus(StatusConstants.PROJECT_OPEN_ID)
+                .orElseThrow(() -> new ResourceNotFoundException("System status OPEN (ID=1) not found", "ERR_SYSTEM_STATUS_MISSING"));
+        MilestoneStatus newStatus = referenceDataService.milestoneStatus(StatusConstants.MILESTONE_NEW_ID)
+                .orElseThrow(() -> new ResourceNotFoundException("Milestone status NEW (ID=1) not found", "ERR_SYSTEM_STATUS_MISSING"));
+
+        Map<Long, List<ProductMilestoneMap>> milestonesByProduct = new HashMap<>();
+        Map<Long, Object> solutionsByProduct = new HashMap<>();
+
+        /*
+         * Per-row resolution; rows that fail are reported and not written.
+         */
+        List<BulkProjectInsert> inserts = new ArrayList<>();
+        for (Integer i : pending) {
+            ProjectRequestDto dto = requestDtos.get(i);
+            try {
+                BulkProjectRow row = resolveBulkRow(dto, existingProjectNos, existingUnbilledNumbers,
+                        existingEstimateNumbers, products, companies, units, contacts, users, paymentTypes);
+
+                List<ProductMilestoneMap> milestones = milestonesByProduct.computeIfAbsent(
+                        row.product().getId(), this::getMilestoneMaps);
+                if (milestones.isEmpty()) {
+                    throw new ValidationException("No milestones defined for product ID " + row.product().getId(), "ERR_NO_MILESTONES");
+                }
+
+                Map<String, Object> solutionDetails = lookupSolutionOnce(row.product().getId(), solutionsByProduct);
+                double professionalFee = extractProfessionalFee(solutionDetails);
+                ProjectPriority priority = calculateProjectPrioritySafely(
+                        row.product().getId(), solutionDetails, row.company().getRating(), dto.getTotalAmount());
+
+                logger.info("Bulk row {} priority calculated. projectNo={}, professionalFee={}, priority={}",
+                        i, dto.getProjectNo(), professionalFee, priority);
+
+                inserts.add(new BulkProjectInsert(i, dto, row, milestones, priority));
+            } catch (RuntimeException ex) {
+                logger.warn("Bulk row {} failed. projectNo={}, reason={}", i, dto.getProjectNo(), ex.getMessage());
+                results[i] = bulkFailure(i, dto, ex);
+            }
+        }
+
+        /*
+         * Chunked write, one transaction per chunk. If a chunk fails, its rows
+         * are retried one per transaction so one bad row does not fail the others.
+         */
+        for (int from = 0; from < inserts.size(); from += BULK_INSERT_CHUNK_ROWS) {
+            List<BulkProjectInsert> chunk = inserts.subList(from, Math.min(from + BULK_INSERT_CHUNK_ROWS, inserts.size()));
+            try {
+                writeBulkChunk(chunk, results, openStatus, newStatus);
+            } catch (RuntimeException chunkEx) {
+                if (chunk.size() == 1) {
+                    reportBulkWriteFailure(chunk.get(0), chunkEx, results);
+                    continue;
+                }
+                logger.warn("Bulk chunk of {} rows failed, retrying row by row. reason={}",
+                        chunk.size(), chunkEx.getMessage());
+                for (BulkProjectInsert insert : chunk) {
+                    try {
+                        writeBulkChunk(List.of(insert), results, openStatus, newStatus);
+                    } catch (RuntimeException ex) {
+                        reportBulkWriteFailure(insert, ex, results);
+                    }
+                }
+            }
+        }
+
+        BulkProjectCreateResponseDto response = new BulkProjectCreateResponseDto();
+        response.setTotalCount(results.length);
+        response.setResults(Arrays.asList(results));
+        response.setCreatedCount((int) response.getResults().stream().filter(BulkProjectCreateResultDto::isCreated).count());
+        response.setFailedCount(response.getTotalCount() - response.getCreatedCount());
+
+        logger.info("Bulk project creation finished. total={}, created={}, failed={}",
+                response.getTotalCount(), response.getCreatedCount(), response.getFailedCount());
+        return response;
+    }
+
+    private BulkProjectRow resolveBulkRow(
+            ProjectRequestDto dto,
+            Set<String> existingProjectNos,
+            Set<String> existingUnbilledNumbers,
+            Set<String> existingEstimateNumbers,
+            Map<Long, Product> products,
+            Map<Long, Company> companies,
+            Map<Long, CompanyUnit> units,
+            Map<Long, Contact> contacts,
+            Map<Long, User> users,
+            Map<Long, PaymentType> paymentTypes
+    ) {
+        if (existingProjectNos.contains(dto.getProjectNo().trim())) {
+            throw new ValidationException("Project with number " + dto.getProjectNo() + " already exists", "ERR_DUPLICATE_PROJECT_NO");
+        }
+        if (StringUtils.hasText(dto.getUnbilledNumber())
+                && existingUnbilledNumbers.contains(dto.getUnbilledNumber().trim())) {
+            throw new ValidationException("Unbilled number already exists", "ERR_DUPLICATE_UNBILLED_NO");
+        }
+        if (StringUtils.hasText(dto.getEstimateNumber())
+                && existingEstimateNumbers.contains(dto.getEstimateNumber().trim())) {
+            throw new ValidationException("Estimate number already exists", "ERR_DUPLICATE_ESTIMATE_NO");
+        }
+
+        Product product = Optional.ofNullable(products.get(dto.getProductId()))
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found", "ERR_PRODUCT_NOT_FOUND"));
+        Company company = Optional.ofNullable(companies.get(dto.getCompanyId()))
+                .orElseThrow(() -> new ResourceNotFoundException("Company not found or deleted", "ERR_COMPANY_NOT_FOUND"));
+
+        CompanyUnit unit = null;
+        if (dto.getUnitId() != null) {
+            unit = Optional.ofNullable(units.get(dto.getUnitId()))
+                    .filter(u -> u.getCompany() != null && dto.getCompanyId().equals(u.getCompany().getId()))
+                    .orElseThrow(() -> new ResourceNotFoundException("Unit not found or doesn't belong to company", "ERR_UNIT_NOT_FOUND"));
+        }
+
+        Contact contact = Optional.ofNullable(contacts.get(dto.getContactId()))
+                .orElseThrow(() -> new ResourceNotFoundException("Contact not found, inactive or deleted", "ERR_CONTACT_NOT_FOUND"));
+        User createdBy = Optional.ofNullable(users.get(dto.getCreatedBy()))
+                .orElseThrow(() -> new ResourceNotFoundException("User not found", "ERR_USER_NOT_FOUND"));
+        User updatedBy = Optional.ofNullable(users.get(dto.getUpdatedBy()))
+                .orElseThrow(() -> new ResourceNotFoundException("User not found", "ERR_USER_NOT_FOUND"));
+        User approvedBy = Optional.ofNullable(users.get(dto.getApprovedById()))
+                .orElseThrow(() -> new ResourceNotFoundException("Approved by user not found", "ERR_APPROVED_BY_NOT_FOUND"));
+        PaymentType paymentType = Optional.ofNullable(paymentTypes.get(dto.getPaymentTypeId()))
+                .orElseThrow(() -> new ResourceNotFoundException("Payment type not found", "ERR_PAYMENT_TYPE_NOT_FOUND"));
+
+        double paidAmount = dto.getPaidAmount() != null ? dto.getPaidAmount() : 0.0;
+        validatePaymentRules(paymentType.getName(), paidAmount, dto.getTotalAmount());
+
+        return new BulkProjectRow(product, company, unit, contact, createdBy, updatedBy, approvedBy, paymentType);
+    }
+
+    /**
+     * Writes a chunk of bulk rows in one transaction, then sends the
+     * project-created mails and records the results.
+     */
+    private void writeBulkChunk(
+            List<BulkProjectInsert> chunk,
+            BulkProjectCreateResultDto[] results,
+            ProjectStatus openStatus,
+            MilestoneStatus newStatus
+    ) {
+        List<Project> projects = bulkTransactionTemplate.execute(status ->
+                persistBulkRows(chunk, openStatus, newStatus));
+
+        for (int k = 0; k < chunk.size(); k++) {
+            BulkProjectInsert insert = chunk.get(k);
+            Project project = projects.get(k);
+            try {
+                projectMailService.sendProjectCreatedMail(project, insert.row().contact());
+            } catch (Exception e) {
+                logger.error("Failed to send project created mail to client contact: {}", insert.row().contact().getEmail(), e);
+            }
+
+            BulkProjectCreateResultDto result = new BulkProjectCreateResultDto();
+            result.setIndex(insert.index());
+            result.setProjectNo(project.getProjectNo());
+            result.setCreated(true);
+            result.setProjectId(project.getId());
+            results[insert.index()] = result;
+        }
+    }
+
+    private void reportBulkWriteFailure(BulkProjectInsert insert, RuntimeException ex, BulkProjectCreateResultDto[] results) {
+        logger.warn("Bulk row {} failed. projectNo={}, reason={}", insert.index(), insert.dto().getProjectNo(), ex.getMessage());
+        results[insert.index()] = bulkFailure(insert.index(), insert.dto(), ex);
+    }
+
+    /**
+     * Inserts the projects, payment rows and milestone rows of a chunk with
+     * one JDBC batch per table, then runs the visibility update per project
+     * on the loaded entities. Returns the inserted (unmanaged) projects in
+     * chunk order; they keep the resolved references for the mails.
+     */
+    private List<Project> persistBulkRows(
+            List<BulkProjectInsert> chunk,
+            ProjectStatus openStatus,
+            MilestoneStatus newStatus
+    ) {
+        List<Project> projects = new ArrayList<>(chunk.size());
+        for (BulkProjectInsert insert : chunk) {
+            BulkProjectRow row = insert.row();
+            Project project = buildNewProject(insert.dto(), row.product(), row.company(), row.unit(), row.contact(),
+                    row.createdBy(), row.updatedBy(), row.approvedBy(), row.paymentType(), openStatus);
+            project.setPriority(insert.priority());
+            projects.add(project);
+        }
+        projectBatchRepository.insertNewProjects(projects);
+
+        List<ProjectPaymentTransaction> transactions = new ArrayList<>();
+        List<ProjectMilestoneAssignment> assignments = new ArrayList<>();
+        for (int k = 0; k < chunk.size(); k++) {
+            BulkProjectInsert insert = chunk.get(k);
+            BulkProjectRow row = insert.row();
+            Project project = projects.get(k);
+
+            double paidAmount = insert.dto().getPaidAmount() != null ? insert.dto().getPaidAmount() : 0.0;
+            if (paidAmount > 0) {
+                ProjectPaymentTransaction transaction = new ProjectPaymentTransaction();
+                transaction.setProject(project);
+                transaction.setAmount(paidAmount);
+                transaction.setTransactionDate(new Date());
+                transaction.setCreatedBy(row.createdBy().getId());
+                transaction.setCreatedDate(new Date());
+                transactions.add(transaction);
+            }
+
+            for (ProductMilestoneMap milestone : insert.milestones()) {
+                ProjectMilestoneAssignment assignment = new ProjectMilestoneAssignment();
+                assignment.setProject(project);
+                assignment.setProductMilestoneMap(milestone);
+                assignment.setMilestone(milestone.getMilestone());
+                assignment.setStatus(newStatus);
+                assignment.setCreatedBy(row.createdBy().getId());
+                assignment.setUpdatedBy(row.updatedBy().getId());
+                assignment.setCreatedDate(new Date());
+                assignment.setUpdatedDate(new Date());
+                assignment.setDate(LocalDate.now());
+                assignment.setDeleted(false);
+                assignments.add(assignment);
+            }
+        }
+        projectBatchRepository.insertPaymentTransactions(transactions);
+        projectMilestoneAssignmentBatchRepository.insertNewAssignments(assignments);
+
+        Map<Long, Project> loaded = indexById(
+                projects.stream().map(Project::getId).collect(Collectors.toSet()),
+                projectRepository::findAllById, Project::getId);
+        for (int k = 0; k < chunk.size(); k++) {
+            Long projectId = projects.get(k).getId();
+
+            // The batch inserts bypass the entity listeners.
+            projectSearchIndexer.projectChanged(projectId);
+            dashboardRollupService.projectChanged(projectId);
+            projectDetailCache.projectChanged(projectId);
+
+            updateMilestoneVisibilities(loaded.get(projectId), chunk.get(k).row().createdBy().getId());
+        }
+        return projects;
+    }
+
+    /**
+     * Calls Lead service at most once per product within a bulk request.
+     * A failed lookup is remembered and rethrown for every row of that product.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> lookupSolutionOnce(Long productId, Map<Long, Object> solutionsByProduct) {
+        Object cached = solutionsByProduct.computeIfAbsent(productId, id -> {
+            try {
+                return leadFeignClient.getSolutionByIdOnly(id);
+            } catch (RuntimeException ex) {
+                return ex;
+            }
+        });
+        if (cached instanceof RuntimeException ex) {
+            throw ex;
+        }
+        return (Map<String, Object>) cached;
+    }
+
+    private BulkProjectCreateResultDto bulkFailure(int index, ProjectRequestDto dto, RuntimeException ex) {
+        BulkProjectCreateResultDto result = new BulkProjectCreateResultDto();
+        result.setIndex(index);
+        result.setProjectNo(dto != null ? dto.getProjectNo() : null);
+        result.setCreated(false);
+        result.setMessage(ex.getMessage());
+        if (ex instanceof ValidationException validationException) {
+            result.setErrorCode(validationException.getErrorCode());
+        } else if (ex instanceof ResourceNotFoundException notFoundException) {
+            result.setErrorCode(notFoundException.getErrorCode());
+        } else {
+            result.setErrorCode("ERR_PROJECT_CREATE_FAILED");
+        }
+        return result;
+    }
+
+    private static Set<Long> collectIds(List<ProjectRequestDto> dtos, Function<ProjectRequestDto, Long> idGetter) {
+        return dtos.stream()
+                .map(idGetter)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+
+    private static <T> Map<Long, T> indexById(Set<Long> ids,
+                                              Function<Set<Long>, List<T>> loader,
+                                              Function<T, Long> idGetter) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return loader.apply(ids).stream()
+                .collect(Collectors.toMap(idGetter, Function.identity(), (a, b) -> a));
+    }
+
+    private record BulkProjectInsert(
+            int index,
+            ProjectRequestDto dto,
+            BulkProjectRow row,
+            List<ProductMilestoneMap> milestones,
+            ProjectPriority priority
+    ) {
+    }
+
+    private record BulkProjectRow(
+            Product product,
+            Company company,
+            CompanyUnit unit,
+            Contact contact,
+            User createdBy,
+            User updatedBy,
+            User approvedBy,
+            PaymentType paymentType
+    ) {
+    }
+
+    /**
+     * Builds an unsaved project with its payment detail from already-resolved references.
+     * Shared by single and bulk creation.
+     */
+    private Project buildNewProject(
+            ProjectRequestDto requestDto,
+            Product product,
+            Company company,
+            CompanyUnit unit,
+            Contact contact,
+            User createdBy,
+            User updatedBy,
+            User approvedBy,
+            PaymentType paymentType,
+            ProjectStatus openStatus
+    ) {
+        double totalAmount = requestDto.getTotalAmount();
+        double paidAmount = requestDto.getPaidAmount() != null ? requestDto.getPaidAmount() : 0.0;
+        double dueAmount = totalAmount - paidAmount;
+
+        Project project = new Project();
+        mapRequestDtoToProject(project, requestDto);
+        project.setProduct(product);
+        project.setCompany(company);
+        project.setContact(contact);
+        project.setCreatedBy(createdBy.getId());
+        project.setUpdatedBy(updatedBy.getId());
+        project.setCreatedDate(new Date());
+        project.setUpdatedDate(new Date());
+        project.setDeleted(false);
+        project.setSalesPersonId(requestDto.getSalesPersonId());
+        project.setSalesPersonName(requestDto.getSalesPersonName());
+        project.setActive(true);
+        project.setUnit(unit);
+        project.setStatus(openStatus);
+
+        ProjectPaymentDetail paymentDetail = new ProjectPaymentDetail();
+        paymentDetail.setProject(project);
+        paymentDetail.setTotalAmount(totalAmount);
+        paymentDetail.setDueAmount(dueAmount);
+        paymentDetail.setPaymentType(paymentType);
+        paymentDetail.setApprovedBy(approvedBy);
+        paymentDetail.setCreatedBy(createdBy.getId());
+        paymentDetail.setUpdatedBy(updatedBy.getId());
+        paymentDetail.setCreatedDate(new Date());
+        paymentDetail.setUpdatedDate(new Date());
+        paymentDetail.setDate(LocalDate.now());
+        paymentDetail.setDeleted(false);
+
+        project.setPaymentDetail(paymentDetail);
+        return project;
+    }
+
     private ProjectPriority calculateProjectPrioritySafely(
             Long solutionId,
+            Map<String, Object> solutionDetails,
             String companyRating,
             double projectTotalAmount
     ) {
         try {
-            Map<String, Object> solutionDetails = leadFeignClient.getSolutionByIdOnly(solutionId);
-
             double professionalFee = extractProfessionalFee(solutionDetails);
 
             return calculateProjectPriorityByCompanyRating(
@@ -465,8 +952,8 @@ public class ProjectServiceImpl implements ProjectService {
         User user = userRepository.findActiveUserById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found", "ERR_USER_NOT_FOUND"));
 
-        boolean isAdmin = user.getRoles().stream().anyMatch(r -> "ADMIN".equals(r.getName()));
-        boolean isOpHead = user.getRoles().stream().anyMatch(r -> "OPERATION_HEAD".equals(r.getName()));
+        boolean isAdmin = referenceDataService.roleNames(user.getId()).contains("ADMIN");
+        boolean isOpHead = referenceDataService.roleNames(user.getId()).contains("OPERATION_HEAD");
 
         Pageable pageable = PageRequest.of(page, size,
                 Sort.by(Sort.Direction.DESC, "createdDate"));
@@ -481,32 +968,16 @@ public class ProjectServiceImpl implements ProjectService {
         if (isAdmin || isOpHead) {
             projectPage = projectRepository.findByIsDeletedFalseAndStatusIn(normalizedStatuses, pageable);
         } else {
-            List<Long> candidateUserIds = new ArrayList<>(List.of(userId));
-            if (user.isManagerFlag()) {
-                List<User> subordinates = userRepository.findByManagerIdAndIsDeletedFalse(userId);
-                candidateUserIds.addAll(subordinates.stream().map(User::getId).toList());
-            }
-
-            projectPage = projectRepository.findByAssignedUserIdsAndStatusIn(candidateUserIds, normalizedStatuses, pageable);
-
-            // For regular users - filter projects with no visible milestones
+            // Regular users only see projects where one of their milestones is visible.
+            // Visibility is kept current on write (creation, payments, milestone completion,
+            // reopen), so this is a single paged query.
             if (!user.isManagerFlag()) {
-                List<Project> filteredProjects = new ArrayList<>();
-
-                for (Project project : projectPage.getContent()) {
-                    updateMilestoneVisibilities(project, userId);
-
-                    boolean hasVisibleMilestone = projectMilestoneAssignmentRepository
-                            .findByProjectIdAndAssignedUserIdAndIsVisibleTrueAndIsDeletedFalse(project.getId(), userId)
-                            .size() > 0;
-
-                    if (hasVisibleMilestone) {
-                        filteredProjects.add(project);
-                    }
-                }
-
-                filteredProjects.sort(Comparator.comparing(Project::getCreatedDate, Comparator.reverseOrder()));
-                projectPage = new PageImpl<>(filteredProjects, pageable, filteredProjects.size());
+                projectPage = projectRepository.findWithVisibleMilestoneForUserAndStatusIn(userId, normalizedStatuses, pageable);
+            } else {
+                UserScope scope = userHierarchyIndex.scopeOf(userId);
+                projectPage = scope.closureJoin()
+                        ? projectRepository.findByManagerScopeAndStatusIn(userId, normalizedStatuses, pageable)
+                        : projectRepository.findByAssignedUserIdsAndStatusIn(scope.userIdList(), normalizedStatuses, pageable);
             }
         }
 
@@ -521,16 +992,16 @@ public class ProjectServiceImpl implements ProjectService {
         User user = userRepository.findActiveUserById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found", "ERR_USER_NOT_FOUND"));
 
-        boolean isAdmin = user.getRoles().stream().anyMatch(r -> "ADMIN".equals(r.getName()));
+        boolean isAdmin = referenceDataService.roleNames(user.getId()).contains("ADMIN");
         if (isAdmin) {
             return projectRepository.countByIsDeletedFalse();
+        } else if (!user.isManagerFlag()) {
+            return projectRepository.countWithVisibleMilestoneForUser(userId);
         } else {
-            List<Long> userIds = new ArrayList<>(List.of(userId));
-            if (user.isManagerFlag()) {
-                List<User> subordinates = userRepository.findByManagerIdAndIsDeletedFalse(userId);
-                userIds.addAll(subordinates.stream().map(User::getId).toList());
-            }
-            return projectRepository.countByAssignedUserIds(userIds);
+            UserScope scope = userHierarchyIndex.scopeOf(userId);
+            return scope.closureJoin()
+                    ? projectRepository.countByManagerScope(userId)
+                    : projectRepository.countByAssignedUserIds(scope.userIdList());
         }
     }
 
@@ -620,16 +1091,12 @@ public class ProjectServiceImpl implements ProjectService {
                 .orElseThrow(() -> new ResourceNotFoundException("Milestone not found in this project", "MILESTONE_NOT_FOUND"));
 
         // Authorization: Admin, OpHead, Assigned user, Manager of assigned user, or milestone is visible
-        boolean isAdmin = requestingUser.getRoles().stream().anyMatch(r -> "ADMIN".equals(r.getName()));
-        boolean isOpHead = requestingUser.getRoles().stream().anyMatch(r -> "OPERATION_HEAD".equals(r.getName()));
+        boolean isAdmin = referenceDataService.roleNames(requestingUser.getId()).contains("ADMIN");
+        boolean isOpHead = referenceDataService.roleNames(requestingUser.getId()).contains("OPERATION_HEAD");
         boolean isAssigned = assignment.getAssignedUser() != null && assignment.getAssignedUser().getId().equals(requestingUserId);
 
-        boolean isManagerOfAssigned = false;
-        if (assignment.getAssignedUser() != null) {
-            List<User> subordinates = userRepository.findByManagerIdAndIsDeletedFalse(requestingUserId);
-            isManagerOfAssigned = subordinates.stream()
-                    .anyMatch(u -> u.getId().equals(assignment.getAssignedUser().getId()));
-        }
+        boolean isManagerOfAssigned = assignment.getAssignedUser() != null
+                && userHierarchyIndex.isInReportingTree(requestingUserId, assignment.getAssignedUser().getId());
 
         if (!isAdmin && !isOpHead && !isAssigned && !isManagerOfAssigned && !assignment.isVisible()) {
             throw new ValidationException("You are not authorized to view this milestone history", "UNAUTHORIZED_MILESTONE_HISTORY_ACCESS");
@@ -664,36 +1131,17 @@ public class ProjectServiceImpl implements ProjectService {
             dto.setCurrentAssignedUserName(assignment.getAssignedUser().getFullName());
         }
 
-        // Assignment History
-        List<ProjectAssignmentHistory> assignmentHistories = projectAssignmentHistoryRepository
-                .findByMilestoneAssignmentIdAndIsDeletedFalse(assignment.getId())
-                .stream()
-                .sorted(Comparator.comparing(ProjectAssignmentHistory::getCreatedDate))
-                .toList();
-
-        dto.setAssignmentEvents(assignmentHistories.stream()
-                .map(this::mapToAssignmentEventDto)
-                .toList());
-
-        // Status Change History
-        List<MilestoneStatusHistory> statusHistories = milestoneStatusHistoryRepository
-                .findByMilestoneAssignmentIdAndIsDeletedFalse(assignment.getId())
-                .stream()
-                .sorted(Comparator.comparing(MilestoneStatusHistory::getChangeDate))
-                .toList();
-
-        List<StatusChangeEventDto> statusEvents = statusHistories.stream()
-                .map(this::mapToStatusChangeEventDto)
-                .toList();
+        HistoryEvents events = loadHistoryEvents(assignment.getProject().getId(), assignment.getId());
+        dto.setAssignmentEvents(events.assignmentEvents(assignment.getId()));
 
+        List<StatusChangeEventDto> statusEvents = events.statusEvents(assignment.getId());
         if (statusEvents.isEmpty()) {
             StatusChangeEventDto initial = new StatusChangeEventDto();
             initial.setDate(assignment.getCreatedDate());
             initial.setPreviousStatus(null);
             initial.setNewStatus(assignment.getStatus().getName());
             initial.setChangedBy(assignment.getCreatedBy());
-            User initialUser = userRepository.findActiveUserById(assignment.getCreatedBy()).orElse(null);
-            initial.setChangedByName(initialUser != null ? initialUser.getFullName() : "System");
+            initial.setChangedByName(createdByUser != null ? createdByUser.getFullName() : "System");
             initial.setReason("Initial status on project creation");
             statusEvents = List.of(initial);
         }
@@ -702,6 +1150,49 @@ public class ProjectServiceImpl implements ProjectService {
         return dto;
     }
 
+    /**
+     * Recalculates stored milestone visibility for existing projects, one project per
+     * transaction, in keyset batches. Used once after deploying write-time visibility and
+     * after changing a product's milestone payment percentages (pass {@code productId}).
+     * Call repeatedly with the returned {@code lastProjectId} until {@code hasMore} is false.
+     */
+    @Override
+    public MilestoneVisibilityBackfillResponseDto backfillMilestoneVisibility(
+            Long afterProjectId,
+            Long productId,
+            int batchSize,
+            Long userId
+    ) {
+        int limit = Math.max(1, Math.min(batchSize, VISIBILITY_BACKFILL_MAX_BATCH));
+        long after = afterProjectId != null ? afterProjectId : 0L;
+
+        List<Long> projectIds = projectRepository.findIdsForVisibilityBackfill(
+                after, productId, PageRequest.of(0, limit));
+
+        MilestoneVisibilityBackfillResponseDto response = new MilestoneVisibilityBackfillResponseDto();
+        response.setLastProjectId(after);
+
+        for (Long projectId : projectIds) {
+            try {
+                visibilityTransactionTemplate.executeWithoutResult(status ->
+                        projectRepository.findById(projectId)
+                                .ifPresent(project -> updateMilestoneVisibilities(project, userId))
+                );
+                response.setProcessedCount(response.getProcessedCount() + 1);
+            } catch (RuntimeException ex) {
+                logger.warn("Milestone visibility backfill failed. projectId={}, reason={}", projectId, ex.getMessage());
+                response.getFailedProjectIds().add(projectId);
+            }
+            response.setLastProjectId(projectId);
+        }
+
+        response.setHasMore(projectIds.size() == limit);
+
+        logger.info("Milestone visibility backfill batch done. afterProjectId={}, productId={}, processed={}, failed={}, lastProjectId={}",
+                after, productId, response.getProcessedCount(), response.getFailedProjectIds().size(), response.getLastProjectId());
+        return response;
+    }
+
     @Override
     public void updateMilestoneVisibilities(
             Project project,
@@ -843,8 +1334,8 @@ public class ProjectServiceImpl implements ProjectService {
         }
 
         MilestoneStatus completedStatus =
-                milestoneStatusRepository
-                        .findById(
+                referenceDataService
+                        .milestoneStatus(
                                 StatusConstants.MILESTONE_COMPLETED_ID
                         )
                         .orElseThrow(() ->
@@ -864,6 +1355,9 @@ public class ProjectServiceImpl implements ProjectService {
                 paidPercentage
         );
 
+        List<VisibilityDecision> decisions =
+                new ArrayList<>(validAssignments.size());
+
         boolean isPurchaseOrderPayment =
                 "PURCHASE_ORDER".equalsIgnoreCase(
                         paymentTypeName
@@ -959,16 +1453,21 @@ public class ProjectServiceImpl implements ProjectService {
                         visibilityReason
                 );
 
-                updateVisibilityAndAutoAssign(
-                        assignment,
-                        isVisible,
-                        visibilityReason,
-                        map,
-                        project,
-                        updatedById
+                decisions.add(
+                        new VisibilityDecision(
+                                assignment,
+                                isVisible,
+                                visibilityReason,
+                                map
+                        )
                 );
             }
 
+            applyMilestoneVisibilities(
+                    decisions,
+                    project,
+                    updatedById
+            );
             return;
         }
 
@@ -1079,352 +1578,279 @@ public class ProjectServiceImpl implements ProjectService {
                     visibilityReason
             );
 
-            updateVisibilityAndAutoAssign(
-                    assignment,
-                    isVisible,
-                    visibilityReason,
-                    map,
-                    project,
-                    updatedById
+            decisions.add(
+                    new VisibilityDecision(
+                            assignment,
+                            isVisible,
+                            visibilityReason,
+                            map
+                    )
             );
         }
+
+        applyMilestoneVisibilities(
+                decisions,
+                project,
+                updatedById
+        );
     }
 
-    private void updateVisibilityAndAutoAssign(
+    /**
+     * Visibility computed for one milestone assignment, applied by
+     * {@link #applyMilestoneVisibilities}.
+     */
+    private record VisibilityDecision(
             ProjectMilestoneAssignment assignment,
-            boolean isVisible,
+            boolean visible,
             String reason,
-            ProductMilestoneMap map,
+            ProductMilestoneMap map
+    ) {
+    }
+
+    /**
+     * Applies the computed visibilities of a project's milestones.
+     *
+     * 1. Visibility changes are set on the assignments.
+     * 2. Newly visible, unassigned milestones are auto-assigned in one pass
+     *    through {@link AutoAssignmentService#assignMilestoneUsers}, so the
+     *    candidate sync, counter and mapping writes happen once per
+     *    (department, product) instead of once per milestone.
+     * 3. Changed assignments and the assignment history are saved together.
+     * 4. The procurement workflow record is ensured for a Procurement
+     *    milestone, after assignment so it takes over the assignee.
+     */
+    private void applyMilestoneVisibilities(
+            List<VisibilityDecision> decisions,
             Project project,
             Long updatedById
     ) {
+        Long projectId = project.getId();
 
-        // =========================================================
-        // BASIC DETAILS
-        // =========================================================
-
-        Long projectId =
-                project != null
-                        ? project.getId()
-                        : null;
-
-        Long milestoneId =
-                assignment != null
-                        && assignment.getMilestone() != null
-                        ? assignment.getMilestone().getId()
-                        : null;
-
-        String milestoneName =
-                assignment != null
-                        && assignment.getMilestone() != null
-                        ? assignment.getMilestone().getName()
-                        : null;
-
-        String paymentTypeName =
-                project != null
-                        && project.getPaymentDetail() != null
-                        && project.getPaymentDetail().getPaymentType() != null
-                        ? project.getPaymentDetail()
-                        .getPaymentType()
-                        .getName()
-                        : "N/A";
-
-        double paidPercentage =
-                project != null
-                        && project.getPaymentDetail() != null
-                        && project.getPaymentDetail().getTotalAmount() > 0
-                        ? (
-                        (
-                                project.getPaymentDetail().getTotalAmount()
-                                        - project.getPaymentDetail().getDueAmount()
-                        )
-                                / project.getPaymentDetail().getTotalAmount()
-                ) * 100
-                        : 0;
-
-        logger.debug(
-                "updateVisibilityAndAutoAssign started. "
-                        + "projectId={}, milestoneId={}, milestoneName={}, "
-                        + "currentVisible={}, requestedVisible={}, reason={}, "
-                        + "paymentType={}, paidPercentage={}, updatedById={}",
-                projectId,
-                milestoneId,
-                milestoneName,
-                assignment != null && assignment.isVisible(),
-                isVisible,
-                reason,
-                paymentTypeName,
-                paidPercentage,
-                updatedById
-        );
+        Set<ProjectMilestoneAssignment> changed = new LinkedHashSet<>();
+        List<VisibilityDecision> toAssign = new ArrayList<>();
 
         // =========================================================
-        // NULL SAFETY
+        // 1. VISIBILITY
         // =========================================================
 
-        if (assignment == null) {
+        for (VisibilityDecision decision : decisions) {
 
-            logger.warn(
-                    "Skipping milestone visibility update because assignment is null. "
-                            + "projectId={}",
-                    projectId
-            );
+            ProjectMilestoneAssignment assignment =
+                    decision.assignment();
 
-            return;
-        }
-
-        if (map == null) {
-
-            logger.warn(
-                    "Skipping milestone visibility update because "
-                            + "ProductMilestoneMap is null. "
-                            + "projectId={}, milestoneId={}",
-                    projectId,
-                    milestoneId
-            );
+            Long milestoneId =
+                    assignment.getMilestone() != null
+                            ? assignment.getMilestone().getId()
+                            : null;
+
+            boolean visibilityChanged =
+                    assignment.isVisible() != decision.visible()
+                            || !Objects.equals(
+                            decision.reason(),
+                            assignment.getVisibilityReason()
+                    );
 
-            return;
-        }
+            if (visibilityChanged) {
 
-        // =========================================================
-        // 1. VISIBILITY
-        // =========================================================
-
-        boolean visibilityChanged =
-                assignment.isVisible() != isVisible
-                        || !Objects.equals(
-                        reason,
-                        assignment.getVisibilityReason()
+                logger.info(
+                        "Updating milestone visibility. "
+                                + "projectId={}, milestoneId={}, visible={}, reason={}",
+                        projectId,
+                        milestoneId,
+                        decision.visible(),
+                        decision.reason()
                 );
 
-        logger.debug(
-                "Milestone visibility change evaluated. "
-                        + "projectId={}, milestoneId={}, visibilityChanged={}",
-                projectId,
-                milestoneId,
-                visibilityChanged
-        );
-
-        if (visibilityChanged) {
-
-            logger.info(
-                    "Updating milestone visibility. "
-                            + "projectId={}, milestoneId={}, visible={}, reason={}",
-                    projectId,
-                    milestoneId,
-                    isVisible,
-                    reason
-            );
+                assignment.setVisible(
+                        decision.visible()
+                );
 
-            assignment.setVisible(
-                    isVisible
-            );
+                assignment.setVisibilityReason(
+                        decision.reason()
+                );
 
-            assignment.setVisibilityReason(
-                    reason
-            );
+                assignment.setVisibleDate(
+                        decision.visible()
+                                ? new Date()
+                                : null
+                );
 
-            assignment.setVisibleDate(
-                    isVisible
-                            ? new Date()
-                            : null
-            );
+                assignment.setUpdatedBy(
+                        updatedById
+                );
 
-            assignment.setUpdatedBy(
-                    updatedById
-            );
+                assignment.setUpdatedDate(
+                        new Date()
+                );
 
-            assignment.setUpdatedDate(
-                    new Date()
-            );
+                changed.add(
+                        assignment
+                );
 
-            projectMilestoneAssignmentRepository.save(
-                    assignment
-            );
+            } else {
 
-            logger.info(
-                    "Milestone visibility updated successfully. "
-                            + "projectId={}, milestoneId={}, visible={}",
-                    projectId,
-                    milestoneId,
-                    isVisible
-            );
+                logger.debug(
+                        "Milestone visibility update skipped because "
+                                + "no change was detected. "
+                                + "projectId={}, milestoneId={}",
+                        projectId,
+                        milestoneId
+                );
+            }
 
-        } else {
+            boolean shouldAutoAssign =
+                    decision.visible()
+                            && !decision.map().isAutoGenerated()
+                            && assignment.getAssignedUser() == null;
 
-            logger.debug(
-                    "Milestone visibility update skipped because "
-                            + "no change was detected. "
-                            + "projectId={}, milestoneId={}",
-                    projectId,
-                    milestoneId
-            );
+            if (shouldAutoAssign) {
+                toAssign.add(
+                        decision
+                );
+            }
         }
 
         // =========================================================
         // 2. AUTO ASSIGNMENT
         // =========================================================
 
-        boolean shouldAutoAssign =
-                isVisible
-                        && !map.isAutoGenerated()
-                        && assignment.getAssignedUser() == null;
-
-        logger.debug(
-                "Auto-assignment evaluated. "
-                        + "projectId={}, milestoneId={}, shouldAutoAssign={}, "
-                        + "visible={}, autoGenerated={}, alreadyAssigned={}",
-                projectId,
-                milestoneId,
-                shouldAutoAssign,
-                isVisible,
-                map.isAutoGenerated(),
-                assignment.getAssignedUser() != null
-        );
-
-        if (shouldAutoAssign) {
+        if (!toAssign.isEmpty()) {
 
             logger.info(
-                    "Triggering milestone auto-assignment. "
-                            + "projectId={}, milestoneId={}, milestoneName={}",
+                    "Triggering milestone auto-assignment. projectId={}, milestones={}",
                     projectId,
-                    milestoneId,
-                    milestoneName
+                    toAssign.size()
             );
 
-            AssignmentResult result =
-                    autoAssignmentService.assignMilestoneUser(
-                            map,
-                            project,
-                            updatedById
-                    );
+            Map<Long, AssignmentResult> results =
+                    autoAssignmentService.assignMilestoneUsers(
+                            toAssign.stream()
+                                    .map(VisibilityDecision::map)
+                                    .toList(),
+                            project,
+                            updatedById
+                    );
+
+            List<ProjectAssignmentHistory> histories =
+                    new ArrayList<>(toAssign.size());
+
+            for (VisibilityDecision decision : toAssign) {
+
+                ProjectMilestoneAssignment assignment =
+                        decision.assignment();
+
+                AssignmentResult result =
+                        results.get(decision.map().getId());
 
-            assignment.setAssignedUser(
-                    result != null
-                            ? result.getUser()
-                            : null
-            );
+                User assignedUser =
+                        result != null
+                                ? result.getUser()
+                                : null;
 
-            assignment.setStatusReason(
-                    result != null
-                            ? result.getReason()
-                            : "Auto-assign failed"
-            );
+                String assignmentReason =
+                        result != null
+                                ? result.getReason()
+                                : "Auto-assign failed";
 
-            assignment.setUpdatedBy(
-                    updatedById
-            );
+                assignment.setAssignedUser(
+                        assignedUser
+                );
 
-            assignment.setUpdatedDate(
-                    new Date()
-            );
+                assignment.setStatusReason(
+                        assignmentReason
+                );
 
-            projectMilestoneAssignmentRepository.save(
-                    assignment
-            );
+                assignment.setUpdatedBy(
+                        updatedById
+                );
 
-            logger.info(
-                    "Milestone auto-assignment completed. "
-                            + "projectId={}, milestoneId={}, "
-                            + "assignedUserId={}, assignedUserName={}, reason={}",
-                    projectId,
-                    milestoneId,
-                    result != null
-                            && result.getUser() != null
-                            ? result.getUser().getId()
-                            : null,
-                    result != null
-                            && result.getUser() != null
-                            ? result.getUser().getFullName()
-                            : null,
-                    result != null
-                            ? result.getReason()
-                            : "Auto-assign failed"
-            );
+                assignment.setUpdatedDate(
+                        new Date()
+                );
 
-            // =====================================================
-            // ASSIGNMENT HISTORY
-            // =====================================================
+                changed.add(
+                        assignment
+                );
 
-            ProjectAssignmentHistory history =
-                    new ProjectAssignmentHistory();
+                ProjectAssignmentHistory history =
+                        new ProjectAssignmentHistory();
 
-            history.setProject(
-                    project
-            );
+                history.setProject(
+                        project
+                );
 
-            history.setMilestoneAssignment(
-                    assignment
-            );
+                history.setMilestoneAssignment(
+                        assignment
+                );
 
-            history.setAssignedUser(
-                    result != null
-                            ? result.getUser()
-                            : null
-            );
+                history.setAssignedUser(
+                        assignedUser
+                );
 
-            history.setAssignmentReason(
-                    result != null
-                            ? result.getReason()
-                            : "Auto-assign failed"
-            );
+                history.setAssignmentReason(
+                        assignmentReason
+                );
 
-            history.setCreatedDate(
-                    new Date()
-            );
+                history.setCreatedDate(
+                        new Date()
+                );
 
-            history.setUpdatedDate(
-                    new Date()
-            );
+                history.setUpdatedDate(
+                        new Date()
+                );
 
-            history.setCreatedBy(
-                    updatedById
-            );
+                history.setCreatedBy(
+                        updatedById
+                );
 
-            history.setUpdatedBy(
-                    updatedById
-            );
+                history.setUpdatedBy(
+                        updatedById
+                );
 
-            history.setDeleted(
-                    false
-            );
+                history.setDeleted(
+                        false
+                );
 
-            projectAssignmentHistoryRepository.save(
-                    history
-            );
+                histories.add(
+                        history
+                );
 
-            logger.debug(
-                    "Project assignment history saved. "
-                            + "projectId={}, milestoneId={}, assignedUserId={}",
-                    projectId,
-                    milestoneId,
-                    result != null
-                            && result.getUser() != null
-                            ? result.getUser().getId()
-                            : null
+                logger.info(
+                        "Milestone auto-assignment completed. "
+                                + "projectId={}, milestoneId={}, "
+                                + "assignedUserId={}, assignedUserName={}, reason={}",
+                        projectId,
+                        assignment.getMilestone() != null
+                                ? assignment.getMilestone().getId()
+                                : null,
+                        assignedUser != null
+                                ? assignedUser.getId()
+                                : null,
+                        assignedUser != null
+                                ? assignedUser.getFullName()
+                                : null,
+                        assignmentReason
+                );
+            }
+
+            projectAssignmentHistoryRepository.saveAll(
+                    histories
             );
         }
 
         // =========================================================
-        // 3. PROCUREMENT MILESTONE HANDLING
+        // 3. SAVE
         // =========================================================
 
-        boolean isProcurement =
-                milestoneName != null
-                        && "Procurement".equalsIgnoreCase(
-                        milestoneName.trim()
-                );
+        if (!changed.isEmpty()) {
+            projectMilestoneAssignmentRepository.saveAll(
+                    changed
+            );
+        }
 
-        logger.info(
-                "Procurement milestone check. "
-                        + "projectId={}, milestoneId={}, milestoneName={}, "
-                        + "isProcurement={}, visible={}",
-                projectId,
-                milestoneId,
-                milestoneName,
-                isProcurement,
-                isVisible
-        );
+        // =========================================================
+        // 4. PROCUREMENT MILESTONE HANDLING
+        // =========================================================
 
         /*
          * IMPORTANT:
@@ -1439,39 +1865,38 @@ public class ProjectServiceImpl implements ProjectService {
          * Visibility only controls whether the milestone is currently
          * accessible/displayed to the user.
          */
-        if (isProcurement) {
+        for (VisibilityDecision decision : decisions) {
 
-            logger.info(
-                    "Ensuring ProcurementMilestoneAssignment exists. "
-                            + "projectId={}, milestoneId={}, visible={}",
-                    projectId,
-                    milestoneId,
-                    isVisible
-            );
+            ProjectMilestoneAssignment assignment =
+                    decision.assignment();
 
-            handleProcurementMilestoneCreation(
-                    assignment,
-                    updatedById
-            );
+            String milestoneName =
+                    assignment.getMilestone() != null
+                            ? assignment.getMilestone().getName()
+                            : null;
 
-            logger.info(
-                    "ProcurementMilestoneAssignment ensured successfully. "
-                            + "projectId={}, milestoneId={}",
-                    projectId,
-                    milestoneId
-            );
-        }
+            boolean isProcurement =
+                    milestoneName != null
+                            && "Procurement".equalsIgnoreCase(
+                            milestoneName.trim()
+                    );
 
-        // =========================================================
-        // COMPLETE
-        // =========================================================
+            if (isProcurement) {
 
-        logger.debug(
-                "updateVisibilityAndAutoAssign completed. "
-                        + "projectId={}, milestoneId={}",
-                projectId,
-                milestoneId
-        );
+                logger.info(
+                        "Ensuring ProcurementMilestoneAssignment exists. "
+                                + "projectId={}, milestoneId={}, visible={}",
+                        projectId,
+                        assignment.getMilestone().getId(),
+                        decision.visible()
+                );
+
+                handleProcurementMilestoneCreation(
+                        assignment,
+                        updatedById
+                );
+            }
+        }
     }
 
 
@@ -1574,18 +1999,8 @@ public class ProjectServiceImpl implements ProjectService {
         );
     }
 
-    @Cacheable(value = "milestoneMaps", key = "#productId")
     public List<ProductMilestoneMap> getMilestoneMaps(Long productId) {
-        return productMilestoneMapRepository
-                .findByProductId(
-                        productId,
-                        PageRequest.of(
-                                0,
-                                Integer.MAX_VALUE,
-                                Sort.by(Sort.Direction.ASC, "order")
-                        )
-                )
-                .getContent();
+        return referenceDataService.milestoneMaps(productId);
     }
 
     private void validateTransactionDto(ProjectPaymentTransactionDto dto) {
@@ -1750,16 +2165,16 @@ public class ProjectServiceImpl implements ProjectService {
         PageRequest pageable = PageRequest.of(page, size * 10);
         Page<ProjectMilestoneAssignment> assignmentPage;
 
-        MilestoneStatus newStatus = milestoneStatusRepository.findById(StatusConstants.MILESTONE_NEW_ID).orElse(null);
-        MilestoneStatus inProgressStatus = milestoneStatusRepository.findById(StatusConstants.MILESTONE_IN_PROGRESS_ID).orElse(null);
+        MilestoneStatus newStatus = referenceDataService.milestoneStatus(StatusConstants.MILESTONE_NEW_ID).orElse(null);
+        MilestoneStatus inProgressStatus = referenceDataService.milestoneStatus(StatusConstants.MILESTONE_IN_PROGRESS_ID).orElse(null);
         List<MilestoneStatus> activeStatuses = Arrays.asList(newStatus, inProgressStatus);
 
         if (newStatus == null || inProgressStatus == null) {
             throw new IllegalStateException("Critical milestone statuses (NEW/IN_PROGRESS) not found in DB");
         }
 
-        boolean isAdmin = user.getRoles().stream().anyMatch(r -> "ADMIN".equals(r.getName()));
-        boolean isOpHead = user.getRoles().stream().anyMatch(r -> "OPERATION_HEAD".equals(r.getName()));
+        boolean isAdmin = referenceDataService.roleNames(user.getId()).contains("ADMIN");
+        boolean isOpHead = referenceDataService.roleNames(user.getId()).contains("OPERATION_HEAD");
 
         if (isAdmin || isOpHead) {
             assignmentPage = projectMilestoneAssignmentRepository.findAllByIsDeletedFalse(pageable);
@@ -1794,6 +2209,12 @@ public class ProjectServiceImpl implements ProjectService {
     }
 
 
+    /**
+     * Project detail page. Read-only: milestone visibility is kept current by
+     * the writes that change it, so it is not recalculated here. Project,
+     * milestone and contact data come from the cached {@link ProjectDetailView};
+     * only the access check and contact masking depend on the caller.
+     */
     @Override
     public ProjectMilestoneResponseDto getProjectMilestones(Long projectId, Long userId) {
 
@@ -1803,11 +2224,7 @@ public class ProjectServiceImpl implements ProjectService {
                 userId
         );
 
-        Project project = projectRepository.findActiveUserById(projectId)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "Project not found",
-                        "ERR_PROJECT_NOT_FOUND"
-                ));
+        ProjectDetailView view = loadProjectDetail(projectId);
 
         User user = userRepository.findActiveUserById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException(
@@ -1815,55 +2232,25 @@ public class ProjectServiceImpl implements ProjectService {
                         "ERR_USER_NOT_FOUND"
                 ));
 
-        boolean isAdmin = user.getRoles()
-                .stream()
-                .anyMatch(r -> "ADMIN".equals(r.getName()));
-
-        boolean isOperationHead = user.getRoles()
-                .stream()
-                .anyMatch(r -> "OPERATION_HEAD".equals(r.getName()));
-
-        /*
-         * Important:
-         * Recalculate visibility for everyone before returning milestones.
-         * Previously admin/op-head returned before this call.
-         */
-        updateMilestoneVisibilities(project, userId);
-
-        List<ProjectMilestoneAssignment> assignments;
+        Set<String> roleNames = referenceDataService.roleNames(user.getId());
+        boolean isAdmin = roleNames.contains("ADMIN");
+        boolean isOperationHead = roleNames.contains("OPERATION_HEAD");
 
         if (isAdmin || isOperationHead) {
-
-            assignments = projectMilestoneAssignmentRepository
-                    .findByProjectIdAndIsDeletedFalse(projectId);
-
-            assignments = sortMilestoneAssignments(assignments);
-
-            ProjectMilestoneResponseDto response = new ProjectMilestoneResponseDto();
-            response.setProjectDetails(mapToProjectDetailsDto(project, userId));
-            response.setMilestones(assignments.stream()
-                    .map(this::mapToAssignedMilestoneDto)
-                    .collect(Collectors.toList()));
-
-            return response;
+            return toProjectMilestoneResponse(view, view.milestones(), true);
         }
 
-        boolean isAssignedToAnyMilestone = projectMilestoneAssignmentRepository
-                .findByProjectIdAndAssignedUserIdAndIsDeletedFalse(projectId, userId)
-                .isPresent();
-
-        List<User> subordinates = userRepository.findByManagerIdAndIsDeletedFalse(userId);
+        boolean isAssignedToAnyMilestone = view.milestones()
+                .stream()
+                .anyMatch(m -> userId.equals(m.assignedUserId()));
 
-        List<Long> managedUserIds = subordinates.stream()
-                .map(User::getId)
-                .collect(Collectors.toList());
+        UserScope scope = userHierarchyIndex.scopeOf(userId);
 
-        boolean isManagerOfAssignedUser = projectMilestoneAssignmentRepository
-                .findByProjectIdAndIsDeletedFalse(projectId)
+        boolean isManagerOfAssignedUser = view.milestones()
                 .stream()
-                .filter(a -> a.getAssignedUser() != null)
-                .map(a -> a.getAssignedUser().getId())
-                .anyMatch(managedUserIds::contains);
+                .map(ProjectDetailView.MilestoneEntry::assignedUserId)
+                .filter(Objects::nonNull)
+                .anyMatch(assignedUserId -> !assignedUserId.equals(userId) && scope.contains(assignedUserId));
 
         if (!isAssignedToAnyMilestone && !isManagerOfAssignedUser) {
             throw new ValidationException(
@@ -1872,85 +2259,129 @@ public class ProjectServiceImpl implements ProjectService {
             );
         }
 
-        if (isManagerOfAssignedUser) {
-
-            List<Long> teamIds = new ArrayList<>(managedUserIds);
-
-            if (!teamIds.contains(userId)) {
-                teamIds.add(userId);
-            }
-
-            assignments = projectMilestoneAssignmentRepository
-                    .findByProjectIdAndAssignedUserIdInAndIsVisibleTrue(projectId, teamIds);
-
-        } else {
-
-            assignments = projectMilestoneAssignmentRepository
-                    .findByProjectIdAndAssignedUserIdAndIsVisibleTrueAndIsDeletedFalse(
-                            projectId,
-                            userId
-                    );
-        }
-
-        assignments = sortMilestoneAssignments(assignments);
+        List<ProjectDetailView.MilestoneEntry> milestones = view.milestones()
+                .stream()
+                .filter(ProjectDetailView.MilestoneEntry::visible)
+                .filter(m -> m.assignedUserId() != null && (isManagerOfAssignedUser
+                        ? scope.contains(m.assignedUserId())
+                        : m.assignedUserId().equals(userId)))
+                .toList();
 
         logger.debug(
                 "Project milestone visibility result. projectId={}, userId={}, managerOfAssignedUser={}, visibleMilestoneCount={}",
                 projectId,
                 userId,
                 isManagerOfAssignedUser,
-                assignments.size()
+                milestones.size()
         );
 
-        assignments.forEach(a -> logger.debug(
-                "Visible milestone details. projectId={}, userId={}, milestone={}, order={}, visible={}, status={}, assignedUserId={}",
-                projectId,
-                userId,
-                a.getMilestone().getName(),
-                a.getProductMilestoneMap() != null
-                        ? a.getProductMilestoneMap().getOrder()
-                        : null,
-                a.isVisible(),
-                a.getStatus().getName(),
-                a.getAssignedUser() != null
-                        ? a.getAssignedUser().getId()
-                        : null
-        ));
-
-        if (!isManagerOfAssignedUser && assignments.isEmpty()) {
+        if (!isManagerOfAssignedUser && milestones.isEmpty()) {
             throw new ValidationException(
                     "This project is currently not accessible. It will become available once the required payment is completed.",
                     "ERR_PROJECT_HIDDEN_DUE_TO_PAYMENT"
             );
         }
 
-        ProjectMilestoneResponseDto response = new ProjectMilestoneResponseDto();
-        response.setProjectDetails(mapToProjectDetailsDto(project, userId));
-        response.setMilestones(assignments.stream()
-                .map(this::mapToAssignedMilestoneDto)
+        return toProjectMilestoneResponse(view, milestones, false);
+    }
+
+    private ProjectDetailView loadProjectDetail(Long projectId) {
+        return projectDetailCache.get(projectId, () -> projectDetailReader.load(projectId))
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Project not found",
+                        "ERR_PROJECT_NOT_FOUND"
+                ));
+    }
+
+    private ProjectMilestoneResponseDto toProjectMilestoneResponse(
+            ProjectDetailView view,
+            List<ProjectDetailView.MilestoneEntry> milestones,
+            boolean canSeeFullContactInfo
+    ) {
+        ProjectDetailView.Header header = view.header();
+
+        ProjectDetailsDto details = new ProjectDetailsDto();
+        details.setId(header.id());
+        details.setName(header.name());
+        details.setProjectNo(header.projectNo());
+        details.setPriority(header.priority() != null ? header.priority().name() : null);
+        details.setDate(header.date());
+        details.setProductId(header.productId());
+        details.setProductName(header.productName());
+        details.setCompanyId(header.companyId());
+        details.setCompanyName(header.companyName());
+        details.setRating(header.rating());
+        details.setCompanyUnitId(header.unitId());
+        details.setCompanyUnitName(header.unitName());
+        details.setCreatedDate(header.createdDate());
+        details.setUpdatedDate(header.updatedDate());
+        details.setApplicantId(header.applicantId());
+        details.setApplicantName(header.applicantName());
+        details.setProcurementMilestoneAssignmentId(header.procurementMilestoneAssignmentId());
+        details.setContacts(view.contacts().stream()
+                .map(c -> toContactDetailsDto(c, canSeeFullContactInfo))
                 .collect(Collectors.toList()));
 
+        ProjectMilestoneResponseDto response = new ProjectMilestoneResponseDto();
+        response.setProjectDetails(details);
+        response.setMilestones(milestones.stream()
+                .map(m -> toAssignedMilestoneDto(header, m))
+                .collect(Collectors.toList()));
         return response;
     }
 
-    private List<ProjectMilestoneAssignment> sortMilestoneAssignments(
-            List<ProjectMilestoneAssignment> assignments
-    ) {
-        if (assignments == null) {
-            return new ArrayList<>();
+    private ContactDetailsDto toContactDetailsDto(ProjectDetailView.ContactEntry contact, boolean canSeeFullInfo) {
+        ContactDetailsDto dto = new ContactDetailsDto();
+        dto.setId(contact.id());
+        dto.setTitle(contact.title());
+        dto.setName(contact.name());
+        dto.setDesignation(contact.designation());
+        dto.setLevel(contact.level());
+        dto.setUnitName(contact.unitName());
+        dto.setLevelDescription(contact.levelDescription());
+        dto.setActive(contact.active());
+
+        if (canSeeFullInfo) {
+            dto.setEmails(contact.email());
+            dto.setContactNo(contact.contactNo());
+            dto.setWhatsappNo(contact.whatsappNo());
+        } else {
+            dto.setEmails(maskEmail(contact.email()));
+            dto.setContactNo(maskPhoneNumber(contact.contactNo()));
+            dto.setWhatsappNo(maskPhoneNumber(contact.whatsappNo()));
         }
+        return dto;
+    }
 
-        return assignments.stream()
-                .sorted(
-                        Comparator
-                                .comparingInt((ProjectMilestoneAssignment a) ->
-                                        a.getProductMilestoneMap() != null
-                                                ? a.getProductMilestoneMap().getOrder()
-                                                : Integer.MAX_VALUE
-                                )
-                                .thenComparing(ProjectMilestoneAssignment::getId)
-                )
-                .collect(Collectors.toList());
+    private AssignedMilestoneDto toAssignedMilestoneDto(
+            ProjectDetailView.Header header,
+            ProjectDetailView.MilestoneEntry milestone
+    ) {
+        AssignedMilestoneDto dto = new AssignedMilestoneDto();
+        dto.setId(milestone.id());
+        dto.setProjectId(header.id());
+        dto.setProjectName(header.name());
+        dto.setMilestoneId(milestone.milestoneId());
+        dto.setMilestoneName(milestone.milestoneName());
+        dto.setDepartmentId(milestone.departmentId());
+        dto.setDepartmentName(milestone.departmentName());
+        dto.setStatus(milestone.status());
+        dto.setStatusReason(milestone.statusReason());
+        dto.setVisibilityReason(milestone.visibilityReason());
+        dto.setReworkAttempts(milestone.reworkAttempts());
+        dto.setVisibleDate(milestone.visibleDate());
+        dto.setStartedDate(milestone.startedDate());
+        dto.setCompletedDate(milestone.completedDate());
+
+        if (milestone.assignedUserId() != null) {
+            UserResponseDto assignee = new UserResponseDto();
+            assignee.setId(milestone.assignedUserId());
+            assignee.setFullName(milestone.assignedUserName());
+            assignee.setEmail(milestone.assignedUserEmail());
+            assignee.setContactNo(milestone.assignedUserContactNo());
+            dto.setAssignedUser(assignee);
+        }
+        return dto;
     }
 
     private ProjectDetailsDto mapToProjectDetailsDto(Project project, Long userId) {
@@ -1988,8 +2419,8 @@ public class ProjectServiceImpl implements ProjectService {
         User requestingUser = userRepository.findActiveUserById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found", "ERR_USER_NOT_FOUND"));
 
-        boolean isAdmin = requestingUser.getRoles().stream().anyMatch(role -> "ADMIN".equals(role.getName()));
-        boolean isOperationHead = requestingUser.getRoles().stream().anyMatch(role -> "OPERATION_HEAD".equals(role.getName()));
+        boolean isAdmin = referenceDataService.roleNames(requestingUser.getId()).contains("ADMIN");
+        boolean isOperationHead = referenceDataService.roleNames(requestingUser.getId()).contains("OPERATION_HEAD");
         boolean canSeeFullContactInfo = isAdmin || isOperationHead;
 
         List<ContactDetailsDto> contactDtos = new ArrayList<>();
@@ -2090,51 +2521,6 @@ public class ProjectServiceImpl implements ProjectService {
         return maskedLocalPart + "@" + domainPrefix + "XXX" + tld;
     }
 
-    private AssignedMilestoneDto mapToAssignedMilestoneDto(ProjectMilestoneAssignment assignment) {
-        AssignedMilestoneDto dto = new AssignedMilestoneDto();
-        dto.setId(assignment.getId());
-        dto.setProjectId(assignment.getProject().getId());
-        dto.setProjectName(assignment.getProject().getName());
-        dto.setMilestoneId(assignment.getMilestone().getId());
-        dto.setMilestoneName(assignment.getMilestone().getName());
-        dto.setStatus(assignment.getStatus().getName());
-        dto.setStatusReason(assignment.getStatusReason());
-        dto.setVisibilityReason(assignment.getVisibilityReason());
-        dto.setReworkAttempts(assignment.getReworkAttempts());
-        dto.setVisibleDate(assignment.getVisibleDate());
-        dto.setStartedDate(assignment.getStartedDate());
-        dto.setCompletedDate(assignment.getCompletedDate());
-
-        dto.setAssignedUser(mapToUserResponseDto(assignment.getAssignedUser()));
-
-        Milestone milestone = assignment.getMilestone();
-        if (milestone != null && milestone.getDepartments() != null && !milestone.getDepartments().isEmpty()) {
-            Department dept = milestone.getDepartments().get(0);
-            dto.setDepartmentId(dept.getId());
-            dto.setDepartmentName(dept.getName());
-
-        } else {
-            dto.setDepartmentId(null);
-            dto.setDepartmentName(null);
-        }
-
-        return dto;
-    }
-
-    private UserResponseDto mapToUserResponseDto(User user) {
-        if (user == null) {
-            return null;
-        }
-        UserResponseDto dto = new UserResponseDto();
-        dto.setId(user.getId());
-        dto.setFullName(user.getFullName());
-        dto.setEmail(user.getEmail());
-        dto.setContactNo(user.getContactNo());
-        return dto;
-    }
-
-
-
     @Override
     @Transactional
     public ProjectResponseDto addPaymentByUnbilledNumber(String unbilledNumber, ProjectPaymentTransactionDto dto) {
@@ -2233,31 +2619,40 @@ public class ProjectServiceImpl implements ProjectService {
 
 
     @Override
+    @Transactional(readOnly = true)
     public ProjectHistoryResponseDto getProjectHistory(Long projectId) {
         logger.info("Fetching history for project ID: {}", projectId);
 
         Project project = projectRepository.findActiveUserById(projectId)
                 .orElseThrow(() -> new ResourceNotFoundException("Project not found  ", "ERR_PROJECT_NOT_FOUND"));
 
-        User createdByUser = userRepository.findActiveUserById(project.getCreatedBy())
-                .orElse(null); // In case user is deleted, handle gracefully
+        // Milestone assignments sorted by order, with milestone, step and status fetched
+        List<ProjectMilestoneAssignment> assignments =
+                projectMilestoneAssignmentRepository.findHistoryAssignmentsByProjectId(projectId);
+
+        // Creator names for the project and for the synthetic initial status events;
+        // deleted or inactive users show as "Unknown"
+        Set<Long> creatorIds = new HashSet<>();
+        if (project.getCreatedBy() != null) creatorIds.add(project.getCreatedBy());
+        assignments.stream()
+                .map(ProjectMilestoneAssignment::getCreatedBy)
+                .filter(Objects::nonNull)
+                .forEach(creatorIds::add);
+        Map<Long, String> activeUserNames = creatorIds.isEmpty()
+                ? Map.of()
+                : userRepository.findActiveUsersByIdIn(creatorIds).stream()
+                .collect(Collectors.toMap(User::getId, User::getFullName, (a, b) -> a));
 
         ProjectHistoryResponseDto response = new ProjectHistoryResponseDto();
         response.setProjectId(project.getId());
         response.setProjectName(project.getName());
         response.setCreatedDate(project.getCreatedDate());
         response.setCreatedBy(project.getCreatedBy());
-        response.setCreatedByName(createdByUser != null ? createdByUser.getFullName() : "Unknown");
-
-        // Fetch all milestone assignments, sorted by order
-        List<ProjectMilestoneAssignment> assignments = projectMilestoneAssignmentRepository
-                .findByProjectIdAndIsDeletedFalse(projectId)
-                .stream()
-                .sorted(Comparator.comparing(a -> a.getProductMilestoneMap().getOrder()))
-                .collect(Collectors.toList());
+        response.setCreatedByName(activeUserNames.getOrDefault(project.getCreatedBy(), "Unknown"));
 
+        HistoryEvents events = loadHistoryEvents(projectId, null);
         List<MilestoneHistoryDto> milestoneHistories = assignments.stream()
-                .map(this::mapToMilestoneHistoryDto)
+                .map(a -> mapToMilestoneHistoryDto(a, events, activeUserNames))
                 .collect(Collectors.toList());
 
         response.setMilestones(milestoneHistories);
@@ -2270,36 +2665,18 @@ public class ProjectServiceImpl implements ProjectService {
         return response;
     }
 
-    private MilestoneHistoryDto mapToMilestoneHistoryDto(ProjectMilestoneAssignment assignment) {
+    private MilestoneHistoryDto mapToMilestoneHistoryDto(ProjectMilestoneAssignment assignment,
+                                                         HistoryEvents events,
+                                                         Map<Long, String> activeUserNames) {
         MilestoneHistoryDto dto = new MilestoneHistoryDto();
         dto.setMilestoneId(assignment.getMilestone().getId());
         dto.setMilestoneName(assignment.getMilestone().getName());
         dto.setOrder(assignment.getProductMilestoneMap().getOrder());
         dto.setAssignmentCreatedDate(assignment.getCreatedDate());
 
-        // Assignment events from history
-        List<ProjectAssignmentHistory> assignmentHistories = projectAssignmentHistoryRepository
-                .findByMilestoneAssignmentIdAndIsDeletedFalse(assignment.getId())
-                .stream()
-                .sorted(Comparator.comparing(ProjectAssignmentHistory::getCreatedDate))
-                .collect(Collectors.toList());
-
-        List<AssignmentEventDto> assignmentEvents = assignmentHistories.stream()
-                .map(this::mapToAssignmentEventDto)
-                .collect(Collectors.toList());
-
-        dto.setAssignmentEvents(assignmentEvents);
-
-        // Status change events from history
-        List<MilestoneStatusHistory> statusHistories = milestoneStatusHistoryRepository
-                .findByMilestoneAssignmentIdAndIsDeletedFalse(assignment.getId())
-                .stream()
-                .sorted(Comparator.comparing(MilestoneStatusHistory::getChangeDate))
-                .collect(Collectors.toList());
+        dto.setAssignmentEvents(events.assignmentEvents(assignment.getId()));
 
-        List<StatusChangeEventDto> statusChangeEvents = statusHistories.stream()
-                .map(this::mapToStatusChangeEventDto)
-                .collect(Collectors.toList());
+        List<StatusChangeEventDto> statusChangeEvents = events.statusEvents(assignment.getId());
 
         // Include initial status if no history
         if (statusChangeEvents.isEmpty()) {
@@ -2308,10 +2685,9 @@ public class ProjectServiceImpl implements ProjectService {
             initial.setPreviousStatus(null);
             initial.setNewStatus(assignment.getStatus().getName());
             initial.setChangedBy(assignment.getCreatedBy());
-            User initialChangedBy = userRepository.findActiveUserById(assignment.getCreatedBy()).orElse(null);
-            initial.setChangedByName(initialChangedBy != null ? initialChangedBy.getFullName() : "Unknown");
+            initial.setChangedByName(activeUserNames.getOrDefault(assignment.getCreatedBy(), "Unknown"));
             initial.setReason("Initial status");
-            statusChangeEvents.add(initial);
+            statusChangeEvents = List.of(initial);
         }
 
         dto.setStatusChangeEvents(statusChangeEvents);
@@ -2319,29 +2695,176 @@ public class ProjectServiceImpl implements ProjectService {
         return dto;
     }
 
-    private AssignmentEventDto mapToAssignmentEventDto(ProjectAssignmentHistory history) {
+    /**
+     * Merged assignment and status-change timeline of a project, oldest first,
+     * read with one keyset query per history table. The cursor is opaque to
+     * clients: the last event's (date, type, id).
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ProjectTimelineResponseDto getProjectTimeline(Long projectId, String cursor, int limit) {
+        logger.info("Fetching timeline for project ID: {} | cursor: {} | limit: {}", projectId, cursor, limit);
+
+        if (projectRepository.findActiveUserById(projectId).isEmpty()) {
+            throw new ResourceNotFoundException("Project not found", "ERR_PROJECT_NOT_FOUND");
+        }
+
+        int pageSize = Math.max(1, Math.min(limit, TIMELINE_MAX_PAGE_SIZE));
+        TimelineCursor after = TimelineCursor.parse(cursor);
+        Pageable page = PageRequest.of(0, pageSize + 1);
+
+        List<AssignmentHistoryEventProjection> assignmentRows = projectAssignmentHistoryRepository.findTimelineEvents(
+                projectId, null, after.date(), after.afterIdFor(TimelineCursor.ASSIGNMENT), page);
+        List<StatusHistoryEventProjection> statusRows = milestoneStatusHistoryRepository.findTimelineEvents(
+                projectId, null, after.date(), after.afterIdFor(TimelineCursor.STATUS_CHANGE), page);
+
+        // Merge the two (date, id)-ordered lists; assignments go first on equal dates
+        List<ProjectTimelineEventDto> events = new ArrayList<>(pageSize);
+        TimelineCursor last = null;
+        int i = 0;
+        int j = 0;
+        while (events.size() < pageSize && (i < assignmentRows.size() || j < statusRows.size())) {
+            boolean takeAssignment = j >= statusRows.size()
+                    || (i < assignmentRows.size()
+                    && !assignmentRows.get(i).getEventDate().after(statusRows.get(j).getEventDate()));
+
+            ProjectTimelineEventDto event = new ProjectTimelineEventDto();
+            if (takeAssignment) {
+                AssignmentHistoryEventProjection row = assignmentRows.get(i++);
+                event.setType(ProjectTimelineEventDto.TYPE_ASSIGNMENT);
+                event.setDate(row.getEventDate());
+                event.setMilestoneAssignmentId(row.getMilestoneAssignmentId());
+                event.setMilestoneId(row.getMilestoneId());
+                event.setMilestoneName(row.getMilestoneName());
+                event.setAssignment(mapToAssignmentEventDto(row));
+                last = new TimelineCursor(row.getEventDate().getTime(), TimelineCursor.ASSIGNMENT, row.getId());
+            } else {
+                StatusHistoryEventProjection row = statusRows.get(j++);
+                event.setType(ProjectTimelineEventDto.TYPE_STATUS_CHANGE);
+                event.setDate(row.getEventDate());
+                event.setMilestoneAssignmentId(row.getMilestoneAssignmentId());
+                event.setMilestoneId(row.getMilestoneId());
+                event.setMilestoneName(row.getMilestoneName());
+                event.setStatusChange(mapToStatusChangeEventDto(row));
+                last = new TimelineCursor(row.getEventDate().getTime(), TimelineCursor.STATUS_CHANGE, row.getId());
+            }
+            events.add(event);
+        }
+
+        boolean hasMore = i < assignmentRows.size() || j < statusRows.size();
+
+        ProjectTimelineResponseDto response = new ProjectTimelineResponseDto();
+        response.setProjectId(projectId);
+        response.setEvents(events);
+        response.setHasMore(hasMore);
+        response.setNextCursor(hasMore && last != null ? last.encode() : null);
+        return response;
+    }
+
+    /**
+     * Assignment and status history of a project (or of one milestone
+     * assignment when {@code milestoneAssignmentId} is set), two queries in
+     * total, grouped per milestone assignment in date order.
+     */
+    private HistoryEvents loadHistoryEvents(Long projectId, Long milestoneAssignmentId) {
+        Map<Long, List<AssignmentEventDto>> assignmentEvents = projectAssignmentHistoryRepository
+                .findTimelineEvents(projectId, milestoneAssignmentId, null, null, Pageable.unpaged())
+                .stream()
+                .collect(Collectors.groupingBy(AssignmentHistoryEventProjection::getMilestoneAssignmentId,
+                        Collectors.mapping(this::mapToAssignmentEventDto, Collectors.toList())));
+
+        Map<Long, List<StatusChangeEventDto>> statusEvents = milestoneStatusHistoryRepository
+                .findTimelineEvents(projectId, milestoneAssignmentId, null, null, Pageable.unpaged())
+                .stream()
+                .collect(Collectors.groupingBy(StatusHistoryEventProjection::getMilestoneAssignmentId,
+                        Collectors.mapping(this::mapToStatusChangeEventDto, Collectors.toList())));
+
+        return new HistoryEvents(assignmentEvents, statusEvents);
+    }
+
+    private AssignmentEventDto mapToAssignmentEventDto(AssignmentHistoryEventProjection history) {
         AssignmentEventDto dto = new AssignmentEventDto();
-        dto.setDate(history.getCreatedDate());
-        dto.setAssignedTo(history.getAssignedUser() != null ? history.getAssignedUser().getId() : null);
-        dto.setAssignedToName(history.getAssignedUser() != null ? history.getAssignedUser().getFullName() : "Unassigned");
-        dto.setAssignedBy(history.getCreatedBy());
-        User assignedByUser = userRepository.findActiveUserById(history.getCreatedBy()).orElse(null);
-        dto.setAssignedByName(assignedByUser != null ? assignedByUser.getFullName() : "Unknown");
-        dto.setReason(history.getAssignmentReason());
+        dto.setDate(history.getEventDate());
+        dto.setAssignedTo(history.getAssignedTo());
+        dto.setAssignedToName(history.getAssignedTo() != null ? history.getAssignedToName() : "Unassigned");
+        dto.setAssignedBy(history.getAssignedBy());
+        dto.setAssignedByName(history.getAssignedByName() != null ? history.getAssignedByName() : "Unknown");
+        dto.setReason(history.getReason());
         return dto;
     }
 
-    private StatusChangeEventDto mapToStatusChangeEventDto(MilestoneStatusHistory history) {
+    private StatusChangeEventDto mapToStatusChangeEventDto(StatusHistoryEventProjection history) {
         StatusChangeEventDto dto = new StatusChangeEventDto();
-        dto.setDate(history.getChangeDate());
-        dto.setPreviousStatus(history.getPreviousStatus().getName());
-        dto.setNewStatus(history.getNewStatus().getName());
-        dto.setChangedBy(history.getChangedBy() != null ? history.getChangedBy().getId() : null);
-        dto.setChangedByName(history.getChangedBy() != null ? history.getChangedBy().getFullName() : "Unknown");
-        dto.setReason(history.getChangeReason());
+        dto.setDate(history.getEventDate());
+        dto.setPreviousStatus(history.getPreviousStatus());
+        dto.setNewStatus(history.getNewStatus());
+        dto.setChangedBy(history.getChangedBy());
+        dto.setChangedByName(history.getChangedBy() != null ? history.getChangedByName() : "Unknown");
+        dto.setReason(history.getReason());
         return dto;
     }
 
+    private record HistoryEvents(Map<Long, List<AssignmentEventDto>> byAssignment,
+                                 Map<Long, List<StatusChangeEventDto>> byStatus) {
+
+        List<AssignmentEventDto> assignmentEvents(Long milestoneAssignmentId) {
+            return byAssignment.getOrDefault(milestoneAssignmentId, List.of());
+        }
+
+        List<StatusChangeEventDto> statusEvents(Long milestoneAssignmentId) {
+            return byStatus.getOrDefault(milestoneAssignmentId, List.of());
+        }
+    }
+
+    /**
+     * Keyset position in the merged timeline: events are ordered by
+     * (date, source, id) with assignments before status changes on equal dates.
+     */
+    private record TimelineCursor(long dateMillis, int source, long id) {
+
+        static final int ASSIGNMENT = 0;
+        static final int STATUS_CHANGE = 1;
+
+        /** Before every event that has a date. */
+        static final TimelineCursor START = new TimelineCursor(0L, -1, -1L);
+
+        static TimelineCursor parse(String cursor) {
+            if (cursor == null || cursor.isBlank()) {
+                return START;
+            }
+            String[] parts = cursor.split(":");
+            try {
+                if (parts.length == 3) {
+                    int source = Integer.parseInt(parts[1]);
+                    if (source == ASSIGNMENT || source == STATUS_CHANGE) {
+                        return new TimelineCursor(Long.parseLong(parts[0]), source, Long.parseLong(parts[2]));
+                    }
+                }
+            } catch (NumberFormatException ignored) {
+                // fall through
+            }
+            throw new ValidationException("Invalid timeline cursor", "INVALID_TIMELINE_CURSOR");
+        }
+
+        Date date() {
+            return new Date(dateMillis);
+        }
+
+        /**
+         * afterId for a source's keyset query: sources ordered after the
+         * cursor's take events at the same date, sources before it do not.
+         */
+        long afterIdFor(int querySource) {
+            if (querySource > source) return -1L;
+            if (querySource < source) return Long.MAX_VALUE;
+            return id;
+        }
+
+        String encode() {
+            return dateMillis + ":" + source + ":" + id;
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
     public ProjectResponseDto getProjectByUnbilledNumber(String unbilledNumber) {
@@ -2388,8 +2911,8 @@ public class ProjectServiceImpl implements ProjectService {
             );        }
 
         // 🔥 Find or create CANCELLED status
-        ProjectStatus cancelledStatus = projectStatusRepository
-                .findByName("CANCELLED")
+        ProjectStatus cancelledStatus = referenceDataService
+                .projectStatusByName("CANCELLED")
                 .orElseGet(() -> {
                     ProjectStatus newStatus = new ProjectStatus();
                     newStatus.setName("CANCELLED");
@@ -2419,13 +2942,9 @@ public class ProjectServiceImpl implements ProjectService {
         User loggedInUser = userRepository.findActiveUserById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found", "ERR_USER_NOT_FOUND"));
 
-        boolean isAdmin = loggedInUser.getRoles()
-                .stream()
-                .anyMatch(r -> "ADMIN".equalsIgnoreCase(r.getName()));
+        boolean isAdmin = referenceDataService.roleNames(loggedInUser.getId()).stream().anyMatch("ADMIN"::equalsIgnoreCase);
 
-        boolean isOperationHead = loggedInUser.getRoles()
-                .stream()
-                .anyMatch(r -> "OPERATION_HEAD".equalsIgnoreCase(r.getName()));
+        boolean isOperationHead = referenceDataService.roleNames(loggedInUser.getId()).stream().anyMatch("OPERATION_HEAD"::equalsIgnoreCase);
 
         /*
          * ADMIN / OPERATION_HEAD:
@@ -2449,7 +2968,7 @@ public class ProjectServiceImpl implements ProjectService {
                 Sort.by(Sort.Direction.DESC, "createdDate")
         );
 
-        Page<Project> projectPage = projectRepository.findSalesProjectStatusDashboard(
+        Page<Project> projectPage = findSalesDashboardProjects(
                 effectiveSalesPersonId,
                 normalize(statusName),
                 normalize(search),
@@ -2625,6 +3144,44 @@ public class ProjectServiceImpl implements ProjectService {
                 && assignment.getStatus().getName().equalsIgnoreCase(statusName);
     }
 
+    /**
+     * Resolves the dashboard text search through the project search index when it
+     * is ready, then pages the matching ids in the database. Falls back to the
+     * LIKE query when the index is unavailable or the hit count exceeds the limit.
+     */
+    private Page<Project> findSalesDashboardProjects(
+            Long salesPersonId,
+            String statusName,
+            String search,
+            Pageable pageable
+    ) {
+        if (search != null && projectSearchIndex.isReady()) {
+            try {
+                ProjectSearchResult result = projectSearchIndex.search(new ProjectSearchQuery(
+                        search,
+                        ProjectSearchField.DASHBOARD,
+                        false,
+                        statusName,
+                        null,
+                        null,
+                        salesPersonId,
+                        null,
+                        DASHBOARD_SEARCH_MAX_HITS
+                ));
+                if (!result.truncated()) {
+                    return result.projectIds().isEmpty()
+                            ? Page.empty(pageable)
+                            : projectRepository.findSalesProjectStatusDashboardByIds(
+                                    salesPersonId, statusName, result.projectIds(), pageable);
+                }
+            } catch (Exception e) {
+                logger.warn("Project search index query failed, falling back to database: {}", e.getMessage());
+            }
+        }
+
+        return projectRepository.findSalesProjectStatusDashboard(salesPersonId, statusName, search, pageable);
+    }
+
     private String normalize(String value) {
         if (value == null || value.trim().isEmpty()) {
             return null;
@@ -1,5 +1,6 @@
 package com.doc.impl.project;
 
+import com.doc.cache.CacheNames;
 import com.doc.dto.project.status.ProjectStatusRequestDto;
 import com.doc.dto.project.status.ProjectStatusResponseDto;
 import com.doc.entity.project.ProjectStatus;
@@ -10,6 +11,7 @@ import com.doc.service.ProjectStatusService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,6 +28,7 @@ public class ProjectStatusServiceImpl implements ProjectStatusService {
     private ProjectStatusRepository statusRepository;
 
     @Override
+    @CacheEvict(cacheNames = CacheNames.PROJECT_STATUSES, allEntries = true)
     public ProjectStatusResponseDto createStatus(ProjectStatusRequestDto requestDto) {
         logger.info("Creating new project status: {}", requestDto.getName());
 
@@ -44,6 +47,7 @@ public class ProjectStatusServiceImpl implements ProjectStatusService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheNames.PROJECT_STATUSES, allEntries = true)
     public ProjectStatusResponseDto updateStatus(Long id, ProjectStatusRequestDto requestDto) {
         logger.info("Updating project status ID: {}", id);
 
@@ -80,6 +84,7 @@ public class ProjectStatusServiceImpl implements ProjectStatusService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheNames.PROJECT_STATUSES, allEntries = true)
     public void deleteStatus(Long id) {
         logger.info("Soft deleting project status ID: {}", id);
         ProjectStatus status = statusRepository.findActiveById(id)
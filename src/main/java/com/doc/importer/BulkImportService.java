@@ -0,0 +1,302 @@
+package com.doc.importer;
+
+import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.S3Object;
+import com.doc.config.S3Service;
+import com.doc.dto.importer.BulkImportJobResponseDto;
+import com.doc.em.BackgroundJobType;
+import com.doc.em.BulkImportJobStatus;
+import com.doc.entity.job.BackgroundJob;
+import com.doc.exception.ResourceNotFoundException;
+import com.doc.exception.ValidationException;
+import com.doc.job.BackgroundJobContext;
+import com.doc.job.BackgroundJobPool;
+import com.doc.job.BackgroundJobRegistry;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * Streaming bulk-import engine.
+ *
+ * An import reads a CSV, XLSX or XLS file from S3 row by row
+ * ({@link TabularFileReader}), maps each row with an {@link ImportRowHandler}
+ * and writes the mapped rows in chunks of {@code import.batch-size}, one
+ * transaction per chunk. A chunk that fails is retried row by row so only
+ * the bad rows are rejected. Rejected rows are written to a CSV result file
+ * that is uploaded to S3 when the import finishes and can be downloaded with
+ * {@link #openResult(String)}.
+ *
+ * Jobs run on a bounded worker pool ({@code import.workers}, queue
+ * {@code import.queue-capacity}) of the {@link BackgroundJobRegistry};
+ * callers poll {@link #getJob(String)} on any node for progress, which is
+ * stored after every chunk. Finished jobs are kept for
+ * {@code import.job-retention-minutes}.
+ */
+@Service
+public class BulkImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkImportService.class);
+
+    private static final String RESULT_KEY_PREFIX = "imports/results/";
+
+    private final S3Service s3Service;
+    private final BackgroundJobRegistry jobRegistry;
+    private final TransactionTemplate chunkTransactionTemplate;
+    private final int batchSize;
+
+    public BulkImportService(
+            S3Service s3Service,
+            BackgroundJobRegistry jobRegistry,
+            PlatformTransactionManager transactionManager,
+            @Value("${import.workers:2}") int workers,
+            @Value("${import.queue-capacity:20}") int queueCapacity,
+            @Value("${import.batch-size:500}") int batchSize,
+            @Value("${import.job-retention-minutes:60}") long retentionMinutes
+    ) {
+        this.s3Service = s3Service;
+        this.jobRegistry = jobRegistry;
+        this.chunkTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+
+        jobRegistry.register(BackgroundJobType.BULK_IMPORT, new BackgroundJobPool(
+                "bulk-import", "bulk.import.jobs", "Bulk import jobs",
+                workers, queueCapacity, Duration.ofMinutes(retentionMinutes)));
+    }
+
+    /**
+     * Queues an import of the S3 object {@code s3Key}.
+     */
+    public <T> BulkImportJobResponseDto submit(String importType, String s3Key, ImportRowHandler<T> handler) {
+        BackgroundJob job = newJob(importType, s3Key);
+
+        try {
+            jobRegistry.submit(job, context -> run(job, context, handler));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Bulk import queue full, rejected {} import of {}", importType, s3Key);
+            throw new ValidationException(
+                    "Import queue is full. Please retry shortly.",
+                    "ERR_IMPORT_QUEUE_FULL"
+            );
+        }
+
+        logger.info("Bulk import job {} ({}) queued for {}", job.getId(), importType, s3Key);
+        return toDto(job);
+    }
+
+    /**
+     * Runs an import in the calling thread. The job is registered like a
+     * queued one, so its result file can be downloaded afterwards.
+     */
+    public <T> BulkImportJobResponseDto runNow(String importType, String s3Key, ImportRowHandler<T> handler) {
+        BackgroundJob job = newJob(importType, s3Key);
+        return toDto(jobRegistry.runNow(job, context -> run(job, context, handler)));
+    }
+
+    public BulkImportJobResponseDto getJob(String jobId) {
+        return toDto(findJob(jobId));
+    }
+
+    /**
+     * The result file of a finished job: one line per rejected row.
+     */
+    public S3Object openResult(String jobId) {
+        BackgroundJob job = findJob(jobId);
+        if (job.getResultKey() == null) {
+            throw new ResourceNotFoundException(
+                    "No result file for import job: " + jobId, "ERR_IMPORT_RESULT_NOT_FOUND");
+        }
+        return s3Service.getObject(job.getResultKey());
+    }
+
+    // ====================== RUN ======================
+
+    private <T> void run(BackgroundJob job, BackgroundJobContext context, ImportRowHandler<T> handler)
+            throws IOException {
+        File source = null;
+        File result = null;
+        try {
+            source = download(job.getSource());
+            result = File.createTempFile("import-result-", ".csv");
+
+            try (CSVPrinter printer = new CSVPrinter(
+                    Files.newBufferedWriter(result.toPath(), StandardCharsets.UTF_8),
+                    CSVFormat.DEFAULT.builder().setHeader("row_number", "error_code", "message").build())) {
+
+                ChunkWriter<T> writer = new ChunkWriter<>(context, handler, printer);
+                TabularFileReader.read(source, job.getSource(), writer::accept);
+                writer.flush();
+            }
+
+            if (context.getRowsFailed() > 0) {
+                String resultKey = RESULT_KEY_PREFIX + job.getId() + ".csv";
+                s3Service.uploadFile(resultKey, result, "text/csv");
+                context.setResultKey(resultKey);
+            }
+
+            logger.info("Bulk import job {} ({}) completed: {} rows, {} imported, {} failed",
+                    job.getId(), job.getCategory(), context.getRowsProcessed(),
+                    context.getRowsSucceeded(), context.getRowsFailed());
+
+        } finally {
+            deleteQuietly(source);
+            deleteQuietly(result);
+        }
+    }
+
+    /**
+     * Copies the object to a temp file: the XLSX reader needs random access,
+     * and the S3 connection is released before the slow part starts.
+     */
+    private File download(String s3Key) throws IOException {
+        File file = File.createTempFile("import-source-", ".tmp");
+        try (S3Object object = s3Service.getObject(s3Key);
+             InputStream in = object.getObjectContent()) {
+            Files.copy(in, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            return file;
+        } catch (AmazonS3Exception e) {
+            deleteQuietly(file);
+            throw new ValidationException("Cannot access S3 file: " + s3Key, "ERR_IMPORT_SOURCE_UNAVAILABLE");
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(file);
+            throw e;
+        }
+    }
+
+    /**
+     * Buffers mapped rows and writes them one chunk per transaction.
+     */
+    private final class ChunkWriter<T> {
+
+        private final BackgroundJobContext context;
+        private final ImportRowHandler<T> handler;
+        private final CSVPrinter printer;
+        private final List<ImportItem<T>> chunk = new ArrayList<>(batchSize);
+
+        ChunkWriter(BackgroundJobContext context, ImportRowHandler<T> handler, CSVPrinter printer) {
+            this.context = context;
+            this.handler = handler;
+            this.printer = printer;
+        }
+
+        void accept(ImportRow row) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new ValidationException("Import interrupted", "ERR_IMPORT_INTERRUPTED");
+            }
+
+            context.addProcessed(1);
+            try {
+                chunk.add(new ImportItem<>(row.getRowNumber(), handler.map(row)));
+            } catch (ValidationException e) {
+                fail(row.getRowNumber(), e.getErrorCode(), e.getMessage());
+            } catch (RuntimeException e) {
+                fail(row.getRowNumber(), "ERR_IMPORT_ROW_INVALID", e.getMessage());
+            }
+
+            if (chunk.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            List<ImportItem<T>> items = List.copyOf(chunk);
+            chunk.clear();
+
+            try {
+                write(items);
+            } catch (RuntimeException e) {
+                logger.warn("Bulk import job {}: chunk of {} rows failed ({}), retrying row by row",
+                        context.getJobId(), items.size(), e.getMessage());
+                for (ImportItem<T> item : items) {
+                    try {
+                        write(List.of(item));
+                    } catch (ValidationException ve) {
+                        fail(item.rowNumber(), ve.getErrorCode(), ve.getMessage());
+                    } catch (RuntimeException re) {
+                        fail(item.rowNumber(), "ERR_IMPORT_FAILED", handler.describeFailure(re));
+                    }
+                }
+            }
+            context.reportProgress();
+        }
+
+        private void write(List<ImportItem<T>> items) {
+            List<Rejection> rejections = new ArrayList<>();
+            chunkTransactionTemplate.executeWithoutResult(status ->
+                    handler.persist(items, (rowNumber, code, message) ->
+                            rejections.add(new Rejection(rowNumber, code, message))));
+
+            Set<Long> rejectedRows = rejections.stream().map(Rejection::rowNumber).collect(Collectors.toSet());
+            rejections.forEach(r -> fail(r.rowNumber(), r.errorCode(), r.message()));
+
+            List<ImportItem<T>> imported = items.stream()
+                    .filter(item -> !rejectedRows.contains(item.rowNumber()))
+                    .toList();
+            context.addSucceeded(imported.size());
+            handler.imported(imported);
+        }
+
+        private void fail(long rowNumber, String errorCode, String message) {
+            context.addFailed(1);
+            try {
+                printer.printRecord(rowNumber, errorCode, message);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    // ====================== JOBS ======================
+
+    private BackgroundJob newJob(String importType, String s3Key) {
+        BackgroundJob job = jobRegistry.newJob(BackgroundJobType.BULK_IMPORT);
+        job.setCategory(importType);
+        job.setSource(s3Key);
+        return job;
+    }
+
+    private BackgroundJob findJob(String jobId) {
+        return jobRegistry.find(BackgroundJobType.BULK_IMPORT, jobId)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Import job not found: " + jobId, "ERR_IMPORT_JOB_NOT_FOUND"));
+    }
+
+    private static BulkImportJobResponseDto toDto(BackgroundJob job) {
+        return new BulkImportJobResponseDto(
+                job.getId(), job.getCategory(), BulkImportJobStatus.valueOf(job.getStatus().name()), job.getSource(),
+                job.getRowsProcessed(), job.getRowsSucceeded(), job.getRowsFailed(),
+                job.getResultKey() != null, job.getError(), job.getSubmittedAt(), job.getCompletedAt()
+        );
+    }
+
+    private static void deleteQuietly(File file) {
+        if (file != null && !file.delete() && file.exists()) {
+            logger.warn("Could not delete temp file {}", file);
+        }
+    }
+
+    private record Rejection(long rowNumber, String errorCode, String message) {
+    }
+}
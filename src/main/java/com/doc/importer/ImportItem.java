@@ -0,0 +1,7 @@
+package com.doc.importer;
+
+/**
+ * A mapped row together with its row number in the source file.
+ */
+public record ImportItem<T>(long rowNumber, T value) {
+}
@@ -0,0 +1,10 @@
+package com.doc.importer;
+
+/**
+ * Collects rows a handler refused while persisting a chunk.
+ */
+@FunctionalInterface
+public interface ImportRejections {
+
+    void reject(long rowNumber, String errorCode, String message);
+}
@@ -0,0 +1,77 @@
+package com.doc.importer;
+
+import org.springframework.util.StringUtils;
+
+import java.util.Map;
+
+/**
+ * One data row of an import file, keyed by normalized header
+ * (trimmed, lower case, whitespace replaced by underscores).
+ */
+public final class ImportRow {
+
+    private final long rowNumber;
+    private final Map<String, String> values;
+
+    ImportRow(long rowNumber, Map<String, String> values) {
+        this.rowNumber = rowNumber;
+        this.values = values;
+    }
+
+    public static String normalizeHeader(String header) {
+        return header == null ? "" : header.trim().toLowerCase().replaceAll("\\s+", "_");
+    }
+
+    /**
+     * 1-based row number in the file; the header is row 1.
+     */
+    public long getRowNumber() {
+        return rowNumber;
+    }
+
+    /**
+     * First non-blank value among the given column names, trimmed.
+     */
+    public String getString(String... columns) {
+        for (String column : columns) {
+            String value = values.get(normalizeHeader(column));
+            if (StringUtils.hasText(value)) {
+                return value.trim();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * true, yes, y and 1 (any case) are true; anything else, including a
+     * missing value, is false.
+     */
+    public boolean getBoolean(String... columns) {
+        String value = getString(columns);
+        return value != null && (value.equalsIgnoreCase("true") || value.equalsIgnoreCase("yes")
+                || value.equalsIgnoreCase("y") || value.equals("1"));
+    }
+
+    /**
+     * Digits of the value as an integer ("500 KB" gives 500), or null.
+     */
+    public Integer getInteger(String... columns) {
+        String value = getString(columns);
+        if (value == null) {
+            return null;
+        }
+        String numeric = value.replaceAll("[^0-9]", "");
+        if (numeric.isEmpty()) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(numeric);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public boolean isBlank() {
+        return values.values().stream().noneMatch(StringUtils::hasText);
+    }
+}
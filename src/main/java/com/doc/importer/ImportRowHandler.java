@@ -0,0 +1,43 @@
+package com.doc.importer;
+
+import com.doc.exception.ValidationException;
+
+import java.util.List;
+
+/**
+ * Import-specific part of a bulk import: how a row becomes a value and how
+ * a chunk of values is written.
+ *
+ * @param <T> the mapped row type, usually the entity to save
+ */
+public interface ImportRowHandler<T> {
+
+    /**
+     * Converts one row. Throw {@link ValidationException} to reject the row;
+     * its code and message end up in the result file.
+     */
+    T map(ImportRow row);
+
+    /**
+     * Writes a chunk inside the engine's transaction. Rows that must not be
+     * written (duplicates and the like) are passed to {@code rejections};
+     * every other row counts as imported once the transaction commits.
+     *
+     * If this throws, the chunk is rolled back and retried one row at a time
+     * so that only the offending rows fail.
+     */
+    void persist(List<ImportItem<T>> chunk, ImportRejections rejections);
+
+    /**
+     * Called after a chunk committed, with the rows that were written.
+     */
+    default void imported(List<ImportItem<T>> items) {
+    }
+
+    /**
+     * Message for a row whose write failed with an unexpected exception.
+     */
+    default String describeFailure(Exception e) {
+        return e.getMessage();
+    }
+}
@@ -0,0 +1,212 @@
+package com.doc.importer;
+
+import com.doc.exception.ValidationException;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Streams the data rows of the first sheet of an XLSX file, an XLS file or
+ * a CSV file (with a header row) to a consumer.
+ *
+ * XLSX is parsed with POI's SAX event API from a file on disk, so memory use
+ * does not grow with the sheet. XLS has no cheap streaming path and is
+ * limited to 65,536 rows, so it is read with the regular workbook API.
+ * Blank rows are skipped.
+ */
+public final class TabularFileReader {
+
+    private TabularFileReader() {
+    }
+
+    public static void read(File file, String fileName, Consumer<ImportRow> consumer) throws IOException {
+        String lowerName = fileName == null ? "" : fileName.toLowerCase();
+        if (lowerName.endsWith(".xlsx")) {
+            readXlsx(file, consumer);
+        } else if (lowerName.endsWith(".xls")) {
+            readXls(file, consumer);
+        } else {
+            readCsv(file, consumer);
+        }
+    }
+
+    // ====================== CSV ======================
+
+    private static void readCsv(File file, Consumer<ImportRow> consumer) throws IOException {
+        CSVFormat format = CSVFormat.DEFAULT.builder()
+                .setHeader()
+                .setSkipHeaderRecord(true)
+                .setTrim(true)
+                .build();
+
+        try (Reader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8));
+             CSVParser parser = new CSVParser(reader, format)) {
+
+            List<String> headers = parser.getHeaderNames();
+            if (headers == null || headers.isEmpty()) {
+                throw new ValidationException("CSV file has no header row", "ERR_IMPORT_NO_HEADER");
+            }
+            List<String> columns = headers.stream().map(ImportRow::normalizeHeader).toList();
+
+            for (CSVRecord record : parser) {
+                Map<String, String> values = new HashMap<>();
+                for (int i = 0; i < columns.size() && i < record.size(); i++) {
+                    putValue(values, columns.get(i), record.get(i));
+                }
+                emit(consumer, record.getRecordNumber() + 1, values);
+            }
+        }
+    }
+
+    // ====================== XLSX ======================
+
+    private static void readXlsx(File file, Consumer<ImportRow> consumer) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            XSSFReader xssfReader = new XSSFReader(pkg);
+            StylesTable styles = xssfReader.getStylesTable();
+
+            Iterator<InputStream> sheets = xssfReader.getSheetsData();
+            if (!sheets.hasNext()) {
+                throw new ValidationException("No sheets found", "ERR_IMPORT_NO_SHEET");
+            }
+
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(
+                        styles, null, strings, new SheetRowCollector(consumer), new DataFormatter(), false));
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Invalid XLSX file: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Collects the cells of each row reported by the SAX handler. The first
+     * row seen is the header.
+     */
+    private static final class SheetRowCollector implements SheetContentsHandler {
+
+        private final Consumer<ImportRow> consumer;
+        private List<String> columns;
+        private final Map<Integer, String> cells = new HashMap<>();
+        private int currentCol = -1;
+
+        SheetRowCollector(Consumer<ImportRow> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells.clear();
+            currentCol = -1;
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            // The reference is omitted for some generated files; fall back to position
+            currentCol = cellReference != null ? new CellReference(cellReference).getCol() : currentCol + 1;
+            cells.put(currentCol, formattedValue);
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (columns == null) {
+                columns = headerColumns(cells);
+                if (columns.stream().allMatch(String::isEmpty)) {
+                    throw new ValidationException("No header row", "ERR_IMPORT_NO_HEADER");
+                }
+                return;
+            }
+
+            Map<String, String> values = new HashMap<>();
+            cells.forEach((col, value) -> {
+                if (col < columns.size()) {
+                    putValue(values, columns.get(col), value);
+                }
+            });
+            emit(consumer, rowNum + 1L, values);
+        }
+    }
+
+    // ====================== XLS ======================
+
+    private static void readXls(File file, Consumer<ImportRow> consumer) throws IOException {
+        DataFormatter formatter = new DataFormatter();
+        try (Workbook workbook = WorkbookFactory.create(file, null, true)) {
+            if (workbook.getNumberOfSheets() == 0) {
+                throw new ValidationException("No sheets found", "ERR_IMPORT_NO_SHEET");
+            }
+            Sheet sheet = workbook.getSheetAt(0);
+            Row headerRow = sheet.getRow(sheet.getFirstRowNum());
+            if (headerRow == null) {
+                throw new ValidationException("No header row", "ERR_IMPORT_NO_HEADER");
+            }
+
+            Map<Integer, String> headerCells = new HashMap<>();
+            headerRow.forEach(cell -> headerCells.put(cell.getColumnIndex(), formatter.formatCellValue(cell)));
+            List<String> columns = headerColumns(headerCells);
+
+            for (int i = headerRow.getRowNum() + 1; i <= sheet.getLastRowNum(); i++) {
+                Row row = sheet.getRow(i);
+                if (row == null) {
+                    continue;
+                }
+                Map<String, String> values = new HashMap<>();
+                for (Cell cell : row) {
+                    if (cell.getColumnIndex() < columns.size()) {
+                        putValue(values, columns.get(cell.getColumnIndex()), formatter.formatCellValue(cell));
+                    }
+                }
+                emit(consumer, i + 1L, values);
+            }
+        }
+    }
+
+    // ====================== SHARED ======================
+
+    private static List<String> headerColumns(Map<Integer, String> headerCells) {
+        int width = headerCells.keySet().stream().mapToInt(Integer::intValue).max().orElse(-1) + 1;
+        List<String> columns = new ArrayList<>(width);
+        for (int i = 0; i < width; i++) {
+            columns.add(ImportRow.normalizeHeader(headerCells.get(i)));
+        }
+        return columns;
+    }
+
+    private static void putValue(Map<String, String> values, String column, String value) {
+        // Unnamed columns are ignored; with repeated names the first one wins
+        if (!column.isEmpty()) {
+            values.putIfAbsent(column, value);
+        }
+    }
+
+    private static void emit(Consumer<ImportRow> consumer, long rowNumber, Map<String, String> values) {
+        ImportRow row = new ImportRow(rowNumber, values);
+        if (!row.isBlank()) {
+            consumer.accept(row);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.doc.job;
+
+/**
+ * Progress and result of a running job, handed to its {@link BackgroundJobTask}.
+ *
+ * Counters are kept in memory and written to the job row by
+ * {@link #reportProgress()} and when the job finishes.
+ */
+public final class BackgroundJobContext {
+
+    private final String jobId;
+    private final BackgroundJobRegistry registry;
+
+    private volatile long rowsProcessed;
+    private volatile long rowsSucceeded;
+    private volatile long rowsFailed;
+    private volatile String resultKey;
+    private volatile Object result;
+
+    BackgroundJobContext(String jobId, BackgroundJobRegistry registry) {
+        this.jobId = jobId;
+        this.registry = registry;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void addProcessed(long rows) {
+        rowsProcessed += rows;
+    }
+
+    public void addSucceeded(long rows) {
+        rowsSucceeded += rows;
+    }
+
+    public void addFailed(long rows) {
+        rowsFailed += rows;
+    }
+
+    public long getRowsProcessed() {
+        return rowsProcessed;
+    }
+
+    public long getRowsSucceeded() {
+        return rowsSucceeded;
+    }
+
+    public long getRowsFailed() {
+        return rowsFailed;
+    }
+
+    public String getResultKey() {
+        return resultKey;
+    }
+
+    /**
+     * Storage key of the file the job produced.
+     */
+    public void setResultKey(String resultKey) {
+        this.resultKey = resultKey;
+    }
+
+    Object getResult() {
+        return result;
+    }
+
+    /**
+     * Value the job produced; stored as JSON and read back with
+     * {@link BackgroundJobRegistry#readResult}.
+     */
+    public void setResult(Object result) {
+        this.result = result;
+    }
+
+    /**
+     * Writes the counters to the job row so pollers on any node see them.
+     */
+    public void reportProgress() {
+        registry.reportProgress(this);
+    }
+}
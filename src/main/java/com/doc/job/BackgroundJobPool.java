@@ -0,0 +1,21 @@
+package com.doc.job;
+
+import java.time.Duration;
+
+/**
+ * Worker pool of one job type.
+ *
+ * @param threadPrefix  worker thread name prefix
+ * @param metricPrefix  prefix of the {@code .queued} and {@code .running} gauges
+ * @param description   what the jobs are, for the gauge descriptions
+ * @param workers       worker threads
+ * @param queueCapacity jobs that may wait for a worker; further submissions are rejected
+ * @param retention     how long finished jobs are kept
+ */
+public record BackgroundJobPool(String threadPrefix,
+                                String metricPrefix,
+                                String description,
+                                int workers,
+                                int queueCapacity,
+                                Duration retention) {
+}
@@ -0,0 +1,369 @@
+package com.doc.job;
+
+import com.doc.em.BackgroundJobStatus;
+import com.doc.em.BackgroundJobType;
+import com.doc.entity.job.BackgroundJob;
+import com.doc.exception.ValidationException;
+import com.doc.repository.BackgroundJobRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs document-expiry, import and export jobs and keeps their state in
+ * {@link BackgroundJob} rows.
+ *
+ * Each job type registers a bounded worker pool ({@link BackgroundJobPool});
+ * submissions beyond its queue capacity are rejected. A job runs on the node
+ * that accepted it, but its status, counters and result are written to the
+ * database, so a poll answered by any node sees the same job.
+ *
+ * Every node refreshes the heartbeat of its unfinished jobs; jobs whose
+ * heartbeat is older than {@code background-job.orphan-timeout-seconds}
+ * (their node stopped) are failed. Finished jobs are deleted after the
+ * retention of their pool.
+ */
+@Component
+public class BackgroundJobRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(BackgroundJobRegistry.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final int PURGE_BATCH_SIZE = 100;
+    private static final List<BackgroundJobStatus> FINISHED =
+            List.of(BackgroundJobStatus.COMPLETED, BackgroundJobStatus.FAILED);
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final BackgroundJobRepository jobRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<BackgroundJobType, Pool> pools = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<BackgroundJob>> completions = new ConcurrentHashMap<>();
+
+    @Value("${background-job.orphan-timeout-seconds:120}")
+    private long orphanTimeoutSeconds;
+
+    public BackgroundJobRegistry(
+            BackgroundJobRepository jobRepository,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.jobRepository = jobRepository;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public void register(BackgroundJobType type, BackgroundJobPool settings) {
+        register(type, settings, job -> { });
+    }
+
+    /**
+     * Creates the worker pool of a job type.
+     *
+     * @param onPurge called once for every finished job deleted after the
+     *                retention, e.g. to delete its result file
+     */
+    public void register(BackgroundJobType type, BackgroundJobPool settings, Consumer<BackgroundJob> onPurge) {
+        AtomicInteger threadNo = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                settings.workers(),
+                settings.workers(),
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(settings.queueCapacity()),
+                r -> {
+                    Thread thread = new Thread(r, settings.threadPrefix() + "-" + threadNo.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        if (pools.putIfAbsent(type, new Pool(settings, executor, onPurge)) != null) {
+            executor.shutdown();
+            throw new IllegalStateException("Job pool already registered: " + type);
+        }
+
+        Gauge.builder(settings.metricPrefix() + ".queued", executor, e -> e.getQueue().size())
+                .description(settings.description() + " waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder(settings.metricPrefix() + ".running", executor, ThreadPoolExecutor::getActiveCount)
+                .description(settings.description() + " being processed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A new, unsaved job of this node. The caller fills in what the job is
+     * about and passes it to {@link #submit} or {@link #runNow}.
+     */
+    public BackgroundJob newJob(BackgroundJobType type) {
+        LocalDateTime now = LocalDateTime.now();
+        BackgroundJob job = new BackgroundJob();
+        job.setId(UUID.randomUUID().toString());
+        job.setJobType(type);
+        job.setStatus(BackgroundJobStatus.QUEUED);
+        job.setNodeId(nodeId);
+        job.setSubmittedAt(now);
+        job.setHeartbeatAt(now);
+        return job;
+    }
+
+    /**
+     * Saves the job and queues it on the pool of its type.
+     *
+     * @throws RejectedExecutionException when the queue is full; the job is not kept
+     */
+    public BackgroundJob submit(BackgroundJob job, BackgroundJobTask task) {
+        Pool pool = pool(job.getJobType());
+        transactionTemplate.executeWithoutResult(status -> jobRepository.save(job));
+        completions.put(job.getId(), new CompletableFuture<>());
+
+        try {
+            pool.executor.execute(() -> run(job, task));
+        } catch (RejectedExecutionException e) {
+            completions.remove(job.getId());
+            transactionTemplate.executeWithoutResult(status -> jobRepository.deleteJob(job.getId()));
+            throw e;
+        }
+        return job;
+    }
+
+    /**
+     * Saves the job and runs it in the calling thread.
+     *
+     * @return the finished job
+     */
+    public BackgroundJob runNow(BackgroundJob job, BackgroundJobTask task) {
+        transactionTemplate.executeWithoutResult(status -> jobRepository.save(job));
+        completions.put(job.getId(), new CompletableFuture<>());
+        return run(job, task);
+    }
+
+    public Optional<BackgroundJob> find(BackgroundJobType type, String jobId) {
+        return jobRepository.findByIdAndJobType(jobId, type);
+    }
+
+    /**
+     * Completes with the finished job. Jobs of other nodes are watched
+     * through the database.
+     */
+    public CompletableFuture<BackgroundJob> whenFinished(BackgroundJob job) {
+        if (job.getStatus().isFinished()) {
+            return CompletableFuture.completedFuture(job);
+        }
+        return completions.computeIfAbsent(job.getId(), id -> new CompletableFuture<>());
+    }
+
+    public <T> T readResult(BackgroundJob job, Class<T> type) {
+        if (job.getResultJson() == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(job.getResultJson(), type);
+        } catch (JsonProcessingException e) {
+            logger.warn("Unreadable result of job {}: {}", job.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    public int getQueueDepth(BackgroundJobType type) {
+        return pool(type).executor.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pools.values().forEach(pool -> pool.executor.shutdownNow());
+    }
+
+    // ====================== SCHEDULED ======================
+
+    /**
+     * Refreshes this node's heartbeat and fails the jobs of nodes that stopped.
+     */
+    @Scheduled(fixedDelayString = "${background-job.heartbeat-interval-ms:30000}")
+    public void heartbeat() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime cutoff = now.minusSeconds(orphanTimeoutSeconds);
+            Integer orphans = transactionTemplate.execute(status -> {
+                jobRepository.heartbeat(nodeId, now);
+                return jobRepository.failOrphans(cutoff, "The node running the job stopped", now);
+            });
+            if (orphans != null && orphans > 0) {
+                logger.warn("Failed {} background jobs whose node stopped", orphans);
+            }
+        } catch (Exception e) {
+            logger.error("Background job heartbeat failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Completes the futures of watched jobs that finished on other nodes.
+     */
+    @Scheduled(fixedDelayString = "${background-job.watch-interval-ms:2000}")
+    public void pollWatched() {
+        if (completions.isEmpty()) {
+            return;
+        }
+        try {
+            for (BackgroundJob job : jobRepository.findByIdInAndStatusIn(Set.copyOf(completions.keySet()), FINISHED)) {
+                CompletableFuture<BackgroundJob> completion = completions.remove(job.getId());
+                if (completion != null) {
+                    completion.complete(job);
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Background job watch failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${background-job.purge-interval-ms:300000}")
+    public void purgeFinished() {
+        pools.forEach((type, pool) -> {
+            try {
+                LocalDateTime cutoff = LocalDateTime.now().minus(pool.settings.retention());
+                List<BackgroundJob> expired;
+                int purged = 0;
+                do {
+                    expired = jobRepository.findFinishedBefore(type, cutoff, PageRequest.of(0, PURGE_BATCH_SIZE));
+                    for (BackgroundJob job : expired) {
+                        Integer deleted = transactionTemplate.execute(status -> jobRepository.deleteJob(job.getId()));
+                        // Another node may have purged it first; only the deleting node cleans up.
+                        if (deleted != null && deleted > 0) {
+                            purge(pool, job);
+                            purged++;
+                        }
+                    }
+                } while (expired.size() >= PURGE_BATCH_SIZE);
+
+                if (purged > 0) {
+                    logger.info("Purged {} finished {} jobs older than {}", purged, type, cutoff);
+                }
+            } catch (Exception e) {
+                logger.error("Purge of {} jobs failed: {}", type, e.getMessage(), e);
+            }
+        });
+    }
+
+    // ====================== INTERNALS ======================
+
+    private BackgroundJob run(BackgroundJob job, BackgroundJobTask task) {
+        BackgroundJobContext context = new BackgroundJobContext(job.getId(), this);
+        BackgroundJobStatus status = BackgroundJobStatus.COMPLETED;
+        String error = null;
+        try {
+            transactionTemplate.executeWithoutResult(s -> jobRepository.markRunning(job.getId(), LocalDateTime.now()));
+            task.run(context);
+        } catch (ValidationException e) {
+            status = BackgroundJobStatus.FAILED;
+            error = e.getMessage();
+            logger.warn("{} job {} rejected: {}", job.getJobType(), job.getId(), e.getMessage());
+        } catch (Exception e) {
+            status = BackgroundJobStatus.FAILED;
+            error = e.getMessage();
+            logger.error("{} job {} failed: {}", job.getJobType(), job.getId(), e.getMessage(), e);
+        }
+
+        BackgroundJob finished = finish(job, context, status, error);
+        CompletableFuture<BackgroundJob> completion = completions.remove(job.getId());
+        if (completion != null) {
+            completion.complete(finished);
+        }
+        return finished;
+    }
+
+    private BackgroundJob finish(BackgroundJob job, BackgroundJobContext context,
+                                 BackgroundJobStatus status, String error) {
+        String resultJson = null;
+        if (context.getResult() != null) {
+            try {
+                resultJson = objectMapper.writeValueAsString(context.getResult());
+            } catch (JsonProcessingException e) {
+                status = BackgroundJobStatus.FAILED;
+                error = "Result could not be stored: " + e.getMessage();
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        String storedError = truncate(error);
+        String json = resultJson;
+        BackgroundJobStatus finalStatus = status;
+        try {
+            transactionTemplate.executeWithoutResult(s -> jobRepository.finish(
+                    job.getId(), finalStatus,
+                    context.getRowsProcessed(), context.getRowsSucceeded(), context.getRowsFailed(),
+                    context.getResultKey(), json, storedError, now
+            ));
+        } catch (RuntimeException e) {
+            // The heartbeat stops with the node, so the job is eventually failed as an orphan.
+            logger.error("Could not store the outcome of {} job {}: {}", job.getJobType(), job.getId(), e.getMessage(), e);
+        }
+
+        job.setStatus(finalStatus);
+        job.setRowsProcessed(context.getRowsProcessed());
+        job.setRowsSucceeded(context.getRowsSucceeded());
+        job.setRowsFailed(context.getRowsFailed());
+        job.setResultKey(context.getResultKey());
+        job.setResultJson(json);
+        job.setError(storedError);
+        job.setCompletedAt(now);
+        return job;
+    }
+
+    void reportProgress(BackgroundJobContext context) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> jobRepository.updateProgress(
+                    context.getJobId(),
+                    context.getRowsProcessed(), context.getRowsSucceeded(), context.getRowsFailed(),
+                    LocalDateTime.now()
+            ));
+        } catch (RuntimeException e) {
+            // Progress is informational; the final counters are written when the job finishes.
+            logger.warn("Could not store progress of job {}: {}", context.getJobId(), e.getMessage());
+        }
+    }
+
+    private void purge(Pool pool, BackgroundJob job) {
+        try {
+            pool.onPurge.accept(job);
+        } catch (RuntimeException e) {
+            logger.warn("Cleanup of purged job {} failed: {}", job.getId(), e.getMessage());
+        }
+    }
+
+    private Pool pool(BackgroundJobType type) {
+        Pool pool = pools.get(type);
+        if (pool == null) {
+            throw new IllegalStateException("No job pool registered for " + type);
+        }
+        return pool;
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+
+    private record Pool(BackgroundJobPool settings, ThreadPoolExecutor executor, Consumer<BackgroundJob> onPurge) {
+    }
+}
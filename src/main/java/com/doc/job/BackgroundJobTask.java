@@ -0,0 +1,11 @@
+package com.doc.job;
+
+/**
+ * Work of a background job. Throwing fails the job with the exception's
+ * message; returning completes it.
+ */
+@FunctionalInterface
+public interface BackgroundJobTask {
+
+    void run(BackgroundJobContext context) throws Exception;
+}
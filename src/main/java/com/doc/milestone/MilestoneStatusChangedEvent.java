@@ -0,0 +1,25 @@
+package com.doc.milestone;
+
+/**
+ * A committed milestone assignment status change. Carries ids and names only
+ * so it can be handled after the publishing transaction has closed.
+ *
+ * {@code assignedUserId} is the user to notify of the change: null for
+ * unassigned milestones, or when the assignee has been told another way.
+ */
+public record MilestoneStatusChangedEvent(
+        Long projectId,
+        Long assignmentId,
+        String milestoneName,
+        Long assignedUserId,
+        String previousStatus,
+        String newStatus,
+        String reason,
+        Long changedById,
+        String changedByName
+) {
+
+    public boolean completed() {
+        return "COMPLETED".equalsIgnoreCase(newStatus);
+    }
+}
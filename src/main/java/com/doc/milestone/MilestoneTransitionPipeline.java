@@ -0,0 +1,520 @@
+package com.doc.milestone;
+
+import com.doc.em.MilestoneEventStatus;
+import com.doc.entity.milestone.MilestoneEvent;
+import com.doc.entity.project.Project;
+import com.doc.notification.NotificationCreateRequestDto;
+import com.doc.notification.NotificationDisplayType;
+import com.doc.notification.NotificationEventType;
+import com.doc.notification.NotificationModule;
+import com.doc.notification.NotificationPriority;
+import com.doc.repository.MilestoneEventRepository;
+import com.doc.repository.MilestoneStatusHistoryRepository;
+import com.doc.repository.ProjectRepository;
+import com.doc.repository.projection.RecentMilestoneChangeProjection;
+import com.doc.service.NotificationPublisherService;
+import com.doc.service.ProjectService;
+import com.doc.transaction.AfterCommitCollector;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Runs the work that follows a milestone status change outside the
+ * transaction that made it: milestone visibility, the project status rollup
+ * and the status-change notification.
+ *
+ * Events are written to {@code milestone_event} in the transaction that
+ * changed the status, so they commit or roll back with it and survive a
+ * restart. Once it commits this node claims due events ({@code FOR UPDATE
+ * SKIP LOCKED} with a lease, as the notification outbox does); a scheduled
+ * poll claims whatever was left, on any node. Work is collected per project
+ * and each project is always handled on the same single-threaded lane
+ * ({@code milestone.pipeline.lanes}), so a project's events are applied in
+ * order and never concurrently, while different projects proceed in
+ * parallel. Events that arrive while a project is waiting are merged into
+ * one batch and applied in a single transaction, so the project row is
+ * written at most once per batch. The batch's events are marked APPLIED and
+ * its notifications written to the notification outbox in that same
+ * transaction. Dashboard rollups, search and the project detail cache follow
+ * from it through their entity listeners. Applying is idempotent (visibility
+ * and status are recomputed from the committed rows), so two nodes working
+ * on one project at the same time only cost a redundant recompute.
+ *
+ * A failed batch is retried with exponential backoff until
+ * {@code milestone.pipeline.max-attempts}, after which its events are DEAD.
+ * Events claimed but not applied before a shutdown are claimed again when
+ * their lease runs out. The scheduled reconciliation re-applies visibility
+ * and status for every project whose milestones changed during the last
+ * {@code milestone.pipeline.reconcile-lookback-hours}, which also covers
+ * DEAD events.
+ */
+@Component
+public class MilestoneTransitionPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(MilestoneTransitionPipeline.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final MilestoneEventRepository milestoneEventRepository;
+    private final ProjectRepository projectRepository;
+    private final MilestoneStatusHistoryRepository milestoneStatusHistoryRepository;
+    private final ProjectService projectService;
+    private final ProjectStatusRollup projectStatusRollup;
+    private final NotificationPublisherService notificationPublisherService;
+    private final TransactionTemplate applyTransaction;
+    private final TransactionTemplate claimTransaction;
+    private final ExecutorService[] lanes;
+    private final ExecutorService claimer;
+    private final AtomicBoolean claimScheduled = new AtomicBoolean();
+    private final Map<Long, ProjectWork> pending = new ConcurrentHashMap<>();
+    private final AfterCommitCollector<List<Long>> publishedEvents =
+            AfterCommitCollector.afterCommit(ArrayList::new, eventIds -> wakeClaimer());
+
+    private final Counter eventCounter;
+    private final Counter batchCounter;
+    private final Counter failedCounter;
+    private final Counter deadCounter;
+    private final Timer applyTimer;
+
+    @Value("${milestone.pipeline.reconcile-lookback-hours:26}")
+    private long reconcileLookbackHours;
+
+    @Value("${milestone.pipeline.batch-size:200}")
+    private int batchSize;
+
+    @Value("${milestone.pipeline.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${milestone.pipeline.initial-backoff-seconds:5}")
+    private long initialBackoffSeconds;
+
+    @Value("${milestone.pipeline.max-backoff-seconds:900}")
+    private long maxBackoffSeconds;
+
+    @Value("${milestone.pipeline.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Value("${milestone.pipeline.retention-days:7}")
+    private long retentionDays;
+
+    public MilestoneTransitionPipeline(
+            MilestoneEventRepository milestoneEventRepository,
+            ProjectRepository projectRepository,
+            MilestoneStatusHistoryRepository milestoneStatusHistoryRepository,
+            @Lazy ProjectService projectService,
+            ProjectStatusRollup projectStatusRollup,
+            NotificationPublisherService notificationPublisherService,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${milestone.pipeline.lanes:4}") int laneCount
+    ) {
+        this.milestoneEventRepository = milestoneEventRepository;
+        this.projectRepository = projectRepository;
+        this.milestoneStatusHistoryRepository = milestoneStatusHistoryRepository;
+        this.projectService = projectService;
+        this.projectStatusRollup = projectStatusRollup;
+        this.notificationPublisherService = notificationPublisherService;
+
+        this.applyTransaction = new TransactionTemplate(transactionManager);
+        this.applyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.claimTransaction = new TransactionTemplate(transactionManager);
+        this.claimTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.lanes = new ExecutorService[Math.max(1, laneCount)];
+        for (int i = 0; i < lanes.length; i++) {
+            String name = "milestone-pipeline-" + (i + 1);
+            lanes[i] = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        this.claimer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "milestone-pipeline-claim");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.eventCounter = meterRegistry.counter("milestone.pipeline.events");
+        this.batchCounter = meterRegistry.counter("milestone.pipeline.batches");
+        this.failedCounter = meterRegistry.counter("milestone.pipeline.failed");
+        this.deadCounter = meterRegistry.counter("milestone.pipeline.dead");
+        this.applyTimer = Timer.builder("milestone.pipeline.apply")
+                .description("Time to apply one project's batch of milestone status changes")
+                .register(meterRegistry);
+        Gauge.builder("milestone.pipeline.pending", pending, Map::size)
+                .description("Projects waiting for their milestone status changes to be applied")
+                .register(meterRegistry);
+    }
+
+    // ====================== PUBLISH ======================
+
+    /**
+     * Writes the event in the current transaction and claims it once that
+     * commits; without a transaction the event is written and claimed right
+     * away.
+     */
+    public void publish(MilestoneStatusChangedEvent event) {
+        if (event == null || event.projectId() == null) {
+            return;
+        }
+
+        MilestoneEvent saved = milestoneEventRepository.save(MilestoneEvent.from(event, LocalDateTime.now()));
+        publishedEvents.record(eventIds -> eventIds.add(saved.getId()));
+    }
+
+    // ====================== CLAIM ======================
+
+    /**
+     * Picks up events whose publishing node did not claim them, or whose
+     * lease or backoff ran out.
+     */
+    @Scheduled(fixedDelayString = "${milestone.pipeline.poll-interval-ms:10000}")
+    public void poll() {
+        try {
+            claimDue();
+        } catch (Exception e) {
+            logger.error("Milestone pipeline poll failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(cron = "${milestone.pipeline.cleanup-cron:0 45 2 * * *}")
+    public void purgeApplied() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        Integer deleted = claimTransaction.execute(status -> milestoneEventRepository.deleteAppliedBefore(cutoff));
+        logger.info("Milestone pipeline cleanup removed {} applied events older than {}", deleted, cutoff);
+    }
+
+    private void wakeClaimer() {
+        if (!claimScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            claimer.execute(() -> {
+                claimScheduled.set(false);
+                try {
+                    claimDue();
+                } catch (Exception e) {
+                    logger.warn("Milestone pipeline claim failed, will retry on next poll: {}", e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            claimScheduled.set(false);
+        }
+    }
+
+    private void claimDue() {
+        List<MilestoneEvent> batch;
+        do {
+            batch = claimBatch();
+            dispatch(batch);
+        } while (batch.size() >= batchSize);
+    }
+
+    private List<MilestoneEvent> claimBatch() {
+        List<MilestoneEvent> batch = claimTransaction.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<MilestoneEvent> due = milestoneEventRepository.lockDue(now, batchSize);
+            if (!due.isEmpty()) {
+                milestoneEventRepository.extendLease(
+                        due.stream().map(MilestoneEvent::getId).toList(),
+                        now.plusSeconds(leaseSeconds)
+                );
+            }
+            return due;
+        });
+        return batch != null ? batch : List.of();
+    }
+
+    private void dispatch(List<MilestoneEvent> events) {
+        // Group first so a transaction's events for one project (e.g. from a
+        // bulk update) always land in the same batch
+        Map<Long, List<MilestoneEvent>> byProject = new LinkedHashMap<>();
+        for (MilestoneEvent event : events) {
+            byProject.computeIfAbsent(event.getProjectId(), id -> new ArrayList<>()).add(event);
+        }
+
+        byProject.forEach((projectId, projectEvents) -> {
+            eventCounter.increment(projectEvents.size());
+            enqueue(projectId, work -> projectEvents.forEach(work::add));
+        });
+    }
+
+    // ====================== RECONCILIATION ======================
+
+    /**
+     * Re-applies visibility and status for projects with recent milestone
+     * status changes, covering batches lost to a restart or dropped after
+     * repeated failures.
+     */
+    @Scheduled(cron = "${milestone.pipeline.reconcile-cron:0 30 3 * * *}")
+    public void reconcile() {
+        try {
+            Date since = new Date(System.currentTimeMillis() - reconcileLookbackHours * 3_600_000L);
+            List<RecentMilestoneChangeProjection> changes =
+                    milestoneStatusHistoryRepository.findLatestChangePerProjectSince(since);
+
+            for (RecentMilestoneChangeProjection change : changes) {
+                enqueue(change.getProjectId(), work -> work.recalculate(change.getChangedById()));
+            }
+            logger.info("Milestone pipeline reconciliation queued {} projects changed since {}", changes.size(), since);
+        } catch (Exception e) {
+            logger.error("Milestone pipeline reconciliation failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!pending.isEmpty()) {
+            logger.warn("Milestone pipeline stopping with {} projects pending; their events are claimed again "
+                    + "when the lease runs out", pending.size());
+        }
+        claimer.shutdownNow();
+        for (ExecutorService lane : lanes) {
+            lane.shutdownNow();
+        }
+    }
+
+    // ====================== LANES ======================
+
+    /**
+     * Adds to the project's pending work, scheduling a drain on its lane
+     * when there was none. A drain takes the whole entry, so anything added
+     * while it runs starts a new entry and a new drain behind it.
+     */
+    private void enqueue(Long projectId, Consumer<ProjectWork> change) {
+        boolean[] created = {false};
+        pending.compute(projectId, (id, work) -> {
+            if (work == null) {
+                work = new ProjectWork();
+                created[0] = true;
+            }
+            change.accept(work);
+            return work;
+        });
+        if (created[0]) {
+            schedule(projectId);
+        }
+    }
+
+    private void schedule(Long projectId) {
+        try {
+            lanes[Math.floorMod(projectId.hashCode(), lanes.length)].execute(() -> drain(projectId));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Milestone pipeline is shut down, project {} left for the next claim", projectId);
+        }
+    }
+
+    private void drain(Long projectId) {
+        ProjectWork work = pending.remove(projectId);
+        if (work == null) {
+            return;
+        }
+
+        try {
+            applyTimer.record(() -> applyTransaction.executeWithoutResult(status -> {
+                apply(projectId, work);
+                if (!work.eventIds.isEmpty()) {
+                    milestoneEventRepository.markApplied(work.eventIds, LocalDateTime.now());
+                }
+            }));
+            batchCounter.increment();
+        } catch (Exception e) {
+            recordFailure(projectId, work, e);
+        }
+    }
+
+    /**
+     * Leaves the batch's events for a later claim after a backoff based on
+     * the most attempts any of them has made, or marks them DEAD.
+     */
+    private void recordFailure(Long projectId, ProjectWork work, Exception e) {
+        failedCounter.increment();
+        if (work.eventIds.isEmpty()) {
+            logger.error("Milestone pipeline reconciliation failed. projectId={}", projectId, e);
+            return;
+        }
+
+        int attempts = work.attempts + 1;
+        LocalDateTime nextAttemptAt = LocalDateTime.now().plus(backoff(attempts));
+        String error = describe(e);
+        claimTransaction.executeWithoutResult(status -> milestoneEventRepository.recordFailure(
+                work.eventIds, maxAttempts, nextAttemptAt, error));
+
+        if (attempts >= maxAttempts) {
+            long dead = milestoneEventRepository.countByIdInAndStatus(work.eventIds, MilestoneEventStatus.DEAD);
+            deadCounter.increment(dead);
+            logger.error("Milestone pipeline batch moved to dead letter. projectId={}, events={}, attempts={}",
+                    projectId, work.eventIds.size(), attempts, e);
+        } else {
+            logger.warn("Milestone pipeline batch failed, retry at {}. projectId={}, attempt={}, reason={}",
+                    nextAttemptAt, projectId, attempts, error);
+        }
+    }
+
+    /**
+     * initial * 2^(attempt - 1), capped, with up to 20% jitter.
+     */
+    private Duration backoff(int attempts) {
+        long seconds = initialBackoffSeconds << Math.min(attempts - 1, 20);
+        seconds = Math.min(seconds, maxBackoffSeconds);
+        long jitter = (long) (seconds * 0.2 * Math.random());
+        return Duration.ofSeconds(seconds + jitter);
+    }
+
+    private String describe(Exception e) {
+        String message = e.getClass().getSimpleName() + ": " + e.getMessage();
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    // ====================== APPLY ======================
+
+    private void apply(Long projectId, ProjectWork work) {
+        Project project = projectRepository.findById(projectId).orElse(null);
+        if (project == null) {
+            logger.warn("Milestone pipeline skipped missing project {}", projectId);
+            return;
+        }
+
+        /*
+         * Completing a milestone can make the next one visible once its
+         * payment and predecessor conditions are met.
+         */
+        if (work.recalculateVisibility) {
+            projectService.updateMilestoneVisibilities(project, work.actorId);
+        }
+
+        projectStatusRollup.apply(project, work.actorId);
+
+        for (MilestoneStatusChangedEvent event : work.collapsedPerAssignment()) {
+            notifyAssignee(project, event);
+        }
+
+        logger.info("Milestone pipeline applied. projectId={}, events={}, visibilityRecalculated={}",
+                projectId, work.events.size(), work.recalculateVisibility);
+    }
+
+    private void notifyAssignee(Project project, MilestoneStatusChangedEvent event) {
+        Long receiverId = event.assignedUserId();
+        if (receiverId == null || receiverId.equals(event.changedById())
+                || Objects.equals(event.previousStatus(), event.newStatus())) {
+            return;
+        }
+
+        String projectName = project.getName() != null ? project.getName().trim() : "Project-" + project.getId();
+        String projectNumber = project.getProjectNo() != null ? project.getProjectNo().trim() : "";
+
+        String metadataJson =
+                "{"
+                        + "\"projectId\":" + project.getId() + ","
+                        + "\"projectName\":\"" + escapeJson(projectName) + "\","
+                        + "\"projectNumber\":\"" + escapeJson(projectNumber) + "\","
+                        + "\"milestoneAssignmentId\":" + event.assignmentId() + ","
+                        + "\"milestoneName\":\"" + escapeJson(event.milestoneName()) + "\","
+                        + "\"previousStatus\":\"" + escapeJson(event.previousStatus()) + "\","
+                        + "\"newStatus\":\"" + escapeJson(event.newStatus()) + "\","
+                        + "\"changedById\":" + event.changedById() + ","
+                        + "\"reason\":\"" + escapeJson(event.reason()) + "\""
+                        + "}";
+
+        notificationPublisherService.sendNotification(
+                NotificationCreateRequestDto.builder()
+                        .receiverId(receiverId)
+                        .actorId(event.changedById())
+                        .actorName(event.changedByName())
+                        .module(NotificationModule.PROJECT)
+                        .eventType(NotificationEventType.MILESTONE_STATUS_CHANGED)
+                        .referenceId(project.getId())
+                        .referenceNumber(projectNumber)
+                        .title("Project Milestone Status Changed")
+                        .message("Milestone \"" + event.milestoneName() + "\" for project \"" + projectName
+                                + "\" was moved from " + event.previousStatus() + " to " + event.newStatus()
+                                + " by " + event.changedByName() + ".")
+                        .redirectUrl("/projects/" + project.getId() + "/milestones/" + event.assignmentId())
+                        .priority(NotificationPriority.MEDIUM)
+                        .displayType(NotificationDisplayType.INFO)
+                        .metadataJson(metadataJson)
+                        .build()
+        );
+    }
+
+    private String escapeJson(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    /**
+     * Pending work for one project. Only touched inside
+     * {@code pending.compute}, or by the drain that removed it.
+     */
+    private static final class ProjectWork {
+
+        private final List<MilestoneStatusChangedEvent> events = new ArrayList<>();
+        private final List<Long> eventIds = new ArrayList<>();
+        private boolean recalculateVisibility;
+        private Long actorId;
+        private int attempts;
+
+        void add(MilestoneEvent row) {
+            MilestoneStatusChangedEvent event = row.toEvent();
+            events.add(event);
+            eventIds.add(row.getId());
+            recalculateVisibility |= event.completed();
+            actorId = event.changedById();
+            attempts = Math.max(attempts, row.getAttempts());
+        }
+
+        void recalculate(Long changedById) {
+            recalculateVisibility = true;
+            if (actorId == null) {
+                actorId = changedById;
+            }
+        }
+
+        /**
+         * One event per assignment, from its first previous status to its
+         * last new status, so a burst of changes sends one notification.
+         */
+        Collection<MilestoneStatusChangedEvent> collapsedPerAssignment() {
+            Map<Long, MilestoneStatusChangedEvent> byAssignment = new LinkedHashMap<>();
+            for (MilestoneStatusChangedEvent event : events) {
+                byAssignment.merge(event.assignmentId(), event, (first, last) -> new MilestoneStatusChangedEvent(
+                        last.projectId(),
+                        last.assignmentId(),
+                        last.milestoneName(),
+                        last.assignedUserId(),
+                        first.previousStatus(),
+                        last.newStatus(),
+                        last.reason(),
+                        last.changedById(),
+                        last.changedByName()
+                ));
+            }
+            return byAssignment.values();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.doc.milestone;
+
+import com.doc.cache.ReferenceDataService;
+import com.doc.constants.StatusConstants;
+import com.doc.entity.project.Project;
+import com.doc.entity.project.ProjectMilestoneAssignment;
+import com.doc.entity.project.ProjectStatus;
+import com.doc.exception.ResourceNotFoundException;
+import com.doc.repository.ProjectMilestoneAssignmentRepository;
+import com.doc.repository.ProjectRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Derives a project's status from the statuses of its milestone assignments:
+ * all completed is COMPLETED, any in progress, on hold or in rework is
+ * IN_PROGRESS, anything else is OPEN. Force-closed, cancelled and refunded
+ * projects are left alone.
+ *
+ * Must be called inside a transaction.
+ */
+@Component
+public class ProjectStatusRollup {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectStatusRollup.class);
+
+    private static final List<String> ACTIVE_MILESTONE_STATUSES = List.of("IN_PROGRESS", "ON_HOLD", "REWORK");
+
+    private final ProjectMilestoneAssignmentRepository projectMilestoneAssignmentRepository;
+    private final ProjectRepository projectRepository;
+    private final ReferenceDataService referenceDataService;
+
+    public ProjectStatusRollup(
+            ProjectMilestoneAssignmentRepository projectMilestoneAssignmentRepository,
+            ProjectRepository projectRepository,
+            ReferenceDataService referenceDataService
+    ) {
+        this.projectMilestoneAssignmentRepository = projectMilestoneAssignmentRepository;
+        this.projectRepository = projectRepository;
+        this.referenceDataService = referenceDataService;
+    }
+
+    public void apply(Project project, Long updatedById) {
+        if (project == null || project.getStatus() == null) {
+            return;
+        }
+
+        Long currentProjectStatusId = project.getStatus().getId();
+
+        /*
+         * Do not allow milestone calculation to overwrite
+         * administrative/terminal project statuses.
+         */
+        if (StatusConstants.PROJECT_FORCE_CLOSED_ID.equals(currentProjectStatusId)
+                || StatusConstants.PROJECT_CANCELLED_ID.equals(currentProjectStatusId)
+                || StatusConstants.PROJECT_REFUNDED_ID.equals(currentProjectStatusId)) {
+
+            logger.info("Skipping automatic project status update. projectId={}, currentStatus={}",
+                    project.getId(), project.getStatus().getName());
+            return;
+        }
+
+        List<ProjectMilestoneAssignment> assignments =
+                projectMilestoneAssignmentRepository.findByProjectIdAndIsDeletedFalse(project.getId());
+
+        String newStatusName;
+
+        if (assignments.isEmpty()) {
+            newStatusName = "OPEN";
+        } else if (assignments.stream().allMatch(assignment ->
+                assignment.getStatus() != null
+                        && "COMPLETED".equalsIgnoreCase(assignment.getStatus().getName()))) {
+            newStatusName = "COMPLETED";
+        } else if (assignments.stream().anyMatch(assignment ->
+                assignment.getStatus() != null
+                        && ACTIVE_MILESTONE_STATUSES.contains(assignment.getStatus().getName().toUpperCase()))) {
+            newStatusName = "IN_PROGRESS";
+        } else {
+            newStatusName = "OPEN";
+        }
+
+        // Leave the row untouched when nothing changes, so no update (and no
+        // row lock) is taken on the project
+        if (newStatusName.equalsIgnoreCase(project.getStatus().getName())) {
+            return;
+        }
+
+        ProjectStatus status = referenceDataService.projectStatusByName(newStatusName)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Project status not found: " + newStatusName,
+                        "STATUS_NOT_FOUND"
+                ));
+
+        project.setStatus(status);
+        project.setUpdatedBy(updatedById);
+        project.setUpdatedDate(new Date());
+
+        projectRepository.save(project);
+    }
+}
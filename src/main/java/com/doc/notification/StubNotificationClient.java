@@ -0,0 +1,61 @@
+package com.doc.notification;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for notification-service, enabled with
+ * {@code notification.client.stub=true}. Logs instead of calling the remote
+ * service and can fail a share of calls ({@code notification.client.stub.failure-rate},
+ * 0.0 - 1.0) to exercise outbox retries.
+ */
+@Slf4j
+@Primary
+@Component
+@ConditionalOnProperty(name = "notification.client.stub", havingValue = "true")
+public class StubNotificationClient implements NotificationClient {
+
+    private final AtomicLong ids = new AtomicLong();
+
+    @Value("${notification.client.stub.failure-rate:0.0}")
+    private double failureRate;
+
+    @Override
+    public NotificationResponseDto createNotification(NotificationCreateRequestDto requestDto) {
+
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            throw new IllegalStateException("Stub notification-service failure");
+        }
+
+        log.info("[STUB-NOTIFICATION] receiverId={} | eventType={} | referenceId={} | title={}",
+                requestDto.getReceiverId(), requestDto.getEventType(),
+                requestDto.getReferenceId(), requestDto.getTitle());
+
+        NotificationResponseDto response = new NotificationResponseDto();
+        response.setId(ids.incrementAndGet());
+        response.setReceiverId(requestDto.getReceiverId());
+        response.setActorId(requestDto.getActorId());
+        response.setActorName(requestDto.getActorName());
+        response.setModule(requestDto.getModule());
+        response.setEventType(requestDto.getEventType());
+        response.setReferenceId(requestDto.getReferenceId());
+        response.setReferenceNumber(requestDto.getReferenceNumber());
+        response.setTitle(requestDto.getTitle());
+        response.setMessage(requestDto.getMessage());
+        response.setRedirectUrl(requestDto.getRedirectUrl());
+        response.setPriority(requestDto.getPriority());
+        response.setDisplayType(requestDto.getDisplayType());
+        response.setMetadataJson(requestDto.getMetadataJson());
+        response.setRead(false);
+        response.setDeleted(false);
+        response.setCreatedAt(LocalDateTime.now());
+        return response;
+    }
+}
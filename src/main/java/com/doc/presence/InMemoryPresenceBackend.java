@@ -0,0 +1,25 @@
+package com.doc.presence;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Single-node backend ({@code presence.backend=memory}): this process is the
+ * only source of presence, so there is nothing to publish or poll. Only
+ * correct when a single instance runs, e.g. locally and in tests.
+ */
+@Component
+@ConditionalOnProperty(name = "presence.backend", havingValue = "memory")
+public class InMemoryPresenceBackend implements PresenceBackend {
+
+    @Override
+    public void publishSessions(Map<Long, Boolean> changes) {
+    }
+
+    @Override
+    public RemotePresence poll() {
+        return RemotePresence.NONE;
+    }
+}
@@ -0,0 +1,142 @@
+package com.doc.presence;
+
+import com.doc.entity.user.PresenceNode;
+import com.doc.entity.user.PresenceNodeUser;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Shares presence through the database, so every node sees the sessions of
+ * the others. The default backend ({@code presence.backend=jdbc}).
+ *
+ * Each node registers itself in {@link PresenceNode} with a heartbeat and
+ * lists the users holding sessions on it in {@link PresenceNodeUser}; nodes
+ * that stop heartbeating are ignored and later purged. Explicit presence is
+ * read back from the user_online_status rows every node writes behind, by
+ * updated_date, with a small overlap so rows committed late are not missed.
+ */
+@Component
+@ConditionalOnProperty(name = "presence.backend", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcPresenceBackend implements PresenceBackend {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcPresenceBackend.class);
+
+    private static final long CHANGE_OVERLAP_MILLIS = 10_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${presence.node-timeout-seconds:30}")
+    private long nodeTimeoutSeconds;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private volatile boolean registered;
+
+    private Instant changesSince = Instant.now().minusMillis(CHANGE_OVERLAP_MILLIS);
+
+    @Override
+    public void publishSessions(Map<Long, Boolean> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        if (!registered) {
+            // Session rows without a node row are purged as orphans
+            heartbeat();
+        }
+
+        List<Long> connected = new ArrayList<>();
+        List<Long> disconnected = new ArrayList<>();
+        changes.forEach((userId, present) -> (present ? connected : disconnected).add(userId));
+
+        if (!connected.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "INSERT IGNORE INTO presence_node_user (node_id, user_id) VALUES (?, ?)",
+                    connected, connected.size(), (ps, userId) -> {
+                        ps.setString(1, nodeId);
+                        ps.setLong(2, userId);
+                    });
+        }
+        if (!disconnected.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "DELETE FROM presence_node_user WHERE node_id = ? AND user_id = ?",
+                    disconnected, disconnected.size(), (ps, userId) -> {
+                        ps.setString(1, nodeId);
+                        ps.setLong(2, userId);
+                    });
+        }
+    }
+
+    @Override
+    public synchronized RemotePresence poll() {
+        heartbeat();
+
+        Instant pollStartedAt = Instant.now();
+        List<ExplicitPresence> changes = jdbcTemplate.query("""
+                SELECT user_id, is_online, last_online
+                FROM user_online_status
+                WHERE updated_date > ? AND is_deleted = false
+                """,
+                (rs, i) -> {
+                    Timestamp lastOnline = rs.getTimestamp("last_online");
+                    return new ExplicitPresence(rs.getLong("user_id"), rs.getBoolean("is_online"),
+                            lastOnline != null ? lastOnline.toInstant() : null);
+                },
+                Timestamp.from(changesSince));
+        changesSince = pollStartedAt.minusMillis(CHANGE_OVERLAP_MILLIS);
+
+        Set<Long> sessionUsers = new HashSet<>(jdbcTemplate.queryForList("""
+                SELECT DISTINCT u.user_id
+                FROM presence_node_user u
+                JOIN presence_node n ON n.node_id = u.node_id
+                WHERE n.node_id <> ?
+                  AND n.heartbeat_at > NOW() - INTERVAL ? SECOND
+                """, Long.class, nodeId, nodeTimeoutSeconds));
+
+        purgeDeadNodes();
+        return new RemotePresence(changes, sessionUsers);
+    }
+
+    @PreDestroy
+    public void leave() {
+        try {
+            jdbcTemplate.update("DELETE FROM presence_node_user WHERE node_id = ?", nodeId);
+            jdbcTemplate.update("DELETE FROM presence_node WHERE node_id = ?", nodeId);
+        } catch (RuntimeException e) {
+            logger.warn("Presence node {} could not deregister: {}", nodeId, e.getMessage());
+        }
+    }
+
+    private void heartbeat() {
+        jdbcTemplate.update("""
+                INSERT INTO presence_node (node_id, heartbeat_at) VALUES (?, NOW())
+                ON DUPLICATE KEY UPDATE heartbeat_at = NOW()
+                """, nodeId);
+        registered = true;
+    }
+
+    private void purgeDeadNodes() {
+        int nodes = jdbcTemplate.update(
+                "DELETE FROM presence_node WHERE heartbeat_at < NOW() - INTERVAL ? SECOND",
+                nodeTimeoutSeconds * 20);
+        // Also catches rows of nodes that died between publishing and their first heartbeat
+        int users = jdbcTemplate.update("""
+                DELETE u FROM presence_node_user u
+                LEFT JOIN presence_node n ON n.node_id = u.node_id
+                WHERE n.node_id IS NULL
+                """);
+        if (nodes > 0 || users > 0) {
+            logger.info("Purged {} dead presence nodes ({} session rows)", nodes, users);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.doc.presence;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Shares presence between application nodes for {@link PresenceRegistry}.
+ *
+ * Each node owns its WebSocket sessions and publishes which users have one;
+ * explicit online/offline calls are shared through the user_online_status
+ * rows the registry writes behind. Selected with {@code presence.backend}:
+ * {@code jdbc} (default) or {@code memory} (single node only).
+ */
+public interface PresenceBackend {
+
+    /**
+     * Users that now have (true) or no longer have (false) a WebSocket
+     * session on this node.
+     */
+    void publishSessions(Map<Long, Boolean> changes);
+
+    /**
+     * Explicit presence written by any node since the previous poll, and the
+     * users that have sessions on other live nodes.
+     */
+    RemotePresence poll();
+
+    record RemotePresence(List<ExplicitPresence> explicitChanges, Set<Long> sessionUsers) {
+
+        public static final RemotePresence NONE = new RemotePresence(List.of(), Set.of());
+    }
+
+    record ExplicitPresence(long userId, boolean online, Instant lastOnline) {
+    }
+}
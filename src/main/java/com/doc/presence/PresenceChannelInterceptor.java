@@ -0,0 +1,76 @@
+package com.doc.presence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds chat WebSocket sessions into the {@link PresenceRegistry}.
+ *
+ * Clients identify themselves with a {@code userId} native header on the
+ * STOMP CONNECT frame; sessions without it do not count as presence. Every
+ * later inbound frame, heartbeats included, refreshes the session.
+ */
+@Component
+public class PresenceChannelInterceptor implements ChannelInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PresenceChannelInterceptor.class);
+
+    public static final String USER_ID_HEADER = "userId";
+
+    /** Client-to-server heartbeat interval the broker asks for. */
+    public static final long SERVER_RECEIVE_HEARTBEAT_MILLIS = 10_000;
+
+    @Autowired
+    private PresenceRegistry presenceRegistry;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (sessionId == null) {
+            return message;
+        }
+
+        SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+        if (type == SimpMessageType.CONNECT) {
+            connected(sessionId, StompHeaderAccessor.wrap(message));
+        } else if (type == SimpMessageType.DISCONNECT) {
+            presenceRegistry.sessionDisconnected(sessionId);
+        } else {
+            presenceRegistry.sessionActivity(sessionId);
+        }
+        return message;
+    }
+
+    private void connected(String sessionId, StompHeaderAccessor accessor) {
+        if (accessor.getCommand() != StompCommand.CONNECT && accessor.getCommand() != StompCommand.STOMP) {
+            return;
+        }
+
+        String userIdHeader = accessor.getFirstNativeHeader(USER_ID_HEADER);
+        if (userIdHeader == null || userIdHeader.isBlank()) {
+            return;
+        }
+
+        Long userId;
+        try {
+            userId = Long.valueOf(userIdHeader.trim());
+        } catch (NumberFormatException e) {
+            logger.warn("Ignoring chat session {} with invalid userId header '{}'", sessionId, userIdHeader);
+            return;
+        }
+
+        long[] heartbeat = accessor.getHeartbeat();
+        long clientSends = heartbeat.length > 0 ? heartbeat[0] : 0;
+        long heartbeatMillis = clientSends > 0 ? Math.max(clientSends, SERVER_RECEIVE_HEARTBEAT_MILLIS) : 0;
+        presenceRegistry.sessionConnected(sessionId, userId, heartbeatMillis);
+    }
+}
@@ -0,0 +1,511 @@
+package com.doc.presence;
+
+import com.doc.entity.user.UserLoginStatus;
+import com.doc.repository.UserLoginStatusBatchRepository;
+import com.doc.repository.UserLoginStatusRepository;
+import com.doc.repository.UserRepository;
+import com.doc.repository.projection.UserDepartmentIdProjection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory presence of every user, the source of truth for "is online"
+ * lookups made by the login-status API and auto-assignment.
+ *
+ * A user is online when
+ * <ul>
+ *   <li>they called set-online today (Asia/Kolkata) and have not called set-offline since, or</li>
+ *   <li>they hold a chat WebSocket session on this node, or</li>
+ *   <li>they hold one on another node ({@link PresenceBackend}).</li>
+ * </ul>
+ * Sessions that negotiated STOMP heartbeats and go quiet are expired by the
+ * sweep; with {@code presence.heartbeat-timeout-seconds} set, so are explicit
+ * logins that stop calling the heartbeat endpoint.
+ *
+ * Online counts per department are kept current on every transition, so both
+ * lookups are constant time. user_online_status is written behind: changes
+ * are coalesced per user and flushed in one batch every
+ * {@code presence.flush-interval-ms}.
+ */
+@Component
+public class PresenceRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(PresenceRegistry.class);
+
+    private static final ZoneId BUSINESS_ZONE = ZoneId.of("Asia/Kolkata");
+
+    @Autowired private UserLoginStatusRepository userLoginStatusRepository;
+    @Autowired private UserLoginStatusBatchRepository userLoginStatusBatchRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private PresenceBackend backend;
+
+    @Value("${presence.heartbeat-timeout-seconds:0}")
+    private long heartbeatTimeoutSeconds;
+
+    @Value("${presence.session-timeout-seconds:60}")
+    private long sessionTimeoutSeconds;
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<String, Session> sessions = new HashMap<>();
+    private final Map<Long, Set<Long>> departmentsByUser = new HashMap<>();
+    private final Map<Long, Integer> onlineByDepartment = new HashMap<>();
+    private final Set<Long> remoteSessionUsers = new HashSet<>();
+
+    /** Users whose user_online_status row is behind. */
+    private final Set<Long> dirty = new LinkedHashSet<>();
+
+    /** Session changes not yet published to the backend; true = user has sessions here. */
+    private final Map<Long, Boolean> sessionChanges = new LinkedHashMap<>();
+
+    private LocalDate today = LocalDate.now(BUSINESS_ZONE);
+    private volatile boolean loaded;
+
+    // ====================== WARM-UP ======================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        List<UserLoginStatus> statuses = userLoginStatusRepository.findAllByIsDeletedFalse();
+
+        synchronized (this) {
+            for (UserLoginStatus status : statuses) {
+                Entry entry = entries.computeIfAbsent(status.getUser().getId(), id -> new Entry());
+                // Rows touched while loading (session connects, API calls) win
+                if (entry.lastOnline == null) {
+                    entry.explicitOnline = status.isOnline();
+                    entry.lastOnline = status.getLastOnline() != null ? status.getLastOnline().toInstant() : null;
+                }
+            }
+            loaded = true;
+        }
+
+        List<Long> online;
+        synchronized (this) {
+            online = entries.entrySet().stream()
+                    .filter(e -> isOnline(e.getKey(), e.getValue()))
+                    .map(Map.Entry::getKey)
+                    .toList();
+        }
+        ensureDepartments(online);
+        synchronized (this) {
+            online.forEach(this::recount);
+        }
+        logger.info("Presence registry loaded → users: {} | online: {}", statuses.size(), online.size());
+    }
+
+    // ====================== EXPLICIT ======================
+
+    public PresenceView setOnline(Long userId) {
+        ensureDepartments(List.of(userId));
+        synchronized (this) {
+            Entry entry = entries.computeIfAbsent(userId, id -> new Entry());
+            entry.explicitOnline = true;
+            entry.lastOnline = Instant.now();
+            recount(userId);
+            dirty.add(userId);
+            return view(userId, entry);
+        }
+    }
+
+    /**
+     * Clears the explicit flag and closes this node's sessions of the user.
+     * Returns empty when the registry knows nothing about the user.
+     */
+    public Optional<PresenceView> setOffline(Long userId) {
+        synchronized (this) {
+            Entry entry = entries.get(userId);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            entry.explicitOnline = false;
+            entry.lastOnline = Instant.now();
+            if (entry.localSessions > 0) {
+                sessions.values().removeIf(s -> s.userId == userId);
+                entry.localSessions = 0;
+                sessionChanges.put(userId, false);
+            }
+            recount(userId);
+            dirty.add(userId);
+            return Optional.of(view(userId, entry));
+        }
+    }
+
+    /**
+     * Keeps an explicit login alive when {@code presence.heartbeat-timeout-seconds}
+     * is set. Returns false when the user is not logged in.
+     */
+    public synchronized boolean heartbeat(Long userId) {
+        Entry entry = entries.get(userId);
+        if (entry == null || !entry.explicitOnline) {
+            return false;
+        }
+        entry.lastOnline = Instant.now();
+        dirty.add(userId);
+        return true;
+    }
+
+    // ====================== SESSIONS ======================
+
+    /**
+     * @param heartbeatMillis interval at which the client promised to send
+     *                        frames, 0 when it did not negotiate heartbeats
+     */
+    public void sessionConnected(String sessionId, Long userId, long heartbeatMillis) {
+        ensureDepartments(List.of(userId));
+        synchronized (this) {
+            if (sessions.containsKey(sessionId)) {
+                return;
+            }
+            sessions.put(sessionId, new Session(userId, Instant.now(), heartbeatMillis));
+            Entry entry = entries.computeIfAbsent(userId, id -> new Entry());
+            boolean wasOnline = isOnline(userId, entry);
+            if (++entry.localSessions == 1) {
+                sessionChanges.put(userId, true);
+            }
+            entry.lastOnline = Instant.now();
+            recount(userId);
+            if (!wasOnline) {
+                dirty.add(userId);
+            }
+        }
+    }
+
+    /**
+     * Any inbound frame, including STOMP heartbeats, on the session.
+     */
+    public synchronized void sessionActivity(String sessionId) {
+        Session session = sessions.get(sessionId);
+        if (session != null) {
+            session.lastSeen = Instant.now();
+        }
+    }
+
+    public synchronized void sessionDisconnected(String sessionId) {
+        Session session = sessions.remove(sessionId);
+        if (session != null) {
+            closeSession(session.userId);
+        }
+    }
+
+    // ====================== LOOKUPS ======================
+
+    public synchronized boolean isOnline(Long userId) {
+        Entry entry = entries.get(userId);
+        return entry != null ? isOnline(userId, entry) : remoteSessionUsers.contains(userId);
+    }
+
+    public synchronized int onlineCountInDepartment(Long departmentId) {
+        return onlineByDepartment.getOrDefault(departmentId, 0);
+    }
+
+    public synchronized Optional<PresenceView> getStatus(Long userId) {
+        Entry entry = entries.get(userId);
+        return entry != null ? Optional.of(view(userId, entry)) : Optional.empty();
+    }
+
+    public synchronized List<PresenceView> getAll() {
+        return entries.entrySet().stream()
+                .map(e -> view(e.getKey(), e.getValue()))
+                .toList();
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * The user's departments changed; applied after the surrounding
+     * transaction commits.
+     */
+    public void updateDepartments(Long userId, Collection<Long> departmentIds) {
+        Set<Long> copy = Set.copyOf(departmentIds);
+        Runnable apply = () -> {
+            synchronized (this) {
+                Entry entry = entries.get(userId);
+                if (entry != null && entry.counted) {
+                    uncount(userId, entry);
+                }
+                departmentsByUser.put(userId, copy);
+                if (entry != null) {
+                    recount(userId);
+                }
+            }
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    // ====================== BACKGROUND ======================
+
+    /**
+     * Writes coalesced user_online_status changes and publishes session
+     * changes to the backend. A failed write is retried on the next flush.
+     */
+    @Scheduled(fixedDelayString = "${presence.flush-interval-ms:2000}")
+    public void flush() {
+        List<UserLoginStatusBatchRepository.Row> rows;
+        Map<Long, Boolean> published;
+        synchronized (this) {
+            rows = new ArrayList<>(dirty.size());
+            for (Long userId : dirty) {
+                Entry entry = entries.get(userId);
+                if (entry != null) {
+                    // Local knowledge only, so a row never echoes another node's sessions
+                    boolean online = (entry.explicitOnline || entry.localSessions > 0) && isToday(entry.lastOnline);
+                    rows.add(new UserLoginStatusBatchRepository.Row(userId, online, entry.lastOnline));
+                }
+            }
+            dirty.clear();
+            published = new LinkedHashMap<>(sessionChanges);
+            sessionChanges.clear();
+        }
+
+        try {
+            userLoginStatusBatchRepository.upsert(rows);
+        } catch (RuntimeException e) {
+            logger.warn("Presence flush failed for {} users, retrying: {}", rows.size(), e.getMessage());
+            synchronized (this) {
+                rows.forEach(r -> dirty.add(r.userId()));
+            }
+        }
+
+        try {
+            backend.publishSessions(published);
+        } catch (RuntimeException e) {
+            logger.warn("Presence session publish failed, retrying: {}", e.getMessage());
+            synchronized (this) {
+                published.forEach(sessionChanges::putIfAbsent);
+            }
+        }
+    }
+
+    /**
+     * Day rollover and heartbeat expiry.
+     */
+    @Scheduled(fixedDelayString = "${presence.sweep-interval-ms:15000}")
+    public synchronized void sweep() {
+        Instant now = Instant.now();
+
+        if (sessionTimeoutSeconds > 0) {
+            Iterator<Session> it = sessions.values().iterator();
+            while (it.hasNext()) {
+                Session session = it.next();
+                // Sessions without heartbeats may legitimately stay silent
+                if (session.heartbeatMillis <= 0) {
+                    continue;
+                }
+                long timeoutMillis = Math.max(sessionTimeoutSeconds * 1000, 3 * session.heartbeatMillis);
+                if (session.lastSeen.isBefore(now.minusMillis(timeoutMillis))) {
+                    it.remove();
+                    closeSession(session.userId);
+                }
+            }
+        }
+
+        if (heartbeatTimeoutSeconds > 0) {
+            Instant cutoff = now.minusSeconds(heartbeatTimeoutSeconds);
+            entries.forEach((userId, entry) -> {
+                if (entry.explicitOnline && entry.localSessions == 0
+                        && entry.lastOnline != null && entry.lastOnline.isBefore(cutoff)) {
+                    entry.explicitOnline = false;
+                    recount(userId);
+                    dirty.add(userId);
+                }
+            });
+        }
+
+        LocalDate current = LocalDate.now(BUSINESS_ZONE);
+        if (!current.equals(today)) {
+            today = current;
+            entries.keySet().forEach(this::recount);
+            logger.info("Presence registry rolled over to {}", current);
+        }
+    }
+
+    /**
+     * Applies presence from other nodes. A no-op with the in-memory backend.
+     */
+    @Scheduled(fixedDelayString = "${presence.remote-poll-interval-ms:5000}")
+    public void pollRemote() {
+        if (!loaded) {
+            return;
+        }
+
+        PresenceBackend.RemotePresence remote;
+        try {
+            remote = backend.poll();
+        } catch (RuntimeException e) {
+            logger.warn("Presence backend poll failed: {}", e.getMessage());
+            return;
+        }
+
+        Set<Long> touched = new HashSet<>(remote.sessionUsers());
+        remote.explicitChanges().forEach(c -> touched.add(c.userId()));
+        synchronized (this) {
+            touched.addAll(remoteSessionUsers);
+        }
+        ensureDepartments(touched);
+
+        synchronized (this) {
+            for (PresenceBackend.ExplicitPresence change : remote.explicitChanges()) {
+                Entry entry = entries.computeIfAbsent(change.userId(), id -> new Entry());
+                if (change.lastOnline() != null
+                        && (entry.lastOnline == null || change.lastOnline().isAfter(entry.lastOnline))) {
+                    entry.explicitOnline = change.online();
+                    entry.lastOnline = change.lastOnline();
+                }
+            }
+            remoteSessionUsers.clear();
+            remoteSessionUsers.addAll(remote.sessionUsers());
+            for (Long userId : touched) {
+                entries.computeIfAbsent(userId, id -> new Entry());
+                recount(userId);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        synchronized (this) {
+            entries.forEach((userId, entry) -> {
+                if (entry.localSessions > 0) {
+                    entry.localSessions = 0;
+                    sessionChanges.put(userId, false);
+                    dirty.add(userId);
+                }
+            });
+            sessions.clear();
+        }
+        flush();
+    }
+
+    // ====================== INTERNALS ======================
+
+    private void closeSession(long userId) {
+        Entry entry = entries.get(userId);
+        if (entry == null || entry.localSessions == 0) {
+            return;
+        }
+        if (--entry.localSessions == 0) {
+            sessionChanges.put(userId, false);
+            entry.lastOnline = Instant.now();
+            recount(userId);
+            dirty.add(userId);
+        }
+    }
+
+    private boolean isOnline(Long userId, Entry entry) {
+        return entry.localSessions > 0
+                || remoteSessionUsers.contains(userId)
+                || (entry.explicitOnline && isToday(entry.lastOnline));
+    }
+
+    private boolean isToday(Instant instant) {
+        return instant != null && instant.atZone(BUSINESS_ZONE).toLocalDate().equals(today);
+    }
+
+    /**
+     * Brings the department counts in line with the user's current state.
+     */
+    private void recount(Long userId) {
+        Entry entry = entries.get(userId);
+        if (entry == null) {
+            return;
+        }
+        boolean online = isOnline(userId, entry);
+        if (online && !entry.counted) {
+            Set<Long> departments = departmentsByUser.getOrDefault(userId, Set.of());
+            departments.forEach(d -> onlineByDepartment.merge(d, 1, Integer::sum));
+            entry.countedDepartments = departments;
+            entry.counted = true;
+        } else if (!online && entry.counted) {
+            uncount(userId, entry);
+        }
+    }
+
+    private void uncount(Long userId, Entry entry) {
+        for (Long departmentId : entry.countedDepartments) {
+            onlineByDepartment.computeIfPresent(departmentId, (d, n) -> n > 1 ? n - 1 : null);
+        }
+        entry.countedDepartments = Set.of();
+        entry.counted = false;
+    }
+
+    /**
+     * Loads departments of users not cached yet, outside the registry lock.
+     */
+    private void ensureDepartments(Collection<Long> userIds) {
+        List<Long> missing;
+        synchronized (this) {
+            missing = userIds.stream()
+                    .filter(Objects::nonNull)
+                    .filter(id -> !departmentsByUser.containsKey(id))
+                    .distinct()
+                    .toList();
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Set<Long>> loadedDepartments = userRepository.findDepartmentIdsByUserIds(missing).stream()
+                .collect(Collectors.groupingBy(UserDepartmentIdProjection::getUserId,
+                        Collectors.mapping(UserDepartmentIdProjection::getDepartmentId, Collectors.toSet())));
+
+        synchronized (this) {
+            for (Long userId : missing) {
+                departmentsByUser.putIfAbsent(userId, loadedDepartments.getOrDefault(userId, Set.of()));
+            }
+        }
+    }
+
+    private PresenceView view(Long userId, Entry entry) {
+        return new PresenceView(userId, isOnline(userId, entry),
+                entry.lastOnline != null ? Date.from(entry.lastOnline) : null);
+    }
+
+    public record PresenceView(Long userId, boolean online, Date lastOnline) {
+    }
+
+    private static final class Entry {
+        private boolean explicitOnline;
+        private Instant lastOnline;
+        private int localSessions;
+        private boolean counted;
+        private Set<Long> countedDepartments = Set.of();
+    }
+
+    private static final class Session {
+        private final long userId;
+        private final long heartbeatMillis;
+        private Instant lastSeen;
+
+        Session(long userId, Instant lastSeen, long heartbeatMillis) {
+            this.userId = userId;
+            this.lastSeen = lastSeen;
+            this.heartbeatMillis = heartbeatMillis;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.doc.projectdetail;
+
+import com.doc.repository.ProjectRepository;
+import com.doc.transaction.AfterCommitCollector;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cache of {@link ProjectDetailView}s keyed by project.
+ *
+ * Every entry records the {@code project.detail_version} it was loaded at,
+ * and every read compares it with the persisted version by primary key, so
+ * all nodes see a write as soon as it commits. A transaction that writes a
+ * project or one of its milestone assignments, or a contact or the company
+ * of its company or unit ({@link ProjectDetailEntityListener}), increments
+ * the versions of the affected projects before it commits. Names of other
+ * referenced rows (product, milestone, assignee) are refreshed when entries
+ * expire after {@code project-detail.cache.ttl-seconds}.
+ */
+@Component
+public class ProjectDetailCache {
+
+    private final ProjectRepository projectRepository;
+    private final Cache<Long, Entry> entries;
+    private final TransactionTemplate bumpTransaction;
+    private final TransactionTemplate lateBumpTransaction;
+    private final AfterCommitCollector<Changes> changes =
+            AfterCommitCollector.aroundCommit(Changes::new, this::bumpBeforeCommit, this::bumpAfterCommit);
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer hitTimer;
+    private final Timer missTimer;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ProjectDetailCache(
+            ProjectRepository projectRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${project-detail.cache.max-entries:2000}") int maxEntries,
+            @Value("${project-detail.cache.ttl-seconds:300}") long ttlSeconds
+    ) {
+        this.projectRepository = projectRepository;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+
+        this.bumpTransaction = new TransactionTemplate(transactionManager);
+        this.bumpTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRED);
+        this.lateBumpTransaction = new TransactionTemplate(transactionManager);
+        this.lateBumpTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.hits = Counter.builder("project.detail.cache")
+                .tag("result", "hit")
+                .description("Project detail views served from the cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("project.detail.cache")
+                .tag("result", "miss")
+                .description("Project detail views loaded from the database")
+                .register(meterRegistry);
+        this.hitTimer = Timer.builder("project.detail.read")
+                .tag("result", "hit")
+                .description("Project detail reads answered from the cache, including the version check")
+                .register(meterRegistry);
+        this.missTimer = Timer.builder("project.detail.read")
+                .tag("result", "miss")
+                .description("Project detail reads that loaded the view from the database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached view if it is still at the persisted version, and
+     * otherwise loads it with {@code loader} and caches it at the version
+     * read before loading. Empty if the project does not exist.
+     */
+    public Optional<ProjectDetailView> get(Long projectId, Supplier<Optional<ProjectDetailView>> loader) {
+        long start = System.nanoTime();
+        Optional<Long> version = projectRepository.findDetailVersionById(projectId);
+        if (version.isEmpty()) {
+            return Optional.empty();
+        }
+
+        long current = version.get();
+        Entry entry = entries.getIfPresent(projectId);
+        if (entry != null && entry.version() == current) {
+            hits.increment();
+            hitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return Optional.of(entry.view());
+        }
+
+        misses.increment();
+        Optional<ProjectDetailView> view = loader.get();
+        view.ifPresent(loaded -> entries.asMap().merge(projectId, new Entry(current, loaded),
+                (cached, fresh) -> fresh.version() >= cached.version() ? fresh : cached));
+        missTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return view;
+    }
+
+    /**
+     * Records a write to a project or its milestone assignments.
+     */
+    public void projectChanged(Long projectId) {
+        if (projectId != null) {
+            changes.record(c -> c.projectIds.add(projectId));
+        }
+    }
+
+    /**
+     * Records a write to a company or a contact, which changes the views of
+     * the company's projects and of the unit's projects.
+     */
+    public void companyChanged(Long companyId, Long unitId) {
+        changes.record(c -> {
+            if (companyId != null) {
+                c.companyIds.add(companyId);
+            }
+            if (unitId != null) {
+                c.unitIds.add(unitId);
+            }
+        });
+    }
+
+    private void bumpBeforeCommit(Changes changes) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // The commit flush runs after this callback, so flush here
+            // to let the listener report the remaining writes first.
+            entityManager.flush();
+        }
+        bumpTransaction.executeWithoutResult(status -> bump(changes));
+    }
+
+    /**
+     * Writes reported by the commit flush itself arrive after the
+     * before-commit callbacks ran; their versions are incremented right
+     * after the commit instead.
+     */
+    private void bumpAfterCommit(Changes changes) {
+        if (!changes.isEmpty()) {
+            lateBumpTransaction.executeWithoutResult(status -> bump(changes));
+        }
+    }
+
+    /**
+     * Increments the versions of the recorded projects and forgets them.
+     */
+    private void bump(Changes changes) {
+        if (!changes.projectIds.isEmpty()) {
+            projectRepository.incrementDetailVersions(changes.projectIds);
+        }
+        if (!changes.companyIds.isEmpty()) {
+            projectRepository.incrementDetailVersionsOfCompanies(changes.companyIds);
+        }
+        if (!changes.unitIds.isEmpty()) {
+            projectRepository.incrementDetailVersionsOfUnits(changes.unitIds);
+        }
+        changes.projectIds.clear();
+        changes.companyIds.clear();
+        changes.unitIds.clear();
+    }
+
+    private record Entry(long version, ProjectDetailView view) {
+    }
+
+    private static final class Changes {
+        private final Set<Long> projectIds = new HashSet<>();
+        private final Set<Long> companyIds = new HashSet<>();
+        private final Set<Long> unitIds = new HashSet<>();
+
+        boolean isEmpty() {
+            return projectIds.isEmpty() && companyIds.isEmpty() && unitIds.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.doc.projectdetail;
+
+import com.doc.entity.client.Company;
+import com.doc.entity.client.Contact;
+import com.doc.entity.project.Project;
+import com.doc.entity.project.ProjectMilestoneAssignment;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * JPA listener that reports writes shown on the project detail page to
+ * {@link ProjectDetailCache}. Like the search listener, the cache is looked
+ * up lazily because listeners are created while the entity manager factory
+ * is still being built.
+ */
+public class ProjectDetailEntityListener {
+
+    @Autowired
+    private ObjectProvider<ProjectDetailCache> cache;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void afterWrite(Object entity) {
+        if (cache == null) {
+            return;
+        }
+
+        if (entity instanceof Project project) {
+            Long projectId = project.getId();
+            cache.ifAvailable(c -> c.projectChanged(projectId));
+        } else if (entity instanceof ProjectMilestoneAssignment assignment) {
+            Long projectId = assignment.getProject() != null ? assignment.getProject().getId() : null;
+            cache.ifAvailable(c -> c.projectChanged(projectId));
+        } else if (entity instanceof Contact contact) {
+            Long companyId = contact.getCompany() != null ? contact.getCompany().getId() : null;
+            Long unitId = contact.getCompanyUnit() != null ? contact.getCompanyUnit().getId() : null;
+            cache.ifAvailable(c -> c.companyChanged(companyId, unitId));
+        } else if (entity instanceof Company company) {
+            Long companyId = company.getId();
+            cache.ifAvailable(c -> c.companyChanged(companyId, null));
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.doc.projectdetail;
+
+import com.doc.entity.client.Contact;
+import com.doc.entity.department.Department;
+import com.doc.entity.project.ProjectMilestoneAssignment;
+import com.doc.entity.user.User;
+import com.doc.repository.ContactRepository;
+import com.doc.repository.ProjectMilestoneAssignmentRepository;
+import com.doc.repository.ProjectRepository;
+import com.doc.repository.projection.ProjectDetailHeaderProjection;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Assembles a {@link ProjectDetailView} with three queries: the header
+ * projection, the fetch-joined milestone assignments and the contacts.
+ * Runs in its own read-only transaction so the view is read from a single,
+ * fresh snapshot.
+ */
+@Component
+public class ProjectDetailReader {
+
+    private static final Comparator<ProjectMilestoneAssignment> DISPLAY_ORDER = Comparator
+            .comparingInt((ProjectMilestoneAssignment a) ->
+                    a.getProductMilestoneMap() != null ? a.getProductMilestoneMap().getOrder() : Integer.MAX_VALUE)
+            .thenComparing(ProjectMilestoneAssignment::getId);
+
+    private final ProjectRepository projectRepository;
+    private final ProjectMilestoneAssignmentRepository projectMilestoneAssignmentRepository;
+    private final ContactRepository contactRepository;
+    private final Timer loadTimer;
+
+    public ProjectDetailReader(
+            ProjectRepository projectRepository,
+            ProjectMilestoneAssignmentRepository projectMilestoneAssignmentRepository,
+            ContactRepository contactRepository,
+            MeterRegistry meterRegistry
+    ) {
+        this.projectRepository = projectRepository;
+        this.projectMilestoneAssignmentRepository = projectMilestoneAssignmentRepository;
+        this.contactRepository = contactRepository;
+        this.loadTimer = Timer.builder("project.detail.load")
+                .description("Time to assemble a project detail view from the database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The view of an active project, or empty if the project does not exist,
+     * is deleted or is cancelled.
+     */
+    @Transactional(readOnly = true)
+    public Optional<ProjectDetailView> load(Long projectId) {
+        return loadTimer.record(() -> assemble(projectId));
+    }
+
+    private Optional<ProjectDetailView> assemble(Long projectId) {
+        Optional<ProjectDetailHeaderProjection> row = projectRepository.findDetailHeaderById(projectId);
+        if (row.isEmpty()) {
+            return Optional.empty();
+        }
+        ProjectDetailView.Header header = toHeader(row.get());
+
+        List<ProjectDetailView.MilestoneEntry> milestones = projectMilestoneAssignmentRepository
+                .findDetailByProjectId(projectId)
+                .stream()
+                .sorted(DISPLAY_ORDER)
+                .map(ProjectDetailReader::toMilestone)
+                .toList();
+
+        return Optional.of(new ProjectDetailView(header, milestones, loadContacts(header)));
+    }
+
+    private List<ProjectDetailView.ContactEntry> loadContacts(ProjectDetailView.Header header) {
+        if (header.companyId() == null && header.unitId() == null) {
+            return List.of();
+        }
+
+        List<Contact> contacts = contactRepository.findForProjectDetail(header.companyId(), header.unitId());
+
+        // Unit contacts first, as they are the most relevant for the project
+        return contacts.stream()
+                .sorted(Comparator.comparing((Contact c) -> !isUnitContact(c, header)))
+                .map(c -> toContact(c, header))
+                .toList();
+    }
+
+    private static boolean isUnitContact(Contact contact, ProjectDetailView.Header header) {
+        return contact.getCompanyUnit() != null && Objects.equals(contact.getCompanyUnit().getId(), header.unitId());
+    }
+
+    private static ProjectDetailView.Header toHeader(ProjectDetailHeaderProjection row) {
+        return new ProjectDetailView.Header(
+                row.getId(),
+                row.getName(),
+                row.getProjectNo(),
+                row.getPriority(),
+                row.getProjectDate(),
+                row.getProductId(),
+                row.getProductName(),
+                row.getCompanyId(),
+                row.getCompanyName(),
+                row.getRating(),
+                row.getUnitId(),
+                row.getUnitName(),
+                row.getCreatedDate(),
+                row.getUpdatedDate(),
+                row.getApplicantId(),
+                row.getApplicantName(),
+                row.getProcurementMilestoneAssignmentId()
+        );
+    }
+
+    private static ProjectDetailView.MilestoneEntry toMilestone(ProjectMilestoneAssignment assignment) {
+        List<Department> departments = assignment.getMilestone().getDepartments();
+        Department department = departments != null && !departments.isEmpty() ? departments.get(0) : null;
+        User assignee = assignment.getAssignedUser();
+
+        return new ProjectDetailView.MilestoneEntry(
+                assignment.getId(),
+                assignment.getMilestone().getId(),
+                assignment.getMilestone().getName(),
+                department != null ? department.getId() : null,
+                department != null ? department.getName() : null,
+                assignment.getStatus().getName(),
+                assignment.getStatusReason(),
+                assignment.getVisibilityReason(),
+                assignment.getReworkAttempts(),
+                assignment.getVisibleDate(),
+                assignment.getStartedDate(),
+                assignment.getCompletedDate(),
+                assignment.isVisible(),
+                assignee != null ? assignee.getId() : null,
+                assignee != null ? assignee.getFullName() : null,
+                assignee != null ? assignee.getEmail() : null,
+                assignee != null ? assignee.getContactNo() : null
+        );
+    }
+
+    private static ProjectDetailView.ContactEntry toContact(Contact contact, ProjectDetailView.Header header) {
+        boolean unit = isUnitContact(contact, header);
+        return new ProjectDetailView.ContactEntry(
+                contact.getId(),
+                contact.getTitle(),
+                contact.getName(),
+                contact.getDesignation() != null ? contact.getDesignation() : contact.getClientDesignation(),
+                unit ? "Unit" : "Company",
+                unit ? header.unitName() : null,
+                contact.getLevelDescription(),
+                contact.isActive(),
+                contact.getEmail(),
+                contact.getContactNo(),
+                contact.getWhatsappNo()
+        );
+    }
+}
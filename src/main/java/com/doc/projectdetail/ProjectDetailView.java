@@ -0,0 +1,81 @@
+package com.doc.projectdetail;
+
+import com.doc.entity.project.ProjectPriority;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Everything the project detail page shows, independent of who is looking:
+ * the project header, all active milestone assignments in display order and
+ * the unit and company contacts unmasked. Per-user filtering and masking are
+ * applied when the view is turned into a response.
+ */
+public record ProjectDetailView(Header header, List<MilestoneEntry> milestones, List<ContactEntry> contacts) {
+
+    public Long projectId() {
+        return header.id();
+    }
+
+    public record Header(
+            Long id,
+            String name,
+            String projectNo,
+            ProjectPriority priority,
+            LocalDate date,
+            Long productId,
+            String productName,
+            Long companyId,
+            String companyName,
+            String rating,
+            Long unitId,
+            String unitName,
+            Date createdDate,
+            Date updatedDate,
+            Long applicantId,
+            String applicantName,
+            Long procurementMilestoneAssignmentId
+    ) {
+    }
+
+    public record MilestoneEntry(
+            Long id,
+            Long milestoneId,
+            String milestoneName,
+            Long departmentId,
+            String departmentName,
+            String status,
+            String statusReason,
+            String visibilityReason,
+            int reworkAttempts,
+            Date visibleDate,
+            Date startedDate,
+            Date completedDate,
+            boolean visible,
+            Long assignedUserId,
+            String assignedUserName,
+            String assignedUserEmail,
+            String assignedUserContactNo
+    ) {
+    }
+
+    /**
+     * @param level "Unit" for contacts of the project's unit, "Company" for
+     *              company-level contacts
+     */
+    public record ContactEntry(
+            Long id,
+            String title,
+            String name,
+            String designation,
+            String level,
+            String unitName,
+            String levelDescription,
+            boolean active,
+            String email,
+            String contactNo,
+            String whatsappNo
+    ) {
+    }
+}
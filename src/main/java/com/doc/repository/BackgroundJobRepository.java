@@ -0,0 +1,103 @@
+package com.doc.repository;
+
+import com.doc.em.BackgroundJobStatus;
+import com.doc.em.BackgroundJobType;
+import com.doc.entity.job.BackgroundJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BackgroundJobRepository extends JpaRepository<BackgroundJob, String> {
+
+    Optional<BackgroundJob> findByIdAndJobType(String id, BackgroundJobType jobType);
+
+    @Modifying
+    @Query("""
+            UPDATE BackgroundJob j
+            SET j.status = com.doc.em.BackgroundJobStatus.RUNNING, j.heartbeatAt = :now
+            WHERE j.id = :id
+            """)
+    int markRunning(@Param("id") String id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+            UPDATE BackgroundJob j
+            SET j.rowsProcessed = :processed, j.rowsSucceeded = :succeeded, j.rowsFailed = :failed,
+                j.heartbeatAt = :now
+            WHERE j.id = :id
+            """)
+    int updateProgress(@Param("id") String id,
+                       @Param("processed") long processed,
+                       @Param("succeeded") long succeeded,
+                       @Param("failed") long failed,
+                       @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+            UPDATE BackgroundJob j
+            SET j.status = :status, j.rowsProcessed = :processed, j.rowsSucceeded = :succeeded,
+                j.rowsFailed = :failed, j.resultKey = :resultKey, j.resultJson = :resultJson,
+                j.error = :error, j.completedAt = :now, j.heartbeatAt = :now
+            WHERE j.id = :id
+            """)
+    int finish(@Param("id") String id,
+               @Param("status") BackgroundJobStatus status,
+               @Param("processed") long processed,
+               @Param("succeeded") long succeeded,
+               @Param("failed") long failed,
+               @Param("resultKey") String resultKey,
+               @Param("resultJson") String resultJson,
+               @Param("error") String error,
+               @Param("now") LocalDateTime now);
+
+    /**
+     * Keeps the unfinished jobs of a live node from being taken for orphans.
+     */
+    @Modifying
+    @Query("""
+            UPDATE BackgroundJob j
+            SET j.heartbeatAt = :now
+            WHERE j.nodeId = :nodeId
+              AND j.status IN (com.doc.em.BackgroundJobStatus.QUEUED, com.doc.em.BackgroundJobStatus.RUNNING)
+            """)
+    int heartbeat(@Param("nodeId") String nodeId, @Param("now") LocalDateTime now);
+
+    /**
+     * Fails unfinished jobs whose node stopped sending heartbeats.
+     */
+    @Modifying
+    @Query("""
+            UPDATE BackgroundJob j
+            SET j.status = com.doc.em.BackgroundJobStatus.FAILED, j.error = :error, j.completedAt = :now
+            WHERE j.status IN (com.doc.em.BackgroundJobStatus.QUEUED, com.doc.em.BackgroundJobStatus.RUNNING)
+              AND j.heartbeatAt < :cutoff
+            """)
+    int failOrphans(@Param("cutoff") LocalDateTime cutoff,
+                    @Param("error") String error,
+                    @Param("now") LocalDateTime now);
+
+    @Query("""
+            SELECT j FROM BackgroundJob j
+            WHERE j.jobType = :jobType
+              AND j.completedAt < :cutoff
+            ORDER BY j.completedAt
+            """)
+    List<BackgroundJob> findFinishedBefore(@Param("jobType") BackgroundJobType jobType,
+                                           @Param("cutoff") LocalDateTime cutoff,
+                                           Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM BackgroundJob j WHERE j.id = :id")
+    int deleteJob(@Param("id") String id);
+
+    List<BackgroundJob> findByIdInAndStatusIn(Collection<String> ids, Collection<BackgroundJobStatus> statuses);
+}
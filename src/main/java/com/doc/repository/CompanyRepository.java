@@ -9,6 +9,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -20,6 +22,9 @@ public interface CompanyRepository extends JpaRepository<Company, Long> {
     @Query("SELECT c FROM Company c WHERE c.id = :id AND c.isDeleted = false")
     Optional<Company> findByIdAndIsDeletedFalse(@Param("id") Long id);
 
+    @Query("SELECT c FROM Company c WHERE c.id IN :ids AND c.isDeleted = false")
+    List<Company> findActiveByIdIn(@Param("ids") Collection<Long> ids);
+
     boolean existsByNameAndIsDeletedFalse(String name);
     boolean existsByPanNoAndIsDeletedFalse(String panNo);
 }
\ No newline at end of file
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,5 +18,7 @@ public interface CompanyUnitRepository extends JpaRepository<CompanyUnit, Long>
 
     Optional<CompanyUnit> findByIdAndCompanyIdAndIsDeletedFalse(Long unitId, Long id);
 
+    List<CompanyUnit> findByIdInAndIsDeletedFalse(Collection<Long> unitIds);
+
     List<CompanyUnit> findByCompanyIdAndIsDeletedFalse(Long companyId);
 }
\ No newline at end of file
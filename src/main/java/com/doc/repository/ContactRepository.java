@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +21,13 @@ public interface ContactRepository extends JpaRepository<Contact, Long> {
             "AND c.isDeleted = false")
     Optional<Contact> findByIdAndDeleteStatusFalseAndIsActiveTrueAndIsDeletedFalse(@Param("id") Long id);
 
+    @Query("SELECT c FROM Contact c " +
+            "WHERE c.id IN :ids " +
+            "AND c.deleteStatus = false " +
+            "AND c.isActive = true " +
+            "AND c.isDeleted = false")
+    List<Contact> findActiveByIdIn(@Param("ids") Collection<Long> ids);
+
     // Other useful methods (recommended)
     @Query("SELECT c FROM Contact c " +
             "WHERE c.companyUnit.id = :unitId " +
@@ -40,4 +48,18 @@ public interface ContactRepository extends JpaRepository<Contact, Long> {
        """)
     List<Contact> findByCompanyUnitIds(@Param("unitIds") List<Long> unitIds);
 
+    /**
+     * Active contacts shown on a project: those of its unit and the
+     * company-level contacts (no unit) of its company, in one query.
+     */
+    @Query("""
+       SELECT c FROM Contact c
+       LEFT JOIN FETCH c.companyUnit u
+       WHERE c.isDeleted = false
+       AND c.isActive = true
+       AND (u.id = :unitId OR (u IS NULL AND c.company.id = :companyId))
+       ORDER BY c.id
+       """)
+    List<Contact> findForProjectDetail(@Param("companyId") Long companyId, @Param("unitId") Long unitId);
+
 }
\ No newline at end of file
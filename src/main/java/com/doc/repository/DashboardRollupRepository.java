@@ -0,0 +1,479 @@
+package com.doc.repository;
+
+import com.doc.em.DashboardRollupDimension;
+import com.doc.entity.project.DashboardRollupBucket;
+import com.doc.entity.project.DashboardRollupMembership;
+import com.doc.entity.project.DashboardRollupPending;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * JDBC access to {@link DashboardRollupPending}, {@link DashboardRollupMembership}
+ * and {@link DashboardRollupBucket}.
+ *
+ * Bucket counts are adjusted with {@code INSERT ... ON DUPLICATE KEY UPDATE}
+ * so concurrent transactions touching the same bucket add their deltas
+ * instead of overwriting each other. All writes must run inside the
+ * caller's transaction.
+ */
+@Repository
+public class DashboardRollupRepository {
+
+    private static final String MARK_PENDING_SQL = """
+            INSERT IGNORE INTO dashboard_rollup_pending (project_id, queued_at)
+            VALUES (?, NOW())
+            """;
+
+    private static final String UPSERT_MEMBERSHIP_SQL = """
+            INSERT INTO dashboard_rollup_membership
+                (project_id, dimension_type, dimension_id, bucket_date, status_id, cancelled)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE
+                bucket_date = VALUES(bucket_date),
+                status_id = VALUES(status_id),
+                cancelled = VALUES(cancelled)
+            """;
+
+    private static final String DELETE_MEMBERSHIP_SQL = """
+            DELETE FROM dashboard_rollup_membership
+            WHERE project_id = ? AND dimension_type = ? AND dimension_id = ?
+            """;
+
+    private static final String ADD_TO_BUCKET_SQL = """
+            INSERT INTO dashboard_rollup_bucket
+                (dimension_type, dimension_id, bucket_date, status_id, cancelled, project_count)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE project_count = project_count + VALUES(project_count)
+            """;
+
+    private static final String MEMBERSHIP_AGGREGATE_SQL = """
+            SELECT dimension_type, dimension_id, bucket_date, status_id, cancelled,
+                   COUNT(*) AS project_count
+            FROM dashboard_rollup_membership
+            GROUP BY dimension_type, dimension_id, bucket_date, status_id, cancelled
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    // ====================== SOURCE DATA ======================
+
+    public List<ProjectFacts> findProjectFacts(Collection<Long> projectIds) {
+        return namedJdbcTemplate.query("""
+                        SELECT id, created_date, status_id, is_cancelled, is_deleted, sales_person_id
+                        FROM project
+                        WHERE id IN (:ids)
+                        """,
+                Map.of("ids", projectIds),
+                (rs, rowNum) -> {
+                    Timestamp createdDate = rs.getTimestamp("created_date");
+                    return new ProjectFacts(
+                            rs.getLong("id"),
+                            createdDate != null ? createdDate.toInstant() : null,
+                            rs.getLong("status_id"),
+                            rs.getBoolean("is_cancelled"),
+                            rs.getBoolean("is_deleted"),
+                            rs.getObject("sales_person_id", Long.class)
+                    );
+                });
+    }
+
+    /**
+     * Assignees of non-deleted milestone assignments, keyed by project id.
+     */
+    public Map<Long, Set<Long>> findAssigneesByProject(Collection<Long> projectIds) {
+        Map<Long, Set<Long>> result = new HashMap<>();
+        namedJdbcTemplate.query("""
+                        SELECT DISTINCT project_id, assigned_user_id
+                        FROM project_milestone_assignment
+                        WHERE project_id IN (:ids)
+                        AND is_deleted = false
+                        AND assigned_user_id IS NOT NULL
+                        """,
+                Map.of("ids", projectIds),
+                rs -> {
+                    result.computeIfAbsent(rs.getLong("project_id"), k -> new HashSet<>())
+                            .add(rs.getLong("assigned_user_id"));
+                });
+        return result;
+    }
+
+    public Map<Long, Set<Long>> findDepartmentsByUser(Collection<Long> userIds) {
+        Map<Long, Set<Long>> result = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return result;
+        }
+        namedJdbcTemplate.query("""
+                        SELECT user_id, dept_id
+                        FROM user_department_map
+                        WHERE user_id IN (:ids)
+                        """,
+                Map.of("ids", userIds),
+                rs -> {
+                    result.computeIfAbsent(rs.getLong("user_id"), k -> new HashSet<>())
+                            .add(rs.getLong("dept_id"));
+                });
+        return result;
+    }
+
+    /**
+     * Project ids after {@code afterId} in id order, including deleted projects.
+     */
+    public List<Long> findProjectIdsAfter(long afterId, int limit) {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM project WHERE id > ? ORDER BY id LIMIT ?",
+                Long.class, afterId, limit);
+    }
+
+    /**
+     * Project ids that still have membership rows but no project row.
+     */
+    public List<Long> findOrphanedMembershipProjectIds() {
+        return jdbcTemplate.queryForList("""
+                SELECT DISTINCT m.project_id
+                FROM dashboard_rollup_membership m
+                LEFT JOIN project p ON p.id = m.project_id
+                WHERE p.id IS NULL
+                """, Long.class);
+    }
+
+    // ====================== PENDING ======================
+
+    public void markPending(Collection<Long> projectIds) {
+        if (projectIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = projectIds.stream().sorted().toList();
+        jdbcTemplate.batchUpdate(MARK_PENDING_SQL, ids, ids.size(), (ps, id) -> ps.setLong(1, id));
+    }
+
+    /**
+     * Locks up to {@code limit} pending projects, skipping rows another
+     * applier already holds.
+     */
+    public List<Long> claimPending(int limit) {
+        return jdbcTemplate.queryForList("""
+                SELECT project_id
+                FROM dashboard_rollup_pending
+                ORDER BY project_id
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+                """, Long.class, limit);
+    }
+
+    public void deletePending(Collection<Long> projectIds) {
+        namedJdbcTemplate.update(
+                "DELETE FROM dashboard_rollup_pending WHERE project_id IN (:ids)",
+                Map.of("ids", projectIds));
+    }
+
+    public boolean hasPending() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM dashboard_rollup_pending)", Boolean.class));
+    }
+
+    // ====================== MEMBERSHIP ======================
+
+    /**
+     * Current membership of the given projects. The caller must hold the
+     * projects' pending rows, which keeps other appliers off them.
+     */
+    public List<MembershipRow> lockMemberships(Collection<Long> projectIds) {
+        return namedJdbcTemplate.query("""
+                        SELECT project_id, dimension_type, dimension_id, bucket_date, status_id, cancelled
+                        FROM dashboard_rollup_membership
+                        WHERE project_id IN (:ids)
+                        FOR UPDATE
+                        """,
+                Map.of("ids", projectIds),
+                (rs, rowNum) -> new MembershipRow(
+                        rs.getLong("project_id"),
+                        DashboardRollupDimension.valueOf(rs.getString("dimension_type")),
+                        rs.getLong("dimension_id"),
+                        rs.getDate("bucket_date").toLocalDate(),
+                        rs.getLong("status_id"),
+                        rs.getBoolean("cancelled")
+                ));
+    }
+
+    public void upsertMemberships(List<MembershipRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_MEMBERSHIP_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, row.projectId());
+            ps.setString(2, row.dimension().name());
+            ps.setLong(3, row.dimensionId());
+            ps.setDate(4, Date.valueOf(row.bucketDate()));
+            ps.setLong(5, row.statusId());
+            ps.setBoolean(6, row.cancelled());
+        });
+    }
+
+    public void deleteMemberships(List<MembershipRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(DELETE_MEMBERSHIP_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, row.projectId());
+            ps.setString(2, row.dimension().name());
+            ps.setLong(3, row.dimensionId());
+        });
+    }
+
+    public boolean hasMemberships() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM dashboard_rollup_membership)", Boolean.class));
+    }
+
+    public boolean hasProjects() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM project)", Boolean.class));
+    }
+
+    // ====================== BUCKETS ======================
+
+    /**
+     * Adds each non-zero delta to its bucket. Keys are written in sorted
+     * order so concurrent transactions lock bucket rows in the same order.
+     */
+    public void addToBuckets(Map<BucketKey, Long> deltas) {
+        List<Map.Entry<BucketKey, Long>> changes = deltas.entrySet().stream()
+                .filter(e -> e.getValue() != 0)
+                .sorted(Map.Entry.comparingByKey())
+                .toList();
+        if (changes.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(ADD_TO_BUCKET_SQL, changes, changes.size(), (ps, change) -> {
+            BucketKey key = change.getKey();
+            ps.setString(1, key.dimension().name());
+            ps.setLong(2, key.dimensionId());
+            ps.setDate(3, Date.valueOf(key.bucketDate()));
+            ps.setLong(4, key.statusId());
+            ps.setBoolean(5, key.cancelled());
+            ps.setLong(6, change.getValue());
+        });
+    }
+
+    /**
+     * Number of buckets whose count differs from the membership table.
+     */
+    public long countBucketDrift() {
+        Long mismatched = jdbcTemplate.queryForObject("""
+                SELECT COUNT(*)
+                FROM dashboard_rollup_bucket b
+                LEFT JOIN (%s) m
+                    ON m.dimension_type = b.dimension_type
+                    AND m.dimension_id = b.dimension_id
+                    AND m.bucket_date = b.bucket_date
+                    AND m.status_id = b.status_id
+                    AND m.cancelled = b.cancelled
+                WHERE b.project_count <> COALESCE(m.project_count, 0)
+                """.formatted(MEMBERSHIP_AGGREGATE_SQL), Long.class);
+
+        Long missing = jdbcTemplate.queryForObject("""
+                SELECT COUNT(*)
+                FROM (%s) m
+                LEFT JOIN dashboard_rollup_bucket b
+                    ON b.dimension_type = m.dimension_type
+                    AND b.dimension_id = m.dimension_id
+                    AND b.bucket_date = m.bucket_date
+                    AND b.status_id = m.status_id
+                    AND b.cancelled = m.cancelled
+                WHERE b.id IS NULL
+                """.formatted(MEMBERSHIP_AGGREGATE_SQL), Long.class);
+
+        return (mismatched != null ? mismatched : 0) + (missing != null ? missing : 0);
+    }
+
+    /**
+     * Replaces every bucket with a fresh count from the membership table.
+     */
+    public void rebuildBucketsFromMemberships() {
+        jdbcTemplate.update("DELETE FROM dashboard_rollup_bucket");
+        jdbcTemplate.update("""
+                INSERT INTO dashboard_rollup_bucket
+                    (dimension_type, dimension_id, bucket_date, status_id, cancelled, project_count)
+                """ + MEMBERSHIP_AGGREGATE_SQL);
+    }
+
+    // ====================== READS ======================
+
+    /**
+     * Summed bucket counts for one dimension value, by status name and cancelled flag.
+     *
+     * @param fromDate inclusive, or null for no lower bound
+     * @param toDate   inclusive, or null for no upper bound
+     */
+    public List<StatusCount> sumBuckets(
+            DashboardRollupDimension dimension,
+            long dimensionId,
+            LocalDate fromDate,
+            LocalDate toDate
+    ) {
+        MapSqlParameterSource params = dateParams(fromDate, toDate)
+                .addValue("dimension", dimension.name())
+                .addValue("dimensionId", dimensionId);
+
+        return namedJdbcTemplate.query("""
+                        SELECT s.name AS status, b.cancelled AS cancelled, SUM(b.project_count) AS project_count
+                        FROM dashboard_rollup_bucket b
+                        JOIN project_statuses s ON s.id = b.status_id
+                        WHERE b.dimension_type = :dimension
+                        AND b.dimension_id = :dimensionId
+                        AND (:fromDate IS NULL OR b.bucket_date >= :fromDate)
+                        AND (:toDate IS NULL OR b.bucket_date <= :toDate)
+                        GROUP BY s.name, b.cancelled
+                        """,
+                params,
+                (rs, rowNum) -> new StatusCount(
+                        rs.getString("status"),
+                        rs.getBoolean("cancelled"),
+                        rs.getLong("project_count")
+                ));
+    }
+
+    /**
+     * Distinct project counts across several users, by status name and
+     * cancelled flag. Bucket rows cannot be summed here because a project
+     * shared by two of the users would be counted twice.
+     */
+    public List<StatusCount> countDistinctForUsers(
+            Collection<Long> userIds,
+            LocalDate fromDate,
+            LocalDate toDate
+    ) {
+        MapSqlParameterSource params = dateParams(fromDate, toDate)
+                .addValue("dimension", DashboardRollupDimension.USER.name())
+                .addValue("userIds", userIds);
+
+        return namedJdbcTemplate.query("""
+                        SELECT s.name AS status, m.cancelled AS cancelled, COUNT(DISTINCT m.project_id) AS project_count
+                        FROM dashboard_rollup_membership m
+                        JOIN project_statuses s ON s.id = m.status_id
+                        WHERE m.dimension_type = :dimension
+                        AND m.dimension_id IN (:userIds)
+                        AND (:fromDate IS NULL OR m.bucket_date >= :fromDate)
+                        AND (:toDate IS NULL OR m.bucket_date <= :toDate)
+                        GROUP BY s.name, m.cancelled
+                        """,
+                params,
+                (rs, rowNum) -> new StatusCount(
+                        rs.getString("status"),
+                        rs.getBoolean("cancelled"),
+                        rs.getLong("project_count")
+                ));
+    }
+
+    /**
+     * Same as {@link #countDistinctForUsers} for a large scope: the users are
+     * taken from the manager's rows in user_hierarchy_closure.
+     */
+    public List<StatusCount> countDistinctForManagerScope(
+            Long managerId,
+            LocalDate fromDate,
+            LocalDate toDate
+    ) {
+        MapSqlParameterSource params = dateParams(fromDate, toDate)
+                .addValue("dimension", DashboardRollupDimension.USER.name())
+                .addValue("managerId", managerId);
+
+        return namedJdbcTemplate.query("""
+                        SELECT s.name AS status, m.cancelled AS cancelled, COUNT(DISTINCT m.project_id) AS project_count
+                        FROM user_hierarchy_closure c
+                        JOIN dashboard_rollup_membership m
+                          ON m.dimension_type = :dimension
+                         AND m.dimension_id = c.descendant_id
+                        JOIN project_statuses s ON s.id = m.status_id
+                        WHERE c.ancestor_id = :managerId
+                        AND (:fromDate IS NULL OR m.bucket_date >= :fromDate)
+                        AND (:toDate IS NULL OR m.bucket_date <= :toDate)
+                        GROUP BY s.name, m.cancelled
+                        """,
+                params,
+                (rs, rowNum) -> new StatusCount(
+                        rs.getString("status"),
+                        rs.getBoolean("cancelled"),
+                        rs.getLong("project_count")
+                ));
+    }
+
+    private MapSqlParameterSource dateParams(LocalDate fromDate, LocalDate toDate) {
+        return new MapSqlParameterSource()
+                .addValue("fromDate", fromDate != null ? Date.valueOf(fromDate) : null, java.sql.Types.DATE)
+                .addValue("toDate", toDate != null ? Date.valueOf(toDate) : null, java.sql.Types.DATE);
+    }
+
+    // ====================== ROWS ======================
+
+    public record ProjectFacts(
+            long id,
+            Instant createdDate,
+            long statusId,
+            boolean cancelled,
+            boolean deleted,
+            Long salesPersonId
+    ) {
+    }
+
+    public record MembershipRow(
+            long projectId,
+            DashboardRollupDimension dimension,
+            long dimensionId,
+            LocalDate bucketDate,
+            long statusId,
+            boolean cancelled
+    ) {
+        public MembershipKey key() {
+            return new MembershipKey(projectId, dimension, dimensionId);
+        }
+
+        public BucketKey bucket() {
+            return new BucketKey(dimension, dimensionId, bucketDate, statusId, cancelled);
+        }
+    }
+
+    public record MembershipKey(
+            long projectId,
+            DashboardRollupDimension dimension,
+            long dimensionId
+    ) {
+    }
+
+    public record BucketKey(
+            DashboardRollupDimension dimension,
+            long dimensionId,
+            LocalDate bucketDate,
+            long statusId,
+            boolean cancelled
+    ) implements Comparable<BucketKey> {
+
+        private static final Comparator<BucketKey> ORDER = Comparator
+                .comparing(BucketKey::dimension)
+                .thenComparingLong(BucketKey::dimensionId)
+                .thenComparing(BucketKey::bucketDate)
+                .thenComparingLong(BucketKey::statusId)
+                .thenComparing(BucketKey::cancelled);
+
+        @Override
+        public int compareTo(BucketKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    public record StatusCount(String status, boolean cancelled, long count) {
+    }
+}
@@ -0,0 +1,28 @@
+package com.doc.repository;
+
+import com.doc.entity.document.DocumentExpiryExtraction;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface DocumentExpiryExtractionRepository extends JpaRepository<DocumentExpiryExtraction, Long> {
+
+    Optional<DocumentExpiryExtraction> findByContentSha256AndExtractorVersion(String contentSha256,
+                                                                             String extractorVersion);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM DocumentExpiryExtraction e WHERE e.contentSha256 = :contentSha256")
+    int deleteByContentSha256(@Param("contentSha256") String contentSha256);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM DocumentExpiryExtraction e WHERE e.extractorVersion <> :extractorVersion")
+    int deleteOtherVersions(@Param("extractorVersion") String extractorVersion);
+}
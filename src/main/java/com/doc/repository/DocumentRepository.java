@@ -4,6 +4,13 @@ import com.doc.entity.document.Document;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface DocumentRepository extends JpaRepository<Document, Long> {
-}
\ No newline at end of file
+
+    /**
+     * Oldest document with the same content, whose stored object can be reused.
+     */
+    Optional<Document> findFirstByContentHashAndFileSizeOrderByIdAsc(String contentHash, Long fileSize);
+}
@@ -0,0 +1,31 @@
+package com.doc.repository;
+
+import com.doc.em.DocumentUploadStatus;
+import com.doc.entity.document.DocumentUploadSession;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DocumentUploadSessionRepository extends JpaRepository<DocumentUploadSession, Long> {
+
+    /**
+     * Locks the session so that concurrent completions create one document.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM DocumentUploadSession s WHERE s.uploadId = :uploadId")
+    Optional<DocumentUploadSession> findByUploadIdForUpdate(@Param("uploadId") String uploadId);
+
+    Optional<DocumentUploadSession> findByUploadId(String uploadId);
+
+    List<DocumentUploadSession> findByStatusAndExpiresAtBefore(
+            DocumentUploadStatus status, LocalDateTime cutoff, Pageable pageable);
+}
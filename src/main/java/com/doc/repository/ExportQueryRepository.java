@@ -0,0 +1,109 @@
+package com.doc.repository;
+
+import com.doc.export.ExportDataset;
+import com.doc.export.ExportScope;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+/**
+ * Runs export queries with a forward-only streaming result set, so rows are
+ * handed to the caller as they arrive instead of being buffered by the driver.
+ */
+@Repository
+public class ExportQueryRepository {
+
+    private final NamedParameterJdbcTemplate streamingJdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public ExportQueryRepository(DataSource dataSource) {
+        JdbcTemplate streaming = new JdbcTemplate(dataSource);
+        // MySQL Connector/J only streams row by row with this fetch size
+        streaming.setFetchSize(Integer.MIN_VALUE);
+        this.streamingJdbcTemplate = new NamedParameterJdbcTemplate(streaming);
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    public long count(ExportDataset dataset, ExportScope scope, LocalDate fromDate, LocalDate toDate) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = "SELECT COUNT(*) " + dataset.getFrom() + filters(dataset, scope, fromDate, toDate, params);
+        Long count = namedJdbcTemplate.queryForObject(sql, params, Long.class);
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * Streams every row of the dataset visible in the scope, ordered by id.
+     * Each row's column values are passed to {@code consumer} in header order.
+     */
+    public void stream(ExportDataset dataset, ExportScope scope, LocalDate fromDate, LocalDate toDate,
+                       ExportRowConsumer consumer) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = dataset.getSelect() + dataset.getFrom()
+                + filters(dataset, scope, fromDate, toDate, params)
+                + " ORDER BY " + dataset.getOrderColumn();
+
+        int columns = dataset.getHeaders().size();
+        streamingJdbcTemplate.query(sql, params, (RowCallbackHandler) rs -> consumer.accept(values(rs, columns)));
+    }
+
+    private static Object[] values(ResultSet rs, int columns) throws SQLException {
+        Object[] values = new Object[columns];
+        for (int i = 0; i < columns; i++) {
+            values[i] = rs.getObject(i + 1);
+        }
+        return values;
+    }
+
+    private static String filters(ExportDataset dataset, ExportScope scope, LocalDate fromDate, LocalDate toDate,
+                                  MapSqlParameterSource params) {
+        StringBuilder sql = new StringBuilder();
+
+        if (fromDate != null) {
+            sql.append(" AND ").append(dataset.getDateColumn()).append(" >= :fromDate");
+            params.addValue("fromDate", Date.valueOf(fromDate));
+        }
+        if (toDate != null) {
+            sql.append(" AND ").append(dataset.getDateColumn()).append(" < :toDateExclusive");
+            params.addValue("toDateExclusive", Date.valueOf(toDate.plusDays(1)));
+        }
+
+        if (!scope.unrestricted()) {
+            if (dataset.getScopeAlias() != null) {
+                sql.append(" AND ").append(assignee(dataset.getScopeAlias(), scope, params));
+            } else {
+                sql.append(" AND EXISTS (SELECT 1 FROM project_milestone_assignment sa")
+                        .append(" WHERE sa.project_id = p.id AND sa.is_deleted = 0 AND ")
+                        .append(assignee("sa", scope, params))
+                        .append(")");
+            }
+        }
+        return sql.toString();
+    }
+
+    private static String assignee(String alias, ExportScope scope, MapSqlParameterSource params) {
+        if (scope.team() == null) {
+            params.addValue("scopeUserId", scope.userId());
+            return alias + ".assigned_user_id = :scopeUserId AND " + alias + ".is_visible = 1";
+        }
+        if (scope.team().closureJoin()) {
+            params.addValue("scopeManagerId", scope.team().userId());
+            return alias + ".assigned_user_id IN (SELECT c.descendant_id FROM user_hierarchy_closure c"
+                    + " WHERE c.ancestor_id = :scopeManagerId)";
+        }
+        params.addValue("scopeUserIds", scope.team().userIdList());
+        return alias + ".assigned_user_id IN (:scopeUserIds)";
+    }
+
+    @FunctionalInterface
+    public interface ExportRowConsumer {
+        void accept(Object[] values);
+    }
+}
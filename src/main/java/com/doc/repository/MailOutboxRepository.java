@@ -0,0 +1,88 @@
+package com.doc.repository;
+
+import com.doc.em.MailCallbackType;
+import com.doc.em.MailOutboxStatus;
+import com.doc.entity.mail.MailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface MailOutboxRepository extends JpaRepository<MailOutbox, Long> {
+
+    /**
+     * Locks due entries; rows already locked by another instance are skipped.
+     * Must run inside a transaction, which then moves next_attempt_at forward as a lease.
+     */
+    @Query(value = """
+            SELECT * FROM mail_outbox
+            WHERE status = 'PENDING'
+              AND next_attempt_at <= :now
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<MailOutbox> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("""
+            UPDATE MailOutbox o
+            SET o.nextAttemptAt = :leaseUntil
+            WHERE o.id IN :ids
+            """)
+    int extendLease(@Param("ids") Collection<Long> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("""
+            UPDATE MailOutbox o
+            SET o.status = com.doc.em.MailOutboxStatus.SENT, o.sentDate = :now,
+                o.attempts = o.attempts + 1, o.lastError = null
+            WHERE o.id IN :ids
+            """)
+    int markSent(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+            UPDATE MailOutbox o
+            SET o.status = :status, o.attempts = :attempts, o.nextAttemptAt = :nextAttemptAt, o.lastError = :lastError
+            WHERE o.id = :id
+            """)
+    int recordFailure(@Param("id") Long id,
+                      @Param("status") MailOutboxStatus status,
+                      @Param("attempts") int attempts,
+                      @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                      @Param("lastError") String lastError);
+
+    @Modifying
+    @Query("""
+            UPDATE MailOutbox o
+            SET o.status = com.doc.em.MailOutboxStatus.PENDING, o.attempts = 0, o.nextAttemptAt = :now
+            WHERE o.status = com.doc.em.MailOutboxStatus.DEAD
+            """)
+    int requeueDead(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+            DELETE FROM MailOutbox o
+            WHERE o.status = com.doc.em.MailOutboxStatus.SENT
+              AND o.createdDate < :cutoff
+            """)
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    boolean existsByCallbackTypeAndCallbackReferenceIdAndStatus(
+            MailCallbackType callbackType,
+            Long callbackReferenceId,
+            MailOutboxStatus status
+    );
+
+    long countByStatus(MailOutboxStatus status);
+
+    @Query("SELECT MIN(o.createdDate) FROM MailOutbox o WHERE o.status = com.doc.em.MailOutboxStatus.PENDING")
+    LocalDateTime findOldestPendingCreatedDate();
+}
@@ -0,0 +1,77 @@
+package com.doc.repository;
+
+import com.doc.em.MilestoneEventStatus;
+import com.doc.entity.milestone.MilestoneEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface MilestoneEventRepository extends JpaRepository<MilestoneEvent, Long> {
+
+    /**
+     * Locks due events in publishing order; rows already locked by another
+     * instance are skipped. Must run inside a transaction, which then moves
+     * next_attempt_at forward as a lease.
+     */
+    @Query(value = """
+            SELECT * FROM milestone_event
+            WHERE status = 'PENDING'
+              AND next_attempt_at <= :now
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<MilestoneEvent> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("""
+            UPDATE MilestoneEvent e
+            SET e.nextAttemptAt = :leaseUntil
+            WHERE e.id IN :ids
+            """)
+    int extendLease(@Param("ids") Collection<Long> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("""
+            UPDATE MilestoneEvent e
+            SET e.status = com.doc.em.MilestoneEventStatus.APPLIED, e.appliedDate = :now, e.lastError = null
+            WHERE e.id IN :ids
+            """)
+    int markApplied(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * Counts a failed attempt; rows that reach {@code maxAttempts} become DEAD.
+     */
+    @Modifying
+    @Query("""
+            UPDATE MilestoneEvent e
+            SET e.status = CASE WHEN e.attempts + 1 >= :maxAttempts
+                                THEN com.doc.em.MilestoneEventStatus.DEAD
+                                ELSE com.doc.em.MilestoneEventStatus.PENDING END,
+                e.attempts = e.attempts + 1, e.nextAttemptAt = :nextAttemptAt, e.lastError = :lastError
+            WHERE e.id IN :ids
+            """)
+    int recordFailure(@Param("ids") Collection<Long> ids,
+                      @Param("maxAttempts") int maxAttempts,
+                      @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                      @Param("lastError") String lastError);
+
+    @Modifying
+    @Query("""
+            DELETE FROM MilestoneEvent e
+            WHERE e.status = com.doc.em.MilestoneEventStatus.APPLIED
+              AND e.createdDate < :cutoff
+            """)
+    int deleteAppliedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    long countByIdInAndStatus(Collection<Long> ids, MilestoneEventStatus status);
+
+    long countByStatus(MilestoneEventStatus status);
+}
@@ -0,0 +1,93 @@
+package com.doc.repository;
+
+import com.doc.entity.milestone.MilestoneStatusHistory;
+import com.doc.entity.project.ProjectAssignmentHistory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * JDBC batch writer for {@link MilestoneStatusHistory} and
+ * {@link ProjectAssignmentHistory} rows.
+ *
+ * Used by the bulk milestone endpoints and the offline-user reassignment
+ * engine: one batched insert per request or chunk instead of an entity save
+ * per milestone. Neither table has entity
+ * listeners, so nothing is skipped by bypassing JPA.
+ */
+@Repository
+public class MilestoneHistoryBatchRepository {
+
+    private static final String INSERT_STATUS_HISTORY_SQL = """
+            INSERT INTO milestone_status_history
+                (milestone_assignment_id, previous_status_id, new_status_id, change_reason,
+                 changed_by_id, change_date, is_deleted)
+            VALUES (?, ?, ?, ?, ?, ?, false)
+            """;
+
+    private static final String INSERT_ASSIGNMENT_HISTORY_SQL = """
+            INSERT INTO project_assignment_history
+                (project_id, milestone_assignment_id, assigned_user_id, assignment_reason,
+                 created_by, created_date, updated_by, updated_date, is_deleted)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, false)
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void insertStatusHistory(List<StatusChange> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(INSERT_STATUS_HISTORY_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, row.assignmentId());
+            ps.setLong(2, row.previousStatusId());
+            ps.setLong(3, row.newStatusId());
+            ps.setString(4, row.reason());
+            if (row.changedById() != null) {
+                ps.setLong(5, row.changedById());
+            } else {
+                ps.setNull(5, Types.BIGINT);
+            }
+            ps.setTimestamp(6, now);
+        });
+    }
+
+    public void insertAssignmentHistory(List<Reassignment> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(INSERT_ASSIGNMENT_HISTORY_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, row.projectId());
+            ps.setLong(2, row.assignmentId());
+            ps.setLong(3, row.assignedUserId());
+            ps.setString(4, row.reason());
+            if (row.changedById() != null) {
+                ps.setLong(5, row.changedById());
+                ps.setLong(7, row.changedById());
+            } else {
+                ps.setNull(5, Types.BIGINT);
+                ps.setNull(7, Types.BIGINT);
+            }
+            ps.setTimestamp(6, now);
+            ps.setTimestamp(8, now);
+        });
+    }
+
+    public record StatusChange(long assignmentId, long previousStatusId, long newStatusId,
+                               String reason, Long changedById) {
+    }
+
+    public record Reassignment(long projectId, long assignmentId, long assignedUserId,
+                               String reason, Long changedById) {
+    }
+}
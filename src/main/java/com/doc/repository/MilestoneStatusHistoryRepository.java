@@ -1,11 +1,15 @@
 package com.doc.repository;
 
 import com.doc.entity.milestone.MilestoneStatusHistory;
+import com.doc.repository.projection.RecentMilestoneChangeProjection;
+import com.doc.repository.projection.StatusHistoryEventProjection;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
 import java.util.List;
 
 @Repository
@@ -14,4 +18,62 @@ public interface MilestoneStatusHistoryRepository extends JpaRepository<Mileston
     @Query("SELECT h FROM MilestoneStatusHistory h WHERE h.milestoneAssignment.id = :milestoneAssignmentId AND h.isDeleted = false")
     List<MilestoneStatusHistory> findByMilestoneAssignmentIdAndIsDeletedFalse(@Param("milestoneAssignmentId") Long milestoneAssignmentId);
 
+    /**
+     * Status changes of a project, or of one of its milestone assignments,
+     * ordered by (date, id). Keyset paging works as in
+     * {@code ProjectAssignmentHistoryRepository.findTimelineEvents}.
+     */
+    @Query("""
+        SELECT h.id AS id,
+               ma.id AS milestoneAssignmentId,
+               m.id AS milestoneId,
+               m.name AS milestoneName,
+               h.changeDate AS eventDate,
+               ps.name AS previousStatus,
+               ns.name AS newStatus,
+               cb.id AS changedBy,
+               cb.fullName AS changedByName,
+               h.changeReason AS reason
+        FROM MilestoneStatusHistory h
+        JOIN h.milestoneAssignment ma
+        JOIN ma.milestone m
+        JOIN h.previousStatus ps
+        JOIN h.newStatus ns
+        LEFT JOIN h.changedBy cb
+        WHERE ma.project.id = :projectId
+          AND (:milestoneAssignmentId IS NULL OR ma.id = :milestoneAssignmentId)
+          AND h.isDeleted = false
+          AND (:afterDate IS NULL
+               OR h.changeDate > :afterDate
+               OR (h.changeDate = :afterDate AND h.id > :afterId))
+        ORDER BY h.changeDate ASC, h.id ASC
+        """)
+    List<StatusHistoryEventProjection> findTimelineEvents(
+            @Param("projectId") Long projectId,
+            @Param("milestoneAssignmentId") Long milestoneAssignmentId,
+            @Param("afterDate") Date afterDate,
+            @Param("afterId") Long afterId,
+            Pageable pageable
+    );
+
+    /**
+     * For each project with a milestone status change since the given time,
+     * the user behind its latest change.
+     */
+    @Query(value = """
+        SELECT pma.project_id AS projectId,
+               h.changed_by_id AS changedById
+        FROM milestone_status_history h
+        JOIN project_milestone_assignment pma ON pma.id = h.milestone_assignment_id
+        WHERE h.id IN (
+            SELECT MAX(h2.id)
+            FROM milestone_status_history h2
+            JOIN project_milestone_assignment pma2 ON pma2.id = h2.milestone_assignment_id
+            WHERE h2.change_date >= :since
+              AND h2.is_deleted = 0
+            GROUP BY pma2.project_id
+        )
+        """, nativeQuery = true)
+    List<RecentMilestoneChangeProjection> findLatestChangePerProjectSince(@Param("since") Date since);
+
 }
\ No newline at end of file
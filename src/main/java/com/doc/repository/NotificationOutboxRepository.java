@@ -0,0 +1,89 @@
+package com.doc.repository;
+
+import com.doc.em.NotificationOutboxStatus;
+import com.doc.entity.notification.NotificationOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    /**
+     * Locks due entries; rows already locked by another instance are skipped.
+     * Must run inside a transaction, which then moves next_attempt_at forward as a lease.
+     */
+    @Query(value = """
+            SELECT * FROM notification_outbox
+            WHERE status = 'PENDING'
+              AND next_attempt_at <= :now
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<NotificationOutbox> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("""
+            UPDATE NotificationOutbox o
+            SET o.nextAttemptAt = :leaseUntil
+            WHERE o.id IN :ids
+            """)
+    int extendLease(@Param("ids") Collection<Long> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("""
+            UPDATE NotificationOutbox o
+            SET o.status = com.doc.em.NotificationOutboxStatus.SENT, o.sentDate = :now,
+                o.attempts = o.attempts + 1, o.lastError = null
+            WHERE o.id IN :ids
+            """)
+    int markSent(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+            UPDATE NotificationOutbox o
+            SET o.status = :status
+            WHERE o.id IN :ids
+            """)
+    int markStatus(@Param("ids") Collection<Long> ids, @Param("status") NotificationOutboxStatus status);
+
+    @Modifying
+    @Query("""
+            UPDATE NotificationOutbox o
+            SET o.status = :status, o.attempts = :attempts, o.nextAttemptAt = :nextAttemptAt, o.lastError = :lastError
+            WHERE o.id = :id
+            """)
+    int recordFailure(@Param("id") Long id,
+                      @Param("status") NotificationOutboxStatus status,
+                      @Param("attempts") int attempts,
+                      @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                      @Param("lastError") String lastError);
+
+    @Modifying
+    @Query("""
+            UPDATE NotificationOutbox o
+            SET o.status = com.doc.em.NotificationOutboxStatus.PENDING, o.attempts = 0, o.nextAttemptAt = :now
+            WHERE o.status = com.doc.em.NotificationOutboxStatus.DEAD
+            """)
+    int requeueDead(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+            DELETE FROM NotificationOutbox o
+            WHERE o.status IN (com.doc.em.NotificationOutboxStatus.SENT, com.doc.em.NotificationOutboxStatus.COALESCED)
+              AND o.createdDate < :cutoff
+            """)
+    int deleteFinishedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    long countByStatus(NotificationOutboxStatus status);
+
+    @Query("SELECT MIN(o.createdDate) FROM NotificationOutbox o WHERE o.status = com.doc.em.NotificationOutboxStatus.PENDING")
+    LocalDateTime findOldestPendingCreatedDate();
+}
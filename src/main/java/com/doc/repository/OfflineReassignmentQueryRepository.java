@@ -0,0 +1,90 @@
+package com.doc.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads for the offline-user reassignment engine.
+ *
+ * Stale assignments are found with one join against user_online_status
+ * instead of a login-status lookup per assignment, a page at a time in
+ * assignment id order.
+ */
+@Repository
+public class OfflineReassignmentQueryRepository {
+
+    private static final String STALE_SQL = """
+            SELECT pma.id, pma.project_id, p.product_id, pma.milestone_id, pma.assigned_user_id,
+                   CASE WHEN m.is_active = 1 AND m.is_deleted = 0 THEN m.id END AS manager_id
+            FROM project_milestone_assignment pma
+            JOIN milestone_statuses ms ON ms.id = pma.status_id
+            JOIN user_online_status uos ON uos.user_id = pma.assigned_user_id
+            JOIN project p ON p.id = pma.project_id
+            JOIN users u ON u.id = pma.assigned_user_id
+            LEFT JOIN users m ON m.id = u.manager_id
+            WHERE pma.id > ?
+              AND pma.is_deleted = 0
+              AND ms.name IN ('NEW', 'IN_PROGRESS')
+              AND uos.is_deleted = 0
+              AND uos.is_online = 0
+              AND uos.last_online < ?
+              AND p.is_deleted = 0
+              AND p.is_cancelled = 0
+              AND p.product_id IS NOT NULL
+            ORDER BY pma.id
+            LIMIT ?
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * NEW and IN_PROGRESS assignments after {@code afterId} whose assignee
+     * has been offline since before {@code offlineBefore}.
+     */
+    public List<StaleAssignment> findStale(long afterId, LocalDateTime offlineBefore, int limit) {
+        return jdbcTemplate.query(STALE_SQL, (rs, rowNum) -> new StaleAssignment(
+                rs.getLong(1),
+                rs.getLong(2),
+                rs.getLong(3),
+                rs.getLong(4),
+                rs.getLong(5),
+                rs.getObject(6) != null ? rs.getLong(6) : null
+        ), afterId, Timestamp.valueOf(offlineBefore), limit);
+    }
+
+    /**
+     * Locks the assignment rows for the rest of the transaction and returns
+     * their current assignee, so rows changed since they were read can be
+     * left alone.
+     */
+    public Map<Long, Long> lockAssignees(Collection<Long> assignmentIds) {
+        Map<Long, Long> assignees = new HashMap<>();
+        if (assignmentIds.isEmpty()) {
+            return assignees;
+        }
+
+        String placeholders = String.join(",", Collections.nCopies(assignmentIds.size(), "?"));
+        jdbcTemplate.query(
+                "SELECT id, assigned_user_id FROM project_milestone_assignment WHERE is_deleted = 0 AND id IN ("
+                        + placeholders + ") FOR UPDATE",
+                rs -> {
+                    assignees.put(rs.getLong(1), rs.getObject(2) != null ? rs.getLong(2) : null);
+                },
+                assignmentIds.toArray());
+        return assignees;
+    }
+
+    public record StaleAssignment(long assignmentId, long projectId, long productId, long milestoneId,
+                                  long userId, Long managerId) {
+    }
+}
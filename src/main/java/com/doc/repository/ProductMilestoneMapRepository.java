@@ -4,6 +4,8 @@ import com.doc.entity.product.ProductMilestoneMap;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -40,6 +42,22 @@ public interface ProductMilestoneMapRepository extends JpaRepository<ProductMile
      */
     List<ProductMilestoneMap> findByProductId(Long productId);
 
+    /**
+     * Finds the mappings of a product in step order, with each milestone and
+     * its departments loaded, so the result can be used outside the session.
+     *
+     * @param productId the product ID
+     * @return the product's mappings ordered by step
+     */
+    @Query("""
+            SELECT DISTINCT pmm FROM ProductMilestoneMap pmm
+            JOIN FETCH pmm.milestone m
+            LEFT JOIN FETCH m.departments
+            WHERE pmm.product.id = :productId
+            ORDER BY pmm.order ASC
+            """)
+    List<ProductMilestoneMap> findWithMilestoneByProductId(@Param("productId") Long productId);
+
 
 
 }
\ No newline at end of file
@@ -8,6 +8,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -42,6 +44,9 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT p FROM Product p WHERE p.id = :id AND p.isDeleted = false")
     Optional<Product> findActiveUserById(@Param("id") Long id);
 
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids AND p.isDeleted = false")
+    List<Product> findActiveByIdIn(@Param("ids") Collection<Long> ids);
+
 
     /**
      * Finds a product by ID if active and not deleted.
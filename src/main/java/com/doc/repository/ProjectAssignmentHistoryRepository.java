@@ -2,6 +2,7 @@ package com.doc.repository;
 
 import com.doc.entity.project.ProjectAssignmentHistory;
 import com.doc.entity.project.ProjectMilestoneAssignment;
+import com.doc.repository.projection.AssignmentHistoryEventProjection;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -10,6 +11,8 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Date;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -30,6 +33,20 @@ public interface ProjectAssignmentHistoryRepository extends JpaRepository<Projec
             @Param("userId") Long userId,
             @Param("departmentId") Long departmentId);
 
+    /**
+     * Users who were EVER assigned to any milestone in this company + department.
+     * Set-based variant of {@link #existsByProjectCompanyIdAndAssignedUserIdAndDepartmentId}.
+     */
+    @Query("SELECT DISTINCT h.assignedUser.id " +
+            "FROM ProjectAssignmentHistory h " +
+            "WHERE h.project.company.id = :companyId " +
+            "AND h.assignedUser IS NOT NULL " +
+            "AND EXISTS (SELECT d FROM h.milestoneAssignment.productMilestoneMap.milestone.departments d WHERE d.id = :departmentId) " +
+            "AND h.isDeleted = false")
+    List<Long> findAssignedUserIdsByCompanyAndDepartment(
+            @Param("companyId") Long companyId,
+            @Param("departmentId") Long departmentId);
+
 
     @Query("""
     SELECT h FROM ProjectAssignmentHistory h 
@@ -50,9 +67,71 @@ public interface ProjectAssignmentHistoryRepository extends JpaRepository<Projec
     );
 
 
+    /**
+     * Assignment history with an assignee for several milestones of a company
+     * in a department, newest first, with the assignee and milestone
+     * assignment fetched in the same query.
+     */
+    @Query("""
+    SELECT h FROM ProjectAssignmentHistory h
+    JOIN FETCH h.assignedUser u
+    JOIN FETCH h.milestoneAssignment ma
+    JOIN h.project p
+    JOIN ma.milestone m
+    JOIN m.departments d
+    WHERE p.company.id = :companyId
+      AND m.id IN :milestoneIds
+      AND d.id = :departmentId
+      AND h.isDeleted = false
+    ORDER BY h.createdDate DESC
+    """)
+    List<ProjectAssignmentHistory> findLatestAssignedByCompanyMilestonesDept(
+            @Param("companyId") Long companyId,
+            @Param("milestoneIds") Collection<Long> milestoneIds,
+            @Param("departmentId") Long departmentId
+    );
+
     @Query("SELECT h FROM ProjectAssignmentHistory h WHERE h.milestoneAssignment.id = :milestoneAssignmentId AND h.isDeleted = false")
     List<ProjectAssignmentHistory> findByMilestoneAssignmentIdAndIsDeletedFalse(@Param("milestoneAssignmentId") Long milestoneAssignmentId);
 
+    /**
+     * Assignment events of a project, or of one of its milestone assignments,
+     * ordered by (date, id). With {@code afterDate} set only events after the
+     * keyset (afterDate, afterId) are returned; pass {@code afterId} = -1 to
+     * include events at exactly {@code afterDate}.
+     */
+    @Query("""
+        SELECT h.id AS id,
+               ma.id AS milestoneAssignmentId,
+               m.id AS milestoneId,
+               m.name AS milestoneName,
+               h.createdDate AS eventDate,
+               au.id AS assignedTo,
+               au.fullName AS assignedToName,
+               h.createdBy AS assignedBy,
+               cb.fullName AS assignedByName,
+               h.assignmentReason AS reason
+        FROM ProjectAssignmentHistory h
+        JOIN h.milestoneAssignment ma
+        JOIN ma.milestone m
+        LEFT JOIN h.assignedUser au
+        LEFT JOIN User cb ON cb.id = h.createdBy AND cb.isActive = true AND cb.isDeleted = false
+        WHERE h.project.id = :projectId
+          AND (:milestoneAssignmentId IS NULL OR ma.id = :milestoneAssignmentId)
+          AND h.isDeleted = false
+          AND (:afterDate IS NULL
+               OR h.createdDate > :afterDate
+               OR (h.createdDate = :afterDate AND h.id > :afterId))
+        ORDER BY h.createdDate ASC, h.id ASC
+        """)
+    List<AssignmentHistoryEventProjection> findTimelineEvents(
+            @Param("projectId") Long projectId,
+            @Param("milestoneAssignmentId") Long milestoneAssignmentId,
+            @Param("afterDate") Date afterDate,
+            @Param("afterId") Long afterId,
+            Pageable pageable
+    );
+
     @Query("""
         SELECT DISTINCT a
         FROM ProjectMilestoneAssignment a
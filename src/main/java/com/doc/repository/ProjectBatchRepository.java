@@ -0,0 +1,153 @@
+package com.doc.repository;
+
+import com.doc.entity.project.Project;
+import com.doc.entity.project.ProjectPaymentDetail;
+import com.doc.entity.project.ProjectPaymentTransaction;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * JDBC batch writer for new {@link Project} rows and their payment rows.
+ *
+ * Projects use IDENTITY ids, which disables Hibernate insert batching, so
+ * bulk project creation inserts them here, one batched statement per table,
+ * next to the milestone rows of {@link ProjectMilestoneAssignmentBatchRepository}.
+ * Generated project ids are set back on the entities; the entities stay
+ * unmanaged, so callers load the projects before changing them through JPA.
+ *
+ * These writes bypass the entity listeners, so callers must report the new
+ * projects to the search index, dashboard rollups and project detail cache
+ * themselves.
+ */
+@Repository
+public class ProjectBatchRepository {
+
+    private static final String INSERT_PROJECT_SQL = """
+            INSERT INTO project
+                (name, project_no, unbilled_number, estimate_number, sales_person_id, sales_person_name,
+                 product_id, contact_id, company_id, unit_id, lead_id, created_date, date, updated_date,
+                 created_by, updated_by, is_deleted, is_active, status_id, is_cancelled, priority,
+                 created_from_advance_invoice)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, false, true, ?, false, ?, false)
+            """;
+
+    private static final String INSERT_PAYMENT_DETAIL_SQL = """
+            INSERT INTO project_payment_detail
+                (project_id, total_amount, due_amount, approved_by, payment_type_id,
+                 created_date, updated_date, date, created_by, updated_by, is_deleted)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, false)
+            """;
+
+    private static final String INSERT_PAYMENT_TRANSACTION_SQL = """
+            INSERT INTO project_payment_transaction
+                (project_id, amount, transaction_date, created_by, created_date, is_deleted)
+            VALUES (?, ?, ?, ?, ?, false)
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts new projects with their payment detail in one JDBC batch per
+     * table and sets the generated ids on the projects.
+     * Must run inside the caller's transaction.
+     *
+     * @param projects unsaved projects with product, company, unit, status and payment detail set
+     */
+    public void insertNewProjects(List<Project> projects) {
+        if (projects.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(
+                    INSERT_PROJECT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (Project project : projects) {
+                    ps.setString(1, project.getName());
+                    ps.setString(2, project.getProjectNo());
+                    ps.setString(3, project.getUnbilledNumber());
+                    ps.setString(4, project.getEstimateNumber());
+                    ps.setObject(5, project.getSalesPersonId());
+                    ps.setString(6, project.getSalesPersonName());
+                    ps.setLong(7, project.getProduct().getId());
+                    setId(ps, 8, project.getContact() != null ? project.getContact().getId() : null);
+                    ps.setLong(9, project.getCompany().getId());
+                    ps.setLong(10, project.getUnit().getId());
+                    ps.setObject(11, project.getLeadId());
+                    ps.setTimestamp(12, new Timestamp(project.getCreatedDate().getTime()));
+                    ps.setDate(13, project.getDate() != null ? Date.valueOf(project.getDate()) : null);
+                    ps.setTimestamp(14, new Timestamp(project.getUpdatedDate().getTime()));
+                    ps.setObject(15, project.getCreatedBy());
+                    ps.setObject(16, project.getUpdatedBy());
+                    ps.setLong(17, project.getStatus().getId());
+                    ps.setString(18, project.getPriority().name());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    for (Project project : projects) {
+                        if (!keys.next()) {
+                            throw new IllegalStateException("No generated id for project " + project.getProjectNo());
+                        }
+                        project.setId(keys.getLong(1));
+                    }
+                }
+            }
+            return null;
+        });
+
+        jdbcTemplate.batchUpdate(INSERT_PAYMENT_DETAIL_SQL, projects, projects.size(), (ps, project) -> {
+            ProjectPaymentDetail detail = project.getPaymentDetail();
+            ps.setLong(1, project.getId());
+            ps.setDouble(2, detail.getTotalAmount());
+            ps.setDouble(3, detail.getDueAmount());
+            setId(ps, 4, detail.getApprovedBy() != null ? detail.getApprovedBy().getId() : null);
+            ps.setLong(5, detail.getPaymentType().getId());
+            ps.setTimestamp(6, new Timestamp(detail.getCreatedDate().getTime()));
+            ps.setTimestamp(7, new Timestamp(detail.getUpdatedDate().getTime()));
+            ps.setDate(8, Date.valueOf(detail.getDate()));
+            ps.setObject(9, detail.getCreatedBy());
+            ps.setObject(10, detail.getUpdatedBy());
+        });
+    }
+
+    /**
+     * Inserts payment transactions of new projects in a single JDBC batch.
+     *
+     * @param transactions unsaved transactions whose project has an id
+     */
+    public void insertPaymentTransactions(List<ProjectPaymentTransaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_PAYMENT_TRANSACTION_SQL, transactions, transactions.size(),
+                (ps, transaction) -> {
+                    ps.setLong(1, transaction.getProject().getId());
+                    ps.setDouble(2, transaction.getAmount());
+                    ps.setTimestamp(3, new Timestamp(transaction.getTransactionDate().getTime()));
+                    ps.setObject(4, transaction.getCreatedBy());
+                    ps.setTimestamp(5, new Timestamp(transaction.getCreatedDate().getTime()));
+                });
+    }
+
+    private static void setId(PreparedStatement ps, int index, Long id) throws SQLException {
+        if (id != null) {
+            ps.setLong(index, id);
+        } else {
+            ps.setNull(index, Types.BIGINT);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.doc.repository;
+
+import com.doc.entity.project.ProjectMilestoneAssignment;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * JDBC batch writer for {@link ProjectMilestoneAssignment} rows.
+ *
+ * The entity uses IDENTITY ids, which disables Hibernate insert batching,
+ * so bulk project creation writes the initial NEW assignments here in one
+ * batched statement. Rows are inserted invisible and unassigned; visibility
+ * and auto-assignment run afterwards through the normal JPA path.
+ *
+ * The offline-user reassignment engine moves assignments to new users here
+ * as well. These writes bypass the entity listeners, so callers must report
+ * the affected projects to the search index, dashboard rollups and project
+ * detail cache themselves.
+ */
+@Repository
+public class ProjectMilestoneAssignmentBatchRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO project_milestone_assignment
+                (project_id, product_milestone_map_id, milestone_id, status_id,
+                 is_visible, rework_attempts, created_date, updated_date, date,
+                 created_by, updated_by, is_deleted)
+            VALUES (?, ?, ?, ?, false, 0, ?, ?, ?, ?, ?, false)
+            """;
+
+    private static final String REASSIGN_SQL = """
+            UPDATE project_milestone_assignment
+            SET assigned_user_id = ?,
+                status_reason = ?,
+                updated_by = ?,
+                updated_date = ?
+            WHERE id = ?
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts new milestone assignments in a single JDBC batch.
+     * Must run inside the caller's transaction after the project row is flushed.
+     *
+     * @param assignments unsaved assignments with project, milestone map, milestone and status set
+     */
+    public void insertNewAssignments(List<ProjectMilestoneAssignment> assignments) {
+        if (assignments.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, assignments, assignments.size(), (ps, assignment) -> {
+            ps.setLong(1, assignment.getProject().getId());
+            ps.setLong(2, assignment.getProductMilestoneMap().getId());
+            ps.setLong(3, assignment.getMilestone().getId());
+            ps.setLong(4, assignment.getStatus().getId());
+            ps.setTimestamp(5, new Timestamp(assignment.getCreatedDate().getTime()));
+            ps.setTimestamp(6, new Timestamp(assignment.getUpdatedDate().getTime()));
+            ps.setDate(7, Date.valueOf(assignment.getDate()));
+            ps.setObject(8, assignment.getCreatedBy());
+            ps.setObject(9, assignment.getUpdatedBy());
+        });
+    }
+
+    /**
+     * Gives each assignment a new assignee in a single JDBC batch. The rows
+     * should be locked by the caller so the previous assignee is known.
+     */
+    public void reassign(List<Reassignment> reassignments, Long updatedById) {
+        if (reassignments.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(REASSIGN_SQL, reassignments, reassignments.size(), (ps, reassignment) -> {
+            ps.setLong(1, reassignment.userId());
+            ps.setString(2, reassignment.reason());
+            ps.setObject(3, updatedById);
+            ps.setTimestamp(4, now);
+            ps.setLong(5, reassignment.assignmentId());
+        });
+    }
+
+    public record Reassignment(long assignmentId, long userId, String reason) {
+    }
+}
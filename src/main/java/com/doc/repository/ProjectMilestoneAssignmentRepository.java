@@ -2,16 +2,23 @@ package com.doc.repository;
 
 import com.doc.entity.milestone.MilestoneStatus;
 import com.doc.entity.project.ProjectMilestoneAssignment;
+import com.doc.repository.projection.ProjectAssigneeProjection;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for managing ProjectMilestoneAssignment entities.
@@ -35,6 +42,25 @@ public interface ProjectMilestoneAssignmentRepository extends JpaRepository<Proj
             @Param("projectId") Long projectId
     );
 
+    /**
+     * Same rows as {@link #findByProjectIdAndIsDeletedFalse} with milestone,
+     * step and status fetched, for the project history views.
+     */
+    @Query("""
+            SELECT a
+            FROM ProjectMilestoneAssignment a
+            JOIN FETCH a.productMilestoneMap pmm
+            JOIN FETCH a.milestone m
+            JOIN FETCH a.status s
+            LEFT JOIN FETCH a.assignedUser u
+            WHERE a.project.id = :projectId
+              AND a.isDeleted = false
+            ORDER BY pmm.order ASC, a.id ASC
+            """)
+    List<ProjectMilestoneAssignment> findHistoryAssignmentsByProjectId(
+            @Param("projectId") Long projectId
+    );
+
     /**
      * Finds a non-deleted ProjectMilestoneAssignment by its ID.
      */
@@ -48,6 +74,26 @@ public interface ProjectMilestoneAssignmentRepository extends JpaRepository<Proj
             @Param("assignmentId") Long assignmentId
     );
 
+    /**
+     * Non-deleted assignments with the associations the bulk milestone
+     * endpoints validate against, loaded in one query.
+     */
+    @Query("""
+            SELECT a
+            FROM ProjectMilestoneAssignment a
+            JOIN FETCH a.project p
+            LEFT JOIN FETCH p.product
+            JOIN FETCH a.status
+            JOIN FETCH a.productMilestoneMap
+            JOIN FETCH a.milestone
+            LEFT JOIN FETCH a.assignedUser
+            WHERE a.id IN :assignmentIds
+              AND a.isDeleted = false
+            """)
+    List<ProjectMilestoneAssignment> findActiveByIdIn(
+            @Param("assignmentIds") Collection<Long> assignmentIds
+    );
+
     /**
      * Finds all non-deleted ProjectMilestoneAssignment entities with pagination.
      * Kept old behavior unchanged.
@@ -542,4 +588,108 @@ List<UserMilestonePerformanceProjection> findUserProjectPerformance(
         @Param("assignedUserId") Long assignedUserId,
         @Param("projectId") Long projectId
 );
-}
\ No newline at end of file
+
+    /**
+     * Same rows as {@link #findUserProjectPerformance}, streamed from the
+     * driver instead of materialised. Must be consumed inside a transaction
+     * and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query(
+            value = """
+                    SELECT
+                        pma.id AS assignmentId,
+
+                        u.id AS userId,
+                        u.full_name AS userName,
+
+                        p.id AS projectId,
+                        p.project_no AS projectNumber,
+                        p.name AS projectName,
+
+                        pr.id AS productId,
+                        pr.product_name AS productName,
+
+                        m.id AS milestoneId,
+                        m.name AS milestoneName,
+
+                        pma.status_id AS statusId,
+
+                        pmm.performance_tat_applicable AS performanceTatApplicable,
+                        pmm.performance_tat_hours AS performanceTatHours,
+
+                        pma.started_date AS startedDate,
+                        pma.completed_date AS completedDate
+
+                    FROM project_milestone_assignment pma
+
+                    INNER JOIN project p
+                            ON p.id = pma.project_id
+
+                    INNER JOIN products pr
+                            ON pr.id = p.product_id
+
+                    INNER JOIN milestones m
+                            ON m.id = pma.milestone_id
+
+                    INNER JOIN users u
+                            ON u.id = pma.assigned_user_id
+
+                    LEFT JOIN product_milestone_map pmm
+                           ON pmm.id = pma.product_milestone_map_id
+
+                    WHERE pma.assigned_user_id = :assignedUserId
+
+                      AND (:projectId IS NULL OR pma.project_id = :projectId)
+
+                      AND pma.is_deleted = 0
+                      AND p.is_deleted = 0
+
+                    ORDER BY
+                        p.id ASC,
+                        pma.id ASC
+                    """,
+            nativeQuery = true
+    )
+    Stream<UserMilestonePerformanceProjection> streamUserProjectPerformance(
+            @Param("assignedUserId") Long assignedUserId,
+            @Param("projectId") Long projectId
+    );
+
+    /**
+     * Distinct (project, assigned user) pairs of non-deleted assignments, used to
+     * scope the project search index the same way the search queries do.
+     */
+    @Query("""
+            SELECT DISTINCT a.project.id AS projectId, a.assignedUser.id AS userId
+            FROM ProjectMilestoneAssignment a
+            WHERE a.project.id IN :projectIds
+              AND a.assignedUser IS NOT NULL
+              AND a.isDeleted = false
+            """)
+    List<ProjectAssigneeProjection> findAssigneesByProjectIds(@Param("projectIds") Collection<Long> projectIds);
+
+    /**
+     * Projects with a milestone assignment written after {@code since}, for
+     * the periodic search index resync.
+     */
+    @Query("SELECT DISTINCT a.project.id FROM ProjectMilestoneAssignment a WHERE a.updatedDate > :since")
+    List<Long> findProjectIdsUpdatedSince(@Param("since") Date since);
+
+    /**
+     * Active assignments of a project with everything the project detail
+     * view shows (milestone and its departments, status, assignee and
+     * milestone order) fetched in the same query.
+     */
+    @Query("""
+            SELECT DISTINCT a FROM ProjectMilestoneAssignment a
+            JOIN FETCH a.milestone m
+            LEFT JOIN FETCH m.departments
+            JOIN FETCH a.status
+            LEFT JOIN FETCH a.assignedUser
+            LEFT JOIN FETCH a.productMilestoneMap
+            WHERE a.project.id = :projectId
+              AND a.isDeleted = false
+            """)
+    List<ProjectMilestoneAssignment> findDetailByProjectId(@Param("projectId") Long projectId);
+}
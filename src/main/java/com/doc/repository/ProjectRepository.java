@@ -1,16 +1,19 @@
 package com.doc.repository;
 
 import com.doc.entity.project.Project;
+import com.doc.repository.projection.ProjectDetailHeaderProjection;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
@@ -45,6 +48,19 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
     @Query("SELECT CASE WHEN COUNT(p) > 0 THEN true ELSE false END FROM Project p WHERE  p.isCancelled=false AND p.estimateNumber = :estimateNumber AND p.isDeleted = false")
     boolean existsByEstimateNumberAndIsDeletedFalse(@Param("estimateNumber") String estimateNumber);
 
+    /**
+     * Set-based duplicate checks used by bulk project creation.
+     * Same conditions as the single-value exists* queries above.
+     */
+    @Query("SELECT p.projectNo FROM Project p WHERE p.isCancelled=false AND p.projectNo IN :projectNos AND p.isDeleted = false")
+    List<String> findExistingProjectNos(@Param("projectNos") Collection<String> projectNos);
+
+    @Query("SELECT p.unbilledNumber FROM Project p WHERE p.isCancelled=false AND p.unbilledNumber IN :unbilledNumbers AND p.isDeleted = false")
+    List<String> findExistingUnbilledNumbers(@Param("unbilledNumbers") Collection<String> unbilledNumbers);
+
+    @Query("SELECT p.estimateNumber FROM Project p WHERE p.isCancelled=false AND p.estimateNumber IN :estimateNumbers AND p.isDeleted = false")
+    List<String> findExistingEstimateNumbers(@Param("estimateNumbers") Collection<String> estimateNumbers);
+
     /**
      * Finds a project by its ID if it is not deleted.
      *
@@ -161,6 +177,13 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
     @Query("SELECT COUNT(DISTINCT p) FROM Project p WHERE  p.isCancelled=false AND  p.isDeleted = false AND EXISTS (SELECT 1 FROM ProjectMilestoneAssignment a WHERE a.project = p AND a.assignedUser.id IN :userIds AND a.isDeleted = false)")
     long countByAssignedUserIds(@Param("userIds") List<Long> userIds);
 
+    /**
+     * Same as {@link #countByAssignedUserIds} for a large scope: joins the
+     * user hierarchy closure of the manager instead of binding every user id.
+     */
+    @Query("SELECT COUNT(DISTINCT p) FROM Project p WHERE  p.isCancelled=false AND  p.isDeleted = false AND EXISTS (SELECT 1 FROM ProjectMilestoneAssignment a, UserHierarchyClosure c WHERE a.project = p AND c.ancestorId = :managerId AND c.descendantId = a.assignedUser.id AND a.isDeleted = false)")
+    long countByManagerScope(@Param("managerId") Long managerId);
+
 
     // ADD THESE EXACT METHODS TO ProjectRepository.java
 
@@ -204,6 +227,52 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
                                                    @Param("statuses") List<String> statuses,
                                                    Pageable pageable);
 
+    /**
+     * Same as {@link #findByAssignedUserIdsAndStatusIn} for a large scope:
+     * joins the user hierarchy closure of the manager.
+     */
+    @Query("SELECT DISTINCT p FROM Project p " +
+            "WHERE p.isDeleted = false " +
+            "AND p.status.name IN :statuses " +
+            "AND EXISTS (SELECT 1 FROM ProjectMilestoneAssignment a, UserHierarchyClosure c " +
+            "WHERE a.project = p AND c.ancestorId = :managerId AND c.descendantId = a.assignedUser.id " +
+            "AND a.isDeleted = false)")
+    Page<Project> findByManagerScopeAndStatusIn(@Param("managerId") Long managerId,
+                                                @Param("statuses") List<String> statuses,
+                                                Pageable pageable);
+
+    /**
+     * Find non-deleted projects with given statuses where the user has at least one
+     * visible milestone. Visibility is maintained on write, so no recalculation is needed here.
+     */
+    @Query(value = "SELECT p FROM Project p " +
+            "WHERE p.isDeleted = false " +
+            "AND p.status.name IN :statuses " +
+            "AND EXISTS (SELECT 1 FROM ProjectMilestoneAssignment a " +
+            "WHERE a.project = p AND a.assignedUser.id = :userId AND a.isVisible = true AND a.isDeleted = false)",
+            countQuery = "SELECT COUNT(p) FROM Project p " +
+                    "WHERE p.isDeleted = false " +
+                    "AND p.status.name IN :statuses " +
+                    "AND EXISTS (SELECT 1 FROM ProjectMilestoneAssignment a " +
+                    "WHERE a.project = p AND a.assignedUser.id = :userId AND a.isVisible = true AND a.isDeleted = false)")
+    Page<Project> findWithVisibleMilestoneForUserAndStatusIn(@Param("userId") Long userId,
+                                                            @Param("statuses") List<String> statuses,
+                                                            Pageable pageable);
+
+    @Query("SELECT COUNT(p) FROM Project p WHERE p.isCancelled = false AND p.isDeleted = false " +
+            "AND EXISTS (SELECT 1 FROM ProjectMilestoneAssignment a " +
+            "WHERE a.project = p AND a.assignedUser.id = :userId AND a.isVisible = true AND a.isDeleted = false)")
+    long countWithVisibleMilestoneForUser(@Param("userId") Long userId);
+
+    /**
+     * Keyset page of project ids for the milestone visibility backfill, optionally limited to a product.
+     */
+    @Query("SELECT p.id FROM Project p WHERE p.isDeleted = false AND p.id > :afterId " +
+            "AND (:productId IS NULL OR p.product.id = :productId) ORDER BY p.id")
+    List<Long> findIdsForVisibilityBackfill(@Param("afterId") Long afterId,
+                                            @Param("productId") Long productId,
+                                            Pageable pageable);
+
     @Query(
             value = """
                     SELECT p
@@ -791,7 +860,156 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
 """)
     List<Project> findProjectsByUnitId(@Param("unitId") Long unitId);
 
+    // ====================== SEARCH INDEX ======================
+
+    /**
+     * Keyset page of non-deleted project ids, used to rebuild the search index.
+     */
+    @Query("SELECT p.id FROM Project p WHERE p.isDeleted = false AND p.id > :afterId ORDER BY p.id")
+    List<Long> findIdsForSearchIndex(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT COUNT(p) FROM Project p WHERE p.isDeleted = false")
+    long countForSearchIndex();
+
+    /**
+     * Projects written after {@code since}, deleted ones included so their
+     * documents are removed; used by the periodic search index resync.
+     */
+    @Query("SELECT p.id FROM Project p WHERE p.updatedDate > :since")
+    List<Long> findIdsUpdatedSince(@Param("since") Date since);
+
+    /**
+     * Non-deleted projects whose company or contact was written after {@code since}.
+     */
+    @Query("""
+            SELECT p.id
+            FROM Project p
+            LEFT JOIN p.company c
+            LEFT JOIN p.contact ct
+            WHERE p.isDeleted = false
+              AND (c.updatedDate > :since OR ct.updatedDate > :since)
+            """)
+    List<Long> findIdsWithCompanyOrContactUpdatedSince(@Param("since") Date since);
+
+    @Query("""
+            SELECT p
+            FROM Project p
+            LEFT JOIN FETCH p.company
+            LEFT JOIN FETCH p.contact
+            LEFT JOIN FETCH p.product
+            LEFT JOIN FETCH p.status
+            WHERE p.id IN :ids
+              AND p.isDeleted = false
+            """)
+    List<Project> findForSearchIndexByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p.id FROM Project p WHERE p.company.id = :companyId AND p.isDeleted = false")
+    List<Long> findIdsByCompanyId(@Param("companyId") Long companyId);
+
+    @Query("SELECT p.id FROM Project p WHERE p.contact.id = :contactId AND p.isDeleted = false")
+    List<Long> findIdsByContactId(@Param("contactId") Long contactId);
+
+    @Query("SELECT p.id FROM Project p WHERE p.product.id = :productId AND p.isDeleted = false")
+    List<Long> findIdsByProductId(@Param("productId") Long productId);
+
+    /**
+     * Loads search hits with everything the search response needs, newest first.
+     */
+    @Query("""
+            SELECT p
+            FROM Project p
+            LEFT JOIN FETCH p.company
+            LEFT JOIN FETCH p.contact
+            LEFT JOIN FETCH p.product
+            LEFT JOIN FETCH p.status
+            LEFT JOIN FETCH p.paymentDetail paymentDetail
+            LEFT JOIN FETCH paymentDetail.paymentType
+            WHERE p.id IN :ids
+              AND p.isDeleted = false
+            ORDER BY p.id DESC
+            """)
+    List<Project> findSearchResultsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Same as {@link #findSalesProjectStatusDashboard} with the text match already
+     * resolved by the project search index.
+     */
+    @Query(
+            value = """
+                    SELECT p
+                    FROM Project p
+                    LEFT JOIN FETCH p.product product
+                    LEFT JOIN FETCH p.company company
+                    LEFT JOIN FETCH p.unit unit
+                    LEFT JOIN FETCH p.contact contact
+                    LEFT JOIN FETCH p.status status
+                    LEFT JOIN FETCH p.paymentDetail paymentDetail
+                    LEFT JOIN FETCH paymentDetail.paymentType paymentType
+                    WHERE p.isDeleted = false
+                      AND p.isCancelled = false
+                      AND p.id IN :ids
+                      AND (:salesPersonId IS NULL OR p.salesPersonId = :salesPersonId)
+                      AND (:statusName IS NULL OR UPPER(status.name) = UPPER(:statusName))
+                    """,
+            countQuery = """
+                    SELECT COUNT(p)
+                    FROM Project p
+                    LEFT JOIN p.status status
+                    WHERE p.isDeleted = false
+                      AND p.isCancelled = false
+                      AND p.id IN :ids
+                      AND (:salesPersonId IS NULL OR p.salesPersonId = :salesPersonId)
+                      AND (:statusName IS NULL OR UPPER(status.name) = UPPER(:statusName))
+                    """
+    )
+    Page<Project> findSalesProjectStatusDashboardByIds(
+            @Param("salesPersonId") Long salesPersonId,
+            @Param("statusName") String statusName,
+            @Param("ids") Collection<Long> ids,
+            Pageable pageable
+    );
+
+    /**
+     * Header of the project detail view in one query: the project with its
+     * product, company, unit and applicant type, and the id of its active
+     * procurement milestone assignment. Cancelled and deleted projects are
+     * not returned.
+     */
+    @Query("""
+            SELECT p.id AS id, p.name AS name, p.projectNo AS projectNo,
+                   p.priority AS priority, p.date AS projectDate,
+                   pr.id AS productId, pr.productName AS productName,
+                   c.id AS companyId, c.name AS companyName, c.rating AS rating,
+                   u.id AS unitId, u.unitName AS unitName,
+                   p.createdDate AS createdDate, p.updatedDate AS updatedDate,
+                   ap.id AS applicantId, ap.name AS applicantName,
+                   (SELECT MIN(pa.id) FROM ProcurementMilestoneAssignment pa
+                     WHERE pa.project.id = p.id AND pa.isDeleted = false) AS procurementMilestoneAssignmentId
+            FROM Project p
+            LEFT JOIN p.product pr
+            LEFT JOIN p.company c
+            LEFT JOIN p.unit u
+            LEFT JOIN p.applicantType ap
+            WHERE p.id = :id
+              AND p.isCancelled = false
+              AND p.isDeleted = false
+            """)
+    Optional<ProjectDetailHeaderProjection> findDetailHeaderById(@Param("id") Long id);
+
+    @Query("SELECT p.detailVersion FROM Project p WHERE p.id = :id")
+    Optional<Long> findDetailVersionById(@Param("id") Long id);
 
+    @Modifying
+    @Query(value = "UPDATE project SET detail_version = detail_version + 1 WHERE id IN (:ids)", nativeQuery = true)
+    int incrementDetailVersions(@Param("ids") Collection<Long> ids);
 
+    @Modifying
+    @Query(value = "UPDATE project SET detail_version = detail_version + 1 WHERE company_id IN (:companyIds)",
+            nativeQuery = true)
+    int incrementDetailVersionsOfCompanies(@Param("companyIds") Collection<Long> companyIds);
 
+    @Modifying
+    @Query(value = "UPDATE project SET detail_version = detail_version + 1 WHERE unit_id IN (:unitIds)",
+            nativeQuery = true)
+    int incrementDetailVersionsOfUnits(@Param("unitIds") Collection<Long> unitIds);
 }
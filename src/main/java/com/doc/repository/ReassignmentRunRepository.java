@@ -0,0 +1,28 @@
+package com.doc.repository;
+
+import com.doc.em.ReassignmentRunStatus;
+import com.doc.entity.project.ReassignmentRun;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface ReassignmentRunRepository extends JpaRepository<ReassignmentRun, Long> {
+
+    /**
+     * Latest run that has not completed; it is resumed before a new one starts.
+     */
+    Optional<ReassignmentRun> findFirstByStatusInOrderByIdDesc(Collection<ReassignmentRunStatus> statuses);
+
+    Optional<ReassignmentRun> findFirstByOrderByIdDesc();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM ReassignmentRun r WHERE r.id = :id")
+    Optional<ReassignmentRun> findByIdForUpdate(@Param("id") Long id);
+}
@@ -0,0 +1,103 @@
+package com.doc.repository;
+
+import com.doc.entity.user.UserHierarchyClosure;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.*;
+
+/**
+ * JDBC access to the {@link UserHierarchyClosure} table.
+ *
+ * The table is brought in line with a freshly built hierarchy by diffing:
+ * only pairs that disappeared are deleted and only new or re-parented pairs
+ * are written, so a single manager change touches a handful of rows.
+ */
+@Repository
+public class UserHierarchyClosureRepository {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO user_hierarchy_closure (ancestor_id, descendant_id, depth)
+            VALUES (?, ?, ?)
+            ON DUPLICATE KEY UPDATE depth = VALUES(depth)
+            """;
+
+    private static final String DELETE_SQL =
+            "DELETE FROM user_hierarchy_closure WHERE ancestor_id = ? AND descendant_id = ?";
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Count and latest update of the users table. Any create, update or
+     * delete of a user changes it, so nodes can notice hierarchy changes
+     * made elsewhere without reloading every manager link.
+     */
+    public UsersFingerprint usersFingerprint() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) AS user_count, MAX(updated_date) AS last_updated FROM users",
+                (rs, rowNum) -> {
+                    Timestamp lastUpdated = rs.getTimestamp("last_updated");
+                    return new UsersFingerprint(
+                            rs.getLong("user_count"),
+                            lastUpdated != null ? lastUpdated.getTime() : 0L
+                    );
+                });
+    }
+
+    /**
+     * Replaces the table content with the given closure rows.
+     *
+     * @return number of rows inserted, updated or deleted
+     */
+    @Transactional
+    public int sync(Collection<Row> rows) {
+        Map<Pair, Integer> existing = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT ancestor_id, descendant_id, depth FROM user_hierarchy_closure",
+                rs -> {
+                    existing.put(
+                            new Pair(rs.getLong("ancestor_id"), rs.getLong("descendant_id")),
+                            rs.getInt("depth")
+                    );
+                });
+
+        List<Row> upserts = new ArrayList<>();
+        for (Row row : rows) {
+            Integer depth = existing.remove(new Pair(row.ancestorId(), row.descendantId()));
+            if (depth == null || depth != row.depth()) {
+                upserts.add(row);
+            }
+        }
+        List<Pair> deletes = new ArrayList<>(existing.keySet());
+
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_SQL, deletes, BATCH_SIZE, (ps, pair) -> {
+                ps.setLong(1, pair.ancestorId());
+                ps.setLong(2, pair.descendantId());
+            });
+        }
+        if (!upserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, upserts, BATCH_SIZE, (ps, row) -> {
+                ps.setLong(1, row.ancestorId());
+                ps.setLong(2, row.descendantId());
+                ps.setInt(3, row.depth());
+            });
+        }
+        return deletes.size() + upserts.size();
+    }
+
+    public record Row(long ancestorId, long descendantId, int depth) {
+    }
+
+    public record UsersFingerprint(long userCount, long lastUpdatedMillis) {
+    }
+
+    private record Pair(long ancestorId, long descendantId) {
+    }
+}
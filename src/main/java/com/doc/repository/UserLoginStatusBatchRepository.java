@@ -0,0 +1,53 @@
+package com.doc.repository;
+
+import com.doc.entity.user.UserLoginStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * JDBC batch writer for {@link UserLoginStatus} rows.
+ *
+ * Used by the presence registry's write-behind flush: one batched upsert per
+ * flush instead of a load and save per login or logout. user_id is unique,
+ * so a user without a row gets one and an existing row is updated in place.
+ */
+@Repository
+public class UserLoginStatusBatchRepository {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO user_online_status
+                (user_id, is_online, last_online, created_date, updated_date, is_deleted)
+            VALUES (?, ?, ?, ?, ?, false)
+            ON DUPLICATE KEY UPDATE
+                is_online = VALUES(is_online),
+                last_online = VALUES(last_online),
+                updated_date = VALUES(updated_date),
+                is_deleted = false
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void upsert(List<Row> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, row.userId());
+            ps.setBoolean(2, row.online());
+            ps.setTimestamp(3, row.lastOnline() != null ? Timestamp.from(row.lastOnline()) : null);
+            ps.setTimestamp(4, now);
+            ps.setTimestamp(5, now);
+        });
+    }
+
+    public record Row(long userId, boolean online, Instant lastOnline) {
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,5 +28,8 @@ public interface UserLoginStatusRepository extends JpaRepository<UserLoginStatus
             "AND DATE(s.lastOnline) = CURRENT_DATE")
     Optional<UserLoginStatus> findTodayStatusByUserId(@Param("userId") Long userId);
 
+    @Query("SELECT s FROM UserLoginStatus s WHERE s.user.id IN :userIds AND s.isDeleted = false")
+    List<UserLoginStatus> findByUserIdInAndIsDeletedFalse(@Param("userIds") Collection<Long> userIds);
+
 
 }
\ No newline at end of file
@@ -0,0 +1,106 @@
+package com.doc.repository;
+
+import com.doc.entity.project.UserPerformanceCount;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Atomic counter updates for {@link UserPerformanceCount} rows.
+ *
+ * Each change is a single statement that adjusts the stored values in
+ * place, so concurrent assignments for the same user and product cannot
+ * overwrite each other the way a load, increment and save does.
+ * (user_id, product_id) is unique, so the upserts create a missing row.
+ * The open assignment count never goes below zero.
+ */
+@Repository
+public class UserPerformanceCountBatchRepository {
+
+    private static final String ADD_ASSIGNMENT_SQL = """
+            INSERT INTO user_performance_count
+                (user_id, product_id, assignment_count, time_spent, last_updated_date,
+                 created_date, updated_date, created_by, updated_by, is_deleted)
+            VALUES (?, ?, 1, 0, ?, ?, ?, ?, ?, false)
+            ON DUPLICATE KEY UPDATE
+                assignment_count = assignment_count + 1,
+                last_updated_date = VALUES(last_updated_date),
+                updated_date = VALUES(updated_date),
+                updated_by = VALUES(updated_by)
+            """;
+
+    private static final String RELEASE_SQL = """
+            UPDATE user_performance_count
+            SET assignment_count = GREATEST(assignment_count - 1, 0),
+                time_spent = time_spent + ?,
+                last_updated_date = ?,
+                updated_date = ?,
+                updated_by = ?
+            WHERE user_id = ?
+              AND product_id = ?
+            """;
+
+    private static final String APPLY_DELTA_SQL = """
+            INSERT INTO user_performance_count
+                (user_id, product_id, assignment_count, time_spent, last_updated_date,
+                 created_date, updated_date, created_by, updated_by, is_deleted)
+            VALUES (?, ?, GREATEST(?, 0), ?, ?, ?, ?, ?, ?, false)
+            ON DUPLICATE KEY UPDATE
+                assignment_count = GREATEST(assignment_count + ?, 0),
+                time_spent = time_spent + VALUES(time_spent),
+                last_updated_date = VALUES(last_updated_date),
+                updated_date = VALUES(updated_date),
+                updated_by = VALUES(updated_by)
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * One more open assignment for the user on the product.
+     */
+    public void addAssignment(long userId, long productId, Long updatedById) {
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.update(ADD_ASSIGNMENT_SQL, userId, productId, now, now, now, updatedById, updatedById);
+    }
+
+    /**
+     * One open assignment fewer, plus the time spent on it.
+     *
+     * @return false if the user has no counter for the product
+     */
+    public boolean release(long userId, long productId, double timeSpentDays, Long updatedById) {
+        Timestamp now = Timestamp.from(Instant.now());
+        return jdbcTemplate.update(RELEASE_SQL, timeSpentDays, now, now, updatedById, userId, productId) > 0;
+    }
+
+    /**
+     * Applies accumulated deltas in one batch.
+     */
+    public void applyDeltas(List<Delta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(APPLY_DELTA_SQL, deltas, deltas.size(), (ps, delta) -> {
+            ps.setLong(1, delta.userId());
+            ps.setLong(2, delta.productId());
+            ps.setLong(3, delta.assignments());
+            ps.setDouble(4, delta.timeSpentDays());
+            ps.setTimestamp(5, now);
+            ps.setTimestamp(6, now);
+            ps.setTimestamp(7, now);
+            ps.setObject(8, delta.updatedById());
+            ps.setObject(9, delta.updatedById());
+            ps.setLong(10, delta.assignments());
+        });
+    }
+
+    public record Delta(long userId, long productId, long assignments, double timeSpentDays, Long updatedById) {
+    }
+}
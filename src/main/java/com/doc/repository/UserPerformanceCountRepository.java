@@ -2,10 +2,33 @@ package com.doc.repository;
 
 
 import com.doc.entity.project.UserPerformanceCount;
+import com.doc.repository.projection.OpenAssignmentCountProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface UserPerformanceCountRepository extends JpaRepository<UserPerformanceCount, Long> {
     UserPerformanceCount findByUserIdAndProductId(Long userId, Long productId);
-}
\ No newline at end of file
+
+    List<UserPerformanceCount> findByProductIdAndUserIdIn(Long productId, Collection<Long> userIds);
+
+    /**
+     * Stored open-assignment counts of the given users for a product,
+     * without loading the entities.
+     */
+    @Query("""
+            SELECT c.user.id AS userId,
+                   c.assignmentCount AS assignmentCount,
+                   c.lastUpdatedDate AS lastUpdatedDate
+            FROM UserPerformanceCount c
+            WHERE c.product.id = :productId
+              AND c.user.id IN :userIds
+            """)
+    List<OpenAssignmentCountProjection> findOpenAssignmentCounts(@Param("productId") Long productId,
+                                                                 @Param("userIds") Collection<Long> userIds);
+}
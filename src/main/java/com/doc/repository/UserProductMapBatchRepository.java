@@ -0,0 +1,49 @@
+package com.doc.repository;
+
+import com.doc.entity.user.UserProductMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * JDBC batch writer for the assigned flag of {@link UserProductMap} rows,
+ * used when many assignments change hands at once.
+ */
+@Repository
+public class UserProductMapBatchRepository {
+
+    private static final String SET_ASSIGNED_SQL = """
+            UPDATE user_product_map
+            SET is_assigned = ?,
+                updated_date = ?,
+                updated_by = ?
+            WHERE user_id = ?
+              AND product_id = ?
+              AND is_deleted = 0
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void setAssigned(List<Flag> flags, Long updatedById) {
+        if (flags.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(SET_ASSIGNED_SQL, flags, flags.size(), (ps, flag) -> {
+            ps.setBoolean(1, flag.assigned());
+            ps.setTimestamp(2, now);
+            ps.setObject(3, updatedById);
+            ps.setLong(4, flag.userId());
+            ps.setLong(5, flag.productId());
+        });
+    }
+
+    public record Flag(long userId, long productId, boolean assigned) {
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -38,6 +39,9 @@ public interface UserProductMapRepository extends JpaRepository<UserProductMap,
 
     Optional<UserProductMap> findByUserIdAndProductIdAndIsDeletedFalse(@Param("userId") Long userId, @Param("productId") Long productId);
 
+    @Query("SELECT upm FROM UserProductMap upm WHERE upm.user.id IN :userIds AND upm.product.id IN :productIds AND upm.isDeleted = false")
+    List<UserProductMap> findByUserIdsAndProductIds(@Param("userIds") Collection<Long> userIds, @Param("productIds") Collection<Long> productIds);
+
     List<UserProductMap> findByIsDeletedFalse();
 
     @Query("SELECT upm FROM UserProductMap upm WHERE upm.user.id = :userId AND upm.isDeleted = false AND upm.user.isActive = true AND upm.product.isActive = true")
@@ -55,4 +59,27 @@ public interface UserProductMapRepository extends JpaRepository<UserProductMap,
             ORDER BY u.fullName ASC, upm.rating DESC
             """)
     List<UserProductMap> findAllMappedUsersWithProducts();
+
+    /**
+     * Auto-assignment candidates of a department for a product: mapped, active,
+     * non-manager users, with the user fetched in the same query.
+     *
+     * @param departmentId the department ID
+     * @param productId    the product ID
+     * @return candidate mappings
+     */
+    @Query("""
+            SELECT upm
+            FROM UserProductMap upm
+            JOIN FETCH upm.user u
+            JOIN u.departments d
+            WHERE d.id = :departmentId
+              AND upm.product.id = :productId
+              AND upm.isDeleted = false
+              AND u.isActive = true
+              AND u.isDeleted = false
+              AND u.managerFlag = false
+            """)
+    List<UserProductMap> findAssignmentCandidates(@Param("departmentId") Long departmentId,
+                                                  @Param("productId") Long productId);
 }
@@ -1,6 +1,8 @@
 package com.doc.repository;
 
 import com.doc.entity.user.User;
+import com.doc.repository.projection.UserDepartmentIdProjection;
+import com.doc.repository.projection.UserManagerEdgeProjection;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,6 +10,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +25,9 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u WHERE u.id = :id AND u.isActive = true AND u.isDeleted = false")
     Optional<User> findActiveUserById(@Param("id") Long id);
 
+    @Query("SELECT u FROM User u WHERE u.id IN :ids AND u.isActive = true AND u.isDeleted = false")
+    List<User> findActiveUsersByIdIn(@Param("ids") Collection<Long> ids);
+
     Page<User> findByIsActiveTrueAndIsDeletedFalse(Pageable pageable);
 
     @Query("SELECT u FROM User u JOIN u.departments d WHERE d.id = :departmentId AND u.isActive = true AND u.isDeleted = false")
@@ -123,6 +129,31 @@ public interface UserRepository extends JpaRepository<User, Long> {
             @Param("departmentId") Long departmentId
     );
 
+    @Query("SELECT r.name FROM User u JOIN u.roles r WHERE u.id = :userId")
+    List<String> findRoleNamesByUserId(@Param("userId") Long userId);
+
+    @Query("""
+    SELECT u.id AS userId, d.id AS departmentId
+    FROM User u
+    JOIN u.departments d
+    WHERE u.id IN :userIds
+""")
+    List<UserDepartmentIdProjection> findDepartmentIdsByUserIds(
+            @Param("userIds") Collection<Long> userIds
+    );
+
+    /**
+     * Manager links of every non-deleted user, used to build the reporting
+     * hierarchy in one query.
+     */
+    @Query("""
+    SELECT u.id AS userId, m.id AS managerId, u.isActive AS active
+    FROM User u
+    LEFT JOIN u.manager m
+    WHERE u.isDeleted = false
+""")
+    List<UserManagerEdgeProjection> findManagerEdges();
+
 
 
 }
\ No newline at end of file
@@ -2,10 +2,24 @@ package com.doc.repository.chat;
 
 import com.doc.entity.chat.OperationChatAttachment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface OperationChatAttachmentRepository extends JpaRepository<OperationChatAttachment, Long> {
 
     List<OperationChatAttachment> findByMessage_Id(Long messageId);
+
+    /**
+     * Attachments of a whole message page in one query.
+     */
+    @Query("""
+            SELECT a
+            FROM OperationChatAttachment a
+            WHERE a.message.id IN :messageIds
+            ORDER BY a.id
+            """)
+    List<OperationChatAttachment> findByMessageIds(@Param("messageIds") Collection<Long> messageIds);
 }
\ No newline at end of file
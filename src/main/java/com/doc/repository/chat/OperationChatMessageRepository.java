@@ -1,6 +1,7 @@
 package com.doc.repository.chat;
 
 import com.doc.entity.chat.OperationChatMessage;
+import com.doc.repository.projection.ChatUnreadCountProjection;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,6 +9,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 public interface OperationChatMessageRepository extends JpaRepository<OperationChatMessage, Long> {
 
@@ -70,6 +73,28 @@ public interface OperationChatMessageRepository extends JpaRepository<OperationC
             @Param("lastReadAt") LocalDateTime lastReadAt
     );
 
+    /**
+     * Unread counts of one user for many conversations in a single grouped query.
+     * Used for participants whose stored counter has not been backfilled yet.
+     * Conversations without unread messages are absent from the result.
+     */
+    @Query("""
+            SELECT m.conversation.id AS conversationId, COUNT(m) AS unreadCount
+            FROM OperationChatMessage m, OperationChatParticipant p
+            WHERE p.conversation.id = m.conversation.id
+              AND p.user.id = :userId
+              AND p.active = true
+              AND m.conversation.id IN :conversationIds
+              AND m.deleted = false
+              AND m.sender.id <> :userId
+              AND (p.lastReadAt IS NULL OR m.createdAt > p.lastReadAt)
+            GROUP BY m.conversation.id
+            """)
+    List<ChatUnreadCountProjection> countUnreadMessagesByConversation(
+            @Param("userId") Long userId,
+            @Param("conversationIds") Collection<Long> conversationIds
+    );
+
     /**
      * Optional: fetch latest message of a conversation.
      * Useful for chat list screen if needed.
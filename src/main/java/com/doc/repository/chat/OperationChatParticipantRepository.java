@@ -1,7 +1,12 @@
 package com.doc.repository.chat;
 
 import com.doc.entity.chat.OperationChatParticipant;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -43,6 +48,66 @@ public interface OperationChatParticipantRepository extends JpaRepository<Operat
             Long userId
     );
 
+    /**
+     * Inbox page of a user with the conversation fetched, newest activity first.
+     */
+    @Query(
+            value = """
+                    SELECT p
+                    FROM OperationChatParticipant p
+                    JOIN FETCH p.conversation c
+                    WHERE p.user.id = :userId
+                      AND p.active = true
+                      AND c.deleted = false
+                    ORDER BY c.lastMessageAt DESC, c.id DESC
+                    """,
+            countQuery = """
+                    SELECT COUNT(p)
+                    FROM OperationChatParticipant p
+                    WHERE p.user.id = :userId
+                      AND p.active = true
+                      AND p.conversation.deleted = false
+                    """
+    )
+    Page<OperationChatParticipant> findInbox(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * A new message counts as unread for every other active participant.
+     * Rows not yet backfilled (null) are left for the backfill.
+     */
+    @Modifying
+    @Query("""
+            UPDATE OperationChatParticipant p
+            SET p.unreadCount = p.unreadCount + 1
+            WHERE p.conversation.id = :conversationId
+              AND p.user.id <> :senderId
+              AND p.active = true
+              AND p.unreadCount IS NOT NULL
+            """)
+    int incrementUnreadCount(
+            @Param("conversationId") Long conversationId,
+            @Param("senderId") Long senderId
+    );
+
+    /**
+     * Materialises unread_count for rows created before the counter existed.
+     * One set-based statement; a no-op once every row has a value.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE operation_chat_participants p
+            SET p.unread_count = (
+                SELECT COUNT(*)
+                FROM operation_chat_messages m
+                WHERE m.conversation_id = p.conversation_id
+                  AND m.is_deleted = false
+                  AND m.sender_id <> p.user_id
+                  AND (p.last_read_at IS NULL OR m.created_at > p.last_read_at)
+            )
+            WHERE p.unread_count IS NULL
+            """, nativeQuery = true)
+    int backfillUnreadCounts();
+
     /**
      * Find participant even if inactive.
      * Useful if later you want to reactivate participant.
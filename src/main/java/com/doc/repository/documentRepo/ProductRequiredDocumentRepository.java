@@ -4,8 +4,12 @@ import com.doc.entity.document.ProductRequiredDocuments;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -24,4 +28,10 @@ public interface ProductRequiredDocumentRepository extends JpaRepository<Product
 
     // NEW: Simple name check for Import (This is what we need now)
     boolean existsByNameAndIsDeletedFalse(String name);
+
+    /**
+     * Names among the given ones that already exist; one query per import chunk.
+     */
+    @Query("SELECT d.name FROM ProductRequiredDocuments d WHERE d.isDeleted = false AND d.name IN :names")
+    List<String> findExistingNames(@Param("names") Collection<String> names);
 }
\ No newline at end of file
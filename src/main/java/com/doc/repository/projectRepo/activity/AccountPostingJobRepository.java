@@ -0,0 +1,95 @@
+package com.doc.repository.projectRepo.activity;
+
+import com.doc.em.AccountPostingJobStatus;
+import com.doc.entity.project.activity.AccountPostingJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AccountPostingJobRepository
+        extends JpaRepository<AccountPostingJob, Long> {
+
+    Optional<AccountPostingJob> findByIdempotencyKey(String idempotencyKey);
+
+    /**
+     * Locks due jobs; rows already locked by another instance are skipped.
+     */
+    @Query(value = """
+            SELECT * FROM account_posting_job
+            WHERE status = 'PENDING'
+              AND next_attempt_at <= :now
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<AccountPostingJob> lockDue(
+            @Param("now") LocalDateTime now,
+            @Param("limit") int limit
+    );
+
+    @Modifying
+    @Query("""
+            UPDATE AccountPostingJob j
+            SET j.nextAttemptAt = :leaseUntil, j.updatedDate = :now
+            WHERE j.id IN :ids
+            """)
+    int extendLease(
+            @Param("ids") Collection<Long> ids,
+            @Param("leaseUntil") LocalDateTime leaseUntil,
+            @Param("now") LocalDateTime now
+    );
+
+    @Modifying
+    @Query("""
+            UPDATE AccountPostingJob j
+            SET j.status = :status, j.attempts = :attempts, j.nextAttemptAt = :nextAttemptAt,
+                j.lastError = :lastError, j.updatedDate = :now,
+                j.completedDate = CASE WHEN :status = com.doc.em.AccountPostingJobStatus.PENDING
+                                       THEN NULL ELSE :now END
+            WHERE j.id = :id
+            """)
+    int recordAttempt(
+            @Param("id") Long id,
+            @Param("status") AccountPostingJobStatus status,
+            @Param("attempts") int attempts,
+            @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+            @Param("lastError") String lastError,
+            @Param("now") LocalDateTime now
+    );
+
+    long countByStatus(AccountPostingJobStatus status);
+
+    /**
+     * Government-fee expenses whose Step 3 posting failed or was left PENDING
+     * (e.g. by a crash before this queue existed) and that have no open or
+     * dead-lettered job. These are the rows {@code retryGovernmentFeePosting}
+     * would accept.
+     */
+    @Query("""
+            SELECT e.id FROM ProjectExpense e
+            WHERE e.expenseCategory = com.doc.em.ExpenseCategory.GOVERNMENT_FEE
+              AND e.accountsApprovalStatus = com.doc.em.ApprovalStatus.APPROVED
+              AND (e.accountPostingStatus = com.doc.em.AccountPostingStatus.FAILED
+                   OR (e.accountPostingStatus = com.doc.em.AccountPostingStatus.PENDING
+                       AND e.updatedDate < :stalePendingBefore))
+              AND NOT EXISTS (
+                  SELECT 1 FROM AccountPostingJob j
+                  WHERE j.expenseId = e.id
+                    AND j.step = com.doc.em.AccountPostingStep.GOVERNMENT_FEE_APPROVAL
+                    AND j.status IN (com.doc.em.AccountPostingJobStatus.PENDING,
+                                     com.doc.em.AccountPostingJobStatus.DEAD)
+              )
+            ORDER BY e.id
+            """)
+    List<Long> findReplayableGovernmentFeeExpenseIds(
+            @Param("stalePendingBefore") LocalDateTime stalePendingBefore
+    );
+}
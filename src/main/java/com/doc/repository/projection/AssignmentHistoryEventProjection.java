@@ -0,0 +1,26 @@
+package com.doc.repository.projection;
+
+import java.util.Date;
+
+public interface AssignmentHistoryEventProjection {
+    Long getId();
+
+    Long getMilestoneAssignmentId();
+
+    Long getMilestoneId();
+
+    String getMilestoneName();
+
+    Date getEventDate();
+
+    Long getAssignedTo();
+
+    String getAssignedToName();
+
+    Long getAssignedBy();
+
+    /** Null when the assigning user is inactive or deleted. */
+    String getAssignedByName();
+
+    String getReason();
+}
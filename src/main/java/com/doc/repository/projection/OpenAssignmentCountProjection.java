@@ -0,0 +1,11 @@
+package com.doc.repository.projection;
+
+import java.util.Date;
+
+public interface OpenAssignmentCountProjection {
+    Long getUserId();
+
+    Integer getAssignmentCount();
+
+    Date getLastUpdatedDate();
+}
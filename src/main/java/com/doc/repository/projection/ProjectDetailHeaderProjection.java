@@ -0,0 +1,42 @@
+package com.doc.repository.projection;
+
+import com.doc.entity.project.ProjectPriority;
+
+import java.time.LocalDate;
+import java.util.Date;
+
+public interface ProjectDetailHeaderProjection {
+    Long getId();
+
+    String getName();
+
+    String getProjectNo();
+
+    ProjectPriority getPriority();
+
+    LocalDate getProjectDate();
+
+    Long getProductId();
+
+    String getProductName();
+
+    Long getCompanyId();
+
+    String getCompanyName();
+
+    String getRating();
+
+    Long getUnitId();
+
+    String getUnitName();
+
+    Date getCreatedDate();
+
+    Date getUpdatedDate();
+
+    Long getApplicantId();
+
+    String getApplicantName();
+
+    Long getProcurementMilestoneAssignmentId();
+}
@@ -0,0 +1,7 @@
+package com.doc.repository.projection;
+
+public interface RecentMilestoneChangeProjection {
+    Long getProjectId();
+
+    Long getChangedById();
+}
@@ -0,0 +1,25 @@
+package com.doc.repository.projection;
+
+import java.util.Date;
+
+public interface StatusHistoryEventProjection {
+    Long getId();
+
+    Long getMilestoneAssignmentId();
+
+    Long getMilestoneId();
+
+    String getMilestoneName();
+
+    Date getEventDate();
+
+    String getPreviousStatus();
+
+    String getNewStatus();
+
+    Long getChangedBy();
+
+    String getChangedByName();
+
+    String getReason();
+}
@@ -0,0 +1,9 @@
+package com.doc.repository.projection;
+
+public interface UserManagerEdgeProjection {
+    Long getUserId();
+
+    Long getManagerId();
+
+    boolean isActive();
+}
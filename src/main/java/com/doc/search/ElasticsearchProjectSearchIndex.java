@@ -0,0 +1,253 @@
+package com.doc.search;
+
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.Operator;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.json.JsonData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.index.AliasAction;
+import org.springframework.data.elasticsearch.core.index.AliasActionParameters;
+import org.springframework.data.elasticsearch.core.index.AliasActions;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Elasticsearch-backed project index, enabled with {@code search.project.engine=elasticsearch}.
+ *
+ * Text fields use a 2–3 character n-gram analyzer (see
+ * {@code elasticsearch/project-search-settings.json}) and are matched with all
+ * query grams required; single-character queries use a wildcard on the grams.
+ * Filters are applied as non-scoring clauses.
+ *
+ * The configured index name is an alias. A rebuild writes into a new physical
+ * index ({@code <alias>-v<schema>-<timestamp>}) and then moves the alias to it
+ * in one atomic action, so other nodes keep searching the previous index until
+ * the new one is complete. On startup the rebuild is skipped when the alias
+ * already points at an index of the current schema holding every project.
+ */
+@Component
+@ConditionalOnProperty(name = "search.project.engine", havingValue = "elasticsearch")
+public class ElasticsearchProjectSearchIndex implements ProjectSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ElasticsearchProjectSearchIndex.class);
+
+    /** Bump when the mapping or analyzer settings change, so startup rebuilds. */
+    private static final int SCHEMA_VERSION = 1;
+
+    private final ElasticsearchOperations operations;
+
+    private volatile boolean ready;
+
+    /** Physical index being filled by the running rebuild. */
+    private volatile IndexCoordinates rebuildTarget;
+
+    public ElasticsearchProjectSearchIndex(ElasticsearchOperations operations) {
+        this.operations = operations;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public ProjectSearchResult search(ProjectSearchQuery query) {
+        if (query.text() == null || query.text().isBlank()) {
+            return new ProjectSearchResult(List.of(), false);
+        }
+        String text = query.text().trim().toLowerCase(Locale.ROOT);
+
+        NativeQuery nativeQuery = NativeQuery.builder()
+                .withQuery(Query.of(q -> q.bool(b -> buildQuery(b, text, query))))
+                .withSort(Sort.by(Sort.Direction.DESC, "id"))
+                .withMaxResults(query.limit() + 1)
+                .build();
+
+        List<Long> ids = operations.search(nativeQuery, ProjectSearchDocument.class).getSearchHits().stream()
+                .map(SearchHit::getContent)
+                .map(ProjectSearchDocument::getId)
+                .toList();
+
+        boolean truncated = ids.size() > query.limit();
+        return new ProjectSearchResult(truncated ? ids.subList(0, query.limit()) : ids, truncated);
+    }
+
+    @Override
+    public void index(Collection<ProjectSearchDocument> documents) {
+        if (!documents.isEmpty()) {
+            operations.save(documents);
+        }
+    }
+
+    @Override
+    public void remove(Collection<Long> projectIds) {
+        for (Long projectId : projectIds) {
+            operations.delete(String.valueOf(projectId), ProjectSearchDocument.class);
+        }
+    }
+
+    @Override
+    public boolean isCurrent(long projectCount) {
+        String alias = aliasName();
+        Set<String> indices = aliasedIndices(alias);
+        if (indices.size() != 1 || !indices.iterator().next().startsWith(physicalPrefix(alias))) {
+            return false;
+        }
+
+        long documents = operations.count(
+                NativeQuery.builder().withQuery(Query.of(q -> q.matchAll(m -> m))).build(),
+                ProjectSearchDocument.class);
+        if (documents != projectCount) {
+            logger.info("Project search index {} holds {} of {} projects; rebuilding", alias, documents, projectCount);
+            return false;
+        }
+
+        ready = true;
+        logger.info("Project search index {} is current ({} projects); rebuild skipped", alias, documents);
+        return true;
+    }
+
+    /**
+     * Creates the next physical index. The alias, and with it {@link #isReady()},
+     * is left alone until {@link #completeRebuild()}.
+     */
+    @Override
+    public void beginRebuild() {
+        IndexOperations aliasOps = operations.indexOps(ProjectSearchDocument.class);
+        IndexCoordinates target = IndexCoordinates.of(physicalPrefix(aliasName()) + System.currentTimeMillis());
+
+        operations.indexOps(target).create(aliasOps.createSettings(), aliasOps.createMapping());
+        rebuildTarget = target;
+        logger.info("Project search rebuild started into {}", target.getIndexName());
+    }
+
+    @Override
+    public void indexForRebuild(Collection<ProjectSearchDocument> documents) {
+        IndexCoordinates target = rebuildTarget;
+        if (target == null) {
+            index(documents);
+        } else if (!documents.isEmpty()) {
+            operations.save(documents, target);
+        }
+    }
+
+    /**
+     * Points the alias at the rebuilt index in one alias action and drops the
+     * indices it pointed at before. An index left over under the alias name
+     * itself (from before aliases were used) is deleted first.
+     */
+    @Override
+    public void completeRebuild() {
+        IndexCoordinates target = rebuildTarget;
+        if (target == null) {
+            return;
+        }
+        operations.indexOps(target).refresh();
+
+        String alias = aliasName();
+        IndexOperations aliasOps = operations.indexOps(ProjectSearchDocument.class);
+        List<String> previous = new ArrayList<>(aliasedIndices(alias));
+        if (previous.isEmpty() && aliasOps.exists()) {
+            aliasOps.delete();
+        }
+
+        List<AliasAction> actions = new ArrayList<>();
+        if (!previous.isEmpty()) {
+            actions.add(new AliasAction.Remove(AliasActionParameters.builder()
+                    .withIndices(previous.toArray(String[]::new))
+                    .withAliases(alias)
+                    .build()));
+        }
+        actions.add(new AliasAction.Add(AliasActionParameters.builder()
+                .withIndices(target.getIndexName())
+                .withAliases(alias)
+                .build()));
+        operations.indexOps(target).alias(new AliasActions(actions.toArray(AliasAction[]::new)));
+
+        rebuildTarget = null;
+        ready = true;
+
+        for (String index : previous) {
+            operations.indexOps(IndexCoordinates.of(index)).delete();
+        }
+        logger.info("Project search alias {} moved to {} (dropped: {})", alias, target.getIndexName(), previous);
+    }
+
+    @Override
+    public void abortRebuild() {
+        IndexCoordinates target = rebuildTarget;
+        rebuildTarget = null;
+        if (target != null) {
+            operations.indexOps(target).delete();
+        }
+    }
+
+    /**
+     * Physical indices the alias points at; empty if the alias does not exist.
+     */
+    private Set<String> aliasedIndices(String alias) {
+        try {
+            return operations.indexOps(ProjectSearchDocument.class).getAliases(alias).keySet();
+        } catch (RuntimeException e) {
+            logger.debug("Alias {} not found: {}", alias, e.getMessage());
+            return Set.of();
+        }
+    }
+
+    private String aliasName() {
+        return operations.getIndexCoordinatesFor(ProjectSearchDocument.class).getIndexName();
+    }
+
+    private static String physicalPrefix(String alias) {
+        return alias + "-v" + SCHEMA_VERSION + "-";
+    }
+
+    private static BoolQuery.Builder buildQuery(BoolQuery.Builder bool, String text, ProjectSearchQuery query) {
+        for (ProjectSearchField field : query.fields()) {
+            String name = field.getDocumentField();
+            if (text.length() < 2) {
+                bool.should(s -> s.wildcard(w -> w.field(name).value("*" + text + "*")));
+            } else {
+                bool.should(s -> s.match(m -> m.field(name).query(text).operator(Operator.And)));
+            }
+        }
+        bool.minimumShouldMatch("1");
+
+        if (!query.includeCancelled()) {
+            bool.filter(f -> f.term(t -> t.field("cancelled").value(false)));
+        }
+        if (query.statusName() != null) {
+            bool.filter(f -> f.term(t -> t.field("statusName").value(query.statusName().toLowerCase(Locale.ROOT))));
+        }
+        if (query.salesPersonId() != null) {
+            bool.filter(f -> f.term(t -> t.field("salesPersonId").value(query.salesPersonId())));
+        }
+        if (query.fromDate() != null || query.toDate() != null) {
+            bool.filter(f -> f.range(r -> {
+                r.field("date");
+                if (query.fromDate() != null) r.gte(JsonData.of(query.fromDate().toString()));
+                if (query.toDate() != null) r.lte(JsonData.of(query.toDate().toString()));
+                return r;
+            }));
+        }
+        if (query.assignedUserIds() != null) {
+            List<FieldValue> userIds = query.assignedUserIds().stream().map(FieldValue::of).toList();
+            bool.filter(f -> f.terms(t -> t.field("assignedUserIds").terms(v -> v.value(userIds))));
+        }
+        return bool;
+    }
+}
@@ -0,0 +1,73 @@
+package com.doc.search;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.elasticsearch.annotations.DateFormat;
+import org.springframework.data.elasticsearch.annotations.Document;
+import org.springframework.data.elasticsearch.annotations.Field;
+import org.springframework.data.elasticsearch.annotations.FieldType;
+import org.springframework.data.elasticsearch.annotations.Setting;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Denormalized, search-only view of a non-deleted project.
+ *
+ * Text values are stored lower-cased. {@code assignedUserIds} holds the users of
+ * the project's non-deleted milestone assignments and is what access scoping is
+ * applied against.
+ */
+@Document(indexName = "#{@environment.getProperty('search.project.index-name', 'operation-projects')}", createIndex = false)
+@Setting(settingPath = "elasticsearch/project-search-settings.json")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ProjectSearchDocument {
+
+    @Id
+    @Field(type = FieldType.Long)
+    private Long id;
+
+    @Field(type = FieldType.Text, analyzer = "project_ngram")
+    private String name;
+
+    @Field(type = FieldType.Text, analyzer = "project_ngram")
+    private String projectNo;
+
+    @Field(type = FieldType.Text, analyzer = "project_ngram")
+    private String unbilledNumber;
+
+    @Field(type = FieldType.Text, analyzer = "project_ngram")
+    private String estimateNumber;
+
+    @Field(type = FieldType.Text, analyzer = "project_ngram")
+    private String companyName;
+
+    @Field(type = FieldType.Text, analyzer = "project_ngram")
+    private String contactName;
+
+    @Field(type = FieldType.Text, analyzer = "project_ngram")
+    private String productName;
+
+    @Field(type = FieldType.Text, analyzer = "project_ngram")
+    private String salesPersonName;
+
+    @Field(type = FieldType.Long)
+    private Long salesPersonId;
+
+    @Field(type = FieldType.Keyword)
+    private String statusName;
+
+    @Field(type = FieldType.Date, format = DateFormat.date)
+    private LocalDate date;
+
+    @Field(type = FieldType.Boolean)
+    private boolean cancelled;
+
+    @Field(type = FieldType.Long)
+    private Set<Long> assignedUserIds = new HashSet<>();
+}
@@ -0,0 +1,65 @@
+package com.doc.search;
+
+import com.doc.entity.client.Company;
+import com.doc.entity.client.Contact;
+import com.doc.entity.product.Product;
+import com.doc.entity.project.Project;
+import com.doc.entity.project.ProjectMilestoneAssignment;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * JPA listener that reports writes affecting the project search index to
+ * {@link ProjectSearchIndexer}. Instantiated by Hibernate through Spring's bean
+ * container; the indexer is looked up lazily because listeners are created
+ * while the entity manager factory is still being built.
+ */
+public class ProjectSearchEntityListener {
+
+    @Autowired
+    private ObjectProvider<ProjectSearchIndexer> indexer;
+
+    @PostPersist
+    public void afterPersist(Object entity) {
+        projectTouched(entity);
+    }
+
+    @PostUpdate
+    public void afterUpdate(Object entity) {
+        if (projectTouched(entity) || indexer == null) {
+            return;
+        }
+        if (entity instanceof Company company) {
+            indexer.ifAvailable(i -> i.companyChanged(company.getId()));
+        } else if (entity instanceof Contact contact) {
+            indexer.ifAvailable(i -> i.contactChanged(contact.getId()));
+        } else if (entity instanceof Product product) {
+            indexer.ifAvailable(i -> i.productChanged(product.getId()));
+        }
+    }
+
+    @PostRemove
+    public void afterRemove(Object entity) {
+        projectTouched(entity);
+    }
+
+    private boolean projectTouched(Object entity) {
+        Long projectId = null;
+        if (entity instanceof Project project) {
+            projectId = project.getId();
+        } else if (entity instanceof ProjectMilestoneAssignment assignment) {
+            projectId = assignment.getProject() != null ? assignment.getProject().getId() : null;
+        } else {
+            return false;
+        }
+
+        if (projectId != null && indexer != null) {
+            Long id = projectId;
+            indexer.ifAvailable(i -> i.projectChanged(id));
+        }
+        return true;
+    }
+}
@@ -0,0 +1,50 @@
+package com.doc.search;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Text fields of a project that can be searched through {@link ProjectSearchIndex}.
+ */
+public enum ProjectSearchField {
+
+    PROJECT_NAME("name"),
+    PROJECT_NO("projectNo"),
+    UNBILLED_NO("unbilledNumber"),
+    ESTIMATE_NO("estimateNumber"),
+    COMPANY("companyName"),
+    CONTACT("contactName"),
+    PRODUCT("productName"),
+    SALES_PERSON("salesPersonName");
+
+    /**
+     * Fields matched by the free-text box of the sales project dashboard.
+     */
+    public static final Set<ProjectSearchField> DASHBOARD = EnumSet.of(
+            PROJECT_NAME, PROJECT_NO, UNBILLED_NO, ESTIMATE_NO, SALES_PERSON, COMPANY, PRODUCT
+    );
+
+    private final String documentField;
+
+    ProjectSearchField(String documentField) {
+        this.documentField = documentField;
+    }
+
+    /** Property name in {@link ProjectSearchDocument}. */
+    public String getDocumentField() {
+        return documentField;
+    }
+
+    public String valueOf(ProjectSearchDocument document) {
+        return switch (this) {
+            case PROJECT_NAME -> document.getName();
+            case PROJECT_NO -> document.getProjectNo();
+            case UNBILLED_NO -> document.getUnbilledNumber();
+            case ESTIMATE_NO -> document.getEstimateNumber();
+            case COMPANY -> document.getCompanyName();
+            case CONTACT -> document.getContactName();
+            case PRODUCT -> document.getProductName();
+            case SALES_PERSON -> document.getSalesPersonName();
+        };
+    }
+}
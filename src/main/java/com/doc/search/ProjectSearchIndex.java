@@ -0,0 +1,55 @@
+package com.doc.search;
+
+import java.util.Collection;
+
+/**
+ * Full-text index over projects.
+ *
+ * Implementations are kept current by {@link ProjectSearchIndexer}. Until the
+ * first full rebuild has finished {@link #isReady()} returns {@code false} and
+ * callers are expected to fall back to their database query.
+ */
+public interface ProjectSearchIndex {
+
+    boolean isReady();
+
+    /**
+     * Finds projects whose selected fields contain the query text.
+     */
+    ProjectSearchResult search(ProjectSearchQuery query);
+
+    /**
+     * Adds or replaces documents.
+     */
+    void index(Collection<ProjectSearchDocument> documents);
+
+    /**
+     * Removes documents; unknown ids are ignored.
+     */
+    void remove(Collection<Long> projectIds);
+
+    /**
+     * Whether the index already holds every project in the current format, so
+     * a startup rebuild can be skipped. Marks the index ready when it does.
+     */
+    boolean isCurrent(long projectCount);
+
+    /**
+     * Starts a full rebuild. Engines that can build next to the live data keep
+     * serving searches until {@link #completeRebuild()}; the others drop all
+     * documents and are not ready until then.
+     */
+    void beginRebuild();
+
+    /**
+     * Adds documents to the index being rebuilt.
+     */
+    void indexForRebuild(Collection<ProjectSearchDocument> documents);
+
+    void completeRebuild();
+
+    /**
+     * Discards a rebuild that failed.
+     */
+    void abortRebuild();
+}
@@ -0,0 +1,354 @@
+package com.doc.search;
+
+import com.doc.entity.project.Project;
+import com.doc.repository.ProjectMilestoneAssignmentRepository;
+import com.doc.repository.ProjectRepository;
+import com.doc.repository.projection.ProjectAssigneeProjection;
+import com.doc.transaction.AfterCommitCollector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps {@link ProjectSearchIndex} in step with the database.
+ *
+ * On startup the index is rebuilt in the background from keyset pages of project
+ * ids, unless it already holds every project (a shared index built by another
+ * node). Afterwards {@link ProjectSearchEntityListener} reports every project,
+ * milestone-assignment, company, contact and product write; the affected
+ * projects are collected per transaction and re-indexed once it commits.
+ *
+ * Those after-commit refreshes only reach the index of the node that made the
+ * write (the embedded engine is per node) and can fail. Failed projects are
+ * kept and retried, and every {@code search.project.resync-interval-ms} each
+ * node re-indexes the projects whose project, milestone-assignment, company or
+ * contact row has an {@code updated_date} after its last resync. Nodes
+ * therefore converge within one interval; when the index keeps failing the
+ * passes back off exponentially up to {@code search.project.resync-max-backoff-ms}.
+ */
+@Component
+public class ProjectSearchIndexer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectSearchIndexer.class);
+
+    private static final int REBUILD_PAGE_SIZE = 500;
+
+    private final ProjectSearchIndex index;
+    private final ProjectRepository projectRepository;
+    private final ProjectMilestoneAssignmentRepository assignmentRepository;
+    private final TransactionTemplate readTransaction;
+
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "project-search-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** Projects re-indexed while a rebuild was running; refreshed again when it ends. */
+    private final Set<Long> touchedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuilding;
+
+    /** Changes of the current transaction, refreshed once it commits. */
+    private final AfterCommitCollector<PendingChanges> pendingChanges =
+            AfterCommitCollector.afterCommit(PendingChanges::new, changes -> refresh(resolve(changes)));
+
+    /** Projects whose last refresh failed; retried by the next resync. */
+    private final Set<Long> failed = ConcurrentHashMap.newKeySet();
+
+    /** Writes up to this time are in the index (null until the first rebuild or check). */
+    private volatile Date syncedUpTo;
+    private int failedPasses;
+    private long nextPassAt;
+
+    @Value("${search.project.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+
+    @Value("${search.project.resync-interval-ms:60000}")
+    private long resyncIntervalMs;
+
+    /** Clock skew and commit delay tolerated between nodes and the database. */
+    @Value("${search.project.resync-overlap-ms:120000}")
+    private long resyncOverlapMs;
+
+    @Value("${search.project.resync-max-backoff-ms:600000}")
+    private long resyncMaxBackoffMs;
+
+    /** Writes covered by the first resync when startup finds the index current. */
+    @Value("${search.project.resync-startup-lookback-ms:3600000}")
+    private long resyncStartupLookbackMs;
+
+    public ProjectSearchIndexer(
+            ProjectSearchIndex index,
+            ProjectRepository projectRepository,
+            ProjectMilestoneAssignmentRepository assignmentRepository,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.index = index;
+        this.projectRepository = projectRepository;
+        this.assignmentRepository = assignmentRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (rebuildOnStartup) {
+            rebuildExecutor.submit(this::rebuildIfStale);
+        }
+    }
+
+    // ====================== FULL REBUILD ======================
+
+    /**
+     * Rebuilds unless the index already holds every project, e.g. a shared
+     * index another node built.
+     */
+    public void rebuildIfStale() {
+        try {
+            long projects = readTransaction.execute(status -> projectRepository.countForSearchIndex());
+            if (index.isCurrent(projects)) {
+                syncedUpTo = new Date(System.currentTimeMillis() - resyncStartupLookbackMs);
+                return;
+            }
+        } catch (Exception e) {
+            logger.warn("Project search index check failed; rebuilding", e);
+        }
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        long started = System.currentTimeMillis();
+        rebuilding = true;
+        touchedDuringRebuild.clear();
+        try {
+            syncedUpTo = new Date(started);
+            index.beginRebuild();
+
+            long afterId = 0L;
+            int total = 0;
+            while (true) {
+                List<Long> ids = projectRepository.findIdsForSearchIndex(afterId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                index.indexForRebuild(loadDocuments(ids));
+                total += ids.size();
+                afterId = ids.get(ids.size() - 1);
+            }
+
+            index.completeRebuild();
+            rebuilding = false;
+
+            // writes made during the rebuild may have gone to the previous index
+            if (!touchedDuringRebuild.isEmpty()) {
+                refresh(new ArrayList<>(touchedDuringRebuild));
+            }
+
+            logger.info("Project search index rebuilt → projects: {} | took: {} ms",
+                    total, System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            logger.error("Project search index rebuild failed; searches use the previous index or the database", e);
+            try {
+                index.abortRebuild();
+            } catch (Exception cleanup) {
+                logger.warn("Project search rebuild cleanup failed", cleanup);
+            }
+        } finally {
+            rebuilding = false;
+        }
+    }
+
+    // ====================== INCREMENTAL ======================
+
+    public void projectChanged(Long projectId) {
+        enqueue(changes -> changes.projectIds.add(projectId));
+    }
+
+    public void companyChanged(Long companyId) {
+        enqueue(changes -> changes.companyIds.add(companyId));
+    }
+
+    public void contactChanged(Long contactId) {
+        enqueue(changes -> changes.contactIds.add(contactId));
+    }
+
+    public void productChanged(Long productId) {
+        enqueue(changes -> changes.productIds.add(productId));
+    }
+
+    /**
+     * Re-reads the given projects and updates or removes their documents.
+     * Projects that could not be refreshed are kept for the next resync.
+     *
+     * @return false if the refresh failed
+     */
+    public boolean refresh(Collection<Long> projectIds) {
+        if (projectIds.isEmpty()) {
+            return true;
+        }
+        if (rebuilding) {
+            touchedDuringRebuild.addAll(projectIds);
+        }
+        try {
+            List<ProjectSearchDocument> documents = loadDocuments(projectIds);
+            Set<Long> present = documents.stream().map(ProjectSearchDocument::getId).collect(Collectors.toSet());
+            List<Long> gone = projectIds.stream().filter(id -> !present.contains(id)).toList();
+
+            index.index(documents);
+            if (!gone.isEmpty()) {
+                index.remove(gone);
+            }
+            return true;
+        } catch (Exception e) {
+            failed.addAll(projectIds);
+            logger.warn("Project search index refresh failed for {} projects; will retry: {}",
+                    projectIds.size(), e.getMessage());
+            return false;
+        }
+    }
+
+    // ====================== RESYNC ======================
+
+    /**
+     * Re-indexes projects written since the last pass (by this or any other
+     * node) plus the ones whose refresh failed.
+     */
+    @Scheduled(fixedDelayString = "${search.project.resync-interval-ms:60000}",
+            initialDelayString = "${search.project.resync-interval-ms:60000}")
+    public void resync() {
+        Date since = syncedUpTo;
+        if (since == null || rebuilding || !index.isReady() || System.currentTimeMillis() < nextPassAt) {
+            return;
+        }
+
+        Date passStarted = new Date();
+        Date from = new Date(since.getTime() - resyncOverlapMs);
+        Set<Long> ids;
+        try {
+            ids = readTransaction.execute(status -> {
+                Set<Long> changed = new LinkedHashSet<>(projectRepository.findIdsUpdatedSince(from));
+                changed.addAll(assignmentRepository.findProjectIdsUpdatedSince(from));
+                changed.addAll(projectRepository.findIdsWithCompanyOrContactUpdatedSince(from));
+                return changed;
+            });
+        } catch (Exception e) {
+            logger.warn("Project search resync query failed: {}", e.getMessage());
+            backOff();
+            return;
+        }
+
+        List<Long> retries = new ArrayList<>(failed);
+        failed.removeAll(retries);
+        ids.addAll(retries);
+
+        boolean ok = true;
+        List<Long> all = new ArrayList<>(ids);
+        for (int start = 0; start < all.size(); start += REBUILD_PAGE_SIZE) {
+            ok &= refresh(all.subList(start, Math.min(start + REBUILD_PAGE_SIZE, all.size())));
+        }
+
+        // failed projects stay in the retry set, so the window can move on
+        syncedUpTo = passStarted;
+        if (ok) {
+            failedPasses = 0;
+            nextPassAt = 0;
+            if (!all.isEmpty()) {
+                logger.debug("Project search resync refreshed {} projects ({} retried)", all.size(), retries.size());
+            }
+        } else {
+            backOff();
+        }
+    }
+
+    private void backOff() {
+        failedPasses++;
+        long delay = Math.min(resyncIntervalMs << Math.min(failedPasses, 10), resyncMaxBackoffMs);
+        nextPassAt = System.currentTimeMillis() + delay;
+        logger.warn("Project search resync failed {} time(s) in a row; next pass in {} ms", failedPasses, delay);
+    }
+
+    // ====================== INTERNALS ======================
+
+    /**
+     * Records a change against the current transaction, registering a single
+     * after-commit refresh the first time. Outside a transaction the change is
+     * applied immediately.
+     */
+    private void enqueue(Consumer<PendingChanges> change) {
+        pendingChanges.record(change);
+    }
+
+    private Set<Long> resolve(PendingChanges changes) {
+        if (changes.companyIds.isEmpty() && changes.contactIds.isEmpty() && changes.productIds.isEmpty()) {
+            return changes.projectIds;
+        }
+        return readTransaction.execute(status -> {
+            Set<Long> ids = new HashSet<>(changes.projectIds);
+            changes.companyIds.forEach(id -> ids.addAll(projectRepository.findIdsByCompanyId(id)));
+            changes.contactIds.forEach(id -> ids.addAll(projectRepository.findIdsByContactId(id)));
+            changes.productIds.forEach(id -> ids.addAll(projectRepository.findIdsByProductId(id)));
+            return ids;
+        });
+    }
+
+    private List<ProjectSearchDocument> loadDocuments(Collection<Long> projectIds) {
+        return readTransaction.execute(status -> {
+            List<Project> projects = projectRepository.findForSearchIndexByIdIn(projectIds);
+
+            Map<Long, Set<Long>> assignees = new HashMap<>();
+            for (ProjectAssigneeProjection row : assignmentRepository.findAssigneesByProjectIds(projectIds)) {
+                assignees.computeIfAbsent(row.getProjectId(), id -> new HashSet<>()).add(row.getUserId());
+            }
+
+            return projects.stream()
+                    .map(project -> toDocument(project, assignees.getOrDefault(project.getId(), Set.of())))
+                    .toList();
+        });
+    }
+
+    private static ProjectSearchDocument toDocument(Project project, Set<Long> assignedUserIds) {
+        ProjectSearchDocument document = new ProjectSearchDocument();
+        document.setId(project.getId());
+        document.setName(lower(project.getName()));
+        document.setProjectNo(lower(project.getProjectNo()));
+        document.setUnbilledNumber(lower(project.getUnbilledNumber()));
+        document.setEstimateNumber(lower(project.getEstimateNumber()));
+        document.setCompanyName(project.getCompany() != null ? lower(project.getCompany().getName()) : null);
+        document.setContactName(project.getContact() != null ? lower(project.getContact().getName()) : null);
+        document.setProductName(project.getProduct() != null ? lower(project.getProduct().getProductName()) : null);
+        document.setSalesPersonName(lower(project.getSalesPersonName()));
+        document.setSalesPersonId(project.getSalesPersonId());
+        document.setStatusName(project.getStatus() != null ? lower(project.getStatus().getName()) : null);
+        document.setDate(project.getDate());
+        document.setCancelled(project.isCancelled());
+        document.setAssignedUserIds(new HashSet<>(assignedUserIds));
+        return document;
+    }
+
+    private static String lower(String value) {
+        return value != null ? value.toLowerCase(Locale.ROOT) : null;
+    }
+
+    private static class PendingChanges {
+        final Set<Long> projectIds = new LinkedHashSet<>();
+        final Set<Long> companyIds = new HashSet<>();
+        final Set<Long> contactIds = new HashSet<>();
+        final Set<Long> productIds = new HashSet<>();
+    }
+}
@@ -0,0 +1,37 @@
+package com.doc.search;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * A text search over one or more project fields plus optional filters.
+ *
+ * @param text             text to find as a case-insensitive substring
+ * @param fields           fields to match; a project matches if any field contains the text
+ * @param includeCancelled whether cancelled projects are returned
+ * @param statusName       status name to match case-insensitively, or {@code null} for any
+ * @param fromDate         inclusive lower bound on the project date, or {@code null}
+ * @param toDate           inclusive upper bound on the project date, or {@code null}
+ * @param salesPersonId    sales person to restrict to, or {@code null} for any
+ * @param assignedUserIds  access scope: only projects assigned to one of these users,
+ *                         or {@code null} for no restriction (admins)
+ * @param limit            maximum number of ids to return
+ */
+public record ProjectSearchQuery(
+        String text,
+        Set<ProjectSearchField> fields,
+        boolean includeCancelled,
+        String statusName,
+        LocalDate fromDate,
+        LocalDate toDate,
+        Long salesPersonId,
+        Collection<Long> assignedUserIds,
+        int limit
+) {
+
+    public static ProjectSearchQuery of(String text, Set<ProjectSearchField> fields,
+                                        Collection<Long> assignedUserIds, int limit) {
+        return new ProjectSearchQuery(text, fields, false, null, null, null, null, assignedUserIds, limit);
+    }
+}
@@ -0,0 +1,12 @@
+package com.doc.search;
+
+import java.util.List;
+
+/**
+ * Ids of matching projects, ordered newest first.
+ *
+ * @param projectIds matching ids, at most the query limit
+ * @param truncated  {@code true} if more projects matched than the limit allowed
+ */
+public record ProjectSearchResult(List<Long> projectIds, boolean truncated) {
+}
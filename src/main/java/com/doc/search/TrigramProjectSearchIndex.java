@@ -0,0 +1,286 @@
+package com.doc.search;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process trigram index used when no search cluster is configured.
+ *
+ * Every field value is lower-cased and split into overlapping three-character
+ * grams. A query looks up the posting list of each of its grams, walks only the
+ * shortest one and confirms each candidate with a plain substring check, so
+ * results are exactly those of the {@code LIKE '%x%'} queries it replaces.
+ * Queries shorter than three characters scan the documents directly.
+ *
+ * Posting lists are sorted {@code int} arrays of dense document ordinals; an
+ * ordinal is assigned on first index of a project and kept across updates.
+ */
+@Component
+@ConditionalOnProperty(name = "search.project.engine", havingValue = "embedded", matchIfMissing = true)
+public class TrigramProjectSearchIndex implements ProjectSearchIndex {
+
+    private static final int GRAM = 3;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final List<ProjectSearchDocument> documents = new ArrayList<>();
+    private final Map<ProjectSearchField, Map<String, Postings>> postings = new EnumMap<>(ProjectSearchField.class);
+
+    private volatile boolean ready;
+
+    public TrigramProjectSearchIndex() {
+        for (ProjectSearchField field : ProjectSearchField.values()) {
+            postings.put(field, new HashMap<>());
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public ProjectSearchResult search(ProjectSearchQuery query) {
+        String text = normalize(query.text());
+        if (text == null) {
+            return new ProjectSearchResult(List.of(), false);
+        }
+        Set<Long> scope = query.assignedUserIds() != null ? new HashSet<>(query.assignedUserIds()) : null;
+
+        lock.readLock().lock();
+        try {
+            BitSet matched = new BitSet(documents.size());
+            for (ProjectSearchField field : query.fields()) {
+                collect(field, text, matched);
+            }
+
+            List<Long> ids = new ArrayList<>();
+            for (int ordinal = matched.nextSetBit(0); ordinal >= 0; ordinal = matched.nextSetBit(ordinal + 1)) {
+                ProjectSearchDocument document = documents.get(ordinal);
+                if (document != null && passesFilters(document, query, scope)) {
+                    ids.add(document.getId());
+                }
+            }
+
+            ids.sort(Comparator.reverseOrder());
+            boolean truncated = ids.size() > query.limit();
+            return new ProjectSearchResult(truncated ? ids.subList(0, query.limit()) : ids, truncated);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(Collection<ProjectSearchDocument> batch) {
+        lock.writeLock().lock();
+        try {
+            for (ProjectSearchDocument document : batch) {
+                Integer ordinal = ordinals.get(document.getId());
+                if (ordinal == null) {
+                    ordinal = documents.size();
+                    documents.add(null);
+                    ordinals.put(document.getId(), ordinal);
+                } else {
+                    unpost(ordinal);
+                }
+                documents.set(ordinal, document);
+                post(ordinal, document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Collection<Long> projectIds) {
+        lock.writeLock().lock();
+        try {
+            for (Long projectId : projectIds) {
+                Integer ordinal = ordinals.get(projectId);
+                if (ordinal != null) {
+                    unpost(ordinal);
+                    documents.set(ordinal, null);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The index lives in memory, so a fresh node always starts empty.
+     */
+    @Override
+    public boolean isCurrent(long projectCount) {
+        return false;
+    }
+
+    @Override
+    public void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            ordinals.clear();
+            documents.clear();
+            postings.values().forEach(Map::clear);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void indexForRebuild(Collection<ProjectSearchDocument> documents) {
+        index(documents);
+    }
+
+    @Override
+    public void completeRebuild() {
+        ready = true;
+    }
+
+    /**
+     * Stays not ready; the next rebuild starts from empty again.
+     */
+    @Override
+    public void abortRebuild() {
+    }
+
+    // ====================== INTERNALS ======================
+
+    private void collect(ProjectSearchField field, String text, BitSet matched) {
+        if (text.length() < GRAM) {
+            for (int ordinal = 0; ordinal < documents.size(); ordinal++) {
+                ProjectSearchDocument document = documents.get(ordinal);
+                if (document != null && contains(field.valueOf(document), text)) {
+                    matched.set(ordinal);
+                }
+            }
+            return;
+        }
+
+        Map<String, Postings> fieldPostings = postings.get(field);
+        Postings shortest = null;
+        for (String gram : grams(text)) {
+            Postings list = fieldPostings.get(gram);
+            if (list == null) {
+                return;
+            }
+            if (shortest == null || list.size < shortest.size) {
+                shortest = list;
+            }
+        }
+
+        for (int i = 0; i < shortest.size; i++) {
+            int ordinal = shortest.ordinals[i];
+            if (!matched.get(ordinal) && contains(field.valueOf(documents.get(ordinal)), text)) {
+                matched.set(ordinal);
+            }
+        }
+    }
+
+    private void post(int ordinal, ProjectSearchDocument document) {
+        for (ProjectSearchField field : ProjectSearchField.values()) {
+            String value = field.valueOf(document);
+            if (value == null) continue;
+            Map<String, Postings> fieldPostings = postings.get(field);
+            for (String gram : grams(value)) {
+                fieldPostings.computeIfAbsent(gram, g -> new Postings()).add(ordinal);
+            }
+        }
+    }
+
+    private void unpost(int ordinal) {
+        ProjectSearchDocument previous = documents.get(ordinal);
+        if (previous == null) return;
+        for (ProjectSearchField field : ProjectSearchField.values()) {
+            String value = field.valueOf(previous);
+            if (value == null) continue;
+            Map<String, Postings> fieldPostings = postings.get(field);
+            for (String gram : grams(value)) {
+                Postings list = fieldPostings.get(gram);
+                if (list != null && list.remove(ordinal) && list.size == 0) {
+                    fieldPostings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static boolean passesFilters(ProjectSearchDocument document, ProjectSearchQuery query, Set<Long> scope) {
+        if (!query.includeCancelled() && document.isCancelled()) {
+            return false;
+        }
+        if (query.statusName() != null && !query.statusName().equalsIgnoreCase(document.getStatusName())) {
+            return false;
+        }
+        if (query.salesPersonId() != null && !query.salesPersonId().equals(document.getSalesPersonId())) {
+            return false;
+        }
+        LocalDate date = document.getDate();
+        if (query.fromDate() != null && (date == null || date.isBefore(query.fromDate()))) {
+            return false;
+        }
+        if (query.toDate() != null && (date == null || date.isAfter(query.toDate()))) {
+            return false;
+        }
+        if (scope != null) {
+            for (Long userId : document.getAssignedUserIds()) {
+                if (scope.contains(userId)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return true;
+    }
+
+    private static Set<String> grams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static boolean contains(String value, String text) {
+        return value != null && value.contains(text);
+    }
+
+    private static String normalize(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        return text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /** Sorted, growable list of document ordinals. */
+    private static final class Postings {
+        private int[] ordinals = new int[4];
+        private int size;
+
+        void add(int ordinal) {
+            int at = Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (at >= 0) return;
+            at = -at - 1;
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+            System.arraycopy(ordinals, at, ordinals, at + 1, size - at);
+            ordinals[at] = ordinal;
+            size++;
+        }
+
+        boolean remove(int ordinal) {
+            int at = Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (at < 0) return false;
+            System.arraycopy(ordinals, at + 1, ordinals, at, size - at - 1);
+            size--;
+            return true;
+        }
+    }
+}
@@ -5,9 +5,20 @@ import com.doc.entity.product.ProductMilestoneMap;
 import com.doc.entity.project.AssignmentResult;
 import com.doc.entity.project.Project;
 
+import java.util.List;
+import java.util.Map;
+
 public interface AutoAssignmentService {
     AssignmentResult assignMilestoneUser(ProductMilestoneMap milestone, Project project, Long updatedById);
+
+    /**
+     * Assigns several milestones of one project in a single pass.
+     *
+     * @return results keyed by ProductMilestoneMap id; auto-generated milestones have no entry
+     */
+    Map<Long, AssignmentResult> assignMilestoneUsers(List<ProductMilestoneMap> milestones, Project project, Long updatedById);
+
     void updateDepartmentAutoConfig(DepartmentAutoConfigDto dto);
 
     DepartmentAutoConfigDto getDepartmentAutoConfig(Long id);
-}
\ No newline at end of file
+}
@@ -1,8 +1,14 @@
 package com.doc.service;
 
+import com.doc.dto.document.DirectUploadRequest;
+import com.doc.dto.document.DirectUploadResponse;
 import com.doc.dto.document.DocumentUploadRequest;
 import com.doc.dto.document.DocumentUploadResponse;
 
 public interface DocumentService {
     DocumentUploadResponse uploadDocument(DocumentUploadRequest request);
-}
\ No newline at end of file
+
+    DirectUploadResponse initiateDirectUpload(DirectUploadRequest request);
+
+    DocumentUploadResponse completeDirectUpload(String uploadId);
+}
@@ -2,6 +2,7 @@ package com.doc.service;
 
 import com.doc.dto.document.ProductRequiredDocumentRequestDto;
 import com.doc.dto.document.ProductRequiredDocumentResponseDto;
+import com.doc.dto.importer.BulkImportJobResponseDto;
 
 import java.util.List;
 
@@ -12,5 +13,7 @@ public interface ProductRequiredDocumentService {
     List<ProductRequiredDocumentResponseDto> getActivePaginated(Long userId, int page, int size);
     List<ProductRequiredDocumentResponseDto> importFromS3(String s3Url, Long createdBy);
 
+    BulkImportJobResponseDto submitImportFromS3(String s3Url, Long createdBy);
+
     void softDelete(Long id);
 }
\ No newline at end of file
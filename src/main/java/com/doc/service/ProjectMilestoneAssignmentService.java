@@ -1,5 +1,8 @@
 package com.doc.service;
 
+import com.doc.dto.ProjectMilestoneassignment.BulkMilestoneResultDto;
+import com.doc.dto.ProjectMilestoneassignment.BulkMilestoneStatusUpdateDto;
+import com.doc.dto.ProjectMilestoneassignment.BulkReassignMilestoneDto;
 import com.doc.dto.ProjectMilestoneassignment.ReassignMilestoneDto;
 import com.doc.dto.ProjectMilestoneassignment.ReassignMilestoneResponseDto;
 import com.doc.dto.ProjectMilestoneassignment.SendBackToPreviousMilestoneDto;
@@ -12,4 +15,8 @@ public interface ProjectMilestoneAssignmentService {
 
     void sendBackToPreviousMilestone(SendBackToPreviousMilestoneDto dto);
 
+    BulkMilestoneResultDto bulkUpdateMilestoneStatus(BulkMilestoneStatusUpdateDto dto);
+
+    BulkMilestoneResultDto bulkReassignMilestones(BulkReassignMilestoneDto dto);
+
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import com.doc.dto.document.DocumentChecklistDTO;
 import com.doc.dto.project.*;
 import com.doc.dto.project.projectHistory.MilestoneHistoryResponseDto;
 import com.doc.dto.project.projectHistory.ProjectHistoryResponseDto;
+import com.doc.dto.project.projectHistory.ProjectTimelineResponseDto;
 import com.doc.dto.project.sales.SalesProjectStatusResponseDto;
 import com.doc.dto.transaction.ProjectPaymentTransactionDto;
 import com.doc.entity.project.Project;
@@ -16,6 +17,8 @@ public interface ProjectService {
 
     ProjectResponseDto createProject(ProjectRequestDto requestDto);
 
+    BulkProjectCreateResponseDto createProjectsInBulk(List<ProjectRequestDto> requestDtos);
+
     List<ProjectResponseDto> getAllProjects(Long userId, int page, int size, List<String> statuses);
 
     long getProjectCount(Long userId);
@@ -28,6 +31,8 @@ public interface ProjectService {
 
     void updateMilestoneVisibilities(Project project, Long updatedById);
 
+    MilestoneVisibilityBackfillResponseDto backfillMilestoneVisibility(Long afterProjectId, Long productId, int batchSize, Long userId);
+
     ProjectResponseDto addPaymentByUnbilledNumber(String unbilledNumber, ProjectPaymentTransactionDto dto);
 
     void deleteProject(Long id);
@@ -37,6 +42,8 @@ public interface ProjectService {
     // In ProjectService.java
     MilestoneHistoryResponseDto getMilestoneHistory(Long projectId, Long milestoneId, Long requestingUserId);
 
+    ProjectTimelineResponseDto getProjectTimeline(Long projectId, String cursor, int limit);
+
     void setApplicantType(Long projectId, Long applicantId);
 
     List<DocumentChecklistDTO> getDocumentChecklist(Long projectId);
@@ -23,6 +23,14 @@ public interface UserLoginStatusService {
      */
     UserLoginStatusResponseDto setOffline(Long userId);
 
+    /**
+     * Keep an online user online; only needed when presence.heartbeat-timeout-seconds is set.
+     *
+     * @param userId the ID of the user
+     * @return UserOnlineStatusResponseDto with current status
+     */
+    UserLoginStatusResponseDto heartbeat(Long userId);
+
     /**
      * Get the current online status of the user.
      *
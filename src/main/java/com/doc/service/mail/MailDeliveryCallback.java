@@ -0,0 +1,17 @@
+package com.doc.service.mail;
+
+import com.doc.em.MailCallbackType;
+
+/**
+ * Updates the business record behind a queued mail once the mail outbox
+ * has sent it or given up. Implementations run in their own transaction
+ * after the SMTP send; one bean per {@link MailCallbackType}.
+ */
+public interface MailDeliveryCallback {
+
+    MailCallbackType type();
+
+    void onSent(Long referenceId, String recipient, Long requestedBy);
+
+    void onFailed(Long referenceId, String recipient, Long requestedBy, String error);
+}
@@ -1,8 +1,28 @@
 package com.doc.service.mail;
 
 import com.doc.dto.mail.MailRequestDto;
+import com.doc.em.MailCallbackType;
 
 public interface MailService {
 
+    /**
+     * Sends immediately on the calling thread.
+     */
     void sendMail(MailRequestDto requestDto);
-}
\ No newline at end of file
+
+    /**
+     * Queues the mail in the caller's transaction; it is sent after commit.
+     */
+    void queueMail(MailRequestDto requestDto);
+
+    /**
+     * Queues the mail and reports the outcome to the {@link MailDeliveryCallback}
+     * registered for {@code callbackType}.
+     */
+    void queueMail(MailRequestDto requestDto, MailCallbackType callbackType, Long referenceId, Long requestedBy);
+
+    /**
+     * True while a mail for this callback reference is still waiting to be sent.
+     */
+    boolean isQueued(MailCallbackType callbackType, Long referenceId);
+}
@@ -0,0 +1,85 @@
+package com.doc.transaction;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Collects the changes a transaction reports (e.g. ids of written projects)
+ * into one object bound to the transaction and hands it over once, when
+ * the transaction completes. The first change of a transaction registers
+ * the synchronization; later ones only add to the collected object.
+ *
+ * Outside a transaction every change is handed over right away, to the
+ * before-commit action first and then to the after-commit action.
+ *
+ * @param <T> the collected changes, created per transaction by the factory
+ */
+public final class AfterCommitCollector<T> {
+
+    private final Supplier<T> factory;
+    private final Consumer<T> beforeCommit;
+    private final Consumer<T> afterCommit;
+
+    private AfterCommitCollector(Supplier<T> factory, Consumer<T> beforeCommit, Consumer<T> afterCommit) {
+        this.factory = factory;
+        this.beforeCommit = beforeCommit;
+        this.afterCommit = afterCommit;
+    }
+
+    /**
+     * Hands the changes to {@code afterCommit} once the transaction committed;
+     * nothing happens on rollback.
+     */
+    public static <T> AfterCommitCollector<T> afterCommit(Supplier<T> factory, Consumer<T> afterCommit) {
+        return new AfterCommitCollector<>(factory, changes -> { }, afterCommit);
+    }
+
+    /**
+     * Hands the changes to {@code beforeCommit} inside the transaction, so
+     * writes made there commit or roll back with it, and then to
+     * {@code afterCommit} once it committed.
+     */
+    public static <T> AfterCommitCollector<T> aroundCommit(Supplier<T> factory,
+                                                           Consumer<T> beforeCommit,
+                                                           Consumer<T> afterCommit) {
+        return new AfterCommitCollector<>(factory, beforeCommit, afterCommit);
+    }
+
+    public void record(Consumer<T> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            T changes = factory.get();
+            change.accept(changes);
+            beforeCommit.accept(changes);
+            afterCommit.accept(changes);
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        T changes = (T) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            T created = factory.get();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    beforeCommit.accept(created);
+                }
+
+                @Override
+                public void afterCommit() {
+                    afterCommit.accept(created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(AfterCommitCollector.this);
+                }
+            });
+            changes = created;
+        }
+        change.accept(changes);
+    }
+}
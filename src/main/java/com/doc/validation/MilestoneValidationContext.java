@@ -0,0 +1,26 @@
+package com.doc.validation;
+
+import com.doc.entity.document.ProductDocumentMapping;
+import com.doc.entity.document.ProjectDocumentUpload;
+import com.doc.entity.project.ProjectPortalDetail;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lookups made by {@link MilestoneValidator}, kept so that validating many
+ * milestones of the same project (or product) reads each of them once.
+ *
+ * Obtain one from {@link MilestoneValidator#newContext()} and use it for a
+ * single request only; it is not thread-safe and never refreshed.
+ */
+public final class MilestoneValidationContext {
+
+    final Map<Long, List<ProjectPortalDetail>> portalDetailsByProject = new HashMap<>();
+    final Map<Long, List<ProjectDocumentUpload>> uploadsByProject = new HashMap<>();
+    final Map<String, List<ProductDocumentMapping>> mappingsByProductAndApplicantType = new HashMap<>();
+
+    MilestoneValidationContext() {
+    }
+}
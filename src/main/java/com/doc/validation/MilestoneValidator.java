@@ -47,6 +47,14 @@ public class MilestoneValidator {
     @Autowired
     private ProjectPortalDetailRepository portalDetailRepository;
 
+    /**
+     * A lookup context to share across the validations of one request,
+     * e.g. a bulk status change touching several milestones of a project.
+     */
+    public MilestoneValidationContext newContext() {
+        return new MilestoneValidationContext();
+    }
+
     /**
      * Documentation milestone validation.
      *
@@ -56,6 +64,13 @@ public class MilestoneValidator {
     public void validateDocumentMilestone(
             ProjectMilestoneAssignment assignment
     ) {
+        validateDocumentMilestone(assignment, newContext());
+    }
+
+    public void validateDocumentMilestone(
+            ProjectMilestoneAssignment assignment,
+            MilestoneValidationContext context
+    ) {
 
         Long assignmentId =
                 assignment != null ? assignment.getId() : null;
@@ -65,7 +80,7 @@ public class MilestoneValidator {
                 assignmentId
         );
 
-        validateDocuments(assignment, false);
+        validateDocuments(assignment, false, context);
 
         logger.info(
                 "[DOCUMENT-MILESTONE-VALIDATION-SUCCESS] assignmentId={}",
@@ -81,6 +96,13 @@ public class MilestoneValidator {
     public void validateLegalMilestone(
             ProjectMilestoneAssignment assignment
     ) {
+        validateLegalMilestone(assignment, newContext());
+    }
+
+    public void validateLegalMilestone(
+            ProjectMilestoneAssignment assignment,
+            MilestoneValidationContext context
+    ) {
 
         Long assignmentId =
                 assignment != null ? assignment.getId() : null;
@@ -90,7 +112,7 @@ public class MilestoneValidator {
                 assignmentId
         );
 
-        validateDocuments(assignment, true);
+        validateDocuments(assignment, true, context);
 
         logger.info(
                 "[LEGAL-MILESTONE-VALIDATION-SUCCESS] assignmentId={}",
@@ -106,6 +128,13 @@ public class MilestoneValidator {
     public void validateFillingMilestone(
             ProjectMilestoneAssignment assignment
     ) {
+        validateFillingMilestone(assignment, newContext());
+    }
+
+    public void validateFillingMilestone(
+            ProjectMilestoneAssignment assignment,
+            MilestoneValidationContext context
+    ) {
 
         Long assignmentId =
                 assignment != null ? assignment.getId() : null;
@@ -155,8 +184,10 @@ public class MilestoneValidator {
         );
 
         List<ProjectPortalDetail> portalDetails =
-                portalDetailRepository
-                        .findByProjectIdAndIsDeletedFalse(projectId);
+                context.portalDetailsByProject.computeIfAbsent(
+                        projectId,
+                        portalDetailRepository::findByProjectIdAndIsDeletedFalse
+                );
 
         int portalDetailCount =
                 portalDetails != null ? portalDetails.size() : 0;
@@ -244,10 +275,12 @@ public class MilestoneValidator {
      *
      * @param assignment          milestone assignment
      * @param requireVerification true when VERIFIED status is mandatory
+     * @param context             lookups shared with other validations
      */
     private void validateDocuments(
             ProjectMilestoneAssignment assignment,
-            boolean requireVerification
+            boolean requireVerification,
+            MilestoneValidationContext context
     ) {
 
         Long assignmentId =
@@ -336,11 +369,14 @@ public class MilestoneValidator {
         );
 
         List<ProductDocumentMapping> requiredMappings =
-                productDocumentMappingRepository
-                        .findByProductAndApplicantType(
-                                product,
-                                applicantType
-                        );
+                context.mappingsByProductAndApplicantType.computeIfAbsent(
+                        product.getId() + ":" + applicantType.getId(),
+                        key -> productDocumentMappingRepository
+                                .findByProductAndApplicantType(
+                                        product,
+                                        applicantType
+                                )
+                );
 
         int mappingCount =
                 requiredMappings != null
@@ -373,8 +409,10 @@ public class MilestoneValidator {
         }
 
         List<ProjectDocumentUpload> uploadedDocuments =
-                projectDocumentUploadRepository
-                        .findByProjectIdAndIsDeletedFalse(projectId);
+                context.uploadsByProject.computeIfAbsent(
+                        projectId,
+                        projectDocumentUploadRepository::findByProjectIdAndIsDeletedFalse
+                );
 
         if (uploadedDocuments == null) {
             uploadedDocuments = List.of();
@@ -0,0 +1,306 @@
+package com.doc.assignment;
+
+import com.doc.entity.product.Product;
+import com.doc.entity.project.UserPerformanceCount;
+import com.doc.entity.user.User;
+import com.doc.entity.user.UserLoginStatus;
+import com.doc.entity.user.UserProductMap;
+import com.doc.presence.PresenceRegistry;
+import com.doc.repository.UserLoginStatusRepository;
+import com.doc.repository.UserPerformanceCountRepository;
+import com.doc.repository.UserProductMapRepository;
+import com.doc.repository.UserRepository;
+import com.doc.repository.projection.OpenAssignmentCountProjection;
+import org.mockito.stubbing.Answer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Cost of one auto-assignment pick from a department of 50, 500 and 5000
+ * users, with a simulated database round trip of 0 and 250 microseconds per
+ * query.
+ *
+ * {@code roundRobin} and {@code leastLoaded} pick from a warm
+ * {@link AssignmentCandidateIndex} and record the assignment, releasing the
+ * previous pick so the load stays level. Picks make no query; the counts are
+ * reconciled in the background.
+ *
+ * {@code baselineRoundRobin} and {@code baselineLoadBalance} run
+ * {@link BaselineSelection}, the selection of the previous
+ * {@code AutoAssignmentServiceImpl} with its queries kept and its logging
+ * dropped (the eager argument building of the eligible-users log line is
+ * kept, since it queried too). Both sides stop at the pick: the count write
+ * of the assignment itself is the same in either. At 0 microseconds the
+ * baseline numbers are mostly the stubs' own call overhead.
+ *
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.doc.assignment.AssignmentCandidateIndexBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AssignmentCandidateIndexBenchmark {
+
+    private static final long DEPARTMENT_ID = 1L;
+    private static final long PRODUCT_ID = 1L;
+
+    @Param({"50", "500", "5000"})
+    public int users;
+
+    @Param({"0", "250"})
+    public long queryMicros;
+
+    private AssignmentCandidateIndex index;
+    private BaselineSelection baseline;
+    private AssignmentCandidate previous;
+    private final Predicate<AssignmentCandidate> withSpace = AssignmentCandidate::hasCapacity;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Product product = new Product();
+        product.setId(PRODUCT_ID);
+
+        List<User> deptUsers = new ArrayList<>(users);
+        List<UserProductMap> mappings = new ArrayList<>(users);
+        List<OpenAssignmentCountProjection> counts = new ArrayList<>(users);
+        Map<Long, UserPerformanceCount> storedCounts = new HashMap<>();
+        Random random = new Random(42);
+        for (long id = 1; id <= users; id++) {
+            User user = new User();
+            user.setId(id);
+            user.setFullName("User " + id);
+            user.setBucketSize(10);
+
+            UserProductMap mapping = new UserProductMap();
+            mapping.setUser(user);
+            mapping.setProduct(product);
+            mapping.setRating((double) (1 + random.nextInt(5)));
+            user.getUserProductMaps().add(mapping);
+            deptUsers.add(user);
+            mappings.add(mapping);
+
+            int open = random.nextInt(10);
+            counts.add(count(id, open));
+            UserPerformanceCount stored = new UserPerformanceCount();
+            stored.setAssignmentCount(open);
+            storedCounts.put(id, stored);
+        }
+
+        UserProductMapRepository mapRepository = mock(UserProductMapRepository.class, withSettings().stubOnly());
+        when(mapRepository.findAssignmentCandidates(anyLong(), anyLong())).thenAnswer(roundTrip(mappings));
+        when(mapRepository.findByProductIdAndIsDeletedFalse(anyLong())).thenAnswer(roundTrip(mappings));
+        when(mapRepository.saveAll(any())).thenAnswer(roundTrip(List.of()));
+        UserPerformanceCountRepository countRepository = mock(UserPerformanceCountRepository.class, withSettings().stubOnly());
+        when(countRepository.findOpenAssignmentCounts(anyLong(), anyCollection())).thenAnswer(roundTrip(counts));
+        when(countRepository.findByUserIdAndProductId(anyLong(), anyLong())).thenAnswer(invocation -> {
+            park();
+            return storedCounts.get(invocation.<Long>getArgument(0));
+        });
+        UserRepository userRepository = mock(UserRepository.class, withSettings().stubOnly());
+        when(userRepository.findByDepartmentsIdAndIsActiveTrueAndIsDeletedFalse(anyLong())).thenAnswer(roundTrip(deptUsers));
+        when(userRepository.saveAll(any())).thenAnswer(roundTrip(deptUsers));
+        UserLoginStatus online = new UserLoginStatus();
+        online.setOnline(true);
+        UserLoginStatusRepository loginStatusRepository = mock(UserLoginStatusRepository.class, withSettings().stubOnly());
+        when(loginStatusRepository.findTodayStatusByUserId(anyLong())).thenAnswer(roundTrip(Optional.of(online)));
+
+        UserPerformanceCounter counter = mock(UserPerformanceCounter.class);
+        PresenceRegistry presence = mock(PresenceRegistry.class);
+        when(presence.isOnline(anyLong())).thenReturn(true);
+
+        index = new AssignmentCandidateIndex(mapRepository, countRepository, counter, presence, 0);
+        index.getCandidates(DEPARTMENT_ID, PRODUCT_ID);
+        baseline = new BaselineSelection(userRepository, mapRepository, countRepository, loginStatusRepository);
+    }
+
+    @Benchmark
+    public Optional<AssignmentCandidate> roundRobin() {
+        return record(index.nextRoundRobin(DEPARTMENT_ID, PRODUCT_ID, withSpace));
+    }
+
+    @Benchmark
+    public Optional<AssignmentCandidate> leastLoaded() {
+        return record(index.leastLoaded(DEPARTMENT_ID, PRODUCT_ID, withSpace));
+    }
+
+    @Benchmark
+    public Optional<UserProductMap> baselineRoundRobin() {
+        return baseline.select(DEPARTMENT_ID, PRODUCT_ID, true);
+    }
+
+    @Benchmark
+    public Optional<UserProductMap> baselineLoadBalance() {
+        return baseline.select(DEPARTMENT_ID, PRODUCT_ID, false);
+    }
+
+    private Optional<AssignmentCandidate> record(Optional<AssignmentCandidate> selected) {
+        selected.ifPresent(candidate -> {
+            index.recordAssignment(candidate.getUserId(), PRODUCT_ID);
+            if (previous != null) {
+                index.recordRelease(previous.getUserId(), PRODUCT_ID);
+            }
+            previous = candidate;
+        });
+        return selected;
+    }
+
+    private Answer<Object> roundTrip(Object result) {
+        return invocation -> {
+            park();
+            return result;
+        };
+    }
+
+    private void park() {
+        if (queryMicros > 0) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(queryMicros));
+        }
+    }
+
+    private static OpenAssignmentCountProjection count(long userId, int open) {
+        Date lastUpdated = new Date(0);
+        return new OpenAssignmentCountProjection() {
+            @Override
+            public Long getUserId() {
+                return userId;
+            }
+
+            @Override
+            public Integer getAssignmentCount() {
+                return open;
+            }
+
+            @Override
+            public Date getLastUpdatedDate() {
+                return lastUpdated;
+            }
+        };
+    }
+
+    /**
+     * The round-robin and load-balance selection of the previous
+     * {@code AutoAssignmentServiceImpl.assignMilestoneUser} for a department
+     * without rating prioritisation, company alignment or required
+     * availability, up to the chosen mapping.
+     */
+    static class BaselineSelection {
+
+        private final UserRepository userRepository;
+        private final UserProductMapRepository userProductMapRepository;
+        private final UserPerformanceCountRepository userPerformanceCountRepository;
+        private final UserLoginStatusRepository userLoginStatusRepository;
+
+        BaselineSelection(UserRepository userRepository,
+                          UserProductMapRepository userProductMapRepository,
+                          UserPerformanceCountRepository userPerformanceCountRepository,
+                          UserLoginStatusRepository userLoginStatusRepository) {
+            this.userRepository = userRepository;
+            this.userProductMapRepository = userProductMapRepository;
+            this.userPerformanceCountRepository = userPerformanceCountRepository;
+            this.userLoginStatusRepository = userLoginStatusRepository;
+        }
+
+        Optional<UserProductMap> select(Long departmentId, Long productId, boolean roundRobin) {
+            List<User> deptUsers = userRepository.findByDepartmentsIdAndIsActiveTrueAndIsDeletedFalse(departmentId);
+            deptUsers.forEach(user -> user.getUserProductMaps().stream()
+                    .anyMatch(m -> !m.isDeleted() && m.getProduct().getId().equals(productId)));
+            userRepository.saveAll(deptUsers);
+
+            List<UserProductMap> mappings = userProductMapRepository.findByProductIdAndIsDeletedFalse(productId);
+            List<UserProductMap> eligible = mappings.stream()
+                    .filter(m -> deptUsers.stream().anyMatch(u -> u.getId().equals(m.getUser().getId())))
+                    .filter(m -> !m.getUser().isManagerFlag())
+                    .sorted(Comparator.comparing(m -> m.getUser().getFullName()))
+                    .collect(Collectors.toList());
+
+            // Arguments of the ELIGIBLE USERS info line
+            eligible.stream()
+                    .map(m -> String.format("%s (online=%b, bucket=%b, rating=%.1f, bucketSize=%d)",
+                            m.getUser().getFullName(),
+                            isUserOnline(m.getUser()),
+                            isBucketAvailable(m.getUser(), productId),
+                            Optional.ofNullable(m.getRating()).orElse(0.0),
+                            m.getUser().getBucketSize()))
+                    .collect(Collectors.joining(", "));
+            // BUCKET DEBUG loop
+            eligible.forEach(m -> isBucketAvailable(m.getUser(), productId));
+
+            List<UserProductMap> activeUsers = eligible.stream()
+                    .filter(m -> m.getUser().getBucketSize() > 0)
+                    .sorted(Comparator.comparing(m -> m.getUser().getFullName()))
+                    .collect(Collectors.toList());
+            if (activeUsers.isEmpty()
+                    || activeUsers.stream().noneMatch(m -> isBucketAvailable(m.getUser(), productId))) {
+                return Optional.empty();
+            }
+
+            List<UserProductMap> withSpace = activeUsers.stream()
+                    .filter(m -> isBucketAvailable(m.getUser(), productId))
+                    .collect(Collectors.toList());
+            return roundRobin ? selectRoundRobin(withSpace) : selectBestAvailable(withSpace, productId);
+        }
+
+        private boolean isUserOnline(User user) {
+            return userLoginStatusRepository.findTodayStatusByUserId(user.getId())
+                    .map(UserLoginStatus::isOnline)
+                    .orElse(false);
+        }
+
+        private boolean isBucketAvailable(User user, Long productId) {
+            int bucketSize = user.getBucketSize();
+            if (bucketSize <= 0) {
+                return false;
+            }
+            UserPerformanceCount cnt = userPerformanceCountRepository.findByUserIdAndProductId(user.getId(), productId);
+            int currentCount = cnt != null ? cnt.getAssignmentCount() : 0;
+            return currentCount < bucketSize;
+        }
+
+        private Optional<UserProductMap> selectRoundRobin(List<UserProductMap> candidates) {
+            if (candidates.isEmpty()) return Optional.empty();
+
+            List<UserProductMap> pool = candidates.stream()
+                    .sorted(Comparator.comparing(m -> m.getUser().getFullName()))
+                    .collect(Collectors.toList());
+            if (pool.stream().allMatch(UserProductMap::isAssigned)) {
+                pool.forEach(m -> m.setAssigned(false));
+                userProductMapRepository.saveAll(pool);
+            }
+            Optional<UserProductMap> selected = pool.stream().filter(m -> !m.isAssigned()).findFirst();
+            // assignUser flags the pick for the next call
+            selected.ifPresent(m -> m.setAssigned(true));
+            return selected;
+        }
+
+        private Optional<UserProductMap> selectBestAvailable(List<UserProductMap> candidates, Long productId) {
+            return candidates.stream()
+                    .min(Comparator.comparing((UserProductMap m) -> {
+                        UserPerformanceCount c = userPerformanceCountRepository
+                                .findByUserIdAndProductId(m.getUser().getId(), productId);
+                        return c != null ? c.getAssignmentCount() : 0;
+                    }).thenComparing(m -> m.getRating() != null ? m.getRating() : 0.0, Comparator.reverseOrder()));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AssignmentCandidateIndexBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,195 @@
+package com.doc.assignment;
+
+import com.doc.repository.UserPerformanceCountBatchRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 64 assigners hammering a few (user, product) counters on a real MySQL,
+ * each change in its own transaction, with every tenth transaction rolled
+ * back. Checks that no committed change is lost and no rolled-back change
+ * is kept, writing through and writing behind (with flushes running
+ * concurrently with the assigners).
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class UserPerformanceCounterStressTest {
+
+    private static final int THREADS = 64;
+    private static final int ROUNDS = 50;
+    private static final long[] USERS = {1L, 2L, 3L, 4L};
+    private static final long[] PRODUCTS = {10L, 20L};
+    private static final double TIME_SPENT = 0.5;
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    private static JdbcTemplate jdbcTemplate;
+    private static TransactionTemplate transactionTemplate;
+
+    private UserPerformanceCountBatchRepository batchRepository;
+
+    @BeforeAll
+    static void createSchema() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        jdbcTemplate.execute("""
+                CREATE TABLE user_performance_count (
+                    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+                    user_id BIGINT NOT NULL,
+                    product_id BIGINT NOT NULL,
+                    assignment_count INT NOT NULL,
+                    time_spent DOUBLE NOT NULL,
+                    last_updated_date DATETIME(6) NOT NULL,
+                    created_date DATETIME(6),
+                    updated_date DATETIME(6),
+                    created_by BIGINT,
+                    updated_by BIGINT,
+                    is_deleted BIT NOT NULL,
+                    UNIQUE KEY idx_user_id_product_id (user_id, product_id)
+                )
+                """);
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("DELETE FROM user_performance_count");
+        batchRepository = new UserPerformanceCountBatchRepository();
+        ReflectionTestUtils.setField(batchRepository, "jdbcTemplate", jdbcTemplate);
+    }
+
+    @Test
+    void writeThroughKeepsEveryCommittedChange() throws Exception {
+        UserPerformanceCounter counter = new UserPerformanceCounter(batchRepository, false);
+
+        Map<Key, long[]> expected = hammer(counter, () -> { });
+
+        assertCounts(expected);
+    }
+
+    @Test
+    void writeBehindKeepsEveryCommittedChange() throws Exception {
+        UserPerformanceCounter counter = new UserPerformanceCounter(batchRepository, true);
+
+        Map<Key, long[]> expected = hammer(counter, counter::flush);
+        counter.flush();
+
+        assertCounts(expected);
+        for (long userId : USERS) {
+            for (long productId : PRODUCTS) {
+                assertEquals(0L, counter.pendingAssignments(userId, productId));
+            }
+        }
+    }
+
+    /**
+     * Each assigner repeatedly assigns twice and releases once on every
+     * counter, so counts only grow and the zero floor never kicks in.
+     * {@code background} runs in a loop on its own thread meanwhile.
+     *
+     * @return committed assignments and releases per counter
+     */
+    private Map<Key, long[]> hammer(UserPerformanceCounter counter, Runnable background) throws Exception {
+        Map<Key, long[]> expected = new ConcurrentHashMap<>();
+        ExecutorService assigners = Executors.newFixedThreadPool(THREADS);
+        ExecutorService flusher = Executors.newSingleThreadExecutor();
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            Future<?> backgroundRun = flusher.submit(() -> {
+                while (running.get()) {
+                    background.run();
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                }
+            });
+
+            List<Future<?>> runs = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                runs.add(assigners.submit(() -> {
+                    start.await();
+                    for (int round = 0; round < ROUNDS; round++) {
+                        for (long userId : USERS) {
+                            for (long productId : PRODUCTS) {
+                                boolean rollback = (thread + round) % 10 == 0;
+                                change(counter, userId, productId, rollback, expected);
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> run : runs) {
+                run.get(5, TimeUnit.MINUTES);
+            }
+            running.set(false);
+            backgroundRun.get(1, TimeUnit.MINUTES);
+        } finally {
+            running.set(false);
+            assigners.shutdownNow();
+            flusher.shutdownNow();
+        }
+        return expected;
+    }
+
+    private void change(UserPerformanceCounter counter, long userId, long productId, boolean rollback,
+                        Map<Key, long[]> expected) {
+        transactionTemplate.executeWithoutResult(status -> {
+            counter.assigned(userId, productId, userId);
+            counter.assigned(userId, productId, userId);
+            counter.released(userId, productId, TIME_SPENT, userId);
+            if (rollback) {
+                status.setRollbackOnly();
+            }
+        });
+        if (!rollback) {
+            long[] totals = expected.computeIfAbsent(new Key(userId, productId), k -> new long[2]);
+            synchronized (totals) {
+                totals[0] += 2;
+                totals[1] += 1;
+            }
+        }
+    }
+
+    private void assertCounts(Map<Key, long[]> expected) {
+        for (long userId : USERS) {
+            for (long productId : PRODUCTS) {
+                long[] totals = expected.get(new Key(userId, productId));
+                Map<String, Object> row = jdbcTemplate.queryForMap(
+                        "SELECT assignment_count, time_spent FROM user_performance_count "
+                                + "WHERE user_id = ? AND product_id = ?", userId, productId);
+
+                assertEquals(totals[0] - totals[1], ((Number) row.get("assignment_count")).longValue(),
+                        "open assignments of user " + userId + " on product " + productId);
+                assertEquals(totals[1] * TIME_SPENT, ((Number) row.get("time_spent")).doubleValue(), 1e-9,
+                        "time spent of user " + userId + " on product " + productId);
+            }
+        }
+    }
+
+    private record Key(long userId, long productId) {
+    }
+}
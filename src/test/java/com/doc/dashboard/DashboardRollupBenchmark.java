@@ -0,0 +1,296 @@
+package com.doc.dashboard;
+
+import com.doc.em.DashboardRollupDimension;
+import com.doc.repository.DashboardRollupRepository;
+import com.doc.repository.DashboardRollupRepository.StatusCount;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.MySQLContainer;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Latency of the project dashboard counts on a MySQL seeded with 100k and
+ * 1M projects (three milestone assignments each, 500 users in 20
+ * departments, creation dates over four years), for one year of data.
+ *
+ * The {@code rollup} benchmarks read through {@link DashboardRollupRepository}:
+ * summed buckets for the admin and single-user views, distinct membership
+ * counts for a team of ten. The {@code live} benchmarks run the SQL of the
+ * three {@code ProjectRepository} dashboard queries (total, running, per
+ * status) that the dashboard used before and still uses until the rollup is
+ * built. Membership rows are derived from the seeded projects the way
+ * {@link DashboardRollupService} derives them and the buckets are rebuilt
+ * from them with the repository; the setup prints the one-year admin total
+ * both ways.
+ *
+ * Seeding 1M projects takes several minutes. Needs Docker. Run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.doc.dashboard.DashboardRollupBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DashboardRollupBenchmark {
+
+    private static final int USERS = 500;
+    private static final int DEPARTMENTS = 20;
+    private static final int ASSIGNMENTS_PER_PROJECT = 3;
+    private static final long USER_ID = 7L;
+    private static final List<Long> TEAM = LongStream.rangeClosed(USER_ID, USER_ID + 9).boxed().toList();
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 12, 31);
+    private static final String[] STATUSES = {"OPEN", "IN_PROGRESS", "COMPLETED", "CANCELLED", "REFUNDED", "REOPENED"};
+    private static final String RUNNING_STATUSES = "'OPEN', 'IN_PROGRESS', 'REOPENED'";
+
+    private static final String LIVE_RANGE = """
+            p.is_deleted = 0
+            AND p.created_date >= :fromDate AND p.created_date < :toDate
+            """;
+
+    private static final String LIVE_USER_SCOPE = """
+            AND (p.sales_person_id IN (:userIds)
+                 OR EXISTS (SELECT 1 FROM project_milestone_assignment a
+                            WHERE a.project_id = p.id AND a.assigned_user_id IN (:userIds) AND a.is_deleted = 0))
+            """;
+
+    @Param({"100000", "1000000"})
+    public int projects;
+
+    private MySQLContainer<?> mysql;
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+    private DashboardRollupRepository rollupRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mysql = new MySQLContainer<>("mysql:8.0");
+        mysql.start();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                mysql.getJdbcUrl() + "?rewriteBatchedStatements=true", mysql.getUsername(), mysql.getPassword()));
+        namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+
+        rollupRepository = new DashboardRollupRepository();
+        ReflectionTestUtils.setField(rollupRepository, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(rollupRepository, "namedJdbcTemplate", namedJdbcTemplate);
+
+        createSchema(jdbcTemplate);
+        seed(jdbcTemplate);
+
+        long rollupTotal = rollupRepository.sumBuckets(DashboardRollupDimension.ALL, 0L, FROM, TO).stream()
+                .mapToLong(StatusCount::count)
+                .sum();
+        Long liveTotal = namedJdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT p.id) FROM project p WHERE " + LIVE_RANGE, liveParams(List.of()), Long.class);
+        System.out.printf("%d projects: one-year admin total %d from the rollup, %d live%n",
+                projects, rollupTotal, liveTotal);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        mysql.stop();
+    }
+
+    @Benchmark
+    public List<StatusCount> adminRollup() {
+        return rollupRepository.sumBuckets(DashboardRollupDimension.ALL, 0L, FROM, TO);
+    }
+
+    @Benchmark
+    public void adminLive(Blackhole blackhole) {
+        live(blackhole, "", List.of());
+    }
+
+    @Benchmark
+    public List<StatusCount> userRollup() {
+        return rollupRepository.sumBuckets(DashboardRollupDimension.USER, USER_ID, FROM, TO);
+    }
+
+    @Benchmark
+    public void userLive(Blackhole blackhole) {
+        live(blackhole, LIVE_USER_SCOPE, List.of(USER_ID));
+    }
+
+    @Benchmark
+    public List<StatusCount> teamRollup() {
+        return rollupRepository.countDistinctForUsers(TEAM, FROM, TO);
+    }
+
+    @Benchmark
+    public void teamLive(Blackhole blackhole) {
+        live(blackhole, LIVE_USER_SCOPE, TEAM);
+    }
+
+    private void live(Blackhole blackhole, String scope, List<Long> userIds) {
+        Map<String, Object> params = liveParams(userIds);
+        blackhole.consume(namedJdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT p.id) FROM project p WHERE " + LIVE_RANGE + scope, params, Long.class));
+        blackhole.consume(namedJdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT p.id) FROM project p JOIN project_statuses s ON s.id = p.status_id WHERE "
+                        + LIVE_RANGE + " AND p.is_cancelled = 0 AND UPPER(s.name) IN (" + RUNNING_STATUSES + ") "
+                        + scope, params, Long.class));
+        blackhole.consume(namedJdbcTemplate.queryForList(
+                "SELECT UPPER(s.name) AS status, COUNT(DISTINCT p.id) AS project_count "
+                        + "FROM project p JOIN project_statuses s ON s.id = p.status_id WHERE "
+                        + LIVE_RANGE + scope + " GROUP BY UPPER(s.name)", params));
+    }
+
+    private static Map<String, Object> liveParams(List<Long> userIds) {
+        return Map.of(
+                "fromDate", java.sql.Date.valueOf(FROM),
+                "toDate", java.sql.Date.valueOf(TO.plusDays(1)),
+                "userIds", userIds.isEmpty() ? List.of(0L) : userIds);
+    }
+
+    private static void createSchema(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("CREATE TABLE seq (n INT NOT NULL PRIMARY KEY)");
+        jdbcTemplate.execute("""
+                CREATE TABLE project_statuses (
+                    id BIGINT NOT NULL PRIMARY KEY,
+                    name VARCHAR(50) NOT NULL,
+                    UNIQUE KEY idx_name (name)
+                )
+                """);
+        jdbcTemplate.execute("""
+                CREATE TABLE project (
+                    id BIGINT NOT NULL PRIMARY KEY,
+                    status_id BIGINT NOT NULL,
+                    created_date DATETIME(6),
+                    sales_person_id BIGINT,
+                    is_cancelled BIT NOT NULL,
+                    is_deleted BIT NOT NULL,
+                    KEY idx_sales_person_id (sales_person_id),
+                    KEY idx_status_id (status_id)
+                )
+                """);
+        jdbcTemplate.execute("""
+                CREATE TABLE project_milestone_assignment (
+                    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+                    project_id BIGINT NOT NULL,
+                    assigned_user_id BIGINT,
+                    is_deleted BIT NOT NULL,
+                    KEY idx_project_id (project_id),
+                    KEY idx_assigned_user_id (assigned_user_id)
+                )
+                """);
+        jdbcTemplate.execute("""
+                CREATE TABLE user_department_map (
+                    user_id BIGINT NOT NULL,
+                    dept_id BIGINT NOT NULL,
+                    PRIMARY KEY (user_id, dept_id)
+                )
+                """);
+        jdbcTemplate.execute("""
+                CREATE TABLE dashboard_rollup_membership (
+                    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+                    project_id BIGINT NOT NULL,
+                    dimension_type VARCHAR(16) NOT NULL,
+                    dimension_id BIGINT NOT NULL,
+                    bucket_date DATE NOT NULL,
+                    status_id BIGINT NOT NULL,
+                    cancelled BIT NOT NULL,
+                    UNIQUE KEY uk_rollup_membership (project_id, dimension_type, dimension_id),
+                    KEY idx_rollup_membership_dimension
+                        (dimension_type, dimension_id, bucket_date, status_id, cancelled, project_id)
+                )
+                """);
+        jdbcTemplate.execute("""
+                CREATE TABLE dashboard_rollup_bucket (
+                    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+                    dimension_type VARCHAR(16) NOT NULL,
+                    dimension_id BIGINT NOT NULL,
+                    bucket_date DATE NOT NULL,
+                    status_id BIGINT NOT NULL,
+                    cancelled BIT NOT NULL,
+                    project_count BIGINT NOT NULL,
+                    UNIQUE KEY uk_rollup_bucket (dimension_type, dimension_id, bucket_date, status_id, cancelled)
+                )
+                """);
+    }
+
+    /**
+     * Generates the rows in the database from a 0..999 sequence; ids are
+     * scattered over users, statuses and dates with multiplicative hashes.
+     */
+    private void seed(JdbcTemplate jdbcTemplate) {
+        List<Object[]> sequence = new ArrayList<>(1000);
+        for (int n = 0; n < 1000; n++) {
+            sequence.add(new Object[]{n});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO seq (n) VALUES (?)", sequence);
+        for (int i = 0; i < STATUSES.length; i++) {
+            jdbcTemplate.update("INSERT INTO project_statuses (id, name) VALUES (?, ?)", i + 1, STATUSES[i]);
+        }
+        jdbcTemplate.update("""
+                INSERT INTO user_department_map (user_id, dept_id)
+                SELECT n + 1, 1 + (n + 1) % ? FROM seq WHERE n < ?
+                """, DEPARTMENTS, USERS);
+
+        jdbcTemplate.update("""
+                INSERT INTO project (id, status_id, created_date, sales_person_id, is_cancelled, is_deleted)
+                SELECT id,
+                       1 + (id * 7919) % ?,
+                       TIMESTAMP('2022-01-01') + INTERVAL ((id * 104729) % 1461) DAY,
+                       1 + (id * 31) % ?,
+                       id % 23 = 0,
+                       id % 97 = 0
+                FROM (SELECT a.n * 1000 + b.n + 1 AS id FROM seq a CROSS JOIN seq b) ids
+                WHERE id <= ?
+                """, STATUSES.length, USERS, projects);
+        jdbcTemplate.update("""
+                INSERT INTO project_milestone_assignment (project_id, assigned_user_id, is_deleted)
+                SELECT p.id, 1 + (p.id * 17 + m.n * 131) % ?, (p.id + m.n) % 41 = 0
+                FROM project p JOIN seq m ON m.n < ?
+                """, USERS, ASSIGNMENTS_PER_PROJECT);
+
+        // Membership as DashboardRollupService.computeMemberships derives it
+        String membership = """
+                INSERT IGNORE INTO dashboard_rollup_membership
+                    (project_id, dimension_type, dimension_id, bucket_date, status_id, cancelled)
+                """;
+        jdbcTemplate.update(membership + """
+                SELECT id, 'ALL', 0, DATE(created_date), status_id, is_cancelled
+                FROM project WHERE is_deleted = 0
+                """);
+        jdbcTemplate.update(membership + """
+                SELECT id, 'USER', sales_person_id, DATE(created_date), status_id, is_cancelled
+                FROM project WHERE is_deleted = 0 AND sales_person_id IS NOT NULL
+                """);
+        jdbcTemplate.update(membership + """
+                SELECT DISTINCT p.id, 'USER', a.assigned_user_id, DATE(p.created_date), p.status_id, p.is_cancelled
+                FROM project p
+                JOIN project_milestone_assignment a ON a.project_id = p.id AND a.is_deleted = 0
+                WHERE p.is_deleted = 0 AND a.assigned_user_id IS NOT NULL
+                """);
+        jdbcTemplate.update(membership + """
+                SELECT DISTINCT m.project_id, 'DEPARTMENT', d.dept_id, m.bucket_date, m.status_id, m.cancelled
+                FROM dashboard_rollup_membership m
+                JOIN user_department_map d ON d.user_id = m.dimension_id
+                WHERE m.dimension_type = 'USER'
+                """);
+
+        rollupRepository.rebuildBucketsFromMemberships();
+        jdbcTemplate.execute("ANALYZE TABLE project, project_milestone_assignment, "
+                + "dashboard_rollup_membership, dashboard_rollup_bucket");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DashboardRollupBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,178 @@
+package com.doc.dashboard;
+
+import com.doc.em.DashboardRollupDimension;
+import com.doc.repository.DashboardRollupRepository;
+import com.doc.repository.DashboardRollupRepository.BucketKey;
+import com.doc.repository.DashboardRollupRepository.MembershipRow;
+import com.doc.repository.DashboardRollupRepository.ProjectFacts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.doc.em.DashboardRollupDimension.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DashboardRollupServiceTest {
+
+    private static final long PROJECT_ID = 1L;
+    private static final Instant CREATED = Instant.parse("2026-03-01T10:00:00Z");
+    private static final LocalDate BUCKET_DATE = LocalDate.of(2026, 3, 1);
+    private static final long OPEN = 3L;
+    private static final long IN_PROGRESS = 4L;
+    private static final long SALES = 10L;
+    private static final long ASSIGNEE = 11L;
+    private static final long NEW_ASSIGNEE = 12L;
+    private static final long DEPARTMENT_ID = 100L;
+
+    private final DashboardRollupRepository repository = mock(DashboardRollupRepository.class);
+    private DashboardRollupService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new DashboardRollupService(repository, mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "batchSize", 200);
+        ReflectionTestUtils.setField(service, "seedBatchSize", 1000);
+        when(repository.claimPending(anyInt())).thenReturn(List.of(PROJECT_ID)).thenReturn(List.of());
+        when(repository.findDepartmentsByUser(any())).thenReturn(Map.of(
+                SALES, Set.of(DEPARTMENT_ID), ASSIGNEE, Set.of(DEPARTMENT_ID), NEW_ASSIGNEE, Set.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void newProjectCountsOncePerBucketItBelongsTo() {
+        when(repository.lockMemberships(List.of(PROJECT_ID))).thenReturn(List.of());
+        stubProject(OPEN, false, ASSIGNEE);
+
+        service.poll();
+
+        // Sales person and assignee share a department, which counts the project once
+        assertThat(appliedDeltas()).containsExactlyInAnyOrderEntriesOf(Map.of(
+                bucket(ALL, 0L, OPEN), 1L,
+                bucket(USER, SALES, OPEN), 1L,
+                bucket(USER, ASSIGNEE, OPEN), 1L,
+                bucket(DEPARTMENT, DEPARTMENT_ID, OPEN), 1L));
+        verify(repository).deletePending(List.of(PROJECT_ID));
+    }
+
+    @Test
+    void statusChangeMovesTheProjectBetweenBuckets() {
+        when(repository.lockMemberships(List.of(PROJECT_ID))).thenReturn(memberships(OPEN, ASSIGNEE));
+        stubProject(IN_PROGRESS, false, ASSIGNEE);
+
+        service.poll();
+
+        assertThat(appliedDeltas()).containsExactlyInAnyOrderEntriesOf(Map.of(
+                bucket(ALL, 0L, OPEN), -1L,
+                bucket(ALL, 0L, IN_PROGRESS), 1L,
+                bucket(USER, SALES, OPEN), -1L,
+                bucket(USER, SALES, IN_PROGRESS), 1L,
+                bucket(USER, ASSIGNEE, OPEN), -1L,
+                bucket(USER, ASSIGNEE, IN_PROGRESS), 1L,
+                bucket(DEPARTMENT, DEPARTMENT_ID, OPEN), -1L,
+                bucket(DEPARTMENT, DEPARTMENT_ID, IN_PROGRESS), 1L));
+        verify(repository).deleteMemberships(List.of());
+    }
+
+    @Test
+    void reassignmentMovesTheProjectFromTheOldAssigneeToTheNewOne() {
+        when(repository.lockMemberships(List.of(PROJECT_ID))).thenReturn(memberships(OPEN, ASSIGNEE));
+        stubProject(OPEN, false, NEW_ASSIGNEE);
+
+        service.poll();
+
+        // The sales person keeps the department membership, so only the user buckets move
+        assertThat(appliedDeltas()).containsExactlyInAnyOrderEntriesOf(Map.of(
+                bucket(USER, ASSIGNEE, OPEN), -1L,
+                bucket(USER, NEW_ASSIGNEE, OPEN), 1L));
+        verify(repository).deleteMemberships(List.of(membership(USER, ASSIGNEE, OPEN)));
+    }
+
+    @Test
+    void deletedProjectLeavesEveryBucket() {
+        List<MembershipRow> existing = memberships(OPEN, ASSIGNEE);
+        when(repository.lockMemberships(List.of(PROJECT_ID))).thenReturn(existing);
+        stubProject(OPEN, true, ASSIGNEE);
+
+        service.poll();
+
+        assertThat(appliedDeltas()).containsExactlyInAnyOrderEntriesOf(Map.of(
+                bucket(ALL, 0L, OPEN), -1L,
+                bucket(USER, SALES, OPEN), -1L,
+                bucket(USER, ASSIGNEE, OPEN), -1L,
+                bucket(DEPARTMENT, DEPARTMENT_ID, OPEN), -1L));
+        ArgumentCaptor<List<MembershipRow>> removed = listCaptor();
+        verify(repository).deleteMemberships(removed.capture());
+        assertThat(removed.getValue()).containsExactlyInAnyOrderElementsOf(existing);
+    }
+
+    @Test
+    void reconcileRequeuesEveryProjectAndRebuildsOnlyDriftedBuckets() {
+        when(repository.findProjectIdsAfter(0L, 1000)).thenReturn(List.of(PROJECT_ID));
+        when(repository.findOrphanedMembershipProjectIds()).thenReturn(List.of(2L));
+        when(repository.lockMemberships(any())).thenReturn(memberships(OPEN, ASSIGNEE));
+        stubProject(OPEN, false, ASSIGNEE);
+        when(repository.countBucketDrift()).thenReturn(0L, 2L);
+
+        service.reconcile();
+
+        verify(repository).markPending(List.of(PROJECT_ID));
+        verify(repository).markPending(List.of(2L));
+        verify(repository).addToBuckets(Map.of());
+        verify(repository, never()).rebuildBucketsFromMemberships();
+        assertThat(service.isReady()).isTrue();
+
+        service.reconcile();
+
+        verify(repository).rebuildBucketsFromMemberships();
+    }
+
+    private void stubProject(long statusId, boolean deleted, long assignee) {
+        when(repository.findProjectFacts(List.of(PROJECT_ID))).thenReturn(List.of(
+                new ProjectFacts(PROJECT_ID, CREATED, statusId, false, deleted, SALES)));
+        when(repository.findAssigneesByProject(List.of(PROJECT_ID))).thenReturn(Map.of(PROJECT_ID, Set.of(assignee)));
+    }
+
+    private Map<BucketKey, Long> appliedDeltas() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<BucketKey, Long>> deltas = ArgumentCaptor.forClass(Map.class);
+        verify(repository).addToBuckets(deltas.capture());
+        return deltas.getValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<MembershipRow>> listCaptor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+
+    private static List<MembershipRow> memberships(long statusId, long assignee) {
+        return List.of(
+                membership(ALL, 0L, statusId),
+                membership(USER, SALES, statusId),
+                membership(USER, assignee, statusId),
+                membership(DEPARTMENT, DEPARTMENT_ID, statusId));
+    }
+
+    private static MembershipRow membership(DashboardRollupDimension dimension, long dimensionId, long statusId) {
+        return new MembershipRow(PROJECT_ID, dimension, dimensionId, BUCKET_DATE, statusId, false);
+    }
+
+    private static BucketKey bucket(DashboardRollupDimension dimension, long dimensionId, long statusId) {
+        return new BucketKey(dimension, dimensionId, BUCKET_DATE, statusId, false);
+    }
+}
@@ -0,0 +1,149 @@
+package com.doc.impl;
+
+import com.doc.dto.document.DocumentExpiryResponseDto;
+import com.doc.repository.DocumentExpiryExtractionRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Throughput of document-expiry checks over generated scan samples: PNG
+ * certificates rendered at 250 dpi with the expiry line in different
+ * wordings, date formats and positions.
+ *
+ * {@code ocr} and {@code ocrParallel} run OCR and extraction for every
+ * sample (the memory cache is sized 0), on one thread and on four threads
+ * sharing the engine pool. {@code cached} is a repeated upload of known
+ * content answered from {@link DocumentExpiryResultCache}.
+ *
+ * Needs Tesseract and its {@code eng} data ({@code TESSDATA_PREFIX}). Run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.doc.impl.DocumentExpiryBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class DocumentExpiryBenchmark {
+
+    private static final String[] EXPIRY_LINES = {
+            "Valid till: 31/03/2027",
+            "Date of Expiry 15-Aug-2026",
+            "This licence expires on 1st January 2028",
+            "Validity: 30.06.2027",
+            "Certificate valid till March 2029"
+    };
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private OcrService ocrService;
+    private DocumentExpiryService uncachedService;
+    private DocumentExpiryService cachedService;
+    private List<byte[]> samples;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        ocrService = new OcrService(0);
+        ReflectionTestUtils.setField(ocrService, "tessDataPath", "");
+        ReflectionTestUtils.setField(ocrService, "language", "eng");
+        ReflectionTestUtils.setField(ocrService, "acquireTimeoutSeconds", 120L);
+
+        DocumentTextExtractorService textExtractor = new DocumentTextExtractorService(ocrService);
+        ExpiryDateExtractor dateExtractor = new ExpiryDateExtractor();
+        DocumentExpiryExtractionRepository repository = mock(DocumentExpiryExtractionRepository.class);
+
+        uncachedService = new DocumentExpiryService(textExtractor, dateExtractor,
+                new DocumentExpiryResultCache(repository, 0, false, "eng"));
+        cachedService = new DocumentExpiryService(textExtractor, dateExtractor,
+                new DocumentExpiryResultCache(repository, 1000, false, "eng"));
+
+        samples = new ArrayList<>();
+        for (int i = 0; i < EXPIRY_LINES.length * 4; i++) {
+            samples.add(render(i));
+        }
+        for (int i = 0; i < samples.size(); i++) {
+            cachedService.checkExpiry("sample-" + i + ".png", "image/png", samples.get(i));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ocrService.shutdown();
+    }
+
+    @Benchmark
+    public DocumentExpiryResponseDto ocr() throws Exception {
+        return check(uncachedService);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public DocumentExpiryResponseDto ocrParallel() throws Exception {
+        return check(uncachedService);
+    }
+
+    @Benchmark
+    public DocumentExpiryResponseDto cached() throws Exception {
+        return check(cachedService);
+    }
+
+    private DocumentExpiryResponseDto check(DocumentExpiryService service) throws Exception {
+        int i = Math.floorMod(next.getAndIncrement(), samples.size());
+        return service.checkExpiry("sample-" + i + ".png", "image/png", samples.get(i));
+    }
+
+    /**
+     * An A5 page at 250 dpi: a heading, some filler lines and the expiry line
+     * at a position that depends on the sample number.
+     */
+    private static byte[] render(int sample) throws IOException {
+        BufferedImage image = new BufferedImage(1460, 2070, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, image.getWidth(), image.getHeight());
+            g.setColor(Color.BLACK);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+            g.setFont(new Font(Font.SERIF, Font.BOLD, 56));
+            g.drawString("CERTIFICATE OF REGISTRATION", 120, 200);
+
+            g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 38));
+            int expiryRow = 3 + sample % 12;
+            for (int row = 0; row < 16; row++) {
+                String line = row == expiryRow
+                        ? EXPIRY_LINES[sample % EXPIRY_LINES.length]
+                        : "Registration No. DT/" + (1000 + sample * 16 + row) + "/2024 issued on 12/04/2024";
+                g.drawString(line, 120, 360 + row * 100);
+            }
+        } finally {
+            g.dispose();
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DocumentExpiryBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
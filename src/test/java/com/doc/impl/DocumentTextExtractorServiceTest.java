@@ -0,0 +1,143 @@
+package com.doc.impl;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * OCR of scanned PDFs with a stubbed engine. Every page of the generated
+ * PDF is blank and 10 points wider than the previous one, so the stub tells
+ * pages apart by the width of the rendered image.
+ */
+class DocumentTextExtractorServiceTest {
+
+    private static final int SCAN_DPI = 250;
+
+    private final OcrService ocrService = mock(OcrService.class);
+    private final DocumentTextExtractorService extractor = new DocumentTextExtractorService(ocrService);
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+    private final List<Integer> recognisedPages = new CopyOnWriteArrayList<>();
+
+    private ExecutorService pageExecutor;
+
+    @AfterEach
+    void tearDown() {
+        if (pageExecutor != null) {
+            pageExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    void scannedPagesAreRecognisedInParallelAndJoinedInPageOrder() throws Exception {
+        stubEngines(3, 3);
+
+        String text = extractor.extractText("scan.pdf", "application/pdf", scannedPdf(6));
+
+        assertThat(text).isEqualTo(pagesText(6));
+        assertThat(recognisedPages).containsExactlyInAnyOrder(1, 2, 3, 4, 5, 6);
+        assertThat(maxRunning.get()).isBetween(2, 3);
+    }
+
+    @Test
+    void pagesInFlightAreBoundedByTheEnginePool() throws Exception {
+        // More worker threads than engines: only the in-flight cap keeps
+        // further pages from being rendered and submitted.
+        stubEngines(2, 8);
+
+        String text = extractor.extractText("scan.pdf", "application/pdf", scannedPdf(8));
+
+        assertThat(text).isEqualTo(pagesText(8));
+        assertThat(maxRunning.get()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void recognitionStopsOnceTheStopConditionHolds() throws Exception {
+        stubEngines(1, 1);
+
+        String text = extractor.extractText("scan.pdf", "application/pdf", scannedPdf(5),
+                pagesSoFar -> pagesSoFar.contains("page 2"));
+
+        assertThat(text).isEqualTo(pagesText(2));
+        assertThat(recognisedPages).containsExactly(1, 2);
+    }
+
+    @Test
+    void failedPageFailsTheExtraction() throws Exception {
+        stubEngines(2, 2);
+        doThrow(new RuntimeException("OCR failed: engine crashed"))
+                .when(ocrService).extractTextFromBufferedImage(any(BufferedImage.class), anyInt());
+
+        assertThatThrownBy(() -> extractor.extractText("scan.pdf", "application/pdf", scannedPdf(3)))
+                .hasMessageContaining("engine crashed");
+    }
+
+    /**
+     * Stubs {@code engines} engines on a page executor of {@code threads}
+     * threads. Earlier pages take longer, so pages finish out of order.
+     */
+    private void stubEngines(int engines, int threads) {
+        pageExecutor = Executors.newFixedThreadPool(threads);
+        when(ocrService.getPoolSize()).thenReturn(engines);
+        when(ocrService.getPageExecutor()).thenReturn(pageExecutor);
+        when(ocrService.extractTextFromBufferedImage(any(BufferedImage.class), anyInt())).thenAnswer(invocation -> {
+            BufferedImage image = invocation.getArgument(0);
+            int page = pageOf(image);
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                TimeUnit.MILLISECONDS.sleep(20L * (10 - page));
+                recognisedPages.add(page);
+                return "page " + page;
+            } finally {
+                running.decrementAndGet();
+            }
+        });
+    }
+
+    private static byte[] scannedPdf(int pages) throws Exception {
+        try (PDDocument document = new PDDocument();
+             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            for (int page = 1; page <= pages; page++) {
+                document.addPage(new PDPage(new PDRectangle(widthOf(page), 100)));
+            }
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    private static float widthOf(int page) {
+        return 100 + 10 * page;
+    }
+
+    private static int pageOf(BufferedImage image) {
+        float widthInPoints = image.getWidth() * 72f / SCAN_DPI;
+        return Math.round((widthInPoints - 100) / 10);
+    }
+
+    private static String pagesText(int pages) {
+        return IntStream.rangeClosed(1, pages)
+                .mapToObj(page -> "page " + page + "\n")
+                .collect(Collectors.joining());
+    }
+}
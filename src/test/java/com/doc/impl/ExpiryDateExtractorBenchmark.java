@@ -0,0 +1,310 @@
+package com.doc.impl;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoField;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cost of expiry-date extraction over a generated corpus of OCR text,
+ * with {@link ExpiryDateExtractor} ({@code current}) and with
+ * {@link RegexExpiryDateExtractor}, the formatter trial-and-error parser it
+ * replaced ({@code previous}). Each operation extracts from every document
+ * of the corpus.
+ *
+ * {@code certificate} documents are one page: a heading, registration and
+ * issue lines with dates, and an expiry line in one of the supported
+ * wordings and formats, with the usual OCR noise (stray characters, broken
+ * spacing, {@code 0} read for {@code O}). {@code multiPage} documents are six
+ * such pages joined the way the scanned-PDF OCR joins them; a third of them
+ * has no expiry keyword at all, so the latest-date fallback reads every
+ * date. The setup prints how many documents the two parsers disagree on;
+ * on this corpus these are dates in August, whose {@code st} the previous
+ * parser strips as an ordinal suffix.
+ *
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.doc.impl.ExpiryDateExtractorBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpiryDateExtractorBenchmark {
+
+    private static final int DOCUMENTS = 200;
+
+    private static final String[] EXPIRY_LINES = {
+            "Valid till: %s",
+            "Date of Expiry %s",
+            "This licence expires on %s",
+            "Validity: %s",
+            "Certificate valid till %s",
+            "Valid up to- %s",
+            "EXPIRY DATE :%s"
+    };
+
+    private static final DateTimeFormatter[] DATE_FORMATS = {
+            DateTimeFormatter.ofPattern("dd/MM/yyyy"),
+            DateTimeFormatter.ofPattern("d-M-yyyy"),
+            DateTimeFormatter.ofPattern("dd.MM.yyyy"),
+            DateTimeFormatter.ofPattern("yyyy-MM-dd"),
+            DateTimeFormatter.ofPattern("d MMMM yyyy", Locale.ENGLISH),
+            DateTimeFormatter.ofPattern("dd MMM, yyyy", Locale.ENGLISH),
+            DateTimeFormatter.ofPattern("MMMM d yyyy", Locale.ENGLISH),
+            DateTimeFormatter.ofPattern("dd/MM/yy")
+    };
+
+    @Param({"certificate", "multiPage"})
+    public String corpus;
+
+    private final ExpiryDateExtractor current = new ExpiryDateExtractor();
+    private final RegexExpiryDateExtractor previous = new RegexExpiryDateExtractor();
+    private List<String> documents;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        documents = new ArrayList<>(DOCUMENTS);
+        for (int i = 0; i < DOCUMENTS; i++) {
+            documents.add("multiPage".equals(corpus) ? multiPage(random, i % 3 != 0) : page(random, 1, true));
+        }
+
+        long disagreements = documents.stream()
+                .filter(text -> !current.extractExpiryDate(text).equals(previous.extractExpiryDate(text)))
+                .count();
+        System.out.printf("%s: %d of %d documents extracted differently%n", corpus, disagreements, DOCUMENTS);
+    }
+
+    @Benchmark
+    public void current(Blackhole blackhole) {
+        for (String text : documents) {
+            blackhole.consume(current.extractExpiryDate(text));
+        }
+    }
+
+    @Benchmark
+    public void previous(Blackhole blackhole) {
+        for (String text : documents) {
+            blackhole.consume(previous.extractExpiryDate(text));
+        }
+    }
+
+    private static String multiPage(Random random, boolean withExpiry) {
+        int expiryPage = withExpiry ? 1 + random.nextInt(6) : 0;
+        StringBuilder text = new StringBuilder();
+        for (int page = 1; page <= 6; page++) {
+            text.append(page(random, page, page == expiryPage)).append("\n");
+        }
+        return text.toString();
+    }
+
+    private static String page(Random random, int pageNo, boolean withExpiry) {
+        LocalDate issued = LocalDate.of(2018, 1, 1).plusDays(random.nextInt(2500));
+        LocalDate expiry = issued.plusYears(1 + random.nextInt(5));
+        int expiryRow = withExpiry ? 2 + random.nextInt(10) : -1;
+
+        StringBuilder text = new StringBuilder(pageNo == 1
+                ? "GOVERNMENT OF NCT OF DELHI\nCERTIFICATE OF REGISTRATI0N\n\n"
+                : "SCHEDULE " + (pageNo - 1) + "\n\n");
+        for (int row = 0; row < 14; row++) {
+            if (row == expiryRow) {
+                text.append(String.format(EXPIRY_LINES[random.nextInt(EXPIRY_LINES.length)], format(random, expiry)));
+            } else if (row % 4 == 1) {
+                text.append("Issued on ").append(format(random, issued.plusDays(row)))
+                        .append(" at New Delhi");
+            } else {
+                text.append("Registration No. DL/").append(1000 + random.nextInt(9000))
+                        .append("/").append(issued.getYear())
+                        .append(random.nextBoolean() ? " ,  authorised | premises" : "  ref.  Form-II   (see rule 5)");
+            }
+            text.append(random.nextInt(5) == 0 ? "\n\n" : "\n");
+        }
+        return text.toString();
+    }
+
+    private static String format(Random random, LocalDate date) {
+        return date.format(DATE_FORMATS[random.nextInt(DATE_FORMATS.length)]);
+    }
+
+    /**
+     * The previous {@link ExpiryDateExtractor}: a regular expression finds
+     * date candidates, each of which is tried against a list of formatters.
+     */
+    static class RegexExpiryDateExtractor {
+
+        private static final Pattern EXPIRY_KEYWORD_PATTERN = Pattern.compile(
+                "(?i)(" +
+                        "expiry date|" +
+                        "date of expiry|" +
+                        "expires on|" +
+                        "expires|" +
+                        "valid upto|" +
+                        "valid up to|" +
+                        "valid till|" +
+                        "valid until|" +
+                        "valid through|" +
+                        "validity|" +
+                        "validity date|" +
+                        "license valid till|" +
+                        "certificate valid till" +
+                        ")"
+        );
+
+        private static final Pattern DATE_PATTERN = Pattern.compile(
+                "\\b\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4}\\b" +
+                        "|\\b\\d{1,2}[.]\\d{1,2}[.]\\d{2,4}\\b" +
+                        "|\\b\\d{4}[/-]\\d{1,2}[/-]\\d{1,2}\\b" +
+                        "|\\b\\d{1,2}\\s*(st|nd|rd|th)?\\s+[A-Za-z]{3,9}\\s*,?\\s*\\d{4}\\b" +
+                        "|\\b[A-Za-z]{3,9}\\s+\\d{1,2}\\s*,?\\s*\\d{4}\\b" +
+                        "|\\b\\d{1,2}[/-]\\d{4}\\b"
+        );
+
+        ExpiryDateExtractor.ExpiryDateMatch extractExpiryDate(String text) {
+
+            if (text == null || text.isBlank()) {
+                return new ExpiryDateExtractor.ExpiryDateMatch(null, null, false);
+            }
+
+            String normalizedText = normalizeText(text);
+            Matcher keywordMatcher = EXPIRY_KEYWORD_PATTERN.matcher(normalizedText);
+
+            while (keywordMatcher.find()) {
+
+                int contextStart = Math.max(0, keywordMatcher.start() - 30);
+                int contextEnd = Math.min(normalizedText.length(), keywordMatcher.end() + 150);
+
+                String textAfterKeyword = normalizedText.substring(keywordMatcher.end(), contextEnd);
+                String matchedContext = normalizedText.substring(contextStart, contextEnd);
+
+                Matcher dateMatcher = DATE_PATTERN.matcher(textAfterKeyword);
+
+                while (dateMatcher.find()) {
+                    LocalDate date = parseDate(dateMatcher.group());
+
+                    if (date != null) {
+                        return new ExpiryDateExtractor.ExpiryDateMatch(date, matchedContext.trim(), true);
+                    }
+                }
+            }
+
+            List<LocalDate> allDates = extractAllDates(normalizedText);
+
+            if (!allDates.isEmpty()) {
+                LocalDate latestDate = allDates.stream()
+                        .max(Comparator.naturalOrder())
+                        .orElse(null);
+
+                return new ExpiryDateExtractor.ExpiryDateMatch(
+                        latestDate,
+                        "Fallback date selected. Please verify manually.",
+                        false
+                );
+            }
+
+            return new ExpiryDateExtractor.ExpiryDateMatch(null, null, false);
+        }
+
+        private String normalizeText(String text) {
+            return text
+                    .replace("\n", " ")
+                    .replace("\r", " ")
+                    .replaceAll("\\s+", " ")
+                    .trim();
+        }
+
+        private List<LocalDate> extractAllDates(String text) {
+            return DATE_PATTERN.matcher(text).results()
+                    .map(matchResult -> parseDate(matchResult.group()))
+                    .filter(Objects::nonNull)
+                    .toList();
+        }
+
+        private LocalDate parseDate(String dateText) {
+
+            if (dateText == null || dateText.isBlank()) {
+                return null;
+            }
+
+            String cleaned = dateText
+                    .replaceAll("(?i)(st|nd|rd|th)", "")
+                    .replace(",", "")
+                    .trim();
+
+            List<DateTimeFormatter> formatters = List.of(
+                    DateTimeFormatter.ofPattern("d/M/uuuu"),
+                    DateTimeFormatter.ofPattern("dd/MM/uuuu"),
+                    DateTimeFormatter.ofPattern("d-M-uuuu"),
+                    DateTimeFormatter.ofPattern("dd-MM-uuuu"),
+                    DateTimeFormatter.ofPattern("d.M.uuuu"),
+                    DateTimeFormatter.ofPattern("dd.MM.uuuu"),
+                    DateTimeFormatter.ofPattern("uuuu-M-d"),
+                    DateTimeFormatter.ofPattern("uuuu-MM-dd"),
+                    twoDigitYearFormatter("d/M/"),
+                    twoDigitYearFormatter("dd/MM/"),
+                    twoDigitYearFormatter("d-M-"),
+                    twoDigitYearFormatter("dd-MM-"),
+                    DateTimeFormatter.ofPattern("d MMM uuuu", Locale.ENGLISH),
+                    DateTimeFormatter.ofPattern("dd MMM uuuu", Locale.ENGLISH),
+                    DateTimeFormatter.ofPattern("d MMMM uuuu", Locale.ENGLISH),
+                    DateTimeFormatter.ofPattern("dd MMMM uuuu", Locale.ENGLISH),
+                    DateTimeFormatter.ofPattern("MMM d uuuu", Locale.ENGLISH),
+                    DateTimeFormatter.ofPattern("MMMM d uuuu", Locale.ENGLISH)
+            );
+
+            for (DateTimeFormatter formatter : formatters) {
+                try {
+                    return LocalDate.parse(cleaned, formatter);
+                } catch (DateTimeParseException ignored) {
+                }
+            }
+
+            return parseMonthYear(cleaned);
+        }
+
+        private DateTimeFormatter twoDigitYearFormatter(String prefixPattern) {
+            return new DateTimeFormatterBuilder()
+                    .appendPattern(prefixPattern)
+                    .appendValueReduced(ChronoField.YEAR, 2, 2, 2000)
+                    .toFormatter(Locale.ENGLISH);
+        }
+
+        private LocalDate parseMonthYear(String value) {
+
+            List<DateTimeFormatter> monthYearFormatters = List.of(
+                    DateTimeFormatter.ofPattern("M/uuuu"),
+                    DateTimeFormatter.ofPattern("MM/uuuu"),
+                    DateTimeFormatter.ofPattern("M-uuuu"),
+                    DateTimeFormatter.ofPattern("MM-uuuu")
+            );
+
+            for (DateTimeFormatter formatter : monthYearFormatters) {
+                try {
+                    return YearMonth.parse(value, formatter).atEndOfMonth();
+                } catch (DateTimeParseException ignored) {
+                }
+            }
+
+            return null;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ExpiryDateExtractorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,37 @@
+package com.doc.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExpiryDateExtractorTest {
+
+    private final ExpiryDateExtractor extractor = new ExpiryDateExtractor();
+
+    @Test
+    void dateAfterAnExpiryKeywordIsAConfidentMatch() {
+        ExpiryDateExtractor.ExpiryDateMatch match = extractor.extractExpiryDate(
+                "Issued on 01/04/2024\n\nValid till: 31/03/2027\nAuthorised signatory");
+
+        assertThat(match.expiryDate()).isEqualTo(LocalDate.of(2027, 3, 31));
+        assertThat(match.confident()).isTrue();
+    }
+
+    @Test
+    void latestDateWithoutAKeywordIsNotConfident() {
+        ExpiryDateExtractor.ExpiryDateMatch match = extractor.extractExpiryDate(
+                "Registered 01/04/2024, renewed 15/08/2026");
+
+        assertThat(match.expiryDate()).isEqualTo(LocalDate.of(2026, 8, 15));
+        assertThat(match.confident()).isFalse();
+    }
+
+    @Test
+    void textOfTheFirstPagesStopsOcrOnlyOnceAnAnchoredDateIsFound() {
+        assertThat(extractor.hasConfidentMatch("Certificate of registration\nIssued on 01/04/2024\n")).isFalse();
+        assertThat(extractor.hasConfidentMatch("Issued on 01/04/2024\nDate of Expiry 15 August 2026\n")).isTrue();
+        assertThat(extractor.hasConfidentMatch("")).isFalse();
+    }
+}
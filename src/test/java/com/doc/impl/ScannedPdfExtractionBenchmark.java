@@ -0,0 +1,164 @@
+package com.doc.impl;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of text extraction from multi-page scanned PDFs (A4 page
+ * images at 250 dpi, no text layer) through
+ * {@link DocumentTextExtractorService}, with 1 OCR engine (one page at a
+ * time, as before the parallel page pipeline) and with 4.
+ *
+ * {@code allPages} reads every page. {@code earlyStop} passes
+ * {@link ExpiryDateExtractor#hasConfidentMatch} as the stop condition, the
+ * way {@link DocumentExpiryService} does; the expiry line is on page 2.
+ *
+ * Peak heap is printed after every iteration (the sum of the heap pools'
+ * peaks, reset before the iteration); {@link #main} also adds the
+ * {@code gc} profiler for allocation rate and GC counts. The fork runs with
+ * {@code -Xmx1g}.
+ *
+ * Needs Tesseract and its {@code eng} data ({@code TESSDATA_PREFIX}). Run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.doc.impl.ScannedPdfExtractionBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MINUTES)
+@Warmup(iterations = 1, time = 10)
+@Measurement(iterations = 5, time = 20)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class ScannedPdfExtractionBenchmark {
+
+    private static final int SCAN_DPI = 250;
+    private static final int EXPIRY_PAGE = 2;
+
+    @Param({"4", "12"})
+    public int pages;
+
+    @Param({"1", "4"})
+    public int engines;
+
+    private OcrService ocrService;
+    private DocumentTextExtractorService extractor;
+    private ExpiryDateExtractor dateExtractor;
+    private byte[] scannedPdf;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ocrService = new OcrService(engines);
+        ReflectionTestUtils.setField(ocrService, "tessDataPath", "");
+        ReflectionTestUtils.setField(ocrService, "language", "eng");
+        ReflectionTestUtils.setField(ocrService, "acquireTimeoutSeconds", 120L);
+
+        extractor = new DocumentTextExtractorService(ocrService);
+        dateExtractor = new ExpiryDateExtractor();
+        scannedPdf = scannedPdf(pages);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ocrService.shutdown();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetPeakHeap() {
+        heapPools().forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    @TearDown(Level.Iteration)
+    public void printPeakHeap() {
+        long peak = heapPools().stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        System.out.printf("peak heap: %d MB%n", peak / (1024 * 1024));
+    }
+
+    @Benchmark
+    public String allPages() throws Exception {
+        return extractor.extractText("scan.pdf", "application/pdf", scannedPdf);
+    }
+
+    @Benchmark
+    public String earlyStop() throws Exception {
+        return extractor.extractText("scan.pdf", "application/pdf", scannedPdf, dateExtractor::hasConfidentMatch);
+    }
+
+    private static List<MemoryPoolMXBean> heapPools() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+    }
+
+    private static byte[] scannedPdf(int pageCount) throws IOException {
+        try (PDDocument document = new PDDocument();
+             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            for (int page = 1; page <= pageCount; page++) {
+                PDPage pdfPage = new PDPage(PDRectangle.A4);
+                document.addPage(pdfPage);
+                PDImageXObject scan = LosslessFactory.createFromImage(document, render(page));
+                try (PDPageContentStream content = new PDPageContentStream(document, pdfPage)) {
+                    content.drawImage(scan, 0, 0, PDRectangle.A4.getWidth(), PDRectangle.A4.getHeight());
+                }
+            }
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * An A4 page at 250 dpi: a heading and filler lines with issue dates;
+     * page {@value #EXPIRY_PAGE} also carries the expiry line.
+     */
+    private static BufferedImage render(int page) {
+        int width = Math.round(PDRectangle.A4.getWidth() / 72 * SCAN_DPI);
+        int height = Math.round(PDRectangle.A4.getHeight() / 72 * SCAN_DPI);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.setColor(Color.BLACK);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+            g.setFont(new Font(Font.SERIF, Font.BOLD, 56));
+            g.drawString(page == 1 ? "CERTIFICATE OF REGISTRATION" : "SCHEDULE " + (page - 1), 160, 260);
+
+            g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 38));
+            for (int row = 0; row < 22; row++) {
+                String line = page == EXPIRY_PAGE && row == 6
+                        ? "Valid till: 31/03/2027"
+                        : "Registration No. DT/" + (1000 + page * 22 + row) + "/2024 issued on 12/04/2024";
+                g.drawString(line, 160, 420 + row * 110);
+            }
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ScannedPdfExtractionBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
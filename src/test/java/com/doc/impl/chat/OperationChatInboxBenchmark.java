@@ -0,0 +1,272 @@
+package com.doc.impl.chat;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.MySQLContainer;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of one inbox page (30 conversations with their unread counts) on
+ * a MySQL seeded with 50 users holding 100 and 1000 two-party conversations
+ * each, 20 messages per conversation, about half of them unread.
+ *
+ * {@code inbox} runs the SQL of {@code OperationChatParticipantRepository.findInbox}
+ * and its count query; the unread counts come with the participant rows.
+ * {@code inboxNotBackfilled} is the same page for a user whose counters are
+ * still null, counted with the one grouped
+ * {@code countUnreadMessagesByConversation} query. {@code previousInbox}
+ * pages the conversations and then, per conversation, looks up the
+ * participant and counts the unread messages, as the conversation mapping
+ * did before the counters. The counters are filled by the repository's
+ * backfill statement, so the three agree.
+ *
+ * Needs Docker. Run with {@code mvn test-compile exec:java
+ * -Dexec.classpathScope=test -Dexec.mainClass=com.doc.impl.chat.OperationChatInboxBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OperationChatInboxBenchmark {
+
+    private static final int USERS = 50;
+    private static final int MESSAGES_PER_CONVERSATION = 20;
+    private static final long USER_ID = 7L;
+    private static final long NOT_BACKFILLED_USER_ID = 8L;
+    private static final int PAGE_SIZE = 30;
+
+    private static final String INBOX_PAGE = """
+            SELECT p.id, p.unread_count, p.last_read_at, c.id AS conversation_id, c.title,
+                   c.last_message, c.last_message_at
+            FROM operation_chat_participants p
+            JOIN operation_chat_conversations c ON c.id = p.conversation_id
+            WHERE p.user_id = ? AND p.active = 1 AND c.is_deleted = 0
+            ORDER BY c.last_message_at DESC, c.id DESC
+            LIMIT ? OFFSET ?
+            """;
+
+    private static final String INBOX_COUNT = """
+            SELECT COUNT(p.id)
+            FROM operation_chat_participants p
+            JOIN operation_chat_conversations c ON c.id = p.conversation_id
+            WHERE p.user_id = ? AND p.active = 1 AND c.is_deleted = 0
+            """;
+
+    private static final String UNREAD_BY_CONVERSATION = """
+            SELECT m.conversation_id, COUNT(m.id) AS unread_count
+            FROM operation_chat_messages m
+            JOIN operation_chat_participants p ON p.conversation_id = m.conversation_id
+            WHERE p.user_id = :userId AND p.active = 1
+              AND m.conversation_id IN (:conversationIds)
+              AND m.is_deleted = 0
+              AND m.sender_id <> :userId
+              AND (p.last_read_at IS NULL OR m.created_at > p.last_read_at)
+            GROUP BY m.conversation_id
+            """;
+
+    /**
+     * {@code OperationChatParticipantRepository.backfillUnreadCounts}.
+     */
+    private static final String BACKFILL_UNREAD_COUNTS = """
+            UPDATE operation_chat_participants p
+            SET p.unread_count = (
+                SELECT COUNT(*)
+                FROM operation_chat_messages m
+                WHERE m.conversation_id = p.conversation_id
+                  AND m.is_deleted = false
+                  AND m.sender_id <> p.user_id
+                  AND (p.last_read_at IS NULL OR m.created_at > p.last_read_at)
+            )
+            WHERE p.unread_count IS NULL
+            """;
+
+    @Param({"100", "1000"})
+    public int conversationsPerUser;
+
+    private MySQLContainer<?> mysql;
+    private JdbcTemplate jdbcTemplate;
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mysql = new MySQLContainer<>("mysql:8.0");
+        mysql.start();
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                mysql.getJdbcUrl() + "?rewriteBatchedStatements=true", mysql.getUsername(), mysql.getPassword()));
+        namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+
+        createSchema();
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        mysql.stop();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> inbox(Blackhole blackhole) {
+        List<Map<String, Object>> page = jdbcTemplate.queryForList(INBOX_PAGE, USER_ID, PAGE_SIZE, 0);
+        blackhole.consume(jdbcTemplate.queryForObject(INBOX_COUNT, Long.class, USER_ID));
+        return page;
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> inboxNotBackfilled(Blackhole blackhole) {
+        List<Map<String, Object>> page = jdbcTemplate.queryForList(
+                INBOX_PAGE, NOT_BACKFILLED_USER_ID, PAGE_SIZE, 0);
+        blackhole.consume(jdbcTemplate.queryForObject(INBOX_COUNT, Long.class, NOT_BACKFILLED_USER_ID));
+
+        List<Object> conversationIds = page.stream().map(row -> row.get("conversation_id")).toList();
+        blackhole.consume(namedJdbcTemplate.queryForList(UNREAD_BY_CONVERSATION,
+                Map.of("userId", NOT_BACKFILLED_USER_ID, "conversationIds", conversationIds)));
+        return page;
+    }
+
+    @Benchmark
+    public List<Long> previousInbox(Blackhole blackhole) {
+        List<Map<String, Object>> page = jdbcTemplate.queryForList(INBOX_PAGE, USER_ID, PAGE_SIZE, 0);
+        blackhole.consume(jdbcTemplate.queryForObject(INBOX_COUNT, Long.class, USER_ID));
+
+        List<Long> unreadCounts = new ArrayList<>(page.size());
+        for (Map<String, Object> row : page) {
+            Object conversationId = row.get("conversation_id");
+            Map<String, Object> participant = jdbcTemplate.queryForMap("""
+                    SELECT * FROM operation_chat_participants
+                    WHERE conversation_id = ? AND user_id = ? AND active = 1
+                    """, conversationId, USER_ID);
+            Timestamp lastReadAt = (Timestamp) participant.get("last_read_at");
+            unreadCounts.add(lastReadAt == null
+                    ? jdbcTemplate.queryForObject("""
+                            SELECT COUNT(m.id) FROM operation_chat_messages m
+                            WHERE m.conversation_id = ? AND m.is_deleted = 0 AND m.sender_id <> ?
+                            """, Long.class, conversationId, USER_ID)
+                    : jdbcTemplate.queryForObject("""
+                            SELECT COUNT(m.id) FROM operation_chat_messages m
+                            WHERE m.conversation_id = ? AND m.is_deleted = 0 AND m.sender_id <> ?
+                              AND m.created_at > ?
+                            """, Long.class, conversationId, USER_ID, lastReadAt));
+        }
+        return unreadCounts;
+    }
+
+    private void createSchema() {
+        jdbcTemplate.execute("CREATE TABLE seq (n INT NOT NULL PRIMARY KEY)");
+        jdbcTemplate.execute("""
+                CREATE TABLE operation_chat_conversations (
+                    id BIGINT NOT NULL PRIMARY KEY,
+                    context_type VARCHAR(50) NOT NULL,
+                    reference_id BIGINT NOT NULL,
+                    title VARCHAR(255),
+                    status VARCHAR(30) NOT NULL,
+                    created_by BIGINT NOT NULL,
+                    last_message VARCHAR(1000),
+                    last_message_at DATETIME(6),
+                    is_deleted BIT NOT NULL,
+                    created_at DATETIME(6) NOT NULL,
+                    KEY idx_chat_context (context_type, reference_id),
+                    KEY idx_chat_status (status),
+                    KEY idx_chat_last_message_at (last_message_at)
+                )
+                """);
+        jdbcTemplate.execute("""
+                CREATE TABLE operation_chat_participants (
+                    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+                    conversation_id BIGINT NOT NULL,
+                    user_id BIGINT NOT NULL,
+                    last_read_at DATETIME(6),
+                    unread_count BIGINT,
+                    active BIT NOT NULL,
+                    joined_at DATETIME(6) NOT NULL,
+                    KEY idx_chat_participant_conversation (conversation_id),
+                    KEY idx_chat_participant_user (user_id)
+                )
+                """);
+        jdbcTemplate.execute("""
+                CREATE TABLE operation_chat_messages (
+                    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+                    conversation_id BIGINT NOT NULL,
+                    sender_id BIGINT NOT NULL,
+                    message VARCHAR(4000),
+                    message_type VARCHAR(50) NOT NULL,
+                    is_edited BIT NOT NULL,
+                    is_deleted BIT NOT NULL,
+                    created_at DATETIME(6) NOT NULL,
+                    KEY idx_chat_msg_conversation (conversation_id),
+                    KEY idx_chat_msg_sender (sender_id),
+                    KEY idx_chat_msg_created_at (created_at)
+                )
+                """);
+    }
+
+    /**
+     * Conversation {@code c} is between users {@code c % 50 + 1} and another
+     * user picked by an offset of 1 to 49, so every user is in about
+     * {@link #conversationsPerUser} of them. Messages alternate senders one
+     * second apart; each participant has read the first ten.
+     */
+    private void seed() {
+        List<Object[]> sequence = new ArrayList<>(1000);
+        for (int n = 0; n < 1000; n++) {
+            sequence.add(new Object[]{n});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO seq (n) VALUES (?)", sequence);
+
+        int conversations = USERS * conversationsPerUser / 2;
+        jdbcTemplate.update("""
+                INSERT INTO operation_chat_conversations
+                    (id, context_type, reference_id, title, status, created_by, last_message, last_message_at,
+                     is_deleted, created_at)
+                SELECT id, 'LEGAL_REQUEST', id, CONCAT('LEGAL_REQUEST-', id), 'OPEN', id % ? + 1,
+                       'Latest message', TIMESTAMP('2025-01-01') + INTERVAL id MINUTE + INTERVAL ? SECOND,
+                       0, TIMESTAMP('2025-01-01') + INTERVAL id MINUTE
+                FROM (SELECT a.n * 1000 + b.n + 1 AS id FROM seq a CROSS JOIN seq b) ids
+                WHERE id <= ?
+                """, USERS, MESSAGES_PER_CONVERSATION - 1, conversations);
+
+        String firstUser = "id % " + USERS + " + 1";
+        String secondUser = "(id + 1 + (id DIV " + USERS + ") % " + (USERS - 1) + ") % " + USERS + " + 1";
+        String participants = """
+                INSERT INTO operation_chat_participants
+                    (conversation_id, user_id, last_read_at, unread_count, active, joined_at)
+                SELECT id, %s, created_at + INTERVAL 9 SECOND, NULL, 1, created_at
+                FROM operation_chat_conversations
+                """;
+        jdbcTemplate.update(participants.formatted(firstUser));
+        jdbcTemplate.update(participants.formatted(secondUser));
+
+        jdbcTemplate.update("""
+                INSERT INTO operation_chat_messages
+                    (conversation_id, sender_id, message, message_type, is_edited, is_deleted, created_at)
+                SELECT c.id, IF(MOD(m.n, 2) = 0, %s, %s), CONCAT('Message ', m.n), 'TEXT', 0, 0,
+                       c.created_at + INTERVAL m.n SECOND
+                FROM operation_chat_conversations c JOIN seq m ON m.n < ?
+                """.formatted(firstUser.replace("id", "c.id"), secondUser.replace("id", "c.id")),
+                MESSAGES_PER_CONVERSATION);
+
+        jdbcTemplate.update(BACKFILL_UNREAD_COUNTS);
+        jdbcTemplate.update("UPDATE operation_chat_participants SET unread_count = NULL WHERE user_id = ?",
+                NOT_BACKFILLED_USER_ID);
+        jdbcTemplate.execute("ANALYZE TABLE operation_chat_conversations, operation_chat_participants, "
+                + "operation_chat_messages");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OperationChatInboxBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,247 @@
+package com.doc.impl.chat;
+
+import com.doc.dto.chat.ChatAttachmentRequestDto;
+import com.doc.dto.chat.OperationChatConversationResponseDto;
+import com.doc.dto.chat.OperationChatMessageResponseDto;
+import com.doc.dto.chat.SendOperationChatMessageRequestDto;
+import com.doc.dto.chat.StartOperationChatRequestDto;
+import com.doc.em.chat.OperationChatContextType;
+import com.doc.em.chat.OperationChatConversationStatus;
+import com.doc.entity.chat.OperationChatAttachment;
+import com.doc.entity.chat.OperationChatConversation;
+import com.doc.entity.chat.OperationChatMessage;
+import com.doc.entity.chat.OperationChatParticipant;
+import com.doc.entity.user.User;
+import com.doc.repository.UserRepository;
+import com.doc.repository.chat.OperationChatAttachmentRepository;
+import com.doc.repository.chat.OperationChatConversationRepository;
+import com.doc.repository.chat.OperationChatMessageRepository;
+import com.doc.repository.chat.OperationChatParticipantRepository;
+import com.doc.repository.projection.ChatUnreadCountProjection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class OperationChatServiceTest {
+
+    private static final long CONVERSATION_ID = 5L;
+    private static final long ALICE = 1L;
+    private static final long BOB = 2L;
+
+    private final OperationChatConversationRepository conversationRepository =
+            mock(OperationChatConversationRepository.class);
+    private final OperationChatParticipantRepository participantRepository =
+            mock(OperationChatParticipantRepository.class);
+    private final OperationChatMessageRepository messageRepository = mock(OperationChatMessageRepository.class);
+    private final OperationChatAttachmentRepository attachmentRepository =
+            mock(OperationChatAttachmentRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    private OperationChatService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new OperationChatService(conversationRepository, participantRepository, messageRepository,
+                attachmentRepository, userRepository, mock(SimpMessagingTemplate.class));
+
+        when(userRepository.findActiveUserById(ALICE)).thenReturn(Optional.of(user(ALICE, "Alice")));
+        when(userRepository.findActiveUserById(BOB)).thenReturn(Optional.of(user(BOB, "Bob")));
+        when(conversationRepository.save(any())).thenAnswer(invocation -> {
+            OperationChatConversation saved = invocation.getArgument(0);
+            if (saved.getId() == null) {
+                saved.setId(CONVERSATION_ID);
+            }
+            return saved;
+        });
+        when(messageRepository.save(any())).thenAnswer(invocation -> {
+            OperationChatMessage saved = invocation.getArgument(0);
+            saved.setId(100L);
+            return saved;
+        });
+        when(attachmentRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void sentMessageIsCountedAsUnreadForTheOtherParticipants() {
+        when(conversationRepository.findById(CONVERSATION_ID)).thenReturn(Optional.of(conversation()));
+        when(participantRepository.existsByConversation_IdAndUser_IdAndActiveTrue(CONVERSATION_ID, ALICE))
+                .thenReturn(true);
+
+        OperationChatMessageResponseDto sent = service.sendMessage(CONVERSATION_ID, message(ALICE, "Hello"));
+
+        verify(participantRepository).incrementUnreadCount(CONVERSATION_ID, ALICE);
+        assertThat(sent.getAttachments()).isEmpty();
+        verifyNoInteractions(attachmentRepository);
+    }
+
+    @Test
+    void sentMessageReturnsTheAttachmentsItSavedWithoutReadingThemBack() {
+        when(conversationRepository.findById(CONVERSATION_ID)).thenReturn(Optional.of(conversation()));
+        when(participantRepository.existsByConversation_IdAndUser_IdAndActiveTrue(CONVERSATION_ID, ALICE))
+                .thenReturn(true);
+        SendOperationChatMessageRequestDto request = message(ALICE, "See attached");
+        ChatAttachmentRequestDto attachment = new ChatAttachmentRequestDto();
+        attachment.setFileUrl("https://files.example.com/quote.pdf");
+        attachment.setFileName("quote.pdf");
+        request.setAttachments(List.of(attachment));
+
+        OperationChatMessageResponseDto sent = service.sendMessage(CONVERSATION_ID, request);
+
+        assertThat(sent.getAttachments()).singleElement()
+                .satisfies(a -> assertThat(a.getFileName()).isEqualTo("quote.pdf"));
+        verify(attachmentRepository, never()).findByMessage_Id(any());
+        verify(attachmentRepository, never()).findByMessageIds(any());
+        verify(participantRepository).incrementUnreadCount(CONVERSATION_ID, ALICE);
+    }
+
+    @Test
+    void readingTheConversationResetsTheCounter() {
+        OperationChatParticipant participant = participant(BOB, 3L);
+        when(participantRepository.findByConversation_IdAndUser_IdAndActiveTrue(CONVERSATION_ID, BOB))
+                .thenReturn(Optional.of(participant));
+
+        service.markAsRead(CONVERSATION_ID, BOB);
+
+        verify(participantRepository).save(participant);
+        assertThat(participant.getUnreadCount()).isZero();
+        assertThat(participant.getLastReadAt()).isNotNull();
+    }
+
+    @Test
+    void participantsOfANewConversationStartWithNothingUnread() {
+        when(conversationRepository.findByContextTypeAndReferenceIdAndDeletedFalse(any(), any()))
+                .thenReturn(Optional.empty());
+
+        service.startChat(start(ALICE, BOB));
+
+        ArgumentCaptor<OperationChatParticipant> saved = ArgumentCaptor.forClass(OperationChatParticipant.class);
+        verify(participantRepository, times(2)).save(saved.capture());
+        assertThat(saved.getAllValues()).extracting(OperationChatParticipant::getUnreadCount).containsOnly(0L);
+        verify(messageRepository, never()).countUnreadMessagesWhenNeverRead(any(), any());
+    }
+
+    @Test
+    void userJoiningAnExistingConversationStartsWithEarlierMessagesUnread() {
+        when(conversationRepository.findByContextTypeAndReferenceIdAndDeletedFalse(any(), any()))
+                .thenReturn(Optional.of(conversation()));
+        when(participantRepository.existsByConversation_IdAndUser_IdAndActiveTrue(CONVERSATION_ID, ALICE))
+                .thenReturn(true);
+        when(messageRepository.countUnreadMessagesWhenNeverRead(CONVERSATION_ID, BOB)).thenReturn(4L);
+
+        service.startChat(start(ALICE, BOB));
+
+        ArgumentCaptor<OperationChatParticipant> saved = ArgumentCaptor.forClass(OperationChatParticipant.class);
+        verify(participantRepository).save(saved.capture());
+        assertThat(saved.getValue().getUser().getId()).isEqualTo(BOB);
+        assertThat(saved.getValue().getUnreadCount()).isEqualTo(4L);
+    }
+
+    @Test
+    void inboxReadsStoredCountersAndCountsRowsNotYetBackfilledInOneQuery() {
+        OperationChatParticipant counted = participant(BOB, 3L);
+        OperationChatParticipant notBackfilled = participant(BOB, null);
+        notBackfilled.getConversation().setId(6L);
+        when(participantRepository.findInbox(eq(BOB), any()))
+                .thenReturn(new PageImpl<>(List.of(counted, notBackfilled)));
+        ChatUnreadCountProjection computed = mock(ChatUnreadCountProjection.class);
+        when(computed.getConversationId()).thenReturn(6L);
+        when(computed.getUnreadCount()).thenReturn(9L);
+        when(messageRepository.countUnreadMessagesByConversation(BOB, List.of(6L))).thenReturn(List.of(computed));
+
+        Page<OperationChatConversationResponseDto> inbox = service.getConversations(BOB, 0, 30);
+
+        assertThat(inbox.getContent()).extracting(OperationChatConversationResponseDto::getId,
+                        OperationChatConversationResponseDto::getUnreadCount)
+                .containsExactly(tuple(CONVERSATION_ID, 3L), tuple(6L, 9L));
+        verify(messageRepository, times(1)).countUnreadMessagesByConversation(any(), any());
+        verify(messageRepository, never()).countUnreadMessagesWhenNeverRead(any(), any());
+        verify(messageRepository, never()).countUnreadMessagesAfterLastRead(any(), any(), any());
+        verify(participantRepository, never()).findByConversation_IdAndUser_IdAndActiveTrue(any(), any());
+    }
+
+    @Test
+    void messagePageLoadsTheAttachmentsOfAllMessagesInOneQuery() {
+        when(participantRepository.existsByConversation_IdAndUser_IdAndActiveTrue(CONVERSATION_ID, BOB))
+                .thenReturn(true);
+        OperationChatMessage first = savedMessage(100L);
+        OperationChatMessage second = savedMessage(101L);
+        when(messageRepository.findMessagesByConversationId(eq(CONVERSATION_ID), any()))
+                .thenReturn(new PageImpl<>(List.of(first, second)));
+        when(attachmentRepository.findByMessageIds(List.of(100L, 101L))).thenReturn(List.of(
+                OperationChatAttachment.builder().id(1L).message(second).fileName("a.pdf").build(),
+                OperationChatAttachment.builder().id(2L).message(second).fileName("b.pdf").build()));
+
+        Page<OperationChatMessageResponseDto> page = service.getMessages(CONVERSATION_ID, BOB, 0, 30);
+
+        assertThat(page.getContent().get(0).getAttachments()).isEmpty();
+        assertThat(page.getContent().get(1).getAttachments()).extracting("fileName")
+                .containsExactly("a.pdf", "b.pdf");
+        verify(attachmentRepository, times(1)).findByMessageIds(any());
+        verify(attachmentRepository, never()).findByMessage_Id(any());
+    }
+
+    private static User user(long id, String name) {
+        User user = new User();
+        user.setId(id);
+        user.setFullName(name);
+        return user;
+    }
+
+    private static OperationChatConversation conversation() {
+        return OperationChatConversation.builder()
+                .id(CONVERSATION_ID)
+                .contextType(OperationChatContextType.LEGAL_REQUEST)
+                .referenceId(77L)
+                .title("LEGAL_REQUEST-77")
+                .status(OperationChatConversationStatus.OPEN)
+                .createdBy(ALICE)
+                .lastMessageAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static OperationChatParticipant participant(long userId, Long unreadCount) {
+        return OperationChatParticipant.builder()
+                .conversation(conversation())
+                .user(user(userId, "User " + userId))
+                .active(true)
+                .unreadCount(unreadCount)
+                .build();
+    }
+
+    private static OperationChatMessage savedMessage(long id) {
+        return OperationChatMessage.builder()
+                .id(id)
+                .conversation(conversation())
+                .sender(user(ALICE, "Alice"))
+                .message("Message " + id)
+                .build();
+    }
+
+    private static SendOperationChatMessageRequestDto message(long senderId, String text) {
+        SendOperationChatMessageRequestDto request = new SendOperationChatMessageRequestDto();
+        request.setSenderId(senderId);
+        request.setMessage(text);
+        return request;
+    }
+
+    private static StartOperationChatRequestDto start(long createdBy, long receiverId) {
+        StartOperationChatRequestDto request = new StartOperationChatRequestDto();
+        request.setContextType(OperationChatContextType.LEGAL_REQUEST);
+        request.setReferenceId(77L);
+        request.setCreatedBy(createdBy);
+        request.setReceiverId(receiverId);
+        return request;
+    }
+}
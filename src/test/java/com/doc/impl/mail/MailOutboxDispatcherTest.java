@@ -0,0 +1,166 @@
+package com.doc.impl.mail;
+
+import com.doc.em.MailCallbackType;
+import com.doc.em.MailOutboxStatus;
+import com.doc.entity.mail.MailOutbox;
+import com.doc.repository.MailOutboxRepository;
+import com.doc.service.mail.MailDeliveryCallback;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MailOutboxDispatcherTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long INITIAL_BACKOFF_SECONDS = 30;
+
+    @RegisterExtension
+    static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private final MailOutboxRepository repository = mock(MailOutboxRepository.class);
+    private final MailDeliveryCallback callback = mock(MailDeliveryCallback.class);
+    private MailOutboxDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    void sendsDueMailsOverSmtpAndMarksThemSent() throws Exception {
+        JavaMailSenderImpl smtp = new JavaMailSenderImpl();
+        smtp.setHost("localhost");
+        smtp.setPort(greenMail.getSmtp().getPort());
+        MailOutbox first = entry(1L, "a@example.com", 0);
+        MailOutbox second = entry(2L, "b@example.com", 0);
+        second.setCallbackType(MailCallbackType.RFQ_VENDOR);
+        second.setCallbackReferenceId(42L);
+        dispatcher = dispatcher(smtp, first, second);
+
+        dispatcher.dispatch();
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(2);
+        assertThat(Arrays.stream(received).map(this::recipient)).containsExactlyInAnyOrder("a@example.com", "b@example.com");
+        verify(repository).markSent(argThat(ids -> ids.containsAll(List.of(1L, 2L)) && ids.size() == 2), any());
+        verify(repository, never()).recordFailure(anyLong(), any(), anyInt(), any(), any());
+        verify(callback).onSent(42L, "b@example.com", 7L);
+    }
+
+    @Test
+    void rejectedRecipientIsRetriedWithBackoffWhileTheRestAreSent() {
+        JavaMailSender sender = mock(JavaMailSender.class);
+        when(sender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage((Session) null));
+        doAnswer(invocation -> {
+            MimeMessage[] messages = (MimeMessage[]) invocation.getRawArguments()[0];
+            MimeMessage rejected = Arrays.stream(messages)
+                    .filter(m -> "bad@example.com".equals(recipient(m)))
+                    .findFirst()
+                    .orElseThrow();
+            throw new MailSendException(Map.<Object, Exception>of(rejected, new RuntimeException("550 mailbox unavailable")));
+        }).when(sender).send(ArgumentMatchers.<MimeMessage[]>any());
+        dispatcher = dispatcher(sender, entry(1L, "good@example.com", 0), entry(2L, "bad@example.com", 0));
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.dispatch();
+
+        verify(repository).markSent(eq(List.of(1L)), any());
+        ArgumentCaptor<LocalDateTime> nextAttempt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(repository).recordFailure(eq(2L), eq(MailOutboxStatus.PENDING), eq(1), nextAttempt.capture(),
+                contains("550 mailbox unavailable"));
+        assertThat(nextAttempt.getValue()).isAfterOrEqualTo(before.plusSeconds(INITIAL_BACKOFF_SECONDS));
+    }
+
+    @Test
+    void connectionFailureLeavesEveryMailPendingForRetry() {
+        JavaMailSenderImpl unreachable = new JavaMailSenderImpl();
+        unreachable.setHost("localhost");
+        unreachable.setPort(1);
+        dispatcher = dispatcher(unreachable, entry(1L, "a@example.com", 0), entry(2L, "b@example.com", 1));
+
+        dispatcher.dispatch();
+
+        verify(repository, never()).markSent(any(), any());
+        verify(repository).recordFailure(eq(1L), eq(MailOutboxStatus.PENDING), eq(1), any(), any());
+        verify(repository).recordFailure(eq(2L), eq(MailOutboxStatus.PENDING), eq(2), any(), any());
+    }
+
+    @Test
+    void lastFailedAttemptMovesTheMailToDeadLetterAndNotifiesTheCallback() {
+        JavaMailSender sender = mock(JavaMailSender.class);
+        when(sender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage((Session) null));
+        doThrow(new MailSendException("535 authentication failed")).when(sender).send(ArgumentMatchers.<MimeMessage[]>any());
+        MailOutbox entry = entry(1L, "a@example.com", MAX_ATTEMPTS - 1);
+        entry.setCallbackType(MailCallbackType.RFQ_VENDOR);
+        entry.setCallbackReferenceId(42L);
+        dispatcher = dispatcher(sender, entry);
+
+        dispatcher.dispatch();
+
+        verify(repository).recordFailure(eq(1L), eq(MailOutboxStatus.DEAD), eq(MAX_ATTEMPTS), any(),
+                contains("535 authentication failed"));
+        verify(callback).onFailed(eq(42L), eq("a@example.com"), eq(7L), contains("535 authentication failed"));
+        verify(callback, never()).onSent(any(), any(), any());
+    }
+
+    private MailOutboxDispatcher dispatcher(JavaMailSender sender, MailOutbox... due) {
+        when(repository.lockDue(any(), anyInt())).thenReturn(List.of(due)).thenReturn(List.of());
+        when(callback.type()).thenReturn(MailCallbackType.RFQ_VENDOR);
+
+        MimeMessageFactory factory = new MimeMessageFactory(sender);
+        ReflectionTestUtils.setField(factory, "fromMail", "noreply@example.com");
+
+        MailOutboxDispatcher dispatcher = new MailOutboxDispatcher(repository, sender, factory, List.of(callback),
+                mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), 2);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 100);
+        ReflectionTestUtils.setField(dispatcher, "messagesPerConnection", 20);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", MAX_ATTEMPTS);
+        ReflectionTestUtils.setField(dispatcher, "initialBackoffSeconds", INITIAL_BACKOFF_SECONDS);
+        ReflectionTestUtils.setField(dispatcher, "maxBackoffSeconds", 3600L);
+        ReflectionTestUtils.setField(dispatcher, "leaseSeconds", 300L);
+        return dispatcher;
+    }
+
+    private static MailOutbox entry(Long id, String to, int attempts) {
+        MailOutbox entry = new MailOutbox();
+        entry.setId(id);
+        entry.setToAddress(to);
+        entry.setSubject("RFQ " + id);
+        entry.setBody("<p>Please quote</p>");
+        entry.setHtml(true);
+        entry.setAttempts(attempts);
+        entry.setCreatedBy(7L);
+        entry.setCreatedDate(LocalDateTime.now());
+        entry.setNextAttemptAt(LocalDateTime.now());
+        return entry;
+    }
+
+    private String recipient(MimeMessage message) {
+        try {
+            return message.getAllRecipients()[0].toString();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.doc.impl.project;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.MySQLContainer;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of one page of a regular user's project list on a MySQL seeded
+ * with 10k and 100k milestone assignments (ten per project, spread over 200
+ * users, half of them visible). The measured user holds 0.5% of the
+ * assignments, like any other.
+ *
+ * {@code visibleMilestonePage} runs the SQL of
+ * {@code ProjectRepository.findWithVisibleMilestoneForUserAndStatusIn} and
+ * its count query. {@code previousPage} runs what the list did before: the
+ * assigned-projects page and count, then per project the assignment read of
+ * the visibility recalculation and the visible-milestone lookup (the
+ * recalculation writes only when visibility changes, which it does not
+ * here). Both tables carry the indexes of the entities.
+ *
+ * Needs Docker. Run with {@code mvn test-compile exec:java
+ * -Dexec.classpathScope=test -Dexec.mainClass=com.doc.impl.project.ProjectListingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjectListingBenchmark {
+
+    private static final int ASSIGNMENTS_PER_PROJECT = 10;
+    private static final int USERS = 200;
+    private static final long USER_ID = 7L;
+    private static final int PAGE_SIZE = 20;
+    private static final String[] STATUSES = {"OPEN", "IN_PROGRESS", "COMPLETED", "CANCELLED"};
+    private static final String LISTED_STATUSES = "'OPEN', 'IN_PROGRESS'";
+
+    private static final String VISIBLE_PAGE = """
+            SELECT p.* FROM project p JOIN project_statuses s ON s.id = p.status_id
+            WHERE p.is_deleted = 0 AND s.name IN (%s)
+              AND EXISTS (SELECT 1 FROM project_milestone_assignment a
+                          WHERE a.project_id = p.id AND a.assigned_user_id = ?
+                            AND a.is_visible = 1 AND a.is_deleted = 0)
+            ORDER BY p.created_date DESC LIMIT ? OFFSET ?
+            """.formatted(LISTED_STATUSES);
+
+    private static final String VISIBLE_COUNT = """
+            SELECT COUNT(p.id) FROM project p JOIN project_statuses s ON s.id = p.status_id
+            WHERE p.is_deleted = 0 AND s.name IN (%s)
+              AND EXISTS (SELECT 1 FROM project_milestone_assignment a
+                          WHERE a.project_id = p.id AND a.assigned_user_id = ?
+                            AND a.is_visible = 1 AND a.is_deleted = 0)
+            """.formatted(LISTED_STATUSES);
+
+    private static final String ASSIGNED_PAGE = """
+            SELECT DISTINCT p.* FROM project p JOIN project_statuses s ON s.id = p.status_id
+            WHERE p.is_deleted = 0 AND s.name IN (%s)
+              AND EXISTS (SELECT 1 FROM project_milestone_assignment a
+                          WHERE a.project_id = p.id AND a.assigned_user_id IN (?) AND a.is_deleted = 0)
+            ORDER BY p.created_date DESC LIMIT ? OFFSET ?
+            """.formatted(LISTED_STATUSES);
+
+    private static final String ASSIGNED_COUNT = """
+            SELECT COUNT(DISTINCT p.id) FROM project p JOIN project_statuses s ON s.id = p.status_id
+            WHERE p.is_deleted = 0 AND s.name IN (%s)
+              AND EXISTS (SELECT 1 FROM project_milestone_assignment a
+                          WHERE a.project_id = p.id AND a.assigned_user_id IN (?) AND a.is_deleted = 0)
+            """.formatted(LISTED_STATUSES);
+
+    @Param({"10000", "100000"})
+    public int assignments;
+
+    private MySQLContainer<?> mysql;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mysql = new MySQLContainer<>("mysql:8.0");
+        mysql.start();
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                mysql.getJdbcUrl() + "?rewriteBatchedStatements=true", mysql.getUsername(), mysql.getPassword()));
+
+        jdbcTemplate.execute("""
+                CREATE TABLE project_statuses (
+                    id BIGINT NOT NULL PRIMARY KEY,
+                    name VARCHAR(50) NOT NULL
+                )
+                """);
+        jdbcTemplate.execute("""
+                CREATE TABLE project (
+                    id BIGINT NOT NULL PRIMARY KEY,
+                    name VARCHAR(255) NOT NULL,
+                    status_id BIGINT NOT NULL,
+                    created_date DATETIME(6),
+                    is_deleted BIT NOT NULL,
+                    KEY idx_status_id (status_id)
+                )
+                """);
+        jdbcTemplate.execute("""
+                CREATE TABLE project_milestone_assignment (
+                    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+                    project_id BIGINT NOT NULL,
+                    assigned_user_id BIGINT,
+                    is_visible BIT NOT NULL,
+                    is_deleted BIT NOT NULL,
+                    KEY idx_project_id (project_id),
+                    KEY idx_assigned_user_id (assigned_user_id),
+                    KEY idx_is_visible (is_visible),
+                    KEY idx_assignee_visible_project (assigned_user_id, is_visible, is_deleted, project_id)
+                )
+                """);
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        mysql.stop();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> visibleMilestonePage() {
+        List<Map<String, Object>> page = jdbcTemplate.queryForList(VISIBLE_PAGE, USER_ID, PAGE_SIZE, 0);
+        jdbcTemplate.queryForObject(VISIBLE_COUNT, Long.class, USER_ID);
+        return page;
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> previousPage() {
+        List<Map<String, Object>> page = jdbcTemplate.queryForList(ASSIGNED_PAGE, USER_ID, PAGE_SIZE, 0);
+        jdbcTemplate.queryForObject(ASSIGNED_COUNT, Long.class, USER_ID);
+
+        List<Map<String, Object>> visible = new ArrayList<>();
+        for (Map<String, Object> project : page) {
+            Object projectId = project.get("id");
+            jdbcTemplate.queryForList(
+                    "SELECT * FROM project_milestone_assignment WHERE project_id = ? AND is_deleted = 0", projectId);
+            boolean hasVisibleMilestone = !jdbcTemplate.queryForList(
+                    "SELECT * FROM project_milestone_assignment WHERE project_id = ? AND assigned_user_id = ? "
+                            + "AND is_visible = 1 AND is_deleted = 0", projectId, USER_ID).isEmpty();
+            if (hasVisibleMilestone) {
+                visible.add(project);
+            }
+        }
+        return visible;
+    }
+
+    private void seed() {
+        for (int i = 0; i < STATUSES.length; i++) {
+            jdbcTemplate.update("INSERT INTO project_statuses (id, name) VALUES (?, ?)", i + 1, STATUSES[i]);
+        }
+
+        Random random = new Random(42);
+        int projects = assignments / ASSIGNMENTS_PER_PROJECT;
+        LocalDateTime start = LocalDateTime.of(2022, 1, 1, 0, 0);
+
+        List<Object[]> projectRows = new ArrayList<>(projects);
+        List<Object[]> assignmentRows = new ArrayList<>(assignments);
+        for (long projectId = 1; projectId <= projects; projectId++) {
+            projectRows.add(new Object[]{projectId, "Project " + projectId, 1 + random.nextInt(STATUSES.length),
+                    Timestamp.valueOf(start.plusMinutes(random.nextInt(1_000_000))), false});
+            for (int m = 0; m < ASSIGNMENTS_PER_PROJECT; m++) {
+                assignmentRows.add(new Object[]{projectId, 1L + random.nextInt(USERS), random.nextBoolean(),
+                        random.nextInt(50) == 0});
+            }
+        }
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO project (id, name, status_id, created_date, is_deleted) VALUES (?, ?, ?, ?, ?)",
+                projectRows);
+        jdbcTemplate.batchUpdate("INSERT INTO project_milestone_assignment "
+                + "(project_id, assigned_user_id, is_visible, is_deleted) VALUES (?, ?, ?, ?)", assignmentRows);
+        jdbcTemplate.execute("ANALYZE TABLE project, project_milestone_assignment");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProjectListingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,208 @@
+package com.doc.impl.project;
+
+import com.doc.cache.ReferenceDataService;
+import com.doc.constants.StatusConstants;
+import com.doc.dashboard.DashboardRollupService;
+import com.doc.dto.project.MilestoneVisibilityBackfillResponseDto;
+import com.doc.dto.project.ProjectResponseDto;
+import com.doc.entity.project.Project;
+import com.doc.entity.project.ProjectStatus;
+import com.doc.entity.user.User;
+import com.doc.feign.LeadFeignClient;
+import com.doc.hierarchy.UserHierarchyIndex;
+import com.doc.hierarchy.UserScope;
+import com.doc.projectdetail.ProjectDetailCache;
+import com.doc.projectdetail.ProjectDetailReader;
+import com.doc.repository.*;
+import com.doc.repository.department.DepartmentAutoConfigRepository;
+import com.doc.repository.documentRepo.ApplicantTypeRepository;
+import com.doc.repository.documentRepo.DocumentStatusRepository;
+import com.doc.repository.documentRepo.ProjectDocumentUploadRepository;
+import com.doc.repository.projectRepo.ProjectStatusRepository;
+import com.doc.repository.vendor.VendorRepository;
+import com.doc.search.ProjectSearchIndex;
+import com.doc.search.ProjectSearchIndexer;
+import com.doc.service.AutoAssignmentService;
+import com.doc.service.ProjectMailService;
+import com.doc.service.ProjectMilestoneAssignmentService;
+import com.doc.validator.request.ProjectRequestValidator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Project listing and counting read the milestone visibility stored on the
+ * assignments; the backfill recalculates it project by project.
+ */
+class ProjectServiceImplTest {
+
+    private static final long USER_ID = 7L;
+
+    private final ProjectRepository projectRepository = mock(ProjectRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final ProjectMilestoneAssignmentRepository assignmentRepository =
+            mock(ProjectMilestoneAssignmentRepository.class);
+    private final ReferenceDataService referenceDataService = mock(ReferenceDataService.class);
+    private final UserHierarchyIndex userHierarchyIndex = mock(UserHierarchyIndex.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    private ProjectServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ProjectServiceImpl(
+                projectRepository,
+                userRepository,
+                mock(ProductRepository.class),
+                mock(CompanyRepository.class),
+                mock(ContactRepository.class),
+                mock(PaymentTypeRepository.class),
+                mock(ProjectPaymentDetailRepository.class),
+                mock(ProjectPaymentTransactionRepository.class),
+                assignmentRepository,
+                mock(ProjectAssignmentHistoryRepository.class),
+                mock(UserPerformanceCountRepository.class),
+                mock(UserProductMapRepository.class),
+                mock(UserLoginStatusRepository.class),
+                mock(ProjectDocumentUploadRepository.class),
+                mock(MilestoneStatusHistoryRepository.class),
+                referenceDataService,
+                mock(DocumentStatusRepository.class),
+                mock(ProjectStatusRepository.class),
+                mock(DepartmentAutoConfigRepository.class),
+                mock(AutoAssignmentService.class),
+                mock(ProjectRequestValidator.class),
+                mock(VendorRepository.class),
+                mock(CompanyUnitRepository.class),
+                mock(ProductDocumentMappingRepository.class),
+                mock(ProjectMilestoneAssignmentService.class),
+                mock(ApplicantTypeRepository.class),
+                mock(ProcurementMilestoneAssignmentRepository.class),
+                mock(ProjectMailService.class),
+                mock(LeadFeignClient.class),
+                mock(ProjectMilestoneAssignmentBatchRepository.class),
+                mock(ProjectBatchRepository.class),
+                transactionManager,
+                mock(ProjectSearchIndex.class),
+                userHierarchyIndex,
+                mock(ProjectDetailReader.class),
+                mock(ProjectDetailCache.class),
+                mock(ProjectSearchIndexer.class),
+                mock(DashboardRollupService.class)
+        );
+
+        when(referenceDataService.roleNames(USER_ID)).thenReturn(Set.of("EXECUTIVE"));
+    }
+
+    @Test
+    void regularUserListsProjectsWithAVisibleMilestoneInOnePagedQuery() {
+        givenUser(false);
+        when(projectRepository.findWithVisibleMilestoneForUserAndStatusIn(eq(USER_ID), any(), any()))
+                .thenAnswer(invocation -> new PageImpl<>(List.of(project(11L), project(12L)),
+                        invocation.getArgument(2), 40));
+
+        List<ProjectResponseDto> projects = service.getAllProjects(USER_ID, 0, 2, List.of(" open ", "In_Progress"));
+
+        assertThat(projects).extracting(ProjectResponseDto::getId).containsExactly(11L, 12L);
+        verify(projectRepository).findWithVisibleMilestoneForUserAndStatusIn(eq(USER_ID),
+                eq(List.of("OPEN", "IN_PROGRESS")), argThat((Pageable pageable) -> pageable.getPageSize() == 2));
+        verify(projectRepository, never()).findByAssignedUserIdsAndStatusIn(any(), any(), any());
+        // Visibility is read as stored: no recalculation or per-project lookup
+        verify(assignmentRepository, never()).findByProjectIdAndAssignedUserIdAndIsVisibleTrueAndIsDeletedFalse(any(), any());
+        verify(assignmentRepository, never()).findByProjectIdAndIsDeletedFalse(any());
+        verify(assignmentRepository, never()).saveAll(any());
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void managerListsTheProjectsOfTheirTeamRegardlessOfVisibility() {
+        givenUser(true);
+        when(userHierarchyIndex.scopeOf(USER_ID))
+                .thenReturn(new UserScope(USER_ID, Set.of(USER_ID, 8L), List.of(USER_ID, 8L), false));
+        when(projectRepository.findByAssignedUserIdsAndStatusIn(any(), any(), any()))
+                .thenReturn(new PageImpl<>(List.of(project(11L))));
+
+        service.getAllProjects(USER_ID, 0, 20, List.of("OPEN"));
+
+        verify(projectRepository).findByAssignedUserIdsAndStatusIn(eq(List.of(USER_ID, 8L)), eq(List.of("OPEN")), any());
+        verify(projectRepository, never()).findWithVisibleMilestoneForUserAndStatusIn(any(), any(), any());
+    }
+
+    @Test
+    void regularUserCountUsesTheSameVisibilityRule() {
+        givenUser(false);
+        when(projectRepository.countWithVisibleMilestoneForUser(USER_ID)).thenReturn(40L);
+
+        assertThat(service.getProjectCount(USER_ID)).isEqualTo(40L);
+        verify(projectRepository, never()).countByAssignedUserIds(any());
+    }
+
+    @Test
+    void backfillRecalculatesEachProjectInItsOwnTransactionAndContinuesPastFailures() {
+        when(projectRepository.findIdsForVisibilityBackfill(eq(100L), eq(3L), any()))
+                .thenReturn(List.of(101L, 102L, 103L));
+        when(projectRepository.findById(101L)).thenReturn(Optional.of(cancelledProject(101L)));
+        when(projectRepository.findById(102L)).thenThrow(new IllegalStateException("lock wait timeout"));
+        when(projectRepository.findById(103L)).thenReturn(Optional.of(cancelledProject(103L)));
+
+        MilestoneVisibilityBackfillResponseDto response = service.backfillMilestoneVisibility(100L, 3L, 3, USER_ID);
+
+        assertThat(response.getProcessedCount()).isEqualTo(2);
+        assertThat(response.getFailedProjectIds()).containsExactly(102L);
+        assertThat(response.getLastProjectId()).isEqualTo(103L);
+        assertThat(response.isHasMore()).isTrue();
+        verify(transactionManager, times(3)).getTransaction(argThat((TransactionDefinition definition) ->
+                definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        verify(transactionManager, times(2)).commit(any());
+        verify(transactionManager, times(1)).rollback(any());
+    }
+
+    @Test
+    void backfillReportsTheEndOnAShortBatchAndCapsTheBatchSize() {
+        when(projectRepository.findIdsForVisibilityBackfill(eq(0L), isNull(), any()))
+                .thenReturn(List.of(5L));
+
+        MilestoneVisibilityBackfillResponseDto response = service.backfillMilestoneVisibility(null, null, 50_000, USER_ID);
+
+        assertThat(response.isHasMore()).isFalse();
+        assertThat(response.getLastProjectId()).isEqualTo(5L);
+        verify(projectRepository).findIdsForVisibilityBackfill(eq(0L), isNull(),
+                argThat((Pageable pageable) -> pageable.getPageSize() == 1000));
+    }
+
+    private void givenUser(boolean manager) {
+        User user = new User();
+        user.setId(USER_ID);
+        user.setManagerFlag(manager);
+        when(userRepository.findActiveUserById(USER_ID)).thenReturn(Optional.of(user));
+    }
+
+    private static Project project(long id) {
+        Project project = new Project();
+        project.setId(id);
+        project.setName("Project " + id);
+        project.setDate(LocalDate.now());
+        return project;
+    }
+
+    private static Project cancelledProject(long id) {
+        ProjectStatus cancelled = new ProjectStatus();
+        cancelled.setId(StatusConstants.PROJECT_CANCELLED_ID);
+        cancelled.setName("CANCELLED");
+        Project project = project(id);
+        project.setStatus(cancelled);
+        return project;
+    }
+}
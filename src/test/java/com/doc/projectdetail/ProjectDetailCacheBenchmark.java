@@ -0,0 +1,107 @@
+package com.doc.projectdetail;
+
+import com.doc.repository.ContactRepository;
+import com.doc.repository.ProjectMilestoneAssignmentRepository;
+import com.doc.repository.ProjectRepository;
+import com.doc.repository.projection.ProjectDetailHeaderProjection;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.stubbing.Answer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Latency of one project detail read with a simulated database round trip
+ * of 0, 250 and 1000 microseconds per query.
+ *
+ * {@code cachedRead} is a read answered from {@link ProjectDetailCache}: one
+ * version lookup by primary key. {@code uncachedRead} assembles the view
+ * with {@link ProjectDetailReader}: the version lookup and the three
+ * assembly queries. The header has a company and a unit so the contact
+ * query runs; milestones and contacts come back empty, so the numbers show
+ * round trips rather than mapping cost. In production the same split is
+ * reported by the {@code project.detail.read} timer (tagged hit and miss)
+ * and the {@code project.detail.load} timer.
+ *
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.doc.projectdetail.ProjectDetailCacheBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProjectDetailCacheBenchmark {
+
+    private static final long PROJECT_ID = 1L;
+
+    @Param({"0", "250", "1000"})
+    public long queryMicros;
+
+    private ProjectRepository projectRepository;
+    private ProjectDetailCache cache;
+    private ProjectDetailReader reader;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ProjectDetailHeaderProjection header = mock(ProjectDetailHeaderProjection.class);
+        when(header.getId()).thenReturn(PROJECT_ID);
+        when(header.getName()).thenReturn("Project 1");
+        when(header.getCompanyId()).thenReturn(10L);
+        when(header.getUnitId()).thenReturn(20L);
+
+        projectRepository = mock(ProjectRepository.class);
+        when(projectRepository.findDetailVersionById(anyLong())).thenAnswer(roundTrip(Optional.of(7L)));
+        when(projectRepository.findDetailHeaderById(anyLong())).thenAnswer(roundTrip(Optional.of(header)));
+        ProjectMilestoneAssignmentRepository assignmentRepository = mock(ProjectMilestoneAssignmentRepository.class);
+        when(assignmentRepository.findDetailByProjectId(anyLong())).thenAnswer(roundTrip(List.of()));
+        ContactRepository contactRepository = mock(ContactRepository.class);
+        when(contactRepository.findForProjectDetail(any(), any())).thenAnswer(roundTrip(List.of()));
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        reader = new ProjectDetailReader(projectRepository, assignmentRepository, contactRepository, meterRegistry);
+        cache = new ProjectDetailCache(projectRepository, mock(PlatformTransactionManager.class),
+                meterRegistry, 2000, 300);
+        cache.get(PROJECT_ID, () -> reader.load(PROJECT_ID));
+    }
+
+    @Benchmark
+    public Optional<ProjectDetailView> cachedRead() {
+        return cache.get(PROJECT_ID, () -> reader.load(PROJECT_ID));
+    }
+
+    @Benchmark
+    public Optional<ProjectDetailView> uncachedRead() {
+        // What a miss does: the version lookup, then the assembly
+        projectRepository.findDetailVersionById(PROJECT_ID);
+        return reader.load(PROJECT_ID);
+    }
+
+    private Answer<Object> roundTrip(Object result) {
+        return invocation -> {
+            if (queryMicros > 0) {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(queryMicros));
+            }
+            return result;
+        };
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProjectDetailCacheBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}